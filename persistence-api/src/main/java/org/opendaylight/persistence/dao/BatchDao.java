@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.dao;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+/**
+ * Data Access Object able to add several objects in a batch: The objects are sent to the data store
+ * together (For example, a single JDBC batch) instead of one round trip per object.
+ * <p>
+ * A DAO should be used by {@link org.opendaylight.persistence.Query queries}.
+ *
+ * @param <I> type of the identifiable object's id. This type should be immutable and it is critical
+ *            it implements {@link Object#equals(Object)} and {@link Object#hashCode()} correctly.
+ * @param <T> type of the identifiable object (object to store in the data store)
+ * @param <C> type of the query's execution context; the context managed by the
+ *            {@link org.opendaylight.persistence.DataStore}
+ */
+public interface BatchDao<I extends Serializable, T extends Identifiable<I>, C> extends BaseDao<I, T, C> {
+
+    /**
+     * Adds the given objects to the data store.
+     *
+     * @param identifiables objects to store
+     * @param context data store context
+     * @throws PersistenceException if persistence errors occur while executing the operation
+     */
+    void addAll(@Nonnull Collection<T> identifiables, @Nonnull C context) throws PersistenceException;
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.dao;
+
+import java.io.Serializable;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+/**
+ * Data Access Object able to lock objects for writing.
+ * <p>
+ * A DAO should be used by {@link org.opendaylight.persistence.Query queries}.
+ *
+ * @param <I> type of the identifiable object's id. This type should be immutable and it is critical
+ *            it implements {@link Object#equals(Object)} and {@link Object#hashCode()} correctly.
+ * @param <T> type of the identifiable object (object to store in the data store)
+ * @param <C> type of the query's execution context; the context managed by the
+ *            {@link org.opendaylight.persistence.DataStore}
+ */
+public interface LockableDao<I extends Serializable, T extends Identifiable<I>, C> extends BaseDao<I, T, C> {
+
+    /**
+     * Loads the object with the given id from the data store and locks it for writing: Other
+     * transactions attempting to lock or to modify the object block until the transaction executing
+     * the query ends.
+     *
+     * @param id object's id
+     * @param context data store context
+     * @return the object if found, {@code null} otherwise
+     * @throws PersistenceException if persistence errors occur while executing the operation
+     */
+    T getForUpdate(@Nonnull I id, @Nonnull C context) throws PersistenceException;
+}
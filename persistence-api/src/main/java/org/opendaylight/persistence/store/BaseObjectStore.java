@@ -16,6 +16,7 @@ import org.opendaylight.persistence.IntegrityConstraintViolationException;
 import org.opendaylight.persistence.PersistenceException;
 import org.opendaylight.persistence.Query;
 import org.opendaylight.persistence.dao.BaseDao;
+import org.opendaylight.persistence.util.common.Converter;
 import org.opendaylight.yangtools.concepts.Identifiable;
 
 /**
@@ -91,4 +92,34 @@ public interface BaseObjectStore<I extends Serializable, T extends Identifiable<
      * @throws PersistenceException if persistence errors occur while executing the operation
      */
     boolean exist(@Nonnull I id) throws PersistenceException;
+
+    /**
+     * Atomically replaces the object with the given id by the result of {@code remapping}: The
+     * object is loaded, remapped and stored in a single transaction.
+     * <ul>
+     * <li>{@code remapping} receives the current object, or {@code null} if it does not exist.</li>
+     * <li>If {@code remapping} returns {@code null} the object is deleted (if it exists).</li>
+     * <li>Otherwise the returned object is added or updated. It must keep the id.</li>
+     * </ul>
+     * {@code remapping} may be called more than once if implementations retry on conflicts, thus it
+     * must be free of side effects other than modifying its input.
+     * 
+     * @param id object's id
+     * @param remapping function to compute the new object from the current one
+     * @return the new object, {@code null} if there is none
+     * @throws PersistenceException if persistence errors occur while executing the operation
+     */
+    T compute(@Nonnull I id, @Nonnull Converter<T, T> remapping) throws PersistenceException;
+
+    /**
+     * Atomically replaces the object with the given id by the result of {@code remapping} if the
+     * object exists. See {@link #compute(Serializable, Converter)}.
+     * 
+     * @param id object's id
+     * @param remapping function to compute the new object from the current one; it receives a
+     *            non-null object
+     * @return the new object, {@code null} if the object does not exist or if it was deleted
+     * @throws PersistenceException if persistence errors occur while executing the operation
+     */
+    T computeIfPresent(@Nonnull I id, @Nonnull Converter<T, T> remapping) throws PersistenceException;
 }
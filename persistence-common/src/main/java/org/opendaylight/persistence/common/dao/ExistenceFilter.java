@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.dao;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.opendaylight.persistence.util.common.type.CountingBloomFilter;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * Probabilistic id membership filter a DAO may use to avoid data store round trips when looking up
+ * ids that do not exist, which is the common case when storing new objects (See
+ * {@link org.opendaylight.persistence.common.query.StoreQuery}).
+ * <p>
+ * The filter is populated from an id-only scan of the data store ({@link #populate(Iterable)}) and
+ * kept current by the DAO on add ({@link #add(Object)}) and delete ({@link #remove(Object)}).
+ * {@link #mightExist(Object)} answering {@code false} means the id is definitely absent; answering
+ * {@code true} means the data store must be consulted.
+ * <p>
+ * The filter is not transactional. An id added in a transaction that is rolled back stays in the
+ * filter, which just causes a false positive. Removing an id that is still in the data store causes
+ * false negatives, thus the DAO must only remove ids of deletions that have been committed, and
+ * rather than clearing the filter while transactions may add objects it must {@link #invalidate()}
+ * it and populate it again.
+ * <p>
+ * This class is thread safe.
+ */
+public final class ExistenceFilter implements ExistenceFilterMXBean {
+
+    private final CountingBloomFilter filter;
+    private volatile boolean populated;
+
+    private final AtomicLong lookupCount;
+    private final AtomicLong skippedLookupCount;
+    private final AtomicLong falsePositiveCount;
+
+    /**
+     * Creates an existence filter.
+     *
+     * @param expectedIds
+     *            expected number of ids in the data store
+     * @param falsePositiveRate
+     *            desired false positive rate when the data store holds {@code expectedIds} ids
+     */
+    public ExistenceFilter(int expectedIds, double falsePositiveRate) {
+        this.filter = new CountingBloomFilter(expectedIds, falsePositiveRate);
+        this.lookupCount = new AtomicLong();
+        this.skippedLookupCount = new AtomicLong();
+        this.falsePositiveCount = new AtomicLong();
+    }
+
+    @Override
+    public boolean isPopulated() {
+        return this.populated;
+    }
+
+    /**
+     * Populates the filter with the ids already in the data store. Ids added while populating are
+     * kept.
+     *
+     * @param ids
+     *            ids in the data store
+     */
+    public synchronized void populate(Iterable<?> ids) {
+        Preconditions.checkNotNull(ids, "ids");
+        if (this.populated) {
+            return;
+        }
+
+        for (Object id : ids) {
+            this.filter.add(id);
+        }
+        this.populated = true;
+    }
+
+    /**
+     * Records an id added to the data store. Ids are recorded even before the filter is populated
+     * so ids added by transactions not yet visible to the populating scan are not missed.
+     *
+     * @param id
+     *            id added to the data store
+     */
+    public void add(Object id) {
+        this.filter.add(Preconditions.checkNotNull(id, "id"));
+    }
+
+    /**
+     * Records an id deleted from the data store. Ids are only removed once the filter is populated,
+     * since removing an id that has not been recorded would cause false negatives.
+     *
+     * @param id
+     *            id deleted from the data store
+     */
+    public void remove(Object id) {
+        Preconditions.checkNotNull(id, "id");
+        if (this.populated) {
+            this.filter.remove(id);
+        }
+    }
+
+    /**
+     * Records that all ids have been deleted from the data store. Ids added by transactions running
+     * concurrently are dropped as well, see {@link #invalidate()}.
+     */
+    public void clear() {
+        this.filter.clear();
+    }
+
+    /**
+     * Verifies whether an id might exist in the data store. If the filter has not been populated it
+     * is assumed the id might exist.
+     *
+     * @param id
+     *            id to verify
+     * @return {@code false} if {@code id} definitely does not exist, {@code true} if the data store
+     *         must be consulted
+     */
+    public boolean mightExist(Object id) {
+        Preconditions.checkNotNull(id, "id");
+        if (!this.populated) {
+            return true;
+        }
+
+        this.lookupCount.incrementAndGet();
+        if (!this.filter.contains(id)) {
+            this.skippedLookupCount.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records that an id reported by {@link #mightExist(Object)} as possibly existing was not found
+     * in the data store.
+     */
+    public void reportFalsePositive() {
+        this.falsePositiveCount.incrementAndGet();
+    }
+
+    @Override
+    public synchronized void invalidate() {
+        this.populated = false;
+        this.filter.clear();
+    }
+
+    @Override
+    public long getIdCount() {
+        return this.filter.getElementCount();
+    }
+
+    @Override
+    public long getMemoryUsage() {
+        return this.filter.getMemoryUsage();
+    }
+
+    @Override
+    public long getLookupCount() {
+        return this.lookupCount.get();
+    }
+
+    @Override
+    public long getSkippedLookupCount() {
+        return this.skippedLookupCount.get();
+    }
+
+    @Override
+    public long getFalsePositiveCount() {
+        return this.falsePositiveCount.get();
+    }
+
+    @Override
+    public double getExpectedFalsePositiveRate() {
+        return this.filter.getExpectedFalsePositiveProbability();
+    }
+
+    @Override
+    public double getObservedFalsePositiveRate() {
+        long falsePositives = this.falsePositiveCount.get();
+        long absentLookups = falsePositives + this.skippedLookupCount.get();
+        return absentLookups == 0 ? 0 : (double) falsePositives / absentLookups;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("populated", isPopulated()).add("idCount", getIdCount())
+                .add("memoryUsage", getMemoryUsage()).add("lookupCount", getLookupCount())
+                .add("skippedLookupCount", getSkippedLookupCount())
+                .add("falsePositiveCount", getFalsePositiveCount())
+                .add("expectedFalsePositiveRate", getExpectedFalsePositiveRate())
+                .add("observedFalsePositiveRate", getObservedFalsePositiveRate()).toString();
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.dao;
+
+/**
+ * Management interface of {@link ExistenceFilter}: Exposes the filter metrics through JMX.
+ */
+public interface ExistenceFilterMXBean {
+
+    /**
+     * Verifies whether the filter has been populated with the ids already in the data store.
+     *
+     * @return {@code true} if the filter has been populated, {@code false} otherwise
+     */
+    boolean isPopulated();
+
+    /**
+     * Gets the approximate number of ids in the filter.
+     *
+     * @return the approximate number of ids
+     */
+    long getIdCount();
+
+    /**
+     * Gets the memory used by the filter.
+     *
+     * @return the memory used in bytes
+     */
+    long getMemoryUsage();
+
+    /**
+     * Gets the number of existence lookups answered by the filter.
+     *
+     * @return the number of lookups
+     */
+    long getLookupCount();
+
+    /**
+     * Gets the number of lookups where the id was definitely absent, thus the data store was not
+     * accessed.
+     *
+     * @return the number of skipped data store lookups
+     */
+    long getSkippedLookupCount();
+
+    /**
+     * Gets the number of lookups where the filter reported a possibly existing id that was not found
+     * in the data store.
+     *
+     * @return the number of false positives
+     */
+    long getFalsePositiveCount();
+
+    /**
+     * Gets the false positive rate predicted from the current number of ids.
+     *
+     * @return the expected false positive rate
+     */
+    double getExpectedFalsePositiveRate();
+
+    /**
+     * Gets the observed false positive rate: False positives over lookups of absent ids.
+     *
+     * @return the observed false positive rate, {@code 0} if no absent id has been looked up
+     */
+    double getObservedFalsePositiveRate();
+
+    /**
+     * Discards the filter content: Lookups consult the data store until the filter is populated
+     * again.
+     */
+    void invalidate();
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.dao;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.datastore.ShardedContext;
+import org.opendaylight.persistence.util.common.type.page.Page;
+
+/**
+ * K-way merge of the sorted results of a paged search executed against all shards.
+ * <p>
+ * Shards are read in chunks through a cursor each. The first chunk of every shard is fetched in
+ * parallel and is sized to the shard's fair share of the objects needed (Hash sharding distributes
+ * objects evenly); a shard running out of fetched objects before the merge completes is read
+ * further in chunks of doubling size. A shard is never asked for more objects than the merge needs,
+ * thus over-fetching is bounded by one chunk per shard instead of a full page per shard.
+ * <p>
+ * This class is not thread safe: An instance is used for a single merge.
+ * 
+ * @param <T> type of the merged objects
+ * @param <P> type of the shard pages
+ * @param <C> type of the context provided by the shards to enable execution
+ */
+abstract class ShardMerge<T, P extends Page<?, T>, C> {
+
+    private final ShardedContext<C> context;
+    private final Comparator<? super T> comparator;
+
+    ShardMerge(ShardedContext<C> context, Comparator<? super T> comparator) {
+        this.context = context;
+        this.comparator = comparator;
+    }
+
+    /**
+     * Creates the query to fetch a chunk from a shard.
+     * 
+     * @param shard shard index
+     * @param last last object fetched from the shard in merge order, {@code null} for the first chunk
+     * @param fetched number of objects fetched from the shard so far
+     * @param size chunk size
+     * @return the query
+     */
+    protected abstract Query<P, C> createChunkQuery(int shard, T last, long fetched, int size);
+
+    /**
+     * Gets the objects of a chunk in merge order.
+     * 
+     * @param shard shard index
+     * @param chunk chunk fetched from the shard
+     * @return the objects of {@code chunk}
+     */
+    protected List<T> getData(int shard, P chunk) {
+        return chunk.getData();
+    }
+
+    /**
+     * Merges the shards' objects.
+     * 
+     * @param skip number of objects to skip
+     * @param size maximum number of objects to merge after the skipped ones
+     * @return the merged objects
+     * @throws PersistenceException if persistence errors occur while fetching
+     */
+    public List<T> merge(long skip, int size) throws PersistenceException {
+        int shardCount = this.context.getShardCount();
+        long needed = skip + size;
+        int initialChunkSize = chunkSize((needed + shardCount - 1) / shardCount);
+
+        List<Query<P, C>> queries = new ArrayList<Query<P, C>>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            queries.add(createChunkQuery(shard, null, 0, initialChunkSize));
+        }
+        List<P> chunks = this.context.execute(queries);
+
+        PriorityQueue<Cursor<T>> queue = new PriorityQueue<Cursor<T>>(shardCount, new Comparator<Cursor<T>>() {
+            @Override
+            public int compare(Cursor<T> a, Cursor<T> b) {
+                int result = ShardMerge.this.comparator.compare(a.peek(), b.peek());
+                return result != 0 ? result : Integer.compare(a.shard, b.shard);
+            }
+        });
+        List<Cursor<T>> cursors = new ArrayList<Cursor<T>>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            Cursor<T> cursor = new Cursor<T>(shard);
+            cursors.add(cursor);
+            if (cursor.load(getData(shard, chunks.get(shard)), initialChunkSize, needed)) {
+                queue.add(cursor);
+            }
+        }
+
+        List<T> result = new ArrayList<T>(size);
+        long skipped = 0;
+        while (result.size() < size && !queue.isEmpty()) {
+            Cursor<T> cursor = queue.poll();
+            T next = cursor.next();
+            if (skipped < skip) {
+                skipped++;
+            } else {
+                result.add(next);
+            }
+
+            if (!cursor.hasNext() && !cursor.exhausted) {
+                int chunkSize = chunkSize(Math.min(cursor.chunkSize * 2L, needed - cursor.fetched));
+                P chunk = this.context.execute(cursor.shard,
+                        createChunkQuery(cursor.shard, next, cursor.fetched, chunkSize));
+                cursor.load(getData(cursor.shard, chunk), chunkSize, needed);
+            }
+
+            if (cursor.hasNext()) {
+                queue.add(cursor);
+            }
+        }
+
+        return result;
+    }
+
+    private static int chunkSize(long size) {
+        return (int) Math.max(1, Math.min(size, Integer.MAX_VALUE));
+    }
+
+    private static final class Cursor<T> {
+        private final int shard;
+        private List<T> data;
+        private int position;
+        private int chunkSize;
+        private long fetched;
+        private boolean exhausted;
+
+        Cursor(int shard) {
+            this.shard = shard;
+        }
+
+        /**
+         * Loads a chunk.
+         * 
+         * @return {@code true} if the chunk has objects, {@code false} otherwise
+         */
+        boolean load(List<T> chunk, int requestedSize, long needed) {
+            this.data = chunk;
+            this.position = 0;
+            this.chunkSize = requestedSize;
+            this.fetched += chunk.size();
+            // A short chunk means the shard has no more objects; past the needed ones none is used
+            this.exhausted = chunk.size() < requestedSize || this.fetched >= needed;
+            return !chunk.isEmpty();
+        }
+
+        boolean hasNext() {
+            return this.position < this.data.size();
+        }
+
+        T peek() {
+            return this.data.get(this.position);
+        }
+
+        T next() {
+            return this.data.get(this.position++);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.dao;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.common.datastore.ShardedContext;
+import org.opendaylight.persistence.common.query.CountQuery;
+import org.opendaylight.persistence.common.query.DeleteQuery;
+import org.opendaylight.persistence.common.query.FindQuery;
+import org.opendaylight.persistence.dao.Dao;
+import org.opendaylight.persistence.util.common.type.NullOrdering;
+import org.opendaylight.persistence.util.common.type.Sort;
+import org.opendaylight.persistence.util.common.type.SortOrder;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link Dao} for a {@link org.opendaylight.persistence.common.datastore.ShardedDataStore}:
+ * Searches are executed against all shards in parallel (Scatter-gather) and their sorted results
+ * are merged.
+ * <p>
+ * Merging requires sorting objects in memory exactly the same way shards sort them, thus subclasses
+ * provide the value of each sort attribute ({@link #getSortValue(Identifiable, Object)}) and the
+ * position of null values is given at construction (The delegate DAO's {@code ORDER BY} leaves it to
+ * the database). Results with equal sort values keep the shard order.
+ * 
+ * @param <I> type of the identifiable object's id
+ * @param <T> type of the identifiable object (object to store in the data store)
+ * @param <F> type of the associated filter
+ * @param <S> type of the associated sort attribute or sort key used to construct sort
+ *            specifications
+ * @param <C> type of the context provided by the shards to enable execution
+ */
+public abstract class ShardedDao<I extends Serializable, T extends Identifiable<I>, F, S, C> extends
+        ShardedKeyValueDao<I, T, C> implements Dao<I, T, F, S, ShardedContext<C>> {
+
+    private final Dao<I, T, F, S, C> delegate;
+    private final NullOrdering nullOrdering;
+
+    /**
+     * Creates a sharded DAO.
+     * 
+     * @param delegate DAO to execute the operations in each shard
+     * @param nullOrdering where the shards' database sorts null values
+     */
+    public ShardedDao(@Nonnull Dao<I, T, F, S, C> delegate, @Nonnull NullOrdering nullOrdering) {
+        super(delegate);
+        this.delegate = delegate;
+        this.nullOrdering = Preconditions.checkNotNull(nullOrdering, "nullOrdering");
+    }
+
+    @Override
+    public List<T> find(F filter, List<Sort<S>> sort, ShardedContext<C> context) throws PersistenceException {
+        List<T> result = new ArrayList<T>();
+        for (List<T> shardResult : context.executeAll(FindQuery.createQuery(filter, sort, this.delegate))) {
+            result.addAll(shardResult);
+        }
+
+        if (sort != null && !sort.isEmpty()) {
+            // The merge sort detects the sorted run of each shard, merging them in O(n log(shards))
+            Collections.sort(result, getComparator(sort));
+        }
+        return result;
+    }
+
+    @Override
+    public long count(F filter, ShardedContext<C> context) throws PersistenceException {
+        return sum(context.executeAll(CountQuery.createQuery(filter, this.delegate)));
+    }
+
+    @Override
+    public void delete(F filter, ShardedContext<C> context) throws PersistenceException {
+        context.executeAll(DeleteQuery.createQuery(filter, this.delegate));
+    }
+
+    /**
+     * Gets the value of a sort attribute.
+     * 
+     * @param identifiable object
+     * @param sortAttribute sort attribute
+     * @return the value of {@code sortAttribute} in {@code identifiable}; its natural order must be
+     *         the order the shards' database sorts the attribute's column by, including the
+     *         collation for strings (For example, {@link String#compareTo(String)} matches a binary
+     *         collation but not a case insensitive one)
+     */
+    protected abstract Comparable<?> getSortValue(T identifiable, S sortAttribute);
+
+    /**
+     * Gets a comparator that sorts objects as stated by a sort specification. The comparator must
+     * sort exactly as the {@code ORDER BY} the delegate DAO generates for {@code sort} does in each
+     * shard, otherwise merged results are out of order: Values are compared by their natural order
+     * (See {@link #getSortValue(Identifiable, Object)}) and null values as stated by the
+     * {@link NullOrdering} given at construction.
+     * 
+     * @param sort sort specification
+     * @return a comparator
+     */
+    protected Comparator<T> getComparator(@Nonnull final List<Sort<S>> sort) {
+        // Result of comparing null to a value in ascending order
+        final int nullComparison = this.nullOrdering == NullOrdering.LOW ? -1 : 1;
+        return new Comparator<T>() {
+            @SuppressWarnings({ "rawtypes", "unchecked" })
+            @Override
+            public int compare(T a, T b) {
+                for (Sort<S> component : sort) {
+                    Comparable valueA = getSortValue(a, component.by());
+                    Comparable valueB = getSortValue(b, component.by());
+                    int result;
+                    if (valueA == null) {
+                        result = valueB == null ? 0 : nullComparison;
+                    } else if (valueB == null) {
+                        result = -nullComparison;
+                    } else {
+                        result = valueA.compareTo(valueB);
+                    }
+
+                    if (result != 0) {
+                        return component.order() == SortOrder.DESCENDING ? -result : result;
+                    }
+                }
+                return 0;
+            }
+        };
+    }
+}
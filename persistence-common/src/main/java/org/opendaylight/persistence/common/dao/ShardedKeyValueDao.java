@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.dao;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.common.datastore.ShardedContext;
+import org.opendaylight.persistence.common.query.AddQuery;
+import org.opendaylight.persistence.common.query.ClearQuery;
+import org.opendaylight.persistence.common.query.DeleteByIdQuery;
+import org.opendaylight.persistence.common.query.ExistQuery;
+import org.opendaylight.persistence.common.query.GetAllQuery;
+import org.opendaylight.persistence.common.query.GetQuery;
+import org.opendaylight.persistence.common.query.SizeQuery;
+import org.opendaylight.persistence.common.query.UpdateQuery;
+import org.opendaylight.persistence.dao.KeyValueDao;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link KeyValueDao} for a {@link org.opendaylight.persistence.common.datastore.ShardedDataStore}:
+ * Operations by id are executed against the shard the id belongs to, the rest against all shards in
+ * parallel. Each shard uses the same delegate DAO.
+ * <p>
+ * Objects are assigned to shards by their id, thus ids must be assigned by the application before
+ * objects are added (Ids generated by a shard's database are not supported).
+ * 
+ * @param <I> type of the identifiable object's id
+ * @param <T> type of the identifiable object (object to store in the data store)
+ * @param <C> type of the context provided by the shards to enable execution
+ */
+public class ShardedKeyValueDao<I extends Serializable, T extends Identifiable<I>, C> implements
+        KeyValueDao<I, T, ShardedContext<C>> {
+
+    private final KeyValueDao<I, T, C> delegate;
+
+    /**
+     * Creates a sharded DAO.
+     * 
+     * @param delegate DAO to execute the operations in each shard
+     */
+    public ShardedKeyValueDao(@Nonnull KeyValueDao<I, T, C> delegate) {
+        this.delegate = Preconditions.checkNotNull(delegate, "delegate");
+    }
+
+    @Override
+    public T add(T identifiable, ShardedContext<C> context) throws PersistenceException {
+        return context.execute(getShard(identifiable, context), AddQuery.createQuery(identifiable, this.delegate));
+    }
+
+    @Override
+    public T update(T identifiable, ShardedContext<C> context) throws PersistenceException {
+        return context.execute(getShard(identifiable, context), UpdateQuery.createQuery(identifiable, this.delegate));
+    }
+
+    @Override
+    public void delete(I id, ShardedContext<C> context) throws PersistenceException {
+        if (id != null) {
+            context.execute(context.getShard(id), DeleteByIdQuery.createQuery(id, this.delegate));
+        }
+    }
+
+    @Override
+    public T get(I id, ShardedContext<C> context) throws PersistenceException {
+        if (id == null) {
+            return null;
+        }
+        return context.execute(context.getShard(id), GetQuery.createQuery(id, this.delegate));
+    }
+
+    @Override
+    public boolean exist(I id, ShardedContext<C> context) throws PersistenceException {
+        if (id == null) {
+            return false;
+        }
+        return context.execute(context.getShard(id), ExistQuery.createQuery(id, this.delegate)).booleanValue();
+    }
+
+    @Override
+    public Collection<T> getAll(ShardedContext<C> context) throws PersistenceException {
+        List<T> all = new ArrayList<T>();
+        for (Collection<T> shardObjects : context.executeAll(GetAllQuery.createQuery(this.delegate))) {
+            all.addAll(shardObjects);
+        }
+        return all;
+    }
+
+    @Override
+    public long size(ShardedContext<C> context) throws PersistenceException {
+        return sum(context.executeAll(SizeQuery.createQuery(this.delegate)));
+    }
+
+    @Override
+    public void clear(ShardedContext<C> context) throws PersistenceException {
+        context.executeAll(ClearQuery.createQuery(this.delegate));
+    }
+
+    static long sum(List<Long> values) {
+        long sum = 0;
+        for (Long value : values) {
+            sum += value.longValue();
+        }
+        return sum;
+    }
+
+    private static int getShard(Identifiable<?> identifiable, ShardedContext<?> context) {
+        Preconditions.checkArgument(identifiable != null, "identifiable cannot be null");
+        Object id = identifiable.getIdentifier();
+        Preconditions.checkArgument(id != null, "identifiable must have an id assigned to be sharded");
+        return context.getShard(id);
+    }
+}
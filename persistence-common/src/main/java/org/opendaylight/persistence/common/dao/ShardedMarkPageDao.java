@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.dao;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.datastore.ShardedContext;
+import org.opendaylight.persistence.common.query.PagedFindQuery;
+import org.opendaylight.persistence.dao.MarkPageDao;
+import org.opendaylight.persistence.util.common.type.NullOrdering;
+import org.opendaylight.persistence.util.common.type.Sort;
+import org.opendaylight.persistence.util.common.type.page.MarkPage;
+import org.opendaylight.persistence.util.common.type.page.MarkPageRequest;
+import org.opendaylight.persistence.util.common.type.page.MarkPageRequest.Navigation;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+import com.google.common.collect.Lists;
+
+/**
+ * {@link MarkPageDao} for a {@link org.opendaylight.persistence.common.datastore.ShardedDataStore}:
+ * A page is the k-way merge of the shards' pages relative to the mark, fetched lazily so a shard is
+ * never asked for more than {@code size} objects (See {@link ShardedDao}). Previous pages are merged
+ * backwards from the mark.
+ * <p>
+ * The mark is sent to every shard, thus the delegate DAO must locate the page by the mark's values
+ * (Sort attributes or id) and not require the mark to be stored in the shard. The sort specification
+ * should end with a unique attribute (The id for example), otherwise objects with sort values equal
+ * to the mark's are ambiguous across shards.
+ * 
+ * @param <I> type of the identifiable object's id
+ * @param <T> type of the identifiable object (object to store in the data store)
+ * @param <F> type of the associated filter
+ * @param <S> type of the associated sort attribute or sort key used to construct sort
+ *            specifications
+ * @param <C> type of the context provided by the shards to enable execution
+ */
+public abstract class ShardedMarkPageDao<I extends Serializable, T extends Identifiable<I>, F, S, C> extends
+        ShardedDao<I, T, F, S, C> implements MarkPageDao<I, T, F, S, ShardedContext<C>> {
+
+    private final MarkPageDao<I, T, F, S, C> delegate;
+
+    /**
+     * Creates a sharded DAO.
+     * 
+     * @param delegate DAO to execute the operations in each shard
+     * @param nullOrdering where the shards' database sorts null values
+     */
+    public ShardedMarkPageDao(@Nonnull MarkPageDao<I, T, F, S, C> delegate, @Nonnull NullOrdering nullOrdering) {
+        super(delegate, nullOrdering);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public MarkPage<T> find(final F filter, final List<Sort<S>> sort, final MarkPageRequest<T> pageRequest,
+            ShardedContext<C> context) throws PersistenceException {
+        final Navigation navigation = pageRequest.getNavigation();
+        final boolean backwards = navigation == Navigation.PREVIOUS;
+        Comparator<T> comparator = getComparator(sort != null ? sort : Collections.<Sort<S>> emptyList());
+
+        ShardMerge<T, MarkPage<T>, C> merge = new ShardMerge<T, MarkPage<T>, C>(context,
+                backwards ? Collections.reverseOrder(comparator) : comparator) {
+
+            @Override
+            protected Query<MarkPage<T>, C> createChunkQuery(int shard, T last, long fetched, int size) {
+                T mark = last != null ? last : pageRequest.getMark();
+                return PagedFindQuery.createQuery(filter, sort, new MarkPageRequest<T>(mark, navigation, size),
+                        ShardedMarkPageDao.this.delegate);
+            }
+
+            @Override
+            protected List<T> getData(int shard, MarkPage<T> chunk) {
+                return backwards ? Lists.reverse(chunk.getData()) : chunk.getData();
+            }
+        };
+
+        List<T> data = merge.merge(0, pageRequest.getSize());
+        if (backwards) {
+            Collections.reverse(data);
+        }
+        return new MarkPage<T>(pageRequest, data);
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.dao;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.datastore.ShardedContext;
+import org.opendaylight.persistence.common.query.PagedFindQuery;
+import org.opendaylight.persistence.dao.OffsetPageDao;
+import org.opendaylight.persistence.util.common.type.NullOrdering;
+import org.opendaylight.persistence.util.common.type.Sort;
+import org.opendaylight.persistence.util.common.type.page.OffsetPage;
+import org.opendaylight.persistence.util.common.type.page.OffsetPageRequest;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+/**
+ * {@link OffsetPageDao} for a {@link org.opendaylight.persistence.common.datastore.ShardedDataStore}:
+ * A page is the k-way merge of the shards' sorted results, fetched lazily so a shard is never asked
+ * for more than {@code offset + size} objects (See {@link ShardedDao}). The total record count is the
+ * sum of the shards' counts.
+ * 
+ * @param <I> type of the identifiable object's id
+ * @param <T> type of the identifiable object (object to store in the data store)
+ * @param <F> type of the associated filter
+ * @param <S> type of the associated sort attribute or sort key used to construct sort
+ *            specifications
+ * @param <C> type of the context provided by the shards to enable execution
+ */
+public abstract class ShardedOffsetPageDao<I extends Serializable, T extends Identifiable<I>, F, S, C> extends
+        ShardedDao<I, T, F, S, C> implements OffsetPageDao<I, T, F, S, ShardedContext<C>> {
+
+    private final OffsetPageDao<I, T, F, S, C> delegate;
+
+    /**
+     * Creates a sharded DAO.
+     * 
+     * @param delegate DAO to execute the operations in each shard
+     * @param nullOrdering where the shards' database sorts null values
+     */
+    public ShardedOffsetPageDao(@Nonnull OffsetPageDao<I, T, F, S, C> delegate, @Nonnull NullOrdering nullOrdering) {
+        super(delegate, nullOrdering);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public OffsetPage<T> find(final F filter, final List<Sort<S>> sort, OffsetPageRequest pageRequest,
+            ShardedContext<C> context) throws PersistenceException {
+        final long[] totalRecordCounts = new long[context.getShardCount()];
+        ShardMerge<T, OffsetPage<T>, C> merge = new ShardMerge<T, OffsetPage<T>, C>(context,
+                getComparator(sort != null ? sort : Collections.<Sort<S>> emptyList())) {
+
+            @Override
+            protected Query<OffsetPage<T>, C> createChunkQuery(int shard, T last, long fetched, int size) {
+                return PagedFindQuery.createQuery(filter, sort, new OffsetPageRequest(fetched, size),
+                        ShardedOffsetPageDao.this.delegate);
+            }
+
+            @Override
+            protected List<T> getData(int shard, OffsetPage<T> chunk) {
+                totalRecordCounts[shard] = chunk.getTotalRecordCount();
+                return chunk.getData();
+            }
+        };
+
+        List<T> data = merge.merge(pageRequest.getOffset(), pageRequest.getSize());
+
+        long totalRecordCount = 0;
+        for (long shardRecordCount : totalRecordCounts) {
+            totalRecordCount += shardRecordCount;
+        }
+        return new OffsetPage<T>(pageRequest, data, totalRecordCount);
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.datastore;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Retry budget: Limits retries to a fraction of the successful executions so retries cannot
+ * multiply the load under sustained contention.
+ * <p>
+ * The budget is a token bucket holding up to {@code maxTokens} tokens, initially full. Each retry
+ * consumes one token and each successful execution deposits {@code tokenRatio} tokens. A retry is
+ * only allowed while the bucket holds at least one token. For example, a ratio of {@code 0.1}
+ * allows one retry every ten successful executions once the initial tokens are consumed.
+ * <p>
+ * This class is thread safe.
+ * 
+ */
+public final class RetryBudget {
+
+    // Tokens are kept in thousandths to use integer arithmetic
+    private static final long SCALE = 1000;
+
+    private final long maxTokens;
+    private final long depositPerSuccess;
+    private final AtomicLong tokens;
+
+    /**
+     * Creates a retry budget.
+     * 
+     * @param maxTokens maximum number of tokens (retries allowed in a burst)
+     * @param tokenRatio tokens deposited per successful execution
+     */
+    public RetryBudget(int maxTokens, double tokenRatio) {
+        Preconditions.checkArgument(maxTokens > 0, "maxTokens must be greater than zero");
+        Preconditions.checkArgument(tokenRatio >= 0, "tokenRatio must not be negative");
+        this.maxTokens = maxTokens * SCALE;
+        this.depositPerSuccess = Math.round(tokenRatio * SCALE);
+        this.tokens = new AtomicLong(this.maxTokens);
+    }
+
+    /**
+     * Creates a budget that never limits retries.
+     * 
+     * @return an unlimited retry budget
+     */
+    public static RetryBudget unlimited() {
+        return new RetryBudget(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Attempts to withdraw a token for a retry.
+     * 
+     * @return {@code true} if the retry is allowed, {@code false} if the budget is exhausted
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long current = this.tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (this.tokens.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Records a successful execution.
+     */
+    public void onSuccess() {
+        if (this.depositPerSuccess == 0) {
+            return;
+        }
+
+        while (true) {
+            long current = this.tokens.get();
+            if (current >= this.maxTokens) {
+                return;
+            }
+            long updated = Math.min(this.maxTokens, current + this.depositPerSuccess);
+            if (this.tokens.compareAndSet(current, updated)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of available tokens.
+     * 
+     * @return the number of retries currently allowed
+     */
+    public double getAvailableTokens() {
+        return (double) this.tokens.get() / SCALE;
+    }
+}
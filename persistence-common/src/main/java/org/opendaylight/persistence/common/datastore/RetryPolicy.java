@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.datastore;
+
+import java.util.Random;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * Retry policy: Maximum number of attempts and exponential backoff with full jitter.
+ * <p>
+ * The delay before retry {@code n} (Starting at 1) is a random value in
+ * {@code [0, min(maxDelay, baseDelay * 2^(n-1)))}. Randomizing the whole interval spreads retries of
+ * writers that collided at the same time, so they do not collide again (Retry storms).
+ * <p>
+ * This class is immutable.
+ * 
+ */
+public final class RetryPolicy {
+
+    private final int maxAttempts;
+    private final long baseDelay;
+    private final long maxDelay;
+
+    /**
+     * Creates a retry policy.
+     * 
+     * @param maxAttempts maximum number of executions (including the first one)
+     * @param baseDelay delay upper bound for the first retry in milliseconds
+     * @param maxDelay maximum delay upper bound in milliseconds
+     */
+    public RetryPolicy(int maxAttempts, long baseDelay, long maxDelay) {
+        Preconditions.checkArgument(maxAttempts > 0, "maxAttempts must be greater than zero");
+        Preconditions.checkArgument(baseDelay >= 0, "baseDelay must not be negative");
+        Preconditions.checkArgument(maxDelay >= baseDelay, "maxDelay must be greater or equal than baseDelay");
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    /**
+     * Gets the maximum number of executions.
+     * 
+     * @return the maximum number of executions (including the first one)
+     */
+    public int getMaxAttempts() {
+        return this.maxAttempts;
+    }
+
+    /**
+     * Gets the delay upper bound for the first retry.
+     * 
+     * @return the base delay in milliseconds
+     */
+    public long getBaseDelay() {
+        return this.baseDelay;
+    }
+
+    /**
+     * Gets the maximum delay upper bound.
+     * 
+     * @return the maximum delay in milliseconds
+     */
+    public long getMaxDelay() {
+        return this.maxDelay;
+    }
+
+    /**
+     * Calculates the delay before a retry.
+     * 
+     * @param retry retry number, starting at 1
+     * @param random random number generator
+     * @return the delay in milliseconds
+     */
+    public long getDelay(int retry, Random random) {
+        Preconditions.checkArgument(retry > 0, "retry must be greater than zero");
+        Preconditions.checkNotNull(random, "random");
+
+        long bound = this.baseDelay;
+        for (int i = 1; i < retry && bound > 0 && bound < this.maxDelay; i++) {
+            bound = bound > this.maxDelay / 2 ? this.maxDelay : bound * 2;
+        }
+
+        return (long) (random.nextDouble() * bound);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("maxAttempts", this.maxAttempts).add("baseDelay", this.baseDelay)
+                .add("maxDelay", this.maxDelay).toString();
+    }
+}
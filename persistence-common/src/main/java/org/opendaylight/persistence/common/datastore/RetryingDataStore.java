@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.datastore;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.query.KeyedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * {@link DataStore} decorator that retries queries failing because of a write conflict (An
+ * optimistic lock failure for example).
+ * <p>
+ * Retries are delayed following a {@link RetryPolicy} (Exponential backoff with jitter) and limited
+ * by a {@link RetryBudget}, so under sustained contention retries do not multiply the load on the
+ * data store. Optionally, writers of the same object in this process can be serialized through a
+ * striped lock keyed by {@link KeyedQuery#getKey()}: Conflicts between them are avoided
+ * altogether and retries are left for conflicts with other processes.
+ * <p>
+ * Retrying a query is only correct if each execution runs in its own transaction, which is the
+ * case when the delegate starts a transaction per {@link #execute(Query)}. A query executed within
+ * an enclosing transaction must not be retried because the enclosing transaction is already marked
+ * for rollback. Queries must also be idempotent up to the conflicting write: They must re-read the
+ * state they modify (See {@link org.opendaylight.persistence.common.query.ComputeQuery}).
+ * <p>
+ * This class is thread safe.
+ * 
+ * @param <C> type of the context provided to queries to enable execution
+ */
+public final class RetryingDataStore<C> implements DataStore<C>, RetryingDataStoreMXBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetryingDataStore.class);
+
+    private final DataStore<C> delegate;
+    private final RetryPolicy policy;
+    private final RetryBudget budget;
+    private final Predicate<? super Throwable> conflictPredicate;
+    private final Striped<Lock> locks;
+    private final Random random;
+
+    private final AtomicLong executionCount;
+    private final AtomicLong conflictCount;
+    private final AtomicLong retryCount;
+    private final AtomicLong failureCount;
+    private final AtomicLong budgetExhaustedCount;
+
+    /**
+     * Creates a retrying data store.
+     * 
+     * @param delegate data store to delegate execution to
+     * @param policy retry policy
+     * @param budget retry budget
+     * @param conflictPredicate predicate that decides whether a failure is a write conflict that may
+     *            succeed if retried
+     * @param locks locks used to serialize writers of the same object in this process, {@code null}
+     *            to disable serialization. For example {@link Striped#lock(int)}.
+     */
+    public RetryingDataStore(@Nonnull DataStore<C> delegate, @Nonnull RetryPolicy policy,
+            @Nonnull RetryBudget budget, @Nonnull Predicate<? super Throwable> conflictPredicate,
+            @Nullable Striped<Lock> locks) {
+        this.delegate = Preconditions.checkNotNull(delegate, "delegate");
+        this.policy = Preconditions.checkNotNull(policy, "policy");
+        this.budget = Preconditions.checkNotNull(budget, "budget");
+        this.conflictPredicate = Preconditions.checkNotNull(conflictPredicate, "conflictPredicate");
+        this.locks = locks;
+        this.random = new Random();
+        this.executionCount = new AtomicLong();
+        this.conflictCount = new AtomicLong();
+        this.retryCount = new AtomicLong();
+        this.failureCount = new AtomicLong();
+        this.budgetExhaustedCount = new AtomicLong();
+    }
+
+    @Override
+    public <T> T execute(Query<T, C> query) throws PersistenceException {
+        Preconditions.checkNotNull(query, "query");
+
+        Lock lock = getLock(query);
+        if (lock == null) {
+            return executeWithRetries(query);
+        }
+
+        lock.lock();
+        try {
+            return executeWithRetries(query);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getExecutionCount() {
+        return this.executionCount.get();
+    }
+
+    @Override
+    public long getConflictCount() {
+        return this.conflictCount.get();
+    }
+
+    @Override
+    public long getRetryCount() {
+        return this.retryCount.get();
+    }
+
+    @Override
+    public long getFailureCount() {
+        return this.failureCount.get();
+    }
+
+    @Override
+    public long getBudgetExhaustedCount() {
+        return this.budgetExhaustedCount.get();
+    }
+
+    @Override
+    public double getConflictRate() {
+        return rate(this.conflictCount.get(), this.executionCount.get());
+    }
+
+    @Override
+    public double getRetryRate() {
+        return rate(this.retryCount.get(), this.executionCount.get());
+    }
+
+    @Override
+    public double getAvailableRetryTokens() {
+        return this.budget.getAvailableTokens();
+    }
+
+    private <T> T executeWithRetries(Query<T, C> query) throws PersistenceException {
+        this.executionCount.incrementAndGet();
+
+        for (int attempt = 1;; attempt++) {
+            try {
+                T result = this.delegate.execute(query);
+                this.budget.onSuccess();
+                return result;
+            } catch (RuntimeException | PersistenceException e) {
+                if (!this.conflictPredicate.apply(e)) {
+                    throw e;
+                }
+
+                this.conflictCount.incrementAndGet();
+
+                if (attempt >= this.policy.getMaxAttempts()) {
+                    this.failureCount.incrementAndGet();
+                    throw e;
+                }
+
+                if (!this.budget.tryAcquire()) {
+                    this.budgetExhaustedCount.incrementAndGet();
+                    this.failureCount.incrementAndGet();
+                    throw e;
+                }
+
+                long delay = this.policy.getDelay(attempt, this.random);
+                LOGGER.debug("Conflict executing query {} (attempt {}), retrying in {} ms",
+                        query.getClass().getSimpleName(), Integer.valueOf(attempt), Long.valueOf(delay));
+                this.retryCount.incrementAndGet();
+                sleep(delay, e);
+            }
+        }
+    }
+
+    private Lock getLock(Query<?, C> query) {
+        if (this.locks == null || !(query instanceof KeyedQuery)) {
+            return null;
+        }
+
+        Object key = ((KeyedQuery<?, C>) query).getKey();
+        if (key == null) {
+            return null;
+        }
+        return this.locks.get(key);
+    }
+
+    private static void sleep(long delay, Exception conflict) throws PersistenceException {
+        if (delay <= 0) {
+            return;
+        }
+
+        try {
+            TimeUnit.MILLISECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            PersistenceException exception = new PersistenceException("Interrupted while waiting to retry", e);
+            exception.addSuppressed(conflict);
+            throw exception;
+        }
+    }
+
+    private static double rate(long count, long total) {
+        return total == 0 ? 0.0 : (double) count / total;
+    }
+}
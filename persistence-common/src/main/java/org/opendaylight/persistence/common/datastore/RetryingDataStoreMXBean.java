@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.datastore;
+
+/**
+ * Management interface of {@link RetryingDataStore}: Exposes the retry metrics through JMX.
+ * 
+ */
+public interface RetryingDataStoreMXBean {
+
+    /**
+     * Gets the number of queries executed, not counting retries.
+     * 
+     * @return the number of executed queries
+     */
+    long getExecutionCount();
+
+    /**
+     * Gets the number of executions that failed because of a write conflict.
+     * 
+     * @return the number of conflicts
+     */
+    long getConflictCount();
+
+    /**
+     * Gets the number of retries.
+     * 
+     * @return the number of retries
+     */
+    long getRetryCount();
+
+    /**
+     * Gets the number of queries that failed because of a conflict after exhausting their attempts
+     * or the retry budget.
+     * 
+     * @return the number of failed queries
+     */
+    long getFailureCount();
+
+    /**
+     * Gets the number of conflicts that were not retried because the retry budget was exhausted.
+     * 
+     * @return the number of conflicts not retried because of the budget
+     */
+    long getBudgetExhaustedCount();
+
+    /**
+     * Gets the ratio of conflicts to executed queries.
+     * 
+     * @return the conflict rate, which may exceed {@code 1.0} if queries conflict repeatedly
+     */
+    double getConflictRate();
+
+    /**
+     * Gets the ratio of retries to executed queries.
+     * 
+     * @return the retry rate
+     */
+    double getRetryRate();
+
+    /**
+     * Gets the number of retries currently allowed by the retry budget.
+     * 
+     * @return the available retry tokens
+     */
+    double getAvailableRetryTokens();
+}
@@ -0,0 +1,346 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.datastore;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.query.ReadQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+
+/**
+ * {@link DataStore} that splits reads from writes: Read queries ({@link ReadQuery}: Get, exist,
+ * find, paged find, count, size and get all) are executed against a pool of replicas and any other
+ * query is executed against the primary data store. Each data store (A
+ * {@code org.opendaylight.persistence.jpa.JpaDataStore} for example) connects to its own database;
+ * replicating the primary database to the replicas is left to the database.
+ * <p>
+ * Replicas are chosen following a {@link Balancing} policy. A read failing on a replica because of
+ * a data store failure (See {@link #isDataStoreFailure(Throwable)}) is executed again against the
+ * primary, so an unavailable replica does not fail reads. The failing replica is then ejected: It
+ * is not chosen for {@value #EJECTION_TIME_SECONDS} seconds, after which it is tried again. Any
+ * other failure belongs to the query (An invalid filter or a failed precondition for example): It
+ * is propagated without failover, since the primary would fail the same way. Failed reads are not taken into account for the replica latency, otherwise a replica
+ * failing fast would look like the fastest one. If all replicas are ejected reads are executed
+ * against the primary.
+ * <p>
+ * Read-your-writes: Replicas lag behind the primary, thus after a thread executes a write its reads
+ * go to the primary for the configured stickiness window. The window must cover the replication lag.
+ * Other threads may still read stale data from replicas within the replication lag, which is the
+ * trade-off of read/write splitting. Read queries must not be executed within an enclosing
+ * transaction of the primary; each {@link #execute(Query)} must run in its own transaction.
+ * <p>
+ * This class is thread safe.
+ * 
+ * @param <C> type of the context provided to queries to enable execution
+ */
+public final class RoutingDataStore<C> implements DataStore<C>, RoutingDataStoreMXBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RoutingDataStore.class);
+
+    // One of every PROBE_INTERVAL reads is balanced round-robin so latency estimates stay current
+    private static final int PROBE_INTERVAL = 16;
+    private static final int LATENCY_SMOOTHING_SHIFT = 3;
+    private static final String CONNECTION_EXCEPTION_SQL_STATE_CLASS = "08";
+
+    /**
+     * Time a replica is not chosen after a read fails on it.
+     */
+    public static final long EJECTION_TIME_SECONDS = 10;
+    private static final long EJECTION_TIME = TimeUnit.SECONDS.toNanos(EJECTION_TIME_SECONDS);
+
+    private final DataStore<C> primary;
+    private final List<DataStore<C>> replicas;
+    private final Balancing balancing;
+    private final long stickinessWindow;
+    private final ThreadLocal<Long> lastWrite;
+
+    private final AtomicInteger nextReplica;
+    private final AtomicLongArray replicaLatencies;
+    private final AtomicLongArray replicaReadCounts;
+    // Value of System.nanoTime() until which the replica is ejected, 0 if it is not ejected
+    private final AtomicLongArray replicaEjections;
+    private final AtomicLong readCount;
+    private final AtomicLong stickyReadCount;
+    private final AtomicLong failoverCount;
+    private final AtomicLong writeCount;
+
+    /**
+     * Creates a routing data store.
+     * 
+     * @param primary data store to execute writes against
+     * @param replicas data stores to execute reads against; if empty all queries are executed
+     *            against {@code primary}
+     * @param balancing policy to choose the replica that executes a read
+     * @param stickinessWindow time after a write during which reads from the same thread are
+     *            executed against {@code primary}; {@code 0} to disable read-your-writes
+     * @param unit time unit of {@code stickinessWindow}
+     */
+    public RoutingDataStore(@Nonnull DataStore<C> primary, @Nonnull List<? extends DataStore<C>> replicas,
+            @Nonnull Balancing balancing, long stickinessWindow, @Nonnull TimeUnit unit) {
+        this.primary = Preconditions.checkNotNull(primary, "primary");
+        Preconditions.checkNotNull(replicas, "replicas");
+        this.replicas = new ArrayList<DataStore<C>>(replicas);
+        for (DataStore<C> replica : this.replicas) {
+            Preconditions.checkNotNull(replica, "replicas cannot contain null");
+        }
+        this.balancing = Preconditions.checkNotNull(balancing, "balancing");
+        Preconditions.checkArgument(stickinessWindow >= 0, "stickinessWindow cannot be negative");
+        this.stickinessWindow = Preconditions.checkNotNull(unit, "unit").toNanos(stickinessWindow);
+        this.lastWrite = new ThreadLocal<Long>();
+
+        this.nextReplica = new AtomicInteger();
+        this.replicaLatencies = new AtomicLongArray(this.replicas.size());
+        this.replicaReadCounts = new AtomicLongArray(this.replicas.size());
+        this.replicaEjections = new AtomicLongArray(this.replicas.size());
+        this.readCount = new AtomicLong();
+        this.stickyReadCount = new AtomicLong();
+        this.failoverCount = new AtomicLong();
+        this.writeCount = new AtomicLong();
+    }
+
+    @Override
+    public <T> T execute(Query<T, C> query) throws PersistenceException {
+        Preconditions.checkNotNull(query, "query");
+
+        if (!(query instanceof ReadQuery)) {
+            this.writeCount.incrementAndGet();
+            try {
+                return this.primary.execute(query);
+            } finally {
+                if (this.stickinessWindow > 0) {
+                    this.lastWrite.set(Long.valueOf(System.nanoTime()));
+                }
+            }
+        }
+
+        this.readCount.incrementAndGet();
+
+        if (this.replicas.isEmpty()) {
+            return this.primary.execute(query);
+        }
+
+        if (isSticky()) {
+            this.stickyReadCount.incrementAndGet();
+            return this.primary.execute(query);
+        }
+
+        int replica = selectReplica();
+        if (replica < 0) {
+            return this.primary.execute(query);
+        }
+
+        this.replicaReadCounts.incrementAndGet(replica);
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = this.replicas.get(replica).execute(query);
+        } catch (PersistenceException | RuntimeException e) {
+            if (!isDataStoreFailure(e)) {
+                throw e;
+            }
+            eject(replica);
+            LOGGER.warn("Read failed on replica {}, executing it against the primary", Integer.valueOf(replica), e);
+            this.failoverCount.incrementAndGet();
+            return this.primary.execute(query);
+        }
+        recordLatency(replica, System.nanoTime() - start);
+        return result;
+    }
+
+    @Override
+    public int getReplicaCount() {
+        return this.replicas.size();
+    }
+
+    @Override
+    public String getBalancing() {
+        return this.balancing.name();
+    }
+
+    @Override
+    public long getReadCount() {
+        return this.readCount.get();
+    }
+
+    @Override
+    public long getStickyReadCount() {
+        return this.stickyReadCount.get();
+    }
+
+    @Override
+    public long getFailoverCount() {
+        return this.failoverCount.get();
+    }
+
+    @Override
+    public long getWriteCount() {
+        return this.writeCount.get();
+    }
+
+    @Override
+    public long[] getReplicaReadCounts() {
+        long[] counts = new long[this.replicas.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = this.replicaReadCounts.get(i);
+        }
+        return counts;
+    }
+
+    @Override
+    public double[] getReplicaLatencies() {
+        double[] latencies = new double[this.replicas.size()];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = this.replicaLatencies.get(i) / 1000000.0;
+        }
+        return latencies;
+    }
+
+    /**
+     * Determines whether a failure is caused by the data store rather than by the query: The cause
+     * chain contains an I/O error (A refused or reset connection for example), a connection
+     * exception or a SQL exception with a connection exception SQL state (Class {@code 08}).
+     * 
+     * @param failure failure of a query execution
+     * @return {@code true} if the data store failed, {@code false} if the query failed
+     */
+    public static boolean isDataStoreFailure(@Nonnull Throwable failure) {
+        for (Throwable cause : Throwables.getCausalChain(failure)) {
+            if (cause instanceof IOException || cause instanceof SQLTransientConnectionException
+                    || cause instanceof SQLNonTransientConnectionException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+
+            if (cause instanceof SQLException) {
+                String sqlState = ((SQLException) cause).getSQLState();
+                if (sqlState != null && sqlState.startsWith(CONNECTION_EXCEPTION_SQL_STATE_CLASS)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isSticky() {
+        if (this.stickinessWindow == 0) {
+            return false;
+        }
+
+        Long lastWriteTime = this.lastWrite.get();
+        if (lastWriteTime == null) {
+            return false;
+        }
+
+        if (System.nanoTime() - lastWriteTime.longValue() < this.stickinessWindow) {
+            return true;
+        }
+
+        this.lastWrite.remove();
+        return false;
+    }
+
+    /**
+     * Chooses the replica to execute a read.
+     * 
+     * @return the index of the replica, or {@code -1} if all replicas are ejected
+     */
+    private int selectReplica() {
+        long now = System.nanoTime();
+        int size = this.replicas.size();
+        int next = this.nextReplica.getAndIncrement() & Integer.MAX_VALUE;
+        if (this.balancing == Balancing.ROUND_ROBIN || next % PROBE_INTERVAL == 0) {
+            for (int i = 0; i < size; i++) {
+                int candidate = (next % size + i) % size;
+                if (!isEjected(candidate, now)) {
+                    return candidate;
+                }
+            }
+            return -1;
+        }
+
+        int selected = -1;
+        long selectedLatency = 0;
+        for (int i = 0; i < size; i++) {
+            if (isEjected(i, now)) {
+                continue;
+            }
+            long latency = this.replicaLatencies.get(i);
+            if (selected < 0 || latency < selectedLatency) {
+                selected = i;
+                selectedLatency = latency;
+            }
+        }
+        return selected;
+    }
+
+    private boolean isEjected(int replica, long now) {
+        long ejectedUntil = this.replicaEjections.get(replica);
+        if (ejectedUntil == 0) {
+            return false;
+        }
+
+        if (now - ejectedUntil < 0) {
+            return true;
+        }
+
+        this.replicaEjections.compareAndSet(replica, ejectedUntil, 0);
+        return false;
+    }
+
+    private void eject(int replica) {
+        long ejectedUntil = System.nanoTime() + EJECTION_TIME;
+        // 0 means not ejected
+        this.replicaEjections.set(replica, ejectedUntil == 0 ? 1 : ejectedUntil);
+    }
+
+    /**
+     * Updates the exponentially weighted moving average of the replica latency.
+     */
+    private void recordLatency(int replica, long latency) {
+        long current;
+        long updated;
+        do {
+            current = this.replicaLatencies.get(replica);
+            updated = current == 0 ? latency : current + ((latency - current) >> LATENCY_SMOOTHING_SHIFT);
+        } while (!this.replicaLatencies.compareAndSet(replica, current, updated));
+    }
+
+    /**
+     * Policy to choose the replica that executes a read.
+     */
+    public static enum Balancing {
+        /**
+         * Replicas take turns.
+         */
+        ROUND_ROBIN,
+
+        /**
+         * The replica with the lowest average latency is chosen. Every few reads a replica is chosen
+         * round-robin so the latency of every replica keeps being measured.
+         */
+        LEAST_LATENCY
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.datastore;
+
+/**
+ * Management interface of {@link RoutingDataStore}: Exposes the routing metrics through JMX.
+ * 
+ */
+public interface RoutingDataStoreMXBean {
+
+    /**
+     * Gets the number of replicas.
+     * 
+     * @return the number of replicas
+     */
+    int getReplicaCount();
+
+    /**
+     * Gets the policy used to choose the replica that executes a read.
+     * 
+     * @return the balancing policy
+     */
+    String getBalancing();
+
+    /**
+     * Gets the number of read queries executed.
+     * 
+     * @return the number of reads
+     */
+    long getReadCount();
+
+    /**
+     * Gets the number of reads executed against the primary because the thread wrote within the
+     * stickiness window (Read-your-writes).
+     * 
+     * @return the number of sticky reads
+     */
+    long getStickyReadCount();
+
+    /**
+     * Gets the number of reads that failed on a replica and were executed against the primary.
+     * 
+     * @return the number of failovers
+     */
+    long getFailoverCount();
+
+    /**
+     * Gets the number of queries executed against the primary because they are not read queries.
+     * 
+     * @return the number of writes
+     */
+    long getWriteCount();
+
+    /**
+     * Gets the number of reads executed against each replica.
+     * 
+     * @return the number of reads per replica, in the order replicas were configured
+     */
+    long[] getReplicaReadCounts();
+
+    /**
+     * Gets the average latency of each replica.
+     * 
+     * @return the exponentially weighted moving average of the read latency in milliseconds per
+     *         replica, in the order replicas were configured
+     */
+    double[] getReplicaLatencies();
+}
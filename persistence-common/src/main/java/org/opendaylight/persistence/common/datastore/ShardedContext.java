@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.datastore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Context provided by {@link ShardedDataStore} to queries: Executes queries against the shards.
+ * <p>
+ * This class is thread safe.
+ * 
+ * @param <C> type of the context provided by the shards to enable execution
+ */
+public final class ShardedContext<C> {
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_32();
+
+    private final List<DataStore<C>> shards;
+    private final ExecutorService executor;
+
+    ShardedContext(List<DataStore<C>> shards, ExecutorService executor) {
+        this.shards = shards;
+        this.executor = executor;
+    }
+
+    /**
+     * Gets the number of shards.
+     * 
+     * @return the number of shards
+     */
+    public int getShardCount() {
+        return this.shards.size();
+    }
+
+    /**
+     * Gets the shard an object belongs to. The shard is a consistent hash of the id's
+     * {@link Object#hashCode()}, thus ids must have a hash code that does not change across
+     * processes (As {@link Long}, {@link String} and {@link java.util.UUID} do).
+     * 
+     * @param id object's id
+     * @return the index of the shard holding the object
+     */
+    public int getShard(@Nonnull Object id) {
+        Preconditions.checkNotNull(id, "id");
+        return Hashing.consistentHash(HASH_FUNCTION.hashInt(id.hashCode()), this.shards.size());
+    }
+
+    /**
+     * Executes a query against a shard.
+     * 
+     * @param shard index of the shard
+     * @param query query to execute
+     * @return the query's result
+     * @throws PersistenceException if persistence errors occur while executing the query
+     */
+    public <T> T execute(int shard, @Nonnull Query<T, C> query) throws PersistenceException {
+        Preconditions.checkElementIndex(shard, this.shards.size(), "shard");
+        Preconditions.checkNotNull(query, "query");
+        return this.shards.get(shard).execute(query);
+    }
+
+    /**
+     * Executes a query against all shards in parallel.
+     * 
+     * @param query query to execute
+     * @return the results, in shard order
+     * @throws PersistenceException if persistence errors occur while executing the query in any
+     *             shard
+     */
+    public <T> List<T> executeAll(@Nonnull Query<T, C> query) throws PersistenceException {
+        Preconditions.checkNotNull(query, "query");
+        return execute(Collections.nCopies(this.shards.size(), query));
+    }
+
+    /**
+     * Executes a query against each shard in parallel: The query at position {@code i} is executed
+     * against shard {@code i}; {@code null} queries are skipped. Once all queries have completed,
+     * the first failure (In shard order) is thrown.
+     * 
+     * @param queries queries to execute, one per shard
+     * @return the results, in shard order; {@code null} for skipped queries
+     * @throws PersistenceException if persistence errors occur while executing any query
+     */
+    public <T> List<T> execute(@Nonnull List<? extends Query<T, C>> queries) throws PersistenceException {
+        Preconditions.checkNotNull(queries, "queries");
+        Preconditions.checkArgument(queries.size() == this.shards.size(), "one query per shard expected");
+
+        // The first query is executed by the calling thread
+        List<Future<T>> futures = new ArrayList<Future<T>>(queries.size());
+        futures.add(null);
+        for (int shard = 1; shard < queries.size(); shard++) {
+            final DataStore<C> dataStore = this.shards.get(shard);
+            final Query<T, C> query = queries.get(shard);
+            futures.add(query == null ? null : this.executor.submit(new Callable<T>() {
+                @Override
+                public T call() throws PersistenceException {
+                    return dataStore.execute(query);
+                }
+            }));
+        }
+
+        List<T> results = new ArrayList<T>(queries.size());
+        Throwable failure = null;
+        try {
+            results.add(queries.get(0) == null ? null : this.shards.get(0).execute(queries.get(0)));
+        } catch (PersistenceException | RuntimeException e) {
+            failure = e;
+            results.add(null);
+        }
+
+        boolean interrupted = false;
+        for (int shard = 1; shard < futures.size(); shard++) {
+            Future<T> future = futures.get(shard);
+            T result = null;
+            if (future != null) {
+                while (true) {
+                    try {
+                        result = future.get();
+                        break;
+                    } catch (InterruptedException e) {
+                        // Shards are awaited anyway so no query is left executing
+                        interrupted = true;
+                    } catch (ExecutionException e) {
+                        if (failure == null) {
+                            failure = e.getCause();
+                        }
+                        break;
+                    }
+                }
+            }
+            results.add(result);
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (failure != null) {
+            if (failure instanceof PersistenceException) {
+                throw (PersistenceException) failure;
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw new PersistenceException(failure);
+        }
+
+        return results;
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.datastore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link DataStore} that partitions objects across several data stores (Shards), each connected to
+ * its own database.
+ * <p>
+ * Queries are executed with a {@link ShardedContext}, which DAOs use to execute queries against a
+ * single shard (Operations by id: Objects are assigned to shards by a hash of their id) or against
+ * all shards in parallel (Searches). See {@link org.opendaylight.persistence.common.dao.ShardedDao}.
+ * <p>
+ * Caveat: There are no transactions spanning shards. Each query executed against a shard runs in
+ * that shard's transaction, thus a search executed against all shards is not a consistent snapshot
+ * and a failure in one shard does not roll back the modifications made in other shards.
+ * <p>
+ * This class is thread safe.
+ * 
+ * @param <C> type of the context provided by the shards to enable execution
+ */
+public final class ShardedDataStore<C> implements DataStore<ShardedContext<C>> {
+
+    private final ShardedContext<C> context;
+
+    /**
+     * Creates a sharded data store.
+     * <p>
+     * Shards are identified by their position: Objects are assigned to shards by a consistent hash
+     * of their id, thus shards may be appended (Moving about {@code 1/n} of the objects to the new
+     * shard) but they must not be reordered.
+     * 
+     * @param shards data stores holding the partitions
+     * @param executor executor to execute queries against all shards in parallel. Queries executed
+     *            against shards must not execute queries against all shards themselves, otherwise a
+     *            bounded executor could deadlock.
+     */
+    public ShardedDataStore(@Nonnull List<? extends DataStore<C>> shards, @Nonnull ExecutorService executor) {
+        Preconditions.checkNotNull(shards, "shards");
+        Preconditions.checkArgument(!shards.isEmpty(), "shards cannot be empty");
+        List<DataStore<C>> shardsCopy = new ArrayList<DataStore<C>>(shards);
+        for (DataStore<C> shard : shardsCopy) {
+            Preconditions.checkNotNull(shard, "shards cannot contain null");
+        }
+        this.context = new ShardedContext<C>(shardsCopy, Preconditions.checkNotNull(executor, "executor"));
+    }
+
+    @Override
+    public <T> T execute(Query<T, ShardedContext<C>> query) throws PersistenceException {
+        Preconditions.checkNotNull(query, "query");
+        return query.execute(this.context);
+    }
+
+    /**
+     * Gets the number of shards.
+     * 
+     * @return the number of shards
+     */
+    public int getShardCount() {
+        return this.context.getShardCount();
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.datastore;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.query.ImmutableResultQuery;
+import org.opendaylight.persistence.common.query.QueryKey;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * {@link DataStore} decorator that deduplicates identical concurrent read queries (Single-flight):
+ * While an {@link ImmutableResultQuery} is executing, other threads executing a query with an equal
+ * {@link QueryKey} wait for it and get the same result, or the same failure, instead of executing
+ * the query again. Queries are not cached: Once the execution completes the next equal query is
+ * executed against the data store.
+ * <p>
+ * The result is shared by all the threads waiting for it, thus only queries declaring an immutable
+ * result ({@link ImmutableResultQuery}: Exist, count and size) are coalesced. Any other query
+ * (Including read queries returning model objects, which are mutable, and any query that modifies
+ * the data store) is delegated as is. Queries whose model objects are immutable can join a flight
+ * if decorated by {@link org.opendaylight.persistence.common.query.ImmutableResultQueryDecorator}.
+ * <p>
+ * A thread may get a result read in a different transaction. This decorator must not be used if
+ * queries run within enclosing transactions that modified the data store (The thread would not
+ * read its own writes); it is safe when each {@link #execute(Query)} runs in its own transaction.
+ * <p>
+ * This class is thread safe.
+ * 
+ * @param <C> type of the context provided to queries to enable execution
+ */
+public final class SingleFlightDataStore<C> implements DataStore<C>, SingleFlightDataStoreMXBean {
+
+    private final DataStore<C> delegate;
+    private final ConcurrentMap<QueryKey, SettableFuture<Object>> inFlight;
+
+    private final AtomicLong readCount;
+    private final AtomicLong sharedCount;
+
+    /**
+     * Creates a single-flight data store.
+     * 
+     * @param delegate data store to delegate execution to
+     */
+    public SingleFlightDataStore(@Nonnull DataStore<C> delegate) {
+        this.delegate = Preconditions.checkNotNull(delegate, "delegate");
+        this.inFlight = new ConcurrentHashMap<QueryKey, SettableFuture<Object>>();
+        this.readCount = new AtomicLong();
+        this.sharedCount = new AtomicLong();
+    }
+
+    @Override
+    public <T> T execute(Query<T, C> query) throws PersistenceException {
+        Preconditions.checkNotNull(query, "query");
+
+        if (!(query instanceof ImmutableResultQuery)) {
+            return this.delegate.execute(query);
+        }
+
+        this.readCount.incrementAndGet();
+
+        QueryKey key = ((ImmutableResultQuery<T, C>) query).getQueryKey();
+        SettableFuture<Object> flight = SettableFuture.create();
+        SettableFuture<Object> existingFlight = this.inFlight.putIfAbsent(key, flight);
+        if (existingFlight != null) {
+            this.sharedCount.incrementAndGet();
+            return await(existingFlight);
+        }
+
+        try {
+            T result = this.delegate.execute(query);
+            flight.set(result);
+            return result;
+        } catch (PersistenceException | RuntimeException | Error e) {
+            flight.setException(e);
+            throw e;
+        } finally {
+            this.inFlight.remove(key, flight);
+        }
+    }
+
+    @Override
+    public long getReadCount() {
+        return this.readCount.get();
+    }
+
+    @Override
+    public long getSharedCount() {
+        return this.sharedCount.get();
+    }
+
+    @Override
+    public long getExecutedReadCount() {
+        return this.readCount.get() - this.sharedCount.get();
+    }
+
+    @Override
+    public double getDeduplicationRatio() {
+        long reads = this.readCount.get();
+        return reads == 0 ? 0.0 : (double) this.sharedCount.get() / reads;
+    }
+
+    @Override
+    public int getInFlightCount() {
+        return this.inFlight.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T await(SettableFuture<Object> flight) throws PersistenceException {
+        try {
+            return (T) flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PersistenceException("Interrupted while waiting for an identical query", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof PersistenceException) {
+                throw (PersistenceException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new PersistenceException(cause);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.datastore;
+
+/**
+ * Management interface of {@link SingleFlightDataStore}: Exposes the deduplication metrics through
+ * JMX.
+ * 
+ */
+public interface SingleFlightDataStoreMXBean {
+
+    /**
+     * Gets the number of read queries requested that could be coalesced: Queries declaring an
+     * immutable result.
+     * 
+     * @return the number of read queries
+     */
+    long getReadCount();
+
+    /**
+     * Gets the number of read queries that got the result of an identical query in flight, thus
+     * were not executed.
+     * 
+     * @return the number of shared read queries
+     */
+    long getSharedCount();
+
+    /**
+     * Gets the number of read queries executed against the data store.
+     * 
+     * @return the number of executed read queries
+     */
+    long getExecutedReadCount();
+
+    /**
+     * Gets the ratio of shared read queries to requested read queries.
+     * 
+     * @return the deduplication ratio
+     */
+    double getDeduplicationRatio();
+
+    /**
+     * Gets the number of distinct read queries currently executing.
+     * 
+     * @return the number of read queries in flight
+     */
+    int getInFlightCount();
+}
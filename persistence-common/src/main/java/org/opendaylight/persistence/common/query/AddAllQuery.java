@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.query;
+
+import java.util.Collection;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.dao.BaseDao;
+import org.opendaylight.persistence.dao.BatchDao;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+/**
+ * Query to add a batch of objects to the data store. All objects are added in the same query
+ * execution (For example, a single transaction), thus the batch is either added completely or not
+ * added at all.
+ * <p>
+ * If the DAO is a {@link BatchDao} the objects are sent to the data store together, otherwise they
+ * are added one by one.
+ * 
+ * @param <T> type of the identifiable object (object to store in the data store)
+ * @param <C> type of the query's execution context; the context managed by the {@link DataStore}
+ */
+public final class AddAllQuery<T extends Identifiable<?>, C> implements Query<Void, C> {
+
+    private Collection<T> identifiables;
+    private BaseDao<?, T, C> dao;
+
+    private AddAllQuery(@Nonnull Collection<T> identifiables, @Nonnull BaseDao<?, T, C> dao) {
+        this.identifiables = identifiables;
+        this.dao = dao;
+    }
+
+    /**
+     * Creates a query.
+     * <p>
+     * This method is a convenience to infer the generic types.
+     * 
+     * @param identifiables objects to add
+     * @param dao DAO to assist the query
+     * @return the query
+     */
+    public static <T extends Identifiable<?>, C> Query<Void, C> createQuery(@Nonnull Collection<T> identifiables,
+            @Nonnull BaseDao<?, T, C> dao) {
+        return new AddAllQuery<T, C>(identifiables, dao);
+    }
+
+    @Override
+    public Void execute(C context) throws PersistenceException {
+        if (this.dao instanceof BatchDao) {
+            ((BatchDao<?, T, C>) this.dao).addAll(this.identifiables, context);
+            return null;
+        }
+
+        for (T identifiable : this.identifiables) {
+            this.dao.add(identifiable, context);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.query;
+
+import java.io.Serializable;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.dao.BaseDao;
+import org.opendaylight.persistence.dao.LockableDao;
+import org.opendaylight.persistence.util.common.Converter;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+
+/**
+ * Query to atomically replace an object by a new one computed from it (Read-modify-write).
+ * <p>
+ * The object is loaded, remapped and stored within the query, thus within a single transaction.
+ * With JPA the update is applied on the entity loaded in the same persistence context, so it does
+ * not require loading it again. Lost updates from concurrent transactions are prevented either by
+ * locking the object for writing when it is loaded (See {@link LockableDao}) or by optimistic
+ * versioning (See {@link org.opendaylight.persistence.dao.UpdateStrategy}).
+ * 
+ * @param <I> type of the identifiable object's id
+ * @param <T> type of the identifiable object (object to store in the data store)
+ * @param <C> type of the query's execution context; the context managed by the {@link DataStore}
+ */
+public final class ComputeQuery<I extends Serializable, T extends Identifiable<I>, C> implements KeyedQuery<T, C> {
+
+    private I id;
+    private Converter<T, T> remapping;
+    private boolean ifPresent;
+    private BaseDao<I, T, C> dao;
+    private LockableDao<I, T, C> lockableDao;
+
+    private ComputeQuery(@Nonnull I id, @Nonnull Converter<T, T> remapping, boolean ifPresent,
+            @Nonnull BaseDao<I, T, C> dao, LockableDao<I, T, C> lockableDao) {
+        this.id = Preconditions.checkNotNull(id, "id");
+        this.remapping = Preconditions.checkNotNull(remapping, "remapping");
+        this.ifPresent = ifPresent;
+        this.dao = Preconditions.checkNotNull(dao, "dao");
+        this.lockableDao = lockableDao;
+    }
+
+    /**
+     * Creates a query that computes the new object whether or not the current one exists. See
+     * {@link org.opendaylight.persistence.store.BaseObjectStore#compute(Serializable, Converter)}.
+     * <p>
+     * This method is a convenience to infer the generic types.
+     * 
+     * @param id object's id
+     * @param remapping function to compute the new object from the current one
+     * @param dao DAO to assist the query
+     * @return the query
+     */
+    public static <I extends Serializable, T extends Identifiable<I>, C> Query<T, C> createQuery(@Nonnull I id,
+            @Nonnull Converter<T, T> remapping, @Nonnull BaseDao<I, T, C> dao) {
+        return new ComputeQuery<I, T, C>(id, remapping, false, dao, null);
+    }
+
+    /**
+     * Creates a query that computes the new object only if the current one exists. See
+     * {@link org.opendaylight.persistence.store.BaseObjectStore#computeIfPresent(Serializable, Converter)}.
+     * <p>
+     * This method is a convenience to infer the generic types.
+     * 
+     * @param id object's id
+     * @param remapping function to compute the new object from the current one
+     * @param dao DAO to assist the query
+     * @return the query
+     */
+    public static <I extends Serializable, T extends Identifiable<I>, C> Query<T, C> createIfPresentQuery(
+            @Nonnull I id, @Nonnull Converter<T, T> remapping, @Nonnull BaseDao<I, T, C> dao) {
+        return new ComputeQuery<I, T, C>(id, remapping, true, dao, null);
+    }
+
+    /**
+     * Creates a query that locks the current object for writing (If it exists) and computes the new
+     * object whether or not the current one exists.
+     * <p>
+     * This method is a convenience to infer the generic types.
+     * 
+     * @param id object's id
+     * @param remapping function to compute the new object from the current one
+     * @param dao DAO to assist the query
+     * @return the query
+     */
+    public static <I extends Serializable, T extends Identifiable<I>, C> Query<T, C> createLockingQuery(
+            @Nonnull I id, @Nonnull Converter<T, T> remapping, @Nonnull LockableDao<I, T, C> dao) {
+        return new ComputeQuery<I, T, C>(id, remapping, false, dao, dao);
+    }
+
+    /**
+     * Creates a query that locks the current object for writing and computes the new object only if
+     * the current one exists.
+     * <p>
+     * This method is a convenience to infer the generic types.
+     * 
+     * @param id object's id
+     * @param remapping function to compute the new object from the current one
+     * @param dao DAO to assist the query
+     * @return the query
+     */
+    public static <I extends Serializable, T extends Identifiable<I>, C> Query<T, C> createLockingIfPresentQuery(
+            @Nonnull I id, @Nonnull Converter<T, T> remapping, @Nonnull LockableDao<I, T, C> dao) {
+        return new ComputeQuery<I, T, C>(id, remapping, true, dao, dao);
+    }
+
+    @Override
+    public T execute(C context) throws PersistenceException {
+        T current = this.lockableDao != null ? this.lockableDao.getForUpdate(this.id, context) : this.dao.get(
+                this.id, context);
+
+        if (current == null && this.ifPresent) {
+            return null;
+        }
+
+        T computed = this.remapping.convert(current);
+
+        if (computed == null) {
+            if (current != null) {
+                this.dao.delete(this.id, context);
+            }
+            return null;
+        }
+
+        if (current == null) {
+            return this.dao.add(computed, context);
+        }
+
+        Preconditions.checkState(Objects.equal(this.id, computed.getIdentifier()),
+                "remapping must keep the id: expected %s, found %s", this.id, computed.getIdentifier());
+        return this.dao.update(computed, context);
+    }
+
+    @Override
+    public Object getKey() {
+        return this.id;
+    }
+}
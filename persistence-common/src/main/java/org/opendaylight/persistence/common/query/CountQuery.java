@@ -22,7 +22,7 @@ import org.opendaylight.persistence.dao.Dao;
  * @author Fabiel Zuniga
  * @author Nachiket Abhyankar
  */
-public final class CountQuery<F, C> implements Query<Long, C> {
+public final class CountQuery<F, C> implements ImmutableResultQuery<Long, C> {
 
     private F filter;
     private Dao<?, ?, F, ?, C> dao;
@@ -49,4 +49,9 @@ public final class CountQuery<F, C> implements Query<Long, C> {
     public Long execute(C context) throws PersistenceException {
         return Long.valueOf(this.dao.count(this.filter, context));
     }
+
+    @Override
+    public QueryKey getQueryKey() {
+        return QueryKey.of(CountQuery.class, this.dao, this.filter);
+    }
 }
@@ -26,7 +26,7 @@ import org.opendaylight.yangtools.concepts.Identifiable;
  * @author Fabiel Zuniga
  * @author Nachiket Abhyankar
  */
-public final class DeleteByIdQuery<I extends Serializable, T extends Identifiable<I>, C> implements Query<Void, C> {
+public final class DeleteByIdQuery<I extends Serializable, T extends Identifiable<I>, C> implements KeyedQuery<Void, C> {
 
     private I id;
     private BaseDao<I, T, C> dao;
@@ -55,4 +55,9 @@ public final class DeleteByIdQuery<I extends Serializable, T extends Identifiabl
         this.dao.delete(this.id, context);
         return null;
     }
+
+    @Override
+    public Object getKey() {
+        return this.id;
+    }
 }
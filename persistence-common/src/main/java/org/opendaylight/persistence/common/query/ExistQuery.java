@@ -24,7 +24,7 @@ import org.opendaylight.persistence.dao.BaseDao;
  * @author Fabiel Zuniga
  * @author Nachiket Abhyankar
  */
-public final class ExistQuery<I extends Serializable, C> implements Query<Boolean, C> {
+public final class ExistQuery<I extends Serializable, C> implements ImmutableResultQuery<Boolean, C> {
 
     private I id;
     private BaseDao<I, ?, C> dao;
@@ -51,4 +51,9 @@ public final class ExistQuery<I extends Serializable, C> implements Query<Boolea
     public Boolean execute(C context) throws PersistenceException {
         return Boolean.valueOf(this.dao.exist(this.id, context));
     }
+
+    @Override
+    public QueryKey getQueryKey() {
+        return QueryKey.of(ExistQuery.class, this.dao, this.id);
+    }
 }
@@ -30,7 +30,7 @@ import org.opendaylight.yangtools.concepts.Identifiable;
  * @author Fabiel Zuniga
  * @author Nachiket Abhyankar
  */
-public final class FindQuery<T extends Identifiable<?>, F, S, C> implements Query<List<T>, C> {
+public final class FindQuery<T extends Identifiable<?>, F, S, C> implements ReadQuery<List<T>, C> {
 
     private F filter;
     private List<Sort<S>> sort;
@@ -66,4 +66,9 @@ public final class FindQuery<T extends Identifiable<?>, F, S, C> implements Quer
     public List<T> execute(C context) throws PersistenceException {
         return this.dao.find(this.filter, this.sort, context);
     }
+
+    @Override
+    public QueryKey getQueryKey() {
+        return QueryKey.of(FindQuery.class, this.dao, this.filter, this.sort);
+    }
 }
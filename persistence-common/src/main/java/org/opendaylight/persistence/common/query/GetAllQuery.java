@@ -25,7 +25,7 @@ import org.opendaylight.yangtools.concepts.Identifiable;
  * @author Fabiel Zuniga
  * @author Nachiket Abhyankar
  */
-public final class GetAllQuery<T extends Identifiable<?>, C> implements Query<Collection<T>, C> {
+public final class GetAllQuery<T extends Identifiable<?>, C> implements ReadQuery<Collection<T>, C> {
 
     private KeyValueDao<?, T, C> dao;
 
@@ -49,4 +49,9 @@ public final class GetAllQuery<T extends Identifiable<?>, C> implements Query<Co
     public Collection<T> execute(C context) throws PersistenceException {
         return this.dao.getAll(context);
     }
+
+    @Override
+    public QueryKey getQueryKey() {
+        return QueryKey.of(GetAllQuery.class, this.dao);
+    }
 }
@@ -26,7 +26,7 @@ import org.opendaylight.yangtools.concepts.Identifiable;
  * @author Fabiel Zuniga
  * @author Nachiket Abhyankar
  */
-public final class GetQuery<I extends Serializable, T extends Identifiable<I>, C> implements Query<T, C> {
+public final class GetQuery<I extends Serializable, T extends Identifiable<I>, C> implements ReadQuery<T, C> {
 
     private I id;
     private BaseDao<I, T, C> dao;
@@ -54,4 +54,9 @@ public final class GetQuery<I extends Serializable, T extends Identifiable<I>, C
     public T execute(C context) throws PersistenceException {
         return this.dao.get(this.id, context);
     }
+
+    @Override
+    public QueryKey getQueryKey() {
+        return QueryKey.of(GetQuery.class, this.dao, this.id);
+    }
 }
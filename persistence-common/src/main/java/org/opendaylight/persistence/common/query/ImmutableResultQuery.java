@@ -0,0 +1,25 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.query;
+
+/**
+ * Read query whose result is immutable: Neither the result nor any object reachable from it can be
+ * modified, so the same result can be handed to several threads (See
+ * {@link org.opendaylight.persistence.common.datastore.SingleFlightDataStore}).
+ * <p>
+ * Queries returning model objects or collections of them must not implement this interface unless
+ * those objects are immutable; see {@link ImmutableResultQueryDecorator} to declare the result of
+ * such a query immutable.
+ * 
+ * @param <T> type of the query's result
+ * @param <C> type of the query's execution context; the context managed by the
+ *            {@link org.opendaylight.persistence.DataStore}
+ */
+public interface ImmutableResultQuery<T, C> extends ReadQuery<T, C> {
+
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.query;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Read query decorator that declares the result of the delegate immutable (See
+ * {@link ImmutableResultQuery}).
+ * <p>
+ * The caller is responsible for the declaration: The model objects returned by the delegate must be
+ * immutable, and collection results must be unmodifiable. For example:
+ * 
+ * <pre>
+ * dataStore.execute(ImmutableResultQueryDecorator.decorate(GetQuery.createQuery(id, dao)));
+ * </pre>
+ * 
+ * @param <T> type of the query's result
+ * @param <C> type of the query's execution context; the context managed by the {@link DataStore}
+ */
+public final class ImmutableResultQueryDecorator<T, C> implements ImmutableResultQuery<T, C> {
+
+    private final ReadQuery<T, C> delegate;
+
+    private ImmutableResultQueryDecorator(ReadQuery<T, C> delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Declares the result of a read query immutable.
+     * 
+     * @param delegate read query whose result is immutable; it must implement {@link ReadQuery}
+     * @return the decorated query
+     * @throws IllegalArgumentException if {@code delegate} is not a {@link ReadQuery}
+     */
+    public static <T, C> Query<T, C> decorate(@Nonnull Query<T, C> delegate) {
+        Preconditions.checkNotNull(delegate, "delegate");
+        Preconditions.checkArgument(delegate instanceof ReadQuery, "delegate must be a read query");
+        return new ImmutableResultQueryDecorator<T, C>((ReadQuery<T, C>) delegate);
+    }
+
+    @Override
+    public T execute(C context) throws PersistenceException {
+        return this.delegate.execute(context);
+    }
+
+    @Override
+    public QueryKey getQueryKey() {
+        return this.delegate.getQueryKey();
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.query;
+
+import javax.annotation.CheckForNull;
+
+import org.opendaylight.persistence.Query;
+
+/**
+ * Query that modifies a single object identified by a key, typically the object's id. Data store
+ * decorators use the key to serialize conflicting writers (See
+ * {@link org.opendaylight.persistence.common.datastore.RetryingDataStore}).
+ * 
+ * @param <T> type of the query's result
+ * @param <C> type of the query's execution context; the context managed by the
+ *            {@link org.opendaylight.persistence.DataStore}
+ */
+public interface KeyedQuery<T, C> extends Query<T, C> {
+
+    /**
+     * Gets the key of the object the query modifies. Keys must implement
+     * {@link Object#equals(Object)} and {@link Object#hashCode()} correctly.
+     * 
+     * @return the key of the modified object, {@code null} if unknown
+     */
+    @CheckForNull
+    Object getKey();
+}
@@ -35,7 +35,7 @@ import org.opendaylight.yangtools.concepts.Identifiable;
  * @author Nachiket Abhyankar
  */
 public final class PagedFindQuery<T extends Identifiable<?>, F, S, R extends PageRequest, D extends Page<R, T>, C>
-        implements Query<D, C> {
+        implements ReadQuery<D, C> {
 
     private F filter;
     private List<Sort<S>> sort;
@@ -71,4 +71,9 @@ public final class PagedFindQuery<T extends Identifiable<?>, F, S, R extends Pag
     public D execute(C context) throws PersistenceException {
         return this.dao.find(this.filter, this.sort, this.pageRequest, context);
     }
+
+    @Override
+    public QueryKey getQueryKey() {
+        return QueryKey.of(PagedFindQuery.class, this.dao, this.filter, this.sort, this.pageRequest);
+    }
 }
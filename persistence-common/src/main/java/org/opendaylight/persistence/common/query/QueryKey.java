@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.query;
+
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * Identifies the result of a read query: Two queries with equal keys are guaranteed to produce the
+ * same result when executed against the same data store state.
+ * <p>
+ * The key is composed of the query class, the DAO the query delegates to and the query arguments
+ * (Id, filter, sort specification, page request, etc). DAOs are compared by identity and arguments
+ * by {@link Object#equals(Object)}, so arguments that do not override {@link Object#equals(Object)}
+ * only match themselves.
+ * <p>
+ * This class is immutable as long as the arguments are.
+ * 
+ */
+public final class QueryKey {
+
+    private final Class<?> queryClass;
+    private final Object dao;
+    private final Object[] arguments;
+    private final int hashCode;
+
+    private QueryKey(Class<?> queryClass, Object dao, Object[] arguments) {
+        this.queryClass = queryClass;
+        this.dao = dao;
+        this.arguments = arguments;
+        this.hashCode = 31 * (31 * queryClass.hashCode() + System.identityHashCode(dao)) + Arrays.hashCode(arguments);
+    }
+
+    /**
+     * Creates a query key.
+     * 
+     * @param queryClass query class
+     * @param dao DAO the query delegates to
+     * @param arguments query arguments
+     * @return a query key
+     */
+    public static QueryKey of(@Nonnull Class<?> queryClass, @Nonnull Object dao, @Nullable Object... arguments) {
+        Preconditions.checkNotNull(queryClass, "queryClass");
+        Preconditions.checkNotNull(dao, "dao");
+        return new QueryKey(queryClass, dao, arguments == null ? new Object[0] : arguments.clone());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        QueryKey other = (QueryKey) obj;
+        return this.hashCode == other.hashCode && this.queryClass == other.queryClass && this.dao == other.dao
+                && Arrays.equals(this.arguments, other.arguments);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("queryClass", this.queryClass.getSimpleName())
+                .add("dao", this.dao.getClass().getSimpleName()).add("arguments", Arrays.toString(this.arguments))
+                .toString();
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.query;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.Query;
+
+/**
+ * Query that only reads from the data store, so it can be executed against a replica (See
+ * {@link org.opendaylight.persistence.common.datastore.RoutingDataStore}). Data store decorators
+ * use the query key to share the result of equal queries if the result is immutable (See
+ * {@link ImmutableResultQuery}). Queries that modify the data store must never implement this
+ * interface.
+ * 
+ * @param <T> type of the query's result
+ * @param <C> type of the query's execution context; the context managed by the
+ *            {@link org.opendaylight.persistence.DataStore}
+ */
+public interface ReadQuery<T, C> extends Query<T, C> {
+
+    /**
+     * Gets the query key.
+     * 
+     * @return a key equal to the key of any other query producing the same result
+     */
+    @Nonnull
+    QueryKey getQueryKey();
+}
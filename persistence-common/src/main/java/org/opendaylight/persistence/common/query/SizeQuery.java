@@ -21,7 +21,7 @@ import org.opendaylight.persistence.dao.KeyValueDao;
  * @author Fabiel Zuniga
  * @author Nachiket Abhyankar
  */
-public final class SizeQuery<C> implements Query<Long, C> {
+public final class SizeQuery<C> implements ImmutableResultQuery<Long, C> {
 
     private KeyValueDao<?, ?, C> dao;
 
@@ -45,4 +45,9 @@ public final class SizeQuery<C> implements Query<Long, C> {
     public Long execute(C context) throws PersistenceException {
         return Long.valueOf(this.dao.size(context));
     }
+
+    @Override
+    public QueryKey getQueryKey() {
+        return QueryKey.of(SizeQuery.class, this.dao);
+    }
 }
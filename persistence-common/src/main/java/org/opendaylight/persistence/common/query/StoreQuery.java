@@ -16,7 +16,7 @@ import org.opendaylight.persistence.dao.BaseDao;
 //import org.opendaylight.persistence.util.common.Identifiable;
 import org.opendaylight.yangtools.concepts.Identifiable;
 
-public class StoreQuery<I extends Serializable, T extends Identifiable<I>, C> implements Query<Void, C> {
+public class StoreQuery<I extends Serializable, T extends Identifiable<I>, C> implements KeyedQuery<Void, C> {
     private T identifiable;
     private I id;
     private BaseDao<I, T, C> dao;
@@ -51,4 +51,9 @@ public class StoreQuery<I extends Serializable, T extends Identifiable<I>, C> im
         }
         return null;
     }
+
+    @Override
+    public Object getKey() {
+        return this.id;
+    }
 }
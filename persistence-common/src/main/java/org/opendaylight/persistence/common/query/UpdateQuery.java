@@ -23,7 +23,7 @@ import org.opendaylight.yangtools.concepts.Identifiable;
  * @author Fabiel Zuniga
  * @author Nachiket Abhyankar
  */
-public final class UpdateQuery<T extends Identifiable<?>, C> implements Query<T, C> {
+public final class UpdateQuery<T extends Identifiable<?>, C> implements KeyedQuery<T, C> {
 
     private T identifiable;
     private BaseDao<?, T, C> dao;
@@ -51,4 +51,9 @@ public final class UpdateQuery<T extends Identifiable<?>, C> implements Query<T,
     public T execute(C context) throws PersistenceException {
         return this.dao.update(this.identifiable, context);
     }
+
+    @Override
+    public Object getKey() {
+        return this.identifiable.getIdentifier();
+    }
 }
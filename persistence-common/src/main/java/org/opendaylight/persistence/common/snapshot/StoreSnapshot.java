@@ -0,0 +1,397 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.snapshot;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.query.AddAllQuery;
+import org.opendaylight.persistence.dao.BaseDao;
+import org.opendaylight.persistence.dao.MarkPageDao;
+import org.opendaylight.persistence.store.MarkPageObjectStore;
+import org.opendaylight.persistence.store.OffsetPageObjectStore;
+import org.opendaylight.persistence.util.common.Converter;
+import org.opendaylight.persistence.util.common.io.FileUtil;
+import org.opendaylight.persistence.util.common.io.IoUtil;
+import org.opendaylight.persistence.util.common.io.SnapshotReader;
+import org.opendaylight.persistence.util.common.io.SnapshotWriter;
+import org.opendaylight.persistence.util.common.type.Sort;
+import org.opendaylight.persistence.util.common.type.page.MarkPage;
+import org.opendaylight.persistence.util.common.type.page.MarkPageRequest;
+import org.opendaylight.persistence.util.common.type.page.OffsetPage;
+import org.opendaylight.persistence.util.common.type.page.OffsetPageRequest;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Exports and imports object store snapshots: Binary files holding the store's objects (See
+ * {@link SnapshotWriter} and {@link SnapshotReader}).
+ * <p>
+ * A snapshot is useful to back up a store or to warm-start a fresh node: Instead of replaying
+ * objects one by one through the store, each block of the snapshot is verified against its checksum
+ * and added in a single query execution (See {@link AddAllQuery}), so the number of transactions is
+ * proportional to the number of blocks rather than to the number of objects.
+ * <p>
+ * Stores are exported page by page, so only one page of objects is held in memory. The snapshot is
+ * written to a temporary file which replaces the target file once it is complete, thus an
+ * interrupted export never leaves a truncated snapshot behind.
+ * <p>
+ * Exporting an object store loads each page in its own transaction: Objects modified while the
+ * export runs may be missing or exported twice, so the result is not a consistent snapshot and
+ * must not be used as a backup of a live store. Use
+ * {@link #exportSnapshot(MarkPageDao, DataStore, Object, List, int, Path, Converter)} instead, which
+ * loads all pages inside a single query execution.
+ * <p>
+ * Objects are encoded and decoded by converters, so the snapshot format is independent of the
+ * persistence technology.
+ * 
+ */
+public final class StoreSnapshot {
+
+    /**
+     * Default number of objects loaded per page while exporting a store.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private StoreSnapshot() {
+
+    }
+
+    /**
+     * Exports the objects of a store matching a filter, loading them in pages of
+     * {@link #DEFAULT_PAGE_SIZE} objects.
+     * <p>
+     * Each page is loaded in its own transaction, so the result is not a consistent snapshot if the
+     * store is modified during the export. It must not be used as a backup of a live store.
+     * 
+     * @param store store to export
+     * @param filter filter
+     * @param sortSpecification sort specification; the order of the objects in the snapshot
+     * @param path the path to the snapshot file; if the file already exists it is overwritten
+     * @param encoder converter to encode objects
+     * @return the number of exported objects
+     * @throws PersistenceException if persistence errors occur while loading the objects
+     * @throws IOException if an I/O error occurs writing the snapshot
+     */
+    public static <I extends Serializable, T extends Identifiable<I>, F, S> long exportSnapshot(
+            @Nonnull MarkPageObjectStore<I, T, F, S> store, @Nonnull F filter,
+            @Nullable List<Sort<S>> sortSpecification, @Nonnull Path path, @Nonnull Converter<T, byte[]> encoder)
+            throws PersistenceException, IOException {
+        return exportSnapshot(store, filter, sortSpecification, DEFAULT_PAGE_SIZE, path, encoder);
+    }
+
+    /**
+     * Exports the objects of a store matching a filter, loading them page by page. Mark pages are
+     * used, so the cost of loading a page does not grow with the position of the page.
+     * <p>
+     * Each page is loaded in its own transaction, so the result is not a consistent snapshot if the
+     * store is modified during the export. It must not be used as a backup of a live store.
+     * 
+     * @param store store to export
+     * @param filter filter
+     * @param sortSpecification sort specification; the order of the objects in the snapshot
+     * @param pageSize number of objects loaded per page
+     * @param path the path to the snapshot file; if the file already exists it is overwritten
+     * @param encoder converter to encode objects
+     * @return the number of exported objects
+     * @throws PersistenceException if persistence errors occur while loading the objects
+     * @throws IOException if an I/O error occurs writing the snapshot
+     */
+    public static <I extends Serializable, T extends Identifiable<I>, F, S> long exportSnapshot(
+            @Nonnull MarkPageObjectStore<I, T, F, S> store, @Nonnull F filter,
+            @Nullable List<Sort<S>> sortSpecification, int pageSize, @Nonnull Path path,
+            @Nonnull Converter<T, byte[]> encoder) throws PersistenceException, IOException {
+        Preconditions.checkNotNull(store, "store");
+        Preconditions.checkNotNull(filter, "filter");
+        Preconditions.checkNotNull(encoder, "encoder");
+        Path temporary = getTemporaryPath(path);
+        try {
+            long count;
+            try (SnapshotWriter writer = SnapshotWriter.open(temporary)) {
+                MarkPageRequest<T> pageRequest = new MarkPageRequest<T>(pageSize);
+                MarkPage<T> page;
+                while (!(page = store.find(filter, sortSpecification, pageRequest)).isEmpty()) {
+                    write(page.getData(), encoder, writer);
+                    pageRequest = page.getNextPageRequest();
+                }
+                count = writer.getRecordCount();
+            }
+            replace(temporary, path);
+            return count;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Exports the objects matching a filter, loading them page by page inside a single query
+     * execution, thus inside a single transaction. Mark pages are used, so the cost of loading a
+     * page does not grow with the position of the page.
+     * <p>
+     * The snapshot is consistent if the data store's transaction isolation gives repeatable reads
+     * (snapshot isolation or serializable): This is the method to back up a live store. Note the
+     * transaction is held open for the whole export, and technologies with a persistence context
+     * (JPA for example) may keep every loaded object until the transaction ends.
+     * 
+     * @param dao DAO used to load the objects
+     * @param dataStore data store to execute the export query
+     * @param filter filter
+     * @param sortSpecification sort specification; the order of the objects in the snapshot
+     * @param pageSize number of objects loaded per page
+     * @param path the path to the snapshot file; if the file already exists it is overwritten
+     * @param encoder converter to encode objects
+     * @return the number of exported objects
+     * @throws PersistenceException if persistence errors occur while loading the objects
+     * @throws IOException if an I/O error occurs writing the snapshot
+     */
+    public static <I extends Serializable, T extends Identifiable<I>, F, S, C> long exportSnapshot(
+            @Nonnull MarkPageDao<I, T, F, S, C> dao, @Nonnull DataStore<C> dataStore, @Nonnull F filter,
+            @Nullable List<Sort<S>> sortSpecification, int pageSize, @Nonnull Path path,
+            @Nonnull Converter<T, byte[]> encoder) throws PersistenceException, IOException {
+        Preconditions.checkNotNull(dao, "dao");
+        Preconditions.checkNotNull(dataStore, "dataStore");
+        Preconditions.checkNotNull(filter, "filter");
+        Preconditions.checkNotNull(encoder, "encoder");
+        Path temporary = getTemporaryPath(path);
+        try {
+            ExportQuery<T, F, S, C> query = new ExportQuery<T, F, S, C>(dao, filter, sortSpecification, pageSize,
+                    temporary, encoder);
+            long count;
+            try {
+                count = dataStore.execute(query).longValue();
+            } catch (PersistenceException e) {
+                if (query.ioException != null) {
+                    throw query.ioException;
+                }
+                throw e;
+            }
+            replace(temporary, path);
+            return count;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Exports the objects of a store matching a filter, loading them page by page.
+     * <p>
+     * Each page is loaded in its own transaction, so the result is not a consistent snapshot if the
+     * store is modified during the export. It must not be used as a backup of a live store.
+     * 
+     * @param store store to export
+     * @param filter filter
+     * @param sortSpecification sort specification; the order of the objects in the snapshot
+     * @param pageSize number of objects loaded per page
+     * @param path the path to the snapshot file; if the file already exists it is overwritten
+     * @param encoder converter to encode objects
+     * @return the number of exported objects
+     * @throws PersistenceException if persistence errors occur while loading the objects
+     * @throws IOException if an I/O error occurs writing the snapshot
+     */
+    public static <I extends Serializable, T extends Identifiable<I>, F, S> long exportSnapshot(
+            @Nonnull OffsetPageObjectStore<I, T, F, S> store, @Nonnull F filter,
+            @Nullable List<Sort<S>> sortSpecification, int pageSize, @Nonnull Path path,
+            @Nonnull Converter<T, byte[]> encoder) throws PersistenceException, IOException {
+        Preconditions.checkNotNull(store, "store");
+        Preconditions.checkNotNull(filter, "filter");
+        Preconditions.checkNotNull(encoder, "encoder");
+        Path temporary = getTemporaryPath(path);
+        try {
+            long count;
+            try (SnapshotWriter writer = SnapshotWriter.open(temporary)) {
+                OffsetPageRequest pageRequest = new OffsetPageRequest(pageSize);
+                while (pageRequest != null) {
+                    OffsetPage<T> page = store.find(filter, sortSpecification, pageRequest);
+                    write(page.getData(), encoder, writer);
+                    pageRequest = page.getNextPageRequest();
+                }
+                count = writer.getRecordCount();
+            }
+            replace(temporary, path);
+            return count;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Exports a collection of objects.
+     * 
+     * @param identifiables objects to export
+     * @param path the path to the snapshot file; if the file already exists it is overwritten
+     * @param encoder converter to encode objects
+     * @return the number of exported objects
+     * @throws IOException if an I/O error occurs writing the snapshot
+     */
+    public static <T extends Identifiable<?>> long exportSnapshot(@Nonnull Collection<T> identifiables,
+            @Nonnull Path path, @Nonnull Converter<T, byte[]> encoder) throws IOException {
+        Preconditions.checkNotNull(identifiables, "identifiables");
+        Preconditions.checkNotNull(encoder, "encoder");
+        Path temporary = getTemporaryPath(path);
+        try {
+            long count;
+            try (SnapshotWriter writer = SnapshotWriter.open(temporary)) {
+                write(identifiables, encoder, writer);
+                count = writer.getRecordCount();
+            }
+            replace(temporary, path);
+            return count;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Imports a snapshot. Each block of the snapshot is added in a single query execution: If the
+     * snapshot is corrupted the blocks preceding the corrupted one remain imported. If the DAO is a
+     * {@link org.opendaylight.persistence.dao.BatchDao} the objects of each block are inserted in a
+     * batch.
+     * <p>
+     * If {@code path} does not exist in the file system it is loaded as a resource (See
+     * {@link FileUtil#loadResource(Path)}), so a snapshot packaged with the application can seed a
+     * fresh node. The resource is copied to a temporary file, which is memory-mapped.
+     * 
+     * @param path the path to the snapshot file
+     * @param decoder converter to decode objects
+     * @param dao DAO used to add the objects
+     * @param dataStore data store to execute the batched add queries
+     * @return the number of imported objects
+     * @throws PersistenceException if persistence errors occur while adding the objects
+     * @throws IOException if an I/O error occurs reading the snapshot or if the snapshot is corrupted
+     */
+    public static <T extends Identifiable<?>, C> long importSnapshot(@Nonnull Path path,
+            @Nonnull Converter<byte[], T> decoder, @Nonnull BaseDao<?, T, C> dao, @Nonnull DataStore<C> dataStore)
+            throws PersistenceException, IOException {
+        Preconditions.checkNotNull(path, "path");
+        Preconditions.checkNotNull(decoder, "decoder");
+        Preconditions.checkNotNull(dao, "dao");
+        Preconditions.checkNotNull(dataStore, "dataStore");
+
+        if (Files.exists(path)) {
+            return importBlocks(path, decoder, dao, dataStore);
+        }
+
+        Path copy = Files.createTempFile(FileUtil.getTempDirectory(), "snapshot", TEMPORARY_SUFFIX);
+        try {
+            try (InputStream input = FileUtil.loadResource(path)) {
+                if (input == null) {
+                    throw new FileNotFoundException("Snapshot not found: " + path);
+                }
+                try (OutputStream output = Files.newOutputStream(copy)) {
+                    IoUtil.copy(input, output);
+                }
+            }
+            return importBlocks(copy, decoder, dao, dataStore);
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    private static <T extends Identifiable<?>, C> long importBlocks(Path path, Converter<byte[], T> decoder,
+            BaseDao<?, T, C> dao, DataStore<C> dataStore) throws PersistenceException, IOException {
+        long count = 0;
+        try (SnapshotReader reader = SnapshotReader.open(path)) {
+            List<byte[]> block;
+            while ((block = reader.readBlock()) != null) {
+                List<T> batch = new ArrayList<T>(block.size());
+                for (byte[] record : block) {
+                    batch.add(decoder.convert(record));
+                }
+                dataStore.execute(AddAllQuery.createQuery(batch, dao));
+                count += batch.size();
+            }
+        }
+        return count;
+    }
+
+    private static <T> void write(Collection<T> identifiables, Converter<T, byte[]> encoder, SnapshotWriter writer)
+            throws IOException {
+        for (T identifiable : identifiables) {
+            writer.write(encoder.convert(identifiable));
+        }
+    }
+
+    /**
+     * Writes all pages of objects to a snapshot file within a single execution context.
+     */
+    private static final class ExportQuery<T extends Identifiable<?>, F, S, C> implements Query<Long, C> {
+        private final MarkPageDao<?, T, F, S, C> dao;
+        private final F filter;
+        private final List<Sort<S>> sortSpecification;
+        private final int pageSize;
+        private final Path path;
+        private final Converter<T, byte[]> encoder;
+        private IOException ioException;
+
+        public ExportQuery(MarkPageDao<?, T, F, S, C> dao, F filter, List<Sort<S>> sortSpecification,
+                int pageSize, Path path, Converter<T, byte[]> encoder) {
+            this.dao = dao;
+            this.filter = filter;
+            this.sortSpecification = sortSpecification;
+            this.pageSize = pageSize;
+            this.path = path;
+            this.encoder = encoder;
+        }
+
+        @Override
+        public Long execute(C context) throws PersistenceException {
+            // The writer truncates the file, so the query can be retried by the data store
+            this.ioException = null;
+            try (SnapshotWriter writer = SnapshotWriter.open(this.path)) {
+                MarkPageRequest<T> pageRequest = new MarkPageRequest<T>(this.pageSize);
+                MarkPage<T> page;
+                while (!(page = this.dao.find(this.filter, this.sortSpecification, pageRequest, context))
+                        .isEmpty()) {
+                    write(page.getData(), this.encoder, writer);
+                    pageRequest = page.getNextPageRequest();
+                }
+                return Long.valueOf(writer.getRecordCount());
+            } catch (IOException e) {
+                this.ioException = e;
+                throw new PersistenceException("Unable to write snapshot " + this.path, e);
+            }
+        }
+    }
+
+    /**
+     * Gets the temporary file a snapshot is written to: A sibling of the snapshot file, so it can be
+     * moved atomically.
+     */
+    private static Path getTemporaryPath(Path path) {
+        Preconditions.checkNotNull(path, "path");
+        Path absolutePath = path.toAbsolutePath();
+        return FileUtil.getPath(absolutePath.getParent(), absolutePath.getFileName() + TEMPORARY_SUFFIX);
+    }
+
+    private static void replace(Path temporary, Path path) throws IOException {
+        try {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
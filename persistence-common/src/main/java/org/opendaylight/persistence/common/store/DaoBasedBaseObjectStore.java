@@ -13,13 +13,17 @@ import javax.annotation.Nonnull;
 
 import org.opendaylight.persistence.DataStore;
 import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
 import org.opendaylight.persistence.common.query.AddQuery;
+import org.opendaylight.persistence.common.query.ComputeQuery;
 import org.opendaylight.persistence.common.query.DeleteByIdQuery;
 import org.opendaylight.persistence.common.query.ExistQuery;
 import org.opendaylight.persistence.common.query.GetQuery;
 import org.opendaylight.persistence.common.query.UpdateQuery;
 import org.opendaylight.persistence.dao.BaseDao;
+import org.opendaylight.persistence.dao.LockableDao;
 import org.opendaylight.persistence.store.BaseObjectStore;
+import org.opendaylight.persistence.util.common.Converter;
 import org.opendaylight.yangtools.concepts.Identifiable;
 
 import com.google.common.base.Preconditions;
@@ -29,6 +33,10 @@ import com.google.common.base.Preconditions;
  * implementation allows applications to define custom persistence functionality by extending
  * {@link BaseObjectStore} and adding custom methods. Then the final implementation of the
  * persistence service would extend this class and implement the custom methods.
+ * <p>
+ * {@link #compute(Serializable, Converter)} and {@link #computeIfPresent(Serializable, Converter)}
+ * lock the object for writing if the DAO is a {@link LockableDao}, otherwise lost updates are only
+ * prevented if the DAO uses optimistic versioning.
  * 
  * @param <I> type of the identifiable object's id. This type should be immutable and it is critical
  *            it implements {@link Object#equals(Object)} and {@link Object#hashCode()} correctly.
@@ -79,6 +87,28 @@ public class DaoBasedBaseObjectStore<I extends Serializable, T extends Identifia
         return this.dataStore.execute(ExistQuery.createQuery(id, this.dao)).booleanValue();
     }
 
+    @Override
+    public T compute(I id, Converter<T, T> remapping) throws PersistenceException {
+        Query<T, C> query;
+        if (this.dao instanceof LockableDao) {
+            query = ComputeQuery.createLockingQuery(id, remapping, (LockableDao<I, T, C>) this.dao);
+        } else {
+            query = ComputeQuery.createQuery(id, remapping, this.dao);
+        }
+        return this.dataStore.execute(query);
+    }
+
+    @Override
+    public T computeIfPresent(I id, Converter<T, T> remapping) throws PersistenceException {
+        Query<T, C> query;
+        if (this.dao instanceof LockableDao) {
+            query = ComputeQuery.createLockingIfPresentQuery(id, remapping, (LockableDao<I, T, C>) this.dao);
+        } else {
+            query = ComputeQuery.createIfPresentQuery(id, remapping, this.dao);
+        }
+        return this.dataStore.execute(query);
+    }
+
     /**
      * Returns the data store.
      * 
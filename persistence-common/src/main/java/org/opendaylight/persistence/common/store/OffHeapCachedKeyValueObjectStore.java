@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.store;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.store.KeyValueObjectStore;
+import org.opendaylight.persistence.util.common.Converter;
+import org.opendaylight.persistence.util.common.type.OffHeapCache;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link KeyValueObjectStore} decorator that caches objects by id in an {@link OffHeapCache}, so a
+ * large inventory can be kept in memory without adding long-lived objects to the heap.
+ * <p>
+ * {@link #get(Serializable)} and {@link #exist(Serializable)} are answered from the cache when
+ * possible; objects loaded from the decorated store are cached only if their id has not been
+ * modified while loading them (See {@link OffHeapCache#putIfUnmodified(Object, Object, long)}), so a
+ * concurrent update or delete is never overwritten by a stale object. Objects are removed from the
+ * cache after being added, updated, computed or deleted, whether the operation succeeds or not, and
+ * cached again by the next {@link #get(Serializable)}: Caching the written object instead could
+ * leave a stale object in the cache, since concurrent writers do not necessarily reach the cache
+ * in the order their modifications were committed. {@link #getAll()}, {@link #size()} and
+ * {@link #clear()} are delegated.
+ * <p>
+ * Caveat: The cache only sees the modifications made through this store. If the data store is
+ * modified by other means the affected objects must be removed from the cache (See
+ * {@link #getCache()}).
+ * <p>
+ * This class is thread safe if the decorated store is.
+ * 
+ * @param <I> type of the identifiable object's id
+ * @param <T> type of the identifiable object (object to store in the data store)
+ */
+public final class OffHeapCachedKeyValueObjectStore<I extends Serializable, T extends Identifiable<I>> implements
+        KeyValueObjectStore<I, T> {
+
+    private final KeyValueObjectStore<I, T> delegate;
+    private final OffHeapCache<I, T> cache;
+
+    /**
+     * Creates a cached object store.
+     * 
+     * @param delegate decorated object store
+     * @param cache cache to keep the objects in
+     */
+    public OffHeapCachedKeyValueObjectStore(@Nonnull KeyValueObjectStore<I, T> delegate,
+            @Nonnull OffHeapCache<I, T> cache) {
+        this.delegate = Preconditions.checkNotNull(delegate, "delegate");
+        this.cache = Preconditions.checkNotNull(cache, "cache");
+    }
+
+    /**
+     * Gets the cache. The cache implements {@link org.opendaylight.persistence.util.common.type.OffHeapCacheMXBean}
+     * so it can be registered with the platform MBean server.
+     * 
+     * @return the cache
+     */
+    public OffHeapCache<I, T> getCache() {
+        return this.cache;
+    }
+
+    @Override
+    public T add(T identifiable) throws PersistenceException {
+        I id = identifiable != null ? identifiable.getIdentifier() : null;
+        try {
+            return this.delegate.add(identifiable);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public T update(T identifiable) throws PersistenceException {
+        I id = identifiable != null ? identifiable.getIdentifier() : null;
+        try {
+            return this.delegate.update(identifiable);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public void delete(I id) throws PersistenceException {
+        try {
+            this.delegate.delete(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public T get(I id) throws PersistenceException {
+        if (id == null) {
+            return this.delegate.get(id);
+        }
+
+        T identifiable = this.cache.get(id);
+        if (identifiable != null) {
+            return identifiable;
+        }
+
+        long stamp = this.cache.getModificationStamp(id);
+        identifiable = this.delegate.get(id);
+        if (identifiable != null) {
+            this.cache.putIfUnmodified(id, identifiable, stamp);
+        }
+        return identifiable;
+    }
+
+    @Override
+    public boolean exist(I id) throws PersistenceException {
+        if (id != null && this.cache.contains(id)) {
+            return true;
+        }
+        return this.delegate.exist(id);
+    }
+
+    @Override
+    public T compute(I id, Converter<T, T> remapping) throws PersistenceException {
+        try {
+            return this.delegate.compute(id, remapping);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public T computeIfPresent(I id, Converter<T, T> remapping) throws PersistenceException {
+        try {
+            return this.delegate.computeIfPresent(id, remapping);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public Collection<T> getAll() throws PersistenceException {
+        return this.delegate.getAll();
+    }
+
+    @Override
+    public long size() throws PersistenceException {
+        return this.delegate.size();
+    }
+
+    @Override
+    public void clear() throws PersistenceException {
+        try {
+            this.delegate.clear();
+        } finally {
+            this.cache.clear();
+        }
+    }
+
+    private void invalidate(I id) {
+        if (id != null) {
+            this.cache.remove(id);
+        }
+    }
+}
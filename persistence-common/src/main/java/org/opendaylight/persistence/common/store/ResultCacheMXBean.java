@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.store;
+
+/**
+ * Management interface of {@link ResultCachingObjectStore}: Exposes the result cache metrics
+ * through JMX.
+ * 
+ */
+public interface ResultCacheMXBean {
+
+    /**
+     * Gets the number of cached results.
+     * 
+     * @return the number of cached results
+     */
+    long getEntryCount();
+
+    /**
+     * Gets the maximum weight of the cache: The maximum number of objects (Summed across all cached
+     * results) the cache may hold.
+     * 
+     * @return the maximum weight
+     */
+    long getMaximumWeight();
+
+    /**
+     * Gets the number of queries answered from the cache.
+     * 
+     * @return the number of hits
+     */
+    long getHitCount();
+
+    /**
+     * Gets the number of queries delegated to the decorated store.
+     * 
+     * @return the number of misses
+     */
+    long getMissCount();
+
+    /**
+     * Gets the ratio of hits to queries.
+     * 
+     * @return the hit rate
+     */
+    double getHitRate();
+
+    /**
+     * Gets the number of results evicted because of size or expiration.
+     * 
+     * @return the number of evictions
+     */
+    long getEvictionCount();
+
+    /**
+     * Gets the number of results invalidated by writes.
+     * 
+     * @return the number of invalidations
+     */
+    long getInvalidationCount();
+
+    /**
+     * Gets the number of results not cached because a write happened while they were being loaded.
+     * 
+     * @return the number of discarded results
+     */
+    long getDiscardCount();
+
+    /**
+     * Invalidates all cached results. This operation is meant for when the data store is modified
+     * by other means than the caching store.
+     */
+    void invalidateAll();
+}
@@ -0,0 +1,505 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.store;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.store.ObjectStore;
+import org.opendaylight.persistence.util.common.Converter;
+import org.opendaylight.persistence.util.common.converter.CollectionConverter;
+import org.opendaylight.persistence.util.common.converter.IdentityConverter;
+import org.opendaylight.persistence.util.common.type.Sort;
+import org.opendaylight.persistence.util.common.type.page.OffsetPage;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+
+/**
+ * {@link ObjectStore} decorator that caches the results of {@link #find(Object, List)} and
+ * {@link #count(Object)} keyed by filter and sort specification, so repeated queries (For example,
+ * dashboards refreshing the same view) are answered from memory between writes.
+ * <p>
+ * The filter and the sort attribute types must implement {@link Object#equals(Object)} and
+ * {@link Object#hashCode()} based on their value. Results are keyed by a copy of the filter taken
+ * with the filter copier, so callers may modify a filter after using it in a query.
+ * <p>
+ * Any write through this store invalidates the cached results. If a {@link FilterEvaluator} is
+ * provided the invalidation is finer: Only the results whose filter matches the state of the
+ * modified object before or after the write are invalidated; to know the state before the write,
+ * updates, deletes and computations read the object from the decorated store first. Writes by
+ * filter ({@link #delete(Object)} and {@link #clear()}) always invalidate all results. Results loaded
+ * while a write is in progress are not cached, so a result never outlives the write that made it
+ * stale.
+ * <p>
+ * Memory is bounded by the number of objects held across all cached results (A count weighs as one
+ * object) and results expire after a time to live. Metrics are exposed through
+ * {@link ResultCacheMXBean}.
+ * <p>
+ * Caveats: The cache only sees the writes made through this store; if the data store is modified by
+ * other means the results must be invalidated (See {@link #invalidateAll()}). Cached objects are
+ * copied with the object copier when the result is cached and every time it is returned, so callers
+ * never share the objects they get. An {@link IdentityConverter} may be used as copier (Filter or
+ * object) only if the type is immutable.
+ * <p>
+ * This class is thread safe if the decorated store is.
+ * 
+ * @param <I> type of the identifiable object's id
+ * @param <T> type of the identifiable object (object to store in the data store)
+ * @param <F> type of the associated filter
+ * @param <S> type of the associated sort attribute or sort key used to construct sort
+ *            specifications
+ */
+public class ResultCachingObjectStore<I extends Serializable, T extends Identifiable<I>, F, S> implements
+        ObjectStore<I, T, F, S>, ResultCacheMXBean {
+
+    private final ObjectStore<I, T, F, S> delegate;
+    private final Converter<F, F> filterCopier;
+    private final Converter<T, T> copier;
+    private final FilterEvaluator<T, F> evaluator;
+    private final long maximumWeight;
+    private final Cache<ResultKey, Object> cache;
+    private final Object lock;
+    private long generation;
+    private final AtomicLong invalidationCount;
+    private final AtomicLong discardCount;
+
+    /**
+     * Creates a result caching object store that invalidates all results on writes.
+     * 
+     * @param delegate decorated object store
+     * @param maximumWeight maximum number of objects (Summed across all cached results) to cache
+     * @param timeToLive time a result is cached for
+     * @param timeUnit {@code timeToLive}'s time unit
+     * @param filterCopier converter that creates a copy of a filter to key results with
+     * @param copier converter that creates a copy of an object to cache or to return
+     */
+    public ResultCachingObjectStore(@Nonnull ObjectStore<I, T, F, S> delegate, long maximumWeight,
+            long timeToLive, @Nonnull TimeUnit timeUnit, @Nonnull Converter<F, F> filterCopier,
+            @Nonnull Converter<T, T> copier) {
+        this(delegate, maximumWeight, timeToLive, timeUnit, filterCopier, copier, null);
+    }
+
+    /**
+     * Creates a result caching object store.
+     * 
+     * @param delegate decorated object store
+     * @param maximumWeight maximum number of objects (Summed across all cached results) to cache
+     * @param timeToLive time a result is cached for
+     * @param timeUnit {@code timeToLive}'s time unit
+     * @param filterCopier converter that creates a copy of a filter to key results with
+     * @param copier converter that creates a copy of an object to cache or to return
+     * @param evaluator evaluator used to invalidate only the results affected by a write;
+     *            {@code null} to invalidate all results on writes
+     */
+    public ResultCachingObjectStore(@Nonnull ObjectStore<I, T, F, S> delegate, long maximumWeight,
+            long timeToLive, @Nonnull TimeUnit timeUnit, @Nonnull Converter<F, F> filterCopier,
+            @Nonnull Converter<T, T> copier, @Nullable FilterEvaluator<T, F> evaluator) {
+        Preconditions.checkArgument(maximumWeight > 0, "maximumWeight must be greater than zero");
+        Preconditions.checkArgument(timeToLive > 0, "timeToLive must be greater than zero");
+        Preconditions.checkNotNull(timeUnit, "timeUnit");
+
+        this.delegate = Preconditions.checkNotNull(delegate, "delegate");
+        this.filterCopier = Preconditions.checkNotNull(filterCopier, "filterCopier");
+        this.copier = Preconditions.checkNotNull(copier, "copier");
+        this.evaluator = evaluator;
+        this.maximumWeight = maximumWeight;
+        this.cache = CacheBuilder.newBuilder().maximumWeight(maximumWeight).weigher(ResultWeigher.INSTANCE)
+                .expireAfterWrite(timeToLive, timeUnit).recordStats().build();
+        this.lock = new Object();
+        this.invalidationCount = new AtomicLong();
+        this.discardCount = new AtomicLong();
+    }
+
+    @Override
+    public List<T> find(F filter, List<Sort<S>> sort) throws PersistenceException {
+        @SuppressWarnings("unchecked")
+        List<T> cached = (List<T>) getCachedResult(new ResultKey(ResultKind.FIND, filter, sort, null));
+        if (cached != null) {
+            return copy(cached);
+        }
+
+        ResultKey key = createKey(ResultKind.FIND, filter, sort, null);
+        long stamp = getGeneration();
+        List<T> result = this.delegate.find(filter, sort);
+        if (result != null) {
+            cacheIfUnmodified(key, Collections.unmodifiableList(copy(result)), stamp);
+        }
+        return result;
+    }
+
+    @Override
+    public long count(F filter) throws PersistenceException {
+        Long cached = (Long) getCachedResult(new ResultKey(ResultKind.COUNT, filter, null, null));
+        if (cached != null) {
+            return cached.longValue();
+        }
+
+        ResultKey key = createKey(ResultKind.COUNT, filter, null, null);
+        long stamp = getGeneration();
+        long result = this.delegate.count(filter);
+        cacheIfUnmodified(key, Long.valueOf(result), stamp);
+        return result;
+    }
+
+    @Override
+    public void delete(F filter) throws PersistenceException {
+        try {
+            this.delegate.delete(filter);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public T add(T identifiable) throws PersistenceException {
+        T added = null;
+        try {
+            added = this.delegate.add(identifiable);
+            return added;
+        } finally {
+            invalidate(identifiable, added);
+        }
+    }
+
+    @Override
+    public T update(T identifiable) throws PersistenceException {
+        T previous = identifiable != null ? getPreviousState(identifiable.getIdentifier()) : null;
+        T updated = null;
+        try {
+            updated = this.delegate.update(identifiable);
+            return updated;
+        } finally {
+            invalidate(previous, identifiable, updated);
+        }
+    }
+
+    @Override
+    public void delete(I id) throws PersistenceException {
+        T previous = getPreviousState(id);
+        try {
+            this.delegate.delete(id);
+        } finally {
+            invalidate(previous);
+        }
+    }
+
+    @Override
+    public T get(I id) throws PersistenceException {
+        return this.delegate.get(id);
+    }
+
+    @Override
+    public boolean exist(I id) throws PersistenceException {
+        return this.delegate.exist(id);
+    }
+
+    @Override
+    public T compute(I id, Converter<T, T> remapping) throws PersistenceException {
+        T previous = getPreviousState(id);
+        T computed = null;
+        try {
+            computed = this.delegate.compute(id, remapping);
+            return computed;
+        } finally {
+            invalidate(previous, computed);
+        }
+    }
+
+    @Override
+    public T computeIfPresent(I id, Converter<T, T> remapping) throws PersistenceException {
+        T previous = getPreviousState(id);
+        T computed = null;
+        try {
+            computed = this.delegate.computeIfPresent(id, remapping);
+            return computed;
+        } finally {
+            invalidate(previous, computed);
+        }
+    }
+
+    @Override
+    public Collection<T> getAll() throws PersistenceException {
+        return this.delegate.getAll();
+    }
+
+    @Override
+    public long size() throws PersistenceException {
+        return this.delegate.size();
+    }
+
+    @Override
+    public void clear() throws PersistenceException {
+        try {
+            this.delegate.clear();
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public long getEntryCount() {
+        return this.cache.size();
+    }
+
+    @Override
+    public long getMaximumWeight() {
+        return this.maximumWeight;
+    }
+
+    @Override
+    public long getHitCount() {
+        return this.cache.stats().hitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return this.cache.stats().missCount();
+    }
+
+    @Override
+    public double getHitRate() {
+        CacheStats stats = this.cache.stats();
+        return stats.requestCount() > 0 ? stats.hitRate() : 0.0;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return this.cache.stats().evictionCount();
+    }
+
+    @Override
+    public long getInvalidationCount() {
+        return this.invalidationCount.get();
+    }
+
+    @Override
+    public long getDiscardCount() {
+        return this.discardCount.get();
+    }
+
+    @Override
+    public void invalidateAll() {
+        synchronized (this.lock) {
+            this.generation++;
+            this.invalidationCount.addAndGet(this.cache.size());
+            this.cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Creates the key to cache a result with: The key holds a copy of the filter, so the result is not
+     * affected by later modifications of the caller's filter.
+     * 
+     * @param kind result kind
+     * @param filter filter
+     * @param sort sort specification
+     * @param pageRequest page request
+     * @return a result key
+     */
+    ResultKey createKey(ResultKind kind, F filter, List<?> sort, Object pageRequest) {
+        return new ResultKey(kind, filter != null ? this.filterCopier.convert(filter) : null, sort, pageRequest);
+    }
+
+    /**
+     * Gets the object copier.
+     * 
+     * @return the object copier
+     */
+    Converter<T, T> getCopier() {
+        return this.copier;
+    }
+
+    /**
+     * Gets a cached result.
+     * 
+     * @param key result key; lookups may use the caller's filter
+     * @return the cached result or {@code null} if the result is not cached
+     */
+    Object getCachedResult(ResultKey key) {
+        return this.cache.getIfPresent(key);
+    }
+
+    /**
+     * Gets the write generation: A stamp that changes every time results are invalidated.
+     * 
+     * @return the write generation
+     */
+    long getGeneration() {
+        synchronized (this.lock) {
+            return this.generation;
+        }
+    }
+
+    /**
+     * Caches a result unless results have been invalidated since it started loading.
+     * 
+     * @param key result key
+     * @param result result to cache
+     * @param stamp write generation taken before loading the result (See {@link #getGeneration()})
+     */
+    void cacheIfUnmodified(ResultKey key, Object result, long stamp) {
+        synchronized (this.lock) {
+            if (this.generation == stamp) {
+                this.cache.put(key, result);
+                return;
+            }
+        }
+        this.discardCount.incrementAndGet();
+    }
+
+    private List<T> copy(List<T> objects) {
+        return CollectionConverter.convert(objects, this.copier, CollectionConverter.<T> getArrayListFactory());
+    }
+
+    private T getPreviousState(I id) throws PersistenceException {
+        if (this.evaluator == null || id == null) {
+            return null;
+        }
+        return this.delegate.get(id);
+    }
+
+    @SafeVarargs
+    private final void invalidate(T... states) {
+        if (this.evaluator == null) {
+            invalidateAll();
+            return;
+        }
+
+        synchronized (this.lock) {
+            this.generation++;
+            try {
+                for (ResultKey key : this.cache.asMap().keySet()) {
+                    if (isAffected(key, states)) {
+                        this.cache.invalidate(key);
+                        this.invalidationCount.incrementAndGet();
+                    }
+                }
+            } catch (RuntimeException e) {
+                // The evaluator failed: The affected results are unknown
+                invalidateAll();
+            }
+        }
+    }
+
+    private boolean isAffected(ResultKey key, T[] states) {
+        @SuppressWarnings("unchecked")
+        F filter = (F) key.filter;
+        if (filter == null) {
+            return true;
+        }
+
+        for (T state : states) {
+            if (state != null && this.evaluator.matches(filter, state)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Filter evaluator: Evaluates a filter against an object in memory, enabling the invalidation of
+     * only the cached results a write affects.
+     * 
+     * @param <T> type of the identifiable object
+     * @param <F> type of the filter
+     */
+    public static interface FilterEvaluator<T, F> {
+
+        /**
+         * Evaluates whether an object is selected by a filter. In case of doubt an evaluator must
+         * return {@code true}: Returning {@code false} for a selected object leaves stale results in
+         * the cache.
+         * 
+         * @param filter filter
+         * @param identifiable object to evaluate
+         * @return {@code true} if {@code identifiable} is selected by {@code filter}, {@code false}
+         *         otherwise
+         */
+        boolean matches(@Nonnull F filter, @Nonnull T identifiable);
+    }
+
+    static enum ResultKind {
+        FIND, COUNT, PAGED_FIND
+    }
+
+    static final class ResultKey {
+        private final ResultKind kind;
+        private final Object filter;
+        private final List<?> sort;
+        private final Object pageRequest;
+
+        ResultKey(ResultKind kind, Object filter, List<?> sort, Object pageRequest) {
+            this.kind = kind;
+            this.filter = filter;
+            this.sort = sort != null ? new ArrayList<Object>(sort) : null;
+            this.pageRequest = pageRequest;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(this.kind, this.filter, this.sort, this.pageRequest);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (obj == null) {
+                return false;
+            }
+
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+
+            ResultKey other = (ResultKey) obj;
+
+            return this.kind == other.kind && Objects.equal(this.filter, other.filter)
+                    && Objects.equal(this.sort, other.sort) && Objects.equal(this.pageRequest, other.pageRequest);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this).add("kind", this.kind).add("filter", this.filter)
+                    .add("sort", this.sort).add("pageRequest", this.pageRequest).toString();
+        }
+    }
+
+    private static enum ResultWeigher implements Weigher<ResultKey, Object> {
+        INSTANCE;
+
+        @Override
+        public int weigh(ResultKey key, Object value) {
+            int weight = 1;
+            if (value instanceof List) {
+                weight = ((List<?>) value).size();
+            } else if (value instanceof OffsetPage) {
+                weight = ((OffsetPage<?>) value).getData().size();
+            }
+            return Math.max(weight, 1);
+        }
+    }
+}
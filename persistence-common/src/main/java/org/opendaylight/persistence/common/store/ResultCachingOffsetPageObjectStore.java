@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.store;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.store.OffsetPageObjectStore;
+import org.opendaylight.persistence.util.common.Converter;
+import org.opendaylight.persistence.util.common.type.Sort;
+import org.opendaylight.persistence.util.common.type.page.OffsetPage;
+import org.opendaylight.persistence.util.common.type.page.OffsetPageRequest;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+/**
+ * {@link OffsetPageObjectStore} decorator that caches query results: In addition to the results
+ * cached by {@link ResultCachingObjectStore}, pages are cached keyed by filter, sort specification
+ * and page request. As with any other result, the objects of a cached page are copied when the page
+ * is cached and every time it is returned.
+ * 
+ * @param <I> type of the identifiable object's id
+ * @param <T> type of the identifiable object (object to store in the data store)
+ * @param <F> type of the associated filter
+ * @param <S> type of the associated sort attribute or sort key used to construct sort
+ *            specifications
+ */
+public class ResultCachingOffsetPageObjectStore<I extends Serializable, T extends Identifiable<I>, F, S> extends
+        ResultCachingObjectStore<I, T, F, S> implements OffsetPageObjectStore<I, T, F, S> {
+
+    private final OffsetPageObjectStore<I, T, F, S> delegate;
+
+    /**
+     * Creates a result caching object store that invalidates all results on writes.
+     * 
+     * @param delegate decorated object store
+     * @param maximumWeight maximum number of objects (Summed across all cached results) to cache
+     * @param timeToLive time a result is cached for
+     * @param timeUnit {@code timeToLive}'s time unit
+     * @param filterCopier converter that creates a copy of a filter to key results with
+     * @param copier converter that creates a copy of an object to cache or to return
+     */
+    public ResultCachingOffsetPageObjectStore(@Nonnull OffsetPageObjectStore<I, T, F, S> delegate,
+            long maximumWeight, long timeToLive, @Nonnull TimeUnit timeUnit,
+            @Nonnull Converter<F, F> filterCopier, @Nonnull Converter<T, T> copier) {
+        this(delegate, maximumWeight, timeToLive, timeUnit, filterCopier, copier, null);
+    }
+
+    /**
+     * Creates a result caching object store.
+     * 
+     * @param delegate decorated object store
+     * @param maximumWeight maximum number of objects (Summed across all cached results) to cache
+     * @param timeToLive time a result is cached for
+     * @param timeUnit {@code timeToLive}'s time unit
+     * @param filterCopier converter that creates a copy of a filter to key results with
+     * @param copier converter that creates a copy of an object to cache or to return
+     * @param evaluator evaluator used to invalidate only the results affected by a write;
+     *            {@code null} to invalidate all results on writes
+     */
+    public ResultCachingOffsetPageObjectStore(@Nonnull OffsetPageObjectStore<I, T, F, S> delegate,
+            long maximumWeight, long timeToLive, @Nonnull TimeUnit timeUnit,
+            @Nonnull Converter<F, F> filterCopier, @Nonnull Converter<T, T> copier,
+            @Nullable FilterEvaluator<T, F> evaluator) {
+        super(delegate, maximumWeight, timeToLive, timeUnit, filterCopier, copier, evaluator);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public OffsetPage<T> find(F filter, List<Sort<S>> sort, OffsetPageRequest pageRequest)
+            throws PersistenceException {
+        @SuppressWarnings("unchecked")
+        OffsetPage<T> cached = (OffsetPage<T>) getCachedResult(new ResultKey(ResultKind.PAGED_FIND, filter, sort,
+                pageRequest));
+        if (cached != null) {
+            return cached.convert(getCopier());
+        }
+
+        ResultKey key = createKey(ResultKind.PAGED_FIND, filter, sort, pageRequest);
+        long stamp = getGeneration();
+        OffsetPage<T> result = this.delegate.find(filter, sort, pageRequest);
+        if (result != null) {
+            cacheIfUnmodified(key, result.convert(getCopier()), stamp);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.dao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class ExistenceFilterTest {
+
+    @Test
+    public void testNotPopulated() {
+        ExistenceFilter filter = new ExistenceFilter(100, 0.01);
+        Assert.assertFalse(filter.isPopulated());
+        Assert.assertTrue(filter.mightExist(Long.valueOf(1)));
+        Assert.assertEquals(0, filter.getLookupCount());
+    }
+
+    @Test
+    public void testPopulate() {
+        List<Long> ids = new ArrayList<Long>();
+        for (long i = 0; i < 1000; i++) {
+            ids.add(Long.valueOf(i));
+        }
+
+        ExistenceFilter filter = new ExistenceFilter(10000, 0.01);
+        filter.populate(ids);
+        Assert.assertTrue(filter.isPopulated());
+        Assert.assertEquals(1000, filter.getIdCount());
+
+        for (Long id : ids) {
+            Assert.assertTrue(filter.mightExist(id));
+        }
+
+        // Populating twice has no effect
+        filter.populate(ids);
+        Assert.assertEquals(1000, filter.getIdCount());
+    }
+
+    @Test
+    public void testAddBeforePopulate() {
+        ExistenceFilter filter = new ExistenceFilter(100, 0.01);
+        Long added = Long.valueOf(1);
+        Long deleted = Long.valueOf(2);
+
+        // Added by a transaction the populating scan does not see
+        filter.add(added);
+        // Removing an id not recorded must not cause false negatives
+        filter.remove(deleted);
+        filter.populate(Arrays.asList(deleted));
+
+        Assert.assertTrue(filter.mightExist(added));
+        Assert.assertTrue(filter.mightExist(deleted));
+    }
+
+    @Test
+    public void testAddRemove() {
+        ExistenceFilter filter = new ExistenceFilter(100, 0.01);
+        filter.populate(Collections.emptyList());
+
+        Long id = Long.valueOf(1);
+        Assert.assertFalse(filter.mightExist(id));
+
+        filter.add(id);
+        Assert.assertTrue(filter.mightExist(id));
+
+        filter.remove(id);
+        Assert.assertFalse(filter.mightExist(id));
+
+        filter.add(id);
+        filter.clear();
+        Assert.assertTrue(filter.isPopulated());
+        Assert.assertFalse(filter.mightExist(id));
+    }
+
+    @Test
+    public void testInvalidate() {
+        ExistenceFilter filter = new ExistenceFilter(100, 0.01);
+        filter.populate(Arrays.asList(Long.valueOf(1)));
+
+        filter.invalidate();
+        Assert.assertFalse(filter.isPopulated());
+        Assert.assertEquals(0, filter.getIdCount());
+        Assert.assertTrue(filter.mightExist(Long.valueOf(2)));
+
+        filter.populate(Arrays.asList(Long.valueOf(2)));
+        Assert.assertTrue(filter.mightExist(Long.valueOf(2)));
+    }
+
+    @Test
+    public void testMetrics() {
+        ExistenceFilter filter = new ExistenceFilter(100, 0.01);
+        filter.populate(Arrays.asList(Long.valueOf(1)));
+
+        Assert.assertEquals(0.0, filter.getObservedFalsePositiveRate(), 0.0);
+
+        Assert.assertTrue(filter.mightExist(Long.valueOf(1)));
+        Assert.assertFalse(filter.mightExist(Long.valueOf(2)));
+        Assert.assertFalse(filter.mightExist(Long.valueOf(3)));
+        filter.reportFalsePositive();
+
+        Assert.assertEquals(3, filter.getLookupCount());
+        Assert.assertEquals(2, filter.getSkippedLookupCount());
+        Assert.assertEquals(1, filter.getFalsePositiveCount());
+        Assert.assertEquals(1.0 / 3, filter.getObservedFalsePositiveRate(), 0.0001);
+        Assert.assertTrue(filter.getExpectedFalsePositiveRate() > 0);
+        Assert.assertTrue(filter.getExpectedFalsePositiveRate() < 0.01);
+        Assert.assertTrue(filter.getMemoryUsage() > 0);
+        Assert.assertNotNull(filter.toString());
+    }
+}
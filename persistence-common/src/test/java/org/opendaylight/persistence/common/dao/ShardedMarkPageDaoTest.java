@@ -0,0 +1,386 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.dao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.datastore.ShardedContext;
+import org.opendaylight.persistence.common.datastore.ShardedDataStore;
+import org.opendaylight.persistence.dao.MarkPageDao;
+import org.opendaylight.persistence.util.common.type.NullOrdering;
+import org.opendaylight.persistence.util.common.type.Sort;
+import org.opendaylight.persistence.util.common.type.SortOrder;
+import org.opendaylight.persistence.util.common.type.page.MarkPage;
+import org.opendaylight.persistence.util.common.type.page.MarkPageRequest;
+import org.opendaylight.persistence.util.common.type.page.MarkPageRequest.Navigation;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class ShardedMarkPageDaoTest {
+
+    private static final int SHARD_COUNT = 4;
+    private static final int ITEM_COUNT = 100;
+    private static final List<Sort<ItemSortKey>> SORT = Arrays.asList(Sort.descending(ItemSortKey.VALUE),
+            Sort.ascending(ItemSortKey.ID));
+
+    private ExecutorService executor;
+    private List<Shard> shards;
+    private ShardedDataStore<Shard> dataStore;
+    private ShardedItemDao dao;
+    private List<Item> expected;
+
+    @Before
+    public void setUp() throws PersistenceException {
+        this.executor = Executors.newFixedThreadPool(SHARD_COUNT);
+        this.shards = new ArrayList<Shard>();
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            this.shards.add(new Shard());
+        }
+        this.dataStore = new ShardedDataStore<Shard>(this.shards, this.executor);
+        this.dao = new ShardedItemDao();
+
+        this.expected = new ArrayList<Item>();
+        for (long i = 0; i < ITEM_COUNT; i++) {
+            final Item item = new Item(Long.valueOf(i), (int) (i % 7));
+            this.expected.add(item);
+            execute(new Query<Item, ShardedContext<Shard>>() {
+                @Override
+                public Item execute(ShardedContext<Shard> context) throws PersistenceException {
+                    return ShardedMarkPageDaoTest.this.dao.add(item, context);
+                }
+            });
+        }
+        Collections.sort(this.expected, new ItemDao().getComparator(SORT));
+    }
+
+    @After
+    public void tearDown() {
+        this.executor.shutdown();
+    }
+
+    @Test
+    public void testOperationsById() throws PersistenceException {
+        Assert.assertEquals(ITEM_COUNT, size());
+        for (Shard shard : this.shards) {
+            Assert.assertFalse(shard.items.isEmpty());
+        }
+
+        final Long id = Long.valueOf(7);
+        Item item = execute(new Query<Item, ShardedContext<Shard>>() {
+            @Override
+            public Item execute(ShardedContext<Shard> context) throws PersistenceException {
+                Assert.assertTrue(ShardedMarkPageDaoTest.this.dao.exist(id, context));
+                Assert.assertFalse(ShardedMarkPageDaoTest.this.dao.exist(null, context));
+                Assert.assertNull(ShardedMarkPageDaoTest.this.dao.get(null, context));
+                Item stored = ShardedMarkPageDaoTest.this.dao.get(id, context);
+                ShardedMarkPageDaoTest.this.dao.delete(id, context);
+                return stored;
+            }
+        });
+        Assert.assertEquals(id, item.getIdentifier());
+        Assert.assertEquals(ITEM_COUNT - 1, size());
+
+        int holders = 0;
+        for (Shard shard : this.shards) {
+            if (shard.deleted.contains(id)) {
+                holders++;
+            }
+        }
+        Assert.assertEquals(1, holders);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddWithoutId() throws PersistenceException {
+        execute(new Query<Item, ShardedContext<Shard>>() {
+            @Override
+            public Item execute(ShardedContext<Shard> context) throws PersistenceException {
+                return ShardedMarkPageDaoTest.this.dao.add(new Item(null, 0), context);
+            }
+        });
+    }
+
+    @Test
+    public void testFindAndCount() throws PersistenceException {
+        List<Item> found = execute(new Query<List<Item>, ShardedContext<Shard>>() {
+            @Override
+            public List<Item> execute(ShardedContext<Shard> context) throws PersistenceException {
+                return ShardedMarkPageDaoTest.this.dao.find(Integer.valueOf(0), SORT, context);
+            }
+        });
+        Assert.assertEquals(this.expected, found);
+
+        long count = execute(new Query<Long, ShardedContext<Shard>>() {
+            @Override
+            public Long execute(ShardedContext<Shard> context) throws PersistenceException {
+                return Long.valueOf(ShardedMarkPageDaoTest.this.dao.count(Integer.valueOf(5), context));
+            }
+        }).longValue();
+        Assert.assertEquals(28, count);
+    }
+
+    @Test
+    public void testNextPages() throws PersistenceException {
+        for (int size = 1; size <= ITEM_COUNT + 1; size += 9) {
+            List<Item> aggregated = new ArrayList<Item>();
+            MarkPageRequest<Item> request = new MarkPageRequest<Item>(size);
+            MarkPage<Item> page;
+            do {
+                page = find(request);
+                Assert.assertTrue(page.getData().size() <= size);
+                aggregated.addAll(page.getData());
+                request = page.getNextPageRequest();
+            } while (!page.isEmpty());
+
+            Assert.assertEquals(this.expected, aggregated);
+        }
+    }
+
+    @Test
+    public void testPreviousPages() throws PersistenceException {
+        int size = 8;
+        List<Item> aggregated = new ArrayList<Item>();
+        MarkPageRequest<Item> request = new MarkPageRequest<Item>(null, Navigation.PREVIOUS, size);
+        MarkPage<Item> page;
+        do {
+            page = find(request);
+            aggregated.addAll(0, page.getData());
+            request = page.getPreviousPageRequest();
+        } while (!page.isEmpty());
+
+        Assert.assertEquals(this.expected, aggregated);
+    }
+
+    @Test
+    public void testBoundedFetching() throws PersistenceException {
+        int size = 20;
+        for (Shard shard : this.shards) {
+            shard.requestedSizes.clear();
+        }
+
+        MarkPage<Item> page = find(new MarkPageRequest<Item>(size));
+        Assert.assertEquals(this.expected.subList(0, size), page.getData());
+
+        for (Shard shard : this.shards) {
+            int requested = 0;
+            for (Integer requestedSize : shard.requestedSizes) {
+                requested += requestedSize.intValue();
+            }
+            Assert.assertTrue(requested <= size);
+            // First chunk is the fair share
+            Assert.assertEquals(Integer.valueOf(size / SHARD_COUNT), shard.requestedSizes.get(0));
+        }
+    }
+
+    private MarkPage<Item> find(final MarkPageRequest<Item> request) throws PersistenceException {
+        return execute(new Query<MarkPage<Item>, ShardedContext<Shard>>() {
+            @Override
+            public MarkPage<Item> execute(ShardedContext<Shard> context) throws PersistenceException {
+                return ShardedMarkPageDaoTest.this.dao.find(Integer.valueOf(0), SORT, request, context);
+            }
+        });
+    }
+
+    private long size() throws PersistenceException {
+        return execute(new Query<Long, ShardedContext<Shard>>() {
+            @Override
+            public Long execute(ShardedContext<Shard> context) throws PersistenceException {
+                return Long.valueOf(ShardedMarkPageDaoTest.this.dao.size(context));
+            }
+        }).longValue();
+    }
+
+    private <T> T execute(Query<T, ShardedContext<Shard>> query) throws PersistenceException {
+        return this.dataStore.execute(query);
+    }
+
+    private static class Item implements Identifiable<Long> {
+        private final Long id;
+        private final int value;
+
+        public Item(Long id, int value) {
+            this.id = id;
+            this.value = value;
+        }
+
+        @Override
+        public Long getIdentifier() {
+            return this.id;
+        }
+
+        @Override
+        public String toString() {
+            return this.id + ":" + this.value;
+        }
+    }
+
+    private static enum ItemSortKey {
+        ID, VALUE
+    }
+
+    /**
+     * In-memory shard: The context is the shard itself.
+     */
+    private static class Shard implements DataStore<Shard> {
+        private final TreeMap<Long, Item> items = new TreeMap<Long, Item>();
+        private final List<Long> deleted = new ArrayList<Long>();
+        private final List<Integer> requestedSizes = new ArrayList<Integer>();
+
+        @Override
+        public synchronized <T> T execute(Query<T, Shard> query) throws PersistenceException {
+            return query.execute(this);
+        }
+    }
+
+    private static class ShardedItemDao extends ShardedMarkPageDao<Long, Item, Integer, ItemSortKey, Shard> {
+
+        public ShardedItemDao() {
+            super(new ItemDao(), NullOrdering.LOW);
+        }
+
+        @Override
+        protected Comparable<?> getSortValue(Item identifiable, ItemSortKey sortAttribute) {
+            return ItemDao.sortValue(identifiable, sortAttribute);
+        }
+    }
+
+    /**
+     * In-memory DAO; the filter is the minimum value.
+     */
+    private static class ItemDao implements MarkPageDao<Long, Item, Integer, ItemSortKey, Shard> {
+
+        @Override
+        public Item add(Item identifiable, Shard context) {
+            context.items.put(identifiable.getIdentifier(), identifiable);
+            return identifiable;
+        }
+
+        @Override
+        public Item update(Item identifiable, Shard context) {
+            return add(identifiable, context);
+        }
+
+        @Override
+        public void delete(Long id, Shard context) {
+            context.items.remove(id);
+            context.deleted.add(id);
+        }
+
+        @Override
+        public Item get(Long id, Shard context) {
+            return context.items.get(id);
+        }
+
+        @Override
+        public boolean exist(Long id, Shard context) {
+            return context.items.containsKey(id);
+        }
+
+        @Override
+        public Collection<Item> getAll(Shard context) {
+            return new ArrayList<Item>(context.items.values());
+        }
+
+        @Override
+        public long size(Shard context) {
+            return context.items.size();
+        }
+
+        @Override
+        public void clear(Shard context) {
+            context.items.clear();
+        }
+
+        @Override
+        public List<Item> find(Integer filter, List<Sort<ItemSortKey>> sort, Shard context) {
+            List<Item> result = new ArrayList<Item>();
+            for (Item item : context.items.values()) {
+                if (item.value >= filter.intValue()) {
+                    result.add(item);
+                }
+            }
+            Collections.sort(result, getComparator(sort));
+            return result;
+        }
+
+        @Override
+        public long count(Integer filter, Shard context) {
+            return find(filter, null, context).size();
+        }
+
+        @Override
+        public void delete(Integer filter, Shard context) {
+            for (Item item : find(filter, null, context)) {
+                delete(item.getIdentifier(), context);
+            }
+        }
+
+        @Override
+        public MarkPage<Item> find(Integer filter, List<Sort<ItemSortKey>> sort, MarkPageRequest<Item> pageRequest,
+                Shard context) {
+            context.requestedSizes.add(Integer.valueOf(pageRequest.getSize()));
+            Comparator<Item> comparator = getComparator(sort);
+            List<Item> sorted = find(filter, sort, context);
+            Item mark = pageRequest.getMark();
+
+            List<Item> data = new ArrayList<Item>();
+            if (pageRequest.getNavigation() == Navigation.NEXT) {
+                for (Item item : sorted) {
+                    if (data.size() < pageRequest.getSize() && (mark == null || comparator.compare(item, mark) > 0)) {
+                        data.add(item);
+                    }
+                }
+            } else {
+                for (int i = sorted.size() - 1; i >= 0; i--) {
+                    Item item = sorted.get(i);
+                    if (data.size() < pageRequest.getSize() && (mark == null || comparator.compare(item, mark) < 0)) {
+                        data.add(0, item);
+                    }
+                }
+            }
+            return new MarkPage<Item>(pageRequest, data);
+        }
+
+        Comparator<Item> getComparator(final List<Sort<ItemSortKey>> sort) {
+            return new Comparator<Item>() {
+                @SuppressWarnings({ "rawtypes", "unchecked" })
+                @Override
+                public int compare(Item a, Item b) {
+                    if (sort != null) {
+                        for (Sort<ItemSortKey> component : sort) {
+                            int result = ((Comparable) sortValue(a, component.by())).compareTo(sortValue(b,
+                                    component.by()));
+                            if (result != 0) {
+                                return component.order() == SortOrder.DESCENDING ? -result : result;
+                            }
+                        }
+                    }
+                    return 0;
+                }
+            };
+        }
+
+        static Comparable<?> sortValue(Item item, ItemSortKey sortKey) {
+            return sortKey == ItemSortKey.ID ? item.getIdentifier() : Integer.valueOf(item.value);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.datastore;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class RetryPolicyTest {
+
+    @Test
+    public void testGetDelay() {
+        RetryPolicy policy = new RetryPolicy(10, 10, 100);
+        Random random = new Random(1);
+        long[] bounds = { 10, 20, 40, 80, 100, 100 };
+        for (int retry = 1; retry <= bounds.length; retry++) {
+            for (int i = 0; i < 100; i++) {
+                long delay = policy.getDelay(retry, random);
+                Assert.assertTrue(delay >= 0);
+                Assert.assertTrue(delay < bounds[retry - 1]);
+            }
+        }
+    }
+
+    @Test
+    public void testGetDelayLargeRetry() {
+        RetryPolicy policy = new RetryPolicy(Integer.MAX_VALUE, 1, Long.MAX_VALUE);
+        Assert.assertTrue(policy.getDelay(Integer.MAX_VALUE, new Random(1)) >= 0);
+    }
+
+    @Test
+    public void testGetDelayZero() {
+        Assert.assertEquals(0, new RetryPolicy(3, 0, 0).getDelay(2, new Random()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxAttempts() {
+        new RetryPolicy(0, 10, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxDelay() {
+        new RetryPolicy(3, 100, 10);
+    }
+
+    @Test
+    public void testBudget() {
+        RetryBudget budget = new RetryBudget(2, 0.5);
+        Assert.assertTrue(budget.tryAcquire());
+        Assert.assertTrue(budget.tryAcquire());
+        Assert.assertFalse(budget.tryAcquire());
+
+        budget.onSuccess();
+        Assert.assertFalse(budget.tryAcquire());
+        budget.onSuccess();
+        Assert.assertTrue(budget.tryAcquire());
+
+        for (int i = 0; i < 10; i++) {
+            budget.onSuccess();
+        }
+        Assert.assertEquals(2.0, budget.getAvailableTokens(), 0.0);
+    }
+}
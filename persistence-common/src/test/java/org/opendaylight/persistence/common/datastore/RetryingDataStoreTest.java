@@ -0,0 +1,252 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.datastore;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.query.KeyedQuery;
+
+import com.google.common.base.Predicate;
+import com.google.common.util.concurrent.Striped;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class RetryingDataStoreTest {
+
+    private static final RetryPolicy NO_DELAY_POLICY = new RetryPolicy(3, 0, 0);
+
+    @Test
+    public void testExecuteNoConflict() throws Exception {
+        RetryingDataStore<Object> dataStore = new RetryingDataStore<Object>(new DirectDataStore(),
+                NO_DELAY_POLICY, RetryBudget.unlimited(), ConflictPredicate.INSTANCE, null);
+
+        Assert.assertEquals("result", dataStore.execute(new FailingQuery(0, null)));
+        Assert.assertEquals(1, dataStore.getExecutionCount());
+        Assert.assertEquals(0, dataStore.getConflictCount());
+        Assert.assertEquals(0, dataStore.getRetryCount());
+        Assert.assertEquals(0.0, dataStore.getConflictRate(), 0.0);
+    }
+
+    @Test
+    public void testExecuteRetriesConflict() throws Exception {
+        RetryingDataStore<Object> dataStore = new RetryingDataStore<Object>(new DirectDataStore(),
+                NO_DELAY_POLICY, RetryBudget.unlimited(), ConflictPredicate.INSTANCE, null);
+
+        FailingQuery query = new FailingQuery(2, null);
+        Assert.assertEquals("result", dataStore.execute(query));
+        Assert.assertEquals(3, query.executions);
+        Assert.assertEquals(1, dataStore.getExecutionCount());
+        Assert.assertEquals(2, dataStore.getConflictCount());
+        Assert.assertEquals(2, dataStore.getRetryCount());
+        Assert.assertEquals(0, dataStore.getFailureCount());
+        Assert.assertEquals(2.0, dataStore.getRetryRate(), 0.0);
+    }
+
+    @Test
+    public void testExecuteMaxAttempts() {
+        RetryingDataStore<Object> dataStore = new RetryingDataStore<Object>(new DirectDataStore(),
+                NO_DELAY_POLICY, RetryBudget.unlimited(), ConflictPredicate.INSTANCE, null);
+
+        FailingQuery query = new FailingQuery(5, null);
+        try {
+            dataStore.execute(query);
+            Assert.fail("Conflict expected");
+        } catch (PersistenceException e) {
+            Assert.assertTrue(e.getCause() instanceof ConflictException);
+        }
+        Assert.assertEquals(3, query.executions);
+        Assert.assertEquals(3, dataStore.getConflictCount());
+        Assert.assertEquals(2, dataStore.getRetryCount());
+        Assert.assertEquals(1, dataStore.getFailureCount());
+    }
+
+    @Test
+    public void testExecuteNonConflictNotRetried() {
+        RetryingDataStore<Object> dataStore = new RetryingDataStore<Object>(new DirectDataStore(),
+                NO_DELAY_POLICY, RetryBudget.unlimited(), ConflictPredicate.INSTANCE, null);
+
+        FailingQuery query = new FailingQuery(1, new IllegalStateException());
+        try {
+            dataStore.execute(query);
+            Assert.fail("Failure expected");
+        } catch (IllegalStateException e) {
+            // Expected
+        } catch (PersistenceException e) {
+            Assert.fail("Unexpected exception " + e);
+        }
+        Assert.assertEquals(1, query.executions);
+        Assert.assertEquals(0, dataStore.getConflictCount());
+        Assert.assertEquals(0, dataStore.getFailureCount());
+    }
+
+    @Test
+    public void testExecuteBudgetExhausted() throws Exception {
+        RetryingDataStore<Object> dataStore = new RetryingDataStore<Object>(new DirectDataStore(),
+                NO_DELAY_POLICY, new RetryBudget(1, 0.0), ConflictPredicate.INSTANCE, null);
+
+        Assert.assertEquals("result", dataStore.execute(new FailingQuery(1, null)));
+
+        FailingQuery query = new FailingQuery(1, null);
+        try {
+            dataStore.execute(query);
+            Assert.fail("Conflict expected");
+        } catch (PersistenceException e) {
+            // Expected
+        }
+        Assert.assertEquals(1, query.executions);
+        Assert.assertEquals(1, dataStore.getBudgetExhaustedCount());
+        Assert.assertEquals(1, dataStore.getFailureCount());
+        Assert.assertEquals(0.0, dataStore.getAvailableRetryTokens(), 0.0);
+    }
+
+    @Test
+    public void testExecuteSerializesSameKey() throws Exception {
+        final RetryingDataStore<Object> dataStore = new RetryingDataStore<Object>(new DirectDataStore(),
+                NO_DELAY_POLICY, RetryBudget.unlimited(), ConflictPredicate.INSTANCE, Striped.<Lock> lock(16));
+
+        final int threads = 4;
+        final int executionsPerThread = 50;
+        final AtomicInteger concurrentExecutions = new AtomicInteger();
+        final AtomicInteger maxConcurrentExecutions = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int i = 0; i < threads; i++) {
+                futures[i] = executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        start.await();
+                        for (int j = 0; j < executionsPerThread; j++) {
+                            dataStore.execute(new KeyedTestQuery("key", concurrentExecutions,
+                                    maxConcurrentExecutions));
+                        }
+                        return null;
+                    }
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(1, maxConcurrentExecutions.get());
+        Assert.assertEquals(threads * executionsPerThread, dataStore.getExecutionCount());
+    }
+
+    @Test
+    public void testExecuteInterrupted() {
+        RetryingDataStore<Object> dataStore = new RetryingDataStore<Object>(new DirectDataStore(),
+                new RetryPolicy(2, 1000, 1000), RetryBudget.unlimited(), new Predicate<Throwable>() {
+                    @Override
+                    public boolean apply(Throwable input) {
+                        Thread.currentThread().interrupt();
+                        return true;
+                    }
+                }, null);
+
+        try {
+            dataStore.execute(new FailingQuery(1, null));
+            Assert.fail("Interruption expected");
+        } catch (PersistenceException e) {
+            Assert.assertTrue(e.getCause() instanceof InterruptedException);
+            Assert.assertTrue(Thread.interrupted());
+        }
+    }
+
+    private static class DirectDataStore implements DataStore<Object> {
+        @Override
+        public <T> T execute(Query<T, Object> query) throws PersistenceException {
+            return query.execute(new Object());
+        }
+    }
+
+    private static class ConflictException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static class ConflictPredicate implements Predicate<Throwable> {
+        static final ConflictPredicate INSTANCE = new ConflictPredicate();
+
+        @Override
+        public boolean apply(Throwable input) {
+            return input.getCause() instanceof ConflictException;
+        }
+    }
+
+    private static class FailingQuery implements Query<String, Object> {
+        private int failures;
+        private final RuntimeException failure;
+        int executions;
+
+        public FailingQuery(int failures, RuntimeException failure) {
+            this.failures = failures;
+            this.failure = failure;
+        }
+
+        @Override
+        public String execute(Object context) throws PersistenceException {
+            this.executions++;
+            if (this.failures > 0) {
+                this.failures--;
+                if (this.failure != null) {
+                    throw this.failure;
+                }
+                throw new PersistenceException(new ConflictException());
+            }
+            return "result";
+        }
+    }
+
+    private static class KeyedTestQuery implements KeyedQuery<Void, Object> {
+        private final Object key;
+        private final AtomicInteger concurrentExecutions;
+        private final AtomicInteger maxConcurrentExecutions;
+
+        public KeyedTestQuery(Object key, AtomicInteger concurrentExecutions,
+                AtomicInteger maxConcurrentExecutions) {
+            this.key = key;
+            this.concurrentExecutions = concurrentExecutions;
+            this.maxConcurrentExecutions = maxConcurrentExecutions;
+        }
+
+        @Override
+        public Object getKey() {
+            return this.key;
+        }
+
+        @Override
+        public Void execute(Object context) throws PersistenceException {
+            int concurrent = this.concurrentExecutions.incrementAndGet();
+            while (true) {
+                int max = this.maxConcurrentExecutions.get();
+                if (concurrent <= max || this.maxConcurrentExecutions.compareAndSet(max, concurrent)) {
+                    break;
+                }
+            }
+            Thread.yield();
+            this.concurrentExecutions.decrementAndGet();
+            return null;
+        }
+    }
+}
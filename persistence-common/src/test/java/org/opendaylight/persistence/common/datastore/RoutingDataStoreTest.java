@@ -0,0 +1,260 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.datastore;
+
+import java.net.ConnectException;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.datastore.RoutingDataStore.Balancing;
+import org.opendaylight.persistence.common.query.QueryKey;
+import org.opendaylight.persistence.common.query.ReadQuery;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class RoutingDataStoreTest {
+
+    private static final Query<Object, Object> READ = new TestReadQuery();
+    private static final Query<Object, Object> WRITE = new TestWriteQuery();
+
+    @Test
+    public void testRoundRobin() throws PersistenceException {
+        RoutingDataStore<Object> dataStore = new RoutingDataStore<Object>(new NamedDataStore("primary"),
+                Arrays.asList(new NamedDataStore("replica 1"), new NamedDataStore("replica 2")),
+                Balancing.ROUND_ROBIN, 0, TimeUnit.SECONDS);
+
+        Assert.assertEquals("replica 1", dataStore.execute(READ));
+        Assert.assertEquals("replica 2", dataStore.execute(READ));
+        Assert.assertEquals("replica 1", dataStore.execute(READ));
+        Assert.assertEquals("primary", dataStore.execute(WRITE));
+        Assert.assertEquals("replica 2", dataStore.execute(READ));
+
+        Assert.assertEquals(4, dataStore.getReadCount());
+        Assert.assertEquals(1, dataStore.getWriteCount());
+        Assert.assertEquals(0, dataStore.getStickyReadCount());
+        Assert.assertArrayEquals(new long[] { 2, 2 }, dataStore.getReplicaReadCounts());
+    }
+
+    @Test
+    public void testNoReplicas() throws PersistenceException {
+        RoutingDataStore<Object> dataStore = new RoutingDataStore<Object>(new NamedDataStore("primary"),
+                Collections.<DataStore<Object>> emptyList(), Balancing.ROUND_ROBIN, 0, TimeUnit.SECONDS);
+
+        Assert.assertEquals("primary", dataStore.execute(READ));
+        Assert.assertEquals("primary", dataStore.execute(WRITE));
+        Assert.assertEquals(1, dataStore.getReadCount());
+    }
+
+    @Test
+    public void testReadYourWrites() throws Exception {
+        final RoutingDataStore<Object> dataStore = new RoutingDataStore<Object>(new NamedDataStore("primary"),
+                Arrays.asList(new NamedDataStore("replica")), Balancing.ROUND_ROBIN, 1, TimeUnit.HOURS);
+
+        Assert.assertEquals("replica", dataStore.execute(READ));
+        Assert.assertEquals("primary", dataStore.execute(WRITE));
+        Assert.assertEquals("primary", dataStore.execute(READ));
+        Assert.assertEquals(1, dataStore.getStickyReadCount());
+
+        // Stickiness is per thread
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Object result = executor.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    return dataStore.execute(READ);
+                }
+            }).get();
+            Assert.assertEquals("replica", result);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testStickinessWindowExpires() throws Exception {
+        RoutingDataStore<Object> dataStore = new RoutingDataStore<Object>(new NamedDataStore("primary"),
+                Arrays.asList(new NamedDataStore("replica")), Balancing.ROUND_ROBIN, 50, TimeUnit.MILLISECONDS);
+
+        dataStore.execute(WRITE);
+        Thread.sleep(100);
+        Assert.assertEquals("replica", dataStore.execute(READ));
+        Assert.assertEquals(0, dataStore.getStickyReadCount());
+    }
+
+    @Test
+    public void testFailover() throws PersistenceException {
+        NamedDataStore replica = new NamedDataStore("replica");
+        replica.failure = createConnectionFailure();
+        RoutingDataStore<Object> dataStore = new RoutingDataStore<Object>(new NamedDataStore("primary"),
+                Arrays.asList(replica), Balancing.ROUND_ROBIN, 0, TimeUnit.SECONDS);
+
+        Assert.assertEquals("primary", dataStore.execute(READ));
+        Assert.assertEquals(1, dataStore.getFailoverCount());
+    }
+
+    @Test
+    public void testQueryFailureNotFailedOver() throws PersistenceException {
+        NamedDataStore replica = new NamedDataStore("replica");
+        replica.failure = new PersistenceException("invalid filter", new IllegalArgumentException());
+        NamedDataStore primary = new NamedDataStore("primary");
+        RoutingDataStore<Object> dataStore = new RoutingDataStore<Object>(primary, Arrays.asList(replica),
+                Balancing.ROUND_ROBIN, 0, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                dataStore.execute(READ);
+                Assert.fail("Query failure expected");
+            } catch (PersistenceException e) {
+                Assert.assertSame(replica.failure, e);
+            }
+        }
+
+        // The replica is not ejected and the query is not executed against the primary
+        Assert.assertArrayEquals(new long[] { 2 }, dataStore.getReplicaReadCounts());
+        Assert.assertEquals(0, dataStore.getFailoverCount());
+    }
+
+    @Test
+    public void testIsDataStoreFailure() {
+        Assert.assertTrue(RoutingDataStore.isDataStoreFailure(new PersistenceException(new ConnectException())));
+        Assert.assertTrue(RoutingDataStore.isDataStoreFailure(new RuntimeException(new SQLException(
+                "Connection reset", "08S01"))));
+        Assert.assertFalse(RoutingDataStore.isDataStoreFailure(new PersistenceException(new SQLException(
+                "Syntax error", "42000"))));
+        Assert.assertFalse(RoutingDataStore.isDataStoreFailure(new IllegalStateException()));
+        Assert.assertFalse(RoutingDataStore.isDataStoreFailure(new PersistenceException("invalid filter")));
+    }
+
+    @Test
+    public void testFailingReplicaEjected() throws PersistenceException {
+        NamedDataStore failingReplica = new NamedDataStore("failing replica");
+        failingReplica.failure = createConnectionFailure();
+        NamedDataStore slowReplica = new NamedDataStore("slow replica");
+        slowReplica.delay = 2;
+        RoutingDataStore<Object> dataStore = new RoutingDataStore<Object>(new NamedDataStore("primary"),
+                Arrays.asList(failingReplica, slowReplica), Balancing.LEAST_LATENCY, 0, TimeUnit.SECONDS);
+
+        int reads = 64;
+        for (int i = 0; i < reads; i++) {
+            Assert.assertNotEquals("failing replica", dataStore.execute(READ));
+        }
+
+        // The failing replica fails fast, yet it is not chosen again once it failed
+        Assert.assertArrayEquals(new long[] { 1, reads - 1 }, dataStore.getReplicaReadCounts());
+        Assert.assertEquals(1, dataStore.getFailoverCount());
+        Assert.assertEquals(0.0, dataStore.getReplicaLatencies()[0], 0.0);
+    }
+
+    @Test
+    public void testAllReplicasEjected() throws PersistenceException {
+        NamedDataStore replica1 = new NamedDataStore("replica 1");
+        replica1.failure = createConnectionFailure();
+        NamedDataStore replica2 = new NamedDataStore("replica 2");
+        replica2.failure = createConnectionFailure();
+        RoutingDataStore<Object> dataStore = new RoutingDataStore<Object>(new NamedDataStore("primary"),
+                Arrays.asList(replica1, replica2), Balancing.ROUND_ROBIN, 0, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals("primary", dataStore.execute(READ));
+        }
+
+        Assert.assertArrayEquals(new long[] { 1, 1 }, dataStore.getReplicaReadCounts());
+        Assert.assertEquals(2, dataStore.getFailoverCount());
+        Assert.assertEquals(4, dataStore.getReadCount());
+    }
+
+    @Test
+    public void testLeastLatency() throws PersistenceException {
+        NamedDataStore slowReplica = new NamedDataStore("slow replica");
+        slowReplica.delay = 20;
+        RoutingDataStore<Object> dataStore = new RoutingDataStore<Object>(new NamedDataStore("primary"),
+                Arrays.asList(slowReplica, new NamedDataStore("fast replica")), Balancing.LEAST_LATENCY, 0,
+                TimeUnit.SECONDS);
+
+        int reads = 64;
+        for (int i = 0; i < reads; i++) {
+            dataStore.execute(READ);
+        }
+
+        long[] readCounts = dataStore.getReplicaReadCounts();
+        Assert.assertEquals(reads, readCounts[0] + readCounts[1]);
+        Assert.assertTrue(readCounts[1] > readCounts[0] * 4);
+        Assert.assertTrue(readCounts[0] > 0);
+
+        double[] latencies = dataStore.getReplicaLatencies();
+        Assert.assertTrue(latencies[0] > latencies[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidStickinessWindow() {
+        new RoutingDataStore<Object>(new NamedDataStore("primary"), Collections.<DataStore<Object>> emptyList(),
+                Balancing.ROUND_ROBIN, -1, TimeUnit.SECONDS);
+    }
+
+    private static PersistenceException createConnectionFailure() {
+        return new PersistenceException("replica unavailable", new ConnectException("Connection refused"));
+    }
+
+    /**
+     * Data store whose context is its name.
+     */
+    private static class NamedDataStore implements DataStore<Object> {
+        private final String name;
+        private volatile PersistenceException failure;
+        private volatile long delay;
+
+        public NamedDataStore(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public <T> T execute(Query<T, Object> query) throws PersistenceException {
+            if (this.delay > 0) {
+                try {
+                    Thread.sleep(this.delay);
+                } catch (InterruptedException e) {
+                    throw new PersistenceException(e);
+                }
+            }
+            if (this.failure != null) {
+                throw this.failure;
+            }
+            return query.execute(this.name);
+        }
+    }
+
+    private static class TestReadQuery implements ReadQuery<Object, Object> {
+
+        @Override
+        public Object execute(Object context) {
+            return context;
+        }
+
+        @Override
+        public QueryKey getQueryKey() {
+            return QueryKey.of(TestReadQuery.class, TestReadQuery.class);
+        }
+    }
+
+    private static class TestWriteQuery implements Query<Object, Object> {
+
+        @Override
+        public Object execute(Object context) {
+            return context;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.datastore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.query.ImmutableResultQuery;
+import org.opendaylight.persistence.common.query.ImmutableResultQueryDecorator;
+import org.opendaylight.persistence.common.query.QueryKey;
+import org.opendaylight.persistence.common.query.ReadQuery;
+
+@SuppressWarnings({ "javadoc" })
+public class SingleFlightDataStoreTest {
+
+    private static final int THREADS = 4;
+
+    private ExecutorService executor;
+    private BlockingDataStore delegate;
+    private SingleFlightDataStore<Object> dataStore;
+
+    @Before
+    public void setUp() {
+        this.executor = Executors.newFixedThreadPool(THREADS);
+        this.delegate = new BlockingDataStore();
+        this.dataStore = new SingleFlightDataStore<Object>(this.delegate);
+    }
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testIdenticalReadsShareExecution() throws Exception {
+        List<Future<Object>> results = submit(new Callable<Query<Object, Object>>() {
+            @Override
+            public Query<Object, Object> call() {
+                return new TestReadQuery("key", "result", null);
+            }
+        });
+
+        awaitShared(THREADS - 1);
+        this.delegate.release.countDown();
+
+        for (Future<Object> result : results) {
+            Assert.assertEquals("result", result.get(10, TimeUnit.SECONDS));
+        }
+
+        Assert.assertEquals(1, this.delegate.executions.get());
+        Assert.assertEquals(THREADS, this.dataStore.getReadCount());
+        Assert.assertEquals(THREADS - 1, this.dataStore.getSharedCount());
+        Assert.assertEquals(1, this.dataStore.getExecutedReadCount());
+        Assert.assertEquals((double) (THREADS - 1) / THREADS, this.dataStore.getDeduplicationRatio(), 0.0);
+        Assert.assertEquals(0, this.dataStore.getInFlightCount());
+    }
+
+    @Test
+    public void testIdenticalReadsShareFailure() throws Exception {
+        final PersistenceException failure = new PersistenceException("failure");
+        List<Future<Object>> results = submit(new Callable<Query<Object, Object>>() {
+            @Override
+            public Query<Object, Object> call() {
+                return new TestReadQuery("key", null, failure);
+            }
+        });
+
+        awaitShared(THREADS - 1);
+        this.delegate.release.countDown();
+
+        for (Future<Object> result : results) {
+            try {
+                result.get(10, TimeUnit.SECONDS);
+                Assert.fail("Failure expected");
+            } catch (ExecutionException e) {
+                Assert.assertSame(failure, e.getCause());
+            }
+        }
+        Assert.assertEquals(1, this.delegate.executions.get());
+    }
+
+    @Test
+    public void testDifferentReadsNotShared() throws Exception {
+        final AtomicInteger keys = new AtomicInteger();
+        List<Future<Object>> results = submit(new Callable<Query<Object, Object>>() {
+            @Override
+            public Query<Object, Object> call() {
+                return new TestReadQuery(Integer.valueOf(keys.incrementAndGet()), "result", null);
+            }
+        });
+
+        this.delegate.release.countDown();
+        for (Future<Object> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+
+        Assert.assertEquals(THREADS, this.delegate.executions.get());
+        Assert.assertEquals(0, this.dataStore.getSharedCount());
+    }
+
+    @Test
+    public void testMutableResultsNotShared() throws Exception {
+        List<Future<Object>> results = submit(new Callable<Query<Object, Object>>() {
+            @Override
+            public Query<Object, Object> call() {
+                return new MutableReadQuery();
+            }
+        });
+
+        awaitExecutions(THREADS);
+        this.delegate.release.countDown();
+
+        List<Object> distinct = new ArrayList<Object>();
+        for (Future<Object> result : results) {
+            Object list = result.get(10, TimeUnit.SECONDS);
+            for (Object other : distinct) {
+                Assert.assertNotSame(other, list);
+            }
+            distinct.add(list);
+        }
+
+        Assert.assertEquals(0, this.dataStore.getReadCount());
+        Assert.assertEquals(0, this.dataStore.getSharedCount());
+    }
+
+    @Test
+    public void testDeclaredImmutableResultsShared() throws Exception {
+        List<Future<Object>> results = submit(new Callable<Query<Object, Object>>() {
+            @Override
+            public Query<Object, Object> call() {
+                return ImmutableResultQueryDecorator.decorate(new MutableReadQuery());
+            }
+        });
+
+        awaitShared(THREADS - 1);
+        this.delegate.release.countDown();
+
+        for (Future<Object> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+
+        Assert.assertEquals(1, this.delegate.executions.get());
+        Assert.assertEquals(THREADS - 1, this.dataStore.getSharedCount());
+    }
+
+    @Test
+    public void testWritesNotCoalesced() throws Exception {
+        List<Future<Object>> results = submit(new Callable<Query<Object, Object>>() {
+            @Override
+            public Query<Object, Object> call() {
+                return new Query<Object, Object>() {
+                    @Override
+                    public Object execute(Object context) {
+                        return "written";
+                    }
+                };
+            }
+        });
+
+        this.delegate.release.countDown();
+        for (Future<Object> result : results) {
+            Assert.assertEquals("written", result.get(10, TimeUnit.SECONDS));
+        }
+
+        Assert.assertEquals(THREADS, this.delegate.executions.get());
+        Assert.assertEquals(0, this.dataStore.getReadCount());
+    }
+
+    @Test
+    public void testSequentialReadsNotCached() throws Exception {
+        this.delegate.release.countDown();
+
+        this.dataStore.execute(new TestReadQuery("key", "result", null));
+        this.dataStore.execute(new TestReadQuery("key", "result", null));
+
+        Assert.assertEquals(2, this.delegate.executions.get());
+        Assert.assertEquals(0, this.dataStore.getSharedCount());
+    }
+
+    private List<Future<Object>> submit(final Callable<Query<Object, Object>> queryFactory) {
+        List<Future<Object>> results = new ArrayList<Future<Object>>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(this.executor.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    return SingleFlightDataStoreTest.this.dataStore.execute(queryFactory.call());
+                }
+            }));
+        }
+        return results;
+    }
+
+    private void awaitShared(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (this.dataStore.getSharedCount() < expected) {
+            Assert.assertTrue("Timeout waiting for shared queries", System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private void awaitExecutions(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (this.delegate.executions.get() < expected) {
+            Assert.assertTrue("Timeout waiting for executions", System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private static class BlockingDataStore implements DataStore<Object> {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger executions = new AtomicInteger();
+
+        @Override
+        public <T> T execute(Query<T, Object> query) throws PersistenceException {
+            this.executions.incrementAndGet();
+            try {
+                this.release.await();
+            } catch (InterruptedException e) {
+                throw new PersistenceException(e);
+            }
+            return query.execute(new Object());
+        }
+    }
+
+    private static class TestReadQuery implements ImmutableResultQuery<Object, Object> {
+        private final Object key;
+        private final Object result;
+        private final PersistenceException failure;
+
+        public TestReadQuery(Object key, Object result, PersistenceException failure) {
+            this.key = key;
+            this.result = result;
+            this.failure = failure;
+        }
+
+        @Override
+        public Object execute(Object context) throws PersistenceException {
+            if (this.failure != null) {
+                throw this.failure;
+            }
+            return this.result;
+        }
+
+        @Override
+        public QueryKey getQueryKey() {
+            return QueryKey.of(TestReadQuery.class, TestReadQuery.class, this.key);
+        }
+    }
+
+    private static class MutableReadQuery implements ReadQuery<Object, Object> {
+
+        @Override
+        public Object execute(Object context) {
+            return new ArrayList<Object>();
+        }
+
+        @Override
+        public QueryKey getQueryKey() {
+            return QueryKey.of(MutableReadQuery.class, MutableReadQuery.class);
+        }
+    }
+}
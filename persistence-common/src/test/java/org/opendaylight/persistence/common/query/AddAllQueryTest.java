@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.query;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.easymock.EasyMock;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.query.TestCase.Context;
+import org.opendaylight.persistence.common.query.TestCase.Key;
+import org.opendaylight.persistence.common.query.TestCase.MyIdentifiable;
+import org.opendaylight.persistence.dao.BaseDao;
+import org.opendaylight.persistence.dao.BatchDao;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class AddAllQueryTest {
+
+    @Test
+    public void testExecute() throws Exception {
+        MyIdentifiable toCreate1 = new MyIdentifiable();
+        MyIdentifiable toCreate2 = new MyIdentifiable();
+        List<MyIdentifiable> toCreate = Arrays.asList(toCreate1, toCreate2);
+        Context context = new Context();
+
+        @SuppressWarnings("unchecked")
+        BaseDao<Key, MyIdentifiable, Context> daoMock = EasyMock.createMock(BaseDao.class);
+
+        EasyMock.expect(daoMock.add(EasyMock.same(toCreate1), EasyMock.same(context))).andReturn(toCreate1);
+        EasyMock.expect(daoMock.add(EasyMock.same(toCreate2), EasyMock.same(context))).andReturn(toCreate2);
+
+        EasyMock.replay(daoMock);
+
+        Query<Void, Context> query = AddAllQuery.createQuery(toCreate, daoMock);
+        Assert.assertNull(query.execute(context));
+
+        EasyMock.verify(daoMock);
+    }
+
+    @Test
+    public void testExecuteBatch() throws Exception {
+        List<MyIdentifiable> toCreate = Arrays.asList(new MyIdentifiable(), new MyIdentifiable());
+        Context context = new Context();
+
+        @SuppressWarnings("unchecked")
+        BatchDao<Key, MyIdentifiable, Context> daoMock = EasyMock.createMock(BatchDao.class);
+
+        daoMock.addAll(EasyMock.same(toCreate), EasyMock.same(context));
+
+        EasyMock.replay(daoMock);
+
+        Query<Void, Context> query = AddAllQuery.createQuery(toCreate, daoMock);
+        Assert.assertNull(query.execute(context));
+
+        EasyMock.verify(daoMock);
+    }
+}
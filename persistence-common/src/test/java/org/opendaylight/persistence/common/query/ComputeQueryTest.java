@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.query;
+
+import org.easymock.EasyMock;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.query.TestCase.Context;
+import org.opendaylight.persistence.dao.BaseDao;
+import org.opendaylight.persistence.dao.LockableDao;
+import org.opendaylight.persistence.util.common.Converter;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class ComputeQueryTest {
+
+    @Test
+    public void testComputeUpdate() throws Exception {
+        Long id = Long.valueOf(1);
+        Item current = new Item(id, 1);
+        Item updated = new Item(id, 2);
+        Context context = new Context();
+
+        @SuppressWarnings("unchecked")
+        BaseDao<Long, Item, Context> daoMock = EasyMock.createMock(BaseDao.class);
+        EasyMock.expect(daoMock.get(EasyMock.eq(id), EasyMock.same(context))).andReturn(current);
+        EasyMock.expect(daoMock.update(EasyMock.same(current), EasyMock.same(context))).andReturn(updated);
+        EasyMock.replay(daoMock);
+
+        Query<Item, Context> query = ComputeQuery.createQuery(id, new Increment(), daoMock);
+        Assert.assertSame(updated, query.execute(context));
+        Assert.assertEquals(2, current.value);
+
+        EasyMock.verify(daoMock);
+    }
+
+    @Test
+    public void testComputeAdd() throws Exception {
+        final Long id = Long.valueOf(1);
+        final Item added = new Item(id, 0);
+        Context context = new Context();
+
+        @SuppressWarnings("unchecked")
+        BaseDao<Long, Item, Context> daoMock = EasyMock.createMock(BaseDao.class);
+        EasyMock.expect(daoMock.get(EasyMock.eq(id), EasyMock.same(context))).andReturn(null);
+        EasyMock.expect(daoMock.add(EasyMock.same(added), EasyMock.same(context))).andReturn(added);
+        EasyMock.replay(daoMock);
+
+        Query<Item, Context> query = ComputeQuery.createQuery(id, new Converter<Item, Item>() {
+            @Override
+            public Item convert(Item source) {
+                Assert.assertNull(source);
+                return added;
+            }
+        }, daoMock);
+        Assert.assertSame(added, query.execute(context));
+
+        EasyMock.verify(daoMock);
+    }
+
+    @Test
+    public void testComputeDelete() throws Exception {
+        Long id = Long.valueOf(1);
+        Context context = new Context();
+
+        @SuppressWarnings("unchecked")
+        BaseDao<Long, Item, Context> daoMock = EasyMock.createMock(BaseDao.class);
+        EasyMock.expect(daoMock.get(EasyMock.eq(id), EasyMock.same(context))).andReturn(new Item(id, 1));
+        daoMock.delete(EasyMock.eq(id), EasyMock.same(context));
+        EasyMock.replay(daoMock);
+
+        Query<Item, Context> query = ComputeQuery.createQuery(id, new Converter<Item, Item>() {
+            @Override
+            public Item convert(Item source) {
+                return null;
+            }
+        }, daoMock);
+        Assert.assertNull(query.execute(context));
+
+        EasyMock.verify(daoMock);
+    }
+
+    @Test
+    public void testComputeIfPresentAbsent() throws Exception {
+        Long id = Long.valueOf(1);
+        Context context = new Context();
+
+        @SuppressWarnings("unchecked")
+        BaseDao<Long, Item, Context> daoMock = EasyMock.createMock(BaseDao.class);
+        EasyMock.expect(daoMock.get(EasyMock.eq(id), EasyMock.same(context))).andReturn(null);
+        EasyMock.replay(daoMock);
+
+        Query<Item, Context> query = ComputeQuery.createIfPresentQuery(id, new Converter<Item, Item>() {
+            @Override
+            public Item convert(Item source) {
+                Assert.fail("remapping must not be called for absent objects");
+                return null;
+            }
+        }, daoMock);
+        Assert.assertNull(query.execute(context));
+
+        EasyMock.verify(daoMock);
+    }
+
+    @Test
+    public void testLockingComputeIfPresent() throws Exception {
+        Long id = Long.valueOf(1);
+        Item current = new Item(id, 1);
+        Context context = new Context();
+
+        @SuppressWarnings("unchecked")
+        LockableDao<Long, Item, Context> daoMock = EasyMock.createMock(LockableDao.class);
+        EasyMock.expect(daoMock.getForUpdate(EasyMock.eq(id), EasyMock.same(context))).andReturn(current);
+        EasyMock.expect(daoMock.update(EasyMock.same(current), EasyMock.same(context))).andReturn(current);
+        EasyMock.replay(daoMock);
+
+        Query<Item, Context> query = ComputeQuery.createLockingIfPresentQuery(id, new Increment(), daoMock);
+        Assert.assertSame(current, query.execute(context));
+
+        EasyMock.verify(daoMock);
+    }
+
+    @Test
+    public void testLockingComputeAbsent() throws Exception {
+        Long id = Long.valueOf(1);
+        Item added = new Item(id, 0);
+        Context context = new Context();
+
+        @SuppressWarnings("unchecked")
+        LockableDao<Long, Item, Context> daoMock = EasyMock.createMock(LockableDao.class);
+        EasyMock.expect(daoMock.getForUpdate(EasyMock.eq(id), EasyMock.same(context))).andReturn(null);
+        EasyMock.expect(daoMock.add(EasyMock.anyObject(Item.class), EasyMock.same(context))).andReturn(added);
+        EasyMock.replay(daoMock);
+
+        Query<Item, Context> query = ComputeQuery.createLockingQuery(id, new Converter<Item, Item>() {
+            @Override
+            public Item convert(Item source) {
+                return new Item(Long.valueOf(1), 0);
+            }
+        }, daoMock);
+        Assert.assertSame(added, query.execute(context));
+
+        EasyMock.verify(daoMock);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testIdModified() throws Exception {
+        Long id = Long.valueOf(1);
+        Context context = new Context();
+
+        @SuppressWarnings("unchecked")
+        BaseDao<Long, Item, Context> daoMock = EasyMock.createMock(BaseDao.class);
+        EasyMock.expect(daoMock.get(EasyMock.eq(id), EasyMock.same(context))).andReturn(new Item(id, 1));
+        EasyMock.replay(daoMock);
+
+        Query<Item, Context> query = ComputeQuery.createQuery(id, new Converter<Item, Item>() {
+            @Override
+            public Item convert(Item source) {
+                return new Item(Long.valueOf(2), source.value);
+            }
+        }, daoMock);
+        query.execute(context);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testInvalidCreation() {
+        @SuppressWarnings("unchecked")
+        BaseDao<Long, Item, Context> daoMock = EasyMock.createMock(BaseDao.class);
+        ComputeQuery.createQuery(Long.valueOf(1), null, daoMock);
+    }
+
+    private static class Item implements Identifiable<Long> {
+        private final Long id;
+        private int value;
+
+        Item(Long id, int value) {
+            this.id = id;
+            this.value = value;
+        }
+
+        @Override
+        public Long getIdentifier() {
+            return this.id;
+        }
+    }
+
+    private static class Increment implements Converter<Item, Item> {
+        @Override
+        public Item convert(Item source) {
+            source.value++;
+            return source;
+        }
+    }
+}
@@ -15,6 +15,7 @@ import org.opendaylight.persistence.common.query.TestCase.Context;
 import org.opendaylight.persistence.common.query.TestCase.Key;
 import org.opendaylight.persistence.common.query.TestCase.MyIdentifiable;
 import org.opendaylight.persistence.dao.BaseDao;
+import org.opendaylight.yangtools.concepts.Identifiable;
 
 /**
  * @author Fabiel Zuniga
@@ -42,4 +43,31 @@ public class GetQueryTest {
 
         EasyMock.verify(daoMock);
     }
+
+    @Test
+    public void testGetQueryKey() {
+        @SuppressWarnings("unchecked")
+        BaseDao<Long, Item, Context> dao = EasyMock.createMock(BaseDao.class);
+        @SuppressWarnings("unchecked")
+        BaseDao<Long, Item, Context> otherDao = EasyMock.createMock(BaseDao.class);
+
+        QueryKey key = ((ReadQuery<?, ?>) GetQuery.createQuery(Long.valueOf(1), dao)).getQueryKey();
+        QueryKey equalKey = ((ReadQuery<?, ?>) GetQuery.createQuery(Long.valueOf(1), dao)).getQueryKey();
+        QueryKey otherId = ((ReadQuery<?, ?>) GetQuery.createQuery(Long.valueOf(2), dao)).getQueryKey();
+        QueryKey otherDaoKey = ((ReadQuery<?, ?>) GetQuery.createQuery(Long.valueOf(1), otherDao)).getQueryKey();
+        QueryKey otherQuery = ((ReadQuery<?, ?>) ExistQuery.createQuery(Long.valueOf(1), dao)).getQueryKey();
+
+        Assert.assertEquals(key, equalKey);
+        Assert.assertEquals(key.hashCode(), equalKey.hashCode());
+        Assert.assertFalse(key.equals(otherId));
+        Assert.assertFalse(key.equals(otherDaoKey));
+        Assert.assertFalse(key.equals(otherQuery));
+    }
+
+    private static class Item implements Identifiable<Long> {
+        @Override
+        public Long getIdentifier() {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,321 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.snapshot;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.easymock.EasyMock;
+import org.easymock.IAnswer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.dao.BaseDao;
+import org.opendaylight.persistence.dao.BatchDao;
+import org.opendaylight.persistence.dao.MarkPageDao;
+import org.opendaylight.persistence.store.MarkPageObjectStore;
+import org.opendaylight.persistence.store.OffsetPageObjectStore;
+import org.opendaylight.persistence.util.common.Converter;
+import org.opendaylight.persistence.util.common.type.Sort;
+import org.opendaylight.persistence.util.common.type.page.MarkPage;
+import org.opendaylight.persistence.util.common.type.page.MarkPageRequest;
+import org.opendaylight.persistence.util.common.type.page.MarkPageRequest.Navigation;
+import org.opendaylight.persistence.util.common.type.page.OffsetPage;
+import org.opendaylight.persistence.util.common.type.page.OffsetPageRequest;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+@SuppressWarnings({ "javadoc" })
+public class StoreSnapshotTest {
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        this.file = Files.createTempFile("snapshot", ".bin");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.file);
+    }
+
+    @Test
+    public void testExportImport() throws Exception {
+        List<MyIdentifiable> identifiables = createIdentifiables(1000);
+
+        @SuppressWarnings("unchecked")
+        MarkPageObjectStore<Long, MyIdentifiable, Object, Object> storeMock = EasyMock
+                .createMock(MarkPageObjectStore.class);
+        Object filter = new Object();
+        // Three full pages, a partial page and the empty page that ends the export
+        MarkPageRequest<MyIdentifiable> pageRequest = new MarkPageRequest<MyIdentifiable>(300);
+        for (int i = 0; i <= identifiables.size(); i += 300) {
+            MarkPage<MyIdentifiable> page = new MarkPage<MyIdentifiable>(pageRequest, identifiables.subList(i,
+                    Math.min(i + 300, identifiables.size())));
+            EasyMock.expect(storeMock.find(EasyMock.same(filter), EasyMock.<List<Sort<Object>>> isNull(),
+                    EasyMock.eq(pageRequest))).andReturn(page);
+            pageRequest = page.getNextPageRequest();
+        }
+        EasyMock.expect(storeMock.find(EasyMock.same(filter), EasyMock.<List<Sort<Object>>> isNull(),
+                EasyMock.eq(new MarkPageRequest<MyIdentifiable>(identifiables.get(identifiables.size() - 1),
+                        Navigation.NEXT, 300)))).andReturn(
+                new MarkPage<MyIdentifiable>(pageRequest, Collections.<MyIdentifiable> emptyList()));
+        EasyMock.replay(storeMock);
+
+        Assert.assertEquals(identifiables.size(),
+                StoreSnapshot.exportSnapshot(storeMock, filter, null, 300, this.file, new Encoder()));
+
+        EasyMock.verify(storeMock);
+
+        BatchDaoStub dao = new BatchDaoStub();
+        DataStoreStub dataStore = new DataStoreStub();
+        Assert.assertEquals(identifiables.size(),
+                StoreSnapshot.importSnapshot(this.file, new Decoder(), dao, dataStore));
+
+        assertImported(identifiables, dao.imported);
+
+        // The snapshot fits in a single block: Objects are added in a single batch
+        Assert.assertEquals(1, dataStore.executionCount);
+        Assert.assertEquals(1, dao.batchCount);
+    }
+
+    @Test
+    public void testExportInSingleExecution() throws Exception {
+        List<MyIdentifiable> identifiables = createIdentifiables(25);
+
+        @SuppressWarnings("unchecked")
+        MarkPageDao<Long, MyIdentifiable, Object, Object, Object> daoMock = EasyMock.createMock(MarkPageDao.class);
+        Object filter = new Object();
+        MarkPageRequest<MyIdentifiable> pageRequest = new MarkPageRequest<MyIdentifiable>(10);
+        for (int i = 0; i < identifiables.size(); i += 10) {
+            MarkPage<MyIdentifiable> page = new MarkPage<MyIdentifiable>(pageRequest, identifiables.subList(i,
+                    Math.min(i + 10, identifiables.size())));
+            EasyMock.expect(daoMock.find(EasyMock.same(filter), EasyMock.<List<Sort<Object>>> isNull(),
+                    EasyMock.eq(pageRequest), EasyMock.anyObject())).andReturn(page);
+            pageRequest = page.getNextPageRequest();
+        }
+        EasyMock.expect(daoMock.find(EasyMock.same(filter), EasyMock.<List<Sort<Object>>> isNull(),
+                EasyMock.eq(pageRequest), EasyMock.anyObject())).andReturn(
+                new MarkPage<MyIdentifiable>(pageRequest, Collections.<MyIdentifiable> emptyList()));
+        EasyMock.replay(daoMock);
+
+        DataStoreStub dataStore = new DataStoreStub();
+        Assert.assertEquals(identifiables.size(),
+                StoreSnapshot.exportSnapshot(daoMock, dataStore, filter, null, 10, this.file, new Encoder()));
+
+        EasyMock.verify(daoMock);
+        // All pages are loaded within the same transaction
+        Assert.assertEquals(1, dataStore.executionCount);
+
+        BatchDaoStub dao = new BatchDaoStub();
+        StoreSnapshot.importSnapshot(this.file, new Decoder(), dao, new DataStoreStub());
+        assertImported(identifiables, dao.imported);
+    }
+
+    @Test
+    public void testExportOffsetPages() throws Exception {
+        List<MyIdentifiable> identifiables = createIdentifiables(25);
+
+        @SuppressWarnings("unchecked")
+        OffsetPageObjectStore<Long, MyIdentifiable, Object, Object> storeMock = EasyMock
+                .createMock(OffsetPageObjectStore.class);
+        Object filter = new Object();
+        for (int i = 0; i < identifiables.size(); i += 10) {
+            OffsetPageRequest pageRequest = new OffsetPageRequest(i, 10);
+            EasyMock.expect(storeMock.find(EasyMock.same(filter), EasyMock.<List<Sort<Object>>> isNull(),
+                    EasyMock.eq(pageRequest))).andReturn(new OffsetPage<MyIdentifiable>(pageRequest,
+                    identifiables.subList(i, Math.min(i + 10, identifiables.size())), identifiables.size()));
+        }
+        EasyMock.replay(storeMock);
+
+        Assert.assertEquals(identifiables.size(),
+                StoreSnapshot.exportSnapshot(storeMock, filter, null, 10, this.file, new Encoder()));
+
+        EasyMock.verify(storeMock);
+
+        BatchDaoStub dao = new BatchDaoStub();
+        StoreSnapshot.importSnapshot(this.file, new Decoder(), dao, new DataStoreStub());
+        assertImported(identifiables, dao.imported);
+    }
+
+    @Test
+    public void testImportWithoutBatchSupport() throws Exception {
+        List<MyIdentifiable> identifiables = createIdentifiables(10);
+        StoreSnapshot.exportSnapshot(identifiables, this.file, new Encoder());
+
+        final List<Long> imported = new ArrayList<Long>();
+        @SuppressWarnings("unchecked")
+        BaseDao<Long, MyIdentifiable, Object> daoMock = EasyMock.createMock(BaseDao.class);
+        EasyMock.expect(daoMock.add(EasyMock.<MyIdentifiable> anyObject(), EasyMock.anyObject()))
+                .andAnswer(new IAnswer<MyIdentifiable>() {
+                    @Override
+                    public MyIdentifiable answer() throws Throwable {
+                        MyIdentifiable identifiable = (MyIdentifiable) EasyMock.getCurrentArguments()[0];
+                        imported.add(identifiable.getIdentifier());
+                        return identifiable;
+                    }
+                }).times(identifiables.size());
+        EasyMock.replay(daoMock);
+
+        Assert.assertEquals(identifiables.size(),
+                StoreSnapshot.importSnapshot(this.file, new Decoder(), daoMock, new DataStoreStub()));
+
+        EasyMock.verify(daoMock);
+        assertImported(identifiables, imported);
+    }
+
+    @Test
+    public void testExportReplacesExistingFile() throws Exception {
+        Files.write(this.file, new byte[] { 1, 2, 3 });
+        List<MyIdentifiable> identifiables = createIdentifiables(3);
+        StoreSnapshot.exportSnapshot(identifiables, this.file, new Encoder());
+
+        BatchDaoStub dao = new BatchDaoStub();
+        StoreSnapshot.importSnapshot(this.file, new Decoder(), dao, new DataStoreStub());
+        assertImported(identifiables, dao.imported);
+
+        // No temporary file is left behind
+        try (DirectoryStream<Path> siblings = Files.newDirectoryStream(this.file.getParent(),
+                this.file.getFileName() + "*")) {
+            Iterator<Path> iterator = siblings.iterator();
+            Assert.assertEquals(this.file, iterator.next());
+            Assert.assertFalse(iterator.hasNext());
+        }
+    }
+
+    @Test
+    public void testImportResource() throws Exception {
+        List<MyIdentifiable> identifiables = createIdentifiables(10);
+        StoreSnapshot.exportSnapshot(identifiables, this.file, new Encoder());
+
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { this.file.getParent().toUri().toURL() })) {
+            Thread.currentThread().setContextClassLoader(classLoader);
+            BatchDaoStub dao = new BatchDaoStub();
+            Assert.assertEquals(identifiables.size(), StoreSnapshot.importSnapshot(this.file.getFileName(),
+                    new Decoder(), dao, new DataStoreStub()));
+            assertImported(identifiables, dao.imported);
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void testImportMissingSnapshot() throws Exception {
+        StoreSnapshot.importSnapshot(Paths.get("missing-snapshot.bin"), new Decoder(), new BatchDaoStub(),
+                new DataStoreStub());
+    }
+
+    private static List<MyIdentifiable> createIdentifiables(int count) {
+        List<MyIdentifiable> identifiables = new ArrayList<MyIdentifiable>(count);
+        for (long i = 0; i < count; i++) {
+            identifiables.add(new MyIdentifiable(Long.valueOf(i)));
+        }
+        return identifiables;
+    }
+
+    private static void assertImported(List<MyIdentifiable> expected, List<Long> imported) {
+        Assert.assertEquals(expected.size(), imported.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i).getIdentifier(), imported.get(i));
+        }
+    }
+
+    private static class MyIdentifiable implements Identifiable<Long> {
+        private final Long id;
+
+        public MyIdentifiable(Long id) {
+            this.id = id;
+        }
+
+        @Override
+        public Long getIdentifier() {
+            return this.id;
+        }
+    }
+
+    private static class Encoder implements Converter<MyIdentifiable, byte[]> {
+
+        @Override
+        public byte[] convert(MyIdentifiable source) {
+            return ByteBuffer.allocate(8).putLong(source.getIdentifier().longValue()).array();
+        }
+    }
+
+    private static class Decoder implements Converter<byte[], MyIdentifiable> {
+
+        @Override
+        public MyIdentifiable convert(byte[] source) {
+            return new MyIdentifiable(Long.valueOf(ByteBuffer.wrap(source).getLong()));
+        }
+    }
+
+    private static class BatchDaoStub implements BatchDao<Long, MyIdentifiable, Object> {
+        private final List<Long> imported = new ArrayList<Long>();
+        private int batchCount;
+
+        @Override
+        public void addAll(Collection<MyIdentifiable> identifiables, Object context) {
+            this.batchCount++;
+            for (MyIdentifiable identifiable : identifiables) {
+                this.imported.add(identifiable.getIdentifier());
+            }
+        }
+
+        @Override
+        public MyIdentifiable add(MyIdentifiable identifiable, Object context) {
+            throw new UnsupportedOperationException("objects must be added in batches");
+        }
+
+        @Override
+        public MyIdentifiable update(MyIdentifiable identifiable, Object context) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void delete(Long id, Object context) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MyIdentifiable get(Long id, Object context) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean exist(Long id, Object context) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class DataStoreStub implements DataStore<Object> {
+        private int executionCount;
+
+        @Override
+        public <T> T execute(Query<T, Object> query) throws PersistenceException {
+            this.executionCount++;
+            return query.execute(new Object());
+        }
+    }
+}
@@ -14,12 +14,14 @@ import org.junit.Test;
 import org.opendaylight.persistence.DataStore;
 import org.opendaylight.persistence.PersistenceException;
 import org.opendaylight.persistence.common.query.AddQuery;
+import org.opendaylight.persistence.common.query.ComputeQuery;
 import org.opendaylight.persistence.common.query.DeleteByIdQuery;
 import org.opendaylight.persistence.common.query.ExistQuery;
 import org.opendaylight.persistence.common.query.GetQuery;
 import org.opendaylight.persistence.common.query.UpdateQuery;
 import org.opendaylight.persistence.dao.BaseDao;
 import org.opendaylight.persistence.store.BaseObjectStore;
+import org.opendaylight.persistence.util.common.Converter;
 import org.opendaylight.yangtools.concepts.Identifiable;
 
 /**
@@ -115,6 +117,25 @@ public class DaoBasedBaseObjectStoreTest {
         EasyMock.verify(this.dataStoreMock);
     }
 
+    @Test
+    public void testCompute() throws PersistenceException {
+        QueryArgumentMatcher<IdentifiableObj, Context> queryArgumentMatcher = QueryArgumentMatcher
+                .valueOf(ComputeQuery.class);
+        Long id = Long.valueOf(1);
+        IdentifiableObj expected = EasyMock.createMock(IdentifiableObj.class);
+        EasyMock.expect(this.dataStoreMock.execute(queryArgumentMatcher.match())).andReturn(expected).times(2);
+        EasyMock.replay(this.dataStoreMock);
+        Converter<IdentifiableObj, IdentifiableObj> remapping = new Converter<IdentifiableObj, IdentifiableObj>() {
+            @Override
+            public IdentifiableObj convert(IdentifiableObj source) {
+                return source;
+            }
+        };
+        Assert.assertSame(expected, this.objectStore.compute(id, remapping));
+        Assert.assertSame(expected, this.objectStore.computeIfPresent(id, remapping));
+        EasyMock.verify(this.dataStoreMock);
+    }
+
     private static class IdentifiableObj implements Identifiable<Long> {
 
         @Override
@@ -0,0 +1,280 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.store.KeyValueObjectStore;
+import org.opendaylight.persistence.util.common.Converter;
+import org.opendaylight.persistence.util.common.codec.BinaryReader;
+import org.opendaylight.persistence.util.common.codec.BinaryWriter;
+import org.opendaylight.persistence.util.common.codec.Codec;
+import org.opendaylight.persistence.util.common.codec.ValueCodecs;
+import org.opendaylight.persistence.util.common.type.OffHeapCache;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class OffHeapCachedKeyValueObjectStoreTest {
+
+    private MapObjectStore delegate;
+    private OffHeapCachedKeyValueObjectStore<Long, Item> objectStore;
+
+    @Before
+    public void before() {
+        this.delegate = new MapObjectStore();
+        OffHeapCache<Long, Item> cache = new OffHeapCache<Long, Item>(ValueCodecs.LONG, ItemCodec.INSTANCE,
+                64 * 1024, 1, 1024);
+        this.objectStore = new OffHeapCachedKeyValueObjectStore<Long, Item>(this.delegate, cache);
+    }
+
+    @Test
+    public void testGet() throws PersistenceException {
+        Item item = new Item(Long.valueOf(1), "item 1");
+        this.delegate.items.put(item.getIdentifier(), item);
+
+        Assert.assertEquals("item 1", this.objectStore.get(item.getIdentifier()).name);
+        Assert.assertEquals(1, this.delegate.getCount);
+
+        Item cached = this.objectStore.get(item.getIdentifier());
+        Assert.assertEquals("item 1", cached.name);
+        Assert.assertNotSame(item, cached);
+        Assert.assertEquals(1, this.delegate.getCount);
+
+        Assert.assertNull(this.objectStore.get(Long.valueOf(2)));
+        Assert.assertNull(this.objectStore.get(Long.valueOf(2)));
+        Assert.assertEquals(3, this.delegate.getCount);
+
+        Assert.assertNull(this.objectStore.get(null));
+        Assert.assertEquals(0.25, this.objectStore.getCache().getHitRate(), 0.0);
+    }
+
+    @Test
+    public void testExist() throws PersistenceException {
+        Item item = this.objectStore.add(new Item(Long.valueOf(1), "item 1"));
+        Assert.assertTrue(this.objectStore.exist(item.getIdentifier()));
+        Assert.assertEquals(1, this.delegate.existCount);
+
+        this.objectStore.get(item.getIdentifier());
+        Assert.assertTrue(this.objectStore.exist(item.getIdentifier()));
+        Assert.assertEquals(1, this.delegate.existCount);
+
+        Assert.assertFalse(this.objectStore.exist(Long.valueOf(2)));
+        Assert.assertFalse(this.objectStore.exist(null));
+        Assert.assertEquals(3, this.delegate.existCount);
+    }
+
+    @Test
+    public void testModifications() throws PersistenceException {
+        Long id = Long.valueOf(1);
+        this.objectStore.add(new Item(id, "added"));
+        Assert.assertEquals("added", this.objectStore.get(id).name);
+        Assert.assertEquals("added", this.objectStore.get(id).name);
+        Assert.assertEquals(1, this.delegate.getCount);
+
+        this.objectStore.update(new Item(id, "updated"));
+        Assert.assertEquals("updated", this.objectStore.get(id).name);
+
+        this.objectStore.compute(id, new Converter<Item, Item>() {
+            @Override
+            public Item convert(Item source) {
+                return new Item(source.getIdentifier(), "computed");
+            }
+        });
+        Assert.assertEquals("computed", this.objectStore.get(id).name);
+        Assert.assertEquals(3, this.delegate.getCount);
+
+        this.objectStore.delete(id);
+        Assert.assertNull(this.objectStore.get(id));
+        Assert.assertEquals(4, this.delegate.getCount);
+        Assert.assertEquals(0, this.objectStore.getCache().getEntryCount());
+    }
+
+    @Test
+    public void testFailedModification() throws PersistenceException {
+        Long id = Long.valueOf(1);
+        this.objectStore.add(new Item(id, "added"));
+        this.objectStore.get(id);
+        Assert.assertEquals(1, this.objectStore.getCache().getEntryCount());
+
+        this.delegate.failure = new PersistenceException("failure");
+        try {
+            this.objectStore.update(new Item(id, "updated"));
+            Assert.fail("Exception expected");
+        } catch (PersistenceException e) {
+            // Expected
+        }
+
+        Assert.assertEquals(0, this.objectStore.getCache().getEntryCount());
+        this.delegate.failure = null;
+        Assert.assertEquals("added", this.objectStore.get(id).name);
+    }
+
+    @Test
+    public void testConcurrentUpdateAndDelete() throws Exception {
+        final Long id = Long.valueOf(1);
+        this.objectStore.add(new Item(id, "added"));
+        this.objectStore.get(id);
+
+        // The delete commits and reaches the cache after the update commits but before the update
+        // returns
+        this.delegate.afterPut = new Runnable() {
+            @Override
+            public void run() {
+                Thread deleter = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            OffHeapCachedKeyValueObjectStoreTest.this.objectStore.delete(id);
+                        } catch (PersistenceException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+                deleter.start();
+                try {
+                    deleter.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        this.objectStore.update(new Item(id, "updated"));
+        this.delegate.afterPut = null;
+
+        Assert.assertFalse(this.delegate.items.containsKey(id));
+        Assert.assertFalse(this.objectStore.exist(id));
+        Assert.assertNull(this.objectStore.get(id));
+    }
+
+    @Test
+    public void testClear() throws PersistenceException {
+        for (long i = 0; i < 10; i++) {
+            this.objectStore.add(new Item(Long.valueOf(i), "item " + i));
+            this.objectStore.get(Long.valueOf(i));
+        }
+        Assert.assertEquals(10, this.objectStore.getCache().getEntryCount());
+        Assert.assertEquals(10, this.objectStore.size());
+        Assert.assertEquals(10, this.objectStore.getAll().size());
+
+        this.objectStore.clear();
+        Assert.assertEquals(0, this.objectStore.getCache().getEntryCount());
+        Assert.assertEquals(0, this.objectStore.size());
+    }
+
+    private static class Item implements Identifiable<Long> {
+        private final Long id;
+        private final String name;
+
+        public Item(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public Long getIdentifier() {
+            return this.id;
+        }
+    }
+
+    private static class ItemCodec implements Codec<Item> {
+        static final ItemCodec INSTANCE = new ItemCodec();
+
+        @Override
+        public void encode(Item value, BinaryWriter writer) {
+            writer.writeVarLong(value.getIdentifier().longValue()).writeString(value.name);
+        }
+
+        @Override
+        public Item decode(BinaryReader reader) {
+            return new Item(Long.valueOf(reader.readVarLong()), reader.readString());
+        }
+    }
+
+    private static class MapObjectStore implements KeyValueObjectStore<Long, Item> {
+        private final Map<Long, Item> items = new HashMap<Long, Item>();
+        private int getCount;
+        private int existCount;
+        private PersistenceException failure;
+        private Runnable afterPut;
+
+        @Override
+        public Item add(Item identifiable) throws PersistenceException {
+            return put(identifiable);
+        }
+
+        @Override
+        public Item update(Item identifiable) throws PersistenceException {
+            return put(identifiable);
+        }
+
+        @Override
+        public void delete(Long id) throws PersistenceException {
+            this.items.remove(id);
+        }
+
+        @Override
+        public Item get(Long id) throws PersistenceException {
+            this.getCount++;
+            return this.items.get(id);
+        }
+
+        @Override
+        public boolean exist(Long id) throws PersistenceException {
+            this.existCount++;
+            return this.items.containsKey(id);
+        }
+
+        @Override
+        public Item compute(Long id, Converter<Item, Item> remapping) throws PersistenceException {
+            Item computed = remapping.convert(this.items.get(id));
+            if (computed == null) {
+                this.items.remove(id);
+                return null;
+            }
+            return put(computed);
+        }
+
+        @Override
+        public Item computeIfPresent(Long id, Converter<Item, Item> remapping) throws PersistenceException {
+            return this.items.containsKey(id) ? compute(id, remapping) : null;
+        }
+
+        @Override
+        public Collection<Item> getAll() throws PersistenceException {
+            return new ArrayList<Item>(this.items.values());
+        }
+
+        @Override
+        public long size() throws PersistenceException {
+            return this.items.size();
+        }
+
+        @Override
+        public void clear() throws PersistenceException {
+            this.items.clear();
+        }
+
+        private Item put(Item identifiable) throws PersistenceException {
+            if (this.failure != null) {
+                throw this.failure;
+            }
+            this.items.put(identifiable.getIdentifier(), identifiable);
+            if (this.afterPut != null) {
+                this.afterPut.run();
+            }
+            return identifiable;
+        }
+    }
+}
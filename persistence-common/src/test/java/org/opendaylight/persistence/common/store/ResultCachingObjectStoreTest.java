@@ -0,0 +1,491 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.common.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.common.store.ResultCachingObjectStore.FilterEvaluator;
+import org.opendaylight.persistence.store.OffsetPageObjectStore;
+import org.opendaylight.persistence.util.common.Converter;
+import org.opendaylight.persistence.util.common.type.Sort;
+import org.opendaylight.persistence.util.common.type.page.OffsetPage;
+import org.opendaylight.persistence.util.common.type.page.OffsetPageRequest;
+import org.opendaylight.persistence.util.test.ThrowableTester;
+import org.opendaylight.persistence.util.test.ThrowableTester.Instruction;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class ResultCachingObjectStoreTest {
+
+    private static final Minimum ALL = new Minimum(0);
+    private static final Minimum LARGE = new Minimum(10);
+    private static final Converter<Minimum, Minimum> FILTER_COPIER = new Converter<Minimum, Minimum>() {
+        @Override
+        public Minimum convert(Minimum source) {
+            return new Minimum(source.value);
+        }
+    };
+    private static final Converter<Item, Item> ITEM_COPIER = new Converter<Item, Item>() {
+        @Override
+        public Item convert(Item source) {
+            return new Item(source.getIdentifier().longValue(), source.value);
+        }
+    };
+
+    private MapObjectStore delegate;
+
+    @Before
+    public void before() throws PersistenceException {
+        this.delegate = new MapObjectStore();
+        this.delegate.put(new Item(1, 5));
+        this.delegate.put(new Item(2, 15));
+    }
+
+    @Test
+    @SuppressWarnings("unused")
+    public void testInvalidConstruction() {
+        ThrowableTester.testThrows(IllegalArgumentException.class, new Instruction() {
+            @Override
+            public void execute() throws Throwable {
+                new ResultCachingObjectStore<Long, Item, Minimum, String>(new MapObjectStore(), 0, 1,
+                        TimeUnit.MINUTES, FILTER_COPIER, ITEM_COPIER);
+            }
+        });
+
+        ThrowableTester.testThrows(IllegalArgumentException.class, new Instruction() {
+            @Override
+            public void execute() throws Throwable {
+                new ResultCachingObjectStore<Long, Item, Minimum, String>(new MapObjectStore(), 10, 0,
+                        TimeUnit.MINUTES, FILTER_COPIER, ITEM_COPIER);
+            }
+        });
+
+        ThrowableTester.testThrows(NullPointerException.class, new Instruction() {
+            @Override
+            public void execute() throws Throwable {
+                new ResultCachingObjectStore<Long, Item, Minimum, String>(null, 10, 1, TimeUnit.MINUTES,
+                        FILTER_COPIER, ITEM_COPIER);
+            }
+        });
+
+        ThrowableTester.testThrows(NullPointerException.class, new Instruction() {
+            @Override
+            public void execute() throws Throwable {
+                new ResultCachingObjectStore<Long, Item, Minimum, String>(new MapObjectStore(), 10, 1,
+                        TimeUnit.MINUTES, null, ITEM_COPIER);
+            }
+        });
+
+        ThrowableTester.testThrows(NullPointerException.class, new Instruction() {
+            @Override
+            public void execute() throws Throwable {
+                new ResultCachingObjectStore<Long, Item, Minimum, String>(new MapObjectStore(), 10, 1,
+                        TimeUnit.MINUTES, FILTER_COPIER, null);
+            }
+        });
+    }
+
+    @Test
+    public void testFindAndCount() throws PersistenceException {
+        ResultCachingObjectStore<Long, Item, Minimum, String> objectStore = createObjectStore(null);
+
+        Assert.assertEquals(2, objectStore.find(ALL, null).size());
+        Assert.assertEquals(2, objectStore.find(ALL, null).size());
+        Assert.assertEquals(1, objectStore.find(LARGE, null).size());
+        Assert.assertEquals(2, this.delegate.findCount);
+
+        List<Sort<String>> sort = new ArrayList<Sort<String>>();
+        sort.add(Sort.ascending("value"));
+        objectStore.find(ALL, sort);
+        objectStore.find(ALL, Arrays.asList(Sort.ascending("value")));
+        Assert.assertEquals(3, this.delegate.findCount);
+
+        Assert.assertEquals(1, objectStore.count(LARGE));
+        Assert.assertEquals(1, objectStore.count(LARGE));
+        Assert.assertEquals(1, this.delegate.countCount);
+
+        Assert.assertEquals(4, objectStore.getEntryCount());
+        Assert.assertEquals(3, objectStore.getHitCount());
+        Assert.assertEquals(4, objectStore.getMissCount());
+        Assert.assertEquals(3.0 / 7.0, objectStore.getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void testCachedResultIsNotShared() throws PersistenceException {
+        ResultCachingObjectStore<Long, Item, Minimum, String> objectStore = createObjectStore(null);
+
+        objectStore.find(ALL, null).clear();
+        List<Item> result = objectStore.find(ALL, null);
+        Assert.assertEquals(2, result.size());
+        result.clear();
+        Assert.assertEquals(2, objectStore.find(ALL, null).size());
+        Assert.assertEquals(1, this.delegate.findCount);
+    }
+
+    @Test
+    public void testCachedObjectsAreNotShared() throws PersistenceException {
+        ResultCachingObjectStore<Long, Item, Minimum, String> objectStore = createObjectStore(null);
+
+        List<Item> result = objectStore.find(ALL, null);
+        result.get(0).value = 100;
+        List<Item> cached = objectStore.find(ALL, null);
+        Assert.assertNotSame(result.get(0), cached.get(0));
+        Assert.assertEquals(5, cached.get(0).value);
+        cached.get(0).value = 100;
+        Assert.assertEquals(5, objectStore.find(ALL, null).get(0).value);
+        Assert.assertEquals(1, this.delegate.findCount);
+    }
+
+    @Test
+    public void testModifiedFilterDoesNotAffectCachedResults() throws PersistenceException {
+        ResultCachingObjectStore<Long, Item, Minimum, String> objectStore = createObjectStore(null);
+
+        Minimum filter = new Minimum(0);
+        Assert.assertEquals(2, objectStore.count(filter));
+        filter.value = 10;
+        Assert.assertEquals(1, objectStore.count(filter));
+        Assert.assertEquals(2, objectStore.count(new Minimum(0)));
+        Assert.assertEquals(1, objectStore.count(new Minimum(10)));
+        Assert.assertEquals(2, this.delegate.countCount);
+    }
+
+    @Test
+    public void testPagedFind() throws PersistenceException {
+        ResultCachingOffsetPageObjectStore<Long, Item, Minimum, String> objectStore = new ResultCachingOffsetPageObjectStore<Long, Item, Minimum, String>(
+                this.delegate, 100, 1, TimeUnit.MINUTES, FILTER_COPIER, ITEM_COPIER);
+
+        OffsetPage<Item> page = objectStore.find(ALL, null, new OffsetPageRequest(0, 1));
+        page.getData().get(0).value = 100;
+        OffsetPage<Item> cachedPage = objectStore.find(ALL, null, new OffsetPageRequest(0, 1));
+        Assert.assertNotSame(page.getData().get(0), cachedPage.getData().get(0));
+        Assert.assertEquals(5, cachedPage.getData().get(0).value);
+        Assert.assertEquals(2, cachedPage.getTotalRecordCount());
+        Assert.assertEquals(1, this.delegate.findCount);
+
+        OffsetPage<Item> nextPage = objectStore.find(ALL, null, new OffsetPageRequest(1, 1));
+        Assert.assertEquals(Long.valueOf(2), nextPage.getData().get(0).getIdentifier());
+        Assert.assertEquals(2, this.delegate.findCount);
+
+        objectStore.add(new Item(3, 25));
+        Assert.assertEquals(3, objectStore.find(ALL, null, new OffsetPageRequest(0, 1)).getTotalRecordCount());
+        Assert.assertEquals(3, this.delegate.findCount);
+    }
+
+    @Test
+    public void testWritesInvalidateAll() throws PersistenceException {
+        ResultCachingObjectStore<Long, Item, Minimum, String> objectStore = createObjectStore(null);
+
+        objectStore.find(ALL, null);
+        objectStore.count(LARGE);
+        objectStore.add(new Item(3, 1));
+        Assert.assertEquals(0, objectStore.getEntryCount());
+        Assert.assertEquals(2, objectStore.getInvalidationCount());
+
+        Assert.assertEquals(3, objectStore.find(ALL, null).size());
+        Assert.assertEquals(1, objectStore.count(LARGE));
+        Assert.assertEquals(2, this.delegate.findCount);
+        Assert.assertEquals(2, this.delegate.countCount);
+
+        objectStore.delete(Long.valueOf(3));
+        Assert.assertEquals(2, objectStore.find(ALL, null).size());
+
+        objectStore.delete(LARGE);
+        Assert.assertEquals(1, objectStore.find(ALL, null).size());
+
+        objectStore.clear();
+        Assert.assertEquals(0, objectStore.find(ALL, null).size());
+        Assert.assertEquals(5, this.delegate.findCount);
+    }
+
+    @Test
+    public void testWritesInvalidateAffectedResults() throws PersistenceException {
+        ResultCachingObjectStore<Long, Item, Minimum, String> objectStore = createObjectStore(new MinimumValueEvaluator());
+
+        objectStore.count(ALL);
+        objectStore.count(LARGE);
+        Assert.assertEquals(2, this.delegate.countCount);
+
+        // Selected by ALL only
+        objectStore.add(new Item(3, 1));
+        Assert.assertEquals(3, objectStore.count(ALL));
+        Assert.assertEquals(1, objectStore.count(LARGE));
+        Assert.assertEquals(3, this.delegate.countCount);
+
+        // Previous state selected by ALL only, new state selected by both
+        objectStore.update(new Item(3, 20));
+        Assert.assertEquals(3, objectStore.count(ALL));
+        Assert.assertEquals(2, objectStore.count(LARGE));
+        Assert.assertEquals(5, this.delegate.countCount);
+
+        // Previous state selected by both, new state selected by ALL only
+        objectStore.compute(Long.valueOf(3), new Converter<Item, Item>() {
+            @Override
+            public Item convert(Item source) {
+                return new Item(source.getIdentifier().longValue(), 2);
+            }
+        });
+        Assert.assertEquals(3, objectStore.count(ALL));
+        Assert.assertEquals(1, objectStore.count(LARGE));
+        Assert.assertEquals(7, this.delegate.countCount);
+
+        // Previous state selected by ALL only
+        objectStore.delete(Long.valueOf(3));
+        Assert.assertEquals(2, objectStore.count(ALL));
+        Assert.assertEquals(1, objectStore.count(LARGE));
+        Assert.assertEquals(8, this.delegate.countCount);
+
+        // Nothing to delete
+        objectStore.delete(Long.valueOf(3));
+        Assert.assertEquals(2, objectStore.count(ALL));
+        Assert.assertEquals(8, this.delegate.countCount);
+
+        Assert.assertEquals(6, objectStore.getInvalidationCount());
+    }
+
+    @Test
+    public void testFailedWriteInvalidates() throws PersistenceException {
+        ResultCachingObjectStore<Long, Item, Minimum, String> objectStore = createObjectStore(new MinimumValueEvaluator());
+
+        objectStore.count(ALL);
+        this.delegate.failure = new PersistenceException("write failure");
+        try {
+            objectStore.add(new Item(3, 1));
+            Assert.fail("Exception expected");
+        } catch (PersistenceException e) {
+            Assert.assertSame(this.delegate.failure, e);
+        }
+        Assert.assertEquals(0, objectStore.getEntryCount());
+    }
+
+    @Test
+    public void testResultLoadedDuringWriteIsNotCached() throws PersistenceException {
+        final ResultCachingObjectStore<Long, Item, Minimum, String> objectStore = createObjectStore(null);
+
+        this.delegate.onFind = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    objectStore.add(new Item(3, 1));
+                } catch (PersistenceException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        };
+        objectStore.find(ALL, null);
+        Assert.assertEquals(0, objectStore.getEntryCount());
+        Assert.assertEquals(1, objectStore.getDiscardCount());
+
+        this.delegate.onFind = null;
+        Assert.assertEquals(3, objectStore.find(ALL, null).size());
+        Assert.assertEquals(3, objectStore.find(ALL, null).size());
+        Assert.assertEquals(2, this.delegate.findCount);
+    }
+
+    @Test
+    public void testMaximumWeight() throws PersistenceException {
+        ResultCachingObjectStore<Long, Item, Minimum, String> objectStore = new ResultCachingObjectStore<Long, Item, Minimum, String>(
+                this.delegate, 2, 1, TimeUnit.MINUTES, FILTER_COPIER, ITEM_COPIER);
+
+        objectStore.find(ALL, null);
+        objectStore.find(LARGE, null);
+        objectStore.count(ALL);
+
+        Assert.assertTrue(objectStore.getEntryCount() < 3);
+        Assert.assertTrue(objectStore.getEvictionCount() > 0);
+        Assert.assertEquals(2, objectStore.getMaximumWeight());
+    }
+
+    @Test
+    public void testInvalidateAll() throws PersistenceException {
+        ResultCachingObjectStore<Long, Item, Minimum, String> objectStore = createObjectStore(new MinimumValueEvaluator());
+
+        objectStore.find(ALL, null);
+        objectStore.count(ALL);
+        objectStore.invalidateAll();
+        Assert.assertEquals(0, objectStore.getEntryCount());
+        Assert.assertEquals(2, objectStore.getInvalidationCount());
+    }
+
+    private ResultCachingObjectStore<Long, Item, Minimum, String> createObjectStore(
+            FilterEvaluator<Item, Minimum> evaluator) {
+        return new ResultCachingObjectStore<Long, Item, Minimum, String>(this.delegate, 100, 1, TimeUnit.MINUTES,
+                FILTER_COPIER, ITEM_COPIER, evaluator);
+    }
+
+    private static class Item implements Identifiable<Long> {
+        private final Long id;
+        private int value;
+
+        public Item(long id, int value) {
+            this.id = Long.valueOf(id);
+            this.value = value;
+        }
+
+        @Override
+        public Long getIdentifier() {
+            return this.id;
+        }
+    }
+
+    /**
+     * Mutable filter: Selects items with a value greater or equal to the minimum.
+     */
+    private static class Minimum {
+        private int value;
+
+        public Minimum(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.value;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Minimum && ((Minimum) obj).value == this.value;
+        }
+    }
+
+    /**
+     * Selects items with a value greater or equal to the filter.
+     */
+    private static class MinimumValueEvaluator implements FilterEvaluator<Item, Minimum> {
+
+        @Override
+        public boolean matches(Minimum filter, Item identifiable) {
+            return identifiable.value >= filter.value;
+        }
+    }
+
+    private static class MapObjectStore implements OffsetPageObjectStore<Long, Item, Minimum, String> {
+        private final Map<Long, Item> items = new TreeMap<Long, Item>();
+        private final MinimumValueEvaluator evaluator = new MinimumValueEvaluator();
+        private int findCount;
+        private int countCount;
+        private Runnable onFind;
+        private PersistenceException failure;
+
+        @Override
+        public Item add(Item identifiable) throws PersistenceException {
+            return put(identifiable);
+        }
+
+        @Override
+        public Item update(Item identifiable) throws PersistenceException {
+            return put(identifiable);
+        }
+
+        @Override
+        public void delete(Long id) throws PersistenceException {
+            this.items.remove(id);
+        }
+
+        @Override
+        public Item get(Long id) throws PersistenceException {
+            return this.items.get(id);
+        }
+
+        @Override
+        public boolean exist(Long id) throws PersistenceException {
+            return this.items.containsKey(id);
+        }
+
+        @Override
+        public Item compute(Long id, Converter<Item, Item> remapping) throws PersistenceException {
+            Item computed = remapping.convert(this.items.get(id));
+            if (computed == null) {
+                this.items.remove(id);
+                return null;
+            }
+            return put(computed);
+        }
+
+        @Override
+        public Item computeIfPresent(Long id, Converter<Item, Item> remapping) throws PersistenceException {
+            return this.items.containsKey(id) ? compute(id, remapping) : null;
+        }
+
+        @Override
+        public Collection<Item> getAll() throws PersistenceException {
+            return new ArrayList<Item>(this.items.values());
+        }
+
+        @Override
+        public long size() throws PersistenceException {
+            return this.items.size();
+        }
+
+        @Override
+        public void clear() throws PersistenceException {
+            this.items.clear();
+        }
+
+        @Override
+        public List<Item> find(Minimum filter, List<Sort<String>> sort) throws PersistenceException {
+            this.findCount++;
+            List<Item> result = select(filter);
+            if (this.onFind != null) {
+                this.onFind.run();
+            }
+            return result;
+        }
+
+        @Override
+        public long count(Minimum filter) throws PersistenceException {
+            this.countCount++;
+            return select(filter).size();
+        }
+
+        @Override
+        public void delete(Minimum filter) throws PersistenceException {
+            for (Item item : select(filter)) {
+                this.items.remove(item.getIdentifier());
+            }
+        }
+
+        @Override
+        public OffsetPage<Item> find(Minimum filter, List<Sort<String>> sort, OffsetPageRequest pageRequest)
+                throws PersistenceException {
+            this.findCount++;
+            List<Item> result = select(filter);
+            int from = (int) Math.min(pageRequest.getOffset(), result.size());
+            int to = Math.min(from + pageRequest.getSize(), result.size());
+            return new OffsetPage<Item>(pageRequest, result.subList(from, to), result.size());
+        }
+
+        private Item put(Item identifiable) throws PersistenceException {
+            if (this.failure != null) {
+                throw this.failure;
+            }
+            this.items.put(identifiable.getIdentifier(), identifiable);
+            return identifiable;
+        }
+
+        private List<Item> select(Minimum filter) {
+            List<Item> result = new ArrayList<Item>();
+            for (Item item : this.items.values()) {
+                if (this.evaluator.matches(filter, item)) {
+                    result.add(item);
+                }
+            }
+            return result;
+        }
+    }
+}
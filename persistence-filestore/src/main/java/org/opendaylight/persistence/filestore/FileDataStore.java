@@ -0,0 +1,278 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.filestore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.query.QueryLoggerDecorator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link DataStore} on an append-only log of files, meant for append-mostly data written at very
+ * high rates (Metrics, audit records, etc.).
+ * <p>
+ * Each query is a transaction: Its changes are buffered and appended to the log as a single
+ * checksummed frame when the query completes (See {@link FileStoreContext}). Writes are sequential
+ * appends and reads are a lookup in a memory-mapped hash index plus a positional read. A background
+ * thread writes the hint files of sealed segments, which make opening the store fast, and compacts
+ * the segments where most records were superseded.
+ * <p>
+ * Durability depends on the {@link SyncMode}: With {@link SyncMode#COMMIT} a query returns once its
+ * changes are on the storage device, and concurrent commits share forces (Group commit); with
+ * {@link SyncMode#PERIODIC} the log is forced at a fixed interval and a crash may lose the commits
+ * of the last interval, but never leaves a transaction partially applied.
+ * <p>
+ * Usage example:
+ * 
+ * <pre>
+ * FileDataStore dataStore = FileDataStore.builder(directory).syncMode(SyncMode.PERIODIC).open();
+ * ...
+ * dataStore.close();
+ * </pre>
+ * <p>
+ * This class is thread safe.
+ * 
+ */
+public class FileDataStore implements DataStore<FileStoreContext>, Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileDataStore.class);
+
+    private final LogStore logStore;
+    private final SyncMode syncMode;
+    private final double compactionThreshold;
+    private final ScheduledExecutorService maintenanceExecutor;
+    private final Object maintenanceLock;
+
+    private FileDataStore(LogStore logStore, Builder builder) {
+        this.logStore = logStore;
+        this.syncMode = builder.syncMode;
+        this.compactionThreshold = builder.compactionThreshold;
+        this.maintenanceLock = new Object();
+        this.maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "file-store-maintenance");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        this.maintenanceExecutor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    maintain();
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.error("Unable to maintain file store", e);
+                }
+            }
+        }, builder.maintenanceInterval, builder.maintenanceInterval, TimeUnit.MILLISECONDS);
+
+        if (this.syncMode == SyncMode.PERIODIC) {
+            this.maintenanceExecutor.scheduleAtFixedRate(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        FileDataStore.this.logStore.sync();
+                    } catch (IOException | RuntimeException e) {
+                        LOGGER.error("Unable to sync file store", e);
+                    }
+                }
+            }, builder.syncInterval, builder.syncInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Creates a builder.
+     * 
+     * @param directory directory to keep the store files in
+     * @return a new builder
+     */
+    public static Builder builder(@Nonnull Path directory) {
+        return new Builder(directory);
+    }
+
+    @Override
+    public <T> T execute(Query<T, FileStoreContext> query) throws PersistenceException {
+        Preconditions.checkNotNull(query, "query");
+
+        Query<T, FileStoreContext> queryDecorator = new QueryLoggerDecorator<T, FileStoreContext>(query);
+
+        FileStoreContext context = new FileStoreContext(this.logStore);
+        T result = queryDecorator.execute(context);
+        if (context.hasChanges()) {
+            try {
+                long position = this.logStore.commit(context.getRecords(), context.getExpectations());
+                if (this.syncMode == SyncMode.COMMIT) {
+                    this.logStore.sync(position);
+                }
+            } catch (IOException e) {
+                throw new PersistenceException(e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes pending hint files and compacts the segments where the ratio of superseded records
+     * reached the compaction threshold. This is done periodically in the background; this method
+     * allows doing it on demand.
+     * 
+     * @throws IOException if errors occur
+     */
+    public void maintain() throws IOException {
+        synchronized (this.maintenanceLock) {
+            this.logStore.writeHints();
+            this.logStore.compact(this.compactionThreshold);
+        }
+    }
+
+    /**
+     * Gets the number of segment files of the log.
+     * 
+     * @return the number of segments
+     */
+    public int getSegmentCount() {
+        return this.logStore.getSegmentCount();
+    }
+
+    /**
+     * Stops the maintenance, forces the log to the storage device and closes the files.
+     * 
+     * @throws IOException if errors occur
+     */
+    @Override
+    public void close() throws IOException {
+        this.maintenanceExecutor.shutdownNow();
+        synchronized (this.maintenanceLock) {
+            this.logStore.close();
+        }
+    }
+
+    /**
+     * Durability of commits.
+     */
+    public static enum SyncMode {
+        /**
+         * A commit returns once its changes are on the storage device. Concurrent commits share a
+         * single force (Group commit).
+         */
+        COMMIT,
+        /**
+         * The log is forced at a fixed interval: Commits do not wait for the storage device.
+         */
+        PERIODIC
+    }
+
+    /**
+     * File data store builder.
+     * <p>
+     * This class is not thread safe.
+     */
+    public static final class Builder {
+        private final Path directory;
+        private int segmentSize = 64 * 1024 * 1024;
+        private SyncMode syncMode = SyncMode.COMMIT;
+        private long syncInterval = 1000;
+        private double compactionThreshold = 0.5;
+        private long maintenanceInterval = 10000;
+
+        private Builder(Path directory) {
+            this.directory = Preconditions.checkNotNull(directory, "directory");
+        }
+
+        /**
+         * Sets the size a segment is sealed at. Default: 64 MB.
+         * 
+         * @param segmentSize segment size in bytes
+         * @return this builder
+         */
+        public Builder segmentSize(int segmentSize) {
+            Preconditions.checkArgument(segmentSize > Segment.HEADER_SIZE && segmentSize <= 1024 * 1024 * 1024,
+                    "segmentSize must be in the range (" + Segment.HEADER_SIZE + ", 1 GB]");
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        /**
+         * Sets the durability of commits. Default: {@link SyncMode#COMMIT}.
+         * 
+         * @param syncMode sync mode
+         * @return this builder
+         */
+        public Builder syncMode(@Nonnull SyncMode syncMode) {
+            this.syncMode = Preconditions.checkNotNull(syncMode, "syncMode");
+            return this;
+        }
+
+        /**
+         * Sets the interval the log is forced at when using {@link SyncMode#PERIODIC}. Default: 1
+         * second.
+         * 
+         * @param interval interval
+         * @param unit interval unit
+         * @return this builder
+         */
+        public Builder syncInterval(long interval, @Nonnull TimeUnit unit) {
+            Preconditions.checkArgument(interval > 0, "interval must be greater than zero");
+            this.syncInterval = Math.max(unit.toMillis(interval), 1);
+            return this;
+        }
+
+        /**
+         * Sets the ratio of superseded record bytes a segment is compacted at. Default: 0.5.
+         * 
+         * @param compactionThreshold compaction threshold in the range (0, 1]
+         * @return this builder
+         */
+        public Builder compactionThreshold(double compactionThreshold) {
+            Preconditions.checkArgument(compactionThreshold > 0 && compactionThreshold <= 1,
+                    "compactionThreshold must be in the range (0, 1]");
+            this.compactionThreshold = compactionThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the interval hint files are written and segments are compacted at. Default: 10
+         * seconds.
+         * 
+         * @param interval interval
+         * @param unit interval unit
+         * @return this builder
+         */
+        public Builder maintenanceInterval(long interval, @Nonnull TimeUnit unit) {
+            Preconditions.checkArgument(interval > 0, "interval must be greater than zero");
+            this.maintenanceInterval = Math.max(unit.toMillis(interval), 1);
+            return this;
+        }
+
+        /**
+         * Opens the data store, creating it if the directory is empty. The log is recovered if the
+         * store was not closed.
+         * 
+         * @return the data store
+         * @throws IOException if errors occur opening the store or if the store is corrupted
+         */
+        public FileDataStore open() throws IOException {
+            return new FileDataStore(LogStore.open(this.directory, this.segmentSize), this);
+        }
+    }
+}
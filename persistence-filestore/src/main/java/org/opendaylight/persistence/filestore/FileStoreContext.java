@@ -0,0 +1,298 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.filestore;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.IntegrityConstraintViolationException;
+import org.opendaylight.persistence.PersistenceException;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * File store data store context: A transaction on the log.
+ * <p>
+ * Changes are buffered in the context and appended to the log as a single frame when the query
+ * completes, so a transaction is applied completely or not at all. Reads see committed data plus the
+ * transaction's own changes. There is no locking: Concurrent transactions writing the same key are
+ * applied in commit order (Last writer wins), except for the conditions of
+ * {@link #insert(String, byte[], byte[])} and {@link #replace(String, byte[], byte[])}, which are
+ * verified again when the transaction is committed.
+ * <p>
+ * Entries are organized in maps: Key spaces identified by name, one per DAO.
+ * <p>
+ * This class is not thread safe: A context is confined to the thread executing the query.
+ * 
+ */
+public final class FileStoreContext {
+
+    // Marks a deleted entry in the changes; compared by identity
+    private static final byte[] DELETED = new byte[0];
+
+    private final LogStore store;
+    private final Map<RecordKey, byte[]> changes;
+    private final Map<RecordKey, Boolean> expectations;
+
+    FileStoreContext(@Nonnull LogStore store) {
+        this.store = store;
+        this.changes = new LinkedHashMap<RecordKey, byte[]>();
+        this.expectations = new HashMap<RecordKey, Boolean>();
+    }
+
+    /**
+     * Gets the value of an entry.
+     * 
+     * @param mapName map name
+     * @param key entry's key
+     * @return the entry's value if found, {@code null} otherwise
+     * @throws PersistenceException if errors occur reading the log
+     */
+    @CheckForNull
+    public byte[] get(@Nonnull String mapName, @Nonnull byte[] key) throws PersistenceException {
+        RecordKey recordKey = toRecordKey(mapName, key);
+        byte[] change = this.changes.get(recordKey);
+        if (change != null) {
+            return change != DELETED ? change : null;
+        }
+        return get(recordKey);
+    }
+
+    /**
+     * Verifies whether an entry exists.
+     * 
+     * @param mapName map name
+     * @param key entry's key
+     * @return {@code true} if the entry exists, {@code false} otherwise
+     * @throws PersistenceException if errors occur reading the log
+     */
+    public boolean contains(@Nonnull String mapName, @Nonnull byte[] key) throws PersistenceException {
+        RecordKey recordKey = toRecordKey(mapName, key);
+        byte[] change = this.changes.get(recordKey);
+        if (change != null) {
+            return change != DELETED;
+        }
+        return contains(recordKey);
+    }
+
+    /**
+     * Sets the value of an entry, adding the entry if it does not exist.
+     * 
+     * @param mapName map name
+     * @param key entry's key
+     * @param value entry's value
+     */
+    public void put(@Nonnull String mapName, @Nonnull byte[] key, @Nonnull byte[] value) {
+        Preconditions.checkNotNull(value, "value");
+        this.changes.put(toRecordKey(mapName, key), value);
+    }
+
+    /**
+     * Adds an entry.
+     * 
+     * @param mapName map name
+     * @param key entry's key
+     * @param value entry's value
+     * @throws IntegrityConstraintViolationException if the entry already exists
+     * @throws PersistenceException if errors occur reading the log
+     */
+    public void insert(@Nonnull String mapName, @Nonnull byte[] key, @Nonnull byte[] value)
+            throws PersistenceException {
+        Preconditions.checkNotNull(value, "value");
+        RecordKey recordKey = toRecordKey(mapName, key);
+        if (exists(recordKey)) {
+            throw new IntegrityConstraintViolationException("key already exists in " + mapName);
+        }
+        this.changes.put(recordKey, value);
+    }
+
+    /**
+     * Sets the value of an existing entry.
+     * 
+     * @param mapName map name
+     * @param key entry's key
+     * @param value entry's value
+     * @throws PersistenceException if the entry does not exist or if errors occur reading the log
+     */
+    public void replace(@Nonnull String mapName, @Nonnull byte[] key, @Nonnull byte[] value)
+            throws PersistenceException {
+        Preconditions.checkNotNull(value, "value");
+        RecordKey recordKey = toRecordKey(mapName, key);
+        if (!exists(recordKey)) {
+            throw new PersistenceException("key not found in " + mapName);
+        }
+        this.changes.put(recordKey, value);
+    }
+
+    /**
+     * Removes an entry if it exists.
+     * 
+     * @param mapName map name
+     * @param key entry's key
+     * @throws PersistenceException if errors occur reading the log
+     */
+    public void remove(@Nonnull String mapName, @Nonnull byte[] key) throws PersistenceException {
+        remove(toRecordKey(mapName, key));
+    }
+
+    /**
+     * Gets the values of all the entries of a map.
+     * 
+     * @param mapName map name
+     * @return the values
+     * @throws PersistenceException if errors occur reading the log
+     */
+    public Collection<byte[]> getValues(@Nonnull String mapName) throws PersistenceException {
+        return getEntries(mapName).values();
+    }
+
+    /**
+     * Gets the number of entries in a map.
+     * 
+     * @param mapName map name
+     * @return the number of entries
+     * @throws PersistenceException if errors occur reading the log
+     */
+    public long size(@Nonnull String mapName) throws PersistenceException {
+        Preconditions.checkNotNull(mapName, "mapName");
+        long size;
+        try {
+            size = this.store.size(mapName);
+        } catch (IOException e) {
+            throw new PersistenceException(e);
+        }
+
+        for (Entry<RecordKey, byte[]> change : this.changes.entrySet()) {
+            if (change.getKey().getMapName().equals(mapName)) {
+                boolean committed = contains(change.getKey());
+                if (change.getValue() == DELETED && committed) {
+                    size--;
+                }
+                else if (change.getValue() != DELETED && !committed) {
+                    size++;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes all the entries of a map.
+     * 
+     * @param mapName map name
+     * @throws PersistenceException if errors occur reading the log
+     */
+    public void clear(@Nonnull String mapName) throws PersistenceException {
+        for (RecordKey recordKey : new ArrayList<RecordKey>(getEntries(mapName).keySet())) {
+            remove(recordKey);
+        }
+    }
+
+    List<Record> getRecords() {
+        List<Record> records = new ArrayList<Record>(this.changes.size());
+        for (Entry<RecordKey, byte[]> change : this.changes.entrySet()) {
+            RecordKey recordKey = change.getKey();
+            if (change.getValue() == DELETED) {
+                records.add(Record.delete(recordKey.getMapName(), recordKey.getKey()));
+            }
+            else {
+                records.add(Record.put(recordKey.getMapName(), recordKey.getKey(), change.getValue()));
+            }
+        }
+        return records;
+    }
+
+    Map<RecordKey, Boolean> getExpectations() {
+        return Collections.unmodifiableMap(this.expectations);
+    }
+
+    boolean hasChanges() {
+        return !this.changes.isEmpty() || !this.expectations.isEmpty();
+    }
+
+    private Map<RecordKey, byte[]> getEntries(String mapName) throws PersistenceException {
+        Preconditions.checkNotNull(mapName, "mapName");
+        Map<RecordKey, byte[]> entries;
+        try {
+            entries = new LinkedHashMap<RecordKey, byte[]>(this.store.getEntries(mapName));
+        } catch (IOException e) {
+            throw new PersistenceException(e);
+        }
+
+        for (Entry<RecordKey, byte[]> change : this.changes.entrySet()) {
+            if (change.getKey().getMapName().equals(mapName)) {
+                if (change.getValue() == DELETED) {
+                    entries.remove(change.getKey());
+                }
+                else {
+                    entries.put(change.getKey(), change.getValue());
+                }
+            }
+        }
+        return entries;
+    }
+
+    private void remove(RecordKey recordKey) throws PersistenceException {
+        if (contains(recordKey)) {
+            this.changes.put(recordKey, DELETED);
+        }
+        else {
+            // Added in this transaction only: Nothing to delete from the log
+            this.changes.remove(recordKey);
+        }
+    }
+
+    /*
+     * Verifies whether the entry exists as seen by the transaction. If the transaction has not
+     * changed the entry, the answer is recorded to be verified again at commit time.
+     */
+    private boolean exists(RecordKey recordKey) throws PersistenceException {
+        byte[] change = this.changes.get(recordKey);
+        if (change != null) {
+            return change != DELETED;
+        }
+
+        boolean exists = contains(recordKey);
+        if (!this.expectations.containsKey(recordKey)) {
+            this.expectations.put(recordKey, Boolean.valueOf(exists));
+        }
+        return exists;
+    }
+
+    private byte[] get(RecordKey recordKey) throws PersistenceException {
+        try {
+            return this.store.get(recordKey);
+        } catch (IOException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    private boolean contains(RecordKey recordKey) throws PersistenceException {
+        try {
+            return this.store.contains(recordKey);
+        } catch (IOException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    private static RecordKey toRecordKey(String mapName, byte[] key) {
+        Preconditions.checkNotNull(mapName, "mapName");
+        Preconditions.checkNotNull(key, "key");
+        return new RecordKey(mapName, key);
+    }
+}
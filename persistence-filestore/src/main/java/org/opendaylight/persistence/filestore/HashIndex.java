@@ -0,0 +1,294 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.filestore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.opendaylight.persistence.util.common.io.FileUtil;
+
+/**
+ * Memory-mapped hash index: Maps the hash of a key to the location of the key's latest record in
+ * the log.
+ * <p>
+ * The index is an open addressing hash table with linear probing, kept in a memory-mapped file so
+ * it lives outside the heap and its size is bound by the address space rather than by the heap.
+ * Slots hold the 64-bit hash of the key and not the key itself, thus a hash match is confirmed by
+ * reading the key from the log (See {@link Matcher}); different keys with the same hash occupy
+ * different slots. Removing a key shifts back the slots of its probe sequence, so no tombstones
+ * degrade lookups.
+ * <p>
+ * The index is not durable: It is rebuilt from the log when the store is opened, and its file is
+ * deleted when the index is closed.
+ * <p>
+ * Slot layout: {@code hash (8) segment (4) offset (4) length (4) map-id (4)}; a slot is empty if
+ * its segment is zero (Segment ids start at one).
+ * <p>
+ * This class is not thread safe.
+ * 
+ */
+final class HashIndex implements Closeable {
+
+    private static final int SLOT_SIZE = 24;
+    private static final int SEGMENT_OFFSET = 8;
+    private static final int OFFSET_OFFSET = 12;
+    private static final int LENGTH_OFFSET = 16;
+    private static final int MAP_ID_OFFSET = 20;
+    private static final int MAX_CAPACITY = Integer.highestOneBit(Integer.MAX_VALUE / SLOT_SIZE);
+    private static final String FILE_PREFIX = "index-";
+
+    private final Path directory;
+    private int generation;
+    private Path file;
+    private FileChannel channel;
+    private MappedByteBuffer slots;
+    private int capacity;
+    private int size;
+
+    /**
+     * Creates an index.
+     * 
+     * @param directory directory to create the index file in
+     * @param initialCapacity initial number of slots
+     * @throws IOException if errors occur creating the index file
+     */
+    HashIndex(Path directory, int initialCapacity) throws IOException {
+        this.directory = directory;
+        map(tableSizeFor(initialCapacity));
+    }
+
+    /**
+     * Deletes the index files left by a store that was not closed.
+     * 
+     * @param directory store directory
+     * @throws IOException if errors occur deleting the files
+     */
+    static void deleteStaleFiles(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+            for (Path staleFile : files) {
+                Files.deleteIfExists(staleFile);
+            }
+        }
+    }
+
+    /**
+     * Finds the slot of a key.
+     * 
+     * @param hash key's hash
+     * @param matcher matcher to confirm the key of the slots with the same hash
+     * @return the slot of the key, {@code -1} if the key is not in the index
+     * @throws IOException if errors occur confirming a key
+     */
+    int find(long hash, Matcher matcher) throws IOException {
+        int mask = this.capacity - 1;
+        for (int slot = indexFor(hash, mask); isOccupied(slot); slot = (slot + 1) & mask) {
+            if (getHash(slot) == hash && matcher.matches(getSegment(slot), getOffset(slot), getLength(slot))) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds a key that is not in the index.
+     * 
+     * @param hash key's hash
+     * @param segment segment of the key's record
+     * @param offset offset of the key's record in the segment
+     * @param length length of the key's record
+     * @param mapId id of the map the key belongs to
+     * @throws IOException if errors occur growing the index
+     */
+    void insert(long hash, int segment, int offset, int length, int mapId) throws IOException {
+        if ((this.size + 1) > this.capacity - (this.capacity >>> 2)) {
+            grow();
+        }
+
+        int mask = this.capacity - 1;
+        int slot = indexFor(hash, mask);
+        while (isOccupied(slot)) {
+            slot = (slot + 1) & mask;
+        }
+
+        int position = slot * SLOT_SIZE;
+        this.slots.putLong(position, hash);
+        this.slots.putInt(position + OFFSET_OFFSET, offset);
+        this.slots.putInt(position + LENGTH_OFFSET, length);
+        this.slots.putInt(position + MAP_ID_OFFSET, mapId);
+        // The segment is written last: It marks the slot as occupied
+        this.slots.putInt(position + SEGMENT_OFFSET, segment);
+        this.size++;
+    }
+
+    /**
+     * Updates the location of the key in the given slot.
+     * 
+     * @param slot slot
+     * @param segment segment of the key's record
+     * @param offset offset of the key's record in the segment
+     * @param length length of the key's record
+     */
+    void update(int slot, int segment, int offset, int length) {
+        int position = slot * SLOT_SIZE;
+        this.slots.putInt(position + SEGMENT_OFFSET, segment);
+        this.slots.putInt(position + OFFSET_OFFSET, offset);
+        this.slots.putInt(position + LENGTH_OFFSET, length);
+    }
+
+    /**
+     * Removes the key in the given slot.
+     * 
+     * @param slot slot
+     */
+    void remove(int slot) {
+        int mask = this.capacity - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; isOccupied(next); next = (next + 1) & mask) {
+            int ideal = indexFor(getHash(next), mask);
+            // The slot can fill the hole if the hole is between the slot's ideal position and the slot
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                copy(next, hole);
+                hole = next;
+            }
+        }
+        this.slots.putInt(hole * SLOT_SIZE + SEGMENT_OFFSET, 0);
+        this.size--;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    int getCapacity() {
+        return this.capacity;
+    }
+
+    boolean isOccupied(int slot) {
+        return getSegment(slot) != 0;
+    }
+
+    long getHash(int slot) {
+        return this.slots.getLong(slot * SLOT_SIZE);
+    }
+
+    int getSegment(int slot) {
+        return this.slots.getInt(slot * SLOT_SIZE + SEGMENT_OFFSET);
+    }
+
+    int getOffset(int slot) {
+        return this.slots.getInt(slot * SLOT_SIZE + OFFSET_OFFSET);
+    }
+
+    int getLength(int slot) {
+        return this.slots.getInt(slot * SLOT_SIZE + LENGTH_OFFSET);
+    }
+
+    int getMapId(int slot) {
+        return this.slots.getInt(slot * SLOT_SIZE + MAP_ID_OFFSET);
+    }
+
+    @Override
+    public void close() throws IOException {
+        unmap();
+    }
+
+    private void grow() throws IOException {
+        if (this.capacity >= MAX_CAPACITY) {
+            throw new IOException("Index is full: " + this.size + " keys");
+        }
+
+        Path oldFile = this.file;
+        FileChannel oldChannel = this.channel;
+        MappedByteBuffer oldSlots = this.slots;
+        int oldCapacity = this.capacity;
+
+        map(this.capacity * 2);
+        try {
+            for (int slot = 0; slot < oldCapacity; slot++) {
+                int position = slot * SLOT_SIZE;
+                int segment = oldSlots.getInt(position + SEGMENT_OFFSET);
+                if (segment != 0) {
+                    insert(oldSlots.getLong(position), segment, oldSlots.getInt(position + OFFSET_OFFSET),
+                            oldSlots.getInt(position + LENGTH_OFFSET), oldSlots.getInt(position + MAP_ID_OFFSET));
+                }
+            }
+        } finally {
+            oldChannel.close();
+            deleteFile(oldFile);
+        }
+    }
+
+    private void map(int newCapacity) throws IOException {
+        this.generation++;
+        this.file = FileUtil.getPath(this.directory, FILE_PREFIX + this.generation);
+        this.channel = FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // A new file is sparse: All slots read as empty
+        this.slots = this.channel.map(MapMode.READ_WRITE, 0, (long) newCapacity * SLOT_SIZE);
+        this.capacity = newCapacity;
+        this.size = 0;
+    }
+
+    private void unmap() throws IOException {
+        // A mapped buffer is released when it is garbage collected
+        this.slots = null;
+        this.channel.close();
+        deleteFile(this.file);
+    }
+
+    private void copy(int from, int to) {
+        int fromPosition = from * SLOT_SIZE;
+        int toPosition = to * SLOT_SIZE;
+        this.slots.putLong(toPosition, this.slots.getLong(fromPosition));
+        this.slots.putInt(toPosition + OFFSET_OFFSET, this.slots.getInt(fromPosition + OFFSET_OFFSET));
+        this.slots.putInt(toPosition + LENGTH_OFFSET, this.slots.getInt(fromPosition + LENGTH_OFFSET));
+        this.slots.putInt(toPosition + MAP_ID_OFFSET, this.slots.getInt(fromPosition + MAP_ID_OFFSET));
+        this.slots.putInt(toPosition + SEGMENT_OFFSET, this.slots.getInt(fromPosition + SEGMENT_OFFSET));
+    }
+
+    private static void deleteFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Some platforms do not delete mapped files; stale files are deleted when the store is opened
+        }
+    }
+
+    private static int indexFor(long hash, int mask) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int tableSize = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+        return Math.min(tableSize, MAX_CAPACITY);
+    }
+
+    /**
+     * Confirms whether the record at a location has the key being looked up.
+     */
+    interface Matcher {
+
+        /**
+         * Verifies whether the record at the given location has the key being looked up.
+         * 
+         * @param segment record's segment
+         * @param offset record's offset in the segment
+         * @param length record's length
+         * @return {@code true} if the record has the key, {@code false} otherwise
+         * @throws IOException if errors occur reading the record
+         */
+        boolean matches(int segment, int offset, int length) throws IOException;
+    }
+}
@@ -0,0 +1,645 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.filestore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.opendaylight.persistence.IntegrityConstraintViolationException;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.util.common.codec.BinaryReader;
+import org.opendaylight.persistence.util.common.codec.BinaryWriter;
+import org.opendaylight.persistence.util.common.io.FileUtil;
+import org.opendaylight.persistence.util.common.io.SnapshotReader;
+import org.opendaylight.persistence.util.common.io.SnapshotWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Log-structured store: The storage engine of {@link FileDataStore}.
+ * <p>
+ * Every change is appended to the log, a sequence of {@link Segment segment} files of bounded size;
+ * records are never modified in place. The {@link HashIndex index} maps each key to its latest
+ * record, thus a read is an index lookup plus a positional read. Superseded records are reclaimed
+ * by compaction, which copies the live records of a segment to the end of the log and deletes the
+ * segment.
+ * <p>
+ * The index is rebuilt when the store is opened. Sealed segments are loaded from their hint files
+ * (The keys and locations of the segment's records, written in the background once a segment is
+ * sealed) so their values are not read; the tail segment is replayed, validating the checksum of
+ * every frame and truncating the frame torn by a crash, if any.
+ * <p>
+ * Appends and index updates are serialized by a write lock; reads share a read lock and proceed
+ * concurrently. Forcing appended frames to the storage device happens outside the lock: Commits
+ * waiting for a force are covered by the next one (Group commit).
+ * <p>
+ * This class is thread safe.
+ * 
+ */
+final class LogStore implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogStore.class);
+
+    private static final int INITIAL_INDEX_CAPACITY = 1024;
+    private static final int COMPACTION_FRAME_SIZE = 1024 * 1024;
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final int maxSegmentSize;
+    private final ReadWriteLock lock;
+    private final NavigableMap<Integer, Segment> segments;
+    private final HashIndex index;
+    private final Map<String, Integer> mapIds;
+    private long[] mapSizes;
+    private Segment active;
+    private long appendedPosition;
+    private boolean closed;
+
+    private final Object syncLock;
+    private long syncedPosition;
+
+    private LogStore(Path directory, int maxSegmentSize, HashIndex index) {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        this.lock = new ReentrantReadWriteLock();
+        this.segments = new TreeMap<Integer, Segment>();
+        this.index = index;
+        this.mapIds = new HashMap<String, Integer>();
+        this.mapSizes = new long[8];
+        this.syncLock = new Object();
+    }
+
+    /**
+     * Opens a store, creating it if the directory is empty.
+     * 
+     * @param directory store directory
+     * @param maxSegmentSize size in bytes a segment is sealed at
+     * @return the store
+     * @throws IOException if errors occur opening the store or if the store is corrupted
+     */
+    static LogStore open(Path directory, int maxSegmentSize) throws IOException {
+        Files.createDirectories(directory);
+        HashIndex.deleteStaleFiles(directory);
+
+        List<Integer> segmentIds = new ArrayList<Integer>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, Segment.getLogFilePattern())) {
+            for (Path file : files) {
+                int id = Segment.getId(file);
+                if (id > 0) {
+                    segmentIds.add(Integer.valueOf(id));
+                }
+            }
+        }
+        Collections.sort(segmentIds);
+
+        LogStore store = new LogStore(directory, maxSegmentSize, new HashIndex(directory, INITIAL_INDEX_CAPACITY));
+        try {
+            store.recover(segmentIds);
+        } catch (IOException | RuntimeException e) {
+            store.closeSegments();
+            throw e;
+        }
+        return store;
+    }
+
+    byte[] get(RecordKey key) throws IOException {
+        this.lock.readLock().lock();
+        try {
+            checkOpen();
+            int slot = this.index.find(key.getHash(), matcher(key));
+            if (slot < 0) {
+                return null;
+            }
+            return read(this.index.getSegment(slot), this.index.getOffset(slot), this.index.getLength(slot))
+                    .getValue();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    boolean contains(RecordKey key) throws IOException {
+        this.lock.readLock().lock();
+        try {
+            checkOpen();
+            return this.index.find(key.getHash(), matcher(key)) >= 0;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    long size(String mapName) throws IOException {
+        this.lock.readLock().lock();
+        try {
+            checkOpen();
+            Integer mapId = this.mapIds.get(mapName);
+            return mapId != null ? this.mapSizes[mapId.intValue()] : 0;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    Map<RecordKey, byte[]> getEntries(String mapName) throws IOException {
+        this.lock.readLock().lock();
+        try {
+            checkOpen();
+            Integer mapId = this.mapIds.get(mapName);
+            if (mapId == null) {
+                return Collections.emptyMap();
+            }
+
+            Map<RecordKey, byte[]> entries = new LinkedHashMap<RecordKey, byte[]>();
+            for (int slot = 0; slot < this.index.getCapacity(); slot++) {
+                if (this.index.isOccupied(slot) && this.index.getMapId(slot) == mapId.intValue()) {
+                    Record record = read(this.index.getSegment(slot), this.index.getOffset(slot),
+                            this.index.getLength(slot));
+                    entries.put(new RecordKey(mapName, record.getKey()), record.getValue());
+                }
+            }
+            return entries;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appends the records of a transaction as a single frame.
+     * 
+     * @param records records to append
+     * @param expectations keys expected to exist ({@code true}) or not to exist ({@code false})
+     * @return the position of the log after the frame, to pass to {@link #sync(long)}
+     * @throws PersistenceException if an expectation is not met
+     * @throws IOException if errors occur appending the frame
+     */
+    long commit(List<Record> records, Map<RecordKey, Boolean> expectations) throws PersistenceException,
+            IOException {
+        BinaryWriter payload = new BinaryWriter(256);
+        int[] offsets = new int[records.size()];
+        int[] lengths = new int[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            offsets[i] = payload.size();
+            records.get(i).encode(payload);
+            lengths[i] = payload.size() - offsets[i];
+        }
+        ByteBuffer frame = toFrame(payload);
+
+        this.lock.writeLock().lock();
+        try {
+            checkOpen();
+            for (Entry<RecordKey, Boolean> expectation : expectations.entrySet()) {
+                verify(expectation.getKey(), expectation.getValue().booleanValue());
+            }
+            if (records.isEmpty()) {
+                return this.appendedPosition;
+            }
+            return append(frame, records, offsets, lengths);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forces the log up to the given position to the storage device. Concurrent callers are served
+     * by a single force.
+     * 
+     * @param position log position returned by {@link #commit(List, Map)}
+     * @throws IOException if errors occur
+     */
+    void sync(long position) throws IOException {
+        synchronized (this.syncLock) {
+            if (this.syncedPosition >= position) {
+                return;
+            }
+
+            Segment segment;
+            long target;
+            this.lock.readLock().lock();
+            try {
+                checkOpen();
+                segment = this.active;
+                target = this.appendedPosition;
+            } finally {
+                this.lock.readLock().unlock();
+            }
+
+            try {
+                segment.force();
+            } catch (ClosedChannelException e) {
+                // Sealed (and forced) before being compacted
+            }
+            this.syncedPosition = target;
+        }
+    }
+
+    /**
+     * Forces all appended frames to the storage device.
+     * 
+     * @throws IOException if errors occur
+     */
+    void sync() throws IOException {
+        long position;
+        this.lock.readLock().lock();
+        try {
+            position = this.appendedPosition;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        sync(position);
+    }
+
+    /**
+     * Writes the hint files of the sealed segments that do not have one yet.
+     * 
+     * @throws IOException if errors occur
+     */
+    void writeHints() throws IOException {
+        for (Segment segment : getSealedSegments()) {
+            if (!segment.isHinted()) {
+                writeHints(segment);
+            }
+        }
+    }
+
+    /**
+     * Compacts the sealed segments where the ratio of superseded bytes reached the given threshold.
+     * <p>
+     * The write lock is held while a segment is compacted.
+     * 
+     * @param threshold ratio of superseded record bytes to compact a segment at
+     * @return the number of segments compacted
+     * @throws IOException if errors occur
+     */
+    int compact(double threshold) throws IOException {
+        int compacted = 0;
+        for (Segment segment : getSealedSegments()) {
+            boolean candidate;
+            this.lock.readLock().lock();
+            try {
+                candidate = segment.getRecordBytes() > 0
+                        && segment.getDeadBytes() >= threshold * segment.getRecordBytes();
+            } finally {
+                this.lock.readLock().unlock();
+            }
+
+            if (candidate && compact(segment)) {
+                compacted++;
+            }
+        }
+        return compacted;
+    }
+
+    int getSegmentCount() {
+        this.lock.readLock().lock();
+        try {
+            return this.segments.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.lock.writeLock().lock();
+        try {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            try {
+                this.active.force();
+            } finally {
+                closeSegments();
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void recover(List<Integer> segmentIds) throws IOException {
+        for (int i = 0; i < segmentIds.size(); i++) {
+            int id = segmentIds.get(i).intValue();
+            boolean tail = i == segmentIds.size() - 1;
+
+            Path file = Segment.getLogPath(this.directory, id);
+            if (tail && Files.size(file) < Segment.HEADER_SIZE) {
+                // Crashed while the segment was being created
+                Files.delete(file);
+                break;
+            }
+
+            final Segment segment = Segment.open(this.directory, id);
+            this.segments.put(Integer.valueOf(id), segment);
+            if (!tail && segment.isHinted() && loadHints(segment)) {
+                continue;
+            }
+
+            segment.scan(new Segment.RecordVisitor() {
+                @Override
+                public void visit(Record record, int offset, int length) throws IOException {
+                    apply(record.getType(), record.getMapName(), record.getKey(), segment, offset, length);
+                }
+            }, tail);
+        }
+
+        if (this.segments.isEmpty()) {
+            this.active = Segment.create(this.directory, 1);
+            this.segments.put(Integer.valueOf(this.active.getId()), this.active);
+        }
+        else {
+            this.active = this.segments.lastEntry().getValue();
+            if (this.active.isHinted()) {
+                // The tail was deleted and the sealed segment before it is appended to again: Its
+                // hints would miss the new records
+                this.active.deleteHints();
+            }
+        }
+
+        LOGGER.info("Opened file store {}: {} segments, {} keys", this.directory,
+                Integer.valueOf(this.segments.size()), Integer.valueOf(this.index.size()));
+    }
+
+    private boolean loadHints(Segment segment) throws IOException {
+        // Hints are read completely before being applied so a corrupted hint file can be ignored
+        List<byte[]> hints = new ArrayList<byte[]>();
+        try (SnapshotReader reader = SnapshotReader.open(Segment.getHintPath(this.directory, segment.getId()))) {
+            List<byte[]> block;
+            while ((block = reader.readBlock()) != null) {
+                hints.addAll(block);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Ignoring hint file of segment " + segment.getFile(), e);
+            return false;
+        }
+
+        for (byte[] hint : hints) {
+            BinaryReader reader = new BinaryReader(hint);
+            byte type = reader.readByte();
+            String mapName = reader.readString();
+            byte[] key = reader.readBytes();
+            int offset = reader.readVarInt();
+            int length = reader.readVarInt();
+            apply(type, mapName, key, segment, offset, length);
+        }
+        return true;
+    }
+
+    private void writeHints(Segment segment) throws IOException {
+        Path hintFile = Segment.getHintPath(this.directory, segment.getId());
+        Path temporaryFile = FileUtil.getPath(this.directory, hintFile.getFileName() + TEMPORARY_SUFFIX);
+
+        try (final SnapshotWriter writer = SnapshotWriter.open(temporaryFile)) {
+            final BinaryWriter hint = new BinaryWriter();
+            segment.scan(new Segment.RecordVisitor() {
+                @Override
+                public void visit(Record record, int offset, int length) throws IOException {
+                    hint.clear();
+                    hint.writeByte(record.getType());
+                    hint.writeString(record.getMapName());
+                    hint.writeBytes(record.getKey());
+                    hint.writeVarInt(offset);
+                    hint.writeVarInt(length);
+                    writer.write(hint.toByteArray());
+                }
+            }, false);
+        } catch (ClosedChannelException e) {
+            // Compacted while the hints were written
+            Files.deleteIfExists(temporaryFile);
+            return;
+        }
+
+        Files.move(temporaryFile, hintFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        segment.setHinted();
+    }
+
+    private boolean compact(final Segment segment) throws IOException {
+        this.lock.writeLock().lock();
+        try {
+            if (this.closed || this.segments.get(Integer.valueOf(segment.getId())) != segment) {
+                return false;
+            }
+
+            // A delete must be kept while an older segment may have a put of the key
+            final boolean olderSegments = this.segments.firstKey().intValue() < segment.getId();
+            final List<Record> live = new ArrayList<Record>();
+            segment.scan(new Segment.RecordVisitor() {
+                @Override
+                public void visit(Record record, int offset, int length) throws IOException {
+                    RecordKey key = new RecordKey(record.getMapName(), record.getKey());
+                    int slot = LogStore.this.index.find(key.getHash(), matcher(key));
+                    if (record.isDelete()) {
+                        if (slot < 0 && olderSegments) {
+                            live.add(record);
+                        }
+                    }
+                    else if (slot >= 0 && LogStore.this.index.getSegment(slot) == segment.getId()
+                            && LogStore.this.index.getOffset(slot) == offset) {
+                        live.add(record);
+                    }
+                }
+            }, false);
+
+            BinaryWriter payload = new BinaryWriter(COMPACTION_FRAME_SIZE);
+            List<Record> frameRecords = new ArrayList<Record>();
+            int[] offsets = new int[live.size()];
+            int[] lengths = new int[live.size()];
+            for (Record record : live) {
+                int offset = payload.size();
+                record.encode(payload);
+                offsets[frameRecords.size()] = offset;
+                lengths[frameRecords.size()] = payload.size() - offset;
+                frameRecords.add(record);
+
+                if (payload.size() >= COMPACTION_FRAME_SIZE) {
+                    append(toFrame(payload), frameRecords, offsets, lengths);
+                    payload.clear();
+                    frameRecords.clear();
+                }
+            }
+            if (!frameRecords.isEmpty()) {
+                append(toFrame(payload), frameRecords, offsets, lengths);
+            }
+
+            // The copies must be durable before the originals are deleted
+            this.active.force();
+            this.segments.remove(Integer.valueOf(segment.getId()));
+            segment.delete();
+
+            LOGGER.info("Compacted segment {}: {} live records moved", segment.getFile(),
+                    Integer.valueOf(live.size()));
+            return true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private long append(ByteBuffer frame, List<Record> records, int[] offsets, int[] lengths) throws IOException {
+        int frameLength = frame.remaining();
+        if (this.active.size() > Segment.HEADER_SIZE && this.active.size() + frameLength > this.maxSegmentSize) {
+            roll();
+        }
+
+        if (this.active.size() + frameLength > Integer.MAX_VALUE) {
+            throw new IOException("Transaction too large: " + frameLength + " bytes");
+        }
+
+        int payloadOffset = (int) this.active.append(frame) + Segment.FRAME_HEADER_SIZE;
+        for (int i = 0; i < records.size(); i++) {
+            Record record = records.get(i);
+            apply(record.getType(), record.getMapName(), record.getKey(), this.active, payloadOffset + offsets[i],
+                    lengths[i]);
+        }
+
+        this.appendedPosition += frameLength;
+        return this.appendedPosition;
+    }
+
+    private void roll() throws IOException {
+        this.active.force();
+        Segment next = Segment.create(this.directory, this.active.getId() + 1);
+        this.segments.put(Integer.valueOf(next.getId()), next);
+        this.active = next;
+    }
+
+    private void apply(byte type, String mapName, byte[] key, Segment segment, int offset, int length)
+            throws IOException {
+        RecordKey recordKey = new RecordKey(mapName, key);
+        int slot = this.index.find(recordKey.getHash(), matcher(recordKey));
+        segment.addRecordBytes(length);
+
+        if (type == Record.DELETE) {
+            // A delete has no value to keep: It is dead as soon as it is written
+            segment.addDeadBytes(length);
+            if (slot >= 0) {
+                markDead(slot);
+                this.mapSizes[this.index.getMapId(slot)]--;
+                this.index.remove(slot);
+            }
+        }
+        else if (slot >= 0) {
+            markDead(slot);
+            this.index.update(slot, segment.getId(), offset, length);
+        }
+        else {
+            int mapId = getMapId(mapName);
+            this.index.insert(recordKey.getHash(), segment.getId(), offset, length, mapId);
+            this.mapSizes[mapId]++;
+        }
+    }
+
+    private void verify(RecordKey key, boolean expectedToExist) throws PersistenceException, IOException {
+        boolean exists = this.index.find(key.getHash(), matcher(key)) >= 0;
+        if (exists != expectedToExist) {
+            if (exists) {
+                throw new IntegrityConstraintViolationException("key already exists in " + key.getMapName());
+            }
+            throw new PersistenceException("key not found in " + key.getMapName());
+        }
+    }
+
+    private void markDead(int slot) {
+        Segment segment = this.segments.get(Integer.valueOf(this.index.getSegment(slot)));
+        if (segment != null) {
+            segment.addDeadBytes(this.index.getLength(slot));
+        }
+    }
+
+    private int getMapId(String mapName) {
+        Integer mapId = this.mapIds.get(mapName);
+        if (mapId == null) {
+            mapId = Integer.valueOf(this.mapIds.size());
+            this.mapIds.put(mapName, mapId);
+            if (mapId.intValue() == this.mapSizes.length) {
+                this.mapSizes = Arrays.copyOf(this.mapSizes, this.mapSizes.length * 2);
+            }
+        }
+        return mapId.intValue();
+    }
+
+    private HashIndex.Matcher matcher(final RecordKey key) {
+        return new HashIndex.Matcher() {
+            @Override
+            public boolean matches(int segment, int offset, int length) throws IOException {
+                return read(segment, offset, length).hasKey(key.getMapName(), key.getKey());
+            }
+        };
+    }
+
+    private Record read(int segmentId, int offset, int length) throws IOException {
+        Segment segment = this.segments.get(Integer.valueOf(segmentId));
+        if (segment == null) {
+            throw new IOException("Index refers to missing segment " + segmentId);
+        }
+        return segment.read(offset, length);
+    }
+
+    private List<Segment> getSealedSegments() {
+        this.lock.readLock().lock();
+        try {
+            if (this.closed) {
+                return Collections.emptyList();
+            }
+            List<Segment> sealed = new ArrayList<Segment>(this.segments.values());
+            sealed.remove(this.active);
+            return sealed;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("File store is closed");
+        }
+    }
+
+    private void closeSegments() throws IOException {
+        IOException error = null;
+        for (Segment segment : this.segments.values()) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        try {
+            this.index.close();
+        } catch (IOException e) {
+            error = e;
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private static ByteBuffer toFrame(BinaryWriter payload) {
+        byte[] bytes = payload.toByteArray();
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes, 0, bytes.length);
+
+        ByteBuffer frame = ByteBuffer.allocate(Segment.FRAME_HEADER_SIZE + bytes.length);
+        frame.putInt(bytes.length).putInt((int) checksum.getValue()).put(bytes).flip();
+        return frame;
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.filestore;
+
+import java.util.Arrays;
+
+import org.opendaylight.persistence.util.common.codec.BinaryReader;
+import org.opendaylight.persistence.util.common.codec.BinaryWriter;
+
+/**
+ * Log record: A put or a delete of a key in a map.
+ * <p>
+ * Encoding: {@code type map-name key [value]}, where the map name, the key and the value are
+ * length-prefixed and the value is present only in puts.
+ * 
+ */
+final class Record {
+
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+
+    private final byte type;
+    private final String mapName;
+    private final byte[] key;
+    private final byte[] value;
+
+    private Record(byte type, String mapName, byte[] key, byte[] value) {
+        this.type = type;
+        this.mapName = mapName;
+        this.key = key;
+        this.value = value;
+    }
+
+    static Record put(String mapName, byte[] key, byte[] value) {
+        return new Record(PUT, mapName, key, value);
+    }
+
+    static Record delete(String mapName, byte[] key) {
+        return new Record(DELETE, mapName, key, null);
+    }
+
+    static Record decode(BinaryReader reader) throws IllegalArgumentException {
+        byte type = reader.readByte();
+        if (type != PUT && type != DELETE) {
+            throw new IllegalArgumentException("Malformed encoding: invalid record type " + type);
+        }
+        String mapName = reader.readString();
+        byte[] key = reader.readBytes();
+        byte[] value = type == PUT ? reader.readBytes() : null;
+        return new Record(type, mapName, key, value);
+    }
+
+    void encode(BinaryWriter writer) {
+        writer.writeByte(this.type);
+        writer.writeString(this.mapName);
+        writer.writeBytes(this.key);
+        if (this.type == PUT) {
+            writer.writeBytes(this.value);
+        }
+    }
+
+    byte getType() {
+        return this.type;
+    }
+
+    boolean isDelete() {
+        return this.type == DELETE;
+    }
+
+    String getMapName() {
+        return this.mapName;
+    }
+
+    byte[] getKey() {
+        return this.key;
+    }
+
+    byte[] getValue() {
+        return this.value;
+    }
+
+    boolean hasKey(String otherMapName, byte[] otherKey) {
+        return this.mapName.equals(otherMapName) && Arrays.equals(this.key, otherKey);
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.filestore;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Key of an entry: The map the entry belongs to plus the encoded key.
+ * 
+ */
+final class RecordKey {
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final String mapName;
+    private final byte[] key;
+    private final long hash;
+
+    RecordKey(String mapName, byte[] key) {
+        this.mapName = mapName;
+        this.key = key;
+        // The map name is length-prefixed so different map and key splits do not collide
+        this.hash = HASH_FUNCTION.newHasher().putInt(mapName.length()).putString(mapName, StandardCharsets.UTF_8)
+                .putBytes(key).hash().asLong();
+    }
+
+    String getMapName() {
+        return this.mapName;
+    }
+
+    byte[] getKey() {
+        return this.key;
+    }
+
+    long getHash() {
+        return this.hash;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (this.hash ^ (this.hash >>> 32));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof RecordKey)) {
+            return false;
+        }
+
+        RecordKey other = (RecordKey) obj;
+        return this.hash == other.hash && this.mapName.equals(other.mapName) && Arrays.equals(this.key, other.key);
+    }
+}
@@ -0,0 +1,380 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.filestore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import org.opendaylight.persistence.util.common.codec.BinaryReader;
+import org.opendaylight.persistence.util.common.io.FileUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Segment of the log: A file records are appended to.
+ * <p>
+ * Records are appended in frames, one frame per committed transaction, so a frame is the unit of
+ * atomicity: A frame whose checksum does not match was torn by a crash and none of its records are
+ * applied.
+ * <p>
+ * File layout (Big-endian):
+ * 
+ * <pre>
+ * segment := MAGIC VERSION frame*
+ * frame   := payload-length crc32(payload) payload
+ * payload := record+
+ * </pre>
+ * 
+ * Records are located by their offset in the segment and their length (See {@link Record}). Reads
+ * are positional, so they can be performed concurrently with appends.
+ * 
+ */
+final class Segment implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Segment.class);
+
+    static final int HEADER_SIZE = 8;
+    static final int FRAME_HEADER_SIZE = 8;
+
+    private static final int MAGIC = 0x4F444C47; // ODLG
+    private static final int VERSION = 1;
+    private static final String FILE_PREFIX = "segment-";
+    private static final String LOG_SUFFIX = ".log";
+    private static final String HINT_SUFFIX = ".hint";
+
+    private final int id;
+    private final Path file;
+    private final FileChannel channel;
+    private long size;
+    // Statistics used to select segments for compaction
+    private long recordBytes;
+    private long deadBytes;
+    private volatile boolean hinted;
+
+    private Segment(int id, Path file, FileChannel channel, long size) {
+        this.id = id;
+        this.file = file;
+        this.channel = channel;
+        this.size = size;
+    }
+
+    /**
+     * Creates a segment.
+     * 
+     * @param directory store directory
+     * @param id segment id
+     * @return the segment
+     * @throws IOException if errors occur creating the file
+     */
+    static Segment create(Path directory, int id) throws IOException {
+        Path file = getLogPath(directory, id);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            writeFully(channel, header, 0);
+            return new Segment(id, file, channel, HEADER_SIZE);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an existing segment.
+     * 
+     * @param directory store directory
+     * @param id segment id
+     * @return the segment
+     * @throws IOException if errors occur opening the file or if the file is not a segment
+     */
+    static Segment open(Path directory, int id) throws IOException {
+        Path file = getLogPath(directory, id);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (readFully(channel, header, 0) < HEADER_SIZE || header.getInt(0) != MAGIC) {
+                throw new IOException("Not a segment file: " + file);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("Unsupported segment version: " + header.getInt(4));
+            }
+            Segment segment = new Segment(id, file, channel, channel.size());
+            segment.hinted = Files.exists(getHintPath(directory, id));
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the id of a segment file.
+     * 
+     * @param file file
+     * @return the segment id, {@code -1} if the file is not a segment file
+     */
+    static int getId(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(FILE_PREFIX) || !name.endsWith(LOG_SUFFIX)) {
+            return -1;
+        }
+
+        try {
+            return Integer.parseInt(name.substring(FILE_PREFIX.length(), name.length() - LOG_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static String getLogFilePattern() {
+        return FILE_PREFIX + "*" + LOG_SUFFIX;
+    }
+
+    static Path getLogPath(Path directory, int id) {
+        return FileUtil.getPath(directory, String.format("%s%010d%s", FILE_PREFIX, Integer.valueOf(id), LOG_SUFFIX));
+    }
+
+    static Path getHintPath(Path directory, int id) {
+        return FileUtil.getPath(directory, String.format("%s%010d%s", FILE_PREFIX, Integer.valueOf(id), HINT_SUFFIX));
+    }
+
+    int getId() {
+        return this.id;
+    }
+
+    Path getFile() {
+        return this.file;
+    }
+
+    long size() {
+        return this.size;
+    }
+
+    long getRecordBytes() {
+        return this.recordBytes;
+    }
+
+    long getDeadBytes() {
+        return this.deadBytes;
+    }
+
+    void addRecordBytes(int length) {
+        this.recordBytes += length;
+    }
+
+    void addDeadBytes(int length) {
+        this.deadBytes += length;
+    }
+
+    boolean isHinted() {
+        return this.hinted;
+    }
+
+    void setHinted() {
+        this.hinted = true;
+    }
+
+    /**
+     * Deletes the hint file of the segment, if any.
+     * 
+     * @throws IOException if errors occur
+     */
+    void deleteHints() throws IOException {
+        Files.deleteIfExists(getHintPath(this.file.getParent(), this.id));
+        this.hinted = false;
+    }
+
+    /**
+     * Appends a frame.
+     * 
+     * @param frame frame, including its header
+     * @return the offset of the frame
+     * @throws IOException if errors occur writing the frame. The segment is truncated to its size
+     *             before the append.
+     */
+    long append(ByteBuffer frame) throws IOException {
+        long offset = this.size;
+        int length = frame.remaining();
+        try {
+            writeFully(this.channel, frame, offset);
+        } catch (IOException e) {
+            try {
+                this.channel.truncate(offset);
+            } catch (IOException truncateException) {
+                e.addSuppressed(truncateException);
+            }
+            throw e;
+        }
+        this.size += length;
+        return offset;
+    }
+
+    /**
+     * Reads a record.
+     * 
+     * @param offset record's offset
+     * @param length record's length
+     * @return the record
+     * @throws IOException if errors occur reading the record
+     */
+    Record read(int offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        if (readFully(this.channel, buffer, offset) < length) {
+            throw new IOException("Unexpected end of segment " + this.file);
+        }
+        buffer.flip();
+        try {
+            return Record.decode(new BinaryReader(buffer));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupted record at " + this.file + ":" + offset, e);
+        }
+    }
+
+    /**
+     * Reads all the records of the segment in order.
+     * 
+     * @param visitor visitor to pass the records to
+     * @param tail {@code true} if the segment is the tail of the log: A torn frame at the end of the
+     *            segment is expected after a crash and the segment is truncated before it.
+     *            {@code false} if the segment was sealed: An invalid frame means the segment is
+     *            corrupted.
+     * @throws IOException if errors occur reading the segment or if the segment is corrupted
+     */
+    void scan(RecordVisitor visitor, boolean tail) throws IOException {
+        long fileSize = this.channel.size();
+        long position = HEADER_SIZE;
+        ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+
+        while (position < fileSize) {
+            String invalidFrame = null;
+            ByteBuffer payload = null;
+
+            frameHeader.clear();
+            if (readFully(this.channel, frameHeader, position) < FRAME_HEADER_SIZE) {
+                invalidFrame = "incomplete frame header";
+            }
+            else {
+                int payloadLength = frameHeader.getInt(0);
+                long expectedChecksum = frameHeader.getInt(4) & 0xFFFFFFFFL;
+                if (payloadLength <= 0 || payloadLength > fileSize - position - FRAME_HEADER_SIZE) {
+                    invalidFrame = "invalid frame length";
+                }
+                else {
+                    payload = ByteBuffer.allocate(payloadLength);
+                    readFully(this.channel, payload, position + FRAME_HEADER_SIZE);
+                    CRC32 checksum = new CRC32();
+                    checksum.update(payload.array(), 0, payloadLength);
+                    if (checksum.getValue() != expectedChecksum) {
+                        invalidFrame = "checksum mismatch";
+                    }
+                }
+            }
+
+            if (invalidFrame != null) {
+                if (!tail) {
+                    throw new IOException("Corrupted segment " + this.file + ": " + invalidFrame + " at "
+                            + position);
+                }
+                LOGGER.warn("Truncating torn frame at {}:{} ({})", this.file, Long.valueOf(position), invalidFrame);
+                this.channel.truncate(position);
+                this.channel.force(true);
+                break;
+            }
+
+            payload.flip();
+            int payloadOffset = (int) position + FRAME_HEADER_SIZE;
+            BinaryReader reader = new BinaryReader(payload);
+            while (reader.hasRemaining()) {
+                int recordStart = payload.limit() - reader.remaining();
+                Record record = decode(reader, position);
+                int recordEnd = payload.limit() - reader.remaining();
+                visitor.visit(record, payloadOffset + recordStart, recordEnd - recordStart);
+            }
+
+            position += FRAME_HEADER_SIZE + payload.limit();
+        }
+
+        this.size = position;
+    }
+
+    /**
+     * Forces the appended frames to the storage device.
+     * 
+     * @throws IOException if errors occur
+     */
+    void force() throws IOException {
+        this.channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Closes and deletes the segment and its hint file.
+     * 
+     * @throws IOException if errors occur
+     */
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(this.file);
+        Files.deleteIfExists(getHintPath(this.file.getParent(), this.id));
+    }
+
+    private Record decode(BinaryReader reader, long framePosition) throws IOException {
+        try {
+            return Record.decode(reader);
+        } catch (IllegalArgumentException e) {
+            // The checksum matched, so the frame was written like this
+            throw new IOException("Corrupted frame at " + this.file + ":" + framePosition, e);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long writePosition = position;
+        while (buffer.hasRemaining()) {
+            writePosition += channel.write(buffer, writePosition);
+        }
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * Visitor of the records of a segment.
+     */
+    interface RecordVisitor {
+
+        /**
+         * Visits a record.
+         * 
+         * @param record record
+         * @param offset record's offset in the segment
+         * @param length record's length
+         * @throws IOException if errors occur
+         */
+        void visit(Record record, int offset, int length) throws IOException;
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.filestore.dao;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.dao.KeyValueDao;
+import org.opendaylight.persistence.filestore.FileStoreContext;
+import org.opendaylight.persistence.util.common.codec.BinaryReader;
+import org.opendaylight.persistence.util.common.codec.BinaryWriter;
+import org.opendaylight.persistence.util.common.codec.Codec;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link KeyValueDao} on a map of the file store.
+ * <p>
+ * This class must remain state-less so it is thread safe.
+ * <p>
+ * Ids and objects are encoded with {@link Codec codecs}: The encoded id is the key of the entry and
+ * the encoded object its value. Ids are assigned by the application. {@link #getAll(FileStoreContext)}
+ * returns the objects in no particular order.
+ * 
+ * @param <I> type of the identifiable object's id. This type should be immutable and it is critical
+ *            it implements {@link Object#equals(Object)} and {@link Object#hashCode()} correctly.
+ * @param <T> type of the identifiable object (object to store in the data store)
+ */
+public class FileKeyValueDao<I extends Serializable, T extends Identifiable<I>> implements
+        KeyValueDao<I, T, FileStoreContext> {
+
+    private final String mapName;
+    private final Codec<I> idCodec;
+    private final Codec<T> codec;
+
+    /**
+     * Creates a DAO.
+     * 
+     * @param mapName name of the map to store the objects in
+     * @param idCodec codec to encode the ids with
+     * @param codec codec to encode the objects with
+     */
+    public FileKeyValueDao(@Nonnull String mapName, @Nonnull Codec<I> idCodec, @Nonnull Codec<T> codec) {
+        this.mapName = Preconditions.checkNotNull(mapName, "mapName");
+        this.idCodec = Preconditions.checkNotNull(idCodec, "idCodec");
+        this.codec = Preconditions.checkNotNull(codec, "codec");
+    }
+
+    @Override
+    public T add(T identifiable, FileStoreContext context) throws PersistenceException {
+        Preconditions.checkArgument(identifiable != null, "identifiable cannot be null");
+        Preconditions.checkArgument(identifiable.getIdentifier() != null, "id cannot be null");
+        context.insert(this.mapName, encodeId(identifiable.getIdentifier()), encode(identifiable));
+        return identifiable;
+    }
+
+    @Override
+    public T update(T identifiable, FileStoreContext context) throws PersistenceException {
+        Preconditions.checkArgument(identifiable != null, "identifiable cannot be null");
+        Preconditions.checkArgument(identifiable.getIdentifier() != null, "id cannot be null");
+        context.replace(this.mapName, encodeId(identifiable.getIdentifier()), encode(identifiable));
+        return identifiable;
+    }
+
+    @Override
+    public void delete(I id, FileStoreContext context) throws PersistenceException {
+        if (id != null) {
+            context.remove(this.mapName, encodeId(id));
+        }
+    }
+
+    @Override
+    public T get(I id, FileStoreContext context) throws PersistenceException {
+        if (id == null) {
+            return null;
+        }
+        return decode(context.get(this.mapName, encodeId(id)));
+    }
+
+    @Override
+    public boolean exist(I id, FileStoreContext context) throws PersistenceException {
+        if (id == null) {
+            return false;
+        }
+        return context.contains(this.mapName, encodeId(id));
+    }
+
+    @Override
+    public Collection<T> getAll(FileStoreContext context) throws PersistenceException {
+        Collection<byte[]> values = context.getValues(this.mapName);
+        List<T> result = new ArrayList<T>(values.size());
+        for (byte[] value : values) {
+            result.add(decode(value));
+        }
+        return result;
+    }
+
+    @Override
+    public long size(FileStoreContext context) throws PersistenceException {
+        return context.size(this.mapName);
+    }
+
+    @Override
+    public void clear(FileStoreContext context) throws PersistenceException {
+        context.clear(this.mapName);
+    }
+
+    /**
+     * Gets the name of the map the objects are stored in.
+     * 
+     * @return the map name
+     */
+    public String getMapName() {
+        return this.mapName;
+    }
+
+    private byte[] encodeId(I id) {
+        BinaryWriter writer = new BinaryWriter(16);
+        this.idCodec.encode(id, writer);
+        return writer.toByteArray();
+    }
+
+    private byte[] encode(T identifiable) {
+        BinaryWriter writer = new BinaryWriter();
+        this.codec.encode(identifiable, writer);
+        return writer.toByteArray();
+    }
+
+    private T decode(byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        return this.codec.decode(new BinaryReader(value));
+    }
+}
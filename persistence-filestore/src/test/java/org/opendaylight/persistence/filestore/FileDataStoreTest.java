@@ -0,0 +1,287 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.filestore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.persistence.IntegrityConstraintViolationException;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.filestore.FileDataStore.SyncMode;
+import org.opendaylight.persistence.util.common.io.FileUtil;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class FileDataStoreTest {
+
+    private static final String MAP = "map";
+
+    private Path directory;
+    private FileDataStore dataStore;
+
+    @Before
+    public void beforeTest() throws IOException {
+        this.directory = Files.createTempDirectory("file-store");
+        this.dataStore = open();
+    }
+
+    @After
+    public void afterTest() throws IOException {
+        this.dataStore.close();
+        FileUtil.deleteRecursively(this.directory);
+    }
+
+    @Test
+    public void testReopen() throws Exception {
+        put("a", "1");
+        put("b", "2");
+        put("a", "3");
+        remove("b");
+
+        this.dataStore.close();
+        this.dataStore = open();
+
+        Assert.assertEquals("3", get("a"));
+        Assert.assertNull(get("b"));
+        Assert.assertEquals(1, size());
+    }
+
+    @Test
+    public void testTornTailIsTruncated() throws Exception {
+        put("a", "1");
+        this.dataStore.close();
+
+        // Simulates a crash while appending a frame: Header promising more bytes than written
+        Path tail = Segment.getLogPath(this.directory, 1);
+        long validSize = Files.size(tail);
+        try (FileChannel channel = FileChannel.open(tail, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer tornFrame = ByteBuffer.allocate(12);
+            tornFrame.putInt(100).putInt(0).putInt(0).flip();
+            channel.write(tornFrame);
+        }
+
+        this.dataStore = open();
+        Assert.assertEquals("1", get("a"));
+        Assert.assertEquals(validSize, Files.size(tail));
+
+        put("b", "2");
+        this.dataStore.close();
+        this.dataStore = open();
+        Assert.assertEquals("2", get("b"));
+    }
+
+    @Test
+    public void testTransactionIsAtomic() throws Exception {
+        put("a", "1");
+
+        try {
+            this.dataStore.execute(new Query<Void, FileStoreContext>() {
+                @Override
+                public Void execute(FileStoreContext context) throws PersistenceException {
+                    context.put(MAP, bytes("b"), bytes("2"));
+                    context.insert(MAP, bytes("a"), bytes("3"));
+                    return null;
+                }
+            });
+            Assert.fail("Exception expected");
+        } catch (IntegrityConstraintViolationException e) {
+            // Expected
+        }
+
+        Assert.assertNull(get("b"));
+        Assert.assertEquals("1", get("a"));
+    }
+
+    @Test
+    public void testInsertVerifiedAtCommit() throws Exception {
+        try {
+            this.dataStore.execute(new Query<Void, FileStoreContext>() {
+                @Override
+                public Void execute(FileStoreContext context) throws PersistenceException {
+                    context.insert(MAP, bytes("a"), bytes("1"));
+                    // Concurrent transaction committing the same key first
+                    put("a", "2");
+                    return null;
+                }
+            });
+            Assert.fail("Exception expected");
+        } catch (IntegrityConstraintViolationException e) {
+            // Expected
+        }
+
+        Assert.assertEquals("2", get("a"));
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        this.dataStore.close();
+        this.dataStore = FileDataStore.builder(this.directory).segmentSize(1024).syncMode(SyncMode.PERIODIC)
+                .syncInterval(10, TimeUnit.MILLISECONDS).maintenanceInterval(1, TimeUnit.HOURS).open();
+
+        put("live", "value");
+        for (int i = 0; i < 500; i++) {
+            put("key-" + (i % 10), "value-" + i);
+        }
+        remove("key-0");
+
+        int segmentCount = this.dataStore.getSegmentCount();
+        Assert.assertTrue(segmentCount > 2);
+
+        this.dataStore.maintain();
+        Assert.assertTrue(this.dataStore.getSegmentCount() < segmentCount);
+        assertContent();
+
+        this.dataStore.close();
+        this.dataStore = open();
+        assertContent();
+    }
+
+    @Test
+    public void testHints() throws Exception {
+        this.dataStore.close();
+        this.dataStore = FileDataStore.builder(this.directory).segmentSize(256)
+                .maintenanceInterval(1, TimeUnit.HOURS).open();
+
+        for (int i = 0; i < 50; i++) {
+            put("key-" + i, "value-" + i);
+        }
+        int segmentCount = this.dataStore.getSegmentCount();
+        Assert.assertTrue(segmentCount > 2);
+
+        this.dataStore.maintain();
+        Assert.assertEquals(segmentCount, this.dataStore.getSegmentCount());
+        this.dataStore.close();
+
+        // Sealed segments are loaded from their hints; the tail segment is replayed
+        for (int id = 1; id < segmentCount; id++) {
+            Assert.assertTrue(Files.exists(Segment.getHintPath(this.directory, id)));
+        }
+        Assert.assertFalse(Files.exists(Segment.getHintPath(this.directory, segmentCount)));
+
+        this.dataStore = open();
+        for (int i = 0; i < 50; i++) {
+            Assert.assertEquals("value-" + i, get("key-" + i));
+        }
+        Assert.assertEquals(50, size());
+    }
+
+    @Test
+    public void testHintsOfReopenedSegmentAreDiscarded() throws Exception {
+        this.dataStore.close();
+        this.dataStore = openSmallSegments();
+
+        int count = 0;
+        while (this.dataStore.getSegmentCount() < 2) {
+            put("key-" + count, "value-" + count);
+            count++;
+        }
+        this.dataStore.maintain();
+        this.dataStore.close();
+        Assert.assertTrue(Files.exists(Segment.getHintPath(this.directory, 1)));
+
+        // Simulates a crash while the tail segment was being created
+        Path tail = Segment.getLogPath(this.directory, 2);
+        try (FileChannel channel = FileChannel.open(tail, StandardOpenOption.WRITE)) {
+            channel.truncate(Segment.HEADER_SIZE - 1);
+        }
+
+        this.dataStore = openSmallSegments();
+        Assert.assertEquals(1, this.dataStore.getSegmentCount());
+        Assert.assertFalse(Files.exists(Segment.getHintPath(this.directory, 1)));
+
+        // The segment reopened as tail gets new records before being sealed again
+        int firstAppended = count;
+        while (this.dataStore.getSegmentCount() < 2) {
+            put("key-" + count, "value-" + count);
+            count++;
+        }
+        this.dataStore.maintain();
+        this.dataStore.close();
+        Assert.assertTrue(Files.exists(Segment.getHintPath(this.directory, 1)));
+
+        this.dataStore = openSmallSegments();
+        for (int i = 0; i < count; i++) {
+            String expected = "value-" + i;
+            // The record written into the deleted tail was lost with it
+            if (i == firstAppended - 1) {
+                expected = null;
+            }
+            Assert.assertEquals(expected, get("key-" + i));
+        }
+    }
+
+    private void assertContent() throws PersistenceException {
+        Assert.assertEquals("value", get("live"));
+        Assert.assertNull(get("key-0"));
+        for (int i = 1; i < 10; i++) {
+            Assert.assertEquals("value-" + (490 + i), get("key-" + i));
+        }
+        Assert.assertEquals(10, size());
+    }
+
+    private FileDataStore openSmallSegments() throws IOException {
+        return FileDataStore.builder(this.directory).segmentSize(256).maintenanceInterval(1, TimeUnit.HOURS).open();
+    }
+
+    private FileDataStore open() throws IOException {
+        return FileDataStore.builder(this.directory).maintenanceInterval(1, TimeUnit.HOURS).open();
+    }
+
+    private void put(final String key, final String value) throws PersistenceException {
+        this.dataStore.execute(new Query<Void, FileStoreContext>() {
+            @Override
+            public Void execute(FileStoreContext context) throws PersistenceException {
+                context.put(MAP, bytes(key), bytes(value));
+                return null;
+            }
+        });
+    }
+
+    private void remove(final String key) throws PersistenceException {
+        this.dataStore.execute(new Query<Void, FileStoreContext>() {
+            @Override
+            public Void execute(FileStoreContext context) throws PersistenceException {
+                context.remove(MAP, bytes(key));
+                return null;
+            }
+        });
+    }
+
+    private String get(final String key) throws PersistenceException {
+        return this.dataStore.execute(new Query<String, FileStoreContext>() {
+            @Override
+            public String execute(FileStoreContext context) throws PersistenceException {
+                byte[] value = context.get(MAP, bytes(key));
+                return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+            }
+        });
+    }
+
+    private long size() throws PersistenceException {
+        return this.dataStore.execute(new Query<Long, FileStoreContext>() {
+            @Override
+            public Long execute(FileStoreContext context) throws PersistenceException {
+                return Long.valueOf(context.size(MAP));
+            }
+        }).longValue();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
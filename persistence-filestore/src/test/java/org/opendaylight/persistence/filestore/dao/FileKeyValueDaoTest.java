@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.filestore.dao;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.opendaylight.persistence.filestore.FileDataStore;
+import org.opendaylight.persistence.filestore.FileStoreContext;
+import org.opendaylight.persistence.util.common.codec.BinaryReader;
+import org.opendaylight.persistence.util.common.codec.BinaryWriter;
+import org.opendaylight.persistence.util.common.codec.Codec;
+import org.opendaylight.persistence.util.common.codec.ValueCodecs;
+import org.opendaylight.persistence.util.common.io.FileUtil;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+import com.opendaylight.persistence.dao.AbstractKeyValueDaoTest;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class FileKeyValueDaoTest extends
+        AbstractKeyValueDaoTest<Long, FileKeyValueDaoTest.Item, FileStoreContext, FileKeyValueDao<Long, FileKeyValueDaoTest.Item>> {
+
+    private static final Path DIRECTORY;
+    private static final FileDataStore DATA_STORE;
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+    private static final Random RANDOM = new Random();
+
+    private static final Codec<Item> ITEM_CODEC = new Codec<Item>() {
+        @Override
+        public void encode(Item value, BinaryWriter writer) {
+            writer.writeSignedVarLong(value.getIdentifier().longValue());
+            writer.writeString(value.getName());
+            writer.writeSignedVarInt(value.getPriority());
+        }
+
+        @Override
+        public Item decode(BinaryReader reader) {
+            return new Item(Long.valueOf(reader.readSignedVarLong()), reader.readString(), reader.readSignedVarInt());
+        }
+    };
+
+    static {
+        try {
+            DIRECTORY = Files.createTempDirectory("file-store");
+            DATA_STORE = FileDataStore.builder(DIRECTORY).open();
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public FileKeyValueDaoTest() {
+        super(DATA_STORE);
+    }
+
+    @AfterClass
+    public static void afterClass() throws IOException {
+        DATA_STORE.close();
+        FileUtil.deleteRecursively(DIRECTORY);
+    }
+
+    @Override
+    protected FileKeyValueDao<Long, Item> createDaoInstance() {
+        return new FileKeyValueDao<Long, Item>("item", ValueCodecs.LONG, ITEM_CODEC);
+    }
+
+    @Override
+    protected boolean isPrimaryKeyIntegrityConstraintViolationTestSuitable() {
+        return true;
+    }
+
+    @Override
+    protected boolean isNotFoundExceptionOnUpdateSuitable() {
+        return true;
+    }
+
+    @Override
+    protected boolean isVersioned() {
+        return false;
+    }
+
+    @Override
+    protected Item createIdentifiable(Long id) {
+        return new Item(id, "item-" + id, RANDOM.nextInt(100));
+    }
+
+    @Override
+    protected List<Item> createIdentifiables(int count) {
+        List<Item> identifiables = new ArrayList<Item>(count);
+        for (int i = 0; i < count; i++) {
+            identifiables.add(createIdentifiable(Long.valueOf(ID_SEQUENCE.incrementAndGet())));
+        }
+        return identifiables;
+    }
+
+    @Override
+    protected void assertEqualState(Item expected, Item actual) {
+        Assert.assertEquals(expected.getName(), actual.getName());
+        Assert.assertEquals(expected.getPriority(), actual.getPriority());
+    }
+
+    @Override
+    protected void modify(Item identifiable) {
+        identifiable.setName(identifiable.getName() + "-modified");
+        identifiable.setPriority(identifiable.getPriority() + 1);
+    }
+
+    public static class Item implements Identifiable<Long> {
+        private final Long id;
+        private String name;
+        private int priority;
+
+        public Item(Long id, String name, int priority) {
+            this.id = id;
+            this.name = name;
+            this.priority = priority;
+        }
+
+        @Override
+        public Long getIdentifier() {
+            return this.id;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getPriority() {
+            return this.priority;
+        }
+
+        public void setPriority(int priority) {
+            this.priority = priority;
+        }
+    }
+}
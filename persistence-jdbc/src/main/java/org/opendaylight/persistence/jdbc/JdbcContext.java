@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JDBC query context: The connection of the transaction a query is executed in.
+ * <p>
+ * Prepared statements are cached by SQL for the duration of the transaction, so DAO operations
+ * executed repeatedly within a query (A batch of gets for example) parse and plan the statement
+ * once. The least recently used statement is closed when the cache is full. Statements are shared,
+ * thus a statement must not be prepared again while its result set is open.
+ * <p>
+ * This class is not thread safe: A context is confined to the thread executing the query.
+ * 
+ */
+public class JdbcContext {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JdbcContext.class);
+
+    // Prefix to tell apart statements that return generated keys from plain statements
+    private static final String GENERATED_KEYS_PREFIX = "\u0000";
+
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements;
+    private long preparedCount;
+    private long reusedCount;
+
+    /**
+     * Creates a data store context.
+     * 
+     * @param connection connection
+     * @param statementCacheSize maximum number of cached prepared statements
+     */
+    JdbcContext(Connection connection, final int statementCacheSize) {
+        this.connection = connection;
+        this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Entry<String, PreparedStatement> eldest) {
+                if (size() > statementCacheSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets the connection.
+     * 
+     * @return the connection
+     */
+    public Connection getConnection() {
+        return this.connection;
+    }
+
+    /**
+     * Gets a prepared statement for the given SQL, reusing a cached one if possible.
+     * 
+     * @param sql SQL statement
+     * @return a prepared statement with no parameters set
+     * @throws SQLException if the statement cannot be prepared
+     */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return prepareStatement(sql, sql, false);
+    }
+
+    /**
+     * Gets a prepared statement for the given SQL that returns the auto-generated keys, reusing a
+     * cached one if possible.
+     * 
+     * @param sql SQL insert statement
+     * @return a prepared statement with no parameters set
+     * @throws SQLException if the statement cannot be prepared
+     */
+    public PreparedStatement prepareStatementReturningKeys(String sql) throws SQLException {
+        return prepareStatement(GENERATED_KEYS_PREFIX + sql, sql, true);
+    }
+
+    /**
+     * Gets the number of statements prepared in this context.
+     * 
+     * @return the number of statements prepared
+     */
+    public long getPreparedCount() {
+        return this.preparedCount;
+    }
+
+    /**
+     * Gets the number of times a cached statement was reused.
+     * 
+     * @return the number of statement cache hits
+     */
+    public long getReusedCount() {
+        return this.reusedCount;
+    }
+
+    /**
+     * Closes the cached statements.
+     */
+    void close() {
+        for (Iterator<PreparedStatement> iterator = this.statements.values().iterator(); iterator.hasNext();) {
+            closeQuietly(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private PreparedStatement prepareStatement(String key, String sql, boolean returnGeneratedKeys)
+            throws SQLException {
+        PreparedStatement statement = this.statements.get(key);
+        if (statement != null) {
+            statement.clearParameters();
+            this.reusedCount++;
+            return statement;
+        }
+
+        if (returnGeneratedKeys) {
+            statement = this.connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        } else {
+            statement = this.connection.prepareStatement(sql);
+        }
+        this.preparedCount++;
+        this.statements.put(key, statement);
+        return statement;
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            LOGGER.warn("Unable to close statement", e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.annotation.Nonnull;
+import javax.sql.DataSource;
+
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.query.QueryLoggerDecorator;
+import org.opendaylight.persistence.jdbc.dao.JdbcUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Plain JDBC {@link DataStore}.
+ * <p>
+ * Each query is executed in its own transaction: A connection is taken from the data source, the
+ * query is executed and the transaction is committed, or rolled back if the query fails. Connection
+ * pooling is delegated to the data source.
+ * <p>
+ * This data store avoids the entity lifecycle of JPA (Persistence context, dirty checking, criteria
+ * building), thus it is meant for high-volume tables where that overhead dominates. DAOs for this
+ * data store extend {@link org.opendaylight.persistence.jdbc.dao.JdbcKeyValueDao} and its subclasses.
+ * 
+ */
+public class JdbcDataStore implements DataStore<JdbcContext> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JdbcDataStore.class);
+
+    /**
+     * Default maximum number of prepared statements cached per transaction.
+     */
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
+    private final DataSource dataSource;
+    private final int statementCacheSize;
+
+    /**
+     * Creates a JDBC data store using {@link #DEFAULT_STATEMENT_CACHE_SIZE}.
+     * 
+     * @param dataSource data source
+     */
+    public JdbcDataStore(@Nonnull DataSource dataSource) {
+        this(dataSource, DEFAULT_STATEMENT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a JDBC data store.
+     * 
+     * @param dataSource data source
+     * @param statementCacheSize maximum number of prepared statements cached per transaction
+     */
+    public JdbcDataStore(@Nonnull DataSource dataSource, int statementCacheSize) {
+        Preconditions.checkArgument(statementCacheSize > 0, "statementCacheSize must be greater than zero");
+        this.dataSource = Preconditions.checkNotNull(dataSource, "dataSource");
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    @Override
+    public <T> T execute(Query<T, JdbcContext> query) throws PersistenceException {
+        Preconditions.checkNotNull(query, "query");
+
+        Query<T, JdbcContext> queryDecorator = new QueryLoggerDecorator<T, JdbcContext>(query);
+
+        Connection connection;
+        try {
+            connection = this.dataSource.getConnection();
+        } catch (SQLException e) {
+            throw JdbcUtil.translate(e, null);
+        }
+
+        JdbcContext context = new JdbcContext(connection, this.statementCacheSize);
+        boolean committed = false;
+        try {
+            connection.setAutoCommit(false);
+            T result = queryDecorator.execute(context);
+            connection.commit();
+            committed = true;
+            return result;
+        } catch (SQLException e) {
+            throw JdbcUtil.translate(e, null);
+        } finally {
+            context.close();
+            if (!committed) {
+                rollback(connection);
+            }
+            close(connection);
+        }
+    }
+
+    private static void rollback(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            LOGGER.warn("Unable to rollback transaction", e);
+        }
+    }
+
+    private static void close(Connection connection) {
+        try {
+            // Pooled connections are returned in their original mode
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            LOGGER.warn("Unable to restore auto-commit", e);
+        }
+
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.warn("Unable to close connection", e);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jdbc.dao;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.dao.Dao;
+import org.opendaylight.persistence.jdbc.JdbcContext;
+import org.opendaylight.persistence.jdbc.sql.SqlPredicate;
+import org.opendaylight.persistence.jdbc.sql.SqlPredicateGenerator;
+import org.opendaylight.persistence.util.common.type.Sort;
+import org.opendaylight.persistence.util.common.type.SortOrder;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+/**
+ * Plain JDBC {@link Dao}.
+ * <p>
+ * This class must remain state-less so it is thread safe.
+ * <p>
+ * Filters are translated to SQL by {@link #getQueryPredicate(Object)} using the
+ * {@link SqlPredicateGenerator}, the counterpart of the JPA predicate generator, so a DAO can move
+ * between the JPA and the JDBC implementations keeping the same filter semantics. A {@code null}
+ * filter matches all the objects.
+ * 
+ * @param <I> type of the identifiable object's id. This type should be immutable and it is critical
+ *            it implements {@link Object#equals(Object)} and {@link Object#hashCode()} correctly.
+ * @param <T> type of the identifiable object (object to store in the data store)
+ * @param <F> type of the associated filter. A DAO is responsible for translating this filter to
+ *            SQL predicates.
+ * @param <S> type of the associated sort key. A DAO is responsible for translating the sort key to
+ *            a column.
+ */
+public abstract class JdbcDao<I extends Serializable, T extends Identifiable<I>, F, S> extends
+        JdbcKeyValueDao<I, T> implements Dao<I, T, F, S, JdbcContext> {
+
+    /**
+     * Creates a DAO.
+     * 
+     * @param table table name
+     * @param idColumn id column name
+     * @param columns names of the columns other than the id
+     */
+    protected JdbcDao(@Nonnull String table, @Nonnull String idColumn, @Nonnull String... columns) {
+        super(table, idColumn, columns);
+    }
+
+    @Override
+    public List<T> find(F filter, List<Sort<S>> sortSpecification, JdbcContext context)
+            throws PersistenceException {
+        SqlPredicate predicate = getPredicate(filter);
+        if (getQueryPredicateGenerator().isContradiction(predicate)) {
+            return new ArrayList<T>();
+        }
+
+        StringBuilder sql = new StringBuilder(128);
+        sql.append("SELECT ").append(getSelectColumns()).append(" FROM ").append(getTable());
+        appendWhere(predicate, sql);
+        appendOrderBy(sortSpecification, sql);
+        return JdbcUtil.query(sql.toString(), getParameters(predicate), this, context);
+    }
+
+    @Override
+    public long count(F filter, JdbcContext context) throws PersistenceException {
+        SqlPredicate predicate = getPredicate(filter);
+        if (getQueryPredicateGenerator().isContradiction(predicate)) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder(64);
+        sql.append("SELECT COUNT(*) FROM ").append(getTable());
+        appendWhere(predicate, sql);
+        return JdbcUtil.queryForLong(sql.toString(), getParameters(predicate), context);
+    }
+
+    @Override
+    public void delete(F filter, JdbcContext context) throws PersistenceException {
+        SqlPredicate predicate = getPredicate(filter);
+        if (getQueryPredicateGenerator().isContradiction(predicate)) {
+            return;
+        }
+
+        StringBuilder sql = new StringBuilder(64);
+        sql.append("DELETE FROM ").append(getTable());
+        appendWhere(predicate, sql);
+        JdbcUtil.update(sql.toString(), getParameters(predicate), context);
+    }
+
+    /**
+     * Gets the predicate generator.
+     * 
+     * @return the predicate generator
+     */
+    protected SqlPredicateGenerator getQueryPredicateGenerator() {
+        return SqlPredicateGenerator.getInstance();
+    }
+
+    /**
+     * Gets the predicate for the given filter, a tautology if the filter is {@code null}.
+     * 
+     * @param filter filter
+     * @return the predicate
+     */
+    protected SqlPredicate getPredicate(@Nullable F filter) {
+        if (filter == null) {
+            return getQueryPredicateGenerator().getTautology();
+        }
+        return getQueryPredicate(filter);
+    }
+
+    /**
+     * Appends the {@code WHERE} clause unless the predicate is a tautology.
+     * 
+     * @param predicate predicate
+     * @param sql SQL to append the clause to
+     */
+    protected void appendWhere(SqlPredicate predicate, StringBuilder sql) {
+        if (!getQueryPredicateGenerator().isTautology(predicate)) {
+            sql.append(" WHERE ").append(predicate.getSql());
+        }
+    }
+
+    /**
+     * Appends the {@code ORDER BY} clause if a sort specification is given.
+     * 
+     * @param sortSpecification sort specification
+     * @param sql SQL to append the clause to
+     */
+    protected void appendOrderBy(@Nullable List<Sort<S>> sortSpecification, StringBuilder sql) {
+        if (sortSpecification == null || sortSpecification.isEmpty()) {
+            return;
+        }
+
+        sql.append(" ORDER BY ");
+        boolean first = true;
+        for (Sort<S> sort : sortSpecification) {
+            if (!first) {
+                sql.append(", ");
+            }
+            sql.append(getColumn(sort.by()));
+            sql.append(sort.order() == SortOrder.DESCENDING ? " DESC" : " ASC");
+            first = false;
+        }
+    }
+
+    /**
+     * Gets the parameters of the predicate.
+     * 
+     * @param predicate predicate
+     * @return the parameters, {@code null} if the predicate is a tautology
+     */
+    protected List<Object> getParameters(SqlPredicate predicate) {
+        if (getQueryPredicateGenerator().isTautology(predicate)) {
+            return null;
+        }
+        return predicate.getParameters();
+    }
+
+    /**
+     * Translates the filter to a SQL predicate.
+     * 
+     * @param filter filter
+     * @return the predicate
+     */
+    protected abstract SqlPredicate getQueryPredicate(@Nonnull F filter);
+
+    /**
+     * Gets the column to sort by.
+     * 
+     * @param sortKey sort key
+     * @return the column name
+     */
+    protected abstract String getColumn(@Nonnull S sortKey);
+}
@@ -0,0 +1,277 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jdbc.dao;
+
+import java.io.Serializable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.dao.BatchDao;
+import org.opendaylight.persistence.dao.KeyValueDao;
+import org.opendaylight.persistence.jdbc.JdbcContext;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+
+/**
+ * Plain JDBC {@link KeyValueDao}.
+ * <p>
+ * This class must remain state-less so it is thread safe.
+ * <p>
+ * The DAO maps the identifiable object to a single table: An id column plus the columns returned by
+ * {@link #getColumnValues(Identifiable)}, in the order given to the constructor. All the SQL
+ * statements are built once at construction, so the same SQL text reaches the database on every
+ * call and prepared statements are effectively cached (See {@link JdbcContext}). Rows are
+ * converted to identifiable objects by {@link #map(ResultSet)}; the id column is always the first
+ * column of the rows.
+ * <p>
+ * Ids are either assigned by the application, or generated by the database (An identity or
+ * auto-increment column) when the identifiable object to add has no id. Unlike the JPA
+ * implementation there is no persistence context: {@link #update(Identifiable, JdbcContext)}
+ * writes all the columns and objects are read from the database on every
+ * {@link #get(Serializable, JdbcContext)}.
+ * <p>
+ * No object has a {@code null} id: Getting, verifying the existence and deleting a {@code null} id
+ * are no-ops.
+ * 
+ * @param <I> type of the identifiable object's id. This type should be immutable and it is critical
+ *            it implements {@link Object#equals(Object)} and {@link Object#hashCode()} correctly.
+ * @param <T> type of the identifiable object (object to store in the data store)
+ */
+public abstract class JdbcKeyValueDao<I extends Serializable, T extends Identifiable<I>> implements
+        KeyValueDao<I, T, JdbcContext>, BatchDao<I, T, JdbcContext>, RowMapper<T> {
+
+    private final String table;
+    private final String idColumn;
+    private final List<String> columns;
+    private final String selectColumns;
+
+    private final String insertSql;
+    private final String insertGeneratedIdSql;
+    private final String updateSql;
+    private final String deleteSql;
+    private final String selectSql;
+    private final String existSql;
+    private final String selectAllSql;
+    private final String sizeSql;
+    private final String clearSql;
+
+    // Mapper is state-less, so this class remains thread safe.
+    private final RowMapper<I> generatedIdMapper = new RowMapper<I>() {
+        @Override
+        public I map(ResultSet resultSet) throws SQLException {
+            return getGeneratedId(resultSet);
+        }
+    };
+
+    /**
+     * Creates a DAO.
+     * 
+     * @param table table name
+     * @param idColumn id column name
+     * @param columns names of the columns other than the id
+     */
+    protected JdbcKeyValueDao(@Nonnull String table, @Nonnull String idColumn, @Nonnull String... columns) {
+        this.table = Preconditions.checkNotNull(table, "table");
+        this.idColumn = Preconditions.checkNotNull(idColumn, "idColumn");
+        Preconditions.checkArgument(columns.length > 0, "at least one column is required");
+        this.columns = Collections.unmodifiableList(new ArrayList<String>(Arrays.asList(columns)));
+
+        Joiner commaJoiner = Joiner.on(", ");
+        String placeholders = commaJoiner.join(Collections.nCopies(columns.length, "?"));
+
+        this.selectColumns = idColumn + ", " + commaJoiner.join(columns);
+        this.insertSql = "INSERT INTO " + table + " (" + this.selectColumns + ") VALUES (?, " + placeholders + ")";
+        this.insertGeneratedIdSql = "INSERT INTO " + table + " (" + commaJoiner.join(columns) + ") VALUES ("
+                + placeholders + ")";
+        this.updateSql = "UPDATE " + table + " SET " + Joiner.on(" = ?, ").join(columns) + " = ? WHERE "
+                + idColumn + " = ?";
+        this.deleteSql = "DELETE FROM " + table + " WHERE " + idColumn + " = ?";
+        this.selectSql = "SELECT " + this.selectColumns + " FROM " + table + " WHERE " + idColumn + " = ?";
+        this.existSql = "SELECT COUNT(*) FROM " + table + " WHERE " + idColumn + " = ?";
+        this.selectAllSql = "SELECT " + this.selectColumns + " FROM " + table;
+        this.sizeSql = "SELECT COUNT(*) FROM " + table;
+        this.clearSql = "DELETE FROM " + table;
+    }
+
+    @Override
+    public T add(T identifiable, JdbcContext context) throws PersistenceException {
+        Preconditions.checkArgument(identifiable != null, "identifiable cannot be null");
+
+        I id = identifiable.getIdentifier();
+        if (id != null) {
+            JdbcUtil.update(this.insertSql, getInsertParameters(identifiable), context);
+            return identifiable;
+        }
+
+        I generatedId = JdbcUtil.insert(this.insertGeneratedIdSql, Arrays.asList(getColumnValues(identifiable)),
+                this.generatedIdMapper, context);
+        return get(generatedId, context);
+    }
+
+    /**
+     * Adds the given objects using JDBC batching: All the inserts are sent to the database in a
+     * single round trip. All the objects must have an id (Ids generated by the database are not
+     * supported in batches).
+     * 
+     * @param identifiables objects to store
+     * @param context data store context
+     * @throws PersistenceException if persistence errors occur while executing the operation
+     */
+    @Override
+    public void addAll(@Nonnull Collection<T> identifiables, @Nonnull JdbcContext context)
+            throws PersistenceException {
+        Preconditions.checkArgument(identifiables != null, "identifiables cannot be null");
+
+        List<List<Object>> batch = new ArrayList<List<Object>>(identifiables.size());
+        for (T identifiable : identifiables) {
+            Preconditions.checkArgument(identifiable != null, "identifiable cannot be null");
+            Preconditions.checkArgument(identifiable.getIdentifier() != null, "id is required for batches");
+            batch.add(getInsertParameters(identifiable));
+        }
+        JdbcUtil.batchUpdate(this.insertSql, batch, context);
+    }
+
+    @Override
+    public T update(T identifiable, JdbcContext context) throws PersistenceException {
+        Preconditions.checkArgument(identifiable != null, "identifiable cannot be null");
+        Preconditions.checkArgument(identifiable.getIdentifier() != null, "id cannot be null");
+
+        Object[] values = getColumnValues(identifiable);
+        List<Object> parameters = new ArrayList<Object>(values.length + 1);
+        parameters.addAll(Arrays.asList(values));
+        parameters.add(getColumnId(identifiable.getIdentifier()));
+
+        if (JdbcUtil.update(this.updateSql, parameters, context) == 0) {
+            throw new PersistenceException("object with id " + identifiable.getIdentifier() + " not found");
+        }
+        return identifiable;
+    }
+
+    @Override
+    public void delete(I id, JdbcContext context) throws PersistenceException {
+        if (id != null) {
+            JdbcUtil.update(this.deleteSql, Collections.singletonList(getColumnId(id)), context);
+        }
+    }
+
+    @Override
+    public T get(I id, JdbcContext context) throws PersistenceException {
+        if (id == null) {
+            return null;
+        }
+        return JdbcUtil.queryForObject(this.selectSql, Collections.singletonList(getColumnId(id)), this, context);
+    }
+
+    @Override
+    public boolean exist(I id, JdbcContext context) throws PersistenceException {
+        if (id == null) {
+            return false;
+        }
+        return JdbcUtil.queryForLong(this.existSql, Collections.singletonList(getColumnId(id)), context) > 0;
+    }
+
+    @Override
+    public Collection<T> getAll(JdbcContext context) throws PersistenceException {
+        return JdbcUtil.query(this.selectAllSql, null, this, context);
+    }
+
+    @Override
+    public long size(JdbcContext context) throws PersistenceException {
+        return JdbcUtil.queryForLong(this.sizeSql, null, context);
+    }
+
+    @Override
+    public void clear(JdbcContext context) throws PersistenceException {
+        JdbcUtil.update(this.clearSql, null, context);
+    }
+
+    /**
+     * Gets the table name.
+     * 
+     * @return the table name
+     */
+    protected String getTable() {
+        return this.table;
+    }
+
+    /**
+     * Gets the id column name.
+     * 
+     * @return the id column name
+     */
+    protected String getIdColumn() {
+        return this.idColumn;
+    }
+
+    /**
+     * Gets the names of the columns other than the id.
+     * 
+     * @return the column names
+     */
+    protected List<String> getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Gets the select list: The id column followed by the other columns.
+     * 
+     * @return the columns to select, separated by commas
+     */
+    protected String getSelectColumns() {
+        return this.selectColumns;
+    }
+
+    /**
+     * Gets the value of the id column.
+     * 
+     * @param id the corresponding identifiable object's id
+     * @return the value of the id column
+     */
+    protected Object getColumnId(I id) {
+        return id;
+    }
+
+    /**
+     * Reads the id generated by the database. By default the generated key is assumed to be of
+     * the id type.
+     * 
+     * @param generatedKeys generated keys positioned at the row to read
+     * @return the generated id
+     * @throws SQLException if errors occur reading the row
+     */
+    @SuppressWarnings("unchecked")
+    protected I getGeneratedId(ResultSet generatedKeys) throws SQLException {
+        return (I) generatedKeys.getObject(1);
+    }
+
+    private List<Object> getInsertParameters(T identifiable) {
+        Object[] values = getColumnValues(identifiable);
+        List<Object> parameters = new ArrayList<Object>(values.length + 1);
+        parameters.add(getColumnId(identifiable.getIdentifier()));
+        parameters.addAll(Arrays.asList(values));
+        return parameters;
+    }
+
+    /**
+     * Gets the values of the columns other than the id.
+     * 
+     * @param identifiable object to get the data from
+     * @return the column values in the order the columns were given to the constructor
+     */
+    protected abstract Object[] getColumnValues(T identifiable);
+}
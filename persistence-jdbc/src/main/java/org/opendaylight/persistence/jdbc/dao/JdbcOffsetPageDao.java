@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jdbc.dao;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.dao.OffsetPageDao;
+import org.opendaylight.persistence.jdbc.JdbcContext;
+import org.opendaylight.persistence.jdbc.sql.SqlPredicate;
+import org.opendaylight.persistence.util.common.type.Sort;
+import org.opendaylight.persistence.util.common.type.page.OffsetPage;
+import org.opendaylight.persistence.util.common.type.page.OffsetPageRequest;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Plain JDBC {@link OffsetPageDao}.
+ * <p>
+ * This class must remain state-less so it is thread safe.
+ * <p>
+ * Pages are selected with a {@code LIMIT ? OFFSET ?} clause (Supported by H2, PostgreSQL, MySQL and
+ * SQLite); subclasses may override {@link #appendPage(StringBuilder)} for other databases.
+ * 
+ * @param <I> type of the identifiable object's id. This type should be immutable and it is critical
+ *            it implements {@link Object#equals(Object)} and {@link Object#hashCode()} correctly.
+ * @param <T> type of the identifiable object (object to store in the data store)
+ * @param <F> type of the associated filter. A DAO is responsible for translating this filter to
+ *            SQL predicates.
+ * @param <S> type of the associated sort key. A DAO is responsible for translating the sort key to
+ *            a column.
+ */
+public abstract class JdbcOffsetPageDao<I extends Serializable, T extends Identifiable<I>, F, S> extends
+        JdbcDao<I, T, F, S> implements OffsetPageDao<I, T, F, S, JdbcContext> {
+
+    /**
+     * Creates a DAO.
+     * 
+     * @param table table name
+     * @param idColumn id column name
+     * @param columns names of the columns other than the id
+     */
+    protected JdbcOffsetPageDao(@Nonnull String table, @Nonnull String idColumn, @Nonnull String... columns) {
+        super(table, idColumn, columns);
+    }
+
+    @Override
+    public OffsetPage<T> find(F filter, List<Sort<S>> sortSpecification, OffsetPageRequest pageRequest,
+            JdbcContext context) throws PersistenceException {
+        Preconditions.checkNotNull(pageRequest, "pageRequest");
+
+        // A contradiction makes count return 0 without accessing the database, so no page is queried either.
+        long totalRecords = count(filter, context);
+        if (totalRecords == 0) {
+            return new OffsetPage<T>(pageRequest, new ArrayList<T>(), totalRecords);
+        }
+
+        SqlPredicate predicate = getPredicate(filter);
+
+        StringBuilder sql = new StringBuilder(128);
+        sql.append("SELECT ").append(getSelectColumns()).append(" FROM ").append(getTable());
+        appendWhere(predicate, sql);
+        appendOrderBy(sortSpecification, sql);
+        appendPage(sql);
+
+        List<Object> parameters = new ArrayList<Object>();
+        List<Object> predicateParameters = getParameters(predicate);
+        if (predicateParameters != null) {
+            parameters.addAll(predicateParameters);
+        }
+        parameters.add(Integer.valueOf(pageRequest.getSize()));
+        parameters.add(Long.valueOf(pageRequest.getOffset()));
+
+        List<T> data = JdbcUtil.query(sql.toString(), parameters, this, context);
+        return new OffsetPage<T>(pageRequest, data, totalRecords);
+    }
+
+    /**
+     * Appends the clause that selects a page. The clause must take two parameters: The page size
+     * followed by the offset.
+     * 
+     * @param sql SQL to append the clause to
+     */
+    protected void appendPage(StringBuilder sql) {
+        sql.append(" LIMIT ? OFFSET ?");
+    }
+}
@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jdbc.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.opendaylight.persistence.IntegrityConstraintViolationException;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.jdbc.JdbcContext;
+
+/**
+ * JDBC Utility methods.
+ * <p>
+ * Parameters are bound with {@link PreparedStatement#setObject(int, Object)} after converting the
+ * values the drivers do not handle uniformly: {@link Date} is bound as {@link Timestamp} and
+ * {@link Enum} as its name.
+ * 
+ */
+public final class JdbcUtil {
+
+    // SQL state class for integrity constraint violations (SQL:2003)
+    private static final String INTEGRITY_CONSTRAINT_VIOLATION = "23";
+
+    private JdbcUtil() {
+
+    }
+
+    /**
+     * Executes a query.
+     * 
+     * @param sql SQL query
+     * @param parameters values of the placeholders
+     * @param mapper row mapper
+     * @param context data store context
+     * @return the mapped rows
+     * @throws PersistenceException if persistence errors occur while executing the operation
+     */
+    public static <T> List<T> query(String sql, List<?> parameters, RowMapper<T> mapper, JdbcContext context)
+            throws PersistenceException {
+        try {
+            PreparedStatement statement = context.prepareStatement(sql);
+            setParameters(statement, parameters);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<T> result = new ArrayList<T>();
+                while (resultSet.next()) {
+                    result.add(mapper.map(resultSet));
+                }
+                return result;
+            }
+        } catch (SQLException e) {
+            throw translate(e, sql);
+        }
+    }
+
+    /**
+     * Executes a query expected to return at most one row.
+     * 
+     * @param sql SQL query
+     * @param parameters values of the placeholders
+     * @param mapper row mapper
+     * @param context data store context
+     * @return the mapped row if found, {@code null} otherwise
+     * @throws PersistenceException if persistence errors occur while executing the operation
+     */
+    public static <T> T queryForObject(String sql, List<?> parameters, RowMapper<T> mapper, JdbcContext context)
+            throws PersistenceException {
+        try {
+            PreparedStatement statement = context.prepareStatement(sql);
+            setParameters(statement, parameters);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? mapper.map(resultSet) : null;
+            }
+        } catch (SQLException e) {
+            throw translate(e, sql);
+        }
+    }
+
+    /**
+     * Executes a query that returns a single numeric value ({@code SELECT COUNT(*)} for example).
+     * 
+     * @param sql SQL query
+     * @param parameters values of the placeholders
+     * @param context data store context
+     * @return the value of the first column of the first row, {@code 0} if no row is returned
+     * @throws PersistenceException if persistence errors occur while executing the operation
+     */
+    public static long queryForLong(String sql, List<?> parameters, JdbcContext context)
+            throws PersistenceException {
+        try {
+            PreparedStatement statement = context.prepareStatement(sql);
+            setParameters(statement, parameters);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw translate(e, sql);
+        }
+    }
+
+    /**
+     * Executes an insert, update or delete statement.
+     * 
+     * @param sql SQL statement
+     * @param parameters values of the placeholders
+     * @param context data store context
+     * @return the number of affected rows
+     * @throws PersistenceException if persistence errors occur while executing the operation
+     */
+    public static int update(String sql, List<?> parameters, JdbcContext context) throws PersistenceException {
+        try {
+            PreparedStatement statement = context.prepareStatement(sql);
+            setParameters(statement, parameters);
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            throw translate(e, sql);
+        }
+    }
+
+    /**
+     * Executes an insert statement and gets the key generated by the database.
+     * 
+     * @param sql SQL insert statement
+     * @param parameters values of the placeholders
+     * @param keyMapper mapper of the generated keys row
+     * @param context data store context
+     * @return the generated key
+     * @throws PersistenceException if persistence errors occur while executing the operation or if
+     *             no key is generated
+     */
+    public static <K> K insert(String sql, List<?> parameters, RowMapper<K> keyMapper, JdbcContext context)
+            throws PersistenceException {
+        try {
+            PreparedStatement statement = context.prepareStatementReturningKeys(sql);
+            setParameters(statement, parameters);
+            statement.executeUpdate();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new PersistenceException("No key generated by: " + sql);
+                }
+                return keyMapper.map(keys);
+            }
+        } catch (SQLException e) {
+            throw translate(e, sql);
+        }
+    }
+
+    /**
+     * Executes a statement once per set of parameters using JDBC batching: All the executions are
+     * sent to the database in a single round trip.
+     * 
+     * @param sql SQL statement
+     * @param batch values of the placeholders for each execution
+     * @param context data store context
+     * @return the number of affected rows for each execution, as reported by the driver
+     * @throws PersistenceException if persistence errors occur while executing the operation
+     */
+    public static int[] batchUpdate(String sql, Collection<? extends List<?>> batch, JdbcContext context)
+            throws PersistenceException {
+        if (batch.isEmpty()) {
+            return new int[0];
+        }
+
+        try {
+            PreparedStatement statement = context.prepareStatement(sql);
+            for (List<?> parameters : batch) {
+                setParameters(statement, parameters);
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        } catch (SQLException e) {
+            throw translate(e, sql);
+        }
+    }
+
+    /**
+     * Translates a JDBC exception: Integrity constraint violations are translated to
+     * {@link IntegrityConstraintViolationException}.
+     * 
+     * @param exception exception to translate
+     * @param sql statement that caused the exception
+     * @return the persistence exception
+     */
+    public static PersistenceException translate(SQLException exception, @Nullable String sql) {
+        String message = sql != null ? "Failure executing: " + sql : exception.getMessage();
+
+        // The SQL state may be kept by a chained exception in batch updates
+        for (SQLException e = exception; e != null; e = e.getNextException()) {
+            String sqlState = e.getSQLState();
+            if (sqlState != null && sqlState.startsWith(INTEGRITY_CONSTRAINT_VIOLATION)) {
+                return new IntegrityConstraintViolationException(message, exception);
+            }
+        }
+        return new PersistenceException(message, exception);
+    }
+
+    private static void setParameters(PreparedStatement statement, List<?> parameters) throws SQLException {
+        if (parameters == null) {
+            return;
+        }
+
+        int index = 1;
+        for (Object parameter : parameters) {
+            if (parameter == null) {
+                statement.setNull(index, Types.NULL);
+            } else {
+                statement.setObject(index, toSqlValue(parameter));
+            }
+            index++;
+        }
+    }
+
+    private static Object toSqlValue(Object value) {
+        if (value instanceof Date && !(value instanceof java.sql.Date) && !(value instanceof java.sql.Time)
+                && !(value instanceof Timestamp)) {
+            return new Timestamp(((Date) value).getTime());
+        }
+
+        if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jdbc.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps a result set row to an object.
+ * 
+ * @param <T> type of the object
+ */
+public interface RowMapper<T> {
+
+    /**
+     * Maps the current row. Implementations must not move the cursor.
+     * 
+     * @param resultSet result set positioned at the row to map
+     * @return the object
+     * @throws SQLException if errors occur reading the row
+     */
+    T map(ResultSet resultSet) throws SQLException;
+}
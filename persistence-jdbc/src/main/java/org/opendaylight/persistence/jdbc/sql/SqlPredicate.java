@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jdbc.sql;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * SQL predicate: A fragment of a {@code WHERE} clause with {@code ?} placeholders and the values of
+ * the placeholders, in order.
+ * <p>
+ * Values are always bound as parameters, never concatenated to the SQL, so predicates are safe
+ * from SQL injection and predicates with the same shape produce the same SQL (Which is what makes
+ * prepared statement caching effective).
+ * <p>
+ * This class is immutable as long as the parameters are.
+ * 
+ */
+public final class SqlPredicate {
+
+    private final String sql;
+    private final List<Object> parameters;
+
+    private SqlPredicate(String sql, List<Object> parameters) {
+        this.sql = sql;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Creates a predicate.
+     * 
+     * @param sql SQL fragment with one {@code ?} placeholder per parameter
+     * @param parameters values of the placeholders
+     * @return a predicate
+     */
+    public static SqlPredicate of(@Nonnull String sql, Object... parameters) {
+        Preconditions.checkNotNull(sql, "sql");
+        return new SqlPredicate(sql, Collections.unmodifiableList(new ArrayList<Object>(Arrays
+                .asList(parameters))));
+    }
+
+    static SqlPredicate of(@Nonnull String sql, @Nonnull List<Object> parameters) {
+        return new SqlPredicate(sql, Collections.unmodifiableList(parameters));
+    }
+
+    /**
+     * Gets the SQL fragment.
+     * 
+     * @return the SQL fragment
+     */
+    public String getSql() {
+        return this.sql;
+    }
+
+    /**
+     * Gets the values of the placeholders.
+     * 
+     * @return the parameters
+     */
+    public List<Object> getParameters() {
+        return this.parameters;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("sql", this.sql).add("parameters", this.parameters).toString();
+    }
+}
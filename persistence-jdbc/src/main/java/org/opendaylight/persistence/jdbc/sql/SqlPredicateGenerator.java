@@ -0,0 +1,380 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jdbc.sql;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.util.common.filter.ComparabilityCondition;
+import org.opendaylight.persistence.util.common.filter.EqualityCondition;
+import org.opendaylight.persistence.util.common.filter.IntervalCondition;
+import org.opendaylight.persistence.util.common.filter.SetCondition;
+import org.opendaylight.persistence.util.common.filter.StringCondition;
+import org.opendaylight.persistence.util.common.filter.TimePeriodCondition;
+import org.opendaylight.persistence.util.common.type.Interval;
+import org.opendaylight.persistence.util.common.type.IntervalSet;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * SQL predicate generator: Translates the filter conditions into {@link SqlPredicate} predicates
+ * with the same semantics than the JPA implementation.
+ * <p>
+ * Logical operators fold tautologies and contradictions so they do not end up in the query. A
+ * query whose predicate is a contradiction can be answered without accessing the database.
+ * <p>
+ * Column names are included in the SQL as is, so they must come from the DAO and never from user
+ * input.
+ * <p>
+ * This class is state-less, thus thread safe.
+ * 
+ */
+@SuppressWarnings("static-method")
+public final class SqlPredicateGenerator {
+
+    private static final SqlPredicateGenerator INSTANCE = new SqlPredicateGenerator();
+
+    private static final SqlPredicate TAUTOLOGY = SqlPredicate.of("1 = 1");
+    private static final SqlPredicate CONTRADICTION = SqlPredicate.of("1 = 0");
+
+    private static final char LIKE_ESCAPE = '!';
+    private static final String LIKE = " LIKE ? ESCAPE '" + LIKE_ESCAPE + "'";
+    private static final String LIKE_WILDCARD = "%";
+
+    private SqlPredicateGenerator() {
+
+    }
+
+    /**
+     * Gets the generator.
+     * 
+     * @return the generator
+     */
+    public static SqlPredicateGenerator getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Generates a predicate that is true.
+     * 
+     * @return a predicate
+     */
+    public SqlPredicate getTautology() {
+        return TAUTOLOGY;
+    }
+
+    /**
+     * Generates a predicate that is false.
+     * 
+     * @return a predicate
+     */
+    public SqlPredicate getContradiction() {
+        return CONTRADICTION;
+    }
+
+    /**
+     * Verifies whether a predicate is a tautology.
+     * 
+     * @param predicate predicate to verify
+     * @return {@code true} if {@code predicate} is known to be true
+     */
+    public boolean isTautology(SqlPredicate predicate) {
+        return predicate == null || predicate == TAUTOLOGY;
+    }
+
+    /**
+     * Verifies whether a predicate is a contradiction.
+     * 
+     * @param predicate predicate to verify
+     * @return {@code true} if {@code predicate} is known to be false
+     */
+    public boolean isContradiction(SqlPredicate predicate) {
+        return predicate == CONTRADICTION;
+    }
+
+    /**
+     * Operates the given operands with the AND operator. {@code null} operands are ignored.
+     * 
+     * @param operands operands
+     * @return a predicate
+     */
+    public SqlPredicate and(SqlPredicate... operands) {
+        List<SqlPredicate> conjuncts = new ArrayList<SqlPredicate>(operands.length);
+        for (SqlPredicate operand : operands) {
+            if (isContradiction(operand)) {
+                return CONTRADICTION;
+            }
+            if (!isTautology(operand)) {
+                conjuncts.add(operand);
+            }
+        }
+
+        if (conjuncts.isEmpty()) {
+            return TAUTOLOGY;
+        }
+        return join(" AND ", conjuncts);
+    }
+
+    /**
+     * Operates the given operands with the OR operator. {@code null} operands are considered
+     * tautologies.
+     * 
+     * @param operands operands
+     * @return a predicate
+     */
+    public SqlPredicate or(SqlPredicate... operands) {
+        List<SqlPredicate> disjuncts = new ArrayList<SqlPredicate>(operands.length);
+        for (SqlPredicate operand : operands) {
+            if (isTautology(operand)) {
+                return TAUTOLOGY;
+            }
+            if (!isContradiction(operand)) {
+                disjuncts.add(operand);
+            }
+        }
+
+        if (disjuncts.isEmpty()) {
+            return CONTRADICTION;
+        }
+        return join(" OR ", disjuncts);
+    }
+
+    /**
+     * Operates the given operand with the NOT operator.
+     * 
+     * @param operand operand
+     * @return a predicate
+     */
+    public SqlPredicate not(SqlPredicate operand) {
+        if (isTautology(operand)) {
+            return CONTRADICTION;
+        }
+
+        if (isContradiction(operand)) {
+            return TAUTOLOGY;
+        }
+
+        return SqlPredicate.of("NOT (" + operand.getSql() + ")", new ArrayList<Object>(operand.getParameters()));
+    }
+
+    /**
+     * Generates a predicate to satisfy the given equality condition.
+     * 
+     * @param condition condition to apply, {@code null} for a tautology
+     * @param column column to apply the condition to
+     * @return a predicate
+     */
+    public <D> SqlPredicate getPredicate(EqualityCondition<D> condition, @Nonnull String column) {
+        Preconditions.checkNotNull(column, "column");
+        if (condition == null) {
+            return TAUTOLOGY;
+        }
+
+        D value = condition.getValue();
+        switch (condition.getMode()) {
+            case EQUAL:
+                return value != null ? SqlPredicate.of(column + " = ?", value) : SqlPredicate.of(column + " IS NULL");
+            case UNEQUAL:
+                return value != null ? SqlPredicate.of(column + " <> ?", value) : SqlPredicate.of(column
+                        + " IS NOT NULL");
+            default:
+                throw new IllegalArgumentException("Unsupported mode: " + condition.getMode());
+        }
+    }
+
+    /**
+     * Generates a predicate to satisfy the given comparability condition.
+     * 
+     * @param condition condition to apply, {@code null} for a tautology
+     * @param column column to apply the condition to
+     * @return a predicate
+     */
+    public <D extends Comparable<D>> SqlPredicate getPredicate(ComparabilityCondition<D> condition,
+            @Nonnull String column) {
+        Preconditions.checkNotNull(column, "column");
+        if (condition == null) {
+            return TAUTOLOGY;
+        }
+
+        D value = condition.getValue();
+        switch (condition.getMode()) {
+            case LESS_THAN:
+                return SqlPredicate.of(column + " < ?", value);
+            case LESS_THAN_OR_EQUAL_TO:
+                return SqlPredicate.of(column + " <= ?", value);
+            case EQUAL:
+                return SqlPredicate.of(column + " = ?", value);
+            case GREATER_THAN_OR_EQUAL_TO:
+                return SqlPredicate.of(column + " >= ?", value);
+            case GREATER_THAN:
+                return SqlPredicate.of(column + " > ?", value);
+            default:
+                throw new IllegalArgumentException("Unsupported mode: " + condition.getMode());
+        }
+    }
+
+    /**
+     * Generates a predicate to satisfy the given interval condition.
+     * 
+     * @param condition condition to apply, {@code null} for a tautology
+     * @param column column to apply the condition to
+     * @return a predicate
+     */
+    public <D extends Comparable<D>> SqlPredicate getPredicate(IntervalCondition<D> condition,
+            @Nonnull String column) {
+        Preconditions.checkNotNull(column, "column");
+        if (condition == null) {
+            return TAUTOLOGY;
+        }
+
+        Interval<D> interval = condition.getValue();
+        boolean in = condition.getMode() == IntervalCondition.Mode.IN;
+
+        if (interval.getType() == Interval.Type.UNBOUNDED) {
+            return in ? TAUTOLOGY : CONTRADICTION;
+        }
+
+        // Interval.isEmpty() considers the closed interval [a, a] empty although it contains a
+        if (IntervalSet.of(interval).isEmpty()) {
+            return in ? CONTRADICTION : TAUTOLOGY;
+        }
+
+        SqlPredicate left = null;
+        if (interval.getLeftEndpoint() != null) {
+            left = SqlPredicate.of(column + (interval.isLeftClosed() ? " >= ?" : " > ?"),
+                    interval.getLeftEndpoint());
+        }
+
+        SqlPredicate right = null;
+        if (interval.getRightEndpoint() != null) {
+            right = SqlPredicate.of(column + (interval.isRightClosed() ? " <= ?" : " < ?"),
+                    interval.getRightEndpoint());
+        }
+
+        SqlPredicate predicate = and(left, right);
+        return in ? predicate : not(predicate);
+    }
+
+    /**
+     * Generates a predicate to satisfy the given time period condition.
+     * 
+     * @param condition condition to apply, {@code null} for a tautology
+     * @param column column to apply the condition to
+     * @return a predicate
+     */
+    public SqlPredicate getPredicate(TimePeriodCondition condition, @Nonnull String column) {
+        IntervalCondition<Date> intervalCondition = null;
+        if (condition != null) {
+            Interval<Date> interval = Interval.closed(condition.getValue().getStartTime(), condition.getValue()
+                    .getEndTime());
+            if (condition.getMode() == TimePeriodCondition.Mode.IN) {
+                intervalCondition = IntervalCondition.in(interval);
+            } else {
+                intervalCondition = IntervalCondition.notIn(interval);
+            }
+        }
+        return getPredicate(intervalCondition, column);
+    }
+
+    /**
+     * Generates a predicate to satisfy the given set condition.
+     * 
+     * @param condition condition to apply, {@code null} for a tautology
+     * @param column column to apply the condition to
+     * @return a predicate
+     */
+    public <D> SqlPredicate getPredicate(SetCondition<D> condition, @Nonnull String column) {
+        Preconditions.checkNotNull(column, "column");
+        if (condition == null) {
+            return TAUTOLOGY;
+        }
+
+        boolean in = condition.getMode() == SetCondition.Mode.IN;
+        if (condition.getValues().isEmpty()) {
+            return in ? CONTRADICTION : TAUTOLOGY;
+        }
+
+        StringBuilder sql = new StringBuilder(column.length() + 8 + condition.getValues().size() * 3);
+        sql.append(column).append(" IN (");
+        List<Object> parameters = new ArrayList<Object>(condition.getValues().size());
+        for (D value : condition.getValues()) {
+            if (!parameters.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append('?');
+            parameters.add(value);
+        }
+        sql.append(')');
+
+        SqlPredicate predicate = SqlPredicate.of(sql.toString(), parameters);
+        return in ? predicate : not(predicate);
+    }
+
+    /**
+     * Generates a predicate to satisfy the given string condition. Wildcard characters in the
+     * condition value are matched literally.
+     * 
+     * @param condition condition to apply, {@code null} for a tautology
+     * @param column column to apply the condition to
+     * @return a predicate
+     */
+    public SqlPredicate getPredicate(StringCondition condition, @Nonnull String column) {
+        Preconditions.checkNotNull(column, "column");
+        if (condition == null) {
+            return TAUTOLOGY;
+        }
+
+        String value = condition.getValue();
+        switch (condition.getMode()) {
+            case EQUAL:
+                return getPredicate(EqualityCondition.equalTo(value), column);
+            case UNEQUAL:
+                return getPredicate(EqualityCondition.unequalTo(value), column);
+            case STARTS_WITH:
+                return SqlPredicate.of(column + LIKE, escapeLike(value) + LIKE_WILDCARD);
+            case CONTAINS:
+                return SqlPredicate.of(column + LIKE, LIKE_WILDCARD + escapeLike(value) + LIKE_WILDCARD);
+            case ENDS_WITH:
+                return SqlPredicate.of(column + LIKE, LIKE_WILDCARD + escapeLike(value));
+            default:
+                throw new IllegalArgumentException("Unsupported mode: " + condition.getMode());
+        }
+    }
+
+    private static SqlPredicate join(String operator, List<SqlPredicate> operands) {
+        if (operands.size() == 1) {
+            return operands.get(0);
+        }
+
+        StringBuilder sql = new StringBuilder(64);
+        List<Object> parameters = new ArrayList<Object>();
+        for (SqlPredicate operand : operands) {
+            if (sql.length() > 0) {
+                sql.append(operator);
+            }
+            sql.append('(').append(operand.getSql()).append(')');
+            parameters.addAll(operand.getParameters());
+        }
+        return SqlPredicate.of(sql.toString(), parameters);
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
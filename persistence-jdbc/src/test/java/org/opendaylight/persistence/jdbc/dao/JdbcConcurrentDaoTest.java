@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jdbc.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.BeforeClass;
+import org.opendaylight.persistence.jdbc.JdbcContext;
+import org.opendaylight.persistence.jdbc.JdbcDataStore;
+import org.opendaylight.persistence.jdbc.dao.JdbcOffsetPageDaoTest.Item;
+import org.opendaylight.persistence.jdbc.dao.JdbcOffsetPageDaoTest.ItemDao;
+import org.opendaylight.persistence.jdbc.dao.JdbcOffsetPageDaoTest.ItemFilter;
+import org.opendaylight.persistence.jdbc.dao.JdbcOffsetPageDaoTest.ItemSortKey;
+import org.opendaylight.persistence.util.common.filter.ComparabilityCondition;
+
+import com.opendaylight.persistence.dao.AbstractConcurrentDaoTest;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class JdbcConcurrentDaoTest extends
+        AbstractConcurrentDaoTest<Long, Item, ItemFilter, ItemSortKey, JdbcContext, ItemDao> {
+
+    private static final JdbcDataSource DATA_SOURCE = new JdbcDataSource();
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+    private static final Random RANDOM = new Random();
+
+    static {
+        DATA_SOURCE.setURL("jdbc:h2:mem:JdbcConcurrentDaoTest;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+    }
+
+    public JdbcConcurrentDaoTest() {
+        super(new JdbcDataStore(DATA_SOURCE));
+    }
+
+    @BeforeClass
+    public static void beforeClass() throws SQLException {
+        try (Connection connection = DATA_SOURCE.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS item (id BIGINT PRIMARY KEY, name VARCHAR(64) NOT NULL, "
+                    + "priority INT NOT NULL, category VARCHAR(16))");
+        }
+    }
+
+    @Override
+    protected int getThreadCount() {
+        return 4;
+    }
+
+    @Override
+    protected long getDurationMillis() {
+        return 1000;
+    }
+
+    @Override
+    protected ItemDao createDaoInstance() {
+        return new ItemDao();
+    }
+
+    @Override
+    protected boolean isPrimaryKeyIntegrityConstraintViolationTestSuitable() {
+        return true;
+    }
+
+    @Override
+    protected boolean isNotFoundExceptionOnUpdateSuitable() {
+        return true;
+    }
+
+    @Override
+    protected boolean isVersioned() {
+        return false;
+    }
+
+    @Override
+    protected Item createIdentifiable(Long id) {
+        return new Item(id, "item-" + id, RANDOM.nextInt(100), "category");
+    }
+
+    @Override
+    protected List<Item> createIdentifiables(int count) {
+        List<Item> identifiables = new ArrayList<Item>(count);
+        for (int i = 0; i < count; i++) {
+            identifiables.add(createIdentifiable(Long.valueOf(ID_SEQUENCE.incrementAndGet())));
+        }
+        return identifiables;
+    }
+
+    @Override
+    protected void modify(Item identifiable) {
+        identifiable.setName("item-" + identifiable.getIdentifier() + "-" + RANDOM.nextInt(1000));
+        identifiable.setPriority(RANDOM.nextInt(100));
+    }
+
+    @Override
+    protected ItemFilter getFindFilter() {
+        ItemFilter filter = new ItemFilter();
+        filter.setPriorityCondition(ComparabilityCondition.lessThan(Integer.valueOf(RANDOM.nextInt(100))));
+        return filter;
+    }
+}
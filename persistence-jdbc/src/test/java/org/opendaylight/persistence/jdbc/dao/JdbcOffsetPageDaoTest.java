@@ -0,0 +1,350 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jdbc.dao;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.jdbc.JdbcContext;
+import org.opendaylight.persistence.jdbc.JdbcDataStore;
+import org.opendaylight.persistence.jdbc.sql.SqlPredicate;
+import org.opendaylight.persistence.jdbc.sql.SqlPredicateGenerator;
+import org.opendaylight.persistence.util.common.filter.ComparabilityCondition;
+import org.opendaylight.persistence.util.common.filter.IntervalCondition;
+import org.opendaylight.persistence.util.common.filter.SetCondition;
+import org.opendaylight.persistence.util.common.filter.StringCondition;
+import org.opendaylight.persistence.util.common.type.Interval;
+import org.opendaylight.persistence.util.common.type.Sort;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+import com.opendaylight.persistence.dao.AbstractOffsetPageDaoTest;
+import com.opendaylight.persistence.dao.SearchCase;
+import com.opendaylight.persistence.jdbc.CountingDataSource;
+import com.opendaylight.persistence.jdbc.StatementCounter;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class JdbcOffsetPageDaoTest extends
+        AbstractOffsetPageDaoTest<Long, JdbcOffsetPageDaoTest.Item, JdbcOffsetPageDaoTest.ItemFilter, JdbcOffsetPageDaoTest.ItemSortKey, JdbcContext, JdbcOffsetPageDaoTest.ItemDao> {
+
+    private static final JdbcDataSource DATA_SOURCE = new JdbcDataSource();
+    private static final StatementCounter STATEMENT_COUNTER = new StatementCounter();
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+    private static final Random RANDOM = new Random();
+
+    static {
+        DATA_SOURCE.setURL("jdbc:h2:mem:JdbcOffsetPageDaoTest;DB_CLOSE_DELAY=-1");
+    }
+
+    public JdbcOffsetPageDaoTest() {
+        super(new JdbcDataStore(new CountingDataSource(DATA_SOURCE, STATEMENT_COUNTER)));
+    }
+
+    @BeforeClass
+    public static void beforeClass() throws SQLException {
+        try (Connection connection = DATA_SOURCE.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS item (id BIGINT PRIMARY KEY, name VARCHAR(64) NOT NULL, "
+                    + "priority INT NOT NULL, category VARCHAR(16))");
+        }
+    }
+
+    @Test
+    public void testFindStatementCount() throws PersistenceException {
+        store(createIdentifiables(5));
+
+        List<Item> items = assertStatementCount(1, new DaoQuery<List<Item>>() {
+            @Override
+            protected List<Item> execute(ItemDao dao, JdbcContext context) throws PersistenceException {
+                return dao.find(new ItemFilter(), null, context);
+            }
+        });
+
+        Assert.assertEquals(5, items.size());
+    }
+
+    @Override
+    protected StatementCounter getStatementCounter() {
+        return STATEMENT_COUNTER;
+    }
+
+    @Override
+    protected int getMaxStatementRepetitions() {
+        return 1;
+    }
+
+    @Override
+    protected ItemDao createDaoInstance() {
+        return new ItemDao();
+    }
+
+    @Override
+    protected boolean isPrimaryKeyIntegrityConstraintViolationTestSuitable() {
+        return true;
+    }
+
+    @Override
+    protected boolean isNotFoundExceptionOnUpdateSuitable() {
+        return true;
+    }
+
+    @Override
+    protected boolean isVersioned() {
+        return false;
+    }
+
+    @Override
+    protected Item createIdentifiable(Long id) {
+        return new Item(id, "item-" + id, RANDOM.nextInt(100), "category");
+    }
+
+    @Override
+    protected List<Item> createIdentifiables(int count) {
+        List<Item> identifiables = new ArrayList<Item>(count);
+        for (int i = 0; i < count; i++) {
+            identifiables.add(createIdentifiable(Long.valueOf(ID_SEQUENCE.incrementAndGet())));
+        }
+        return identifiables;
+    }
+
+    @Override
+    protected void assertEqualState(Item expected, Item actual) {
+        Assert.assertEquals(expected.getName(), actual.getName());
+        Assert.assertEquals(expected.getPriority(), actual.getPriority());
+        Assert.assertEquals(expected.getCategory(), actual.getCategory());
+    }
+
+    @Override
+    protected void modify(Item identifiable) {
+        identifiable.setName(identifiable.getName() + "-modified");
+        identifiable.setPriority(identifiable.getPriority() + 1);
+        identifiable.setCategory(null);
+    }
+
+    @Override
+    protected List<SearchCase<Item, ItemFilter, ItemSortKey>> getSearchCases() {
+        List<SearchCase<Item, ItemFilter, ItemSortKey>> searchCases = new ArrayList<SearchCase<Item, ItemFilter, ItemSortKey>>();
+
+        Item alpha = new Item(Long.valueOf(ID_SEQUENCE.incrementAndGet()), "alpha", 1, "red");
+        Item beta = new Item(Long.valueOf(ID_SEQUENCE.incrementAndGet()), "beta", 2, "green");
+        Item gamma = new Item(Long.valueOf(ID_SEQUENCE.incrementAndGet()), "gamma", 3, "red");
+        Item percent = new Item(Long.valueOf(ID_SEQUENCE.incrementAndGet()), "100%", 4, null);
+        List<Item> searchSpace = Arrays.asList(alpha, beta, gamma, percent);
+
+        ItemFilter filter = new ItemFilter();
+        searchCases.add(SearchCase.<Item, ItemFilter, ItemSortKey> forCase(searchSpace, filter, null, alpha, beta, gamma, percent));
+
+        filter = new ItemFilter();
+        filter.setNameCondition(StringCondition.contain("a"));
+        searchCases.add(SearchCase.forCase(searchSpace, filter,
+                Collections.singletonList(Sort.descending(ItemSortKey.NAME)), gamma, beta, alpha));
+
+        filter = new ItemFilter();
+        filter.setNameCondition(StringCondition.endWith("%"));
+        searchCases.add(SearchCase.<Item, ItemFilter, ItemSortKey> forCase(searchSpace, filter, null, percent));
+
+        filter = new ItemFilter();
+        filter.setPriorityCondition(ComparabilityCondition.greaterThanOrEqualTo(Integer.valueOf(2)));
+        searchCases.add(SearchCase.forCase(searchSpace, filter,
+                Collections.singletonList(Sort.ascending(ItemSortKey.PRIORITY)), beta, gamma, percent));
+
+        filter = new ItemFilter();
+        filter.setCategoryCondition(SetCondition.in("red", "blue"));
+        filter.setPriorityCondition(ComparabilityCondition.lessThan(Integer.valueOf(3)));
+        searchCases.add(SearchCase.<Item, ItemFilter, ItemSortKey> forCase(searchSpace, filter, null, alpha));
+
+        filter = new ItemFilter();
+        filter.setPriorityIntervalCondition(IntervalCondition.in(Interval.closed(Integer.valueOf(2),
+                Integer.valueOf(2))));
+        searchCases.add(SearchCase.<Item, ItemFilter, ItemSortKey> forCase(searchSpace, filter, null, beta));
+
+        filter = new ItemFilter();
+        filter.setPriorityIntervalCondition(IntervalCondition.notIn(Interval.closed(Integer.valueOf(2),
+                Integer.valueOf(2))));
+        searchCases.add(SearchCase.<Item, ItemFilter, ItemSortKey> forCase(searchSpace, filter, null, alpha, gamma,
+                percent));
+
+        filter = new ItemFilter();
+        filter.setCategoryCondition(SetCondition.in(Collections.<String> emptySet()));
+        searchCases.add(SearchCase.<Item, ItemFilter, ItemSortKey> forCase(searchSpace, filter, null, Collections.<Item> emptyList()));
+
+        // Find and count send a single statement; a page sends the count and the page query
+        List<SearchCase<Item, ItemFilter, ItemSortKey>> budgetedSearchCases = new ArrayList<SearchCase<Item, ItemFilter, ItemSortKey>>();
+        for (SearchCase<Item, ItemFilter, ItemSortKey> searchCase : searchCases) {
+            budgetedSearchCases.add(searchCase.withStatementBudget(2));
+        }
+
+        return budgetedSearchCases;
+    }
+
+    @Override
+    protected void clear() throws PersistenceException {
+        execute(new DaoQuery<Void>() {
+            @Override
+            protected Void execute(ItemDao dao, JdbcContext context)
+                    throws PersistenceException {
+                dao.clear(context);
+                return null;
+            }
+        });
+    }
+
+    public static class Item implements Identifiable<Long> {
+        private final Long id;
+        private String name;
+        private int priority;
+        private String category;
+
+        public Item(Long id, String name, int priority, String category) {
+            this.id = id;
+            this.name = name;
+            this.priority = priority;
+            this.category = category;
+        }
+
+        @Override
+        public Long getIdentifier() {
+            return this.id;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getPriority() {
+            return this.priority;
+        }
+
+        public void setPriority(int priority) {
+            this.priority = priority;
+        }
+
+        public String getCategory() {
+            return this.category;
+        }
+
+        public void setCategory(String category) {
+            this.category = category;
+        }
+
+        @Override
+        public String toString() {
+            return this.name;
+        }
+    }
+
+    public static class ItemFilter {
+        private StringCondition nameCondition;
+        private ComparabilityCondition<Integer> priorityCondition;
+        private IntervalCondition<Integer> priorityIntervalCondition;
+        private SetCondition<String> categoryCondition;
+
+        public StringCondition getNameCondition() {
+            return this.nameCondition;
+        }
+
+        public void setNameCondition(StringCondition nameCondition) {
+            this.nameCondition = nameCondition;
+        }
+
+        public ComparabilityCondition<Integer> getPriorityCondition() {
+            return this.priorityCondition;
+        }
+
+        public void setPriorityCondition(ComparabilityCondition<Integer> priorityCondition) {
+            this.priorityCondition = priorityCondition;
+        }
+
+        public IntervalCondition<Integer> getPriorityIntervalCondition() {
+            return this.priorityIntervalCondition;
+        }
+
+        public void setPriorityIntervalCondition(IntervalCondition<Integer> priorityIntervalCondition) {
+            this.priorityIntervalCondition = priorityIntervalCondition;
+        }
+
+        public SetCondition<String> getCategoryCondition() {
+            return this.categoryCondition;
+        }
+
+        public void setCategoryCondition(SetCondition<String> categoryCondition) {
+            this.categoryCondition = categoryCondition;
+        }
+    }
+
+    public static enum ItemSortKey {
+        NAME, PRIORITY, CATEGORY
+    }
+
+    public static class ItemDao extends JdbcOffsetPageDao<Long, Item, ItemFilter, ItemSortKey> {
+
+        public ItemDao() {
+            super("item", "id", "name", "priority", "category");
+        }
+
+        @Override
+        public Item map(ResultSet resultSet) throws SQLException {
+            return new Item(Long.valueOf(resultSet.getLong(1)), resultSet.getString(2), resultSet.getInt(3),
+                    resultSet.getString(4));
+        }
+
+        @Override
+        protected Object[] getColumnValues(Item identifiable) {
+            return new Object[] { identifiable.getName(), Integer.valueOf(identifiable.getPriority()),
+                    identifiable.getCategory() };
+        }
+
+        @Override
+        protected SqlPredicate getQueryPredicate(ItemFilter filter) {
+            SqlPredicateGenerator generator = getQueryPredicateGenerator();
+            List<SqlPredicate> predicates = new ArrayList<SqlPredicate>();
+            if (filter.getNameCondition() != null) {
+                predicates.add(generator.getPredicate(filter.getNameCondition(), "name"));
+            }
+            if (filter.getPriorityCondition() != null) {
+                predicates.add(generator.getPredicate(filter.getPriorityCondition(), "priority"));
+            }
+            if (filter.getPriorityIntervalCondition() != null) {
+                predicates.add(generator.getPredicate(filter.getPriorityIntervalCondition(), "priority"));
+            }
+            if (filter.getCategoryCondition() != null) {
+                predicates.add(generator.getPredicate(filter.getCategoryCondition(), "category"));
+            }
+            return generator.and(predicates.toArray(new SqlPredicate[predicates.size()]));
+        }
+
+        @Override
+        protected String getColumn(ItemSortKey sortKey) {
+            switch (sortKey) {
+                case NAME:
+                    return "name";
+                case PRIORITY:
+                    return "priority";
+                case CATEGORY:
+                    return "category";
+                default:
+                    throw new IllegalArgumentException("Unsupported sort key: " + sortKey);
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jdbc.dao;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.BeforeClass;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.jdbc.JdbcContext;
+import org.opendaylight.persistence.jdbc.JdbcDataStore;
+import org.opendaylight.persistence.jdbc.dao.JdbcOffsetPageDaoTest.ItemFilter;
+import org.opendaylight.persistence.jdbc.dao.JdbcOffsetPageDaoTest.ItemSortKey;
+import org.opendaylight.persistence.jdbc.sql.SqlPredicate;
+import org.opendaylight.persistence.jdbc.sql.SqlPredicateGenerator;
+import org.opendaylight.persistence.util.common.filter.ComparabilityCondition;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+import com.opendaylight.persistence.dao.AbstractConcurrentDaoTest;
+
+/**
+ * Runs the concurrent workload against a DAO with optimistic locking, so the lost-update
+ * invariant is verified.
+ */
+@SuppressWarnings({ "javadoc", "static-method" })
+public class JdbcVersionedConcurrentDaoTest extends
+        AbstractConcurrentDaoTest<Long, JdbcVersionedConcurrentDaoTest.VersionedItem, ItemFilter, ItemSortKey, JdbcContext, JdbcVersionedConcurrentDaoTest.VersionedItemDao> {
+
+    private static final JdbcDataSource DATA_SOURCE = new JdbcDataSource();
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+    private static final Random RANDOM = new Random();
+
+    static {
+        DATA_SOURCE.setURL("jdbc:h2:mem:JdbcVersionedConcurrentDaoTest;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+    }
+
+    public JdbcVersionedConcurrentDaoTest() {
+        super(new JdbcDataStore(DATA_SOURCE));
+    }
+
+    @BeforeClass
+    public static void beforeClass() throws SQLException {
+        try (Connection connection = DATA_SOURCE.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS versioned_item (id BIGINT PRIMARY KEY, "
+                    + "name VARCHAR(64) NOT NULL, priority INT NOT NULL, version BIGINT NOT NULL)");
+        }
+    }
+
+    @Override
+    protected int getThreadCount() {
+        return 4;
+    }
+
+    @Override
+    protected long getDurationMillis() {
+        return 1000;
+    }
+
+    @Override
+    protected int getInitialSize() {
+        return 5;
+    }
+
+    @Override
+    protected Map<Operation, Integer> getOperationMix() {
+        // Few objects and mostly updates, so concurrent updates of the same object are frequent
+        Map<Operation, Integer> mix = new EnumMap<Operation, Integer>(Operation.class);
+        mix.put(Operation.UPDATE, Integer.valueOf(8));
+        mix.put(Operation.GET, Integer.valueOf(1));
+        mix.put(Operation.FIND, Integer.valueOf(1));
+        return mix;
+    }
+
+    @Override
+    protected VersionedItemDao createDaoInstance() {
+        return new VersionedItemDao();
+    }
+
+    @Override
+    protected boolean isPrimaryKeyIntegrityConstraintViolationTestSuitable() {
+        return true;
+    }
+
+    @Override
+    protected boolean isNotFoundExceptionOnUpdateSuitable() {
+        return true;
+    }
+
+    @Override
+    protected boolean isVersioned() {
+        return true;
+    }
+
+    @Override
+    protected VersionedItem createIdentifiable(Long id) {
+        return new VersionedItem(id, "item-" + id, RANDOM.nextInt(100), 0);
+    }
+
+    @Override
+    protected List<VersionedItem> createIdentifiables(int count) {
+        List<VersionedItem> identifiables = new ArrayList<VersionedItem>(count);
+        for (int i = 0; i < count; i++) {
+            identifiables.add(createIdentifiable(Long.valueOf(ID_SEQUENCE.incrementAndGet())));
+        }
+        return identifiables;
+    }
+
+    @Override
+    protected void modify(VersionedItem identifiable) {
+        identifiable.setName("item-" + identifiable.getIdentifier() + "-" + RANDOM.nextInt(1000));
+        identifiable.setPriority(RANDOM.nextInt(100));
+    }
+
+    @Override
+    protected ItemFilter getFindFilter() {
+        ItemFilter filter = new ItemFilter();
+        filter.setPriorityCondition(ComparabilityCondition.lessThan(Integer.valueOf(RANDOM.nextInt(100))));
+        return filter;
+    }
+
+    public static class VersionedItem implements Identifiable<Long> {
+        private final Long id;
+        private String name;
+        private int priority;
+        private long version;
+
+        public VersionedItem(Long id, String name, int priority, long version) {
+            this.id = id;
+            this.name = name;
+            this.priority = priority;
+            this.version = version;
+        }
+
+        @Override
+        public Long getIdentifier() {
+            return this.id;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getPriority() {
+            return this.priority;
+        }
+
+        public void setPriority(int priority) {
+            this.priority = priority;
+        }
+
+        public long getVersion() {
+            return this.version;
+        }
+
+        void setVersion(long version) {
+            this.version = version;
+        }
+
+        @Override
+        public String toString() {
+            return this.name;
+        }
+    }
+
+    /**
+     * DAO that updates an object only if its version matches the stored version.
+     */
+    public static class VersionedItemDao extends JdbcOffsetPageDao<Long, VersionedItem, ItemFilter, ItemSortKey> {
+
+        private static final String UPDATE_SQL = "UPDATE versioned_item SET name = ?, priority = ?, "
+                + "version = version + 1 WHERE id = ? AND version = ?";
+
+        public VersionedItemDao() {
+            super("versioned_item", "id", "name", "priority", "version");
+        }
+
+        @Override
+        public VersionedItem update(VersionedItem identifiable, JdbcContext context) throws PersistenceException {
+            List<Object> parameters = Arrays.<Object> asList(identifiable.getName(),
+                    Integer.valueOf(identifiable.getPriority()), identifiable.getIdentifier(),
+                    Long.valueOf(identifiable.getVersion()));
+            if (JdbcUtil.update(UPDATE_SQL, parameters, context) == 0) {
+                if (exist(identifiable.getIdentifier(), context)) {
+                    throw new IllegalStateException("Version mismatch for object with id "
+                            + identifiable.getIdentifier());
+                }
+                throw new PersistenceException("object with id " + identifiable.getIdentifier() + " not found");
+            }
+            identifiable.setVersion(identifiable.getVersion() + 1);
+            return identifiable;
+        }
+
+        @Override
+        public VersionedItem map(ResultSet resultSet) throws SQLException {
+            return new VersionedItem(Long.valueOf(resultSet.getLong(1)), resultSet.getString(2), resultSet.getInt(3),
+                    resultSet.getLong(4));
+        }
+
+        @Override
+        protected Object[] getColumnValues(VersionedItem identifiable) {
+            return new Object[] { identifiable.getName(), Integer.valueOf(identifiable.getPriority()),
+                    Long.valueOf(identifiable.getVersion()) };
+        }
+
+        @Override
+        protected SqlPredicate getQueryPredicate(ItemFilter filter) {
+            SqlPredicateGenerator generator = getQueryPredicateGenerator();
+            if (filter.getPriorityCondition() == null) {
+                return generator.getTautology();
+            }
+            return generator.getPredicate(filter.getPriorityCondition(), "priority");
+        }
+
+        @Override
+        protected String getColumn(ItemSortKey sortKey) {
+            switch (sortKey) {
+                case NAME:
+                    return "name";
+                case PRIORITY:
+                    return "priority";
+                default:
+                    throw new IllegalArgumentException("Unsupported sort key: " + sortKey);
+            }
+        }
+    }
+}
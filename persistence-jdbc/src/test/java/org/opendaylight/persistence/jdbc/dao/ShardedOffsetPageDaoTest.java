@@ -0,0 +1,295 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jdbc.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.common.dao.ShardedOffsetPageDao;
+import org.opendaylight.persistence.common.datastore.ShardedContext;
+import org.opendaylight.persistence.common.datastore.ShardedDataStore;
+import org.opendaylight.persistence.jdbc.JdbcContext;
+import org.opendaylight.persistence.jdbc.JdbcDataStore;
+import org.opendaylight.persistence.jdbc.dao.JdbcOffsetPageDaoTest.Item;
+import org.opendaylight.persistence.jdbc.dao.JdbcOffsetPageDaoTest.ItemDao;
+import org.opendaylight.persistence.jdbc.dao.JdbcOffsetPageDaoTest.ItemFilter;
+import org.opendaylight.persistence.jdbc.dao.JdbcOffsetPageDaoTest.ItemSortKey;
+import org.opendaylight.persistence.util.common.filter.ComparabilityCondition;
+import org.opendaylight.persistence.util.common.filter.StringCondition;
+import org.opendaylight.persistence.util.common.type.NullOrdering;
+import org.opendaylight.persistence.util.common.type.Sort;
+import org.opendaylight.persistence.util.common.type.page.OffsetPage;
+import org.opendaylight.persistence.util.common.type.page.OffsetPageRequest;
+
+import com.opendaylight.persistence.dao.AbstractOffsetPageDaoTest;
+import com.opendaylight.persistence.dao.SearchCase;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class ShardedOffsetPageDaoTest extends
+        AbstractOffsetPageDaoTest<Long, Item, ItemFilter, ItemSortKey, ShardedContext<JdbcContext>, ShardedOffsetPageDaoTest.ShardedItemDao> {
+
+    private static final int SHARD_COUNT = 3;
+    private static final List<JdbcDataSource> DATA_SOURCES = new ArrayList<JdbcDataSource>();
+    private static final List<DataStore<JdbcContext>> SHARDS = new ArrayList<DataStore<JdbcContext>>();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(SHARD_COUNT);
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+    private static final Random RANDOM = new Random();
+
+    static {
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            JdbcDataSource dataSource = new JdbcDataSource();
+            dataSource.setURL("jdbc:h2:mem:ShardedOffsetPageDaoTest" + i + ";DB_CLOSE_DELAY=-1");
+            DATA_SOURCES.add(dataSource);
+            SHARDS.add(new JdbcDataStore(dataSource));
+        }
+    }
+
+    public ShardedOffsetPageDaoTest() {
+        super(new ShardedDataStore<JdbcContext>(SHARDS, EXECUTOR));
+    }
+
+    @BeforeClass
+    public static void beforeClass() throws SQLException {
+        for (JdbcDataSource dataSource : DATA_SOURCES) {
+            try (Connection connection = dataSource.getConnection();
+                    Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE IF NOT EXISTS item (id BIGINT PRIMARY KEY, name VARCHAR(64) NOT NULL, "
+                        + "priority INT NOT NULL, category VARCHAR(16))");
+            }
+        }
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        EXECUTOR.shutdown();
+    }
+
+    @Test
+    public void testDistribution() throws PersistenceException {
+        final List<Item> items = createIdentifiables(300);
+        for (Item item : items) {
+            store(item);
+        }
+
+        for (final DataStore<JdbcContext> shard : SHARDS) {
+            long size = shard.execute(new org.opendaylight.persistence.Query<Long, JdbcContext>() {
+                @Override
+                public Long execute(JdbcContext context) throws PersistenceException {
+                    return Long.valueOf(new ItemDao().size(context));
+                }
+            }).longValue();
+            Assert.assertTrue("Unbalanced shard: " + size, size > 50 && size < 150);
+        }
+
+        Assert.assertEquals(300, size());
+        clear();
+    }
+
+    @Test
+    public void testMergedPage() throws PersistenceException {
+        for (int i = 0; i < 100; i++) {
+            store(new Item(Long.valueOf(ID_SEQUENCE.incrementAndGet()), String.format("item-%03d", Integer.valueOf(i)),
+                    i % 10, "category"));
+        }
+
+        final List<Sort<ItemSortKey>> sort = Arrays.asList(Sort.descending(ItemSortKey.PRIORITY),
+                Sort.ascending(ItemSortKey.NAME));
+        final ItemFilter filter = new ItemFilter();
+        filter.setPriorityCondition(ComparabilityCondition.greaterThanOrEqualTo(Integer.valueOf(5)));
+
+        OffsetPage<Item> page = execute(new DaoQuery<OffsetPage<Item>>() {
+            @Override
+            protected OffsetPage<Item> execute(ShardedItemDao dao, ShardedContext<JdbcContext> context)
+                    throws PersistenceException {
+                return dao.find(filter, sort, new OffsetPageRequest(8, 4), context);
+            }
+        });
+
+        Assert.assertEquals(50, page.getTotalRecordCount());
+        List<String> names = new ArrayList<String>();
+        for (Item item : page.getData()) {
+            names.add(item.getName());
+        }
+        // Priority 9: item-009, item-019, ..., item-099; priority 8 starts at offset 10
+        Assert.assertEquals(Arrays.asList("item-089", "item-099", "item-008", "item-018"), names);
+        clear();
+    }
+
+    @Test
+    public void testNullOrdering() throws PersistenceException {
+        String[] categories = { null, "x", null, "y", "x", null };
+        for (int i = 0; i < categories.length; i++) {
+            store(new Item(Long.valueOf(ID_SEQUENCE.incrementAndGet()), "item-" + (char) ('a' + i), 0,
+                    categories[i]));
+        }
+
+        // H2 sorts nulls as the smallest value
+        Assert.assertEquals(Arrays.asList("item-a", "item-c", "item-f", "item-b", "item-e", "item-d"),
+                findNames(Arrays.asList(Sort.ascending(ItemSortKey.CATEGORY), Sort.ascending(ItemSortKey.NAME))));
+        Assert.assertEquals(Arrays.asList("item-d", "item-b", "item-e", "item-a", "item-c", "item-f"),
+                findNames(Arrays.asList(Sort.descending(ItemSortKey.CATEGORY), Sort.ascending(ItemSortKey.NAME))));
+        clear();
+    }
+
+    private List<String> findNames(final List<Sort<ItemSortKey>> sort) throws PersistenceException {
+        OffsetPage<Item> page = execute(new DaoQuery<OffsetPage<Item>>() {
+            @Override
+            protected OffsetPage<Item> execute(ShardedItemDao dao, ShardedContext<JdbcContext> context)
+                    throws PersistenceException {
+                return dao.find(new ItemFilter(), sort, new OffsetPageRequest(0, 10), context);
+            }
+        });
+
+        List<String> names = new ArrayList<String>();
+        for (Item item : page.getData()) {
+            names.add(item.getName());
+        }
+        return names;
+    }
+
+    @Override
+    protected ShardedItemDao createDaoInstance() {
+        return new ShardedItemDao();
+    }
+
+    @Override
+    protected boolean isPrimaryKeyIntegrityConstraintViolationTestSuitable() {
+        return true;
+    }
+
+    @Override
+    protected boolean isNotFoundExceptionOnUpdateSuitable() {
+        return true;
+    }
+
+    @Override
+    protected boolean isVersioned() {
+        return false;
+    }
+
+    @Override
+    protected Item createIdentifiable(Long id) {
+        return new Item(id, "item-" + id, RANDOM.nextInt(100), "category");
+    }
+
+    @Override
+    protected List<Item> createIdentifiables(int count) {
+        List<Item> identifiables = new ArrayList<Item>(count);
+        for (int i = 0; i < count; i++) {
+            identifiables.add(createIdentifiable(Long.valueOf(ID_SEQUENCE.incrementAndGet())));
+        }
+        return identifiables;
+    }
+
+    @Override
+    protected void assertEqualState(Item expected, Item actual) {
+        Assert.assertEquals(expected.getName(), actual.getName());
+        Assert.assertEquals(expected.getPriority(), actual.getPriority());
+        Assert.assertEquals(expected.getCategory(), actual.getCategory());
+    }
+
+    @Override
+    protected void modify(Item identifiable) {
+        identifiable.setName(identifiable.getName() + "-modified");
+        identifiable.setPriority(identifiable.getPriority() + 1);
+        identifiable.setCategory(null);
+    }
+
+    @Override
+    protected List<SearchCase<Item, ItemFilter, ItemSortKey>> getSearchCases() {
+        List<SearchCase<Item, ItemFilter, ItemSortKey>> searchCases = new ArrayList<SearchCase<Item, ItemFilter, ItemSortKey>>();
+
+        List<Item> searchSpace = new ArrayList<Item>();
+        for (int i = 0; i < 12; i++) {
+            searchSpace.add(new Item(Long.valueOf(ID_SEQUENCE.incrementAndGet()), "name-" + (char) ('a' + i), i % 4,
+                    i % 2 == 0 ? "even" : "odd"));
+        }
+
+        ItemFilter filter = new ItemFilter();
+        List<Item> byName = new ArrayList<Item>(searchSpace);
+        searchCases.add(SearchCase.forCase(searchSpace, filter,
+                Collections.singletonList(Sort.ascending(ItemSortKey.NAME)), byName));
+
+        filter = new ItemFilter();
+        filter.setNameCondition(StringCondition.startWith("name-"));
+        List<Item> byNameDescending = new ArrayList<Item>(searchSpace);
+        Collections.reverse(byNameDescending);
+        searchCases.add(SearchCase.forCase(searchSpace, filter,
+                Collections.singletonList(Sort.descending(ItemSortKey.NAME)), byNameDescending));
+
+        filter = new ItemFilter();
+        filter.setPriorityCondition(ComparabilityCondition.greaterThan(Integer.valueOf(1)));
+        List<Item> byPriorityAndName = new ArrayList<Item>();
+        for (int priority = 3; priority > 1; priority--) {
+            for (Item item : searchSpace) {
+                if (item.getPriority() == priority) {
+                    byPriorityAndName.add(item);
+                }
+            }
+        }
+        searchCases.add(SearchCase.forCase(searchSpace, filter,
+                Arrays.asList(Sort.descending(ItemSortKey.PRIORITY), Sort.ascending(ItemSortKey.NAME)),
+                byPriorityAndName));
+
+        filter = new ItemFilter();
+        filter.setNameCondition(StringCondition.equalTo("name-c"));
+        searchCases.add(SearchCase.<Item, ItemFilter, ItemSortKey> forCase(searchSpace, filter, null,
+                searchSpace.get(2)));
+
+        return searchCases;
+    }
+
+    @Override
+    protected void clear() throws PersistenceException {
+        execute(new DaoQuery<Void>() {
+            @Override
+            protected Void execute(ShardedItemDao dao, ShardedContext<JdbcContext> context)
+                    throws PersistenceException {
+                dao.clear(context);
+                return null;
+            }
+        });
+    }
+
+    public static class ShardedItemDao extends ShardedOffsetPageDao<Long, Item, ItemFilter, ItemSortKey, JdbcContext> {
+
+        public ShardedItemDao() {
+            super(new ItemDao(), NullOrdering.LOW);
+        }
+
+        @Override
+        protected Comparable<?> getSortValue(Item identifiable, ItemSortKey sortAttribute) {
+            switch (sortAttribute) {
+                case NAME:
+                    return identifiable.getName();
+                case PRIORITY:
+                    return Integer.valueOf(identifiable.getPriority());
+                case CATEGORY:
+                    return identifiable.getCategory();
+                default:
+                    throw new IllegalArgumentException("Unsupported sort key: " + sortAttribute);
+            }
+        }
+    }
+}
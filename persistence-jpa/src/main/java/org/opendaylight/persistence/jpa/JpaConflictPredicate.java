@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa;
+
+import javax.persistence.LockTimeoutException;
+import javax.persistence.OptimisticLockException;
+import javax.persistence.PessimisticLockException;
+
+import org.hibernate.StaleStateException;
+import org.hibernate.exception.LockAcquisitionException;
+
+import com.google.common.base.Predicate;
+
+/**
+ * Predicate that decides whether a failure is caused by a write conflict that may succeed if the
+ * transaction is retried: An optimistic lock failure (A concurrent transaction modified a versioned
+ * entity) or a failure acquiring a pessimistic lock (Lock timeout or deadlock victim).
+ * <p>
+ * The whole cause chain is inspected because depending on where the conflict is detected (On flush
+ * or on commit) the JPA exception is wrapped in a
+ * {@link org.opendaylight.persistence.PersistenceException} or a
+ * {@link javax.persistence.RollbackException}.
+ * <p>
+ * Usage example:
+ * 
+ * <pre>
+ * DataStore&lt;JpaContext&gt; dataStore = new RetryingDataStore&lt;JpaContext&gt;(jpaDataStore,
+ *         new RetryPolicy(5, 10, 500), new RetryBudget(100, 0.1), JpaConflictPredicate.INSTANCE,
+ *         Striped.&lt;Lock&gt; lock(64));
+ * </pre>
+ * 
+ */
+public final class JpaConflictPredicate implements Predicate<Throwable> {
+
+    /**
+     * Shared instance.
+     */
+    public static final JpaConflictPredicate INSTANCE = new JpaConflictPredicate();
+
+    private JpaConflictPredicate() {
+
+    }
+
+    @Override
+    public boolean apply(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (isConflict(cause)) {
+                return true;
+            }
+
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isConflict(Throwable cause) {
+        return cause instanceof OptimisticLockException || cause instanceof PessimisticLockException
+                || cause instanceof LockTimeoutException || cause instanceof StaleStateException
+                || cause instanceof LockAcquisitionException;
+    }
+}
@@ -7,7 +7,16 @@
  */
 package org.opendaylight.persistence.jpa;
 
+import javax.annotation.Nonnull;
 import javax.persistence.EntityManager;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.opendaylight.persistence.util.common.Instruction;
+
+import com.google.common.base.Preconditions;
 
 /**
  * JPA query context.
@@ -36,4 +45,37 @@ public class JpaContext {
     public EntityManager getEntityManager() {
         return this.entityManager;
     }
+
+    /**
+     * Executes an instruction once the current transaction commits; if the transaction is rolled back the instruction
+     * is discarded. If there is no active transaction the instruction is executed immediately.
+     * <p>
+     * This allows keeping state that is not transactional (An in-memory filter for example) consistent with the
+     * committed data.
+     * 
+     * @param instruction instruction to execute after commit
+     */
+    public void afterCommit(@Nonnull final Instruction instruction) {
+        Preconditions.checkNotNull(instruction, "instruction");
+        Transaction transaction = this.entityManager.unwrap(Session.class).getTransaction();
+        if (!transaction.isActive()) {
+            instruction.execute();
+            return;
+        }
+
+        transaction.registerSynchronization(new Synchronization() {
+
+            @Override
+            public void beforeCompletion() {
+
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    instruction.execute();
+                }
+            }
+        });
+    }
 }
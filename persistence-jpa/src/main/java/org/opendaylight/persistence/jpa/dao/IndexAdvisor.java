@@ -0,0 +1,772 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa.dao;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+
+import org.hibernate.Session;
+import org.hibernate.jdbc.Work;
+import org.opendaylight.persistence.util.common.filter.ComparabilityCondition;
+import org.opendaylight.persistence.util.common.filter.EqualityCondition;
+import org.opendaylight.persistence.util.common.filter.IntervalCondition;
+import org.opendaylight.persistence.util.common.filter.SetCondition;
+import org.opendaylight.persistence.util.common.filter.StringCondition;
+import org.opendaylight.persistence.util.common.type.SortOrder;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+
+/**
+ * Index advisor: Records which entity attributes the queries executed through {@link JpaUtil} use in
+ * predicates (See {@link JpaQueryPredicateGenerator}) and sort specifications, weighted by the
+ * observed latency, and recommends the indexes that would serve them.
+ * <p>
+ * For every query a candidate index is derived: The columns compared by equality first, followed
+ * by the sort columns, or by the column compared by range if the query is not sorted by it.
+ * Conditions that cannot use an index (Like unequal, not in, contains or ends with) are recorded but
+ * do not contribute columns. Candidates are ranked by the accumulated latency of the queries they
+ * would serve, and candidates already covered by an index (A leading prefix of the index's columns)
+ * are discarded. Known indexes are the primary key, unique columns and the indexes declared in the
+ * entity's {@link Table} annotation; the indexes in the database are considered once loaded with
+ * {@link #loadDatabaseIndexes(EntityManager)}.
+ * <p>
+ * Recording is disabled by default, it is enabled through {@link #setEnabled(boolean)} (For example,
+ * from a JMX console after {@link #registerMBean()} is called when the data store is created).
+ * Column names are taken from the {@link Column} annotations, so recommendations assume the default
+ * naming strategy for attributes without one.
+ * <p>
+ * This class is thread safe.
+ * 
+ */
+public final class IndexAdvisor implements IndexAdvisorMXBean {
+
+    /**
+     * Name the advisor is registered with in the platform MBean server.
+     */
+    public static final String OBJECT_NAME = "org.opendaylight.persistence:type=IndexAdvisor";
+
+    private static final IndexAdvisor INSTANCE = new IndexAdvisor();
+
+    private volatile boolean enabled;
+    private final ThreadLocal<QueryRecord> currentQuery;
+    private final ConcurrentMap<Class<?>, EntityUsage> entities;
+    private final AtomicLong recordedQueryCount;
+
+    private IndexAdvisor() {
+        this.currentQuery = new ThreadLocal<QueryRecord>();
+        this.entities = new ConcurrentHashMap<Class<?>, EntityUsage>();
+        this.recordedQueryCount = new AtomicLong();
+    }
+
+    /**
+     * Gets the only instance of this class.
+     * 
+     * @return the only instance of this class
+     */
+    public static IndexAdvisor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers this advisor with the platform MBean server under {@link #OBJECT_NAME}, so recording
+     * can be enabled and recommendations read from a JMX console. Registering an already registered
+     * advisor has no effect.
+     * 
+     * @throws JMException if the MBean cannot be registered
+     */
+    public void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (!server.isRegistered(name)) {
+            server.registerMBean(this, name);
+        }
+    }
+
+    /**
+     * Unregisters this advisor from the platform MBean server.
+     * 
+     * @throws JMException if the MBean cannot be unregistered
+     */
+    public void unregisterMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public long getRecordedQueryCount() {
+        return this.recordedQueryCount.get();
+    }
+
+    @Override
+    public String[] getAttributeUsage() {
+        List<String> usage = new ArrayList<String>();
+        for (EntityUsage entity : getEntities()) {
+            entity.describeAttributes(usage);
+        }
+        return usage.toArray(new String[usage.size()]);
+    }
+
+    @Override
+    public String[] getCreateIndexStatements() {
+        List<IndexRecommendation> recommendations = getRecommendations();
+        String[] statements = new String[recommendations.size()];
+        for (int i = 0; i < statements.length; i++) {
+            statements[i] = recommendations.get(i).toCreateIndexStatement();
+        }
+        return statements;
+    }
+
+    @Override
+    public String[] getIndexAnnotations() {
+        List<IndexRecommendation> recommendations = getRecommendations();
+        String[] annotations = new String[recommendations.size()];
+        for (int i = 0; i < annotations.length; i++) {
+            IndexRecommendation recommendation = recommendations.get(i);
+            annotations[i] = recommendation.getEntityClass().getSimpleName() + ": "
+                    + recommendation.toIndexAnnotation();
+        }
+        return annotations;
+    }
+
+    @Override
+    public void reset() {
+        this.entities.clear();
+        this.recordedQueryCount.set(0);
+    }
+
+    /**
+     * Gets the index recommendations ranked by the accumulated latency of the queries they would
+     * serve.
+     * 
+     * @return the index recommendations
+     */
+    public List<IndexRecommendation> getRecommendations() {
+        List<IndexRecommendation> recommendations = new ArrayList<IndexRecommendation>();
+        for (EntityUsage entity : getEntities()) {
+            entity.recommend(recommendations);
+        }
+
+        Collections.sort(recommendations, new Comparator<IndexRecommendation>() {
+            @Override
+            public int compare(IndexRecommendation r1, IndexRecommendation r2) {
+                int comparison = Long.compare(r2.getLatency(TimeUnit.NANOSECONDS),
+                        r1.getLatency(TimeUnit.NANOSECONDS));
+                return comparison != 0 ? comparison : Long.compare(r2.getQueryCount(), r1.getQueryCount());
+            }
+        });
+        return recommendations;
+    }
+
+    /**
+     * Loads the indexes defined in the database for the tables of the recorded entities, so indexes
+     * created outside the entity annotations are not recommended. Indexes of entities recorded after
+     * this method is called are not loaded.
+     * 
+     * @param connection connection to the database
+     * @throws SQLException if errors occur while reading the database metadata
+     */
+    public void loadDatabaseIndexes(Connection connection) throws SQLException {
+        Preconditions.checkNotNull(connection, "connection");
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (EntityUsage entity : getEntities()) {
+            List<List<String>> indexes = readIndexes(metaData, entity.table);
+            if (indexes.isEmpty()) {
+                indexes = readIndexes(metaData, entity.table.toUpperCase(Locale.ENGLISH));
+            }
+            if (indexes.isEmpty()) {
+                indexes = readIndexes(metaData, entity.table.toLowerCase(Locale.ENGLISH));
+            }
+            entity.setDatabaseIndexes(indexes);
+        }
+    }
+
+    /**
+     * Loads the indexes defined in the database using the connection of the given entity manager. See
+     * {@link #loadDatabaseIndexes(Connection)}.
+     * <p>
+     * JPA does not define a portable way to get the connection used by an entity manager, thus this
+     * method requires Hibernate.
+     * 
+     * @param entityManager entity manager
+     */
+    public void loadDatabaseIndexes(EntityManager entityManager) {
+        Preconditions.checkNotNull(entityManager, "entityManager");
+        entityManager.unwrap(Session.class).doWork(new Work() {
+            @Override
+            public void execute(Connection connection) throws SQLException {
+                loadDatabaseIndexes(connection);
+            }
+        });
+    }
+
+    /**
+     * Starts recording a query.
+     * 
+     * @param root root of the query
+     * @return the query record or {@code null} if recording is disabled or a query is already being
+     *         recorded by the current thread
+     */
+    QueryRecord beginQuery(Root<?> root) {
+        if (!this.enabled || this.currentQuery.get() != null) {
+            return null;
+        }
+
+        QueryRecord record = new QueryRecord(root.getModel());
+        this.currentQuery.set(record);
+        return record;
+    }
+
+    /**
+     * Finishes recording a query.
+     * 
+     * @param record the query record returned by {@link #beginQuery(Root)}
+     */
+    void endQuery(QueryRecord record) {
+        if (record == null) {
+            return;
+        }
+
+        this.currentQuery.remove();
+        long latency = System.nanoTime() - record.startTime;
+        Class<?> entityClass = record.entityType.getJavaType();
+        EntityUsage entity = this.entities.get(entityClass);
+        if (entity == null) {
+            EntityUsage newEntity = new EntityUsage(record.entityType);
+            entity = this.entities.putIfAbsent(entityClass, newEntity);
+            if (entity == null) {
+                entity = newEntity;
+            }
+        }
+        entity.record(record, latency);
+        this.recordedQueryCount.incrementAndGet();
+    }
+
+    /**
+     * Records a condition of the query being recorded by the current thread.
+     * 
+     * @param attribute attribute the condition is applied to
+     * @param condition condition
+     */
+    void recordCondition(SingularAttribute<?, ?> attribute, Object condition) {
+        QueryRecord record = getCurrentQuery();
+        if (record != null && condition != null) {
+            record.addCondition(attribute, condition);
+        }
+    }
+
+    /**
+     * Records a sort component of the query being recorded by the current thread.
+     * 
+     * @param attribute attribute to sort by
+     * @param order sort order
+     */
+    void recordSort(SingularAttribute<?, ?> attribute, SortOrder order) {
+        QueryRecord record = getCurrentQuery();
+        if (record != null) {
+            record.sort.put(getColumn(attribute), order);
+        }
+    }
+
+    private QueryRecord getCurrentQuery() {
+        return this.enabled ? this.currentQuery.get() : null;
+    }
+
+    private List<EntityUsage> getEntities() {
+        List<EntityUsage> entityList = new ArrayList<EntityUsage>(this.entities.values());
+        Collections.sort(entityList, new Comparator<EntityUsage>() {
+            @Override
+            public int compare(EntityUsage e1, EntityUsage e2) {
+                return e1.entityClass.getName().compareTo(e2.entityClass.getName());
+            }
+        });
+        return entityList;
+    }
+
+    private static List<List<String>> readIndexes(DatabaseMetaData metaData, String table) throws SQLException {
+        Map<String, SortedMap<Short, String>> indexColumns = new HashMap<String, SortedMap<Short, String>>();
+        try (ResultSet resultSet = metaData.getIndexInfo(null, null, table, false, true)) {
+            while (resultSet.next()) {
+                String indexName = resultSet.getString("INDEX_NAME");
+                String column = resultSet.getString("COLUMN_NAME");
+                if (indexName == null || column == null) {
+                    // Table statistics
+                    continue;
+                }
+
+                SortedMap<Short, String> columns = indexColumns.get(indexName);
+                if (columns == null) {
+                    columns = new TreeMap<Short, String>();
+                    indexColumns.put(indexName, columns);
+                }
+                columns.put(Short.valueOf(resultSet.getShort("ORDINAL_POSITION")), normalize(column));
+            }
+        }
+
+        List<List<String>> indexes = new ArrayList<List<String>>();
+        for (SortedMap<Short, String> columns : indexColumns.values()) {
+            indexes.add(new ArrayList<String>(columns.values()));
+        }
+        return indexes;
+    }
+
+    private static String getColumn(SingularAttribute<?, ?> attribute) {
+        Member member = attribute.getJavaMember();
+        if (member instanceof AnnotatedElement) {
+            Column column = ((AnnotatedElement) member).getAnnotation(Column.class);
+            if (column != null && !column.name().isEmpty()) {
+                return column.name();
+            }
+        }
+        return attribute.getName();
+    }
+
+    private static String getTable(Class<?> entityClass) {
+        Table table = entityClass.getAnnotation(Table.class);
+        if (table != null && !table.name().isEmpty()) {
+            return table.name();
+        }
+
+        Entity entity = entityClass.getAnnotation(Entity.class);
+        if (entity != null && !entity.name().isEmpty()) {
+            return entity.name();
+        }
+
+        return entityClass.getSimpleName();
+    }
+
+    private static String normalize(String column) {
+        return column.trim().toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Way a condition can use an index, from the most to the least selective.
+     */
+    private static enum Access {
+        EQUALITY, RANGE, SCAN;
+
+        static Access of(Object condition) {
+            if (condition instanceof EqualityCondition) {
+                return ((EqualityCondition<?>) condition).getMode() == EqualityCondition.Mode.EQUAL ? EQUALITY : SCAN;
+            }
+
+            if (condition instanceof ComparabilityCondition) {
+                return ((ComparabilityCondition<?>) condition).getMode() == ComparabilityCondition.Mode.EQUAL ? EQUALITY
+                        : RANGE;
+            }
+
+            if (condition instanceof IntervalCondition) {
+                return ((IntervalCondition<?>) condition).getMode() == IntervalCondition.Mode.IN ? RANGE : SCAN;
+            }
+
+            if (condition instanceof SetCondition) {
+                return ((SetCondition<?>) condition).getMode() == SetCondition.Mode.IN ? EQUALITY : SCAN;
+            }
+
+            if (condition instanceof StringCondition) {
+                switch (((StringCondition) condition).getMode()) {
+                    case EQUAL:
+                        return EQUALITY;
+                    case STARTS_WITH:
+                        return RANGE;
+                    default:
+                        return SCAN;
+                }
+            }
+
+            return SCAN;
+        }
+    }
+
+    /**
+     * Conditions and sort specification of a query being recorded.
+     */
+    static final class QueryRecord {
+        private final EntityType<?> entityType;
+        private final long startTime;
+        private final Map<String, Access> access;
+        private final Map<String, Set<String>> modes;
+        private final Map<String, SortOrder> sort;
+
+        QueryRecord(EntityType<?> entityType) {
+            this.entityType = entityType;
+            this.startTime = System.nanoTime();
+            this.access = new LinkedHashMap<String, Access>();
+            this.modes = new HashMap<String, Set<String>>();
+            this.sort = new LinkedHashMap<String, SortOrder>();
+        }
+
+        private void addCondition(SingularAttribute<?, ?> attribute, Object condition) {
+            String column = getColumn(attribute);
+            Access conditionAccess = Access.of(condition);
+            Access current = this.access.get(column);
+            if (current == null || conditionAccess.compareTo(current) < 0) {
+                this.access.put(column, conditionAccess);
+            }
+
+            Set<String> columnModes = this.modes.get(column);
+            if (columnModes == null) {
+                columnModes = new HashSet<String>();
+                this.modes.put(column, columnModes);
+            }
+            columnModes.add(condition.getClass().getSimpleName() + "." + getMode(condition));
+        }
+
+        private static Object getMode(Object condition) {
+            if (condition instanceof EqualityCondition) {
+                return ((EqualityCondition<?>) condition).getMode();
+            }
+            if (condition instanceof ComparabilityCondition) {
+                return ((ComparabilityCondition<?>) condition).getMode();
+            }
+            if (condition instanceof IntervalCondition) {
+                return ((IntervalCondition<?>) condition).getMode();
+            }
+            if (condition instanceof SetCondition) {
+                return ((SetCondition<?>) condition).getMode();
+            }
+            if (condition instanceof StringCondition) {
+                return ((StringCondition) condition).getMode();
+            }
+            return "UNKNOWN";
+        }
+
+        /**
+         * Gets the candidate index: The columns compared by equality, followed by the sort columns or
+         * the column compared by range.
+         */
+        private Candidate getCandidate() {
+            List<String> candidate = new ArrayList<String>(new TreeSet<String>(getColumns(Access.EQUALITY)));
+            int equalityCount = candidate.size();
+
+            List<String> range = getColumns(Access.RANGE);
+            List<String> sortColumns = new ArrayList<String>();
+            for (Map.Entry<String, SortOrder> entry : this.sort.entrySet()) {
+                if (!candidate.contains(entry.getKey())) {
+                    sortColumns.add(entry.getKey() + (entry.getValue() == SortOrder.DESCENDING ? " DESC" : ""));
+                }
+            }
+
+            boolean sortByRange = !sortColumns.isEmpty() && !range.isEmpty()
+                    && sortColumns.get(0).split(" ")[0].equals(range.get(0));
+            if (!sortColumns.isEmpty() && (range.isEmpty() || sortByRange)) {
+                candidate.addAll(sortColumns);
+            } else if (!range.isEmpty()) {
+                candidate.add(range.get(0));
+            }
+            return new Candidate(candidate, equalityCount);
+        }
+
+        private List<String> getColumns(Access columnAccess) {
+            List<String> columns = new ArrayList<String>();
+            for (Map.Entry<String, Access> entry : this.access.entrySet()) {
+                if (entry.getValue() == columnAccess) {
+                    columns.add(entry.getKey());
+                }
+            }
+            return columns;
+        }
+    }
+
+    /**
+     * Recorded usage of an entity.
+     */
+    private static final class EntityUsage {
+        private final Class<?> entityClass;
+        private final String table;
+        private final List<List<String>> declaredIndexes;
+        private final Map<String, AttributeUsage> attributes;
+        private final Map<Candidate, Usage> candidates;
+        private List<List<String>> databaseIndexes;
+
+        EntityUsage(EntityType<?> entityType) {
+            this.entityClass = entityType.getJavaType();
+            this.table = getTable(this.entityClass);
+            this.declaredIndexes = new ArrayList<List<String>>();
+            this.attributes = new TreeMap<String, AttributeUsage>();
+            this.candidates = new HashMap<Candidate, Usage>();
+            this.databaseIndexes = Collections.emptyList();
+
+            for (SingularAttribute<?, ?> attribute : entityType.getSingularAttributes()) {
+                Member member = attribute.getJavaMember();
+                Column column = member instanceof AnnotatedElement ? ((AnnotatedElement) member)
+                        .getAnnotation(Column.class) : null;
+                if (attribute.isId() || (column != null && column.unique())) {
+                    this.declaredIndexes.add(Collections.singletonList(normalize(getColumn(attribute))));
+                }
+            }
+
+            Table tableAnnotation = this.entityClass.getAnnotation(Table.class);
+            if (tableAnnotation != null) {
+                for (Index index : tableAnnotation.indexes()) {
+                    List<String> columns = new ArrayList<String>();
+                    for (String column : index.columnList().split(",")) {
+                        columns.add(normalize(column.trim().split("\\s+")[0]));
+                    }
+                    this.declaredIndexes.add(columns);
+                }
+            }
+        }
+
+        synchronized void record(QueryRecord record, long latency) {
+            for (Map.Entry<String, Set<String>> entry : record.modes.entrySet()) {
+                getAttribute(entry.getKey()).recordConditions(entry.getValue(), latency);
+            }
+
+            for (Map.Entry<String, SortOrder> entry : record.sort.entrySet()) {
+                getAttribute(entry.getKey()).recordSort(entry.getValue(), record.modes.containsKey(entry.getKey()),
+                        latency);
+            }
+
+            Candidate candidate = record.getCandidate();
+            if (!candidate.columns.isEmpty()) {
+                Usage usage = this.candidates.get(candidate);
+                if (usage == null) {
+                    usage = new Usage();
+                    this.candidates.put(candidate, usage);
+                }
+                usage.record(latency);
+            }
+        }
+
+        synchronized void setDatabaseIndexes(List<List<String>> databaseIndexes) {
+            this.databaseIndexes = databaseIndexes;
+        }
+
+        synchronized void describeAttributes(List<String> usage) {
+            for (Map.Entry<String, AttributeUsage> entry : this.attributes.entrySet()) {
+                usage.add(this.entityClass.getSimpleName() + "." + entry.getKey() + ": " + entry.getValue());
+            }
+        }
+
+        synchronized void recommend(List<IndexRecommendation> recommendations) {
+            List<Map.Entry<Candidate, Usage>> ranked = new ArrayList<Map.Entry<Candidate, Usage>>(
+                    this.candidates.entrySet());
+            Collections.sort(ranked, new Comparator<Map.Entry<Candidate, Usage>>() {
+                @Override
+                public int compare(Map.Entry<Candidate, Usage> e1, Map.Entry<Candidate, Usage> e2) {
+                    return Long.compare(e2.getValue().latency, e1.getValue().latency);
+                }
+            });
+
+            // Candidates covered by a better ranked candidate are folded into it
+            Map<Candidate, Usage> accepted = new LinkedHashMap<Candidate, Usage>();
+            for (Map.Entry<Candidate, Usage> entry : ranked) {
+                Candidate candidate = entry.getKey();
+                if (isCovered(candidate, this.declaredIndexes) || isCovered(candidate, this.databaseIndexes)) {
+                    continue;
+                }
+
+                Usage coveringUsage = null;
+                for (Map.Entry<Candidate, Usage> acceptedEntry : accepted.entrySet()) {
+                    if (covers(acceptedEntry.getKey().columns, candidate)) {
+                        coveringUsage = acceptedEntry.getValue();
+                        break;
+                    }
+                }
+
+                if (coveringUsage != null) {
+                    coveringUsage.add(entry.getValue());
+                } else {
+                    Usage usage = new Usage();
+                    usage.add(entry.getValue());
+                    accepted.put(candidate, usage);
+                }
+            }
+
+            for (Map.Entry<Candidate, Usage> entry : accepted.entrySet()) {
+                recommendations.add(new IndexRecommendation(this.entityClass, this.table, entry.getKey().columns,
+                        entry.getValue().count, entry.getValue().latency));
+            }
+        }
+
+        private AttributeUsage getAttribute(String column) {
+            AttributeUsage attribute = this.attributes.get(column);
+            if (attribute == null) {
+                attribute = new AttributeUsage();
+                this.attributes.put(column, attribute);
+            }
+            return attribute;
+        }
+
+        private static boolean isCovered(Candidate candidate, List<List<String>> indexes) {
+            for (List<String> index : indexes) {
+                if (covers(index, candidate)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Verifies whether an index serves the queries of a candidate: The candidate's columns are a
+         * leading prefix of the index, where the columns compared by equality may appear in any order.
+         * Sort directions are ignored since indexes can be scanned backwards.
+         */
+        private static boolean covers(List<String> index, Candidate candidate) {
+            List<String> columns = candidate.columns;
+            if (index.size() < columns.size()) {
+                return false;
+            }
+
+            Set<String> indexEqualityColumns = new HashSet<String>();
+            Set<String> candidateEqualityColumns = new HashSet<String>();
+            for (int i = 0; i < candidate.equalityCount; i++) {
+                indexEqualityColumns.add(getColumnName(index.get(i)));
+                candidateEqualityColumns.add(getColumnName(columns.get(i)));
+            }
+            if (!indexEqualityColumns.equals(candidateEqualityColumns)) {
+                return false;
+            }
+
+            for (int i = candidate.equalityCount; i < columns.size(); i++) {
+                if (!getColumnName(index.get(i)).equals(getColumnName(columns.get(i)))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static String getColumnName(String indexColumn) {
+            return normalize(indexColumn.split(" ")[0]);
+        }
+    }
+
+    /**
+     * Candidate index: Columns compared by equality (In any order) followed by sort or range columns.
+     */
+    private static final class Candidate {
+        private final List<String> columns;
+        private final int equalityCount;
+
+        Candidate(List<String> columns, int equalityCount) {
+            this.columns = columns;
+            this.equalityCount = equalityCount;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(this.columns, Integer.valueOf(this.equalityCount));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (obj == null) {
+                return false;
+            }
+
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+
+            Candidate other = (Candidate) obj;
+
+            return this.equalityCount == other.equalityCount && this.columns.equals(other.columns);
+        }
+    }
+
+    /**
+     * Recorded usage of an attribute.
+     */
+    private static final class AttributeUsage {
+        private final SortedMap<String, Long> conditions = new TreeMap<String, Long>();
+        private final SortedMap<SortOrder, Long> sorts = new TreeMap<SortOrder, Long>();
+        private final Usage usage = new Usage();
+
+        void recordConditions(Set<String> modes, long latency) {
+            for (String mode : modes) {
+                increment(this.conditions, mode);
+            }
+            this.usage.record(latency);
+        }
+
+        void recordSort(SortOrder order, boolean conditionRecorded, long latency) {
+            increment(this.sorts, order);
+            if (!conditionRecorded) {
+                this.usage.record(latency);
+            }
+        }
+
+        private static <K> void increment(Map<K, Long> counters, K key) {
+            Long count = counters.get(key);
+            counters.put(key, Long.valueOf(count != null ? count.longValue() + 1 : 1));
+        }
+
+        @Override
+        public String toString() {
+            return "conditions " + this.conditions + ", sorts " + this.sorts + ", queries " + this.usage.count
+                    + ", latency " + TimeUnit.NANOSECONDS.toMillis(this.usage.latency) + " ms";
+        }
+    }
+
+    private static final class Usage {
+        private long count;
+        private long latency;
+
+        void record(long queryLatency) {
+            this.count++;
+            this.latency += queryLatency;
+        }
+
+        void add(Usage other) {
+            this.count += other.count;
+            this.latency += other.latency;
+        }
+    }
+}
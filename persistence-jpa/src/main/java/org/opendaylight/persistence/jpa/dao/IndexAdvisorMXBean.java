@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa.dao;
+
+/**
+ * Management interface of {@link IndexAdvisor}: Exposes the recorded attribute usage and the index
+ * recommendations through JMX.
+ * 
+ */
+public interface IndexAdvisorMXBean {
+
+    /**
+     * Verifies whether queries are being recorded.
+     * 
+     * @return {@code true} if queries are being recorded, {@code false} otherwise
+     */
+    boolean isEnabled();
+
+    /**
+     * Enables or disables the recording of queries.
+     * 
+     * @param enabled {@code true} to record queries, {@code false} otherwise
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Gets the number of queries recorded.
+     * 
+     * @return the number of recorded queries
+     */
+    long getRecordedQueryCount();
+
+    /**
+     * Gets the usage of the entity attributes in predicates and sort specifications: One line per
+     * attribute with its condition modes, sort orders and the latency of the queries using it.
+     * 
+     * @return the attribute usage
+     */
+    String[] getAttributeUsage();
+
+    /**
+     * Gets the index recommendations as {@code CREATE INDEX} statements, ranked by the latency of
+     * the queries they would serve.
+     * 
+     * @return the recommended {@code CREATE INDEX} statements
+     */
+    String[] getCreateIndexStatements();
+
+    /**
+     * Gets the index recommendations as {@link javax.persistence.Index} annotations, ranked by the
+     * latency of the queries they would serve.
+     * 
+     * @return the recommended index annotations
+     */
+    String[] getIndexAnnotations();
+
+    /**
+     * Discards the recorded queries.
+     */
+    void reset();
+}
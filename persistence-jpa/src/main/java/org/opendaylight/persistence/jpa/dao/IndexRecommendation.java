@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Index recommended by {@link IndexAdvisor}.
+ * <p>
+ * This class is immutable.
+ * 
+ */
+public final class IndexRecommendation {
+
+    private static final Joiner COLUMN_JOINER = Joiner.on(", ");
+
+    private final Class<?> entityClass;
+    private final String table;
+    private final List<String> columns;
+    private final long queryCount;
+    private final long latency;
+
+    IndexRecommendation(Class<?> entityClass, String table, List<String> columns, long queryCount, long latency) {
+        this.entityClass = entityClass;
+        this.table = table;
+        this.columns = Collections.unmodifiableList(new ArrayList<String>(columns));
+        this.queryCount = queryCount;
+        this.latency = latency;
+    }
+
+    /**
+     * Gets the entity the index is recommended for.
+     * 
+     * @return the entity class
+     */
+    public Class<?> getEntityClass() {
+        return this.entityClass;
+    }
+
+    /**
+     * Gets the table to index.
+     * 
+     * @return the table name
+     */
+    public String getTable() {
+        return this.table;
+    }
+
+    /**
+     * Gets the columns to index in index order. Columns used in descending sort specifications are
+     * followed by {@code DESC}.
+     * 
+     * @return the columns to index
+     */
+    public List<String> getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Gets the number of recorded queries the index would serve.
+     * 
+     * @return the number of queries
+     */
+    public long getQueryCount() {
+        return this.queryCount;
+    }
+
+    /**
+     * Gets the accumulated latency of the recorded queries the index would serve.
+     * 
+     * @param unit time unit to get the latency in
+     * @return the accumulated latency
+     */
+    public long getLatency(TimeUnit unit) {
+        return unit.convert(this.latency, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the recommended index name.
+     * 
+     * @return the index name
+     */
+    public String getIndexName() {
+        StringBuilder name = new StringBuilder("idx_").append(this.table);
+        for (String column : this.columns) {
+            name.append('_').append(column.split(" ")[0]);
+        }
+        return name.toString().toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Gets the {@code CREATE INDEX} statement that creates the recommended index.
+     * 
+     * @return the {@code CREATE INDEX} statement
+     */
+    public String toCreateIndexStatement() {
+        return "CREATE INDEX " + getIndexName() + " ON " + this.table + " (" + COLUMN_JOINER.join(this.columns)
+                + ")";
+    }
+
+    /**
+     * Gets the {@link javax.persistence.Index} annotation that declares the recommended index, to be
+     * added to the {@link javax.persistence.Table} annotation of the entity.
+     * 
+     * @return the index annotation
+     */
+    public String toIndexAnnotation() {
+        return "@Index(name = \"" + getIndexName() + "\", columnList = \"" + COLUMN_JOINER.join(this.columns)
+                + "\")";
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("entityClass", this.entityClass.getName())
+                .add("table", this.table).add("columns", this.columns).add("queryCount", this.queryCount)
+                .add("latency", this.latency).toString();
+    }
+}
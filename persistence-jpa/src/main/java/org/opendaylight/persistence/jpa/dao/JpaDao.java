@@ -156,6 +156,9 @@ public abstract class JpaDao<I extends Serializable, T extends Identifiable<I>,
 		};
 
 		JpaUtil.delete(getEntityClass(), predicateProvider, context);
+		for (TrigramIndex<P> trigramIndex : getTrigramIndexes()) {
+			trigramIndex.purge(context);
+		}
 	}
 
 	/**
@@ -8,16 +8,26 @@
 package org.opendaylight.persistence.jpa.dao;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.persistence.LockModeType;
 
 import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.common.dao.ExistenceFilter;
 import org.opendaylight.persistence.dao.BaseDao;
+import org.opendaylight.persistence.dao.BatchDao;
 import org.opendaylight.persistence.dao.KeyValueDao;
+import org.opendaylight.persistence.dao.LockableDao;
 import org.opendaylight.persistence.dao.UpdateStrategy;
 import org.opendaylight.persistence.jpa.JpaContext;
 import org.opendaylight.persistence.util.common.Converter;
+import org.opendaylight.persistence.util.common.Instruction;
 import org.opendaylight.persistence.util.common.converter.CollectionConverter;
+import org.opendaylight.persistence.util.common.converter.ParallelConverter;
 import org.opendaylight.yangtools.concepts.Identifiable;
 
 import com.google.common.base.Objects;
@@ -172,13 +182,17 @@ import com.google.common.base.Preconditions;
  * @author Nachiket Abhyankar
  */
 public abstract class JpaKeyValueDao<I extends Serializable, T extends Identifiable<I>, P>
-        implements KeyValueDao<I, T, JpaContext>, Converter<P, T> {
+        implements KeyValueDao<I, T, JpaContext>, LockableDao<I, T, JpaContext>, BatchDao<I, T, JpaContext>,
+        Converter<P, T> {
 
     private final Class<P> entityClass;
 
     // UpdateStrategy is state-less, so this class remains thread safe.
     private final UpdateStrategy<P, T> updateStrategy;
 
+    // Statistics are thread safe.
+    private final AtomicLong skippedUpdateCount;
+
     /**
      * Creates a DAO.
      * 
@@ -202,6 +216,7 @@ public abstract class JpaKeyValueDao<I extends Serializable, T extends Identifia
         this.entityClass = Preconditions.checkNotNull(entityClass,
                 "entityClass");
         this.updateStrategy = updateStrategy;
+        this.skippedUpdateCount = new AtomicLong();
     }
 
     @Override
@@ -210,9 +225,45 @@ public abstract class JpaKeyValueDao<I extends Serializable, T extends Identifia
         Preconditions.checkNotNull(identifiable, "identifiable");
         P entity = create(identifiable);
         JpaUtil.persist(entity, context);
+        for (TrigramIndex<P> trigramIndex : getTrigramIndexes()) {
+            trigramIndex.add(entity, context);
+        }
+        ExistenceFilter existenceFilter = getExistenceFilter();
+        if (existenceFilter != null) {
+            existenceFilter.add(getEntityId(getId(entity)));
+        }
         return convert(entity);
     }
 
+    /**
+     * Adds the given objects. All entities are persisted before any of them is written, so the inserts are issued
+     * together when the persistence context is flushed and the JPA provider can group them in JDBC batches (For
+     * Hibernate see {@code hibernate.jdbc.batch_size} and {@code hibernate.order_inserts}; entities whose id is
+     * generated by an identity column cannot be batched).
+     */
+    @Override
+    public void addAll(Collection<T> identifiables, JpaContext context) throws PersistenceException {
+        Preconditions.checkNotNull(identifiables, "identifiables");
+        List<P> entities = new ArrayList<P>(identifiables.size());
+        for (T identifiable : identifiables) {
+            Preconditions.checkNotNull(identifiable, "identifiable");
+            P entity = create(identifiable);
+            JpaUtil.persist(entity, context);
+            entities.add(entity);
+        }
+
+        Collection<TrigramIndex<P>> trigramIndexes = getTrigramIndexes();
+        ExistenceFilter existenceFilter = getExistenceFilter();
+        for (P entity : entities) {
+            for (TrigramIndex<P> trigramIndex : trigramIndexes) {
+                trigramIndex.add(entity, context);
+            }
+            if (existenceFilter != null) {
+                existenceFilter.add(getEntityId(getId(entity)));
+            }
+        }
+    }
+
     @Override
     public T update(T identifiable, JpaContext context)
             throws PersistenceException {
@@ -229,25 +280,76 @@ public abstract class JpaKeyValueDao<I extends Serializable, T extends Identifia
         if (this.updateStrategy != null) {
             this.updateStrategy.validateWrite(entity, identifiable);
         }
+
+        if (!isModified(entity, identifiable)) {
+            this.skippedUpdateCount.incrementAndGet();
+            return identifiable;
+        }
+
+        Collection<TrigramIndex<P>> trigramIndexes = getTrigramIndexes();
+        List<String> indexedValues = getIndexedValues(entity, trigramIndexes, context);
         conform(entity, identifiable);
+        updateTrigramIndexes(entity, trigramIndexes, indexedValues, context);
         return identifiable;
     }
 
     @Override
     public void delete(I id, JpaContext context) throws PersistenceException {
         final P entity = getEntity(id, context);
+        if (entity != null) {
+            for (TrigramIndex<P> trigramIndex : getTrigramIndexes()) {
+                trigramIndex.remove(entity, context);
+            }
+        }
         JpaUtil.delete(entity, context);
+        final ExistenceFilter existenceFilter = getExistenceFilter();
+        if (existenceFilter != null) {
+            // Removing the id before commit would cause false negatives if the transaction is rolled back
+            final Object entityId = getEntityId(id);
+            context.afterCommit(new Instruction() {
+                @Override
+                public void execute() {
+                    existenceFilter.remove(entityId);
+                }
+            });
+        }
     }
 
     @Override
     public T get(I id, JpaContext context) throws PersistenceException {
         P entity = getEntity(id, context);
+        if (entity == null) {
+            return null;
+        }
+        return convert(entity);
+    }
+
+    @Override
+    public T getForUpdate(I id, JpaContext context) throws PersistenceException {
+        Preconditions.checkNotNull(id, "id");
+        P entity = JpaUtil.get(this.entityClass, getEntityId(id), LockModeType.PESSIMISTIC_WRITE, context);
+        if (entity == null) {
+            return null;
+        }
         return convert(entity);
     }
 
     @Override
     public boolean exist(I id, JpaContext context) throws PersistenceException {
-        return JpaUtil.exist(this.entityClass, getEntityId(id), context);
+        Preconditions.checkNotNull(id, "id");
+        Object entityId = getEntityId(id);
+        ExistenceFilter existenceFilter = getExistenceFilter();
+        if (existenceFilter != null) {
+            if (!existenceFilter.mightExist(entityId)) {
+                return false;
+            }
+        }
+
+        boolean exist = JpaUtil.exist(this.entityClass, entityId, context);
+        if (!exist && existenceFilter != null && existenceFilter.isPopulated()) {
+            existenceFilter.reportFalsePositive();
+        }
+        return exist;
     }
 
     @Override
@@ -263,6 +365,22 @@ public abstract class JpaKeyValueDao<I extends Serializable, T extends Identifia
     @Override
     public void clear(JpaContext context) throws PersistenceException {
         JpaUtil.delete(getEntityClass(), null, context);
+        final ExistenceFilter existenceFilter = getExistenceFilter();
+        if (existenceFilter != null) {
+            /*
+             * Clearing the filter would drop ids added by concurrent transactions, and before commit it would cause
+             * false negatives if the transaction is rolled back: The filter is disabled until populated again.
+             */
+            context.afterCommit(new Instruction() {
+                @Override
+                public void execute() {
+                    existenceFilter.invalidate();
+                }
+            });
+        }
+        for (TrigramIndex<P> trigramIndex : getTrigramIndexes()) {
+            trigramIndex.clear(context);
+        }
     }
 
     @Override
@@ -279,6 +397,32 @@ public abstract class JpaKeyValueDao<I extends Serializable, T extends Identifia
         return target;
     }
 
+    /**
+     * Populates the existence filter (See {@link #getExistenceFilter()}) from an id-only scan of the data store. This
+     * method should be executed once at startup, and again after {@link #clear(JpaContext)}; until then
+     * {@link #exist(Serializable, JpaContext)} always consults the data store. It does nothing if the DAO has no filter
+     * or if the filter is already populated.
+     * 
+     * @param context data store context
+     * @throws PersistenceException if persistence errors occur while executing the operation
+     */
+    public void populateExistenceFilter(JpaContext context) throws PersistenceException {
+        ExistenceFilter existenceFilter = getExistenceFilter();
+        if (existenceFilter != null && !existenceFilter.isPopulated()) {
+            existenceFilter.populate(JpaUtil.loadIds(this.entityClass, context));
+        }
+    }
+
+    /**
+     * Gets the number of updates skipped because the identifiable object did not modify the entity. See
+     * {@link #isModified(Object, Identifiable)}.
+     * 
+     * @return the number of skipped updates
+     */
+    public long getSkippedUpdateCount() {
+        return this.skippedUpdateCount.get();
+    }
+
     /**
      * Gets the entity class.
      * 
@@ -348,10 +492,88 @@ public abstract class JpaKeyValueDao<I extends Serializable, T extends Identifia
      * @return a list of identifiable objects
      */
     protected List<T> convert(Collection<P> entities) {
+        ParallelConverter parallelConverter = getParallelConverter();
+        if (parallelConverter != null && entities instanceof List) {
+            return parallelConverter.convert((List<P>) entities, this);
+        }
         return CollectionConverter.convert(entities, this,
                 CollectionConverter.<T> getArrayListFactory());
     }
 
+    /**
+     * Gets the converter used to convert large results in parallel. By default results are converted in the calling
+     * thread.
+     * <p>
+     * Subclasses may opt-in for parallel conversion only if {@link #doConvert(Object)} (and the
+     * {@link UpdateStrategy#validateRead(Object, Object)} of the update strategy if any) is thread safe and does not
+     * access lazily loaded entity state, since the entity manager is not thread safe.
+     * 
+     * @return the parallel converter, {@code null} to convert in the calling thread
+     */
+    protected ParallelConverter getParallelConverter() {
+        return null;
+    }
+
+    /**
+     * Gets the filter used to skip the data store when {@link #exist(Serializable, JpaContext)} looks up ids that
+     * definitely do not exist, which is the common case when storing new objects. By default no filter is used.
+     * <p>
+     * Subclasses opt-in by returning the same filter instance on every call (The DAO remains state-less; the filter is
+     * thread safe). The filter is populated at startup by {@link #populateExistenceFilter(JpaContext)} and kept current
+     * by {@link #add(Identifiable, JpaContext)}, {@link #delete(Serializable, JpaContext)} and
+     * {@link #clear(JpaContext)}; deletes are applied once the transaction commits (See
+     * {@link JpaContext#afterCommit(Instruction)}). Thus, subclasses overriding those methods must keep the filter
+     * current as well. The entity must have a single id attribute and {@link #getEntityId(Serializable)} must return
+     * values equal to the entity ids.
+     * 
+     * @return the existence filter, {@code null} to always consult the data store
+     */
+    protected ExistenceFilter getExistenceFilter() {
+        return null;
+    }
+
+    /**
+     * Gets the text indexes that allow "contains" and "ends with" conditions on string attributes to use a database
+     * index (See {@link TrigramIndex}). By default no attribute is indexed.
+     * <p>
+     * Subclasses opt-in by returning the same indexes on every call (The DAO remains state-less; indexes are thread
+     * safe) and by generating the conditions on the indexed attributes with
+     * {@link JpaQueryPredicateGenerator#getPredicate(org.opendaylight.persistence.util.common.filter.StringCondition, TrigramIndex, javax.persistence.criteria.CriteriaBuilder, javax.persistence.criteria.Root)}.
+     * Indexes are kept current by {@link #add(Identifiable, JpaContext)}, {@link #update(Identifiable, JpaContext)},
+     * {@link #delete(Serializable, JpaContext)} and {@link #clear(JpaContext)}. Thus, subclasses overriding those
+     * methods must keep the indexes current as well. The entity class must be listed along with
+     * {@link org.opendaylight.persistence.jpa.entity.TrigramEntity} in the persistence unit.
+     * 
+     * @return the trigram indexes
+     */
+    protected Collection<TrigramIndex<P>> getTrigramIndexes() {
+        return Collections.emptyList();
+    }
+
+    private static <P> List<String> getIndexedValues(P entity, Collection<TrigramIndex<P>> trigramIndexes,
+            JpaContext context) {
+        if (trigramIndexes.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> values = new ArrayList<String>(trigramIndexes.size());
+        for (TrigramIndex<P> trigramIndex : trigramIndexes) {
+            values.add(trigramIndex.getValue(entity, context));
+        }
+        return values;
+    }
+
+    private static <P> void updateTrigramIndexes(P entity, Collection<TrigramIndex<P>> trigramIndexes,
+            List<String> previousValues, JpaContext context) throws PersistenceException {
+        int i = 0;
+        for (TrigramIndex<P> trigramIndex : trigramIndexes) {
+            if (!Objects.equal(previousValues.get(i), trigramIndex.getValue(entity, context))) {
+                trigramIndex.index(entity, context);
+            }
+            i++;
+        }
+    }
+
     /**
      * Gets the Id of the entity.
      * 
@@ -370,6 +592,27 @@ public abstract class JpaKeyValueDao<I extends Serializable, T extends Identifia
      */
     protected abstract P create(T identifiable);
 
+    /**
+     * Verifies whether the identifiable object carries changes to the entity. This method is called from
+     * {@link #update(Identifiable, JpaContext)} before {@link #conform(Object, Identifiable)}: If it returns
+     * {@code false} the entity is not touched, thus no update statement is issued and the entity version (if any) is
+     * not incremented.
+     * <p>
+     * By default the entity is assumed to be modified. Subclasses should compare every attribute written by
+     * {@link #conform(Object, Identifiable)}. To limit update statements to the modified columns annotate the entity
+     * with {@link org.hibernate.annotations.DynamicUpdate}.
+     * 
+     * @param target
+     *            managed entity
+     * @param source
+     *            object to take the data from
+     * @return {@code true} if {@link #conform(Object, Identifiable)} would modify {@code target}, {@code false}
+     *         otherwise
+     */
+    protected boolean isModified(P target, T source) {
+        return true;
+    }
+
     /**
      * Synchronizes the identifiable object and the entity state. This method is called from
      * {@link #update(Identifiable, JpaContext)}, thus if {@link #update(Identifiable, JpaContext)} is overwritten this
@@ -114,6 +114,6 @@ public abstract class JpaOffsetPageDao<I extends Serializable, T extends Identif
             throws IndexOutOfBoundsException, PersistenceException {
         OffsetPage<P> entitiesPage = findEntities(filter, sortSpecification,
                 pageRequest, context);
-        return entitiesPage.convert(this);
+        return entitiesPage.convert(this, getParallelConverter());
     }
 }
@@ -8,12 +8,18 @@
 package org.opendaylight.persistence.jpa.dao;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 
+import javax.persistence.criteria.AbstractQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaBuilder.In;
+import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Predicate.BooleanOperator;
 import javax.persistence.criteria.Root;
 import javax.persistence.metamodel.SingularAttribute;
 
@@ -24,11 +30,18 @@ import org.opendaylight.persistence.util.common.filter.SetCondition;
 import org.opendaylight.persistence.util.common.filter.StringCondition;
 import org.opendaylight.persistence.util.common.filter.TimePeriodCondition;
 import org.opendaylight.persistence.util.common.type.Interval;
+import org.opendaylight.persistence.util.common.type.IntervalSet;
 
+import com.google.common.collect.MapMaker;
 
 
 /**
  * Query predicate generator.
+ * <p>
+ * Logical operators ({@link #and(CriteriaBuilder, Predicate...)}, {@link #or(CriteriaBuilder, Predicate...)} and
+ * {@link #not(CriteriaBuilder, Predicate)}) normalize their operands: nested conjunctions and disjunctions are
+ * flattened, tautologies and contradictions generated by this class are folded, so a filter that is provably empty can
+ * be detected with {@link #isContradiction(Predicate)} before hitting the database.
  * 
  * @param <P>
  *            type of the entity (an object annotated with {@link javax.persistence.Entity})
@@ -39,6 +52,7 @@ import org.opendaylight.persistence.util.common.type.Interval;
 public class JpaQueryPredicateGenerator<P> {
 
     private static final String SQL_WILDCARD = "%";
+    private static final String SQL_SINGLE_CHARACTER_WILDCARD = "_";
 
     /*
      * NOTE: There are several ways of implementing the singleton pattern, some of them more secure than others
@@ -49,6 +63,15 @@ public class JpaQueryPredicateGenerator<P> {
     @SuppressWarnings("rawtypes")
     private static final JpaQueryPredicateGenerator INSTANCE = new JpaQueryPredicateGenerator();
 
+    /*
+     * Criteria API predicates are opaque and providers represent constants differently, so the constants generated by
+     * this class are tracked by identity. Weak keys are used so predicates are released once their query is discarded.
+     */
+    private final Set<Predicate> tautologies = Collections.newSetFromMap(new MapMaker().weakKeys()
+            .<Predicate, Boolean> makeMap());
+    private final Set<Predicate> contradictions = Collections.newSetFromMap(new MapMaker().weakKeys()
+            .<Predicate, Boolean> makeMap());
+
     private JpaQueryPredicateGenerator() {
 
     }
@@ -72,7 +95,9 @@ public class JpaQueryPredicateGenerator<P> {
      */
     public Predicate getTautology(CriteriaBuilder builder) {
         // Negation of disjunction is not working with EclipseLink, it produces the same result.
-        return builder.not(getContradiction(builder));
+        Predicate tautology = builder.not(builder.disjunction());
+        this.tautologies.add(tautology);
+        return tautology;
     }
 
     /**
@@ -83,7 +108,34 @@ public class JpaQueryPredicateGenerator<P> {
      * @return a predicate that is false
      */
     public Predicate getContradiction(CriteriaBuilder builder) {
-        return builder.disjunction();
+        Predicate contradiction = builder.disjunction();
+        this.contradictions.add(contradiction);
+        return contradiction;
+    }
+
+    /**
+     * Verifies whether a predicate is known to be true. Only {@code null} predicates and the tautologies generated by
+     * this class are recognized.
+     *
+     * @param predicate
+     *            predicate to verify
+     * @return {@code true} if {@code predicate} is a tautology, {@code false} if it is unknown
+     */
+    public boolean isTautology(Predicate predicate) {
+        return predicate == null || this.tautologies.contains(predicate);
+    }
+
+    /**
+     * Verifies whether a predicate is known to be false. Only the contradictions generated by this class (directly or
+     * as the result of folding logical operators) are recognized. Queries whose predicate is a contradiction can be
+     * answered without accessing the database.
+     *
+     * @param predicate
+     *            predicate to verify
+     * @return {@code true} if {@code predicate} is a contradiction, {@code false} if it is unknown
+     */
+    public boolean isContradiction(Predicate predicate) {
+        return predicate != null && this.contradictions.contains(predicate);
     }
 
     /**
@@ -98,14 +150,26 @@ public class JpaQueryPredicateGenerator<P> {
      * @return the result of the logical disjunction
      */
     public Predicate and(CriteriaBuilder builder, Predicate... predicates) {
-        List<Predicate> nonNullPredicates = new ArrayList<Predicate>(
-                predicates.length);
+        List<Predicate> operands = new ArrayList<Predicate>(predicates.length);
         for (Predicate predicate : predicates) {
-            if (predicate != null) {
-                nonNullPredicates.add(predicate);
+            if (isContradiction(predicate)) {
+                return getContradiction(builder);
             }
+
+            if (!isTautology(predicate)) {
+                flatten(predicate, BooleanOperator.AND, operands);
+            }
+        }
+
+        if (operands.isEmpty()) {
+            return getTautology(builder);
+        }
+
+        if (operands.size() == 1) {
+            return operands.get(0);
         }
-        return builder.and(nonNullPredicates.toArray(new Predicate[0]));
+
+        return builder.and(operands.toArray(new Predicate[operands.size()]));
     }
 
     /**
@@ -120,19 +184,35 @@ public class JpaQueryPredicateGenerator<P> {
      * @return the result of the logical conjunction
      */
     public Predicate or(CriteriaBuilder builder, Predicate... predicates) {
+        List<Predicate> operands = new ArrayList<Predicate>(predicates.length);
         for (Predicate predicate : predicates) {
-            if (predicate == null) {
+            if (isTautology(predicate)) {
                 return getTautology(builder);
             }
+
+            if (!isContradiction(predicate)) {
+                flatten(predicate, BooleanOperator.OR, operands);
+            }
+        }
+
+        if (operands.isEmpty()) {
+            return getContradiction(builder);
+        }
+
+        if (operands.size() == 1) {
+            return operands.get(0);
         }
 
-        return builder.or(predicates);
+        return builder.or(operands.toArray(new Predicate[operands.size()]));
     }
 
     /**
      * Different providers might treat {@code null} predicates differently (EclipseLink and Hibernate do). This is a
      * convenient method to unify such behavior. In this implementation a {@code null} predicate represents a tautology
      * (it is considered {@code true}).
+     * <p>
+     * The negation of a conjunction or disjunction is pushed down to its operands (De Morgan's laws), so constants
+     * found in the operands are folded.
      * 
      * @param builder
      *            criteria builder
@@ -141,10 +221,23 @@ public class JpaQueryPredicateGenerator<P> {
      * @return the result of the logical negation
      */
     public Predicate not(CriteriaBuilder builder, Predicate predicate) {
-        if (predicate == null) {
+        if (isTautology(predicate)) {
             return getContradiction(builder);
         }
 
+        if (isContradiction(predicate)) {
+            return getTautology(builder);
+        }
+
+        List<Predicate> operands = getOperands(predicate);
+        if (operands != null) {
+            Predicate[] negated = new Predicate[operands.size()];
+            for (int i = 0; i < negated.length; i++) {
+                negated[i] = not(builder, operands.get(i));
+            }
+            return predicate.getOperator() == BooleanOperator.AND ? or(builder, negated) : and(builder, negated);
+        }
+
         return builder.not(predicate);
     }
 
@@ -168,6 +261,8 @@ public class JpaQueryPredicateGenerator<P> {
             return getTautology(builder);
         }
 
+        IndexAdvisor.getInstance().recordCondition(attribute, condition);
+
         Predicate predicate = null;
 
         switch (condition.getMode()) {
@@ -214,6 +309,8 @@ public class JpaQueryPredicateGenerator<P> {
             return getTautology(builder);
         }
 
+        IndexAdvisor.getInstance().recordCondition(attribute, condition);
+
         Predicate predicate = null;
 
         switch (condition.getMode()) {
@@ -265,11 +362,18 @@ public class JpaQueryPredicateGenerator<P> {
 
         Interval<D> interval = condition.getValue();
 
-        if (condition.getMode() == IntervalCondition.Mode.NOT_IN
-                && interval.getType() == Interval.Type.UNBOUNDED) {
-            return getContradiction(builder);
+        if (interval.getType() == Interval.Type.UNBOUNDED) {
+            return condition.getMode() == IntervalCondition.Mode.IN ? getTautology(builder)
+                    : getContradiction(builder);
+        }
+
+        if (IntervalSet.of(interval).isEmpty()) {
+            return condition.getMode() == IntervalCondition.Mode.IN ? getContradiction(builder)
+                    : getTautology(builder);
         }
 
+        IndexAdvisor.getInstance().recordCondition(attribute, condition);
+
         Predicate predicate = null;
         Predicate rightSideOfInterval = null;
         Predicate leftSideOfInterval = null;
@@ -333,13 +437,74 @@ public class JpaQueryPredicateGenerator<P> {
                 // Nothing to do
                 break;
             case NOT_IN:
-                predicate = builder.not(predicate);
+                predicate = not(builder, predicate);
                 break;
         }
 
         return predicate;
     }
 
+    /**
+     * Generates predicates to satisfy all the given interval conditions, which are applied to the same attribute.
+     * <p>
+     * Conditions are merged before generating the predicate: {@link IntervalCondition.Mode#IN} intervals are
+     * intersected, overlapping {@link IntervalCondition.Mode#NOT_IN} intervals are joined and the ones not intersecting
+     * the {@link IntervalCondition.Mode#IN} interval are dropped. A contradiction is returned if no value can satisfy
+     * all conditions.
+     *
+     * @param conditions
+     *            conditions to apply, {@code null} elements are ignored
+     * @param attribute
+     *            JPA entity attribute (table column)
+     * @param builder
+     *            criteriaBuider object for creating the predicate
+     * @param root
+     *            the root element type of the table
+     * @return predicates to use in a query
+     */
+    public <D extends Comparable<D>> Predicate getPredicate(
+            Collection<IntervalCondition<D>> conditions,
+            SingularAttribute<? super P, D> attribute, CriteriaBuilder builder,
+            Root<P> root) {
+        if (conditions == null) {
+            return getTautology(builder);
+        }
+
+        Interval<D> in = Interval.unbounded();
+        List<Interval<D>> notIn = new ArrayList<Interval<D>>();
+
+        for (IntervalCondition<D> condition : conditions) {
+            if (condition == null) {
+                continue;
+            }
+
+            if (condition.getMode() == IntervalCondition.Mode.IN) {
+                in = in.intersection(condition.getValue());
+                if (in == null) {
+                    return getContradiction(builder);
+                }
+            } else {
+                notIn.add(condition.getValue());
+            }
+        }
+
+        // Normalization joins overlapping intervals
+        IntervalSet<D> excluded = IntervalSet.of(notIn);
+        if (excluded.encloses(in)) {
+            return getContradiction(builder);
+        }
+
+        List<Predicate> predicates = new ArrayList<Predicate>(excluded.getIntervals().size() + 1);
+        predicates.add(getPredicate(IntervalCondition.in(in), attribute, builder, root));
+        for (Interval<D> interval : excluded.getIntervals()) {
+            if (interval.overlaps(in)) {
+                predicates.add(getPredicate(IntervalCondition.notIn(interval), attribute, builder, root));
+            }
+        }
+
+        return and(builder, predicates.toArray(new Predicate[predicates.size()]));
+    }
+
     /**
      * Generates predicates to satisfy the given time period condition.
      * <p>
@@ -395,6 +560,12 @@ public class JpaQueryPredicateGenerator<P> {
             return getTautology(builder);
         }
 
+        if (condition.getValues().isEmpty()) {
+            return condition.getMode() == SetCondition.Mode.IN ? getContradiction(builder) : getTautology(builder);
+        }
+
+        IndexAdvisor.getInstance().recordCondition(attribute, condition);
+
         Predicate predicate = null;
 
         In<D> in = builder.in(root.get(attribute));
@@ -406,7 +577,7 @@ public class JpaQueryPredicateGenerator<P> {
                 predicate = in;
                 break;
             case NOT_IN:
-                predicate = builder.not(in);
+                predicate = not(builder, in);
                 break;
         }
 
@@ -433,6 +604,8 @@ public class JpaQueryPredicateGenerator<P> {
             return getTautology(builder);
         }
 
+        IndexAdvisor.getInstance().recordCondition(attribute, condition);
+
         Predicate predicate = null;
 
         switch (condition.getMode()) {
@@ -468,4 +641,91 @@ public class JpaQueryPredicateGenerator<P> {
 
         return predicate;
     }
+
+    /**
+     * Generates predicates to satisfy the given string condition using a text index if possible.
+     * <p>
+     * {@link StringCondition.Mode#CONTAINS} and {@link StringCondition.Mode#ENDS_WITH} conditions are rewritten as a
+     * lookup in the index (which selects a superset of the matching entities) plus the original {@code LIKE} as the
+     * verification step. The index is used if the searched value has at least {@value TrigramIndex#TRIGRAM_LENGTH}
+     * characters and no SQL wildcards, and if the query is built by {@link JpaUtil} (The lookup is a sub-query).
+     * Otherwise the generated predicate is the same as
+     * {@link #getPredicate(StringCondition, SingularAttribute, CriteriaBuilder, Root)}.
+     * 
+     * @param condition
+     *            condition to apply
+     * @param index
+     *            text index of the attribute the condition is applied to
+     * @param builder
+     *            criteriaBuider object for creating the predicate
+     * @param root
+     *            the root element type of the table
+     * @return predicates to use in a query
+     */
+    public Predicate getPredicate(StringCondition condition, TrigramIndex<P> index, CriteriaBuilder builder,
+            Root<P> root) {
+        Predicate predicate = getPredicate(condition, index.getAttribute(root), builder, root);
+        if (condition == null || condition.getValue() == null) {
+            return predicate;
+        }
+
+        if (condition.getMode() != StringCondition.Mode.CONTAINS
+                && condition.getMode() != StringCondition.Mode.ENDS_WITH) {
+            return predicate;
+        }
+
+        // Wildcards in the value are honored by LIKE, thus the value is not a literal substring
+        String value = condition.getValue();
+        if (value.contains(SQL_WILDCARD) || value.contains(SQL_SINGLE_CHARACTER_WILDCARD)) {
+            return predicate;
+        }
+
+        List<String> trigrams = new ArrayList<String>(TrigramIndex.getTrigrams(value));
+        AbstractQuery<?> query = JpaUtil.getCurrentQuery(root);
+        if (trigrams.isEmpty() || query == null) {
+            return predicate;
+        }
+
+        if (trigrams.size() > TrigramIndex.MAX_LOOKUP_TRIGRAMS) {
+            trigrams = trigrams.subList(0, TrigramIndex.MAX_LOOKUP_TRIGRAMS);
+        }
+
+        return and(builder, index.getLookupPredicate(trigrams, builder, query, root), predicate);
+    }
+
+    /**
+     * Adds the operands of {@code predicate} to {@code operands} if it is a non-negated junction of the given operator,
+     * or {@code predicate} itself otherwise.
+     */
+    private static void flatten(Predicate predicate, BooleanOperator operator, List<Predicate> operands) {
+        List<Predicate> junctionOperands = predicate.getOperator() == operator ? getOperands(predicate) : null;
+        if (junctionOperands == null) {
+            operands.add(predicate);
+            return;
+        }
+
+        for (Predicate operand : junctionOperands) {
+            flatten(operand, operator, operands);
+        }
+    }
+
+    /**
+     * Gets the operands of {@code predicate} if it is a non-negated, non-empty junction of predicates, {@code null}
+     * otherwise.
+     */
+    private static List<Predicate> getOperands(Predicate predicate) {
+        List<Expression<Boolean>> expressions = predicate.getExpressions();
+        if (predicate.isNegated() || expressions == null || expressions.isEmpty()) {
+            return null;
+        }
+
+        List<Predicate> operands = new ArrayList<Predicate>(expressions.size());
+        for (Expression<Boolean> expression : expressions) {
+            if (!(expression instanceof Predicate)) {
+                return null;
+            }
+            operands.add((Predicate) expression);
+        }
+        return operands;
+    }
 }
@@ -11,13 +11,17 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import javax.persistence.TypedQuery;
+import javax.persistence.criteria.AbstractQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Order;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.EntityType;
 import javax.persistence.metamodel.SingularAttribute;
 
 import org.opendaylight.persistence.PersistenceException;
@@ -35,6 +39,12 @@ import com.google.common.base.Preconditions;
  */
 public final class JpaUtil {
 
+    /*
+     * PredicateProvider only receives the query root, so the query being built by the current thread is tracked to
+     * allow predicates based on sub-queries (See getCurrentQuery(Root)).
+     */
+    private static final ThreadLocal<AbstractQuery<?>> CURRENT_QUERY = new ThreadLocal<AbstractQuery<?>>();
+
     private JpaUtil() {
 
     }
@@ -83,6 +93,33 @@ public final class JpaUtil {
         }
     }
 
+    /**
+     * Loads an entity and locks it.
+     * 
+     * @param entityClass
+     *            class of the object annotated with {@link javax.persistence.Entity}
+     * @param id
+     *            entity's id
+     * @param lockMode
+     *            lock mode
+     * @param context
+     *            data store context
+     * @return the entity if found, {@code null} otherwise
+     * @throws PersistenceException
+     *             if persistence errors occur while executing the operation
+     */
+    public static <P, I> P get(Class<P> entityClass, I id, LockModeType lockMode, JpaContext context)
+            throws PersistenceException {
+        Preconditions.checkNotNull(id, "id");
+        Preconditions.checkNotNull(lockMode, "lockMode");
+
+        try {
+            return context.getEntityManager().find(entityClass, id, lockMode);
+        } catch (Exception e) {
+            throw new PersistenceException("Unable to find and lock entity", e);
+        }
+    }
+
     /**
      * Updates a detached entity. To update an attached entity it is only required to set the new values for its
      * attributes; JPA will update it automatically in the database as long as it is attached.
@@ -161,6 +198,39 @@ public final class JpaUtil {
         return find(entityClass, null, null, context);
     }
 
+    /**
+     * Loads the ids of all entities without loading the entities.
+     * 
+     * @param entityClass
+     *            class of the object annotated with {@link javax.persistence.Entity}. The entity must have a single id
+     *            attribute (either basic or {@link javax.persistence.EmbeddedId}).
+     * @param context
+     *            data store context
+     * @return the ids of all the entities from the database
+     * @throws PersistenceException
+     *             if persistence errors occur while executing the operation
+     */
+    public static <P> List<Object> loadIds(Class<P> entityClass,
+            JpaContext context) throws PersistenceException {
+        Preconditions.checkNotNull(entityClass, "entityClass");
+
+        EntityManager entityManager = context.getEntityManager();
+        EntityType<P> entityType = entityManager.getMetamodel().entity(entityClass);
+        Preconditions.checkArgument(entityType.hasSingleIdAttribute(),
+                "entityClass must have a single id attribute: " + entityClass.getName());
+        SingularAttribute<? super P, ?> idAttribute = entityType.getId(entityType.getIdType().getJavaType());
+
+        try {
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Object> query = builder.createQuery(Object.class);
+            Root<P> root = query.from(entityClass);
+            query.select(root.get(idAttribute));
+            return entityManager.createQuery(query).getResultList();
+        } catch (Exception e) {
+            throw new PersistenceException("Unable to load ids", e);
+        }
+    }
+
     /**
      * Returns the number of entities in the database.
      * 
@@ -183,7 +253,9 @@ public final class JpaUtil {
      * @param entityClass
      *            class of the object annotated with {@link javax.persistence.Entity}
      * @param predicateProvider
-     *            predicate provider, {@code null} to consider all entities
+     *            predicate provider, {@code null} to consider all entities. If the provided predicate is a
+     *            contradiction (See {@link JpaQueryPredicateGenerator#isContradiction(Predicate)}) the database is not
+     *            accessed
      * @param sortSpecification
      *            sort specification
      * @param context
@@ -203,29 +275,37 @@ public final class JpaUtil {
                 .createQuery(entityClass);
         Root<P> root = criteriaQuery.from(entityClass);
 
-        if (predicateProvider != null) {
-            Predicate predicate = predicateProvider.getPredicate(
-                    criteriaBuilder, root);
-            if (predicate != null) {
-                criteriaQuery.where(predicate);
+        IndexAdvisor.QueryRecord queryRecord = IndexAdvisor.getInstance().beginQuery(root);
+        try {
+            if (predicateProvider != null) {
+                Predicate predicate = getPredicate(predicateProvider,
+                        criteriaBuilder, criteriaQuery, root);
+                if (isContradiction(predicate)) {
+                    return new ArrayList<P>(0);
+                }
+                if (predicate != null) {
+                    criteriaQuery.where(predicate);
+                }
             }
-        }
 
-        if (sortSpecification != null) {
-            List<Order> queryOrder = getOrder(sortSpecification,
-                    criteriaBuilder, root);
-            if (queryOrder != null && !queryOrder.isEmpty()) {
-                criteriaQuery.orderBy(queryOrder);
+            if (sortSpecification != null) {
+                List<Order> queryOrder = getOrder(sortSpecification,
+                        criteriaBuilder, root);
+                if (queryOrder != null && !queryOrder.isEmpty()) {
+                    criteriaQuery.orderBy(queryOrder);
+                }
             }
-        }
 
-        try {
-            TypedQuery<P> typedQuery = context.getEntityManager().createQuery(
-                    criteriaQuery);
-            List<P> entities = typedQuery.getResultList();
-            return entities;
-        } catch (Exception e) {
-            throw new PersistenceException("Unable to find entities", e);
+            try {
+                TypedQuery<P> typedQuery = context.getEntityManager().createQuery(
+                        criteriaQuery);
+                List<P> entities = typedQuery.getResultList();
+                return entities;
+            } catch (Exception e) {
+                throw new PersistenceException("Unable to find entities", e);
+            }
+        } finally {
+            IndexAdvisor.getInstance().endQuery(queryRecord);
         }
     }
 
@@ -250,22 +330,31 @@ public final class JpaUtil {
         CriteriaQuery<Long> criteriaQuery = criteriaBuilder
                 .createQuery(Long.class);
         Root<P> root = criteriaQuery.from(entityClass);
-        if (predicateProvider != null) {
-            Predicate predicate = predicateProvider.getPredicate(
-                    criteriaBuilder, root);
-            if (predicate != null) {
-                criteriaQuery.where(predicate);
+
+        IndexAdvisor.QueryRecord queryRecord = IndexAdvisor.getInstance().beginQuery(root);
+        try {
+            if (predicateProvider != null) {
+                Predicate predicate = getPredicate(predicateProvider,
+                        criteriaBuilder, criteriaQuery, root);
+                if (isContradiction(predicate)) {
+                    return 0;
+                }
+                if (predicate != null) {
+                    criteriaQuery.where(predicate);
+                }
             }
-        }
 
-        criteriaQuery.select(criteriaBuilder.count(root));
+            criteriaQuery.select(criteriaBuilder.count(root));
 
-        try {
-            Long count = context.getEntityManager().createQuery(criteriaQuery)
-                    .getSingleResult();
-            return count.longValue();
-        } catch (Exception e) {
-            throw new PersistenceException("Unable to count entities", e);
+            try {
+                Long count = context.getEntityManager().createQuery(criteriaQuery)
+                        .getSingleResult();
+                return count.longValue();
+            } catch (Exception e) {
+                throw new PersistenceException("Unable to count entities", e);
+            }
+        } finally {
+            IndexAdvisor.getInstance().endQuery(queryRecord);
         }
     }
 
@@ -293,6 +382,7 @@ public final class JpaUtil {
             throws PersistenceException {
         Preconditions.checkNotNull(pageRequest, "pageRequest");
 
+        // A contradiction makes count return 0 without accessing the database, so no page is queried either.
         long totalRecords = count(entityClass, predicateProvider, context);
 
         /*
@@ -314,34 +404,39 @@ public final class JpaUtil {
                     .createQuery(entityClass);
             Root<P> root = criteriaQuery.from(entityClass);
 
-            if (predicateProvider != null) {
-                Predicate predicate = predicateProvider.getPredicate(
-                        criteriaBuilder, root);
-                if (predicate != null) {
-                    criteriaQuery.where(predicate);
+            IndexAdvisor.QueryRecord queryRecord = IndexAdvisor.getInstance().beginQuery(root);
+            try {
+                if (predicateProvider != null) {
+                    Predicate predicate = getPredicate(predicateProvider,
+                            criteriaBuilder, criteriaQuery, root);
+                    if (predicate != null) {
+                        criteriaQuery.where(predicate);
+                    }
                 }
-            }
 
-            if (sortSpecification != null) {
-                List<Order> queryOrder = getOrder(sortSpecification,
-                        criteriaBuilder, root);
-                if (queryOrder != null && !queryOrder.isEmpty()) {
-                    criteriaQuery.orderBy(queryOrder);
+                if (sortSpecification != null) {
+                    List<Order> queryOrder = getOrder(sortSpecification,
+                            criteriaBuilder, root);
+                    if (queryOrder != null && !queryOrder.isEmpty()) {
+                        criteriaQuery.orderBy(queryOrder);
+                    }
                 }
-            }
 
-            try {
-                TypedQuery<P> typedQuery = context.getEntityManager()
-                        .createQuery(criteriaQuery);
+                try {
+                    TypedQuery<P> typedQuery = context.getEntityManager()
+                            .createQuery(criteriaQuery);
 
-                typedQuery.setFirstResult(offset);
-                typedQuery.setMaxResults(pageRequest.getSize());
+                    typedQuery.setFirstResult(offset);
+                    typedQuery.setMaxResults(pageRequest.getSize());
 
-                List<P> results = typedQuery.getResultList();
+                    List<P> results = typedQuery.getResultList();
 
-                return new OffsetPage<P>(pageRequest, results, totalRecords);
-            } catch (Exception e) {
-                throw new PersistenceException("Unable to find entities", e);
+                    return new OffsetPage<P>(pageRequest, results, totalRecords);
+                } catch (Exception e) {
+                    throw new PersistenceException("Unable to find entities", e);
+                }
+            } finally {
+                IndexAdvisor.getInstance().endQuery(queryRecord);
             }
         }
 
@@ -378,6 +473,49 @@ public final class JpaUtil {
         } while (!page.isEmpty());
     }
 
+    /**
+     * Gets the query being built by the current thread from the given root. This allows predicate generators to create
+     * sub-queries.
+     * 
+     * @param root
+     *            query root passed to a {@link PredicateProvider}
+     * @return the query {@code root} belongs to if it is being built by the current thread through this class,
+     *         {@code null} otherwise
+     */
+    static AbstractQuery<?> getCurrentQuery(Root<?> root) {
+        AbstractQuery<?> query = CURRENT_QUERY.get();
+        if (query != null && query.getRoots().contains(root)) {
+            return query;
+        }
+        return null;
+    }
+
+    private static <P> Predicate getPredicate(PredicateProvider<P> predicateProvider,
+            CriteriaBuilder criteriaBuilder, AbstractQuery<?> query, Root<P> root) {
+        AbstractQuery<?> previousQuery = CURRENT_QUERY.get();
+        CURRENT_QUERY.set(query);
+        try {
+            return predicateProvider.getPredicate(criteriaBuilder, root);
+        } finally {
+            if (previousQuery != null) {
+                CURRENT_QUERY.set(previousQuery);
+            } else {
+                CURRENT_QUERY.remove();
+            }
+        }
+    }
+
+    /**
+     * Verifies whether a predicate is known to be false, in which case there is no need to access the database.
+     * 
+     * @param predicate
+     *            predicate to verify
+     * @return {@code true} if {@code predicate} is a contradiction
+     */
+    private static boolean isContradiction(Predicate predicate) {
+        return JpaQueryPredicateGenerator.getInstance().isContradiction(predicate);
+    }
+
     private static <P> List<Order> getOrder(
             List<Sort<SingularAttribute<? super P, ?>>> sortSpecification,
             CriteriaBuilder criteriaBuilder, Root<? extends P> root) {
@@ -385,6 +523,7 @@ public final class JpaUtil {
 
         for (Sort<SingularAttribute<? super P, ?>> sortComponent : sortSpecification) {
             if (sortComponent != null) {
+                IndexAdvisor.getInstance().recordSort(sortComponent.by(), sortComponent.order());
                 Path<?> path = root.get(sortComponent.by());
                 switch (sortComponent.order()) {
                     case ASCENDING:
@@ -0,0 +1,349 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa.dao;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.AbstractQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.jpa.JpaContext;
+import org.opendaylight.persistence.jpa.entity.TrigramEntity;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Text index that allows {@link org.opendaylight.persistence.util.common.filter.StringCondition.Mode#CONTAINS} and
+ * {@link org.opendaylight.persistence.util.common.filter.StringCondition.Mode#ENDS_WITH} conditions on a string
+ * attribute to use a database index.
+ * <p>
+ * Such conditions are translated to {@code LIKE '%x%'} and {@code LIKE '%x'} which cannot use a B-tree index, thus
+ * they are always evaluated by a full table scan. This index keeps the distinct trigrams (substrings of three
+ * characters) of the attribute value of every entity in a side table ({@link TrigramEntity}), so an entity whose value
+ * contains the searched value must have all the trigrams of the searched value. The lookup of trigrams is an index
+ * range scan and it produces a superset of the matching entities, which is then verified by the original
+ * {@code LIKE} (Trigrams are case insensitive and the lookup does not consider the position of the trigrams).
+ * <p>
+ * The DAO maintains the index: See {@link JpaKeyValueDao#getTrigramIndexes()}. Queries use it when the condition is
+ * generated by {@link JpaQueryPredicateGenerator#getPredicate(org.opendaylight.persistence.util.common.filter.StringCondition, TrigramIndex, CriteriaBuilder, Root)}
+ * and the searched value has at least {@value #TRIGRAM_LENGTH} characters.
+ * <p>
+ * Entries are keyed by the id of the owner entity converted to string, thus the entity must have a single id
+ * attribute. If the id is not a string, the lookup compares the id cast to string.
+ * <p>
+ * This class is thread safe.
+ * 
+ * @param <P>
+ *            type of the entity (an object annotated with {@link javax.persistence.Entity})
+ */
+public final class TrigramIndex<P> {
+
+    /**
+     * Length of the substrings kept by the index.
+     */
+    public static final int TRIGRAM_LENGTH = 3;
+
+    // A long searched value would generate a long IN list, a subset of its trigrams is selective enough
+    static final int MAX_LOOKUP_TRIGRAMS = 16;
+
+    private static final String INDEX_NAME = "indexName";
+    private static final String OWNER_KEY = "ownerKey";
+    private static final String TRIGRAM = "trigram";
+
+    private final Class<P> entityClass;
+    private final String attributeName;
+    private final String name;
+
+    /**
+     * Creates a trigram index.
+     * 
+     * @param entityClass
+     *            class of the object annotated with {@link javax.persistence.Entity}
+     * @param attributeName
+     *            name of the string attribute to index. The name is used instead of the
+     *            {@link SingularAttribute} because the static metamodel is not populated until the persistence unit is
+     *            created
+     */
+    public TrigramIndex(Class<P> entityClass, String attributeName) {
+        this.entityClass = Preconditions.checkNotNull(entityClass, "entityClass");
+        this.attributeName = Preconditions.checkNotNull(attributeName, "attributeName");
+        this.name = entityClass.getSimpleName() + "." + attributeName;
+    }
+
+    /**
+     * Gets the index name: The value that distinguishes the entries of this index in the side table.
+     * 
+     * @return the index name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the name of the indexed attribute.
+     * 
+     * @return the attribute name
+     */
+    public String getAttributeName() {
+        return this.attributeName;
+    }
+
+    /**
+     * Gets the distinct trigrams of a value. Trigrams are made of code points, so supplementary characters (Encoded as
+     * two {@code char}) are not split. Code points are converted to lower case one by one so the trigrams of a
+     * substring are always trigrams of the value (Unlike {@link String#toLowerCase()}, which may change the length of
+     * the value).
+     * 
+     * @param value
+     *            value
+     * @return the distinct trigrams of {@code value}, an empty set if {@code value} is {@code null} or shorter than
+     *         {@value #TRIGRAM_LENGTH} code points
+     */
+    public static Set<String> getTrigrams(String value) {
+        Set<String> trigrams = new LinkedHashSet<String>();
+        if (value == null || value.codePointCount(0, value.length()) < TRIGRAM_LENGTH) {
+            return trigrams;
+        }
+
+        int[] codePoints = new int[value.codePointCount(0, value.length())];
+        for (int i = 0, offset = 0; i < codePoints.length; i++) {
+            int codePoint = value.codePointAt(offset);
+            codePoints[i] = Character.toLowerCase(codePoint);
+            offset += Character.charCount(codePoint);
+        }
+
+        for (int i = 0; i + TRIGRAM_LENGTH <= codePoints.length; i++) {
+            trigrams.add(new String(codePoints, i, TRIGRAM_LENGTH));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Adds the entries of a newly persisted entity. Unlike {@link #index(Object, JpaContext)} existing entries are not
+     * deleted, since a new entity has none: This avoids a bulk delete per added entity.
+     * 
+     * @param entity
+     *            entity to index
+     * @param context
+     *            data store context
+     * @throws PersistenceException
+     *             if persistence errors occur while executing the operation
+     */
+    public void add(P entity, JpaContext context) throws PersistenceException {
+        Preconditions.checkNotNull(entity, "entity");
+        EntityManager entityManager = context.getEntityManager();
+        try {
+            addEntries(entity, getOwnerKey(entity, entityManager), context);
+        } catch (Exception e) {
+            throw new PersistenceException("Unable to update index " + this.name, e);
+        }
+    }
+
+    /**
+     * Updates the entries of an entity. This method must be called after the indexed attribute is modified; for newly
+     * persisted entities use {@link #add(Object, JpaContext)}.
+     * 
+     * @param entity
+     *            entity to index
+     * @param context
+     *            data store context
+     * @throws PersistenceException
+     *             if persistence errors occur while executing the operation
+     */
+    public void index(P entity, JpaContext context) throws PersistenceException {
+        Preconditions.checkNotNull(entity, "entity");
+        EntityManager entityManager = context.getEntityManager();
+        String ownerKey = getOwnerKey(entity, entityManager);
+        try {
+            deleteEntries(ownerKey, entityManager);
+            addEntries(entity, ownerKey, context);
+        } catch (Exception e) {
+            throw new PersistenceException("Unable to update index " + this.name, e);
+        }
+    }
+
+    /**
+     * Removes the entries of an entity. This method must be called before the entity is deleted.
+     * 
+     * @param entity
+     *            entity to remove
+     * @param context
+     *            data store context
+     * @throws PersistenceException
+     *             if persistence errors occur while executing the operation
+     */
+    public void remove(P entity, JpaContext context) throws PersistenceException {
+        Preconditions.checkNotNull(entity, "entity");
+        EntityManager entityManager = context.getEntityManager();
+        try {
+            deleteEntries(getOwnerKey(entity, entityManager), entityManager);
+        } catch (Exception e) {
+            throw new PersistenceException("Unable to update index " + this.name, e);
+        }
+    }
+
+    /**
+     * Removes the entries of the entities that no longer exist. This method should be called after entities are
+     * deleted by other means than {@link #remove(Object, JpaContext)}, like a bulk delete.
+     * 
+     * @param context
+     *            data store context
+     * @throws PersistenceException
+     *             if persistence errors occur while executing the operation
+     */
+    public void purge(JpaContext context) throws PersistenceException {
+        EntityManager entityManager = context.getEntityManager();
+        try {
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaDelete<TrigramEntity> delete = builder.createCriteriaDelete(TrigramEntity.class);
+            Root<TrigramEntity> entry = delete.from(TrigramEntity.class);
+
+            Subquery<String> owners = delete.subquery(String.class);
+            Root<P> owner = owners.from(this.entityClass);
+            owners.select(getOwnerKey(owner));
+
+            delete.where(builder.equal(entry.get(INDEX_NAME), this.name),
+                    builder.not(entry.<String> get(OWNER_KEY).in(owners)));
+            entityManager.createQuery(delete).executeUpdate();
+        } catch (Exception e) {
+            throw new PersistenceException("Unable to purge index " + this.name, e);
+        }
+    }
+
+    /**
+     * Removes all the entries of this index. This method must be called after all entities are deleted.
+     * 
+     * @param context
+     *            data store context
+     * @throws PersistenceException
+     *             if persistence errors occur while executing the operation
+     */
+    public void clear(JpaContext context) throws PersistenceException {
+        EntityManager entityManager = context.getEntityManager();
+        try {
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaDelete<TrigramEntity> delete = builder.createCriteriaDelete(TrigramEntity.class);
+            Root<TrigramEntity> entry = delete.from(TrigramEntity.class);
+            delete.where(builder.equal(entry.get(INDEX_NAME), this.name));
+            entityManager.createQuery(delete).executeUpdate();
+        } catch (Exception e) {
+            throw new PersistenceException("Unable to clear index " + this.name, e);
+        }
+    }
+
+    /**
+     * Gets the indexed attribute.
+     * 
+     * @param root
+     *            query root
+     * @return the indexed attribute
+     */
+    SingularAttribute<? super P, String> getAttribute(Root<P> root) {
+        return root.getModel().getSingularAttribute(this.attributeName, String.class);
+    }
+
+    /**
+     * Generates the predicate that selects the candidates to contain the given trigrams: The entities that have all of
+     * them.
+     * 
+     * @param trigrams
+     *            trigrams of the searched value
+     * @param builder
+     *            criteria builder
+     * @param query
+     *            query {@code root} belongs to
+     * @param root
+     *            query root
+     * @return the index lookup predicate
+     */
+    Predicate getLookupPredicate(Collection<String> trigrams, CriteriaBuilder builder, AbstractQuery<?> query,
+            Root<P> root) {
+        Subquery<String> candidates = query.subquery(String.class);
+        Root<TrigramEntity> entry = candidates.from(TrigramEntity.class);
+        Path<String> ownerKey = entry.get(OWNER_KEY);
+        candidates.select(ownerKey);
+        candidates.where(builder.equal(entry.get(INDEX_NAME), this.name), entry.get(TRIGRAM).in(trigrams));
+        candidates.groupBy(ownerKey);
+        candidates.having(builder.equal(builder.count(entry), Long.valueOf(trigrams.size())));
+        return getOwnerKey(root).in(candidates);
+    }
+
+    /**
+     * Gets the value of the indexed attribute.
+     * 
+     * @param entity
+     *            entity
+     * @param context
+     *            data store context
+     * @return the value of the indexed attribute of {@code entity}
+     */
+    String getValue(P entity, JpaContext context) {
+        EntityType<P> entityType = context.getEntityManager().getMetamodel().entity(this.entityClass);
+        Member member = entityType.getSingularAttribute(this.attributeName, String.class).getJavaMember();
+        try {
+            if (member instanceof Field) {
+                Field field = (Field) member;
+                field.setAccessible(true);
+                return (String) field.get(entity);
+            }
+            Method getter = (Method) member;
+            getter.setAccessible(true);
+            return (String) getter.invoke(entity);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Unable to read attribute " + this.name, e);
+        }
+    }
+
+    private void addEntries(P entity, String ownerKey, JpaContext context) {
+        EntityManager entityManager = context.getEntityManager();
+        for (String trigram : getTrigrams(getValue(entity, context))) {
+            entityManager.persist(new TrigramEntity(this.name, ownerKey, trigram));
+        }
+    }
+
+    private void deleteEntries(String ownerKey, EntityManager entityManager) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaDelete<TrigramEntity> delete = builder.createCriteriaDelete(TrigramEntity.class);
+        Root<TrigramEntity> entry = delete.from(TrigramEntity.class);
+        delete.where(builder.equal(entry.get(INDEX_NAME), this.name), builder.equal(entry.get(OWNER_KEY), ownerKey));
+        entityManager.createQuery(delete).executeUpdate();
+    }
+
+    private static String getOwnerKey(Object entity, EntityManager entityManager) {
+        Object id = entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+        Preconditions.checkArgument(id != null, "entity has no id: " + entity);
+        return id.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> Expression<String> getOwnerKey(Root<E> root) {
+        EntityType<E> entityType = root.getModel();
+        SingularAttribute<? super E, ?> idAttribute = entityType.getId(entityType.getIdType().getJavaType());
+        Path<?> id = root.get(idAttribute);
+        if (String.class.equals(idAttribute.getJavaType())) {
+            return (Expression<String>) id;
+        }
+        return id.as(String.class);
+    }
+}
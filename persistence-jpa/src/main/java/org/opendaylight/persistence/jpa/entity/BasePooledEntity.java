@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa.entity;
+
+import javax.persistence.Column;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.MappedSuperclass;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.opendaylight.persistence.jpa.id.PooledSequenceGenerator;
+
+/**
+ * Entity that uses a long type as primary key generated by {@link PooledSequenceGenerator}: Ids are allocated in
+ * blocks, thus unlike {@link BaseEntity} inserts can be batched.
+ * <P>
+ * Moving an existing entity from {@link BaseEntity} to this class requires the entity sequence to be created starting
+ * after the greatest existing id.
+ * <P>
+ * Note that entities must have a default constructor.
+ * 
+ */
+@MappedSuperclass
+public abstract class BasePooledEntity {
+
+    /**
+     * Name of the id generator.
+     */
+    public static final String ID_GENERATOR = "BasePooledEntityIdGenerator";
+
+    @Id
+    @GeneratedValue(generator = ID_GENERATOR)
+    @GenericGenerator(name = ID_GENERATOR, strategy = PooledSequenceGenerator.STRATEGY)
+    @Column(name = "Id")
+    private Long id;
+
+    /**
+     * Returns the entity's id.
+     * 
+     * @return the id
+     */
+    public Long getId() {
+        return this.id;
+    }
+}
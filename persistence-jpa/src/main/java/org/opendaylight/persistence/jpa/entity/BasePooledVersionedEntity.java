@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa.entity;
+
+import javax.persistence.Column;
+import javax.persistence.MappedSuperclass;
+import javax.persistence.Version;
+
+import org.opendaylight.persistence.util.common.model.Versionable;
+
+/**
+ * Versioned entity that uses a long type as primary key allocated in blocks. See {@link BasePooledEntity}.
+ * <p>
+ * Note that entities must have a default constructor.
+ * 
+ */
+@MappedSuperclass
+public abstract class BasePooledVersionedEntity extends BasePooledEntity implements Versionable {
+
+    @Version
+    @Column(name = "Version")
+    private Long version;
+
+    @Override
+    public Long getVersion() {
+        return this.version;
+    }
+}
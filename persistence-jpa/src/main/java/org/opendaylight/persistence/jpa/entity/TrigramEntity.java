@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * Entry of a trigram side table: States that the value of the indexed attribute of the owner entity contains the
+ * trigram. See {@link org.opendaylight.persistence.jpa.dao.TrigramIndex}.
+ * <p>
+ * All trigram indexes share this table, entries are distinguished by the index name. Applications using trigram
+ * indexes must list this class in their persistence unit. Ids are allocated in blocks (See {@link BasePooledEntity}), so
+ * the entries of an indexed entity are inserted in a single batch when {@code hibernate.jdbc.batch_size} is set.
+ * 
+ */
+@Entity
+@Table(name = "text_index_trigram", indexes = {
+        @Index(name = "text_index_trigram_lookup", columnList = "index_name, trigram, owner_key"),
+        @Index(name = "text_index_trigram_owner", columnList = "index_name, owner_key") })
+public class TrigramEntity extends BasePooledEntity {
+
+    @Column(name = "index_name", nullable = false, length = 64)
+    private String indexName;
+
+    @Column(name = "owner_key", nullable = false)
+    private String ownerKey;
+
+    // Three code points, supplementary characters take two chars each
+    @Column(name = "trigram", nullable = false, length = 6)
+    private String trigram;
+
+    /**
+     * This constructor is provided because of a restriction imposed by JPA and should not be used.
+     */
+    @Deprecated
+    public TrigramEntity() {
+
+    }
+
+    /**
+     * Creates an entry.
+     * 
+     * @param indexName name of the index
+     * @param ownerKey id of the owner entity as string
+     * @param trigram trigram
+     */
+    public TrigramEntity(String indexName, String ownerKey, String trigram) {
+        if (indexName == null) {
+            throw new NullPointerException("indexName cannot be null");
+        }
+
+        if (ownerKey == null) {
+            throw new NullPointerException("ownerKey cannot be null");
+        }
+
+        if (trigram == null) {
+            throw new NullPointerException("trigram cannot be null");
+        }
+
+        this.indexName = indexName;
+        this.ownerKey = ownerKey;
+        this.trigram = trigram;
+    }
+
+    /**
+     * Gets the name of the index.
+     * 
+     * @return the index name
+     */
+    public String getIndexName() {
+        return this.indexName;
+    }
+
+    /**
+     * Gets the id of the owner entity as string.
+     * 
+     * @return the owner key
+     */
+    public String getOwnerKey() {
+        return this.ownerKey;
+    }
+
+    /**
+     * Gets the trigram.
+     * 
+     * @return the trigram
+     */
+    public String getTrigram() {
+        return this.trigram;
+    }
+}
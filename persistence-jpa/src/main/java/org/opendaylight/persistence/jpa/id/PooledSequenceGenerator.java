@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa.id;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerationException;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.type.Type;
+
+/**
+ * Sequence based id generator that allocates ids in blocks so inserts do not require a round trip to the database to
+ * get each id, which allows the JPA provider to batch inserts (See {@code hibernate.jdbc.batch_size}).
+ * <p>
+ * This generator is a {@link SequenceStyleGenerator} with the following defaults:
+ * <ul>
+ * <li>A sequence per entity named after the entity ({@code <Entity>_SEQ}). Dialects not supporting sequences use a
+ * table instead.</li>
+ * <li>The {@code pooled-lo} optimizer: The sequence value is the low bound of the block of ids allocated in memory,
+ * thus other writers using the same sequence (With the same block size) do not collide. Use the {@code optimizer}
+ * parameter to select {@code pooled} or {@code hilo} instead.</li>
+ * <li>A block size of {@link #DEFAULT_BLOCK_SIZE}, which can be changed for all entities through the
+ * {@value #BLOCK_SIZE_PROPERTY} system property, or per entity through the {@code increment_size} parameter.</li>
+ * </ul>
+ * Example:
+ * 
+ * <pre>
+ * &#64;Id
+ * &#64;GeneratedValue(generator = "MyEntityIdGenerator")
+ * &#64;GenericGenerator(name = "MyEntityIdGenerator", strategy = PooledSequenceGenerator.STRATEGY, parameters = {
+ *         &#64;Parameter(name = "increment_size", value = "1000") })
+ * private Long id;
+ * </pre>
+ * 
+ * See {@link org.opendaylight.persistence.jpa.entity.BasePooledEntity}.
+ * <p>
+ * The block size of an existing sequence must not grow: The sequence keeps the increment it was created with, so
+ * blocks of a larger size would overlap and the same ids would be allocated more than once. The increment of the
+ * sequence is verified before the first id is generated and generation fails if it is smaller than the block size
+ * (Only for databases exposing the increment through {@code INFORMATION_SCHEMA.SEQUENCES}). Decreasing the block
+ * size is safe, it just leaves gaps.
+ * 
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    /**
+     * Strategy to use in {@link org.hibernate.annotations.GenericGenerator}.
+     */
+    public static final String STRATEGY = "org.opendaylight.persistence.jpa.id.PooledSequenceGenerator";
+
+    /**
+     * Default number of ids allocated per database access.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 50;
+
+    /**
+     * System property to configure the default block size.
+     */
+    public static final String BLOCK_SIZE_PROPERTY = "org.opendaylight.persistence.jpa.id.blockSize";
+
+    private static final String SEQUENCE_INCREMENT_QUERY = "SELECT INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES"
+            + " WHERE UPPER(SEQUENCE_NAME) = ?";
+
+    private volatile boolean incrementVerified;
+
+    @Override
+    public void configure(Type type, Properties params, Dialect dialect) throws MappingException {
+        Properties configuration = new Properties();
+        configuration.putAll(params);
+
+        setDefault(configuration, CONFIG_PREFER_SEQUENCE_PER_ENTITY, Boolean.TRUE.toString());
+        setDefault(configuration, OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        setDefault(configuration, INCREMENT_PARAM, String.valueOf(getDefaultBlockSize()));
+
+        super.configure(type, configuration, dialect);
+    }
+
+    @Override
+    public Serializable generate(SessionImplementor session, Object object) throws HibernateException {
+        if (!this.incrementVerified) {
+            verifyIncrement(session);
+            this.incrementVerified = true;
+        }
+        return super.generate(session, object);
+    }
+
+    /**
+     * Gets the block size used when the {@code increment_size} parameter is not specified.
+     * 
+     * @return the default block size
+     */
+    public static int getDefaultBlockSize() {
+        Integer blockSize = Integer.getInteger(BLOCK_SIZE_PROPERTY);
+        if (blockSize == null || blockSize.intValue() < 1) {
+            return DEFAULT_BLOCK_SIZE;
+        }
+        return blockSize.intValue();
+    }
+
+    private void verifyIncrement(SessionImplementor session) throws HibernateException {
+        DatabaseStructure structure = getDatabaseStructure();
+        if (!(structure instanceof SequenceStructure)) {
+            return;
+        }
+
+        String name = structure.getName();
+        name = name.substring(name.lastIndexOf('.') + 1).replace("\"", "").replace("`", "");
+        long increment;
+        try (PreparedStatement statement = session.connection().prepareStatement(SEQUENCE_INCREMENT_QUERY)) {
+            statement.setString(1, name.toUpperCase());
+            try (ResultSet result = statement.executeQuery()) {
+                if (!result.next()) {
+                    return;
+                }
+                increment = result.getLong(1);
+            }
+        } catch (SQLException e) {
+            // The database does not expose the increment of its sequences
+            return;
+        }
+
+        if (increment < structure.getIncrementSize()) {
+            throw new IdentifierGenerationException("Sequence " + name + " was created with increment " + increment
+                    + " but the block size is " + structure.getIncrementSize()
+                    + ": Blocks would overlap and ids would be duplicated");
+        }
+    }
+
+    private static void setDefault(Properties configuration, String key, String value) {
+        if (configuration.getProperty(key) == null) {
+            configuration.setProperty(key, value);
+        }
+    }
+}
@@ -7,6 +7,9 @@
  */
 package org.opendaylight.persistence.jpa.jpql;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.persistence.Query;
 
 import com.google.common.base.Joiner;
@@ -35,17 +38,26 @@ abstract class JpqlBinaryOperator implements JpqlPredicate {
         this.operands = operands;
     }
 
+    /**
+     * Gets the operands.
+     * 
+     * @return the operands
+     */
+    JpqlPredicate[] getOperands() {
+        return this.operands;
+    }
+
     @Override
     public String getPredicate() {
         if (this.operands == null || this.operands.length <= 0) {
             return "";
         }
-        Joiner joiner = Joiner.on("");
+        List<String> operandPredicates = new ArrayList<String>(this.operands.length);
         for (JpqlPredicate operand : this.operands) {
-            joiner.join("(", operand.getPredicate(), ")", this.operator);
+            operandPredicates.add(Joiner.on("").join("(", operand.getPredicate(), ")"));
         }
 
-        return Joiner.on("").join("(", joiner.toString(), ")");
+        return Joiner.on("").join("(", Joiner.on(this.operator).join(operandPredicates), ")");
     }
 
     @Override
@@ -30,6 +30,15 @@ class JpqlNot implements JpqlPredicate {
         this.operand = operand;
     }
 
+    /**
+     * Gets the negated operand.
+     * 
+     * @return the negated operand
+     */
+    JpqlPredicate getOperand() {
+        return this.operand;
+    }
+
     @Override
     public String getPredicate() {
         return Joiner.on("").join("Not (", this.operand.getPredicate(), ")")
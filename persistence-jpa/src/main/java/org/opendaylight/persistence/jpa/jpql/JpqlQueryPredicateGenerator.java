@@ -7,6 +7,9 @@
  */
 package org.opendaylight.persistence.jpa.jpql;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.annotation.Nonnull;
 import javax.persistence.metamodel.SingularAttribute;
 
@@ -15,11 +18,15 @@ import org.opendaylight.persistence.util.common.filter.EqualityCondition;
 import org.opendaylight.persistence.util.common.filter.IntervalCondition;
 import org.opendaylight.persistence.util.common.filter.SetCondition;
 import org.opendaylight.persistence.util.common.filter.StringCondition;
+import org.opendaylight.persistence.util.common.type.Interval;
 
 import com.google.common.base.Preconditions;
 
 /**
  * JPQL predicate generator.
+ * <p>
+ * Logical operators normalize their operands: nested conjunctions and disjunctions are flattened, and tautologies and
+ * contradictions are folded so they do not end up in the query.
  * 
  * @param <P>
  *            type of the entity type of the entity (an object annotated with {@link javax.persistence.Entity})
@@ -49,6 +56,29 @@ public class JpqlQueryPredicateGenerator<P> {
         return CONTRADICTION;
     }
 
+    /**
+     * Verifies whether a predicate is a tautology.
+     * 
+     * @param predicate
+     *            predicate to verify
+     * @return {@code true} if {@code predicate} is known to be true
+     */
+    public boolean isTautology(JpqlPredicate predicate) {
+        return predicate instanceof JpqlTautology;
+    }
+
+    /**
+     * Verifies whether a predicate is a contradiction. Queries whose predicate is a contradiction can be answered
+     * without accessing the database.
+     * 
+     * @param predicate
+     *            predicate to verify
+     * @return {@code true} if {@code predicate} is known to be false
+     */
+    public boolean isContradiction(JpqlPredicate predicate) {
+        return predicate instanceof JpqlContradiction;
+    }
+
     /**
      * Operates the given operands with the AND operator.
      * 
@@ -57,7 +87,20 @@ public class JpqlQueryPredicateGenerator<P> {
      * @return a predicate
      */
     public JpqlPredicate and(JpqlPredicate... operands) {
-        return new JpqlAnd(operands);
+        List<JpqlPredicate> conjuncts = new ArrayList<JpqlPredicate>(operands.length);
+        if (!addConjuncts(operands, conjuncts)) {
+            return getContradiction();
+        }
+
+        if (conjuncts.isEmpty()) {
+            return getTautology();
+        }
+
+        if (conjuncts.size() == 1) {
+            return conjuncts.get(0);
+        }
+
+        return new JpqlAnd(conjuncts.toArray(new JpqlPredicate[conjuncts.size()]));
     }
 
     /**
@@ -68,20 +111,108 @@ public class JpqlQueryPredicateGenerator<P> {
      * @return a predicate
      */
     public JpqlPredicate or(JpqlPredicate... operands) {
-        return new JpqlOr(operands);
+        List<JpqlPredicate> disjuncts = new ArrayList<JpqlPredicate>(operands.length);
+        if (!addDisjuncts(operands, disjuncts)) {
+            return getTautology();
+        }
+
+        if (disjuncts.isEmpty()) {
+            return getContradiction();
+        }
+
+        if (disjuncts.size() == 1) {
+            return disjuncts.get(0);
+        }
+
+        return new JpqlOr(disjuncts.toArray(new JpqlPredicate[disjuncts.size()]));
     }
 
     /**
      * Operates the given operand with the NOT operator.
-     * 
+     * <p>
+     * The negation is pushed down to the leaves of the predicate (De Morgan's laws), so double negations cancel out and
+     * the resulting conjunctions and disjunctions are normalized as well.
+     *
      * @param operand
      *            operand
      * @return a predicate
      */
     public JpqlPredicate not(JpqlPredicate operand) {
+        if (operand == null || isTautology(operand)) {
+            return getContradiction();
+        }
+
+        if (isContradiction(operand)) {
+            return getTautology();
+        }
+
+        if (operand instanceof JpqlNot) {
+            return ((JpqlNot) operand).getOperand();
+        }
+
+        if (operand instanceof JpqlAnd) {
+            return or(negate(((JpqlAnd) operand).getOperands()));
+        }
+
+        if (operand instanceof JpqlOr) {
+            return and(negate(((JpqlOr) operand).getOperands()));
+        }
+
         return new JpqlNot(operand);
     }
 
+    private JpqlPredicate[] negate(JpqlPredicate[] operands) {
+        JpqlPredicate[] negated = new JpqlPredicate[operands.length];
+        for (int i = 0; i < operands.length; i++) {
+            negated[i] = not(operands[i]);
+        }
+        return negated;
+    }
+
+    /**
+     * Adds the operands to the given list flattening nested conjunctions and dropping tautologies.
+     * 
+     * @return {@code false} if a contradiction was found, {@code true} otherwise
+     */
+    private boolean addConjuncts(JpqlPredicate[] operands, List<JpqlPredicate> conjuncts) {
+        for (JpqlPredicate operand : operands) {
+            if (isContradiction(operand)) {
+                return false;
+            }
+
+            if (operand instanceof JpqlAnd) {
+                if (!addConjuncts(((JpqlAnd) operand).getOperands(), conjuncts)) {
+                    return false;
+                }
+            } else if (operand != null && !isTautology(operand)) {
+                conjuncts.add(operand);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the operands to the given list flattening nested disjunctions and dropping contradictions.
+     * 
+     * @return {@code false} if a tautology was found, {@code true} otherwise
+     */
+    private boolean addDisjuncts(JpqlPredicate[] operands, List<JpqlPredicate> disjuncts) {
+        for (JpqlPredicate operand : operands) {
+            if (operand == null || isTautology(operand)) {
+                return false;
+            }
+
+            if (operand instanceof JpqlOr) {
+                if (!addDisjuncts(((JpqlOr) operand).getOperands(), disjuncts)) {
+                    return false;
+                }
+            } else if (!isContradiction(operand)) {
+                disjuncts.add(operand);
+            }
+        }
+        return true;
+    }
+
     /**
      * Generates a predicate to satisfy the given equality condition.
      * 
@@ -138,6 +269,9 @@ public class JpqlQueryPredicateGenerator<P> {
         if (condition == null) {
             return getTautology();
         }
+        if (condition.getValue().getType() == Interval.Type.UNBOUNDED) {
+            return condition.getMode() == IntervalCondition.Mode.IN ? getTautology() : getContradiction();
+        }
         return new JpqlIntervalCondition<P, D>(condition, attribute,
                 entityClass);
     }
@@ -158,6 +292,9 @@ public class JpqlQueryPredicateGenerator<P> {
         if (condition == null) {
             return getTautology();
         }
+        if (condition.getValues().isEmpty()) {
+            return condition.getMode() == SetCondition.Mode.IN ? getContradiction() : getTautology();
+        }
         return new JpqlSetCondition<P, D>(condition, attribute, entityClass);
     }
 
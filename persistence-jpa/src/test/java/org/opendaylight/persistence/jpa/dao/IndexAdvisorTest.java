@@ -0,0 +1,250 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa.dao;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.SingularAttribute;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.persistence.util.common.filter.ComparabilityCondition;
+import org.opendaylight.persistence.util.common.filter.EqualityCondition;
+import org.opendaylight.persistence.util.common.filter.StringCondition;
+import org.opendaylight.persistence.util.common.type.SortOrder;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class IndexAdvisorTest {
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static SingularAttribute<? super SampleEntity, Long> idAttribute;
+    private static SingularAttribute<? super SampleEntity, Long> valueAttribute;
+    private static SingularAttribute<? super SampleEntity, String> nameAttribute;
+
+    private IndexAdvisor advisor;
+    private EntityManager entityManager;
+    private Root<SampleEntity> root;
+
+    @BeforeClass
+    public static void beforeClass() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("persistence-jpa-test");
+        idAttribute = entityManagerFactory.getMetamodel().entity(SampleEntity.class).getId(Long.class);
+        valueAttribute = entityManagerFactory.getMetamodel().entity(SampleEntity.class)
+                .getSingularAttribute("value", Long.class);
+        nameAttribute = entityManagerFactory.getMetamodel().entity(SampleEntity.class)
+                .getSingularAttribute("name", String.class);
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        entityManagerFactory.close();
+    }
+
+    @Before
+    public void setUp() {
+        this.advisor = IndexAdvisor.getInstance();
+        this.advisor.reset();
+        this.advisor.setEnabled(true);
+        this.entityManager = entityManagerFactory.createEntityManager();
+        this.root = this.entityManager.getCriteriaBuilder().createQuery(SampleEntity.class).from(SampleEntity.class);
+    }
+
+    @After
+    public void tearDown() {
+        this.advisor.setEnabled(false);
+        this.advisor.reset();
+        this.entityManager.close();
+    }
+
+    @Test
+    public void testDisabled() {
+        this.advisor.setEnabled(false);
+        Assert.assertNull(this.advisor.beginQuery(this.root));
+        recordEqualValue(0);
+        Assert.assertEquals(0, this.advisor.getRecordedQueryCount());
+        Assert.assertTrue(this.advisor.getRecommendations().isEmpty());
+    }
+
+    @Test
+    public void testRecommendation() {
+        recordEqualValue(0);
+
+        List<IndexRecommendation> recommendations = this.advisor.getRecommendations();
+        Assert.assertEquals(1, recommendations.size());
+        IndexRecommendation recommendation = recommendations.get(0);
+        Assert.assertEquals(SampleEntity.class, recommendation.getEntityClass());
+        Assert.assertEquals(Arrays.asList("sample_value"), recommendation.getColumns());
+        Assert.assertEquals(1, recommendation.getQueryCount());
+        Assert.assertEquals("CREATE INDEX idx_sample_sample_value ON sample (sample_value)",
+                recommendation.toCreateIndexStatement());
+        Assert.assertEquals(1, this.advisor.getRecordedQueryCount());
+    }
+
+    @Test
+    public void testRanking() {
+        for (int i = 0; i < 5; i++) {
+            new QueryBuilder().condition(valueAttribute, EqualityCondition.equalTo(Long.valueOf(1)))
+                    .condition(nameAttribute, StringCondition.contain("a")).sort(nameAttribute, SortOrder.ASCENDING)
+                    .record(0);
+        }
+        new QueryBuilder().condition(valueAttribute, ComparabilityCondition.greaterThan(Long.valueOf(1))).record(50);
+
+        List<IndexRecommendation> recommendations = this.advisor.getRecommendations();
+        Assert.assertEquals(2, recommendations.size());
+
+        // Ranked by latency, not by number of queries
+        Assert.assertEquals(Arrays.asList("sample_value"), recommendations.get(0).getColumns());
+        Assert.assertEquals(1, recommendations.get(0).getQueryCount());
+        Assert.assertEquals(Arrays.asList("sample_value", "sample_name"), recommendations.get(1).getColumns());
+        Assert.assertEquals(5, recommendations.get(1).getQueryCount());
+        Assert.assertTrue(recommendations.get(0).getLatency(TimeUnit.MILLISECONDS) >= 50);
+    }
+
+    @Test
+    public void testCandidateColumns() {
+        // Equality columns first, then the sort columns when sorting by the range column
+        new QueryBuilder().condition(valueAttribute, ComparabilityCondition.greaterThan(Long.valueOf(1)))
+                .condition(nameAttribute, StringCondition.equalTo("a")).sort(valueAttribute, SortOrder.ASCENDING)
+                .record(0);
+        // Not covered by (sample_name, sample_value) since the leading column is not compared
+        new QueryBuilder().condition(valueAttribute, EqualityCondition.equalTo(Long.valueOf(1)))
+                .sort(nameAttribute, SortOrder.ASCENDING).record(0);
+
+        List<List<String>> columns = getRecommendedColumns();
+        Assert.assertEquals(1, columns.size());
+        Assert.assertEquals(Arrays.asList("sample_value", "sample_name"), columns.get(0));
+    }
+
+    @Test
+    public void testCoveredByDeclaredIndexes() {
+        // Primary key
+        new QueryBuilder().condition(idAttribute, EqualityCondition.equalTo(Long.valueOf(1))).record(0);
+        // Leading column of the @Table index
+        new QueryBuilder().condition(nameAttribute, StringCondition.equalTo("a")).record(0);
+        // Equality columns in a different order than the index columns
+        new QueryBuilder().condition(valueAttribute, EqualityCondition.equalTo(Long.valueOf(1)))
+                .condition(nameAttribute, StringCondition.startWith("a")).record(0);
+        new QueryBuilder().condition(valueAttribute, EqualityCondition.equalTo(Long.valueOf(1)))
+                .condition(nameAttribute, StringCondition.equalTo("a")).record(0);
+        // Sorting by the index columns, the index can be scanned backwards
+        new QueryBuilder().sort(nameAttribute, SortOrder.DESCENDING).sort(valueAttribute, SortOrder.DESCENDING)
+                .record(0);
+        // Conditions that cannot use an index
+        new QueryBuilder().condition(valueAttribute, EqualityCondition.unequalTo(Long.valueOf(1))).record(0);
+
+        Assert.assertEquals(6, this.advisor.getRecordedQueryCount());
+        Assert.assertEquals(Arrays.asList(Arrays.asList("sample_value", "sample_name")), getRecommendedColumns());
+    }
+
+    @Test
+    public void testCoveredByBetterRankedCandidate() {
+        new QueryBuilder().condition(valueAttribute, EqualityCondition.equalTo(Long.valueOf(1)))
+                .sort(nameAttribute, SortOrder.ASCENDING).record(50);
+        recordEqualValue(0);
+        recordEqualValue(0);
+
+        List<IndexRecommendation> recommendations = this.advisor.getRecommendations();
+        Assert.assertEquals(1, recommendations.size());
+        Assert.assertEquals(Arrays.asList("sample_value", "sample_name"), recommendations.get(0).getColumns());
+        Assert.assertEquals(3, recommendations.get(0).getQueryCount());
+    }
+
+    @Test
+    public void testCoveredByDatabaseIndexes() {
+        recordEqualValue(0);
+        Assert.assertEquals(1, this.advisor.getRecommendations().size());
+
+        this.entityManager.getTransaction().begin();
+        this.entityManager.createNativeQuery("CREATE INDEX sample_value_index ON sample (sample_value)")
+                .executeUpdate();
+        this.advisor.loadDatabaseIndexes(this.entityManager);
+        this.entityManager.createNativeQuery("DROP INDEX sample_value_index").executeUpdate();
+        this.entityManager.getTransaction().commit();
+
+        Assert.assertTrue(this.advisor.getRecommendations().isEmpty());
+    }
+
+    @Test
+    public void testRegisterMBean() throws Exception {
+        ObjectName name = new ObjectName(IndexAdvisor.OBJECT_NAME);
+        this.advisor.registerMBean();
+        try {
+            this.advisor.registerMBean();
+            Assert.assertEquals(Boolean.TRUE,
+                    ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Enabled"));
+        } finally {
+            this.advisor.unregisterMBean();
+        }
+        Assert.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    private void recordEqualValue(long latency) {
+        new QueryBuilder().condition(valueAttribute, EqualityCondition.equalTo(Long.valueOf(1))).record(latency);
+    }
+
+    private List<List<String>> getRecommendedColumns() {
+        List<List<String>> columns = new ArrayList<List<String>>();
+        for (IndexRecommendation recommendation : this.advisor.getRecommendations()) {
+            columns.add(recommendation.getColumns());
+        }
+        return columns;
+    }
+
+    /**
+     * Records a query the way {@link JpaUtil} and {@link JpaQueryPredicateGenerator} do.
+     */
+    private class QueryBuilder {
+        private final List<SingularAttribute<?, ?>> attributes = new ArrayList<SingularAttribute<?, ?>>();
+        private final List<Object> conditions = new ArrayList<Object>();
+        private final List<SingularAttribute<?, ?>> sortAttributes = new ArrayList<SingularAttribute<?, ?>>();
+        private final List<SortOrder> sortOrders = new ArrayList<SortOrder>();
+
+        QueryBuilder condition(SingularAttribute<?, ?> attribute, Object condition) {
+            this.attributes.add(attribute);
+            this.conditions.add(condition);
+            return this;
+        }
+
+        QueryBuilder sort(SingularAttribute<?, ?> attribute, SortOrder order) {
+            this.sortAttributes.add(attribute);
+            this.sortOrders.add(order);
+            return this;
+        }
+
+        void record(long latency) {
+            IndexAdvisor.QueryRecord record = IndexAdvisorTest.this.advisor.beginQuery(IndexAdvisorTest.this.root);
+            for (int i = 0; i < this.attributes.size(); i++) {
+                IndexAdvisorTest.this.advisor.recordCondition(this.attributes.get(i), this.conditions.get(i));
+            }
+            for (int i = 0; i < this.sortAttributes.size(); i++) {
+                IndexAdvisorTest.this.advisor.recordSort(this.sortAttributes.get(i), this.sortOrders.get(i));
+            }
+            if (latency > 0) {
+                try {
+                    Thread.sleep(latency);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            IndexAdvisorTest.this.advisor.endQuery(record);
+        }
+    }
+}
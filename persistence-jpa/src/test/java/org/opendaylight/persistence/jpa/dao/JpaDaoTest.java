@@ -0,0 +1,361 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa.dao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.SingularAttribute;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.jpa.JpaContext;
+import org.opendaylight.persistence.jpa.JpaDataStore;
+import org.opendaylight.persistence.util.common.filter.ComparabilityCondition;
+import org.opendaylight.persistence.util.common.filter.StringCondition;
+import org.opendaylight.persistence.util.common.type.Sort;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+import com.opendaylight.persistence.dao.AbstractDaoTest;
+import com.opendaylight.persistence.dao.SearchCase;
+import com.opendaylight.persistence.jdbc.CountingDataSource;
+import com.opendaylight.persistence.jdbc.StatementCounter;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class JpaDaoTest extends
+        AbstractDaoTest<Long, JpaDaoTest.Item, JpaDaoTest.ItemFilter, JpaDaoTest.ItemSortKey, JpaContext, JpaDaoTest.ItemDao> {
+
+    private static final StatementCounter STATEMENT_COUNTER = new StatementCounter();
+    private static final EntityManagerFactory ENTITY_MANAGER_FACTORY;
+    private static final SingularAttribute<? super SampleEntity, Long> VALUE_ATTRIBUTE;
+    private static final SingularAttribute<? super SampleEntity, String> NAME_ATTRIBUTE;
+    private static final Random RANDOM = new Random();
+
+    static {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:JpaDaoTest;DB_CLOSE_DELAY=-1");
+        // The persistence unit's JDBC URL is ignored when a data source is provided
+        ENTITY_MANAGER_FACTORY = Persistence.createEntityManagerFactory("persistence-jpa-test",
+                Collections.singletonMap(AvailableSettings.DATASOURCE, new CountingDataSource(dataSource,
+                        STATEMENT_COUNTER)));
+        VALUE_ATTRIBUTE = ENTITY_MANAGER_FACTORY.getMetamodel().entity(SampleEntity.class)
+                .getSingularAttribute("value", Long.class);
+        NAME_ATTRIBUTE = ENTITY_MANAGER_FACTORY.getMetamodel().entity(SampleEntity.class)
+                .getSingularAttribute("name", String.class);
+    }
+
+    public JpaDaoTest() {
+        super(new TransactionalDataStore());
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        ENTITY_MANAGER_FACTORY.close();
+    }
+
+    @Test
+    public void testFindStatementCount() throws PersistenceException {
+        store(createIdentifiables(5));
+
+        List<Item> items = assertStatementCount(1, new DaoQuery<List<Item>>() {
+            @Override
+            protected List<Item> execute(ItemDao dao, JpaContext context) throws PersistenceException {
+                return dao.find(new ItemFilter(), null, context);
+            }
+        });
+
+        Assert.assertEquals(5, items.size());
+    }
+
+    /*
+     * JPA DAOs reject null arguments (@Nonnull in BaseDao) through Preconditions.
+     */
+
+    @Override
+    @Test(expected = NullPointerException.class)
+    public void testAddInvalid() throws PersistenceException {
+        super.testAddInvalid();
+    }
+
+    @Override
+    @Test(expected = NullPointerException.class)
+    public void testUpdateInvalid() throws PersistenceException {
+        super.testUpdateInvalid();
+    }
+
+    @Override
+    @Test(expected = NullPointerException.class)
+    public void testDeleteWithIdInvalid() throws PersistenceException {
+        super.testDeleteWithIdInvalid();
+    }
+
+    @Override
+    @Test(expected = NullPointerException.class)
+    public void testGetInvalid() throws PersistenceException {
+        super.testGetInvalid();
+    }
+
+    @Override
+    @Test(expected = NullPointerException.class)
+    public void testExistInvalid() throws PersistenceException {
+        super.testExistInvalid();
+    }
+
+    @Override
+    protected StatementCounter getStatementCounter() {
+        return STATEMENT_COUNTER;
+    }
+
+    @Override
+    protected int getMaxStatementRepetitions() {
+        // Deleting by filter counts the matching entities again to verify none is left
+        return 2;
+    }
+
+    @Override
+    protected ItemDao createDaoInstance() {
+        return new ItemDao();
+    }
+
+    @Override
+    protected boolean isPrimaryKeyIntegrityConstraintViolationTestSuitable() {
+        return false;
+    }
+
+    @Override
+    protected boolean isNotFoundExceptionOnUpdateSuitable() {
+        return true;
+    }
+
+    @Override
+    protected boolean isVersioned() {
+        return false;
+    }
+
+    @Override
+    protected Item createIdentifiable(Long id) {
+        return new Item(id, Long.valueOf(RANDOM.nextInt(100)), "item");
+    }
+
+    @Override
+    protected List<Item> createIdentifiables(int count) {
+        List<Item> identifiables = new ArrayList<Item>(count);
+        for (int i = 0; i < count; i++) {
+            identifiables.add(createIdentifiable(null));
+        }
+        return identifiables;
+    }
+
+    @Override
+    protected void assertEqualState(Item expected, Item actual) {
+        Assert.assertEquals(expected.getValue(), actual.getValue());
+        Assert.assertEquals(expected.getName(), actual.getName());
+    }
+
+    @Override
+    protected void modify(Item identifiable) {
+        identifiable.setValue(Long.valueOf(identifiable.getValue().longValue() + 1));
+        identifiable.setName(identifiable.getName() + "-modified");
+    }
+
+    @Override
+    protected List<SearchCase<Item, ItemFilter, ItemSortKey>> getSearchCases() {
+        List<SearchCase<Item, ItemFilter, ItemSortKey>> searchCases = new ArrayList<SearchCase<Item, ItemFilter, ItemSortKey>>();
+
+        Item alpha = new Item(null, Long.valueOf(1), "alpha");
+        Item beta = new Item(null, Long.valueOf(2), "beta");
+        Item gamma = new Item(null, Long.valueOf(3), "gamma");
+        Item omicron = new Item(null, Long.valueOf(4), "omicron");
+        List<Item> searchSpace = Arrays.asList(alpha, beta, gamma, omicron);
+
+        ItemFilter filter = new ItemFilter();
+        searchCases.add(SearchCase.<Item, ItemFilter, ItemSortKey> forCase(searchSpace, filter, null, alpha, beta, gamma, omicron));
+
+        filter = new ItemFilter();
+        filter.setNameCondition(StringCondition.contain("a"));
+        searchCases.add(SearchCase.forCase(searchSpace, filter,
+                Collections.singletonList(Sort.descending(ItemSortKey.NAME)), gamma, beta, alpha));
+
+        filter = new ItemFilter();
+        filter.setValueCondition(ComparabilityCondition.greaterThanOrEqualTo(Long.valueOf(2)));
+        searchCases.add(SearchCase.forCase(searchSpace, filter,
+                Collections.singletonList(Sort.ascending(ItemSortKey.VALUE)), beta, gamma, omicron));
+
+        filter = new ItemFilter();
+        filter.setNameCondition(StringCondition.contain("a"));
+        filter.setValueCondition(ComparabilityCondition.lessThan(Long.valueOf(3)));
+        searchCases.add(SearchCase.<Item, ItemFilter, ItemSortKey> forCase(searchSpace, filter, null, alpha, beta));
+
+        filter = new ItemFilter();
+        filter.setValueCondition(ComparabilityCondition.equalTo(Long.valueOf(10)));
+        searchCases.add(SearchCase.<Item, ItemFilter, ItemSortKey> forCase(searchSpace, filter, null, Collections.<Item> emptyList()));
+
+        // Find and count send a single statement
+        List<SearchCase<Item, ItemFilter, ItemSortKey>> budgetedSearchCases = new ArrayList<SearchCase<Item, ItemFilter, ItemSortKey>>();
+        for (SearchCase<Item, ItemFilter, ItemSortKey> searchCase : searchCases) {
+            budgetedSearchCases.add(searchCase.withStatementBudget(1));
+        }
+
+        return budgetedSearchCases;
+    }
+
+    /**
+     * Executes each query in its own entity manager and transaction.
+     */
+    private static class TransactionalDataStore implements DataStore<JpaContext> {
+
+        @Override
+        public <T> T execute(Query<T, JpaContext> query) throws PersistenceException {
+            EntityManager entityManager = ENTITY_MANAGER_FACTORY.createEntityManager();
+            JpaDataStore dataStore = new JpaDataStore();
+            dataStore.setEntityManager(entityManager);
+
+            entityManager.getTransaction().begin();
+            try {
+                T result = dataStore.execute(query);
+                entityManager.getTransaction().commit();
+                return result;
+            } finally {
+                if (entityManager.getTransaction().isActive()) {
+                    entityManager.getTransaction().rollback();
+                }
+                entityManager.close();
+            }
+        }
+    }
+
+    public static class Item implements Identifiable<Long> {
+        private final Long id;
+        private Long value;
+        private String name;
+
+        public Item(Long id, Long value, String name) {
+            this.id = id;
+            this.value = value;
+            this.name = name;
+        }
+
+        @Override
+        public Long getIdentifier() {
+            return this.id;
+        }
+
+        public Long getValue() {
+            return this.value;
+        }
+
+        public void setValue(Long value) {
+            this.value = value;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return this.name;
+        }
+    }
+
+    public static class ItemFilter {
+        private StringCondition nameCondition;
+        private ComparabilityCondition<Long> valueCondition;
+
+        public StringCondition getNameCondition() {
+            return this.nameCondition;
+        }
+
+        public void setNameCondition(StringCondition nameCondition) {
+            this.nameCondition = nameCondition;
+        }
+
+        public ComparabilityCondition<Long> getValueCondition() {
+            return this.valueCondition;
+        }
+
+        public void setValueCondition(ComparabilityCondition<Long> valueCondition) {
+            this.valueCondition = valueCondition;
+        }
+    }
+
+    public static enum ItemSortKey {
+        NAME, VALUE
+    }
+
+    public static class ItemDao extends JpaDao<Long, Item, SampleEntity, ItemFilter, ItemSortKey> {
+
+        public ItemDao() {
+            super(SampleEntity.class);
+        }
+
+        @Override
+        protected Predicate getQueryPredicate(ItemFilter filter, CriteriaBuilder builder, Root<SampleEntity> root) {
+            if (filter == null) {
+                return null;
+            }
+
+            JpaQueryPredicateGenerator<SampleEntity> generator = getQueryPredicateGenerator();
+            return generator.and(builder,
+                    generator.getPredicate(filter.getNameCondition(), NAME_ATTRIBUTE, builder, root),
+                    generator.getPredicate(filter.getValueCondition(), VALUE_ATTRIBUTE, builder, root));
+        }
+
+        @Override
+        protected SingularAttribute<? super SampleEntity, ?> getSingularAttribute(ItemSortKey sortKey) {
+            switch (sortKey) {
+                case NAME:
+                    return NAME_ATTRIBUTE;
+                case VALUE:
+                    return VALUE_ATTRIBUTE;
+                default:
+                    throw new IllegalArgumentException("Unsupported sort key: " + sortKey);
+            }
+        }
+
+        @Override
+        protected Long getId(SampleEntity entity) {
+            return entity.getId();
+        }
+
+        @Override
+        protected SampleEntity create(Item identifiable) {
+            return new SampleEntity(identifiable.getValue(), identifiable.getName());
+        }
+
+        @Override
+        protected void conform(SampleEntity target, Item source) {
+            target.setValue(source.getValue());
+            target.setName(source.getName());
+        }
+
+        @Override
+        protected Item doConvert(SampleEntity source) {
+            return new Item(source.getId(), source.getValue(), source.getName());
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa.dao;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.hibernate.jpa.HibernateEntityManagerFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.dao.ExistenceFilter;
+import org.opendaylight.persistence.common.query.AddQuery;
+import org.opendaylight.persistence.common.query.DeleteByIdQuery;
+import org.opendaylight.persistence.common.query.ExistQuery;
+import org.opendaylight.persistence.common.query.GetQuery;
+import org.opendaylight.persistence.common.query.UpdateQuery;
+import org.opendaylight.persistence.jpa.JpaContext;
+import org.opendaylight.persistence.jpa.JpaDataStore;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+import com.google.common.base.Objects;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class JpaKeyValueDaoTest {
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static Statistics statistics;
+
+    private SampleDao dao;
+    private EntityManager entityManager;
+    private JpaDataStore dataStore;
+
+    @BeforeClass
+    public static void beforeClass() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("persistence-jpa-test",
+                Collections.singletonMap("hibernate.generate_statistics", "true"));
+        statistics = ((HibernateEntityManagerFactory) entityManagerFactory).getSessionFactory().getStatistics();
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        entityManagerFactory.close();
+    }
+
+    @Before
+    public void setUp() {
+        this.dao = new SampleDao();
+        this.entityManager = entityManagerFactory.createEntityManager();
+        this.dataStore = new JpaDataStore();
+        this.dataStore.setEntityManager(this.entityManager);
+    }
+
+    @After
+    public void tearDown() {
+        this.entityManager.close();
+    }
+
+    @Test
+    public void testUpdateUnmodified() throws Exception {
+        Sample sample = execute(AddQuery.createQuery(new Sample(null, Long.valueOf(1), "name"), this.dao));
+        this.entityManager.clear();
+        statistics.clear();
+
+        Sample unmodified = new Sample(sample.getIdentifier(), Long.valueOf(1), "name");
+        Assert.assertSame(unmodified, execute(UpdateQuery.createQuery(unmodified, this.dao)));
+
+        Assert.assertEquals(0, statistics.getEntityUpdateCount());
+        Assert.assertEquals(1, this.dao.getSkippedUpdateCount());
+    }
+
+    @Test
+    public void testUpdateModified() throws Exception {
+        Sample sample = execute(AddQuery.createQuery(new Sample(null, Long.valueOf(1), "name"), this.dao));
+        this.entityManager.clear();
+        statistics.clear();
+
+        Sample modified = new Sample(sample.getIdentifier(), Long.valueOf(1), "new name");
+        execute(UpdateQuery.createQuery(modified, this.dao));
+
+        Assert.assertEquals(1, statistics.getEntityUpdateCount());
+        Assert.assertEquals(0, this.dao.getSkippedUpdateCount());
+
+        this.entityManager.clear();
+        Sample stored = execute(GetQuery.createQuery(sample.getIdentifier(), this.dao));
+        Assert.assertEquals("new name", stored.getName());
+    }
+
+    @Test
+    public void testExistenceFilterRolledBackDelete() throws Exception {
+        ExistenceFilter existenceFilter = new ExistenceFilter(100, 0.01);
+        final FilteredSampleDao filteredDao = new FilteredSampleDao(existenceFilter);
+        Long id = execute(AddQuery.createQuery(new Sample(null, Long.valueOf(1), "name"), filteredDao))
+                .getIdentifier();
+
+        Assert.assertTrue(execute(ExistQuery.createQuery(id, filteredDao)).booleanValue());
+        Assert.assertFalse(existenceFilter.isPopulated());
+
+        execute(new Query<Void, JpaContext>() {
+            @Override
+            public Void execute(JpaContext context) throws PersistenceException {
+                filteredDao.populateExistenceFilter(context);
+                return null;
+            }
+        });
+        Assert.assertTrue(existenceFilter.isPopulated());
+
+        this.entityManager.getTransaction().begin();
+        try {
+            this.dataStore.execute(DeleteByIdQuery.createQuery(id, filteredDao));
+            // Not committed: A concurrent lookup must still consult the data store
+            Assert.assertTrue(existenceFilter.mightExist(id));
+        } finally {
+            this.entityManager.getTransaction().rollback();
+        }
+        this.entityManager.clear();
+
+        Assert.assertTrue(existenceFilter.mightExist(id));
+        Assert.assertTrue(execute(ExistQuery.createQuery(id, filteredDao)).booleanValue());
+
+        execute(DeleteByIdQuery.createQuery(id, filteredDao));
+        Assert.assertFalse(existenceFilter.mightExist(id));
+        Assert.assertFalse(execute(ExistQuery.createQuery(id, filteredDao)).booleanValue());
+    }
+
+    private <T> T execute(Query<T, JpaContext> query) throws PersistenceException {
+        this.entityManager.getTransaction().begin();
+        try {
+            T result = this.dataStore.execute(query);
+            this.entityManager.getTransaction().commit();
+            return result;
+        } finally {
+            if (this.entityManager.getTransaction().isActive()) {
+                this.entityManager.getTransaction().rollback();
+            }
+        }
+    }
+
+    static class Sample implements Identifiable<Long> {
+        private final Long id;
+        private final Long value;
+        private final String name;
+
+        public Sample(Long id, Long value, String name) {
+            this.id = id;
+            this.value = value;
+            this.name = name;
+        }
+
+        @Override
+        public Long getIdentifier() {
+            return this.id;
+        }
+
+        public Long getValue() {
+            return this.value;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+    }
+
+    static class SampleDao extends JpaKeyValueDao<Long, Sample, SampleEntity> {
+        private final List<TrigramIndex<SampleEntity>> trigramIndexes;
+
+        @SafeVarargs
+        public SampleDao(TrigramIndex<SampleEntity>... trigramIndexes) {
+            super(SampleEntity.class);
+            this.trigramIndexes = Arrays.asList(trigramIndexes);
+        }
+
+        @Override
+        protected Collection<TrigramIndex<SampleEntity>> getTrigramIndexes() {
+            return this.trigramIndexes;
+        }
+
+        @Override
+        protected Long getId(SampleEntity entity) {
+            return entity.getId();
+        }
+
+        @Override
+        protected SampleEntity create(Sample identifiable) {
+            return new SampleEntity(identifiable.getValue(), identifiable.getName());
+        }
+
+        @Override
+        protected boolean isModified(SampleEntity target, Sample source) {
+            return !Objects.equal(target.getValue(), source.getValue())
+                    || !Objects.equal(target.getName(), source.getName());
+        }
+
+        @Override
+        protected void conform(SampleEntity target, Sample source) {
+            target.setValue(source.getValue());
+            target.setName(source.getName());
+        }
+
+        @Override
+        protected Sample doConvert(SampleEntity source) {
+            return new Sample(source.getId(), source.getValue(), source.getName());
+        }
+    }
+
+    static class FilteredSampleDao extends SampleDao {
+        private final ExistenceFilter existenceFilter;
+
+        public FilteredSampleDao(ExistenceFilter existenceFilter) {
+            this.existenceFilter = existenceFilter;
+        }
+
+        @Override
+        protected ExistenceFilter getExistenceFilter() {
+            return this.existenceFilter;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa.dao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Predicate.BooleanOperator;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.SingularAttribute;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.persistence.util.common.filter.IntervalCondition;
+import org.opendaylight.persistence.util.common.type.Interval;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class JpaQueryPredicateGeneratorTest {
+
+    private static final long MAX_VALUE = 20;
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static SingularAttribute<? super SampleEntity, Long> valueAttribute;
+
+    private JpaQueryPredicateGenerator<SampleEntity> generator;
+    private EntityManager entityManager;
+    private CriteriaBuilder builder;
+    private CriteriaQuery<Long> query;
+    private Root<SampleEntity> root;
+
+    @BeforeClass
+    public static void beforeClass() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("persistence-jpa-test");
+        valueAttribute = entityManagerFactory.getMetamodel().entity(SampleEntity.class)
+                .getSingularAttribute("value", Long.class);
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        for (long i = 0; i <= MAX_VALUE; i++) {
+            entityManager.persist(new SampleEntity(Long.valueOf(i), null));
+        }
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        entityManagerFactory.close();
+    }
+
+    @Before
+    public void setUp() {
+        this.generator = JpaQueryPredicateGenerator.getInstance();
+        this.entityManager = entityManagerFactory.createEntityManager();
+        this.builder = this.entityManager.getCriteriaBuilder();
+        this.query = this.builder.createQuery(Long.class);
+        this.root = this.query.from(SampleEntity.class);
+        this.query.select(this.root.get(valueAttribute));
+    }
+
+    @After
+    public void tearDown() {
+        this.entityManager.close();
+    }
+
+    @Test
+    public void testAndFlattening() {
+        Predicate a = lessThan(5);
+        Predicate b = greaterThan(1);
+        Predicate c = lessThan(10);
+
+        Predicate predicate = this.generator.and(this.builder, this.generator.and(this.builder, a, b),
+                this.generator.getTautology(this.builder), null, this.generator.and(this.builder, c));
+        Assert.assertEquals(BooleanOperator.AND, predicate.getOperator());
+        Assert.assertEquals(Arrays.asList(a, b, c), predicate.getExpressions());
+
+        Assert.assertSame(a, this.generator.and(this.builder, a, this.generator.getTautology(this.builder)));
+        Assert.assertTrue(this.generator.isTautology(this.generator.and(this.builder)));
+        Assert.assertTrue(this.generator.isContradiction(this.generator.and(this.builder, a,
+                this.generator.getContradiction(this.builder), b)));
+    }
+
+    @Test
+    public void testOrFlattening() {
+        Predicate a = lessThan(5);
+        Predicate b = greaterThan(15);
+        Predicate c = greaterThan(10);
+
+        Predicate predicate = this.generator.or(this.builder, a, this.generator.getContradiction(this.builder),
+                this.generator.or(this.builder, b, this.generator.or(this.builder, c)));
+        Assert.assertEquals(BooleanOperator.OR, predicate.getOperator());
+        Assert.assertEquals(Arrays.asList(a, b, c), predicate.getExpressions());
+
+        // And nested in Or is not flattened
+        Predicate and = this.generator.and(this.builder, a, b);
+        Assert.assertEquals(Arrays.asList(and, c), this.generator.or(this.builder, and, c).getExpressions());
+
+        Assert.assertSame(a, this.generator.or(this.builder, a, this.generator.getContradiction(this.builder)));
+        Assert.assertTrue(this.generator.isContradiction(this.generator.or(this.builder)));
+        Assert.assertTrue(this.generator.isTautology(this.generator.or(this.builder, a, null)));
+        Assert.assertTrue(this.generator.isTautology(this.generator.or(this.builder, a,
+                this.generator.getTautology(this.builder))));
+    }
+
+    @Test
+    public void testNot() {
+        Assert.assertTrue(this.generator.isContradiction(this.generator.not(this.builder, null)));
+        Assert.assertTrue(this.generator.isContradiction(this.generator.not(this.builder,
+                this.generator.getTautology(this.builder))));
+        Assert.assertTrue(this.generator.isTautology(this.generator.not(this.builder,
+                this.generator.getContradiction(this.builder))));
+
+        Predicate a = lessThan(5);
+        Predicate notA = this.generator.not(this.builder, a);
+        Assert.assertTrue(notA.isNegated());
+        assertResult(notA, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20);
+    }
+
+    @Test
+    public void testNotPushDown() {
+        Predicate a = lessThan(5);
+        Predicate b = greaterThan(2);
+        Predicate c = greaterThan(18);
+
+        // not(a and b) = not(a) or not(b)
+        Predicate predicate = this.generator.not(this.builder, this.generator.and(this.builder, a, b));
+        Assert.assertFalse(predicate.isNegated());
+        Assert.assertEquals(BooleanOperator.OR, predicate.getOperator());
+        Assert.assertEquals(2, predicate.getExpressions().size());
+        assertResult(predicate, 0, 1, 2, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20);
+
+        // not((a and b) or c) = (not(a) or not(b)) and not(c)
+        predicate = this.generator.not(this.builder, this.generator.or(this.builder,
+                this.generator.and(this.builder, a, b), c));
+        Assert.assertEquals(BooleanOperator.AND, predicate.getOperator());
+        Assert.assertEquals(2, predicate.getExpressions().size());
+        assertResult(predicate, 0, 1, 2, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18);
+
+        // Constants found while pushing the negation down are folded
+        predicate = this.generator.not(this.builder, this.builder.and(a, this.generator.getTautology(this.builder)));
+        Assert.assertTrue(predicate.isNegated());
+        assertResult(predicate, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20);
+
+        predicate = this.generator.not(this.builder, this.builder.or(a, this.generator.getTautology(this.builder)));
+        Assert.assertTrue(this.generator.isContradiction(predicate));
+    }
+
+    @Test
+    public void testIntervalConstants() {
+        Assert.assertTrue(this.generator.isTautology(getPredicate(IntervalCondition.in(Interval
+                .<Long> unbounded()))));
+        Assert.assertTrue(this.generator.isContradiction(getPredicate(IntervalCondition.notIn(Interval
+                .<Long> unbounded()))));
+        Assert.assertTrue(this.generator.isContradiction(getPredicate(IntervalCondition.in(open(3, 3)))));
+        Assert.assertTrue(this.generator.isTautology(getPredicate(IntervalCondition.notIn(open(3, 3)))));
+        assertResult(getPredicate(IntervalCondition.in(closed(3, 3))), 3);
+    }
+
+    @Test
+    public void testMergeInIntervals() {
+        Predicate predicate = getPredicate(IntervalCondition.in(closed(2, 10)),
+                IntervalCondition.in(Interval.leftOpenRightUnbounded(Long.valueOf(5))),
+                IntervalCondition.in(open(0, 8)));
+        assertResult(predicate, 6, 7);
+
+        Assert.assertTrue(this.generator.isContradiction(getPredicate(IntervalCondition.in(closed(0, 5)),
+                IntervalCondition.in(closed(6, 10)))));
+        Assert.assertTrue(this.generator.isContradiction(getPredicate(IntervalCondition.in(closed(0, 5)),
+                IntervalCondition.in(Interval.leftOpenRightClosed(Long.valueOf(5), Long.valueOf(10))))));
+        assertResult(getPredicate(IntervalCondition.in(closed(0, 5)), IntervalCondition.in(closed(5, 10))), 5);
+    }
+
+    @Test
+    public void testMergeNotInIntervals() {
+        // Overlapping
+        Predicate predicate = getPredicate(IntervalCondition.in(closed(0, 10)),
+                IntervalCondition.notIn(closed(2, 4)), IntervalCondition.notIn(open(3, 6)));
+        assertResult(predicate, 0, 1, 6, 7, 8, 9, 10);
+
+        // Adjacent
+        predicate = getPredicate(IntervalCondition.in(closed(0, 10)),
+                IntervalCondition.notIn(Interval.leftClosedRightOpen(Long.valueOf(2), Long.valueOf(4))),
+                IntervalCondition.notIn(closed(4, 6)));
+        assertResult(predicate, 0, 1, 7, 8, 9, 10);
+
+        // Disjoint, and outside of the IN interval
+        predicate = getPredicate(IntervalCondition.in(closed(0, 10)), IntervalCondition.notIn(closed(2, 3)),
+                IntervalCondition.notIn(closed(5, 6)), IntervalCondition.notIn(closed(12, 15)));
+        assertResult(predicate, 0, 1, 4, 7, 8, 9, 10);
+
+        // Only NOT_IN
+        predicate = getPredicate(IntervalCondition.notIn(Interval.leftUnboundedRightOpen(Long.valueOf(5))),
+                IntervalCondition.notIn(Interval.leftClosedRightOpen(Long.valueOf(5), Long.valueOf(19))));
+        assertResult(predicate, 19, 20);
+    }
+
+    @Test
+    public void testMergeContradiction() {
+        // Adjacent NOT_IN intervals that together enclose the IN interval
+        Assert.assertTrue(this.generator.isContradiction(getPredicate(IntervalCondition.in(closed(0, 5)),
+                IntervalCondition.notIn(Interval.leftClosedRightOpen(Long.valueOf(0), Long.valueOf(3))),
+                IntervalCondition.notIn(closed(3, 5)))));
+
+        Assert.assertTrue(this.generator.isContradiction(getPredicate(IntervalCondition.in(open(2, 4)),
+                IntervalCondition.notIn(closed(1, 3)), IntervalCondition.notIn(open(3, 8)),
+                IntervalCondition.notIn(closed(3, 3)))));
+
+        Assert.assertFalse(this.generator.isContradiction(getPredicate(IntervalCondition.in(closed(0, 5)),
+                IntervalCondition.notIn(Interval.leftClosedRightOpen(Long.valueOf(0), Long.valueOf(3))),
+                IntervalCondition.notIn(open(3, 5)))));
+    }
+
+    @Test
+    public void testMergeIgnoresNullConditions() {
+        Assert.assertTrue(this.generator.isTautology(getPredicate()));
+        Assert.assertTrue(this.generator.isTautology(this.generator.getPredicate(
+                (Collection<IntervalCondition<Long>>) null, valueAttribute, this.builder, this.root)));
+        assertResult(getPredicate(null, IntervalCondition.in(closed(19, 25))), 19, 20);
+    }
+
+    @SafeVarargs
+    private final Predicate getPredicate(IntervalCondition<Long>... conditions) {
+        return this.generator.getPredicate(Arrays.asList(conditions), valueAttribute, this.builder, this.root);
+    }
+
+    private Predicate lessThan(long value) {
+        return this.builder.lessThan(this.root.get(valueAttribute), Long.valueOf(value));
+    }
+
+    private Predicate greaterThan(long value) {
+        return this.builder.greaterThan(this.root.get(valueAttribute), Long.valueOf(value));
+    }
+
+    private static Interval<Long> closed(long left, long right) {
+        return Interval.closed(Long.valueOf(left), Long.valueOf(right));
+    }
+
+    private static Interval<Long> open(long left, long right) {
+        return Interval.open(Long.valueOf(left), Long.valueOf(right));
+    }
+
+    private void assertResult(Predicate predicate, long... expected) {
+        this.query.where(predicate);
+        List<Long> actual = new ArrayList<Long>(this.entityManager.createQuery(this.query).getResultList());
+        Collections.sort(actual);
+
+        List<Long> expectedValues = new ArrayList<Long>(expected.length);
+        for (long value : expected) {
+            expectedValues.add(Long.valueOf(value));
+        }
+        Assert.assertEquals(expectedValues, actual);
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa.dao;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import org.opendaylight.persistence.jpa.entity.BaseEntity;
+
+/**
+ * Entity used to test the JPA implementation against an in-memory database.
+ * 
+ */
+@Entity
+@Table(name = "sample", indexes = { @Index(name = "sample_name_value", columnList = "sample_name, sample_value") })
+@SuppressWarnings("javadoc")
+public class SampleEntity extends BaseEntity {
+
+    @Column(name = "sample_value")
+    private Long value;
+
+    @Column(name = "sample_name")
+    private String name;
+
+    @Deprecated
+    public SampleEntity() {
+
+    }
+
+    public SampleEntity(Long value, String name) {
+        this.value = value;
+        this.name = name;
+    }
+
+    public Long getValue() {
+        return this.value;
+    }
+
+    public void setValue(Long value) {
+        this.value = value;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
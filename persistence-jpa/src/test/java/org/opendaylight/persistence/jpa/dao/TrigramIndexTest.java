@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa.dao;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.hibernate.jpa.HibernateEntityManagerFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.query.AddAllQuery;
+import org.opendaylight.persistence.common.query.AddQuery;
+import org.opendaylight.persistence.common.query.UpdateQuery;
+import org.opendaylight.persistence.jpa.JpaContext;
+import org.opendaylight.persistence.jpa.JpaDataStore;
+import org.opendaylight.persistence.jpa.dao.JpaKeyValueDaoTest.Sample;
+import org.opendaylight.persistence.jpa.dao.JpaKeyValueDaoTest.SampleDao;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class TrigramIndexTest {
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static Statistics statistics;
+
+    private TrigramIndex<SampleEntity> index;
+    private SampleDao dao;
+    private EntityManager entityManager;
+    private JpaDataStore dataStore;
+
+    @BeforeClass
+    public static void beforeClass() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("persistence-jpa-test",
+                Collections.singletonMap("hibernate.generate_statistics", "true"));
+        statistics = ((HibernateEntityManagerFactory) entityManagerFactory).getSessionFactory().getStatistics();
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        entityManagerFactory.close();
+    }
+
+    @Before
+    public void setUp() {
+        this.index = new TrigramIndex<SampleEntity>(SampleEntity.class, "name");
+        this.dao = new SampleDao(this.index);
+        this.entityManager = entityManagerFactory.createEntityManager();
+        this.dataStore = new JpaDataStore();
+        this.dataStore.setEntityManager(this.entityManager);
+
+        this.entityManager.getTransaction().begin();
+        this.entityManager.createQuery("DELETE FROM TrigramEntity").executeUpdate();
+        this.entityManager.createQuery("DELETE FROM SampleEntity").executeUpdate();
+        this.entityManager.getTransaction().commit();
+    }
+
+    @After
+    public void tearDown() {
+        this.entityManager.close();
+    }
+
+    @Test
+    public void testGetTrigramsShortValues() {
+        Assert.assertTrue(TrigramIndex.getTrigrams(null).isEmpty());
+        Assert.assertTrue(TrigramIndex.getTrigrams("").isEmpty());
+        Assert.assertTrue(TrigramIndex.getTrigrams("a").isEmpty());
+        Assert.assertTrue(TrigramIndex.getTrigrams("ab").isEmpty());
+        Assert.assertEquals(set("abc"), TrigramIndex.getTrigrams("abc"));
+    }
+
+    @Test
+    public void testGetTrigrams() {
+        Assert.assertEquals(Arrays.asList("hel", "ell", "llo"), list(TrigramIndex.getTrigrams("hello")));
+        // Distinct
+        Assert.assertEquals(set("aaa"), TrigramIndex.getTrigrams("aaaaa"));
+        Assert.assertEquals(set("aba", "bab"), TrigramIndex.getTrigrams("ababab"));
+        // Spaces and punctuation are part of the trigrams
+        Assert.assertEquals(set("a b", " b."), TrigramIndex.getTrigrams("a b."));
+    }
+
+    @Test
+    public void testGetTrigramsCaseFolding() {
+        Assert.assertEquals(TrigramIndex.getTrigrams("hello"), TrigramIndex.getTrigrams("HeLLo"));
+        Assert.assertEquals(set("ñan", "and", "ndú"), TrigramIndex.getTrigrams("ÑANDÚ"));
+
+        // String.toLowerCase() converts the dotted capital I to two characters, which would shift the trigrams
+        Assert.assertEquals(set("iab"), TrigramIndex.getTrigrams("İab"));
+        Assert.assertTrue(TrigramIndex.getTrigrams("xİabx").containsAll(TrigramIndex.getTrigrams("İab")));
+    }
+
+    @Test
+    public void testGetTrigramsSupplementaryCharacters() {
+        String clef = new String(Character.toChars(0x1D11E));
+        Assert.assertTrue(TrigramIndex.getTrigrams("a" + clef).isEmpty());
+        Assert.assertEquals(set("a" + clef + "b", clef + "bc"), TrigramIndex.getTrigrams("a" + clef + "bc"));
+
+        String deseretCapital = new String(Character.toChars(0x10400));
+        String deseretSmall = new String(Character.toChars(0x10428));
+        Assert.assertEquals(set("x" + deseretSmall + "y"), TrigramIndex.getTrigrams("x" + deseretCapital + "y"));
+    }
+
+    @Test
+    public void testGetTrigramsOfSubstring() {
+        String value = "Network Device İstanbul-Été";
+        Set<String> trigrams = TrigramIndex.getTrigrams(value);
+        for (int begin = 0; begin < value.length(); begin++) {
+            for (int end = begin + 1; end <= value.length(); end++) {
+                Assert.assertTrue(trigrams.containsAll(TrigramIndex.getTrigrams(value.substring(begin, end))));
+            }
+        }
+    }
+
+    @Test
+    public void testAdd() throws Exception {
+        // Allocates the block of trigram ids, so the sequence is not accessed below
+        execute(AddQuery.createQuery(new Sample(null, Long.valueOf(0), "abc"), this.dao));
+
+        statistics.clear();
+        Sample sample = execute(AddQuery.createQuery(new Sample(null, Long.valueOf(1), "Hello"), this.dao));
+
+        // New entities have no entries to delete: Only the sample insert and the batch of entry inserts
+        Assert.assertEquals(2, statistics.getPrepareStatementCount());
+        Assert.assertEquals(set("hel", "ell", "llo"), getEntries(sample.getIdentifier()));
+    }
+
+    @Test
+    public void testAddAll() throws Exception {
+        execute(AddQuery.createQuery(new Sample(null, Long.valueOf(0), "abc"), this.dao));
+
+        statistics.clear();
+        List<Sample> samples = Arrays.asList(new Sample(null, Long.valueOf(1), "abcd"), new Sample(null,
+                Long.valueOf(2), "xyz"));
+        execute(AddAllQuery.createQuery(samples, this.dao));
+
+        // One insert per sample (Identity ids) and the batch of entry inserts
+        Assert.assertEquals(3, statistics.getPrepareStatementCount());
+        Assert.assertEquals(4, getEntryCount());
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        Sample sample = execute(AddQuery.createQuery(new Sample(null, Long.valueOf(1), "Hello"), this.dao));
+
+        execute(UpdateQuery.createQuery(new Sample(sample.getIdentifier(), Long.valueOf(1), "Help"), this.dao));
+        Assert.assertEquals(set("hel", "elp"), getEntries(sample.getIdentifier()));
+
+        // Entries are not rewritten if the indexed attribute does not change: Only the sample update
+        statistics.clear();
+        execute(UpdateQuery.createQuery(new Sample(sample.getIdentifier(), Long.valueOf(2), "Help"), this.dao));
+        Assert.assertEquals(1, statistics.getPrepareStatementCount());
+        Assert.assertEquals(set("hel", "elp"), getEntries(sample.getIdentifier()));
+    }
+
+    private <T> T execute(Query<T, JpaContext> query) throws PersistenceException {
+        this.entityManager.getTransaction().begin();
+        try {
+            T result = this.dataStore.execute(query);
+            this.entityManager.getTransaction().commit();
+            return result;
+        } finally {
+            if (this.entityManager.getTransaction().isActive()) {
+                this.entityManager.getTransaction().rollback();
+            }
+        }
+    }
+
+    private Set<String> getEntries(Long id) {
+        List<String> trigrams = this.entityManager
+                .createQuery("SELECT t.trigram FROM TrigramEntity t WHERE t.indexName = :indexName "
+                        + "AND t.ownerKey = :ownerKey", String.class)
+                .setParameter("indexName", this.index.getName()).setParameter("ownerKey", id.toString())
+                .getResultList();
+        return new HashSet<String>(trigrams);
+    }
+
+    private long getEntryCount() {
+        return this.entityManager
+                .createQuery("SELECT COUNT(t) FROM TrigramEntity t WHERE t.indexName = :indexName", Long.class)
+                .setParameter("indexName", this.index.getName()).getSingleResult().longValue();
+    }
+
+    private static Set<String> set(String... trigrams) {
+        return new HashSet<String>(Arrays.asList(trigrams));
+    }
+
+    private static List<String> list(Set<String> trigrams) {
+        return Arrays.asList(trigrams.toArray(new String[trigrams.size()]));
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa.id;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+import org.opendaylight.persistence.jpa.entity.BasePooledEntity;
+
+/**
+ * Entity used to test {@link PooledSequenceGenerator} with the default block size.
+ * 
+ */
+@Entity
+@Table(name = "pooled_sample")
+@SuppressWarnings("javadoc")
+public class PooledSampleEntity extends BasePooledEntity {
+
+    @Column(name = "sample_name")
+    private String name;
+
+    @Deprecated
+    public PooledSampleEntity() {
+
+    }
+
+    public PooledSampleEntity(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+}
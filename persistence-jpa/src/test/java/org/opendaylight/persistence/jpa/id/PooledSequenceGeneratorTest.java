@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa.id;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.persistence.PersistenceException;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class PooledSequenceGeneratorTest {
+
+    private static EntityManagerFactory entityManagerFactory;
+
+    @BeforeClass
+    public static void beforeClass() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("persistence-jpa-test");
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        entityManagerFactory.close();
+    }
+
+    @Test
+    public void testBlockAllocation() {
+        int blockSize = PooledSequenceGenerator.DEFAULT_BLOCK_SIZE;
+        String sequence = "PooledSampleEntity_SEQ";
+
+        List<Long> ids = new ArrayList<Long>();
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+
+        ids.add(persist(entityManager, new PooledSampleEntity("first")));
+        long firstBlock = getCurrentValue(entityManager, sequence);
+        for (int i = 1; i < blockSize; i++) {
+            ids.add(persist(entityManager, new PooledSampleEntity("entity " + i)));
+        }
+        Assert.assertEquals("Sequence accessed before the block was exhausted", firstBlock,
+                getCurrentValue(entityManager, sequence));
+
+        ids.add(persist(entityManager, new PooledSampleEntity("next block")));
+        Assert.assertEquals(firstBlock + blockSize, getCurrentValue(entityManager, sequence));
+
+        entityManager.getTransaction().commit();
+        entityManager.close();
+
+        for (int i = 0; i < ids.size(); i++) {
+            Assert.assertEquals(Long.valueOf(ids.get(0).longValue() + i), ids.get(i));
+        }
+    }
+
+    @Test
+    public void testIncrementSize() {
+        int blockSize = SmallBlockPooledEntity.BLOCK_SIZE;
+        String sequence = "SmallBlockPooledEntity_SEQ";
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+
+        Assert.assertEquals(blockSize, getIncrement(entityManager, sequence));
+
+        SmallBlockPooledEntity first = new SmallBlockPooledEntity("first");
+        entityManager.persist(first);
+        long firstBlock = getCurrentValue(entityManager, sequence);
+        SmallBlockPooledEntity last = null;
+        for (int i = 0; i < blockSize; i++) {
+            last = new SmallBlockPooledEntity("entity " + i);
+            entityManager.persist(last);
+        }
+        Assert.assertEquals(firstBlock + blockSize, getCurrentValue(entityManager, sequence));
+        Assert.assertEquals(first.getId().longValue() + blockSize, last.getId().longValue());
+
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    @Test
+    public void testGrownBlockSize() {
+        String sequence = "GrownBlockPooledEntity_SEQ";
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+
+        // Sequence created when the block size was smaller
+        entityManager.createNativeQuery(
+                "ALTER SEQUENCE " + sequence + " INCREMENT BY " + (GrownBlockPooledEntity.BLOCK_SIZE / 2))
+                .executeUpdate();
+        try {
+            entityManager.persist(new GrownBlockPooledEntity("first"));
+            Assert.fail("Exception expected");
+        } catch (PersistenceException e) {
+            // Expected
+        } finally {
+            entityManager.getTransaction().rollback();
+            entityManager.close();
+        }
+    }
+
+    @Test
+    public void testDefaultBlockSize() {
+        String previous = System.getProperty(PooledSequenceGenerator.BLOCK_SIZE_PROPERTY);
+        try {
+            System.clearProperty(PooledSequenceGenerator.BLOCK_SIZE_PROPERTY);
+            Assert.assertEquals(PooledSequenceGenerator.DEFAULT_BLOCK_SIZE,
+                    PooledSequenceGenerator.getDefaultBlockSize());
+
+            System.setProperty(PooledSequenceGenerator.BLOCK_SIZE_PROPERTY, "1000");
+            Assert.assertEquals(1000, PooledSequenceGenerator.getDefaultBlockSize());
+
+            System.setProperty(PooledSequenceGenerator.BLOCK_SIZE_PROPERTY, "0");
+            Assert.assertEquals(PooledSequenceGenerator.DEFAULT_BLOCK_SIZE,
+                    PooledSequenceGenerator.getDefaultBlockSize());
+
+            System.setProperty(PooledSequenceGenerator.BLOCK_SIZE_PROPERTY, "invalid");
+            Assert.assertEquals(PooledSequenceGenerator.DEFAULT_BLOCK_SIZE,
+                    PooledSequenceGenerator.getDefaultBlockSize());
+        } finally {
+            if (previous == null) {
+                System.clearProperty(PooledSequenceGenerator.BLOCK_SIZE_PROPERTY);
+            } else {
+                System.setProperty(PooledSequenceGenerator.BLOCK_SIZE_PROPERTY, previous);
+            }
+        }
+    }
+
+    private static Long persist(EntityManager entityManager, PooledSampleEntity entity) {
+        entityManager.persist(entity);
+        return entity.getId();
+    }
+
+    private static long getCurrentValue(EntityManager entityManager, String sequence) {
+        return getSequenceColumn(entityManager, sequence, "CURRENT_VALUE");
+    }
+
+    private static long getIncrement(EntityManager entityManager, String sequence) {
+        return getSequenceColumn(entityManager, sequence, "INCREMENT");
+    }
+
+    private static long getSequenceColumn(EntityManager entityManager, String sequence, String column) {
+        Object value = entityManager
+                .createNativeQuery("SELECT " + column + " FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?1")
+                .setParameter(1, sequence.toUpperCase()).getSingleResult();
+        return ((Number) value).longValue();
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa.id;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+/**
+ * Entity used to test {@link PooledSequenceGenerator} with a block size set through the {@code increment_size}
+ * parameter.
+ * 
+ */
+@Entity
+@Table(name = "small_block_pooled_sample")
+@SuppressWarnings("javadoc")
+public class SmallBlockPooledEntity {
+
+    public static final int BLOCK_SIZE = 5;
+
+    @Id
+    @GeneratedValue(generator = "SmallBlockPooledEntityIdGenerator")
+    @GenericGenerator(name = "SmallBlockPooledEntityIdGenerator", strategy = PooledSequenceGenerator.STRATEGY, parameters = { @Parameter(name = "increment_size", value = "5") })
+    @Column(name = "Id")
+    private Long id;
+
+    @Column(name = "sample_name")
+    private String name;
+
+    @Deprecated
+    public SmallBlockPooledEntity() {
+
+    }
+
+    public SmallBlockPooledEntity(String name) {
+        this.name = name;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+}
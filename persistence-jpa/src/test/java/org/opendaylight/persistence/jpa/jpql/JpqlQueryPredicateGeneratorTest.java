@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.jpa.jpql;
+
+import javax.persistence.Query;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class JpqlQueryPredicateGeneratorTest {
+
+    private JpqlQueryPredicateGenerator<Object> generator;
+    private JpqlPredicate a;
+    private JpqlPredicate b;
+    private JpqlPredicate c;
+
+    @Before
+    public void setUp() {
+        this.generator = new JpqlQueryPredicateGenerator<Object>();
+        this.a = new Leaf("a");
+        this.b = new Leaf("b");
+        this.c = new Leaf("c");
+    }
+
+    @Test
+    public void testAndFlattening() {
+        JpqlPredicate predicate = this.generator.and(this.generator.and(this.a, this.b),
+                this.generator.getTautology(), null, this.generator.and(this.c));
+        Assert.assertTrue(predicate instanceof JpqlAnd);
+        Assert.assertEquals("((a) And (b) And (c))", predicate.getPredicate());
+
+        Assert.assertSame(this.a, this.generator.and(this.a, this.generator.getTautology()));
+        Assert.assertTrue(this.generator.isTautology(this.generator.and()));
+        Assert.assertTrue(this.generator.isContradiction(this.generator.and(this.a,
+                this.generator.getContradiction(), this.b)));
+    }
+
+    @Test
+    public void testOrFlattening() {
+        JpqlPredicate predicate = this.generator.or(this.a, this.generator.getContradiction(),
+                this.generator.or(this.b, this.generator.or(this.c)));
+        Assert.assertTrue(predicate instanceof JpqlOr);
+        Assert.assertEquals("((a) Or (b) Or (c))", predicate.getPredicate());
+
+        // And nested in Or is not flattened
+        Assert.assertEquals("((((a) And (b))) Or (c))",
+                this.generator.or(this.generator.and(this.a, this.b), this.c).getPredicate());
+
+        Assert.assertSame(this.a, this.generator.or(this.a, this.generator.getContradiction()));
+        Assert.assertTrue(this.generator.isContradiction(this.generator.or()));
+        Assert.assertTrue(this.generator.isTautology(this.generator.or(this.a, null)));
+        Assert.assertTrue(this.generator.isTautology(this.generator.or(this.a, this.generator.getTautology())));
+    }
+
+    @Test
+    public void testNot() {
+        Assert.assertTrue(this.generator.isContradiction(this.generator.not(null)));
+        Assert.assertTrue(this.generator.isContradiction(this.generator.not(this.generator.getTautology())));
+        Assert.assertTrue(this.generator.isTautology(this.generator.not(this.generator.getContradiction())));
+
+        JpqlPredicate notA = this.generator.not(this.a);
+        Assert.assertEquals("Not (a)", notA.getPredicate());
+        Assert.assertSame(this.a, this.generator.not(notA));
+    }
+
+    @Test
+    public void testNotPushDown() {
+        JpqlPredicate predicate = this.generator.not(this.generator.and(this.a, this.b));
+        Assert.assertTrue(predicate instanceof JpqlOr);
+        Assert.assertEquals("((Not (a)) Or (Not (b)))", predicate.getPredicate());
+
+        predicate = this.generator.not(this.generator.or(this.generator.and(this.a, this.b), this.c));
+        Assert.assertTrue(predicate instanceof JpqlAnd);
+        Assert.assertEquals("((((Not (a)) Or (Not (b)))) And (Not (c)))", predicate.getPredicate());
+
+        // Double negations cancel out at the leaves
+        predicate = this.generator.not(this.generator.and(this.generator.not(this.a), this.b));
+        Assert.assertEquals("((a) Or (Not (b)))", predicate.getPredicate());
+
+        // Negations pushed down are flattened into the enclosing operator
+        predicate = this.generator.or(this.c, this.generator.not(this.generator.and(this.a, this.b)));
+        Assert.assertEquals("((c) Or (Not (a)) Or (Not (b)))", predicate.getPredicate());
+    }
+
+    private static class Leaf implements JpqlPredicate {
+        private final String predicate;
+
+        Leaf(String predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public String getPredicate() {
+            return this.predicate;
+        }
+
+        @Override
+        public void addParameters(Query query) {
+
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.mvstore;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import org.h2.mvstore.db.TransactionStore.Transaction;
+import org.h2.mvstore.db.TransactionStore.TransactionMap;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * MVStore data store context: A transaction on a {@link org.h2.mvstore.db.TransactionStore}.
+ * <p>
+ * Maps opened through this context are views of the transaction: Changes are visible to the
+ * transaction as they are made and to other transactions once committed. Maps are copy-on-write,
+ * thus readers never block and never see partial changes of other transactions.
+ * <p>
+ * The context also keeps the number of entries each map gained or lost in the transaction, so the
+ * data store can maintain the size of the maps without counting their entries (See
+ * {@link #getSize(String)}).
+ * <p>
+ * This class is not thread safe: A context is confined to the thread executing the query.
+ * 
+ */
+public final class MvStoreContext {
+
+    private final Transaction transaction;
+    private final MvStoreDataStore dataStore;
+    private final Map<String, TransactionMap<?, ?>> maps;
+    private final Map<String, Long> sizeDeltas;
+
+    MvStoreContext(@Nonnull Transaction transaction, @Nonnull MvStoreDataStore dataStore) {
+        this.transaction = transaction;
+        this.dataStore = dataStore;
+        this.maps = new HashMap<String, TransactionMap<?, ?>>();
+        this.sizeDeltas = new HashMap<String, Long>();
+    }
+
+    /**
+     * Opens a map in this transaction. The map is created if it does not exist.
+     * 
+     * @param name map name
+     * @return the transactional view of the map
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> TransactionMap<K, V> getMap(@Nonnull String name) {
+        Preconditions.checkNotNull(name, "name");
+
+        TransactionMap<K, V> map = (TransactionMap<K, V>) this.maps.get(name);
+        if (map == null) {
+            map = this.transaction.openMap(name);
+            this.maps.put(name, map);
+            // The map has no changes from this transaction yet, so its committed size can be counted
+            this.dataStore.initSize(name, map);
+        }
+        return map;
+    }
+
+    /**
+     * Gets the number of entries in a map as seen by this transaction.
+     * 
+     * @param name map name
+     * @return the number of entries in the map
+     */
+    public long getSize(@Nonnull String name) {
+        getMap(name);
+        return this.dataStore.getCommittedSize(name) + getSizeDelta(name);
+    }
+
+    /**
+     * Records entries added to (positive delta) or removed from (negative delta) a map in this
+     * transaction.
+     * 
+     * @param name map name
+     * @param delta number of entries added or removed
+     */
+    public void adjustSize(@Nonnull String name, long delta) {
+        Preconditions.checkNotNull(name, "name");
+        if (delta != 0) {
+            this.sizeDeltas.put(name, Long.valueOf(getSizeDelta(name) + delta));
+        }
+    }
+
+    Transaction getTransaction() {
+        return this.transaction;
+    }
+
+    Map<String, Long> getSizeDeltas() {
+        return Collections.unmodifiableMap(this.sizeDeltas);
+    }
+
+    private long getSizeDelta(String name) {
+        Long delta = this.sizeDeltas.get(name);
+        return delta != null ? delta.longValue() : 0;
+    }
+}
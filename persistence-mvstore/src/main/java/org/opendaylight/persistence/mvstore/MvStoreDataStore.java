@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.mvstore;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+
+import org.h2.mvstore.MVStore;
+import org.h2.mvstore.db.TransactionStore;
+import org.h2.mvstore.db.TransactionStore.Transaction;
+import org.h2.mvstore.db.TransactionStore.TransactionMap;
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.query.QueryLoggerDecorator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link DataStore} on H2's MVStore: An embedded, log-structured key-value store.
+ * <p>
+ * Each query is executed in its own MVStore transaction which is committed if the query completes
+ * and rolled back otherwise. Transactions see committed data plus their own changes; writing an
+ * entry modified by another open transaction fails with a {@link PersistenceException} rather than
+ * blocking, so such queries are safe to retry.
+ * <p>
+ * Committing a transaction makes its changes visible, not durable: The MVStore writes changes to its
+ * file in the background according to its write delay (See {@link MVStore.Builder#writeDelay(int)}).
+ * The {@link MVStore} is owned by the caller, who is responsible for closing it.
+ * <p>
+ * The store keeps the number of entries of each map opened through it, so sizes are answered
+ * without iterating the maps (MVStore transactional maps count their entries one by one). The size
+ * of a map is counted the first time the map is opened and then maintained as transactions commit.
+ * This assumes the maps are modified only through this data store.
+ * 
+ */
+public class MvStoreDataStore implements DataStore<MvStoreContext> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MvStoreDataStore.class);
+
+    private final TransactionStore transactionStore;
+    private final ConcurrentMap<String, AtomicLong> sizes;
+    // Makes counting the committed entries of a map atomic with respect to commits changing sizes
+    private final Object sizeLock;
+
+    /**
+     * Creates a data store.
+     * 
+     * @param store the MVStore
+     */
+    public MvStoreDataStore(@Nonnull MVStore store) {
+        Preconditions.checkNotNull(store, "store");
+        this.transactionStore = new TransactionStore(store);
+        this.sizes = new ConcurrentHashMap<String, AtomicLong>();
+        this.sizeLock = new Object();
+    }
+
+    @Override
+    public <T> T execute(Query<T, MvStoreContext> query) throws PersistenceException {
+        Preconditions.checkNotNull(query, "query");
+
+        Query<T, MvStoreContext> queryDecorator = new QueryLoggerDecorator<T, MvStoreContext>(query);
+
+        Transaction transaction = this.transactionStore.begin();
+        MvStoreContext context = new MvStoreContext(transaction, this);
+        boolean committed = false;
+        try {
+            T result = queryDecorator.execute(context);
+            commit(context);
+            committed = true;
+            return result;
+        } catch (IllegalStateException e) {
+            // MVStore reports locked entries, closed stores and file errors as illegal states
+            throw new PersistenceException(e);
+        } finally {
+            if (!committed) {
+                rollback(transaction);
+            }
+        }
+    }
+
+    void initSize(String name, TransactionMap<?, ?> map) {
+        if (this.sizes.containsKey(name)) {
+            return;
+        }
+
+        synchronized (this.sizeLock) {
+            if (!this.sizes.containsKey(name)) {
+                this.sizes.put(name, new AtomicLong(map.sizeAsLong()));
+            }
+        }
+    }
+
+    long getCommittedSize(String name) {
+        AtomicLong size = this.sizes.get(name);
+        return size != null ? size.get() : 0;
+    }
+
+    private void commit(MvStoreContext context) {
+        Map<String, Long> sizeDeltas = context.getSizeDeltas();
+        if (sizeDeltas.isEmpty()) {
+            context.getTransaction().commit();
+            return;
+        }
+
+        synchronized (this.sizeLock) {
+            context.getTransaction().commit();
+            for (Entry<String, Long> sizeDelta : sizeDeltas.entrySet()) {
+                this.sizes.get(sizeDelta.getKey()).addAndGet(sizeDelta.getValue().longValue());
+            }
+        }
+    }
+
+    private static void rollback(Transaction transaction) {
+        try {
+            transaction.rollback();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to rollback transaction", e);
+        }
+    }
+}
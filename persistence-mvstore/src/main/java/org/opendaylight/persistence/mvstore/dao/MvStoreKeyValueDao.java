@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.mvstore.dao;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.h2.mvstore.db.TransactionStore.TransactionMap;
+import org.opendaylight.persistence.IntegrityConstraintViolationException;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.dao.KeyValueDao;
+import org.opendaylight.persistence.mvstore.MvStoreContext;
+import org.opendaylight.persistence.util.common.codec.BinaryReader;
+import org.opendaylight.persistence.util.common.codec.BinaryWriter;
+import org.opendaylight.persistence.util.common.codec.Codec;
+import org.opendaylight.persistence.util.common.type.page.MarkPage;
+import org.opendaylight.persistence.util.common.type.page.MarkPageRequest;
+import org.opendaylight.persistence.util.common.type.page.MarkPageRequest.Navigation;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link KeyValueDao} on an MVStore map.
+ * <p>
+ * This class must remain state-less so it is thread safe.
+ * <p>
+ * Objects are stored in the map named after the DAO, keyed by id and encoded as byte arrays using a
+ * {@link Codec}, thus no Java serialization is involved and values take the space of their binary
+ * encoding. Ids are stored as they are and must be of a type the MVStore orders natively (Numbers,
+ * strings, dates, UUIDs, etc.); ids are assigned by the application.
+ * <p>
+ * Maps are ordered by id, so {@link #getAll(MvStoreContext)} returns the objects in id order and
+ * pages are selected by seeking to the mark (See {@link #find(MarkPageRequest, MvStoreContext)}).
+ * {@link #size(MvStoreContext)} takes constant time. Writes learn whether the object existed from the
+ * previous value the write itself replaced, so a concurrent write between a read and the write
+ * cannot make the size drift.
+ * 
+ * @param <I> type of the identifiable object's id. This type should be immutable and it is critical
+ *            it implements {@link Object#equals(Object)} and {@link Object#hashCode()} correctly.
+ * @param <T> type of the identifiable object (object to store in the data store)
+ */
+public class MvStoreKeyValueDao<I extends Serializable, T extends Identifiable<I>> implements
+        KeyValueDao<I, T, MvStoreContext> {
+
+    private final String mapName;
+    private final Codec<T> codec;
+
+    /**
+     * Creates a DAO.
+     * 
+     * @param mapName name of the map to store the objects in
+     * @param codec codec to encode the objects with
+     */
+    public MvStoreKeyValueDao(@Nonnull String mapName, @Nonnull Codec<T> codec) {
+        this.mapName = Preconditions.checkNotNull(mapName, "mapName");
+        this.codec = Preconditions.checkNotNull(codec, "codec");
+    }
+
+    @Override
+    public T add(T identifiable, MvStoreContext context) throws PersistenceException {
+        Preconditions.checkArgument(identifiable != null, "identifiable cannot be null");
+        Preconditions.checkArgument(identifiable.getIdentifier() != null, "id cannot be null");
+
+        TransactionMap<I, byte[]> map = getMap(context);
+        I id = identifiable.getIdentifier();
+        byte[] previous = put(map, id, identifiable);
+        if (previous != null) {
+            // Restore the existing object in case the caller handles the exception and commits
+            write(map, id, previous);
+            throw new IntegrityConstraintViolationException("object with id " + id + " already exists");
+        }
+        context.adjustSize(this.mapName, 1);
+        return identifiable;
+    }
+
+    @Override
+    public T update(T identifiable, MvStoreContext context) throws PersistenceException {
+        Preconditions.checkArgument(identifiable != null, "identifiable cannot be null");
+        Preconditions.checkArgument(identifiable.getIdentifier() != null, "id cannot be null");
+
+        TransactionMap<I, byte[]> map = getMap(context);
+        I id = identifiable.getIdentifier();
+        if (put(map, id, identifiable) == null) {
+            write(map, id, null);
+            throw new PersistenceException("object with id " + id + " not found");
+        }
+        return identifiable;
+    }
+
+    @Override
+    public void delete(I id, MvStoreContext context) throws PersistenceException {
+        if (id == null) {
+            return;
+        }
+
+        if (write(getMap(context), id, null) != null) {
+            context.adjustSize(this.mapName, -1);
+        }
+    }
+
+    @Override
+    public T get(I id, MvStoreContext context) throws PersistenceException {
+        if (id == null) {
+            return null;
+        }
+        return decode(getMap(context).get(id));
+    }
+
+    @Override
+    public boolean exist(I id, MvStoreContext context) throws PersistenceException {
+        if (id == null) {
+            return false;
+        }
+        return getMap(context).get(id) != null;
+    }
+
+    @Override
+    public Collection<T> getAll(MvStoreContext context) throws PersistenceException {
+        TransactionMap<I, byte[]> map = getMap(context);
+        List<T> result = new ArrayList<T>();
+        for (Iterator<I> iterator = map.keyIterator(null); iterator.hasNext();) {
+            byte[] value = map.get(iterator.next());
+            if (value != null) {
+                result.add(decode(value));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long size(MvStoreContext context) throws PersistenceException {
+        return context.getSize(this.mapName);
+    }
+
+    @Override
+    public void clear(MvStoreContext context) throws PersistenceException {
+        TransactionMap<I, byte[]> map = getMap(context);
+        // TransactionMap.clear() bypasses the transaction, so entries are removed one by one
+        List<I> ids = new ArrayList<I>();
+        for (Iterator<I> iterator = map.keyIterator(null); iterator.hasNext();) {
+            ids.add(iterator.next());
+        }
+        for (I id : ids) {
+            delete(id, context);
+        }
+    }
+
+    /**
+     * Loads a page of objects in id order.
+     * <p>
+     * The page following (or preceding) the mark is found by seeking to the mark's id, thus the cost
+     * of loading a page depends on the page size and not on the position of the page.
+     * 
+     * @param pageRequest page request. The mark is the last object of the previous page (or the
+     *            first object of the next page when navigating backwards); a {@code null} mark
+     *            requests the first (or the last) page.
+     * @param context data store context
+     * @return the page
+     * @throws PersistenceException if persistence errors occur while executing the operation
+     */
+    public MarkPage<T> find(@Nonnull MarkPageRequest<T> pageRequest, @Nonnull MvStoreContext context)
+            throws PersistenceException {
+        Preconditions.checkNotNull(pageRequest, "pageRequest");
+
+        TransactionMap<I, byte[]> map = getMap(context);
+        T mark = pageRequest.getMark();
+        I markId = mark != null ? mark.getIdentifier() : null;
+        int size = pageRequest.getSize();
+        List<T> data = new ArrayList<T>(size);
+
+        if (pageRequest.getNavigation() == Navigation.NEXT) {
+            Iterator<I> iterator = map.keyIterator(markId);
+            while (iterator.hasNext() && data.size() < size) {
+                I id = iterator.next();
+                byte[] value = map.get(id);
+                if (value != null && !id.equals(markId)) {
+                    data.add(decode(value));
+                }
+            }
+        }
+        else {
+            // lowerKey also returns keys not visible to the transaction; those have no value
+            I id = markId != null ? map.lowerKey(markId) : map.lastKey();
+            while (id != null && data.size() < size) {
+                byte[] value = map.get(id);
+                if (value != null) {
+                    data.add(decode(value));
+                }
+                id = map.lowerKey(id);
+            }
+            Collections.reverse(data);
+        }
+
+        return new MarkPage<T>(pageRequest, data);
+    }
+
+    /**
+     * Gets the name of the map the objects are stored in.
+     * 
+     * @return the map name
+     */
+    public String getMapName() {
+        return this.mapName;
+    }
+
+    private TransactionMap<I, byte[]> getMap(MvStoreContext context) {
+        return context.getMap(this.mapName);
+    }
+
+    private byte[] put(TransactionMap<I, byte[]> map, I id, T identifiable) throws PersistenceException {
+        BinaryWriter writer = new BinaryWriter();
+        this.codec.encode(identifiable, writer);
+        return write(map, id, writer.toByteArray());
+    }
+
+    /**
+     * Writes a value.
+     * 
+     * @param map map to write to
+     * @param id id
+     * @param value value to write, {@code null} to remove the entry
+     * @return the value replaced by the write, {@code null} if there was none
+     * @throws PersistenceException if the entry is locked by a concurrent transaction
+     */
+    private static <I> byte[] write(TransactionMap<I, byte[]> map, I id, byte[] value)
+            throws PersistenceException {
+        try {
+            return value != null ? map.put(id, value) : map.remove(id);
+        } catch (IllegalStateException e) {
+            throw new PersistenceException("object with id " + id
+                    + " is being modified by a concurrent transaction", e);
+        }
+    }
+
+    private T decode(byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        return this.codec.decode(new BinaryReader(value));
+    }
+}
@@ -0,0 +1,261 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.mvstore.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.h2.mvstore.MVStore;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opendaylight.persistence.IntegrityConstraintViolationException;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.mvstore.MvStoreContext;
+import org.opendaylight.persistence.mvstore.MvStoreDataStore;
+import org.opendaylight.persistence.util.common.codec.BinaryReader;
+import org.opendaylight.persistence.util.common.codec.BinaryWriter;
+import org.opendaylight.persistence.util.common.codec.Codec;
+import org.opendaylight.persistence.util.common.type.page.MarkPage;
+import org.opendaylight.persistence.util.common.type.page.MarkPageRequest;
+import org.opendaylight.persistence.util.common.type.page.MarkPageRequest.Navigation;
+import org.opendaylight.yangtools.concepts.Identifiable;
+
+import com.opendaylight.persistence.dao.AbstractKeyValueDaoTest;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class MvStoreKeyValueDaoTest extends
+        AbstractKeyValueDaoTest<Long, MvStoreKeyValueDaoTest.Item, MvStoreContext, MvStoreKeyValueDao<Long, MvStoreKeyValueDaoTest.Item>> {
+
+    private static final MvStoreDataStore DATA_STORE = new MvStoreDataStore(new MVStore.Builder().open());
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+    private static final Random RANDOM = new Random();
+
+    private static final Codec<Item> ITEM_CODEC = new Codec<Item>() {
+        @Override
+        public void encode(Item value, BinaryWriter writer) {
+            writer.writeSignedVarLong(value.getIdentifier().longValue());
+            writer.writeString(value.getName());
+            writer.writeSignedVarInt(value.getPriority());
+        }
+
+        @Override
+        public Item decode(BinaryReader reader) {
+            return new Item(Long.valueOf(reader.readSignedVarLong()), reader.readString(), reader.readSignedVarInt());
+        }
+    };
+
+    public MvStoreKeyValueDaoTest() {
+        super(DATA_STORE);
+    }
+
+    @Test
+    public void testFindMarkPage() throws PersistenceException {
+        List<Item> items = createIdentifiables(7);
+        store(items);
+
+        MarkPage<Item> page = find(new MarkPageRequest<Item>(3));
+        assertPage(page, items.get(0), items.get(1), items.get(2));
+
+        page = find(page.getNextPageRequest());
+        assertPage(page, items.get(3), items.get(4), items.get(5));
+
+        page = find(page.getNextPageRequest());
+        assertPage(page, items.get(6));
+
+        page = find(page.getPreviousPageRequest());
+        assertPage(page, items.get(3), items.get(4), items.get(5));
+
+        page = find(new MarkPageRequest<Item>(null, Navigation.PREVIOUS, 2));
+        assertPage(page, items.get(5), items.get(6));
+
+        page = find(new MarkPageRequest<Item>(items.get(6), Navigation.NEXT, 2));
+        Assert.assertTrue(page.isEmpty());
+    }
+
+    @Test
+    public void testSizeWithinTransaction() throws PersistenceException {
+        final List<Item> items = createIdentifiables(3);
+        store(items);
+
+        long size = execute(new DaoQuery<Long>() {
+            @Override
+            protected Long execute(MvStoreKeyValueDao<Long, Item> dao, MvStoreContext context)
+                    throws PersistenceException {
+                dao.delete(items.get(0).getIdentifier(), context);
+                dao.add(createIdentifiable(Long.valueOf(ID_SEQUENCE.incrementAndGet())), context);
+                dao.add(createIdentifiable(Long.valueOf(ID_SEQUENCE.incrementAndGet())), context);
+                return Long.valueOf(dao.size(context));
+            }
+        }).longValue();
+        Assert.assertEquals(4, size);
+        Assert.assertEquals(4, size());
+    }
+
+    @Test
+    public void testRollback() throws PersistenceException {
+        final List<Item> items = createIdentifiables(2);
+        store(items.get(0));
+
+        try {
+            execute(new DaoQuery<Void>() {
+                @Override
+                protected Void execute(MvStoreKeyValueDao<Long, Item> dao, MvStoreContext context)
+                        throws PersistenceException {
+                    dao.delete(items.get(0).getIdentifier(), context);
+                    dao.add(items.get(1), context);
+                    throw new PersistenceException("failure");
+                }
+            });
+            Assert.fail("Exception expected");
+        } catch (PersistenceException e) {
+            Assert.assertEquals("failure", e.getMessage());
+        }
+
+        Assert.assertEquals(1, size());
+        Assert.assertTrue(exist(items.get(0).getIdentifier()));
+        Assert.assertFalse(exist(items.get(1).getIdentifier()));
+    }
+
+    @Test
+    public void testHandledDuplicateAdd() throws PersistenceException {
+        final Item item = store(createIdentifiable(Long.valueOf(ID_SEQUENCE.incrementAndGet())));
+        final Item duplicate = new Item(item.getIdentifier(), item.getName() + "-duplicate", item.getPriority());
+
+        execute(new DaoQuery<Void>() {
+            @Override
+            protected Void execute(MvStoreKeyValueDao<Long, Item> dao, MvStoreContext context)
+                    throws PersistenceException {
+                try {
+                    dao.add(duplicate, context);
+                    Assert.fail("Exception expected");
+                } catch (IntegrityConstraintViolationException e) {
+                    // Expected exception: The transaction commits regardless
+                }
+                return null;
+            }
+        });
+
+        Item stored = execute(new DaoQuery<Item>() {
+            @Override
+            protected Item execute(MvStoreKeyValueDao<Long, Item> dao, MvStoreContext context)
+                    throws PersistenceException {
+                return dao.get(item.getIdentifier(), context);
+            }
+        });
+        Assert.assertEquals(1, size());
+        Assert.assertEquals(item.getName(), stored.getName());
+    }
+
+    @Override
+    protected MvStoreKeyValueDao<Long, Item> createDaoInstance() {
+        return new MvStoreKeyValueDao<Long, Item>("item", ITEM_CODEC);
+    }
+
+    @Override
+    protected boolean isPrimaryKeyIntegrityConstraintViolationTestSuitable() {
+        return true;
+    }
+
+    @Override
+    protected boolean isNotFoundExceptionOnUpdateSuitable() {
+        return true;
+    }
+
+    @Override
+    protected boolean isVersioned() {
+        return false;
+    }
+
+    @Override
+    protected Item createIdentifiable(Long id) {
+        return new Item(id, "item-" + id, RANDOM.nextInt(100));
+    }
+
+    @Override
+    protected List<Item> createIdentifiables(int count) {
+        List<Item> identifiables = new ArrayList<Item>(count);
+        for (int i = 0; i < count; i++) {
+            identifiables.add(createIdentifiable(Long.valueOf(ID_SEQUENCE.incrementAndGet())));
+        }
+        return identifiables;
+    }
+
+    @Override
+    protected void assertEqualState(Item expected, Item actual) {
+        Assert.assertEquals(expected.getName(), actual.getName());
+        Assert.assertEquals(expected.getPriority(), actual.getPriority());
+    }
+
+    @Override
+    protected void modify(Item identifiable) {
+        identifiable.setName(identifiable.getName() + "-modified");
+        identifiable.setPriority(identifiable.getPriority() + 1);
+    }
+
+    private MarkPage<Item> find(final MarkPageRequest<Item> pageRequest) throws PersistenceException {
+        return execute(new DaoQuery<MarkPage<Item>>() {
+            @Override
+            protected MarkPage<Item> execute(MvStoreKeyValueDao<Long, Item> dao, MvStoreContext context)
+                    throws PersistenceException {
+                return dao.find(pageRequest, context);
+            }
+        });
+    }
+
+    private boolean exist(final Long id) throws PersistenceException {
+        return execute(new Query<Boolean, MvStoreContext>() {
+            @Override
+            public Boolean execute(MvStoreContext context) throws PersistenceException {
+                return Boolean.valueOf(createDaoInstance().exist(id, context));
+            }
+        }).booleanValue();
+    }
+
+    private static void assertPage(MarkPage<Item> page, Item... expected) {
+        Assert.assertEquals(expected.length, page.getData().size());
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(expected[i].getIdentifier(), page.getData().get(i).getIdentifier());
+        }
+    }
+
+    public static class Item implements Identifiable<Long> {
+        private final Long id;
+        private String name;
+        private int priority;
+
+        public Item(Long id, String name, int priority) {
+            this.id = id;
+            this.name = name;
+            this.priority = priority;
+        }
+
+        @Override
+        public Long getIdentifier() {
+            return this.id;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getPriority() {
+            return this.priority;
+        }
+
+        public void setPriority(int priority) {
+            this.priority = priority;
+        }
+    }
+}
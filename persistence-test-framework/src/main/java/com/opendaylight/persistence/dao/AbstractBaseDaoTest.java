@@ -29,6 +29,8 @@ import org.opendaylight.persistence.util.test.ThrowableTester;
 import org.opendaylight.persistence.util.test.ThrowableTester.Instruction;
 import org.opendaylight.yangtools.concepts.Identifiable;
 
+import com.opendaylight.persistence.jdbc.StatementCounter;
+
 /**
  * Integration test for {@link BaseDao} implementations.
  * <p>
@@ -383,7 +385,113 @@ public abstract class AbstractBaseDaoTest<I extends Serializable, T extends Iden
      * @throws PersistenceException if any errors occur during execution
      */
     protected <R> R execute(@Nonnull Query<R, C> query) throws PersistenceException {
-        return this.dataStore.execute(query);
+        StatementCounter statementCounter = getStatementCounter();
+        int maxStatementRepetitions = getMaxStatementRepetitions();
+        if (statementCounter == null || maxStatementRepetitions <= 0) {
+            return this.dataStore.execute(query);
+        }
+
+        StatementCounter.Recording recording = statementCounter.startRecording();
+        R result;
+        try {
+            result = this.dataStore.execute(query);
+        }
+        finally {
+            recording.stop();
+        }
+
+        String mostRepeatedShape = recording.getMostRepeatedShape();
+        int repetitions = recording.getShapeCount(mostRepeatedShape);
+        if (repetitions > maxStatementRepetitions) {
+            Assert.fail("Statement executed " + repetitions + " times in a single query (maximum allowed is "
+                    + maxStatementRepetitions + "), possible N+1 problem: " + mostRepeatedShape);
+        }
+        return result;
+    }
+
+    /**
+     * Executes a query and asserts the number of SQL statements it sends to the database.
+     * 
+     * @param expected expected number of statements
+     * @param query query to execute
+     * @return result
+     * @throws PersistenceException if any errors occur during execution
+     * @throws IllegalStateException if {@link #getStatementCounter()} returns {@code null}
+     */
+    protected <R> R assertStatementCount(long expected, @Nonnull Query<R, C> query) throws PersistenceException {
+        StatementCounter.Recording recording = startStatementRecording();
+        R result = executeAndStop(query, recording);
+        Assert.assertEquals("Unexpected number of statements: " + recording, expected, recording.getCount());
+        return result;
+    }
+
+    /**
+     * Executes a query and asserts it does not send more SQL statements to the database than
+     * allowed by the given budget.
+     * 
+     * @param budget maximum number of statements
+     * @param message message to include in case of failure
+     * @param query query to execute
+     * @return result
+     * @throws PersistenceException if any errors occur during execution
+     * @throws IllegalStateException if {@link #getStatementCounter()} returns {@code null}
+     */
+    protected <R> R assertStatementBudget(long budget, @Nullable String message, @Nonnull Query<R, C> query)
+            throws PersistenceException {
+        StatementCounter.Recording recording = startStatementRecording();
+        R result = executeAndStop(query, recording);
+        if (recording.getCount() > budget) {
+            Assert.fail("Statement budget of " + budget + " exceeded: " + recording
+                    + (message != null ? " - " + message : ""));
+        }
+        return result;
+    }
+
+    private StatementCounter.Recording startStatementRecording() {
+        StatementCounter statementCounter = getStatementCounter();
+        if (statementCounter == null) {
+            throw new IllegalStateException("Statements are not counted: getStatementCounter() returned null");
+        }
+        return statementCounter.startRecording();
+    }
+
+    private <R> R executeAndStop(Query<R, C> query, StatementCounter.Recording recording)
+            throws PersistenceException {
+        try {
+            return execute(query);
+        }
+        finally {
+            recording.stop();
+        }
+    }
+
+    /**
+     * Gets the counter that records the SQL statements sent to the database. A counter is
+     * required by {@link #assertStatementCount(long, Query)}, statement budgets (See
+     * {@link SearchCase#getStatementBudget()}) and the N+1 detection (See
+     * {@link #getMaxStatementRepetitions()}).
+     * <p>
+     * SQL-based tests usually create the {@link DataStore} with a
+     * {@link com.opendaylight.persistence.jdbc.CountingDataSource} and return its counter.
+     * 
+     * @return the statement counter, {@code null} if statements are not counted (default)
+     */
+    @Nullable
+    protected StatementCounter getStatementCounter() {
+        return null;
+    }
+
+    /**
+     * Gets the maximum number of times the same statement shape (See
+     * {@link StatementCounter#getShape(String)}) may be sent to the database within a single
+     * {@link DataStore#execute(Query)}. A statement repeated many times in a unit of work usually
+     * means the DAO loads related data one record at a time (N+1 select problem). If exceeded,
+     * {@link #execute(Query)} fails the test.
+     * 
+     * @return the maximum number of repetitions, {@code 0} to disable the detection (default)
+     */
+    protected int getMaxStatementRepetitions() {
+        return 0;
     }
 
     /**
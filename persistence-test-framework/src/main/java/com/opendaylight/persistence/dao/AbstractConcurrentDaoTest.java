@@ -0,0 +1,799 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.opendaylight.persistence.dao;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Nonnull;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.IntegrityConstraintViolationException;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.dao.Dao;
+import org.opendaylight.yangtools.concepts.Identifiable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.opendaylight.persistence.dao.WorkloadReport.OperationStatistics;
+
+/**
+ * Concurrent stress test for {@link Dao} implementations.
+ * <p>
+ * A mix of add, update, get, delete and find operations (See {@link #getOperationMix()}) is
+ * executed from {@link #getThreadCount()} threads during {@link #getDurationMillis()}. Every
+ * operation is executed in its own {@link DataStore#execute(Query)}, so each thread works with
+ * its own context. Once the workload finishes the following invariants are verified:
+ * <ul>
+ * <li>Final size: The number of stored objects equals the initial objects plus the successful adds
+ * minus the deletes, and all objects expected to be stored exist.</li>
+ * <li>No duplicate-key escapes: If keys are natural (See
+ * {@link #isPrimaryKeyIntegrityConstraintViolationTestSuitable()}), several threads add objects
+ * with the same key (See {@link #getAddContention()}) and only one of them may succeed; the rest
+ * must fail with {@link IntegrityConstraintViolationException}.</li>
+ * <li>No lost updates: If objects are versioned ({@link #isVersioned()}), updates are performed as
+ * get-then-update in separate units of work, and two updates of the same object whose reads both
+ * happened before either update started cannot both succeed.</li>
+ * <li>No phantom deletes: An object not deleted by the workload is never reported missing.</li>
+ * </ul>
+ * Deletes claim the object to delete exclusively, so the expected size is known without
+ * serializing the rest of the operations. Throughput and latency percentiles are reported through
+ * {@link #report(WorkloadReport)}.
+ * 
+ * @param <I> type of the identifiable object's id
+ * @param <T> type of the identifiable object (object to store in the data store)
+ * @param <F> type of the associated filter
+ * @param <S> type of the associated sort attribute or sort key used to construct sort
+ *            specifications
+ * @param <C> type of the query's execution context; the context managed by the {@link DataStore}
+ * @param <D> type of the DAO to test
+ */
+public abstract class AbstractConcurrentDaoTest<I extends Serializable, T extends Identifiable<I>, F, S, C, D extends Dao<I, T, F, S, C>> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractConcurrentDaoTest.class);
+
+    private final DataStore<C> dataStore;
+
+    /**
+     * Creates a new concurrent DAO test.
+     * 
+     * @param dataStore data store
+     */
+    public AbstractConcurrentDaoTest(@Nonnull DataStore<C> dataStore) {
+        this.dataStore = dataStore;
+    }
+
+    /**
+     * Method executed before running each test.
+     *
+     * @throws PersistenceException if any errors occur during execution
+     */
+    @Before
+    public void beforeTest() throws PersistenceException {
+        execute(new DaoQuery<Void>() {
+            @Override
+            protected Void execute(D dao, C context) throws PersistenceException {
+                dao.clear(context);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * @throws Exception if any errors occur during execution
+     */
+    @Test
+    public void testConcurrentWorkload() throws Exception {
+        Workload workload = new Workload();
+        workload.populate();
+        WorkloadReport report = workload.run();
+        report(report);
+        workload.verify();
+    }
+
+    /**
+     * Executes a query.
+     * 
+     * @param query query to execute
+     * @return result
+     * @throws PersistenceException if any errors occur during execution
+     */
+    protected <R> R execute(@Nonnull Query<R, C> query) throws PersistenceException {
+        return this.dataStore.execute(query);
+    }
+
+    /**
+     * Reports the result of the workload. This implementation logs it at info level.
+     * 
+     * @param report workload report
+     */
+    protected void report(@Nonnull WorkloadReport report) {
+        LOGGER.info("{} workload:\n{}", getClass().getSimpleName(), report);
+    }
+
+    /**
+     * Gets the number of threads to run the workload.
+     * 
+     * @return the number of threads
+     */
+    protected int getThreadCount() {
+        return 8;
+    }
+
+    /**
+     * Gets the time the workload runs for.
+     * 
+     * @return the duration in milliseconds
+     */
+    protected long getDurationMillis() {
+        return 2000;
+    }
+
+    /**
+     * Gets the number of objects stored before the workload starts.
+     * 
+     * @return the initial number of objects
+     */
+    protected int getInitialSize() {
+        return 100;
+    }
+
+    /**
+     * Gets the workload's mix of operations: The relative weight of each operation. Operations
+     * not included (or with weight zero) are not executed.
+     * 
+     * @return the weight of each operation
+     */
+    protected Map<Operation, Integer> getOperationMix() {
+        Map<Operation, Integer> mix = new EnumMap<Operation, Integer>(Operation.class);
+        mix.put(Operation.ADD, Integer.valueOf(2));
+        mix.put(Operation.UPDATE, Integer.valueOf(3));
+        mix.put(Operation.GET, Integer.valueOf(3));
+        mix.put(Operation.DELETE, Integer.valueOf(1));
+        mix.put(Operation.FIND, Integer.valueOf(1));
+        return mix;
+    }
+
+    /**
+     * Gets the number of adds that compete for each new key. Only used if
+     * {@link #isPrimaryKeyIntegrityConstraintViolationTestSuitable()} returns {@code true}.
+     * 
+     * @return the number of adds per key
+     */
+    protected int getAddContention() {
+        return 2;
+    }
+
+    /**
+     * Creates the instance of the DAO to test.
+     * 
+     * @return a new instance of the DAO to test
+     */
+    protected abstract D createDaoInstance();
+
+    /**
+     * Returns {@code true} if keys are natural (not auto-generated) and
+     * {@link Dao#add(Identifiable, Object)} fails with {@link IntegrityConstraintViolationException}
+     * for duplicated keys. See {@link AbstractBaseDaoTest}.
+     * 
+     * @return {@code true} to verify there are no duplicate-key escapes
+     */
+    protected abstract boolean isPrimaryKeyIntegrityConstraintViolationTestSuitable();
+
+    /**
+     * Returns {@code true} if {@link Dao#update(Identifiable, Object)} fails for nonexistent
+     * objects. If {@code false}, updates claim the object exclusively so they don't recreate
+     * objects being deleted. See {@link AbstractBaseDaoTest}.
+     * 
+     * @return {@code true} if updates fail for nonexistent objects
+     */
+    protected abstract boolean isNotFoundExceptionOnUpdateSuitable();
+
+    /**
+     * Returns {@code true} if the identifiable keeps a version field that makes the update fail
+     * with {@link IllegalStateException} if versions don't match. See {@link AbstractBaseDaoTest}.
+     * 
+     * @return {@code true} to verify there are no lost updates
+     */
+    protected abstract boolean isVersioned();
+
+    /**
+     * Creates a transfer object with the given id. See {@link AbstractBaseDaoTest}.
+     * 
+     * @param id transfer object's id
+     * @return a transfer object with the given id
+     */
+    protected abstract T createIdentifiable(@Nonnull I id);
+
+    /**
+     * Creates a collection of identifiable objects with unique keys. See
+     * {@link AbstractBaseDaoTest}. This method is called concurrently.
+     * 
+     * @param count number of objects to create
+     * @return the objects
+     */
+    protected abstract List<T> createIdentifiables(int count);
+
+    /**
+     * Modifies the object with valid random data. This method is called concurrently.
+     * 
+     * @param identifiable object to modify
+     */
+    protected abstract void modify(@Nonnull T identifiable);
+
+    /**
+     * Gets the filter to use for find operations.
+     * 
+     * @return the filter
+     */
+    protected abstract F getFindFilter();
+
+    /**
+     * Workload operation.
+     */
+    public static enum Operation {
+        /** {@link Dao#add(Identifiable, Object)} */
+        ADD,
+        /** {@link Dao#get(Serializable, Object)} followed by {@link Dao#update(Identifiable, Object)} */
+        UPDATE,
+        /** {@link Dao#get(Serializable, Object)} */
+        GET,
+        /** {@link Dao#delete(Serializable, Object)} */
+        DELETE,
+        /** {@link Dao#find(Object, List, Object)} */
+        FIND
+    }
+
+    /**
+     * Query tied to the DAO being tested.
+     * 
+     * @param <R> type of the query result
+     */
+    protected abstract class DaoQuery<R> implements Query<R, C> {
+
+        @Override
+        public R execute(C context) throws PersistenceException {
+            return execute(createDaoInstance(), context);
+        }
+
+        /**
+         * Executes the query.
+         * 
+         * @param dao data access object (DAO) to use
+         * @param context data store context
+         * @return the result of the query
+         * @throws PersistenceException if persistence errors occur while executing the operation
+         */
+        protected abstract R execute(@Nonnull D dao, @Nonnull C context) throws PersistenceException;
+    }
+
+    private static enum Outcome {
+        SUCCESS, REJECTED
+    }
+
+    private class Workload {
+        private final IdPool<I> ids = new IdPool<I>();
+        private final AtomicLong initialSize = new AtomicLong();
+        private final AtomicLong adds = new AtomicLong();
+        private final AtomicLong deletes = new AtomicLong();
+        private final AtomicReference<Contest<I>> contest = new AtomicReference<Contest<I>>();
+        private final Set<I> duplicateEscapes = Collections.newSetFromMap(new ConcurrentHashMap<I, Boolean>());
+        private final ConcurrentHashMap<I, ConcurrentLinkedQueue<UpdateRecord>> updates =
+                new ConcurrentHashMap<I, ConcurrentLinkedQueue<UpdateRecord>>();
+        private final ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<Throwable>();
+        private final boolean naturalKeys = isPrimaryKeyIntegrityConstraintViolationTestSuitable();
+        private final boolean exclusiveUpdates = !isNotFoundExceptionOnUpdateSuitable();
+        private final boolean versioned = isVersioned();
+        private final int addContention = getAddContention();
+        private final Operation[] operations;
+        private final int[] cumulativeWeights;
+
+        public Workload() {
+            Map<Operation, Integer> mix = getOperationMix();
+            List<Operation> operationList = new ArrayList<Operation>();
+            List<Integer> weightList = new ArrayList<Integer>();
+            int totalWeight = 0;
+            for (Operation operation : Operation.values()) {
+                Integer weight = mix.get(operation);
+                if (weight != null && weight.intValue() > 0) {
+                    totalWeight += weight.intValue();
+                    operationList.add(operation);
+                    weightList.add(Integer.valueOf(totalWeight));
+                }
+            }
+
+            if (operationList.isEmpty()) {
+                throw new IllegalStateException("The operation mix must include at least one operation");
+            }
+
+            this.operations = operationList.toArray(new Operation[operationList.size()]);
+            this.cumulativeWeights = new int[weightList.size()];
+            for (int i = 0; i < this.cumulativeWeights.length; i++) {
+                this.cumulativeWeights[i] = weightList.get(i).intValue();
+            }
+        }
+
+        public void populate() throws PersistenceException {
+            for (final T identifiable : createIdentifiables(getInitialSize())) {
+                T stored = execute(new DaoQuery<T>() {
+                    @Override
+                    protected T execute(D dao, C context) throws PersistenceException {
+                        return dao.add(identifiable, context);
+                    }
+                });
+                this.ids.add(stored.getIdentifier());
+                this.initialSize.incrementAndGet();
+            }
+        }
+
+        public WorkloadReport run() throws InterruptedException {
+            int threadCount = getThreadCount();
+            final long durationNanos = getDurationMillis() * 1000000L;
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Recorder> recorders = new ArrayList<Recorder>(threadCount);
+            List<Thread> threads = new ArrayList<Thread>(threadCount);
+
+            for (int i = 0; i < threadCount; i++) {
+                final Recorder recorder = new Recorder();
+                final Random random = new Random();
+                recorders.add(recorder);
+                threads.add(new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            start.await();
+                            long deadline = System.nanoTime() + durationNanos;
+                            while (System.nanoTime() < deadline && Workload.this.errors.isEmpty()) {
+                                Operation operation = nextOperation(random);
+                                long operationStart = System.nanoTime();
+                                Outcome outcome = perform(operation, random);
+                                recorder.record(operation, System.nanoTime() - operationStart, outcome);
+                            }
+                        }
+                        catch (Throwable e) {
+                            Workload.this.errors.add(e);
+                        }
+                    }
+                }, AbstractConcurrentDaoTest.this.getClass().getSimpleName() + "-" + i));
+            }
+
+            for (Thread thread : threads) {
+                thread.start();
+            }
+
+            long runStart = System.nanoTime();
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long elapsed = System.nanoTime() - runStart;
+
+            Contest<I> lastContest = this.contest.get();
+            if (lastContest != null) {
+                finish(lastContest);
+            }
+
+            Map<Operation, OperationStatistics> statistics = new EnumMap<Operation, OperationStatistics>(
+                    Operation.class);
+            for (Operation operation : this.operations) {
+                LongList latencies = new LongList();
+                long rejected = 0;
+                for (Recorder recorder : recorders) {
+                    latencies.addAll(recorder.latencies.get(operation));
+                    rejected += recorder.rejected.get(operation).get();
+                }
+                statistics.put(operation, new OperationStatistics(latencies.toArray(), rejected, elapsed));
+            }
+
+            return new WorkloadReport(threadCount, elapsed, statistics);
+        }
+
+        public void verify() throws PersistenceException {
+            Throwable error = this.errors.peek();
+            if (error != null) {
+                AssertionError assertionError = new AssertionError("Workload failed: " + error);
+                assertionError.initCause(error);
+                throw assertionError;
+            }
+
+            Assert.assertTrue("Duplicate-key escapes: " + this.duplicateEscapes, this.duplicateEscapes.isEmpty());
+
+            if (this.versioned) {
+                List<I> lostUpdates = new ArrayList<I>();
+                for (Map.Entry<I, ConcurrentLinkedQueue<UpdateRecord>> entry : this.updates.entrySet()) {
+                    if (hasLostUpdate(new ArrayList<UpdateRecord>(entry.getValue()))) {
+                        lostUpdates.add(entry.getKey());
+                    }
+                }
+                Assert.assertTrue("Lost updates: " + lostUpdates, lostUpdates.isEmpty());
+            }
+
+            long expectedSize = this.initialSize.get() + this.adds.get() - this.deletes.get();
+            Long size = execute(new DaoQuery<Long>() {
+                @Override
+                protected Long execute(D dao, C context) throws PersistenceException {
+                    return Long.valueOf(dao.size(context));
+                }
+            });
+            Assert.assertEquals("Final size", expectedSize, size.longValue());
+
+            final List<I> expectedIds = this.ids.getAll();
+            Assert.assertEquals("Tracked objects", expectedSize, expectedIds.size());
+            List<I> missing = execute(new DaoQuery<List<I>>() {
+                @Override
+                protected List<I> execute(D dao, C context) throws PersistenceException {
+                    List<I> result = new ArrayList<I>();
+                    for (I id : expectedIds) {
+                        if (!dao.exist(id, context)) {
+                            result.add(id);
+                        }
+                    }
+                    return result;
+                }
+            });
+            Assert.assertTrue("Missing objects: " + missing, missing.isEmpty());
+        }
+
+        private Operation nextOperation(Random random) {
+            int value = random.nextInt(this.cumulativeWeights[this.cumulativeWeights.length - 1]);
+            int i = 0;
+            while (value >= this.cumulativeWeights[i]) {
+                i++;
+            }
+            return this.operations[i];
+        }
+
+        private Outcome perform(Operation operation, Random random) throws PersistenceException {
+            switch (operation) {
+                case ADD:
+                    return this.naturalKeys ? contendedAdd() : add();
+                case UPDATE:
+                    return update(random);
+                case GET:
+                    return get(random);
+                case DELETE:
+                    return delete(random);
+                case FIND:
+                    return find();
+                default:
+                    throw new IllegalArgumentException("Unsupported operation: " + operation);
+            }
+        }
+
+        private Outcome add() throws PersistenceException {
+            final T identifiable = createIdentifiables(1).get(0);
+            T stored = execute(new DaoQuery<T>() {
+                @Override
+                protected T execute(D dao, C context) throws PersistenceException {
+                    return dao.add(identifiable, context);
+                }
+            });
+            this.adds.incrementAndGet();
+            this.ids.add(stored.getIdentifier());
+            return Outcome.SUCCESS;
+        }
+
+        private Outcome contendedAdd() throws PersistenceException {
+            Contest<I> currentContest = nextContest();
+            final T identifiable = createIdentifiable(currentContest.id);
+            boolean added = false;
+            try {
+                execute(new DaoQuery<T>() {
+                    @Override
+                    protected T execute(D dao, C context) throws PersistenceException {
+                        return dao.add(identifiable, context);
+                    }
+                });
+                added = true;
+                this.adds.incrementAndGet();
+                currentContest.successes.incrementAndGet();
+            }
+            catch (IntegrityConstraintViolationException e) {
+                // Expected: Another thread added the key first
+            }
+
+            if (currentContest.completed.incrementAndGet() == this.addContention) {
+                finish(currentContest);
+            }
+            return added ? Outcome.SUCCESS : Outcome.REJECTED;
+        }
+
+        private Contest<I> nextContest() {
+            while (true) {
+                Contest<I> current = this.contest.get();
+                if (current != null && current.attempts.incrementAndGet() <= this.addContention) {
+                    return current;
+                }
+
+                Contest<I> next = new Contest<I>(createIdentifiables(1).get(0).getIdentifier());
+                next.attempts.incrementAndGet();
+                if (this.contest.compareAndSet(current, next)) {
+                    return next;
+                }
+            }
+        }
+
+        private void finish(Contest<I> finishedContest) {
+            if (finishedContest.finished.compareAndSet(false, true)) {
+                int successes = finishedContest.successes.get();
+                if (successes > 1) {
+                    this.duplicateEscapes.add(finishedContest.id);
+                }
+                if (successes > 0) {
+                    this.ids.add(finishedContest.id);
+                }
+            }
+        }
+
+        private Outcome update(Random random) throws PersistenceException {
+            final I id = this.exclusiveUpdates ? this.ids.claim(random) : this.ids.get(random);
+            if (id == null) {
+                return Outcome.REJECTED;
+            }
+
+            try {
+                final T current = execute(new DaoQuery<T>() {
+                    @Override
+                    protected T execute(D dao, C context) throws PersistenceException {
+                        return dao.get(id, context);
+                    }
+                });
+                long readEnd = System.nanoTime();
+
+                if (current == null) {
+                    return missing(id);
+                }
+
+                modify(current);
+
+                long updateStart = System.nanoTime();
+                try {
+                    execute(new DaoQuery<T>() {
+                        @Override
+                        protected T execute(D dao, C context) throws PersistenceException {
+                            return dao.update(current, context);
+                        }
+                    });
+                }
+                catch (IllegalStateException e) {
+                    if (this.versioned) {
+                        // Version conflict
+                        return Outcome.REJECTED;
+                    }
+                    throw e;
+                }
+                catch (PersistenceException e) {
+                    if (!this.ids.contains(id)) {
+                        // Deleted by another thread
+                        return Outcome.REJECTED;
+                    }
+                    throw e;
+                }
+
+                if (this.versioned) {
+                    ConcurrentLinkedQueue<UpdateRecord> records = this.updates.get(id);
+                    if (records == null) {
+                        this.updates.putIfAbsent(id, new ConcurrentLinkedQueue<UpdateRecord>());
+                        records = this.updates.get(id);
+                    }
+                    records.add(new UpdateRecord(readEnd, updateStart));
+                }
+                return Outcome.SUCCESS;
+            }
+            finally {
+                if (this.exclusiveUpdates) {
+                    this.ids.add(id);
+                }
+            }
+        }
+
+        private Outcome get(Random random) throws PersistenceException {
+            final I id = this.ids.get(random);
+            if (id == null) {
+                return Outcome.REJECTED;
+            }
+
+            T identifiable = execute(new DaoQuery<T>() {
+                @Override
+                protected T execute(D dao, C context) throws PersistenceException {
+                    return dao.get(id, context);
+                }
+            });
+            return identifiable != null ? Outcome.SUCCESS : missing(id);
+        }
+
+        private Outcome delete(Random random) throws PersistenceException {
+            final I id = this.ids.claim(random);
+            if (id == null) {
+                return Outcome.REJECTED;
+            }
+
+            execute(new DaoQuery<Void>() {
+                @Override
+                protected Void execute(D dao, C context) throws PersistenceException {
+                    dao.delete(id, context);
+                    return null;
+                }
+            });
+            this.deletes.incrementAndGet();
+            return Outcome.SUCCESS;
+        }
+
+        private Outcome find() throws PersistenceException {
+            final F filter = getFindFilter();
+            List<T> result = execute(new DaoQuery<List<T>>() {
+                @Override
+                protected List<T> execute(D dao, C context) throws PersistenceException {
+                    return dao.find(filter, null, context);
+                }
+            });
+
+            Set<I> found = new HashSet<I>(result.size());
+            for (T identifiable : result) {
+                if (!found.add(identifiable.getIdentifier())) {
+                    throw new AssertionError("Find returned duplicated key: " + identifiable.getIdentifier());
+                }
+            }
+            return Outcome.SUCCESS;
+        }
+
+        private Outcome missing(I id) {
+            /*
+             * Deletes claim the id before deleting, so if the object is not found the id must not
+             * be claimable anymore.
+             */
+            if (this.ids.contains(id)) {
+                throw new AssertionError("Object not deleted by the workload is missing: " + id);
+            }
+            return Outcome.REJECTED;
+        }
+
+        private boolean hasLostUpdate(List<UpdateRecord> records) {
+            for (int i = 0; i < records.size(); i++) {
+                for (int j = i + 1; j < records.size(); j++) {
+                    UpdateRecord a = records.get(i);
+                    UpdateRecord b = records.get(j);
+                    // Both read before either started updating, so one of them updated a stale copy
+                    if (a.readEnd < b.updateStart && b.readEnd < a.updateStart) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class Contest<I> {
+        private final I id;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger successes = new AtomicInteger();
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        public Contest(I id) {
+            this.id = id;
+        }
+    }
+
+    private static class UpdateRecord {
+        private final long readEnd;
+        private final long updateStart;
+
+        public UpdateRecord(long readEnd, long updateStart) {
+            this.readEnd = readEnd;
+            this.updateStart = updateStart;
+        }
+    }
+
+    /**
+     * Ids of the objects expected to be stored, allowing random selection and exclusive claims.
+     */
+    private static class IdPool<I> {
+        private final List<I> ids = new ArrayList<I>();
+        private final Map<I, Integer> positions = new HashMap<I, Integer>();
+
+        public synchronized void add(I id) {
+            if (!this.positions.containsKey(id)) {
+                this.positions.put(id, Integer.valueOf(this.ids.size()));
+                this.ids.add(id);
+            }
+        }
+
+        public synchronized I get(Random random) {
+            return this.ids.isEmpty() ? null : this.ids.get(random.nextInt(this.ids.size()));
+        }
+
+        public synchronized I claim(Random random) {
+            if (this.ids.isEmpty()) {
+                return null;
+            }
+
+            int position = random.nextInt(this.ids.size());
+            I id = this.ids.get(position);
+            I last = this.ids.remove(this.ids.size() - 1);
+            if (position < this.ids.size()) {
+                this.ids.set(position, last);
+                this.positions.put(last, Integer.valueOf(position));
+            }
+            this.positions.remove(id);
+            return id;
+        }
+
+        public synchronized boolean contains(I id) {
+            return this.positions.containsKey(id);
+        }
+
+        public synchronized List<I> getAll() {
+            return new ArrayList<I>(this.ids);
+        }
+    }
+
+    /**
+     * Per-thread record of latencies, so threads don't contend while recording.
+     */
+    private static class Recorder {
+        private final Map<Operation, LongList> latencies = new EnumMap<Operation, LongList>(Operation.class);
+        private final Map<Operation, AtomicLong> rejected = new EnumMap<Operation, AtomicLong>(Operation.class);
+
+        public Recorder() {
+            for (Operation operation : Operation.values()) {
+                this.latencies.put(operation, new LongList());
+                this.rejected.put(operation, new AtomicLong());
+            }
+        }
+
+        public void record(Operation operation, long latency, Outcome outcome) {
+            this.latencies.get(operation).add(latency);
+            if (outcome == Outcome.REJECTED) {
+                this.rejected.get(operation).incrementAndGet();
+            }
+        }
+    }
+
+    private static class LongList {
+        private long[] values = new long[1024];
+        private int size;
+
+        public void add(long value) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            this.values[this.size++] = value;
+        }
+
+        public void addAll(LongList other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        public long[] toArray() {
+            return Arrays.copyOf(this.values, this.size);
+        }
+    }
+}
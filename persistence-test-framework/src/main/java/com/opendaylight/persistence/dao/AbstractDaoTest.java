@@ -18,6 +18,7 @@ import org.junit.Assume;
 import org.junit.Test;
 import org.opendaylight.persistence.DataStore;
 import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
 import org.opendaylight.persistence.dao.Dao;
 import org.opendaylight.yangtools.concepts.Identifiable;
 
@@ -57,7 +58,7 @@ public abstract class AbstractDaoTest<I extends Serializable, T extends Identifi
         for (final SearchCase<T, F, S> searchCase : searchCases) {
             final Map<I, StoredObject<T>> persistedSearchSpace = store(searchCase.getSearchSpace());
 
-            List<T> searchResult = execute(new DaoQuery<List<T>>() {
+            List<T> searchResult = executeSearch(searchCase, new DaoQuery<List<T>>() {
                 @Override
                 protected List<T> execute(D dao, C context) throws PersistenceException {
                     return dao.find(searchCase.getFilter(), searchCase.getSort(), context);
@@ -81,7 +82,7 @@ public abstract class AbstractDaoTest<I extends Serializable, T extends Identifi
         for (final SearchCase<T, F, S> searchCase : searchCases) {
             store(searchCase.getSearchSpace());
 
-            Long count = execute(new DaoQuery<Long>() {
+            Long count = executeSearch(searchCase, new DaoQuery<Long>() {
                 @Override
                 protected Long execute(D dao, C context) throws PersistenceException {
                     return Long.valueOf(dao.count(searchCase.getFilter(), context));
@@ -138,6 +139,25 @@ public abstract class AbstractDaoTest<I extends Serializable, T extends Identifi
         }
     }
 
+    /**
+     * Executes a search query. If the test counts statements (See {@link #getStatementCounter()})
+     * and the search case has a statement budget, the query is verified to stay within the
+     * budget.
+     * 
+     * @param searchCase search case the query belongs to
+     * @param query query to execute
+     * @return result
+     * @throws PersistenceException if any errors occur during execution
+     */
+    protected <R> R executeSearch(@Nonnull SearchCase<T, F, S> searchCase, @Nonnull Query<R, C> query)
+            throws PersistenceException {
+        Integer budget = searchCase.getStatementBudget();
+        if (budget == null || getStatementCounter() == null) {
+            return execute(query);
+        }
+        return assertStatementBudget(budget.longValue(), getMessage(searchCase), query);
+    }
+
     /**
      * Gets a message for the given search case.
      * 
@@ -89,7 +89,7 @@ public abstract class AbstractMarkPageDaoTest<I extends Serializable, T extends
 
                 do {
 
-                    page = execute(new DaoQuery<MarkPage<T>>() {
+                    page = executeSearch(searchCase, new DaoQuery<MarkPage<T>>() {
 
                         @Override
                         protected MarkPage<T> execute(D dao, C context) throws PersistenceException {
@@ -93,7 +93,7 @@ public abstract class AbstractOffsetPageDaoTest<I extends Serializable, T extend
                     long offset = pageIndex * limit;
                     final OffsetPageRequest pageRequest = new OffsetPageRequest(offset, limit);
 
-                    OffsetPage<T> resultPage = execute(new DaoQuery<OffsetPage<T>>() {
+                    OffsetPage<T> resultPage = executeSearch(searchCase, new DaoQuery<OffsetPage<T>>() {
                         @Override
                         protected OffsetPage<T> execute(D dao, C context) throws PersistenceException {
                             return dao.find(searchCase.getFilter(), searchCase.getSort(), pageRequest,
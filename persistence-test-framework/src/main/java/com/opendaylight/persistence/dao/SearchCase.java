@@ -34,6 +34,7 @@ public final class SearchCase<T, F, S> {
     private F filter;
     private List<Sort<S>> sort;
     private List<T> expectedResult;
+    private Integer statementBudget;
 
     private SearchCase(@Nonnull List<T> searchSpace, @Nonnull F filter, @Nullable List<Sort<S>> sort,
             @Nonnull List<T> expectedResult) {
@@ -86,6 +87,25 @@ public final class SearchCase<T, F, S> {
         return forCase(searchSpace, filter, sort, Arrays.asList(expectedResult));
     }
 
+    /**
+     * Creates a copy of this search case with a statement budget: The maximum number of SQL
+     * statements a single find, count or page retrieval may send to the database. The budget is
+     * only verified if the test counts statements (See
+     * {@link AbstractBaseDaoTest#getStatementCounter()}).
+     * 
+     * @param budget maximum number of statements
+     * @return a copy of this search case with the given statement budget
+     */
+    public SearchCase<T, F, S> withStatementBudget(int budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("budget cannot be negative");
+        }
+        SearchCase<T, F, S> copy = new SearchCase<T, F, S>(this.searchSpace, this.filter, this.sort,
+                this.expectedResult);
+        copy.statementBudget = Integer.valueOf(budget);
+        return copy;
+    }
+
     /**
      * Gets the search space.
      * 
@@ -122,6 +142,16 @@ public final class SearchCase<T, F, S> {
         return this.expectedResult;
     }
 
+    /**
+     * Gets the statement budget.
+     * 
+     * @return the maximum number of SQL statements a single search may send to the database,
+     *         {@code null} if the search case has no budget
+     */
+    public Integer getStatementBudget() {
+        return this.statementBudget;
+    }
+
     /**
      * Verifies if order has been considered in this search case.
      * 
@@ -134,6 +164,7 @@ public final class SearchCase<T, F, S> {
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this).add("filter", this.filter).add("sort", this.sort)
-                .add("expectedResult", this.expectedResult).add("searchSpace", this.searchSpace).toString();
+                .add("expectedResult", this.expectedResult).add("statementBudget", this.statementBudget)
+                .add("searchSpace", this.searchSpace).toString();
     }
 }
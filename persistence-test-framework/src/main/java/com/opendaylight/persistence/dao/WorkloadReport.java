@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.opendaylight.persistence.dao;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+import com.opendaylight.persistence.dao.AbstractConcurrentDaoTest.Operation;
+
+/**
+ * Result of a concurrent workload run by {@link AbstractConcurrentDaoTest}: Throughput and
+ * latency percentiles per operation.
+ * 
+ */
+public final class WorkloadReport {
+
+    private final int threadCount;
+    private final long elapsedNanos;
+    private final Map<Operation, OperationStatistics> statistics;
+
+    WorkloadReport(int threadCount, long elapsedNanos, @Nonnull Map<Operation, OperationStatistics> statistics) {
+        this.threadCount = threadCount;
+        this.elapsedNanos = elapsedNanos;
+        this.statistics = Collections.unmodifiableMap(new EnumMap<Operation, OperationStatistics>(statistics));
+    }
+
+    /**
+     * Gets the number of threads that ran the workload.
+     * 
+     * @return the number of threads
+     */
+    public int getThreadCount() {
+        return this.threadCount;
+    }
+
+    /**
+     * Gets the elapsed time.
+     * 
+     * @return the elapsed time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.elapsedNanos);
+    }
+
+    /**
+     * Gets the statistics of an operation.
+     * 
+     * @param operation operation
+     * @return the statistics of {@code operation}, {@code null} if the operation was not part of
+     *         the workload
+     */
+    public OperationStatistics getStatistics(@Nonnull Operation operation) {
+        return this.statistics.get(operation);
+    }
+
+    /**
+     * Gets the total number of operations executed.
+     * 
+     * @return the total number of operations
+     */
+    public long getOperationCount() {
+        long count = 0;
+        for (OperationStatistics operationStatistics : this.statistics.values()) {
+            count += operationStatistics.getCount();
+        }
+        return count;
+    }
+
+    /**
+     * Gets the throughput of the workload.
+     * 
+     * @return the number of operations per second
+     */
+    public double getThroughput() {
+        return throughput(getOperationCount(), this.elapsedNanos);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder(256);
+        str.append(String.format("%d threads, %d ms, %d operations, %.1f ops/s%n", Integer.valueOf(this.threadCount),
+                Long.valueOf(getElapsedMillis()), Long.valueOf(getOperationCount()), Double.valueOf(getThroughput())));
+        str.append(String.format("%-8s %10s %10s %12s %10s %10s %10s %10s%n", "op", "count", "rejected", "ops/s",
+                "p50 us", "p90 us", "p99 us", "max us"));
+        for (Map.Entry<Operation, OperationStatistics> entry : this.statistics.entrySet()) {
+            OperationStatistics operationStatistics = entry.getValue();
+            str.append(String.format("%-8s %10d %10d %12.1f %10d %10d %10d %10d%n", entry.getKey(),
+                    Long.valueOf(operationStatistics.getCount()),
+                    Long.valueOf(operationStatistics.getRejectedCount()),
+                    Double.valueOf(operationStatistics.getThroughput()),
+                    Long.valueOf(operationStatistics.getLatencyPercentile(50)),
+                    Long.valueOf(operationStatistics.getLatencyPercentile(90)),
+                    Long.valueOf(operationStatistics.getLatencyPercentile(99)),
+                    Long.valueOf(operationStatistics.getLatencyPercentile(100))));
+        }
+        return str.toString();
+    }
+
+    private static double throughput(long count, long elapsedNanos) {
+        return elapsedNanos > 0 ? count * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos : 0;
+    }
+
+    /**
+     * Statistics of an operation.
+     */
+    public static final class OperationStatistics {
+        private final long[] sortedLatencies;
+        private final long rejectedCount;
+        private final long elapsedNanos;
+
+        OperationStatistics(@Nonnull long[] latencies, long rejectedCount, long elapsedNanos) {
+            this.sortedLatencies = latencies.clone();
+            Arrays.sort(this.sortedLatencies);
+            this.rejectedCount = rejectedCount;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Gets the number of times the operation was executed.
+         * 
+         * @return the number of executions
+         */
+        public long getCount() {
+            return this.sortedLatencies.length;
+        }
+
+        /**
+         * Gets the number of executions that were legitimately rejected by the data store: Adds of
+         * duplicated keys, updates with version conflicts and operations on objects deleted by
+         * another thread.
+         * 
+         * @return the number of rejected executions
+         */
+        public long getRejectedCount() {
+            return this.rejectedCount;
+        }
+
+        /**
+         * Gets the throughput of the operation.
+         * 
+         * @return the number of executions per second
+         */
+        public double getThroughput() {
+            return throughput(getCount(), this.elapsedNanos);
+        }
+
+        /**
+         * Gets a latency percentile (Nearest-rank method).
+         * 
+         * @param percentile percentile in the range (0, 100]
+         * @return the latency in microseconds under which {@code percentile} percent of the
+         *         executions completed, {@code 0} if the operation was never executed
+         */
+        public long getLatencyPercentile(double percentile) {
+            if (percentile <= 0 || percentile > 100) {
+                throw new IllegalArgumentException("percentile must be in the range (0, 100]");
+            }
+
+            if (this.sortedLatencies.length == 0) {
+                return 0;
+            }
+
+            int rank = (int) Math.ceil(percentile / 100 * this.sortedLatencies.length);
+            return TimeUnit.NANOSECONDS.toMicros(this.sortedLatencies[Math.max(rank, 1) - 1]);
+        }
+    }
+}
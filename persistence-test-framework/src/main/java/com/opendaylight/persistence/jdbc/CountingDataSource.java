@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.opendaylight.persistence.jdbc;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import javax.annotation.Nonnull;
+import javax.sql.DataSource;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Data source decorator that records every statement sent to the database in a
+ * {@link StatementCounter}.
+ * <p>
+ * Statements are recorded when they are executed, not when they are prepared, so cached prepared
+ * statements executed several times are counted several times. A batch is counted as one statement
+ * per {@link Statement#addBatch(String) added SQL} for plain statements and as one statement for
+ * prepared statements (A single round trip with multiple parameter sets).
+ * <p>
+ * This data source is meant for integration tests: Connections and statements are wrapped using
+ * dynamic proxies.
+ * 
+ */
+public final class CountingDataSource implements DataSource {
+
+    private final DataSource delegate;
+    private final StatementCounter counter;
+
+    /**
+     * Creates a counting data source.
+     * 
+     * @param delegate data source to decorate
+     * @param counter counter to record statements to
+     */
+    public CountingDataSource(@Nonnull DataSource delegate, @Nonnull StatementCounter counter) {
+        this.delegate = Preconditions.checkNotNull(delegate, "delegate");
+        this.counter = Preconditions.checkNotNull(counter, "counter");
+    }
+
+    /**
+     * Gets the statement counter.
+     * 
+     * @return the statement counter
+     */
+    @Nonnull
+    public StatementCounter getCounter() {
+        return this.counter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(this.delegate.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(this.delegate.getConnection(username, password));
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return this.delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        this.delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        this.delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return this.delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return this.delegate.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return this.delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || this.delegate.isWrapperFor(iface);
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    private static <E> E proxy(Class<E> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), new Class<?>[] { type },
+                handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        }
+        catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+
+        public ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = CountingDataSource.invoke(this.connection, method, args);
+            switch (method.getName()) {
+                case "createStatement":
+                    return proxy(Statement.class, new StatementHandler((Statement) result, null));
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+                case "prepareCall":
+                    return proxy(CallableStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+                default:
+                    return result;
+            }
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String preparedSql;
+        private final List<String> batch;
+
+        public StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+            this.batch = new ArrayList<String>();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            boolean sqlArgument = args != null && args.length > 0 && args[0] instanceof String;
+
+            if (name.equals("addBatch") && sqlArgument) {
+                this.batch.add((String) args[0]);
+            }
+            else if (name.equals("clearBatch")) {
+                this.batch.clear();
+            }
+            else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                if (this.preparedSql != null) {
+                    CountingDataSource.this.counter.record(this.preparedSql);
+                }
+                for (String sql : this.batch) {
+                    CountingDataSource.this.counter.record(sql);
+                }
+                this.batch.clear();
+            }
+            else if (name.startsWith("execute")) {
+                String sql = sqlArgument ? (String) args[0] : this.preparedSql;
+                if (sql != null) {
+                    CountingDataSource.this.counter.record(sql);
+                }
+            }
+
+            return CountingDataSource.invoke(this.statement, method, args);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.opendaylight.persistence.jdbc;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Counts the SQL statements sent to the database.
+ * <p>
+ * Statements are recorded by an interceptor placed between the code under test and the database
+ * (See {@link CountingDataSource}). Besides the total count, statements are grouped by their
+ * shape: The SQL text with literals replaced by parameter markers, so the same query executed with
+ * different values is recognized as a repetition (Which is how N+1 select problems show up).
+ * <p>
+ * Usage example:
+ * 
+ * <pre>
+ * StatementCounter.Recording recording = counter.startRecording();
+ * try {
+ *     // Code under test
+ * }
+ * finally {
+ *     recording.stop();
+ * }
+ * Assert.assertEquals(1, recording.getCount());
+ * </pre>
+ * <p>
+ * This class is thread safe. Recordings can be nested and overlapped; each of them receives the
+ * statements executed from the moment it was started until it is stopped, by any thread.
+ * 
+ */
+public final class StatementCounter {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final AtomicLong count;
+    private final List<Recording> recordings;
+
+    /**
+     * Creates a statement counter.
+     */
+    public StatementCounter() {
+        this.count = new AtomicLong();
+        this.recordings = new CopyOnWriteArrayList<Recording>();
+    }
+
+    /**
+     * Records the execution of a statement.
+     * 
+     * @param sql executed SQL
+     */
+    public void record(@Nonnull String sql) {
+        Preconditions.checkNotNull(sql, "sql");
+        this.count.incrementAndGet();
+        if (!this.recordings.isEmpty()) {
+            String shape = getShape(sql);
+            for (Recording recording : this.recordings) {
+                recording.record(shape);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of statements recorded since this counter was created or last reset.
+     * 
+     * @return the number of recorded statements
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Resets the statement count. Active recordings are not affected.
+     */
+    public void reset() {
+        this.count.set(0);
+    }
+
+    /**
+     * Starts a recording.
+     * 
+     * @return a recording that receives the statements executed until it is stopped
+     */
+    @Nonnull
+    public Recording startRecording() {
+        Recording recording = new Recording(this);
+        this.recordings.add(recording);
+        return recording;
+    }
+
+    /**
+     * Gets the shape of a SQL statement: String and numeric literals are replaced by {@code ?},
+     * lists of parameters (like the ones in {@code IN} clauses) are collapsed to a single parameter
+     * and white spaces are normalized.
+     * 
+     * @param sql SQL statement
+     * @return the statement's shape
+     */
+    @Nonnull
+    public static String getShape(@Nonnull String sql) {
+        Preconditions.checkNotNull(sql, "sql");
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMERIC_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    /**
+     * Statements recorded during a period of time.
+     * <p>
+     * This class is thread safe.
+     */
+    public static final class Recording {
+        private final StatementCounter counter;
+        private final Map<String, Integer> shapeCounts;
+        private long count;
+
+        private Recording(StatementCounter counter) {
+            this.counter = counter;
+            this.shapeCounts = new HashMap<String, Integer>();
+        }
+
+        synchronized void record(String shape) {
+            this.count++;
+            Integer shapeCount = this.shapeCounts.get(shape);
+            this.shapeCounts.put(shape, Integer.valueOf(shapeCount != null ? shapeCount.intValue() + 1 : 1));
+        }
+
+        /**
+         * Stops the recording. Statements executed after this method is called are not recorded.
+         */
+        public void stop() {
+            this.counter.recordings.remove(this);
+        }
+
+        /**
+         * Gets the number of statements recorded.
+         * 
+         * @return the number of recorded statements
+         */
+        public synchronized long getCount() {
+            return this.count;
+        }
+
+        /**
+         * Gets the number of times each statement shape was recorded.
+         * 
+         * @return a map from statement shape (See {@link StatementCounter#getShape(String)}) to
+         *         the number of times it was recorded
+         */
+        @Nonnull
+        public synchronized Map<String, Integer> getShapeCounts() {
+            return Collections.unmodifiableMap(new HashMap<String, Integer>(this.shapeCounts));
+        }
+
+        /**
+         * Gets the statement shape recorded the most times.
+         * 
+         * @return the most repeated statement shape, {@code null} if no statements were recorded
+         */
+        @Nullable
+        public synchronized String getMostRepeatedShape() {
+            String mostRepeated = null;
+            int maxCount = 0;
+            for (Map.Entry<String, Integer> entry : this.shapeCounts.entrySet()) {
+                if (entry.getValue().intValue() > maxCount) {
+                    mostRepeated = entry.getKey();
+                    maxCount = entry.getValue().intValue();
+                }
+            }
+            return mostRepeated;
+        }
+
+        /**
+         * Gets the number of times the given statement shape was recorded.
+         * 
+         * @param shape statement shape
+         * @return the number of times {@code shape} was recorded
+         */
+        public synchronized int getShapeCount(@Nullable String shape) {
+            Integer shapeCount = this.shapeCounts.get(shape);
+            return shapeCount != null ? shapeCount.intValue() : 0;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "Recording[count=" + this.count + ", shapes=" + this.shapeCounts + "]";
+        }
+    }
+}
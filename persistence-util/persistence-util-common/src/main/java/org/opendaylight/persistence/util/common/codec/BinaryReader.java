@@ -0,0 +1,256 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.codec;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads binary encodings written by {@link BinaryWriter} from a {@link ByteBuffer}.
+ * <p>
+ * The reader works directly on the given buffer (Which can be a heap, direct or memory-mapped
+ * buffer) without copying it; {@link #readSlice()} gives access to length-prefixed bytes without
+ * copying them either.
+ * <p>
+ * This class is not thread safe.
+ * 
+ */
+public final class BinaryReader {
+
+    private final ByteBuffer buffer;
+
+    /**
+     * Creates a reader for the remaining bytes of a buffer. The position of {@code buffer} is not
+     * modified.
+     * 
+     * @param buffer buffer to read from
+     */
+    public BinaryReader(ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new NullPointerException("buffer cannot be null");
+        }
+        this.buffer = buffer.slice();
+    }
+
+    /**
+     * Creates a reader.
+     * 
+     * @param encoding encoding to read
+     */
+    public BinaryReader(byte[] encoding) {
+        this(ByteBuffer.wrap(encoding));
+    }
+
+    /**
+     * Reads a byte.
+     * 
+     * @return the value
+     * @throws IllegalArgumentException if the end of the encoding has been reached
+     */
+    public byte readByte() throws IllegalArgumentException {
+        try {
+            return this.buffer.get();
+        } catch (BufferUnderflowException e) {
+            throw truncated();
+        }
+    }
+
+    /**
+     * Reads a boolean.
+     * 
+     * @return the value
+     * @throws IllegalArgumentException if the encoding is malformed
+     */
+    public boolean readBoolean() throws IllegalArgumentException {
+        byte value = readByte();
+        if (value != 0 && value != 1) {
+            throw new IllegalArgumentException("Malformed encoding: invalid boolean " + value);
+        }
+        return value == 1;
+    }
+
+    /**
+     * Reads an unsigned varint.
+     * 
+     * @return the value
+     * @throws IllegalArgumentException if the encoding is malformed
+     */
+    public int readVarInt() throws IllegalArgumentException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed encoding: varint is too long");
+    }
+
+    /**
+     * Reads a zig-zag encoded varint.
+     * 
+     * @return the value
+     * @throws IllegalArgumentException if the encoding is malformed
+     */
+    public int readSignedVarInt() throws IllegalArgumentException {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads an unsigned varlong.
+     * 
+     * @return the value
+     * @throws IllegalArgumentException if the encoding is malformed
+     */
+    public long readVarLong() throws IllegalArgumentException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed encoding: varlong is too long");
+    }
+
+    /**
+     * Reads a zig-zag encoded varlong.
+     * 
+     * @return the value
+     * @throws IllegalArgumentException if the encoding is malformed
+     */
+    public long readSignedVarLong() throws IllegalArgumentException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads a fixed-length long.
+     * 
+     * @return the value
+     * @throws IllegalArgumentException if the end of the encoding has been reached
+     */
+    public long readLong() throws IllegalArgumentException {
+        try {
+            return this.buffer.getLong();
+        } catch (BufferUnderflowException e) {
+            throw truncated();
+        }
+    }
+
+    /**
+     * Reads a fixed-length float.
+     * 
+     * @return the value
+     * @throws IllegalArgumentException if the end of the encoding has been reached
+     */
+    public float readFloat() throws IllegalArgumentException {
+        try {
+            return this.buffer.getFloat();
+        } catch (BufferUnderflowException e) {
+            throw truncated();
+        }
+    }
+
+    /**
+     * Reads a fixed-length double.
+     * 
+     * @return the value
+     * @throws IllegalArgumentException if the end of the encoding has been reached
+     */
+    public double readDouble() throws IllegalArgumentException {
+        try {
+            return this.buffer.getDouble();
+        } catch (BufferUnderflowException e) {
+            throw truncated();
+        }
+    }
+
+    /**
+     * Reads a length-prefixed array of bytes.
+     * 
+     * @return a copy of the bytes
+     * @throws IllegalArgumentException if the encoding is malformed
+     */
+    public byte[] readBytes() throws IllegalArgumentException {
+        ByteBuffer slice = readSlice();
+        byte[] value = new byte[slice.remaining()];
+        slice.get(value);
+        return value;
+    }
+
+    /**
+     * Reads length-prefixed bytes without copying them.
+     * 
+     * @return a buffer sharing the content of the encoding
+     * @throws IllegalArgumentException if the encoding is malformed
+     */
+    public ByteBuffer readSlice() throws IllegalArgumentException {
+        int length = readLength();
+        ByteBuffer slice = this.buffer.slice();
+        slice.limit(length);
+        this.buffer.position(this.buffer.position() + length);
+        return slice;
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 encoded string.
+     * 
+     * @return the value
+     * @throws IllegalArgumentException if the encoding is malformed
+     */
+    public String readString() throws IllegalArgumentException {
+        int length = readLength();
+        String value;
+        if (this.buffer.hasArray()) {
+            // Decodes straight from the backing array
+            value = new String(this.buffer.array(), this.buffer.arrayOffset() + this.buffer.position(), length,
+                    StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            this.buffer.duplicate().get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        this.buffer.position(this.buffer.position() + length);
+        return value;
+    }
+
+    /**
+     * Verifies whether there are bytes left to read.
+     * 
+     * @return {@code true} if there are bytes left to read, {@code false} otherwise
+     */
+    public boolean hasRemaining() {
+        return this.buffer.hasRemaining();
+    }
+
+    /**
+     * Gets the number of bytes left to read.
+     * 
+     * @return the number of bytes left to read
+     */
+    public int remaining() {
+        return this.buffer.remaining();
+    }
+
+    private int readLength() throws IllegalArgumentException {
+        int length = readVarInt();
+        if (length < 0 || length > this.buffer.remaining()) {
+            throw new IllegalArgumentException("Malformed encoding: invalid length " + length);
+        }
+        return length;
+    }
+
+    private static IllegalArgumentException truncated() {
+        return new IllegalArgumentException("Malformed encoding: unexpected end of encoding");
+    }
+}
@@ -0,0 +1,256 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes binary encodings to a growable {@link ByteBuffer}.
+ * <p>
+ * Integers can be written as varints: Seven bits per byte, the most significant bit indicating
+ * whether more bytes follow. Small values (Which are the most common) take one or two bytes instead
+ * of four or eight. Signed varints use zig-zag encoding so small negative values are small as well.
+ * <p>
+ * This class is not thread safe.
+ * 
+ */
+public final class BinaryWriter {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private ByteBuffer buffer;
+
+    /**
+     * Creates a writer.
+     */
+    public BinaryWriter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a writer.
+     * 
+     * @param initialCapacity initial capacity in bytes
+     */
+    public BinaryWriter(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("initialCapacity must be greater than zero");
+        }
+        this.buffer = ByteBuffer.allocate(initialCapacity);
+    }
+
+    /**
+     * Writes a byte.
+     * 
+     * @param value value to write; only the eight low-order bits are written
+     * @return this writer
+     */
+    public BinaryWriter writeByte(int value) {
+        ensureCapacity(1);
+        this.buffer.put((byte) value);
+        return this;
+    }
+
+    /**
+     * Writes a boolean as a byte.
+     * 
+     * @param value value to write
+     * @return this writer
+     */
+    public BinaryWriter writeBoolean(boolean value) {
+        return writeByte(value ? 1 : 0);
+    }
+
+    /**
+     * Writes an unsigned varint. Negative values are valid but take five bytes; use
+     * {@link #writeSignedVarInt(int)} for values that could be negative.
+     * 
+     * @param value value to write
+     * @return this writer
+     */
+    public BinaryWriter writeVarInt(int value) {
+        ensureCapacity(5);
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            this.buffer.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        this.buffer.put((byte) remaining);
+        return this;
+    }
+
+    /**
+     * Writes a zig-zag encoded varint.
+     * 
+     * @param value value to write
+     * @return this writer
+     */
+    public BinaryWriter writeSignedVarInt(int value) {
+        return writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Writes an unsigned varlong. Negative values are valid but take ten bytes; use
+     * {@link #writeSignedVarLong(long)} for values that could be negative.
+     * 
+     * @param value value to write
+     * @return this writer
+     */
+    public BinaryWriter writeVarLong(long value) {
+        ensureCapacity(10);
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            this.buffer.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        this.buffer.put((byte) remaining);
+        return this;
+    }
+
+    /**
+     * Writes a zig-zag encoded varlong.
+     * 
+     * @param value value to write
+     * @return this writer
+     */
+    public BinaryWriter writeSignedVarLong(long value) {
+        return writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Writes a fixed-length (Eight bytes) long.
+     * 
+     * @param value value to write
+     * @return this writer
+     */
+    public BinaryWriter writeLong(long value) {
+        ensureCapacity(8);
+        this.buffer.putLong(value);
+        return this;
+    }
+
+    /**
+     * Writes a fixed-length (Four bytes) float.
+     * 
+     * @param value value to write
+     * @return this writer
+     */
+    public BinaryWriter writeFloat(float value) {
+        ensureCapacity(4);
+        this.buffer.putFloat(value);
+        return this;
+    }
+
+    /**
+     * Writes a fixed-length (Eight bytes) double.
+     * 
+     * @param value value to write
+     * @return this writer
+     */
+    public BinaryWriter writeDouble(double value) {
+        ensureCapacity(8);
+        this.buffer.putDouble(value);
+        return this;
+    }
+
+    /**
+     * Writes a length-prefixed array of bytes.
+     * 
+     * @param value value to write
+     * @return this writer
+     */
+    public BinaryWriter writeBytes(byte[] value) {
+        if (value == null) {
+            throw new NullPointerException("value cannot be null");
+        }
+        writeVarInt(value.length);
+        ensureCapacity(value.length);
+        this.buffer.put(value);
+        return this;
+    }
+
+    /**
+     * Writes the remaining bytes of a buffer, length-prefixed. The position of {@code value} is not
+     * modified.
+     * 
+     * @param value value to write
+     * @return this writer
+     */
+    public BinaryWriter writeBytes(ByteBuffer value) {
+        if (value == null) {
+            throw new NullPointerException("value cannot be null");
+        }
+        writeVarInt(value.remaining());
+        ensureCapacity(value.remaining());
+        this.buffer.put(value.duplicate());
+        return this;
+    }
+
+    /**
+     * Writes a length-prefixed UTF-8 encoded string.
+     * 
+     * @param value value to write
+     * @return this writer
+     */
+    public BinaryWriter writeString(String value) {
+        if (value == null) {
+            throw new NullPointerException("value cannot be null");
+        }
+        return writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Gets the number of bytes written.
+     * 
+     * @return the size of the encoding
+     */
+    public int size() {
+        return this.buffer.position();
+    }
+
+    /**
+     * Discards the written bytes so this writer can be reused.
+     */
+    public void clear() {
+        this.buffer.clear();
+    }
+
+    /**
+     * Gets the encoding as a read-only buffer. The returned buffer shares the content of this writer
+     * (No bytes are copied), thus it is invalidated by subsequent writes or by {@link #clear()}.
+     * 
+     * @return the encoding
+     */
+    public ByteBuffer toByteBuffer() {
+        ByteBuffer encoding = this.buffer.duplicate();
+        encoding.flip();
+        return encoding.asReadOnlyBuffer();
+    }
+
+    /**
+     * Gets a copy of the encoding.
+     * 
+     * @return the encoding
+     */
+    public byte[] toByteArray() {
+        byte[] encoding = new byte[this.buffer.position()];
+        System.arraycopy(this.buffer.array(), this.buffer.arrayOffset(), encoding, 0, encoding.length);
+        return encoding;
+    }
+
+    private void ensureCapacity(int length) {
+        if (this.buffer.remaining() < length) {
+            int capacity = Math.max(this.buffer.capacity() * 2, this.buffer.position() + length);
+            ByteBuffer expanded = ByteBuffer.allocate(capacity);
+            this.buffer.flip();
+            expanded.put(this.buffer);
+            this.buffer = expanded;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.codec;
+
+/**
+ * Binary encoder and decoder.
+ * <p>
+ * Codecs are hand-written encodings of a type meant to replace default Java serialization in the
+ * paths where objects are serialized often (Caching, snapshots, replication, etc.): They do not
+ * write class descriptors and they encode numbers as varints, thus the encoding is both faster to
+ * produce and considerably smaller. Codecs must be thread safe.
+ * 
+ * @param <T> type of the encoded value
+ */
+public interface Codec<T> {
+
+    /**
+     * Encodes a value.
+     * 
+     * @param value value to encode
+     * @param writer writer to write the encoding to
+     */
+    void encode(T value, BinaryWriter writer);
+
+    /**
+     * Decodes a value.
+     * 
+     * @param reader reader to read the encoding from
+     * @return the decoded value
+     * @throws IllegalArgumentException if the encoding is malformed
+     */
+    T decode(BinaryReader reader) throws IllegalArgumentException;
+}
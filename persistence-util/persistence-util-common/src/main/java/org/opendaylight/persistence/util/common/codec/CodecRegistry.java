@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.codec;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.opendaylight.persistence.util.common.DuplicateException;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Registry of codecs: Encodes objects whose type is not known at compile time (For example the
+ * value of an {@link org.opendaylight.persistence.util.common.type.Id} or the data of a
+ * {@link org.opendaylight.persistence.util.common.type.page.Page}).
+ * <p>
+ * Each codec is registered with a tag, which is written as a varint before the object's encoding;
+ * tag zero denotes {@code null}. Tags are part of the encoding, thus they must not change once
+ * encodings have been stored. Tags below {@link #FIRST_APPLICATION_TAG} are reserved for the codecs
+ * registered by {@link #createDefault()}.
+ * <p>
+ * The codec of an object is looked up by the object's exact class (The declaring class for enum
+ * constants): A subclass is not encoded by the codec of its superclass, since it would be decoded as
+ * an instance of the superclass (For example, a {@link java.sql.Timestamp} as a
+ * {@link java.util.Date}, losing the nanoseconds). Subclasses must be registered on their own.
+ * <p>
+ * This class is thread safe.
+ * 
+ */
+public final class CodecRegistry {
+
+    /**
+     * First tag available to application codecs.
+     */
+    public static final int FIRST_APPLICATION_TAG = 64;
+
+    private static final int NULL_TAG = 0;
+
+    private final ConcurrentMap<Integer, Registration<?>> byTag;
+    private final ConcurrentMap<Class<?>, Registration<?>> byType;
+
+    /**
+     * Creates an empty registry.
+     */
+    public CodecRegistry() {
+        this.byTag = new ConcurrentHashMap<Integer, Registration<?>>();
+        this.byType = new ConcurrentHashMap<Class<?>, Registration<?>>();
+    }
+
+    /**
+     * Creates a registry containing the codecs for the JDK value types (Strings, boxed primitives,
+     * byte arrays and dates) and for the types in
+     * {@link org.opendaylight.persistence.util.common.type} and
+     * {@link org.opendaylight.persistence.util.common.filter}.
+     * 
+     * @return a new registry
+     */
+    public static CodecRegistry createDefault() {
+        CodecRegistry registry = new CodecRegistry();
+        ValueCodecs.registerDefaults(registry);
+        FilterCodecs.registerDefaults(registry);
+        PageCodecs.registerDefaults(registry);
+        return registry;
+    }
+
+    /**
+     * Registers a codec.
+     * 
+     * @param tag tag to identify the type in encodings; it must be greater than zero
+     * @param type type the codec is registered for
+     * @param codec codec
+     * @throws DuplicateException if either {@code tag} or {@code type} is already registered
+     */
+    public <T> void register(int tag, Class<T> type, Codec<? super T> codec) throws DuplicateException {
+        Preconditions.checkArgument(tag > NULL_TAG, "tag must be greater than zero");
+        Preconditions.checkNotNull(type, "type");
+        Preconditions.checkNotNull(codec, "codec");
+
+        Registration<T> registration = new Registration<T>(tag, codec);
+
+        if (this.byTag.putIfAbsent(Integer.valueOf(tag), registration) != null) {
+            throw new DuplicateException("Tag already registered: " + tag);
+        }
+
+        if (this.byType.putIfAbsent(type, registration) != null) {
+            this.byTag.remove(Integer.valueOf(tag));
+            throw new DuplicateException("Type already registered: " + type.getName());
+        }
+    }
+
+    /**
+     * Gets the codec to encode objects of the given type.
+     * 
+     * @param type type
+     * @return the codec registered for {@code type}, {@code null} if none is registered
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Codec<T> getCodec(Class<T> type) {
+        Preconditions.checkNotNull(type, "type");
+        Registration<?> registration = this.byType.get(type);
+        return registration != null ? (Codec<T>) registration.codec : null;
+    }
+
+    /**
+     * Encodes an object preceded by the tag of its type.
+     * 
+     * @param value object to encode; it may be {@code null}
+     * @param writer writer to write the encoding to
+     * @throws IllegalArgumentException if no codec is registered for the type of {@code value}
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void encodeObject(Object value, BinaryWriter writer) throws IllegalArgumentException {
+        Preconditions.checkNotNull(writer, "writer");
+
+        if (value == null) {
+            writer.writeVarInt(NULL_TAG);
+            return;
+        }
+
+        Class<?> type = value instanceof Enum ? ((Enum<?>) value).getDeclaringClass() : value.getClass();
+        Registration registration = this.byType.get(type);
+        if (registration == null) {
+            throw new IllegalArgumentException("No codec registered for " + type.getName());
+        }
+
+        writer.writeVarInt(registration.tag);
+        registration.codec.encode(value, writer);
+    }
+
+    /**
+     * Decodes an object encoded by {@link #encodeObject(Object, BinaryWriter)}.
+     * 
+     * @param reader reader to read the encoding from
+     * @return the decoded object
+     * @throws IllegalArgumentException if the encoding is malformed or if its tag is not registered
+     */
+    public Object decodeObject(BinaryReader reader) throws IllegalArgumentException {
+        Preconditions.checkNotNull(reader, "reader");
+
+        int tag = reader.readVarInt();
+        if (tag == NULL_TAG) {
+            return null;
+        }
+
+        Registration<?> registration = this.byTag.get(Integer.valueOf(tag));
+        if (registration == null) {
+            throw new IllegalArgumentException("No codec registered for tag " + tag);
+        }
+
+        return registration.codec.decode(reader);
+    }
+
+    /**
+     * Encodes an object.
+     * 
+     * @param value object to encode; it may be {@code null}
+     * @return the encoding
+     * @throws IllegalArgumentException if no codec is registered for the type of {@code value}
+     */
+    public byte[] encode(Object value) throws IllegalArgumentException {
+        BinaryWriter writer = new BinaryWriter();
+        encodeObject(value, writer);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decodes an object encoded by {@link #encode(Object)}.
+     * 
+     * @param encoding encoding
+     * @return the decoded object
+     * @throws IllegalArgumentException if the encoding is malformed
+     */
+    public Object decode(byte[] encoding) throws IllegalArgumentException {
+        Preconditions.checkNotNull(encoding, "encoding");
+        return decode(ByteBuffer.wrap(encoding));
+    }
+
+    /**
+     * Decodes an object encoded by {@link #encode(Object)} from the remaining bytes of a buffer.
+     * 
+     * @param encoding encoding
+     * @return the decoded object
+     * @throws IllegalArgumentException if the encoding is malformed
+     */
+    public Object decode(ByteBuffer encoding) throws IllegalArgumentException {
+        Preconditions.checkNotNull(encoding, "encoding");
+        BinaryReader reader = new BinaryReader(encoding);
+        Object value = decodeObject(reader);
+        if (reader.hasRemaining()) {
+            throw new IllegalArgumentException("Malformed encoding: unexpected trailing bytes");
+        }
+        return value;
+    }
+
+    private static final class Registration<T> {
+        private final int tag;
+        private final Codec<? super T> codec;
+
+        Registration(int tag, Codec<? super T> codec) {
+            this.tag = tag;
+            this.codec = codec;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.codec;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.opendaylight.persistence.util.common.filter.ComparabilityCondition;
+import org.opendaylight.persistence.util.common.filter.EqualityCondition;
+import org.opendaylight.persistence.util.common.filter.IntervalCondition;
+import org.opendaylight.persistence.util.common.filter.SetCondition;
+import org.opendaylight.persistence.util.common.filter.StringCondition;
+import org.opendaylight.persistence.util.common.filter.TimePeriodCondition;
+import org.opendaylight.persistence.util.common.type.Interval;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Codecs for filter conditions. Conditions are encoded as the mode followed by the condition's
+ * value; values whose type is not known at compile time are encoded through a {@link CodecRegistry}.
+ * 
+ */
+public final class FilterCodecs {
+
+    /**
+     * {@link StringCondition} codec.
+     */
+    public static final Codec<StringCondition> STRING_CONDITION = new Codec<StringCondition>() {
+        private final StringCondition.Mode[] modes = StringCondition.Mode.values();
+
+        @Override
+        public void encode(StringCondition value, BinaryWriter writer) {
+            writer.writeVarInt(value.getMode().ordinal());
+            writer.writeBoolean(value.getValue() != null);
+            if (value.getValue() != null) {
+                writer.writeString(value.getValue());
+            }
+        }
+
+        @Override
+        public StringCondition decode(BinaryReader reader) {
+            StringCondition.Mode mode = ValueCodecs.readEnum(reader, this.modes);
+            String value = reader.readBoolean() ? reader.readString() : null;
+            switch (mode) {
+                case EQUAL:
+                    return StringCondition.equalTo(value);
+                case UNEQUAL:
+                    return StringCondition.unequalTo(value);
+                case STARTS_WITH:
+                    return StringCondition.startWith(value);
+                case CONTAINS:
+                    return StringCondition.contain(value);
+                default:
+                    return StringCondition.endWith(value);
+            }
+        }
+    };
+
+    /**
+     * {@link TimePeriodCondition} codec.
+     */
+    public static final Codec<TimePeriodCondition> TIME_PERIOD_CONDITION = new Codec<TimePeriodCondition>() {
+        private final TimePeriodCondition.Mode[] modes = TimePeriodCondition.Mode.values();
+
+        @Override
+        public void encode(TimePeriodCondition value, BinaryWriter writer) {
+            writer.writeVarInt(value.getMode().ordinal());
+            ValueCodecs.TIME_PERIOD.encode(value.getValue(), writer);
+        }
+
+        @Override
+        public TimePeriodCondition decode(BinaryReader reader) {
+            TimePeriodCondition.Mode mode = ValueCodecs.readEnum(reader, this.modes);
+            if (mode == TimePeriodCondition.Mode.IN) {
+                return TimePeriodCondition.in(ValueCodecs.TIME_PERIOD.decode(reader));
+            }
+            return TimePeriodCondition.notIn(ValueCodecs.TIME_PERIOD.decode(reader));
+        }
+    };
+
+    private FilterCodecs() {
+
+    }
+
+    /**
+     * Creates a codec for {@link EqualityCondition}.
+     * 
+     * @param registry registry to encode the condition's value
+     * @return a codec for {@link EqualityCondition}
+     */
+    public static Codec<EqualityCondition<?>> equalityCondition(final CodecRegistry registry) {
+        Preconditions.checkNotNull(registry, "registry");
+        final EqualityCondition.Mode[] modes = EqualityCondition.Mode.values();
+        return new Codec<EqualityCondition<?>>() {
+            @Override
+            public void encode(EqualityCondition<?> value, BinaryWriter writer) {
+                writer.writeVarInt(value.getMode().ordinal());
+                registry.encodeObject(value.getValue(), writer);
+            }
+
+            @Override
+            public EqualityCondition<?> decode(BinaryReader reader) {
+                EqualityCondition.Mode mode = ValueCodecs.readEnum(reader, modes);
+                Object value = registry.decodeObject(reader);
+                if (mode == EqualityCondition.Mode.EQUAL) {
+                    return EqualityCondition.equalTo(value);
+                }
+                return EqualityCondition.unequalTo(value);
+            }
+        };
+    }
+
+    /**
+     * Creates a codec for {@link ComparabilityCondition}.
+     * 
+     * @param registry registry to encode the condition's value
+     * @return a codec for {@link ComparabilityCondition}
+     */
+    public static Codec<ComparabilityCondition<?>> comparabilityCondition(final CodecRegistry registry) {
+        Preconditions.checkNotNull(registry, "registry");
+        final ComparabilityCondition.Mode[] modes = ComparabilityCondition.Mode.values();
+        return new Codec<ComparabilityCondition<?>>() {
+            @Override
+            public void encode(ComparabilityCondition<?> value, BinaryWriter writer) {
+                writer.writeVarInt(value.getMode().ordinal());
+                registry.encodeObject(value.getValue(), writer);
+            }
+
+            @Override
+            public ComparabilityCondition<?> decode(BinaryReader reader) {
+                ComparabilityCondition.Mode mode = ValueCodecs.readEnum(reader, modes);
+                Object value = registry.decodeObject(reader);
+                try {
+                    return createComparabilityCondition(mode, value);
+                } catch (ClassCastException e) {
+                    throw new IllegalArgumentException("Malformed encoding: value is not comparable", e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates a codec for {@link IntervalCondition}.
+     * 
+     * @param registry registry to encode the interval endpoints
+     * @return a codec for {@link IntervalCondition}
+     */
+    public static Codec<IntervalCondition<?>> intervalCondition(CodecRegistry registry) {
+        final Codec<Interval<?>> intervalCodec = ValueCodecs.interval(registry);
+        final IntervalCondition.Mode[] modes = IntervalCondition.Mode.values();
+        return new Codec<IntervalCondition<?>>() {
+            @Override
+            public void encode(IntervalCondition<?> value, BinaryWriter writer) {
+                writer.writeVarInt(value.getMode().ordinal());
+                intervalCodec.encode(value.getValue(), writer);
+            }
+
+            @Override
+            public IntervalCondition<?> decode(BinaryReader reader) {
+                IntervalCondition.Mode mode = ValueCodecs.readEnum(reader, modes);
+                Interval<?> interval = intervalCodec.decode(reader);
+                return createIntervalCondition(mode, interval);
+            }
+        };
+    }
+
+    /**
+     * Creates a codec for {@link SetCondition}.
+     * 
+     * @param registry registry to encode the condition's values
+     * @return a codec for {@link SetCondition}
+     */
+    public static Codec<SetCondition<?>> setCondition(final CodecRegistry registry) {
+        Preconditions.checkNotNull(registry, "registry");
+        final SetCondition.Mode[] modes = SetCondition.Mode.values();
+        return new Codec<SetCondition<?>>() {
+            @Override
+            public void encode(SetCondition<?> value, BinaryWriter writer) {
+                writer.writeVarInt(value.getMode().ordinal());
+                writer.writeVarInt(value.getValues().size());
+                for (Object element : value.getValues()) {
+                    registry.encodeObject(element, writer);
+                }
+            }
+
+            @Override
+            public SetCondition<?> decode(BinaryReader reader) {
+                SetCondition.Mode mode = ValueCodecs.readEnum(reader, modes);
+                int size = reader.readVarInt();
+                Set<Object> values = new LinkedHashSet<Object>();
+                for (int i = 0; i < size; i++) {
+                    values.add(registry.decodeObject(reader));
+                }
+                if (mode == SetCondition.Mode.IN) {
+                    return SetCondition.in(values);
+                }
+                return SetCondition.notIn(values);
+            }
+        };
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static ComparabilityCondition<?> createComparabilityCondition(ComparabilityCondition.Mode mode,
+            Object value) {
+        Comparable comparable = (Comparable) value;
+        switch (mode) {
+            case LESS_THAN:
+                return ComparabilityCondition.lessThan(comparable);
+            case LESS_THAN_OR_EQUAL_TO:
+                return ComparabilityCondition.lessThanOrEqualTo(comparable);
+            case EQUAL:
+                return ComparabilityCondition.equalTo(comparable);
+            case GREATER_THAN_OR_EQUAL_TO:
+                return ComparabilityCondition.greaterThanOrEqualTo(comparable);
+            default:
+                return ComparabilityCondition.greaterThan(comparable);
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static IntervalCondition<?> createIntervalCondition(IntervalCondition.Mode mode, Interval interval) {
+        if (mode == IntervalCondition.Mode.IN) {
+            return IntervalCondition.in(interval);
+        }
+        return IntervalCondition.notIn(interval);
+    }
+
+    static void registerDefaults(CodecRegistry registry) {
+        ValueCodecs.register(registry, 16, EqualityCondition.class, equalityCondition(registry));
+        ValueCodecs.register(registry, 17, ComparabilityCondition.class, comparabilityCondition(registry));
+        ValueCodecs.register(registry, 18, IntervalCondition.class, intervalCondition(registry));
+        ValueCodecs.register(registry, 19, SetCondition.class, setCondition(registry));
+        ValueCodecs.register(registry, 20, StringCondition.class, STRING_CONDITION);
+        ValueCodecs.register(registry, 21, TimePeriodCondition.class, TIME_PERIOD_CONDITION);
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.codec;
+
+import java.util.List;
+
+import org.opendaylight.persistence.util.common.type.page.MarkPage;
+import org.opendaylight.persistence.util.common.type.page.MarkPageRequest;
+import org.opendaylight.persistence.util.common.type.page.OffsetPage;
+import org.opendaylight.persistence.util.common.type.page.OffsetPageRequest;
+import org.opendaylight.persistence.util.common.type.page.Page;
+import org.opendaylight.persistence.util.common.type.page.PageRequest;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Codecs for pages and page requests. The data of a page is encoded as its size followed by the
+ * tagged data items (See {@link CodecRegistry}).
+ * 
+ */
+public final class PageCodecs {
+
+    /**
+     * {@link PageRequest} codec.
+     */
+    public static final Codec<PageRequest> PAGE_REQUEST = new Codec<PageRequest>() {
+        @Override
+        public void encode(PageRequest value, BinaryWriter writer) {
+            writer.writeVarInt(value.getSize());
+        }
+
+        @Override
+        public PageRequest decode(BinaryReader reader) {
+            return new PageRequest(readSize(reader));
+        }
+    };
+
+    /**
+     * {@link OffsetPageRequest} codec.
+     */
+    public static final Codec<OffsetPageRequest> OFFSET_PAGE_REQUEST = new Codec<OffsetPageRequest>() {
+        @Override
+        public void encode(OffsetPageRequest value, BinaryWriter writer) {
+            writer.writeVarLong(value.getOffset());
+            writer.writeVarInt(value.getSize());
+        }
+
+        @Override
+        public OffsetPageRequest decode(BinaryReader reader) {
+            long offset = reader.readVarLong();
+            if (offset < 0) {
+                throw new IllegalArgumentException("Malformed encoding: invalid offset " + offset);
+            }
+            return new OffsetPageRequest(offset, readSize(reader));
+        }
+    };
+
+    private PageCodecs() {
+
+    }
+
+    /**
+     * Creates a codec for {@link MarkPageRequest}.
+     * 
+     * @param registry registry to encode the mark
+     * @return a codec for {@link MarkPageRequest}
+     */
+    public static Codec<MarkPageRequest<?>> markPageRequest(final CodecRegistry registry) {
+        Preconditions.checkNotNull(registry, "registry");
+        final MarkPageRequest.Navigation[] navigations = MarkPageRequest.Navigation.values();
+        return new Codec<MarkPageRequest<?>>() {
+            @Override
+            public void encode(MarkPageRequest<?> value, BinaryWriter writer) {
+                writer.writeVarInt(value.getNavigation().ordinal());
+                writer.writeVarInt(value.getSize());
+                registry.encodeObject(value.getMark(), writer);
+            }
+
+            @Override
+            public MarkPageRequest<?> decode(BinaryReader reader) {
+                MarkPageRequest.Navigation navigation = ValueCodecs.readEnum(reader, navigations);
+                int size = readSize(reader);
+                return new MarkPageRequest<Object>(registry.decodeObject(reader), navigation, size);
+            }
+        };
+    }
+
+    /**
+     * Creates a codec for {@link Page}.
+     * 
+     * @param registry registry to encode the page request and the data
+     * @return a codec for {@link Page}
+     */
+    public static Codec<Page<?, ?>> page(final CodecRegistry registry) {
+        Preconditions.checkNotNull(registry, "registry");
+        return new Codec<Page<?, ?>>() {
+            @Override
+            public void encode(Page<?, ?> value, BinaryWriter writer) {
+                registry.encodeObject(value.getRequest(), writer);
+                encodeData(value.getData(), registry, writer);
+            }
+
+            @Override
+            public Page<?, ?> decode(BinaryReader reader) {
+                Object request = registry.decodeObject(reader);
+                if (!(request instanceof PageRequest)) {
+                    throw new IllegalArgumentException("Malformed encoding: invalid page request");
+                }
+                return new Page<PageRequest, Object>((PageRequest) request, decodeData(registry, reader));
+            }
+        };
+    }
+
+    /**
+     * Creates a codec for {@link OffsetPage}.
+     * 
+     * @param registry registry to encode the data
+     * @return a codec for {@link OffsetPage}
+     */
+    public static Codec<OffsetPage<?>> offsetPage(final CodecRegistry registry) {
+        Preconditions.checkNotNull(registry, "registry");
+        return new Codec<OffsetPage<?>>() {
+            @Override
+            public void encode(OffsetPage<?> value, BinaryWriter writer) {
+                OFFSET_PAGE_REQUEST.encode(value.getRequest(), writer);
+                writer.writeVarLong(value.getTotalRecordCount());
+                encodeData(value.getData(), registry, writer);
+            }
+
+            @Override
+            public OffsetPage<?> decode(BinaryReader reader) {
+                OffsetPageRequest request = OFFSET_PAGE_REQUEST.decode(reader);
+                long totalRecordCount = reader.readVarLong();
+                return new OffsetPage<Object>(request, decodeData(registry, reader), totalRecordCount);
+            }
+        };
+    }
+
+    /**
+     * Creates a codec for {@link MarkPage}.
+     * 
+     * @param registry registry to encode the mark and the data
+     * @return a codec for {@link MarkPage}
+     */
+    public static Codec<MarkPage<?>> markPage(final CodecRegistry registry) {
+        Preconditions.checkNotNull(registry, "registry");
+        final Codec<MarkPageRequest<?>> requestCodec = markPageRequest(registry);
+        return new Codec<MarkPage<?>>() {
+            @Override
+            public void encode(MarkPage<?> value, BinaryWriter writer) {
+                requestCodec.encode(value.getRequest(), writer);
+                encodeData(value.getData(), registry, writer);
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public MarkPage<?> decode(BinaryReader reader) {
+                MarkPageRequest<Object> request = (MarkPageRequest<Object>) requestCodec.decode(reader);
+                return new MarkPage<Object>(request, decodeData(registry, reader));
+            }
+        };
+    }
+
+    private static int readSize(BinaryReader reader) {
+        int size = reader.readVarInt();
+        if (size <= 0) {
+            throw new IllegalArgumentException("Malformed encoding: invalid page size " + size);
+        }
+        return size;
+    }
+
+    private static void encodeData(List<?> data, CodecRegistry registry, BinaryWriter writer) {
+        writer.writeVarInt(data.size());
+        for (Object item : data) {
+            registry.encodeObject(item, writer);
+        }
+    }
+
+    private static List<Object> decodeData(CodecRegistry registry, BinaryReader reader) {
+        int size = reader.readVarInt();
+        if (size < 0) {
+            throw new IllegalArgumentException("Malformed encoding: invalid data size " + size);
+        }
+
+        // Pages keep immutable lists: Decoding into one spares the copy made by the page
+        ImmutableList.Builder<Object> data = ImmutableList.builder();
+        for (int i = 0; i < size; i++) {
+            Object item = registry.decodeObject(reader);
+            if (item == null) {
+                throw new IllegalArgumentException("Malformed encoding: null data item");
+            }
+            data.add(item);
+        }
+        return data.build();
+    }
+
+    static void registerDefaults(CodecRegistry registry) {
+        ValueCodecs.register(registry, 22, PageRequest.class, PAGE_REQUEST);
+        ValueCodecs.register(registry, 23, OffsetPageRequest.class, OFFSET_PAGE_REQUEST);
+        ValueCodecs.register(registry, 24, MarkPageRequest.class, markPageRequest(registry));
+        ValueCodecs.register(registry, 25, Page.class, page(registry));
+        ValueCodecs.register(registry, 26, OffsetPage.class, offsetPage(registry));
+        ValueCodecs.register(registry, 27, MarkPage.class, markPage(registry));
+    }
+}
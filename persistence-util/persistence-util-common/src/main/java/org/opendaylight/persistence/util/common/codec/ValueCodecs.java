@@ -0,0 +1,394 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.codec;
+
+import java.io.Serializable;
+
+import org.opendaylight.persistence.util.common.Converter;
+import org.opendaylight.persistence.util.common.type.Date;
+import org.opendaylight.persistence.util.common.type.Id;
+import org.opendaylight.persistence.util.common.type.Interval;
+import org.opendaylight.persistence.util.common.type.SerializableValueType;
+import org.opendaylight.persistence.util.common.type.TimePeriod;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Codecs for value types.
+ * 
+ */
+public final class ValueCodecs {
+
+    /**
+     * String codec: Length-prefixed UTF-8.
+     */
+    public static final Codec<String> STRING = new Codec<String>() {
+        @Override
+        public void encode(String value, BinaryWriter writer) {
+            writer.writeString(value);
+        }
+
+        @Override
+        public String decode(BinaryReader reader) {
+            return reader.readString();
+        }
+    };
+
+    /**
+     * Boolean codec: One byte.
+     */
+    public static final Codec<Boolean> BOOLEAN = new Codec<Boolean>() {
+        @Override
+        public void encode(Boolean value, BinaryWriter writer) {
+            writer.writeBoolean(value.booleanValue());
+        }
+
+        @Override
+        public Boolean decode(BinaryReader reader) {
+            return Boolean.valueOf(reader.readBoolean());
+        }
+    };
+
+    /**
+     * Byte codec: One byte.
+     */
+    public static final Codec<Byte> BYTE = new Codec<Byte>() {
+        @Override
+        public void encode(Byte value, BinaryWriter writer) {
+            writer.writeByte(value.byteValue());
+        }
+
+        @Override
+        public Byte decode(BinaryReader reader) {
+            return Byte.valueOf(reader.readByte());
+        }
+    };
+
+    /**
+     * Short codec: Signed varint.
+     */
+    public static final Codec<Short> SHORT = new Codec<Short>() {
+        @Override
+        public void encode(Short value, BinaryWriter writer) {
+            writer.writeSignedVarInt(value.shortValue());
+        }
+
+        @Override
+        public Short decode(BinaryReader reader) {
+            return Short.valueOf((short) reader.readSignedVarInt());
+        }
+    };
+
+    /**
+     * Integer codec: Signed varint.
+     */
+    public static final Codec<Integer> INTEGER = new Codec<Integer>() {
+        @Override
+        public void encode(Integer value, BinaryWriter writer) {
+            writer.writeSignedVarInt(value.intValue());
+        }
+
+        @Override
+        public Integer decode(BinaryReader reader) {
+            return Integer.valueOf(reader.readSignedVarInt());
+        }
+    };
+
+    /**
+     * Long codec: Signed varlong.
+     */
+    public static final Codec<Long> LONG = new Codec<Long>() {
+        @Override
+        public void encode(Long value, BinaryWriter writer) {
+            writer.writeSignedVarLong(value.longValue());
+        }
+
+        @Override
+        public Long decode(BinaryReader reader) {
+            return Long.valueOf(reader.readSignedVarLong());
+        }
+    };
+
+    /**
+     * Float codec: Four bytes.
+     */
+    public static final Codec<Float> FLOAT = new Codec<Float>() {
+        @Override
+        public void encode(Float value, BinaryWriter writer) {
+            writer.writeFloat(value.floatValue());
+        }
+
+        @Override
+        public Float decode(BinaryReader reader) {
+            return Float.valueOf(reader.readFloat());
+        }
+    };
+
+    /**
+     * Double codec: Eight bytes.
+     */
+    public static final Codec<Double> DOUBLE = new Codec<Double>() {
+        @Override
+        public void encode(Double value, BinaryWriter writer) {
+            writer.writeDouble(value.doubleValue());
+        }
+
+        @Override
+        public Double decode(BinaryReader reader) {
+            return Double.valueOf(reader.readDouble());
+        }
+    };
+
+    /**
+     * Character codec: Unsigned varint.
+     */
+    public static final Codec<Character> CHARACTER = new Codec<Character>() {
+        @Override
+        public void encode(Character value, BinaryWriter writer) {
+            writer.writeVarInt(value.charValue());
+        }
+
+        @Override
+        public Character decode(BinaryReader reader) {
+            return Character.valueOf((char) reader.readVarInt());
+        }
+    };
+
+    /**
+     * Byte array codec: Length-prefixed bytes.
+     */
+    public static final Codec<byte[]> BYTE_ARRAY = new Codec<byte[]>() {
+        @Override
+        public void encode(byte[] value, BinaryWriter writer) {
+            writer.writeBytes(value);
+        }
+
+        @Override
+        public byte[] decode(BinaryReader reader) {
+            return reader.readBytes();
+        }
+    };
+
+    /**
+     * {@link java.util.Date} codec: Milliseconds since the epoch as a signed varlong. Subclasses
+     * (Like {@link java.sql.Timestamp}) would be decoded as {@link java.util.Date}, thus
+     * {@link CodecRegistry} does not use this codec for them.
+     */
+    public static final Codec<java.util.Date> JAVA_DATE = new Codec<java.util.Date>() {
+        @Override
+        public void encode(java.util.Date value, BinaryWriter writer) {
+            writer.writeSignedVarLong(value.getTime());
+        }
+
+        @Override
+        public java.util.Date decode(BinaryReader reader) {
+            return new java.util.Date(reader.readSignedVarLong());
+        }
+    };
+
+    /**
+     * {@link Date} codec: Milliseconds since the epoch as a signed varlong.
+     */
+    public static final Codec<Date> DATE = new Codec<Date>() {
+        @Override
+        public void encode(Date value, BinaryWriter writer) {
+            writer.writeSignedVarLong(value.getTime());
+        }
+
+        @Override
+        public Date decode(BinaryReader reader) {
+            return Date.valueOf(reader.readSignedVarLong());
+        }
+    };
+
+    /**
+     * {@link TimePeriod} codec: The start time followed by the duration (Which is usually much
+     * smaller than the end time).
+     */
+    public static final Codec<TimePeriod> TIME_PERIOD = new Codec<TimePeriod>() {
+        @Override
+        public void encode(TimePeriod value, BinaryWriter writer) {
+            long startTime = value.getStartTime().getTime();
+            writer.writeSignedVarLong(startTime);
+            writer.writeVarLong(value.getEndTime().getTime() - startTime);
+        }
+
+        @Override
+        public TimePeriod decode(BinaryReader reader) {
+            long startTime = reader.readSignedVarLong();
+            long endTime = startTime + reader.readVarLong();
+            return new TimePeriod(new java.util.Date(startTime), new java.util.Date(endTime));
+        }
+    };
+
+    private ValueCodecs() {
+
+    }
+
+    /**
+     * Creates a codec for an enumeration: The ordinal as a varint. Note that reordering the
+     * constants of the enumeration changes the encoding.
+     * 
+     * @param enumType enumeration type
+     * @return a codec for {@code enumType}
+     */
+    public static <E extends Enum<E>> Codec<E> enumeration(Class<E> enumType) {
+        Preconditions.checkNotNull(enumType, "enumType");
+        final E[] constants = enumType.getEnumConstants();
+        return new Codec<E>() {
+            @Override
+            public void encode(E value, BinaryWriter writer) {
+                writer.writeVarInt(value.ordinal());
+            }
+
+            @Override
+            public E decode(BinaryReader reader) {
+                return readEnum(reader, constants);
+            }
+        };
+    }
+
+    /**
+     * Creates a codec for a {@link SerializableValueType}: The wrapped value encoded by
+     * {@code valueCodec}.
+     * 
+     * @param valueCodec codec for the wrapped value
+     * @param factory converter to create the value type from the decoded value (Usually the
+     *            type's {@code valueOf} method)
+     * @return a codec for the value type
+     */
+    public static <E extends Serializable, T extends SerializableValueType<E>> Codec<T> valueType(
+            final Codec<E> valueCodec, final Converter<E, T> factory) {
+        Preconditions.checkNotNull(valueCodec, "valueCodec");
+        Preconditions.checkNotNull(factory, "factory");
+        return new Codec<T>() {
+            @Override
+            public void encode(T value, BinaryWriter writer) {
+                valueCodec.encode(value.getValue(), writer);
+            }
+
+            @Override
+            public T decode(BinaryReader reader) {
+                return factory.convert(valueCodec.decode(reader));
+            }
+        };
+    }
+
+    /**
+     * Creates a codec for {@link Id}: The tagged id value.
+     * 
+     * @param registry registry to encode the id values
+     * @return a codec for {@link Id}
+     */
+    public static Codec<Id<?, ?>> id(final CodecRegistry registry) {
+        Preconditions.checkNotNull(registry, "registry");
+        return new Codec<Id<?, ?>>() {
+            @Override
+            public void encode(Id<?, ?> value, BinaryWriter writer) {
+                registry.encodeObject(value.getValue(), writer);
+            }
+
+            @Override
+            public Id<?, ?> decode(BinaryReader reader) {
+                Serializable value = (Serializable) registry.decodeObject(reader);
+                if (value == null) {
+                    throw new IllegalArgumentException("Malformed encoding: null id value");
+                }
+                return Id.valueOf(value);
+            }
+        };
+    }
+
+    /**
+     * Creates a codec for {@link Interval}: The interval type followed by the tagged endpoints.
+     * 
+     * @param registry registry to encode the endpoints
+     * @return a codec for {@link Interval}
+     */
+    public static Codec<Interval<?>> interval(final CodecRegistry registry) {
+        Preconditions.checkNotNull(registry, "registry");
+        final Interval.Type[] types = Interval.Type.values();
+        return new Codec<Interval<?>>() {
+            @Override
+            public void encode(Interval<?> value, BinaryWriter writer) {
+                writer.writeVarInt(value.getType().ordinal());
+                registry.encodeObject(value.getLeftEndpoint(), writer);
+                registry.encodeObject(value.getRightEndpoint(), writer);
+            }
+
+            @Override
+            public Interval<?> decode(BinaryReader reader) {
+                Interval.Type type = readEnum(reader, types);
+                Object left = registry.decodeObject(reader);
+                Object right = registry.decodeObject(reader);
+                try {
+                    return createInterval(type, left, right);
+                } catch (ClassCastException | NullPointerException e) {
+                    throw new IllegalArgumentException("Malformed encoding: invalid interval endpoints", e);
+                }
+            }
+        };
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Interval<?> createInterval(Interval.Type type, Object left, Object right) {
+        Comparable leftEndpoint = (Comparable) left;
+        Comparable rightEndpoint = (Comparable) right;
+        switch (type) {
+            case OPEN:
+                return Interval.open(leftEndpoint, rightEndpoint);
+            case CLOSED:
+                return Interval.closed(leftEndpoint, rightEndpoint);
+            case LEFT_CLOSED_RIGHT_OPEN:
+                return Interval.leftClosedRightOpen(leftEndpoint, rightEndpoint);
+            case LEFT_OPEN_RIGHT_CLOSED:
+                return Interval.leftOpenRightClosed(leftEndpoint, rightEndpoint);
+            case LEFT_OPEN_RIGHT_UNBOUNDED:
+                return Interval.leftOpenRightUnbounded(leftEndpoint);
+            case LEFT_CLOSED_RIGHT_UNBOUNDED:
+                return Interval.leftClosedRightUnbounded(leftEndpoint);
+            case LEFT_UNBOUNDED_RIGHT_OPEN:
+                return Interval.leftUnboundedRightOpen(rightEndpoint);
+            case LEFT_UNBOUNDED_RIGHT_CLOSED:
+                return Interval.leftUnboundedRightClosed(rightEndpoint);
+            default:
+                return Interval.unbounded();
+        }
+    }
+
+    static <E extends Enum<E>> E readEnum(BinaryReader reader, E[] constants) throws IllegalArgumentException {
+        int ordinal = reader.readVarInt();
+        if (ordinal < 0 || ordinal >= constants.length) {
+            throw new IllegalArgumentException("Malformed encoding: invalid ordinal " + ordinal);
+        }
+        return constants[ordinal];
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static void register(CodecRegistry registry, int tag, Class type, Codec codec) {
+        registry.register(tag, type, codec);
+    }
+
+    static void registerDefaults(CodecRegistry registry) {
+        register(registry, 1, String.class, STRING);
+        register(registry, 2, Boolean.class, BOOLEAN);
+        register(registry, 3, Byte.class, BYTE);
+        register(registry, 4, Short.class, SHORT);
+        register(registry, 5, Integer.class, INTEGER);
+        register(registry, 6, Long.class, LONG);
+        register(registry, 7, Float.class, FLOAT);
+        register(registry, 8, Double.class, DOUBLE);
+        register(registry, 9, Character.class, CHARACTER);
+        register(registry, 10, byte[].class, BYTE_ARRAY);
+        register(registry, 11, java.util.Date.class, JAVA_DATE);
+        register(registry, 12, Date.class, DATE);
+        register(registry, 13, TimePeriod.class, TIME_PERIOD);
+        register(registry, 14, Id.class, id(registry));
+        register(registry, 15, Interval.class, interval(registry));
+    }
+}
@@ -66,6 +66,56 @@ public final class CollectionConverter {
         return target;
     }
 
+    /**
+     * Converts a collection into a presized array.
+     *
+     * @param source
+     *            collection to convert
+     * @param converter
+     *            converter
+     * @param target
+     *            array to write the converted elements to; it must be at least as big as {@code source}
+     * @return {@code target}
+     */
+    public static <S, T> T[] convert(@Nonnull Collection<S> source, @Nonnull Converter<S, T> converter,
+            @Nonnull T[] target) {
+        Preconditions.checkNotNull(source, "source");
+        Preconditions.checkNotNull(converter, "converter");
+        Preconditions.checkNotNull(target, "target");
+        Preconditions.checkArgument(target.length >= source.size(), "target is smaller than source");
+
+        int i = 0;
+        for (S s : source) {
+            target[i++] = converter.convert(s);
+        }
+
+        return target;
+    }
+
+    /**
+     * Creates a view of a list where the elements are converted on first access. This is convenient when just part of
+     * the converted list is consumed.
+     * <p>
+     * {@code source} must not be modified while the view is in use. The view is unmodifiable, and it is serialized as
+     * a list of converted elements.
+     *
+     * @param source
+     *            list to convert
+     * @param converter
+     *            converter
+     * @return a lazily converted view of {@code source}
+     */
+    public static <S, T> List<T> lazyConvert(@Nonnull List<S> source, @Nonnull Converter<S, T> converter) {
+        Preconditions.checkNotNull(source, "source");
+        Preconditions.checkNotNull(converter, "converter");
+        return new LazyConvertingList<S, T>(source, converter);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <S> S[] toArray(Collection<S> source) {
+        return (S[]) source.toArray();
+    }
+
     /**
      * Gets an {@link List} factory where the underlying implementation is an {@link ArrayList}.
      * 
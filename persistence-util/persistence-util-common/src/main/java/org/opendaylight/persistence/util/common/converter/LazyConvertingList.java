@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.converter;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.opendaylight.persistence.util.common.Converter;
+
+/**
+ * Unmodifiable list view that converts the elements of a source list on first access. Converted elements are
+ * memoized, so each element is converted at most once (unless two threads race to convert the same element, in which
+ * case both get an equivalent result).
+ * <p>
+ * The source list must not be modified while this view is in use.
+ *
+ * @param <S>
+ *            type of the source elements
+ * @param <T>
+ *            type of the converted elements
+ */
+final class LazyConvertingList<S, T> extends AbstractList<T> implements RandomAccess, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Marks converted elements whose value is null
+    private static final Object NULL = new Object();
+
+    private final transient List<S> source;
+    private final transient Converter<S, T> converter;
+    private final transient AtomicReferenceArray<Object> converted;
+
+    LazyConvertingList(List<S> source, Converter<S, T> converter) {
+        this.source = source;
+        this.converter = converter;
+        this.converted = new AtomicReferenceArray<Object>(source.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get(int index) {
+        Object element = this.converted.get(index);
+        if (element == null) {
+            T target = this.converter.convert(this.source.get(index));
+            element = target != null ? target : NULL;
+            if (!this.converted.compareAndSet(index, null, element)) {
+                element = this.converted.get(index);
+            }
+        }
+        return element == NULL ? null : (T) element;
+    }
+
+    @Override
+    public int size() {
+        return this.converted.length();
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        // Converts all elements; the converter is not required to be serializable and may return null
+        return Collections.unmodifiableList(new ArrayList<T>(this));
+    }
+}
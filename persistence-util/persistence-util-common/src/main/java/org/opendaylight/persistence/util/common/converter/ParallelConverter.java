@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.converter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.util.common.Converter;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Converts lists using a fork-join pool.
+ * <p>
+ * Lists smaller than the configured threshold are converted in the calling thread, since splitting the work is not
+ * worth it. Converted elements are written into a presized array, so no intermediate collections are created.
+ * <p>
+ * The converter passed to {@link #convert(List, Converter)} must be thread safe: it is called concurrently from the
+ * pool threads. For example, a converter that reads lazily loaded state from JPA entities is not safe since the entity
+ * manager is not thread safe.
+ * <p>
+ * This class is thread safe.
+ */
+public final class ParallelConverter {
+
+    /**
+     * Default minimum number of elements to convert in parallel.
+     */
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    private final int threshold;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a parallel converter that uses a pool shared by all the parallel converters created with this
+     * constructor; the pool's parallelism is the number of available processors.
+     *
+     * @param threshold
+     *            minimum number of elements to convert in parallel
+     */
+    public ParallelConverter(int threshold) {
+        this(threshold, DefaultPoolHolder.POOL);
+    }
+
+    /**
+     * Creates a parallel converter.
+     *
+     * @param threshold
+     *            minimum number of elements to convert in parallel
+     * @param pool
+     *            pool to run the conversion on
+     */
+    public ParallelConverter(int threshold, @Nonnull ForkJoinPool pool) {
+        Preconditions.checkArgument(threshold > 0, "threshold must be greater than zero");
+        this.threshold = threshold;
+        this.pool = Preconditions.checkNotNull(pool, "pool");
+    }
+
+    /**
+     * Gets the minimum number of elements to convert in parallel.
+     *
+     * @return the threshold
+     */
+    public int getThreshold() {
+        return this.threshold;
+    }
+
+    /**
+     * Converts a list.
+     *
+     * @param source
+     *            list to convert
+     * @param converter
+     *            thread safe converter
+     * @return an unmodifiable list with the converted elements in the same order than {@code source}
+     */
+    public <S, T> List<T> convert(@Nonnull List<S> source, @Nonnull Converter<S, T> converter) {
+        Preconditions.checkNotNull(source, "source");
+        Preconditions.checkNotNull(converter, "converter");
+
+        int size = source.size();
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+
+        @SuppressWarnings("unchecked")
+        T[] target = (T[]) new Object[size];
+
+        if (size < this.threshold) {
+            CollectionConverter.convert(source, converter, target);
+        } else {
+            // Random access is needed to split the work without copying the source
+            List<S> randomAccessSource = source instanceof RandomAccess ? source : Arrays.asList(
+                    CollectionConverter.<S> toArray(source));
+            int leafSize = Math.max(1, size / (this.pool.getParallelism() * 4));
+            this.pool.invoke(new ConversionTask<S, T>(randomAccessSource, converter, target, 0, size, leafSize));
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(target));
+    }
+
+    private static class ConversionTask<S, T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<S> source;
+        private final Converter<S, T> converter;
+        private final T[] target;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+
+        ConversionTask(List<S> source, Converter<S, T> converter, T[] target, int from, int to, int leafSize) {
+            this.source = source;
+            this.converter = converter;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= this.leafSize) {
+                for (int i = this.from; i < this.to; i++) {
+                    this.target[i] = this.converter.convert(this.source.get(i));
+                }
+                return;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new ConversionTask<S, T>(this.source, this.converter, this.target, this.from, middle,
+                    this.leafSize), new ConversionTask<S, T>(this.source, this.converter, this.target, middle,
+                    this.to, this.leafSize));
+        }
+    }
+
+    private static class DefaultPoolHolder {
+        private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+}
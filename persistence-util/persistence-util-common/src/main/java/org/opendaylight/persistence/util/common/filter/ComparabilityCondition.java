@@ -12,6 +12,7 @@ import java.io.Serializable;
 import org.opendaylight.persistence.util.common.Converter;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 
 /**
@@ -129,6 +130,30 @@ public final class ComparabilityCondition<D extends Comparable<D>> implements
                 this.mode);
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.value, this.mode);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null) {
+            return false;
+        }
+
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+
+        ComparabilityCondition<?> other = (ComparabilityCondition<?>) obj;
+
+        return this.mode == other.mode && Objects.equal(this.value, other.value);
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this).add("value", this.value)
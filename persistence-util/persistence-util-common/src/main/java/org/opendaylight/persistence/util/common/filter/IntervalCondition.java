@@ -13,6 +13,7 @@ import org.opendaylight.persistence.util.common.Converter;
 import org.opendaylight.persistence.util.common.type.Interval;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 
 /**
@@ -93,6 +94,30 @@ public final class IntervalCondition<D extends Comparable<D>> implements
                 this.mode);
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.value, this.mode);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null) {
+            return false;
+        }
+
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+
+        IntervalCondition<?> other = (IntervalCondition<?>) obj;
+
+        return this.mode == other.mode && Objects.equal(this.value, other.value);
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this).add("value", this.value)
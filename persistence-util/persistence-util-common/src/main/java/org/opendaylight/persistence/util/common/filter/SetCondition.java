@@ -14,6 +14,7 @@ import java.util.Set;
 import org.opendaylight.persistence.util.common.Converter;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSet;
 
@@ -119,6 +120,30 @@ public final class SetCondition<D> implements Serializable {
         return new SetCondition<T>(convertedValues, this.mode);
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.values, this.mode);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null) {
+            return false;
+        }
+
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+
+        SetCondition<?> other = (SetCondition<?>) obj;
+
+        return this.mode == other.mode && Objects.equal(this.values, other.values);
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this).add("values", this.values)
@@ -12,6 +12,7 @@ import java.io.Serializable;
 import javax.annotation.Nonnull;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 
 /**
@@ -106,6 +107,30 @@ public final class StringCondition implements Serializable {
         return this.mode;
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.value, this.mode);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null) {
+            return false;
+        }
+
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+
+        StringCondition other = (StringCondition) obj;
+
+        return this.mode == other.mode && Objects.equal(this.value, other.value);
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this).add("value", this.value)
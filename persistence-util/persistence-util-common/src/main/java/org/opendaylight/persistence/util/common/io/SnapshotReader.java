@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Reads a snapshot written by {@link SnapshotWriter}.
+ * <p>
+ * The file is memory-mapped: Blocks are read straight from the page cache without a system call
+ * per read. Files larger than a single mapping (2 GB) are mapped in windows, each window starting at
+ * a block boundary. The checksum of every block is verified before its records are returned, so a
+ * corrupted or truncated snapshot is detected before any of the block's records are consumed.
+ * <p>
+ * Usage example:
+ *
+ * <pre>
+ * try (SnapshotReader reader = SnapshotReader.open(path)) {
+ *     List&lt;byte[]&gt; block;
+ *     while ((block = reader.readBlock()) != null) {
+ *         // Load block
+ *     }
+ * }
+ * </pre>
+ * <p>
+ * This class is not thread safe.
+ */
+public final class SnapshotReader implements Closeable {
+
+    private static final long MAX_WINDOW_SIZE = Integer.MAX_VALUE;
+
+    private final FileChannel channel;
+    private final long size;
+    private MappedByteBuffer window;
+    private long windowPosition;
+    private long position;
+    private boolean finished;
+
+    private SnapshotReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+    }
+
+    /**
+     * Opens a snapshot file.
+     *
+     * @param path the path to the file
+     * @return a snapshot reader
+     * @throws IOException if an I/O error occurs opening the file or if the file is not a snapshot
+     */
+    public static SnapshotReader open(Path path) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("path cannot be null");
+        }
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            SnapshotReader reader = new SnapshotReader(channel);
+            reader.readFileHeader();
+            return reader;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the next block.
+     *
+     * @return the records of the next block, {@code null} if the end of the snapshot has been
+     *         reached
+     * @throws IOException if an I/O error occurs or if the block is corrupted
+     */
+    public List<byte[]> readBlock() throws IOException {
+        if (this.finished) {
+            return null;
+        }
+
+        ByteBuffer buffer = map(SnapshotWriter.BLOCK_HEADER_SIZE);
+        int recordCount = buffer.getInt();
+        int payloadLength = buffer.getInt();
+        long expectedChecksum = buffer.getLong();
+
+        if (recordCount == 0 && payloadLength == 0) {
+            this.finished = true;
+            return null;
+        }
+
+        // The checksum does not cover the header: Bound the record count before allocating for it
+        if (recordCount < 0 || payloadLength < 0 || payloadLength > SnapshotWriter.MAX_BLOCK_SIZE
+                || recordCount > payloadLength / SnapshotWriter.RECORD_HEADER_SIZE) {
+            throw corrupted("invalid block header");
+        }
+
+        this.position += SnapshotWriter.BLOCK_HEADER_SIZE;
+        long blockPosition = this.position;
+
+        byte[] payload = new byte[payloadLength];
+        map(payloadLength).get(payload);
+        this.position += payloadLength;
+
+        CRC32 checksum = new CRC32();
+        checksum.update(payload, 0, payload.length);
+        if (checksum.getValue() != expectedChecksum) {
+            throw corrupted("checksum mismatch in block at position " + blockPosition);
+        }
+
+        ByteBuffer records = ByteBuffer.wrap(payload);
+        List<byte[]> block = new ArrayList<byte[]>(recordCount);
+        for (int i = 0; i < recordCount; i++) {
+            if (records.remaining() < SnapshotWriter.RECORD_HEADER_SIZE) {
+                throw corrupted("record count mismatch in block at position " + blockPosition);
+            }
+            int recordLength = records.getInt();
+            if (recordLength < 0 || recordLength > records.remaining()) {
+                throw corrupted("invalid record length in block at position " + blockPosition);
+            }
+            byte[] record = new byte[recordLength];
+            records.get(record);
+            block.add(record);
+        }
+
+        if (records.hasRemaining()) {
+            throw corrupted("record count mismatch in block at position " + blockPosition);
+        }
+
+        return block;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // A mapped buffer is released when it is garbage collected
+        this.window = null;
+        this.channel.close();
+    }
+
+    private void readFileHeader() throws IOException {
+        ByteBuffer buffer = map(SnapshotWriter.FILE_HEADER_SIZE);
+        if (buffer.getInt() != SnapshotWriter.MAGIC) {
+            throw new IOException("Not a snapshot file");
+        }
+
+        int version = buffer.getInt();
+        if (version != SnapshotWriter.VERSION) {
+            throw new IOException("Unsupported snapshot version: " + version);
+        }
+        this.position += SnapshotWriter.FILE_HEADER_SIZE;
+    }
+
+    /**
+     * Gets a view of the mapped file positioned at the current position and containing
+     * {@code length} bytes. The file is remapped if the current window does not contain them.
+     */
+    private ByteBuffer map(int length) throws IOException {
+        if (this.position + length > this.size) {
+            throw corrupted("unexpected end of file");
+        }
+
+        if (this.window == null || this.position + length > this.windowPosition + this.window.capacity()) {
+            this.windowPosition = this.position;
+            this.window = this.channel.map(MapMode.READ_ONLY, this.windowPosition,
+                    Math.min(this.size - this.windowPosition, MAX_WINDOW_SIZE));
+        }
+
+        ByteBuffer view = this.window.duplicate();
+        view.position((int) (this.position - this.windowPosition));
+        view.limit(view.position() + length);
+        return view;
+    }
+
+    private static IOException corrupted(String reason) {
+        return new IOException("Corrupted snapshot: " + reason);
+    }
+}
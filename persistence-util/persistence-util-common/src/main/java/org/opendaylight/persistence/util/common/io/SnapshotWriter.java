@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Writes a snapshot: A compact binary file of length-prefixed records grouped in checksummed blocks.
+ * <p>
+ * File layout (Big-endian):
+ *
+ * <pre>
+ * snapshot := MAGIC VERSION block* end
+ * block    := record-count payload-length crc32(payload) payload
+ * payload  := (record-length record-bytes)*
+ * end      := 0 0 0
+ * </pre>
+ *
+ * Records are accumulated in memory until a block is full and then the block is written through a
+ * {@link FileChannel}, thus a block is the unit of integrity (See {@link SnapshotReader}). A record
+ * larger than the block size is written in a block of its own.
+ * <p>
+ * Usage example:
+ *
+ * <pre>
+ * try (SnapshotWriter writer = SnapshotWriter.open(path)) {
+ *     for (...) {
+ *         writer.write(record);
+ *     }
+ * }
+ * </pre>
+ * <p>
+ * This class is not thread safe.
+ */
+public final class SnapshotWriter implements Closeable {
+
+    /**
+     * Default block size in bytes.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    static final int MAGIC = 0x4F444C53; // ODLS
+    static final int VERSION = 1;
+    static final int FILE_HEADER_SIZE = 8;
+    static final int BLOCK_HEADER_SIZE = 16;
+    static final int RECORD_HEADER_SIZE = 4;
+    static final int MAX_BLOCK_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final ByteBuffer header;
+    private ByteBuffer payload;
+    private int recordCount;
+    private long totalRecordCount;
+    private boolean closed;
+
+    private SnapshotWriter(FileChannel channel, int blockSize) {
+        this.channel = channel;
+        this.header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+        this.payload = ByteBuffer.allocate(blockSize);
+    }
+
+    /**
+     * Creates a snapshot file using {@link #DEFAULT_BLOCK_SIZE}. If the file already exists it is
+     * truncated.
+     *
+     * @param path the path to the file
+     * @return a snapshot writer
+     * @throws IOException if an I/O error occurs creating the file
+     */
+    public static SnapshotWriter open(Path path) throws IOException {
+        return open(path, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a snapshot file. If the file already exists it is truncated.
+     *
+     * @param path the path to the file
+     * @param blockSize block size in bytes: Maximum size of the records (including their length
+     *            prefix) grouped in a block
+     * @return a snapshot writer
+     * @throws IOException if an I/O error occurs creating the file
+     */
+    public static SnapshotWriter open(Path path, int blockSize) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("path cannot be null");
+        }
+
+        if (blockSize <= RECORD_HEADER_SIZE || blockSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("blockSize must be in the range (" + RECORD_HEADER_SIZE + ", "
+                    + MAX_BLOCK_SIZE + "]");
+        }
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        SnapshotWriter writer = new SnapshotWriter(channel, blockSize);
+        try {
+            ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            fileHeader.putInt(MAGIC).putInt(VERSION).flip();
+            writer.writeFully(fileHeader);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return writer;
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @param record record to write
+     * @throws IOException if an I/O error occurs writing a block
+     */
+    public void write(byte[] record) throws IOException {
+        if (record == null) {
+            throw new NullPointerException("record cannot be null");
+        }
+
+        if (this.closed) {
+            throw new IllegalStateException("Snapshot writer is closed");
+        }
+
+        int recordSize = RECORD_HEADER_SIZE + record.length;
+        if (recordSize < 0 || recordSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("record is too large: " + record.length + " bytes");
+        }
+
+        if (recordSize > this.payload.remaining()) {
+            flush();
+            if (recordSize > this.payload.capacity()) {
+                // Oversized record: Written in a block of its own
+                ByteBuffer oversized = ByteBuffer.allocate(recordSize);
+                oversized.putInt(record.length).put(record);
+                writeBlock(oversized, 1);
+                return;
+            }
+        }
+
+        this.payload.putInt(record.length).put(record);
+        this.recordCount++;
+    }
+
+    /**
+     * Gets the number of records written so far.
+     *
+     * @return the number of records
+     */
+    public long getRecordCount() {
+        return this.totalRecordCount + this.recordCount;
+    }
+
+    /**
+     * Writes the pending records as a block.
+     *
+     * @throws IOException if an I/O error occurs writing the block
+     */
+    public void flush() throws IOException {
+        if (this.recordCount > 0) {
+            int count = this.recordCount;
+            this.recordCount = 0;
+            writeBlock(this.payload, count);
+            this.payload.clear();
+        }
+    }
+
+    /**
+     * Writes the pending records and the end of the snapshot, and closes the file.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+        try {
+            flush();
+            this.header.clear();
+            this.header.putInt(0).putInt(0).putLong(0).flip();
+            writeFully(this.header);
+            this.channel.force(false);
+        } finally {
+            this.payload = null;
+            this.channel.close();
+        }
+    }
+
+    private void writeBlock(ByteBuffer block, int count) throws IOException {
+        CRC32 checksum = new CRC32();
+        checksum.update(block.array(), block.arrayOffset(), block.position());
+
+        block.flip();
+        this.header.clear();
+        this.header.putInt(count).putInt(block.limit()).putLong(checksum.getValue()).flip();
+
+        writeFully(this.header);
+        writeFully(block);
+        this.totalRecordCount += count;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer);
+        }
+    }
+}
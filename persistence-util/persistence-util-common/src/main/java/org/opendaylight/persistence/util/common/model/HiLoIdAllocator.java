@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+
+/**
+ * In-memory HiLo allocator of {@code Long} ids.
+ * <p>
+ * Ids are handed out from blocks of {@code blockSize} consecutive values: The id is
+ * {@code high * blockSize + low}, where {@code high} is obtained from a source once per block
+ * (For example a database sequence or a counter seeded at startup) and {@code low} is incremented in
+ * memory. Thus, allocating an id does not require accessing the source except when a block is
+ * exhausted. As long as the source never returns the same high value twice, allocated ids are
+ * unique even across allocators sharing the source.
+ * <p>
+ * Ids not handed out before the allocator is discarded are lost, so ids have gaps.
+ * <p>
+ * This class is thread safe. Allocating from a non-exhausted block is lock-free.
+ */
+public final class HiLoIdAllocator {
+
+    private final int blockSize;
+    private final Supplier<Long> highValueSource;
+    private volatile Block block;
+
+    /**
+     * Creates an allocator.
+     *
+     * @param blockSize
+     *            number of ids allocated per high value
+     * @param highValueSource
+     *            source of high values; it must never return the same value twice and must not
+     *            return negative values
+     */
+    public HiLoIdAllocator(int blockSize, Supplier<Long> highValueSource) {
+        Preconditions.checkArgument(blockSize > 0, "blockSize must be greater than zero");
+        this.blockSize = blockSize;
+        this.highValueSource = Preconditions.checkNotNull(highValueSource, "highValueSource");
+    }
+
+    /**
+     * Creates an allocator for a single writer, whose high values come from an in-memory counter.
+     *
+     * @param blockSize
+     *            number of ids allocated per high value
+     * @param greatestExistingId
+     *            greatest id already in use (For example the greatest id in the data store);
+     *            allocated ids are greater than this value
+     * @return a new allocator
+     */
+    public static HiLoIdAllocator startingAfter(int blockSize, long greatestExistingId) {
+        Preconditions.checkArgument(blockSize > 0, "blockSize must be greater than zero");
+        Preconditions.checkArgument(greatestExistingId >= 0, "greatestExistingId must not be negative");
+        final AtomicLong high = new AtomicLong(greatestExistingId / blockSize + 1);
+        return new HiLoIdAllocator(blockSize, new Supplier<Long>() {
+            @Override
+            public Long get() {
+                return Long.valueOf(high.getAndIncrement());
+            }
+        });
+    }
+
+    /**
+     * Gets the number of ids allocated per high value.
+     *
+     * @return the block size
+     */
+    public int getBlockSize() {
+        return this.blockSize;
+    }
+
+    /**
+     * Allocates an id.
+     *
+     * @return a new id
+     */
+    public Long next() {
+        while (true) {
+            Block current = this.block;
+            if (current != null) {
+                long low = current.low.getAndIncrement();
+                if (low < this.blockSize) {
+                    return Long.valueOf(current.base + low);
+                }
+            }
+            nextBlock(current);
+        }
+    }
+
+    private synchronized void nextBlock(Block exhausted) {
+        if (this.block != exhausted) {
+            // Another thread already moved to a new block
+            return;
+        }
+
+        Long high = this.highValueSource.get();
+        Preconditions.checkState(high != null && high.longValue() >= 0, "Invalid high value: %s", high);
+        Preconditions.checkState(high.longValue() <= (Long.MAX_VALUE - this.blockSize) / this.blockSize,
+                "Ids exhausted");
+        this.block = new Block(high.longValue() * this.blockSize);
+    }
+
+    private static class Block {
+        private final long base;
+        private final AtomicLong low;
+
+        Block(long base) {
+            this.base = base;
+            this.low = new AtomicLong();
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.type;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.opendaylight.persistence.util.common.Container;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Counting Bloom filter: Probabilistic set membership supporting removal.
+ * <p>
+ * {@link #contains(Object)} never returns {@code false} for an element that has been added (and
+ * not removed), but it may return {@code true} for an element that has not been added (False
+ * positive). The false positive probability grows as elements are added; see
+ * {@link #getExpectedFalsePositiveProbability()}.
+ * <p>
+ * Each position of the filter is a 4-bit counter instead of a bit, so elements can be removed.
+ * Counters saturate at 15 and saturated counters are never decremented, which keeps the filter free
+ * of false negatives at the cost of a few stale positions. Only elements that have been added must
+ * be removed, otherwise false negatives would be introduced.
+ * <p>
+ * Elements are hashed through their {@link Object#hashCode()}, thus elements with the same hash
+ * code are indistinguishable for the filter.
+ * <p>
+ * This class is thread safe and lock-free.
+ */
+public final class CountingBloomFilter implements Container<Object> {
+
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final int COUNTER_BITS = 4;
+    private static final long COUNTER_MASK = 0xF;
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final AtomicLongArray counters;
+    private final int counterCount;
+    private final int hashFunctionCount;
+    private final AtomicLong elementCount;
+
+    /**
+     * Creates a counting Bloom filter.
+     *
+     * @param expectedElements
+     *            expected number of elements
+     * @param falsePositiveProbability
+     *            desired false positive probability when the filter holds {@code expectedElements}
+     */
+    public CountingBloomFilter(int expectedElements, double falsePositiveProbability) {
+        Preconditions.checkArgument(expectedElements > 0, "expectedElements must be greater than zero");
+        Preconditions.checkArgument(falsePositiveProbability > 0 && falsePositiveProbability < 1,
+                "falsePositiveProbability must be in the range (0, 1)");
+
+        double ln2 = Math.log(2);
+        long optimalCounters = (long) Math.ceil(-expectedElements * Math.log(falsePositiveProbability) / (ln2 * ln2));
+        Preconditions.checkArgument(optimalCounters < Integer.MAX_VALUE - COUNTERS_PER_WORD,
+                "Filter too large: Reduce expectedElements or increase falsePositiveProbability");
+
+        this.counterCount = (int) Math.max(COUNTERS_PER_WORD, optimalCounters);
+        this.hashFunctionCount = (int) Math.max(1, Math.round((double) this.counterCount / expectedElements * ln2));
+        this.counters = new AtomicLongArray((this.counterCount + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+        this.elementCount = new AtomicLong();
+    }
+
+    /**
+     * Adds an element.
+     *
+     * @param element
+     *            element to add
+     */
+    public void add(Object element) {
+        Preconditions.checkNotNull(element, "element");
+        long hash = hash(element);
+        for (int i = 0; i < this.hashFunctionCount; i++) {
+            increment(index(hash, i));
+        }
+        this.elementCount.incrementAndGet();
+    }
+
+    /**
+     * Removes an element. The element must have been added, otherwise false negatives could be
+     * introduced.
+     *
+     * @param element
+     *            element to remove
+     */
+    public void remove(Object element) {
+        Preconditions.checkNotNull(element, "element");
+        long hash = hash(element);
+        for (int i = 0; i < this.hashFunctionCount; i++) {
+            decrement(index(hash, i));
+        }
+        this.elementCount.decrementAndGet();
+    }
+
+    /**
+     * Verifies whether the element might have been added.
+     *
+     * @param element
+     *            element to verify
+     * @return {@code false} if {@code element} has definitely not been added, {@code true} if it
+     *         might have been added
+     */
+    @Override
+    public boolean contains(Object element) {
+        if (element == null) {
+            return false;
+        }
+
+        long hash = hash(element);
+        for (int i = 0; i < this.hashFunctionCount; i++) {
+            if (get(index(hash, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes all elements.
+     */
+    public void clear() {
+        for (int i = 0; i < this.counters.length(); i++) {
+            this.counters.set(i, 0);
+        }
+        this.elementCount.set(0);
+    }
+
+    /**
+     * Gets the number of elements added and not removed.
+     *
+     * @return the number of elements
+     */
+    public long getElementCount() {
+        return this.elementCount.get();
+    }
+
+    /**
+     * Gets the number of hash functions.
+     *
+     * @return the number of counters set per element
+     */
+    public int getHashFunctionCount() {
+        return this.hashFunctionCount;
+    }
+
+    /**
+     * Gets the number of counters.
+     *
+     * @return the number of counters
+     */
+    public int getCounterCount() {
+        return this.counterCount;
+    }
+
+    /**
+     * Gets the memory used by the counters.
+     *
+     * @return the memory used by the counters in bytes
+     */
+    public long getMemoryUsage() {
+        return this.counters.length() * 8L;
+    }
+
+    /**
+     * Gets the probability of {@link #contains(Object)} returning {@code true} for an element that
+     * has not been added, given the current number of elements.
+     *
+     * @return the expected false positive probability
+     */
+    public double getExpectedFalsePositiveProbability() {
+        long elements = Math.max(0, this.elementCount.get());
+        return Math.pow(1 - Math.exp(-(double) this.hashFunctionCount * elements / this.counterCount),
+                this.hashFunctionCount);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("elementCount", getElementCount())
+                .add("counterCount", this.counterCount).add("hashFunctionCount", this.hashFunctionCount)
+                .add("expectedFalsePositiveProbability", getExpectedFalsePositiveProbability()).toString();
+    }
+
+    private static long hash(Object element) {
+        return HASH_FUNCTION.hashInt(element.hashCode()).asLong();
+    }
+
+    /**
+     * Calculates the counter index for the i-th hash function using double hashing.
+     */
+    private int index(long hash, int i) {
+        int combined = (int) hash + i * (int) (hash >>> 32);
+        if (combined < 0) {
+            combined = ~combined;
+        }
+        return combined % this.counterCount;
+    }
+
+    private int get(int index) {
+        long word = this.counters.get(index / COUNTERS_PER_WORD);
+        return (int) ((word >>> shift(index)) & COUNTER_MASK);
+    }
+
+    private void increment(int index) {
+        int wordIndex = index / COUNTERS_PER_WORD;
+        int shift = shift(index);
+        while (true) {
+            long word = this.counters.get(wordIndex);
+            long counter = (word >>> shift) & COUNTER_MASK;
+            if (counter == COUNTER_MASK) {
+                // Saturated
+                return;
+            }
+            if (this.counters.compareAndSet(wordIndex, word, word + (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private void decrement(int index) {
+        int wordIndex = index / COUNTERS_PER_WORD;
+        int shift = shift(index);
+        while (true) {
+            long word = this.counters.get(wordIndex);
+            long counter = (word >>> shift) & COUNTER_MASK;
+            if (counter == 0 || counter == COUNTER_MASK) {
+                // Saturated counters are not decremented: The number of elements mapped to them is unknown
+                return;
+            }
+            if (this.counters.compareAndSet(wordIndex, word, word - (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private static int shift(int index) {
+        return (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+    }
+}
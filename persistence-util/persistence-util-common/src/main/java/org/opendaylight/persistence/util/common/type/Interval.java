@@ -311,6 +311,223 @@ public final class Interval<C extends Comparable<C>> implements Container<C>,
                 && this.leftEndpoint.compareTo(this.rightEndpoint) == 0;
     }
 
+    /**
+     * Verifies whether the left endpoint is included in this interval.
+     *
+     * @return {@code true} if the left endpoint is bounded and closed, {@code false} otherwise
+     */
+    public boolean isLeftClosed() {
+        return this.type == Type.CLOSED
+                || this.type == Type.LEFT_CLOSED_RIGHT_OPEN
+                || this.type == Type.LEFT_CLOSED_RIGHT_UNBOUNDED;
+    }
+
+    /**
+     * Verifies whether the right endpoint is included in this interval.
+     *
+     * @return {@code true} if the right endpoint is bounded and closed, {@code false} otherwise
+     */
+    public boolean isRightClosed() {
+        return this.type == Type.CLOSED
+                || this.type == Type.LEFT_OPEN_RIGHT_CLOSED
+                || this.type == Type.LEFT_UNBOUNDED_RIGHT_CLOSED;
+    }
+
+    /**
+     * Verifies whether this interval and the given one have at least one element in common.
+     * <p>
+     * Note that the degenerate interval <code>[a, a] = {a}</code> is not empty for the interval algebra.
+     *
+     * @param other
+     *            interval to verify
+     * @return {@code true} if both intervals overlap, {@code false} otherwise
+     */
+    public boolean overlaps(Interval<C> other) {
+        return intersection(other) != null;
+    }
+
+    /**
+     * Verifies whether every element of the given interval is contained in this interval.
+     *
+     * @param other
+     *            interval to verify
+     * @return {@code true} if {@code other} is enclosed by this interval, {@code false} otherwise
+     */
+    public boolean encloses(Interval<C> other) {
+        Preconditions.checkNotNull(other, "other");
+        return !other.hasElements()
+                || (compareLeft(this, other) <= 0 && compareRight(this, other) >= 0);
+    }
+
+    /**
+     * Verifies whether the union of this interval and the given one is an interval: they either overlap or are
+     * adjacent, like <code>[a, b)</code> and <code>[b, c]</code>.
+     *
+     * @param other
+     *            interval to verify
+     * @return {@code true} if both intervals are connected, {@code false} otherwise
+     */
+    public boolean isConnected(Interval<C> other) {
+        Preconditions.checkNotNull(other, "other");
+        return !isGap(this, other) && !isGap(other, this);
+    }
+
+    /**
+     * Calculates the intersection of this interval and the given one.
+     *
+     * @param other
+     *            interval to intersect with
+     * @return the largest interval enclosed by both intervals, {@code null} if they do not overlap
+     */
+    public Interval<C> intersection(Interval<C> other) {
+        Preconditions.checkNotNull(other, "other");
+
+        Interval<C> left = compareLeft(this, other) >= 0 ? this : other;
+        Interval<C> right = compareRight(this, other) <= 0 ? this : other;
+
+        if (isEmpty(left.getLeftEndpoint(), left.isLeftClosed(), right.getRightEndpoint(), right.isRightClosed())) {
+            return null;
+        }
+
+        return create(left.getLeftEndpoint(), left.isLeftClosed(), right.getRightEndpoint(), right.isRightClosed());
+    }
+
+    /**
+     * Calculates the span of this interval and the given one.
+     *
+     * @param other
+     *            interval to span
+     * @return the smallest interval that encloses both intervals
+     */
+    public Interval<C> span(Interval<C> other) {
+        Preconditions.checkNotNull(other, "other");
+
+        Interval<C> left = compareLeft(this, other) <= 0 ? this : other;
+        Interval<C> right = compareRight(this, other) >= 0 ? this : other;
+
+        return create(left.getLeftEndpoint(), left.isLeftClosed(), right.getRightEndpoint(), right.isRightClosed());
+    }
+
+    /**
+     * Calculates the union of this interval and the given one.
+     *
+     * @param other
+     *            interval to join
+     * @return the union of both intervals; a single interval if they are connected
+     */
+    public IntervalSet<C> union(Interval<C> other) {
+        Preconditions.checkNotNull(other, "other");
+        return IntervalSet.of(this, other);
+    }
+
+    /**
+     * Calculates the elements of this interval that are not contained in the given one.
+     *
+     * @param other
+     *            interval to subtract
+     * @return the difference; up to two intervals if {@code other} is enclosed by this interval
+     */
+    public IntervalSet<C> difference(Interval<C> other) {
+        Preconditions.checkNotNull(other, "other");
+        return IntervalSet.of(this).difference(IntervalSet.of(other));
+    }
+
+    /**
+     * Verifies whether this interval contains at least one element. Unlike {@link #isEmpty()}, the degenerate interval
+     * <code>[a, a]</code> has one element.
+     *
+     * @return {@code true} if this interval has elements, {@code false} otherwise
+     */
+    boolean hasElements() {
+        return !isEmpty(getLeftEndpoint(), isLeftClosed(), getRightEndpoint(), isRightClosed());
+    }
+
+    /**
+     * Creates an interval given its endpoints.
+     *
+     * @param leftEndpoint
+     *            left endpoint, {@code null} if unbounded
+     * @param leftClosed
+     *            whether the left endpoint is included, ignored if unbounded
+     * @param rightEndpoint
+     *            right endpoint, {@code null} if unbounded
+     * @param rightClosed
+     *            whether the right endpoint is included, ignored if unbounded
+     * @return an interval
+     */
+    static <T extends Comparable<T>> Interval<T> create(T leftEndpoint, boolean leftClosed, T rightEndpoint,
+            boolean rightClosed) {
+        if (leftEndpoint == null) {
+            if (rightEndpoint == null) {
+                return unbounded();
+            }
+            return rightClosed ? leftUnboundedRightClosed(rightEndpoint) : leftUnboundedRightOpen(rightEndpoint);
+        }
+
+        if (rightEndpoint == null) {
+            return leftClosed ? leftClosedRightUnbounded(leftEndpoint) : leftOpenRightUnbounded(leftEndpoint);
+        }
+
+        if (leftClosed) {
+            return rightClosed ? closed(leftEndpoint, rightEndpoint) : leftClosedRightOpen(leftEndpoint,
+                    rightEndpoint);
+        }
+        return rightClosed ? leftOpenRightClosed(leftEndpoint, rightEndpoint) : open(leftEndpoint, rightEndpoint);
+    }
+
+    /**
+     * Compares the left bounds of two intervals: an unbounded left endpoint is the smallest, and a closed endpoint is
+     * smaller than an open one with the same value.
+     */
+    static <T extends Comparable<T>> int compareLeft(Interval<T> a, Interval<T> b) {
+        T aLeft = a.getLeftEndpoint();
+        T bLeft = b.getLeftEndpoint();
+        if (aLeft == null || bLeft == null) {
+            return aLeft == null ? (bLeft == null ? 0 : -1) : 1;
+        }
+
+        int comparison = aLeft.compareTo(bLeft);
+        if (comparison != 0) {
+            return comparison;
+        }
+        return a.isLeftClosed() == b.isLeftClosed() ? 0 : (a.isLeftClosed() ? -1 : 1);
+    }
+
+    /**
+     * Compares the right bounds of two intervals: an unbounded right endpoint is the greatest, and a closed endpoint
+     * is greater than an open one with the same value.
+     */
+    static <T extends Comparable<T>> int compareRight(Interval<T> a, Interval<T> b) {
+        T aRight = a.getRightEndpoint();
+        T bRight = b.getRightEndpoint();
+        if (aRight == null || bRight == null) {
+            return aRight == null ? (bRight == null ? 0 : 1) : -1;
+        }
+
+        int comparison = aRight.compareTo(bRight);
+        if (comparison != 0) {
+            return comparison;
+        }
+        return a.isRightClosed() == b.isRightClosed() ? 0 : (a.isRightClosed() ? 1 : -1);
+    }
+
+    /**
+     * Verifies whether there is a gap between the right bound of {@code left} and the left bound of {@code right}.
+     */
+    private static <T extends Comparable<T>> boolean isGap(Interval<T> left, Interval<T> right) {
+        boolean touching = left.isRightClosed() || right.isLeftClosed();
+        return isEmpty(right.getLeftEndpoint(), touching, left.getRightEndpoint(), touching);
+    }
+
+    private static <T extends Comparable<T>> boolean isEmpty(T leftEndpoint, boolean leftClosed, T rightEndpoint,
+            boolean rightClosed) {
+        if (leftEndpoint == null || rightEndpoint == null) {
+            return false;
+        }
+        int comparison = leftEndpoint.compareTo(rightEndpoint);
+        return comparison > 0 || (comparison == 0 && !(leftClosed && rightClosed));
+    }
+
     private boolean isLeftUnbounded() {
         return this.type == Type.UNBOUNDED
                 || this.type == Type.LEFT_UNBOUNDED_RIGHT_OPEN
@@ -0,0 +1,332 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.type;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.opendaylight.persistence.util.common.Container;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Immutable set of values represented as a union of intervals.
+ * <p>
+ * Intervals are kept normalized: they are sorted, have elements and are pairwise disconnected (See
+ * {@link Interval#isConnected(Interval)}), thus two sets containing the same values are equal regardless the intervals
+ * they were created from. For example <code>{[1, 3), [2, 5], (5, 7)}</code> is normalized to <code>{[1, 7)}</code>.
+ *
+ * @param <C>
+ *            Type of the interval domain
+ */
+public final class IntervalSet<C extends Comparable<C>> implements Container<C>, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @SuppressWarnings("rawtypes")
+    private static final IntervalSet EMPTY = new IntervalSet(ImmutableList.of());
+
+    private final ImmutableList<Interval<C>> intervals;
+
+    private IntervalSet(ImmutableList<Interval<C>> intervals) {
+        this.intervals = intervals;
+    }
+
+    /**
+     * Gets an empty interval set.
+     *
+     * @return an empty interval set
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<T>> IntervalSet<T> empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates an interval set.
+     *
+     * @param intervals
+     *            intervals
+     * @return the union of {@code intervals}
+     */
+    @SafeVarargs
+    public static <T extends Comparable<T>> IntervalSet<T> of(Interval<T>... intervals) {
+        Preconditions.checkNotNull(intervals, "intervals");
+        return of(Arrays.asList(intervals));
+    }
+
+    /**
+     * Creates an interval set.
+     *
+     * @param intervals
+     *            intervals
+     * @return the union of {@code intervals}
+     */
+    public static <T extends Comparable<T>> IntervalSet<T> of(Collection<Interval<T>> intervals) {
+        Preconditions.checkNotNull(intervals, "intervals");
+
+        List<Interval<T>> sorted = new ArrayList<Interval<T>>(intervals.size());
+        for (Interval<T> interval : intervals) {
+            Preconditions.checkNotNull(interval, "intervals cannot contain null elements");
+            if (interval.hasElements()) {
+                sorted.add(interval);
+            }
+        }
+
+        if (sorted.isEmpty()) {
+            return empty();
+        }
+
+        Collections.sort(sorted, new LeftBoundComparator<T>());
+
+        ImmutableList.Builder<Interval<T>> normalized = ImmutableList.builder();
+        Interval<T> current = sorted.get(0);
+        for (int i = 1; i < sorted.size(); i++) {
+            Interval<T> next = sorted.get(i);
+            if (current.isConnected(next)) {
+                current = current.span(next);
+            } else {
+                normalized.add(current);
+                current = next;
+            }
+        }
+        normalized.add(current);
+
+        return new IntervalSet<T>(normalized.build());
+    }
+
+    /**
+     * Gets the normalized intervals.
+     *
+     * @return the intervals sorted by their left endpoint
+     */
+    public List<Interval<C>> getIntervals() {
+        return this.intervals;
+    }
+
+    /**
+     * Verifies whether this set is empty.
+     *
+     * @return {@code true} if this set has no elements, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return this.intervals.isEmpty();
+    }
+
+    @Override
+    public boolean contains(C element) {
+        if (element == null) {
+            return false;
+        }
+
+        // Binary search for the last interval whose left endpoint is not greater than element
+        int low = 0;
+        int high = this.intervals.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            Interval<C> interval = this.intervals.get(middle);
+            if (interval.contains(element)) {
+                return true;
+            }
+
+            C leftEndpoint = interval.getLeftEndpoint();
+            if (leftEndpoint == null || leftEndpoint.compareTo(element) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Verifies whether this set and the given interval have at least one element in common.
+     *
+     * @param interval
+     *            interval to verify
+     * @return {@code true} if {@code interval} overlaps this set, {@code false} otherwise
+     */
+    public boolean overlaps(Interval<C> interval) {
+        Preconditions.checkNotNull(interval, "interval");
+        for (Interval<C> element : this.intervals) {
+            if (element.overlaps(interval)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Verifies whether every element of the given interval is contained in this set.
+     *
+     * @param interval
+     *            interval to verify
+     * @return {@code true} if {@code interval} is enclosed by this set, {@code false} otherwise
+     */
+    public boolean encloses(Interval<C> interval) {
+        Preconditions.checkNotNull(interval, "interval");
+        if (!interval.hasElements()) {
+            return true;
+        }
+
+        // Intervals are disconnected, so interval must be enclosed by just one of them
+        for (Interval<C> element : this.intervals) {
+            if (element.encloses(interval)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calculates the span of this set.
+     *
+     * @return the smallest interval that encloses this set, {@code null} if this set is empty
+     */
+    public Interval<C> span() {
+        if (this.intervals.isEmpty()) {
+            return null;
+        }
+        return this.intervals.get(0).span(this.intervals.get(this.intervals.size() - 1));
+    }
+
+    /**
+     * Calculates the union of this set and the given one.
+     *
+     * @param other
+     *            set to join
+     * @return the union
+     */
+    public IntervalSet<C> union(IntervalSet<C> other) {
+        Preconditions.checkNotNull(other, "other");
+
+        List<Interval<C>> all = new ArrayList<Interval<C>>(this.intervals.size() + other.intervals.size());
+        all.addAll(this.intervals);
+        all.addAll(other.intervals);
+        return of(all);
+    }
+
+    /**
+     * Calculates the intersection of this set and the given one.
+     *
+     * @param other
+     *            set to intersect with
+     * @return the intersection
+     */
+    public IntervalSet<C> intersection(IntervalSet<C> other) {
+        Preconditions.checkNotNull(other, "other");
+
+        List<Interval<C>> result = new ArrayList<Interval<C>>();
+        int i = 0;
+        int j = 0;
+        while (i < this.intervals.size() && j < other.intervals.size()) {
+            Interval<C> a = this.intervals.get(i);
+            Interval<C> b = other.intervals.get(j);
+
+            Interval<C> intersection = a.intersection(b);
+            if (intersection != null) {
+                result.add(intersection);
+            }
+
+            // The interval ending first cannot overlap any other interval from the other set
+            if (Interval.compareRight(a, b) <= 0) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+
+        return of(result);
+    }
+
+    /**
+     * Calculates the complement of this set.
+     *
+     * @return a set containing the elements not contained in this set
+     */
+    public IntervalSet<C> complement() {
+        if (this.intervals.isEmpty()) {
+            return of(Interval.<C> unbounded());
+        }
+
+        List<Interval<C>> gaps = new ArrayList<Interval<C>>(this.intervals.size() + 1);
+
+        Interval<C> first = this.intervals.get(0);
+        if (first.getLeftEndpoint() != null) {
+            gaps.add(Interval.create(null, false, first.getLeftEndpoint(), !first.isLeftClosed()));
+        }
+
+        for (int i = 1; i < this.intervals.size(); i++) {
+            Interval<C> previous = this.intervals.get(i - 1);
+            Interval<C> next = this.intervals.get(i);
+            gaps.add(Interval.create(previous.getRightEndpoint(), !previous.isRightClosed(), next.getLeftEndpoint(),
+                    !next.isLeftClosed()));
+        }
+
+        Interval<C> last = this.intervals.get(this.intervals.size() - 1);
+        if (last.getRightEndpoint() != null) {
+            gaps.add(Interval.create(last.getRightEndpoint(), !last.isRightClosed(), null, false));
+        }
+
+        return of(gaps);
+    }
+
+    /**
+     * Calculates the elements of this set that are not contained in the given one.
+     *
+     * @param other
+     *            set to subtract
+     * @return the difference
+     */
+    public IntervalSet<C> difference(IntervalSet<C> other) {
+        Preconditions.checkNotNull(other, "other");
+        if (this.intervals.isEmpty() || other.intervals.isEmpty()) {
+            return this;
+        }
+        return intersection(other.complement());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof IntervalSet<?>)) {
+            return false;
+        }
+
+        IntervalSet<?> other = (IntervalSet<?>) obj;
+
+        return this.intervals.equals(other.intervals);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.intervals.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("intervals", this.intervals).toString();
+    }
+
+    private static class LeftBoundComparator<T extends Comparable<T>> implements Comparator<Interval<T>> {
+
+        @Override
+        public int compare(Interval<T> a, Interval<T> b) {
+            return Interval.compareLeft(a, b);
+        }
+    }
+}
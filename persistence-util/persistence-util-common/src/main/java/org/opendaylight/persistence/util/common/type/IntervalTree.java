@@ -0,0 +1,259 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.type;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.opendaylight.persistence.util.common.Subroutine;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Immutable interval tree: Answers which stored intervals overlap a given interval.
+ * <p>
+ * Intervals are kept in an array sorted by left bound. The intervals overlapping a queried interval are those starting
+ * within it, a range of the array found by binary search, plus those starting before it and reaching its left bound,
+ * which a {@link PrioritySearchTree} ranked by right bound reports. A query reporting {@code k} intervals runs in
+ * {@code O(log n + k)} worst case and does not allocate memory when results are reported through a
+ * {@link Subroutine}. The tree takes {@code O(n)} space and is built in {@code O(n log n)}.
+ * <p>
+ * For {@link java.util.Date} endpoints use {@link LongIntervalTree} which is backed by primitive values.
+ * <p>
+ * This class is thread safe.
+ *
+ * @param <C>
+ *            Type of the interval domain
+ * @param <V>
+ *            type of the values associated to the intervals
+ */
+public final class IntervalTree<C extends Comparable<C>, V> {
+
+    private final Interval<C>[] intervals;
+    private final Object[] values;
+    // Positions (In the intervals array) ordered by right bound: The rank of a position is its index in this array
+    private final int[] rightOrder;
+    private final PrioritySearchTree startingBefore;
+
+    @SuppressWarnings("unchecked")
+    private IntervalTree(List<Entry<C, V>> entries) {
+        int size = entries.size();
+        this.intervals = new Interval[size];
+        this.values = new Object[size];
+
+        List<Integer> byRight = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++) {
+            Entry<C, V> entry = entries.get(i);
+            this.intervals[i] = entry.interval;
+            this.values[i] = entry.value;
+            byRight.add(Integer.valueOf(i));
+        }
+
+        Collections.sort(byRight, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Interval.compareRight(IntervalTree.this.intervals[a.intValue()],
+                        IntervalTree.this.intervals[b.intValue()]);
+            }
+        });
+
+        this.rightOrder = new int[size];
+        int[] ranks = new int[size];
+        for (int rank = 0; rank < size; rank++) {
+            this.rightOrder[rank] = byRight.get(rank).intValue();
+            ranks[this.rightOrder[rank]] = rank;
+        }
+        this.startingBefore = new PrioritySearchTree(ranks);
+    }
+
+    /**
+     * Creates a builder.
+     *
+     * @return a new builder
+     */
+    public static <C extends Comparable<C>, V> Builder<C, V> builder() {
+        return new Builder<C, V>();
+    }
+
+    /**
+     * Gets the number of intervals in the tree.
+     *
+     * @return the number of intervals
+     */
+    public int size() {
+        return this.intervals.length;
+    }
+
+    /**
+     * Reports the values associated to the intervals overlapping the given one.
+     *
+     * @param interval
+     *            interval to query
+     * @param consumer
+     *            subroutine the values are passed to
+     */
+    @SuppressWarnings("unchecked")
+    public void query(Interval<C> interval, Subroutine<V> consumer) {
+        Preconditions.checkNotNull(interval, "interval");
+        Preconditions.checkNotNull(consumer, "consumer");
+        if (!interval.hasElements()) {
+            return;
+        }
+
+        int start = getFirstNotStartingBefore(interval);
+        this.startingBefore.report(start, getFirstReaching(interval), this.values, consumer);
+
+        for (int i = start; i < this.intervals.length && !endsBefore(interval, this.intervals[i]); i++) {
+            if (this.intervals[i].overlaps(interval)) {
+                consumer.execute((V) this.values[i]);
+            }
+        }
+    }
+
+    /**
+     * Gets the values associated to the intervals overlapping the given one.
+     *
+     * @param interval
+     *            interval to query
+     * @return the values associated to the intervals overlapping {@code interval}: First the ones starting before
+     *         {@code interval} in no particular order, then the rest in the order of their left bound
+     */
+    public List<V> query(Interval<C> interval) {
+        final List<V> result = new ArrayList<V>();
+        query(interval, new Subroutine<V>() {
+            @Override
+            public void execute(V input) {
+                result.add(input);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Gets the values associated to the intervals containing the given element.
+     *
+     * @param element
+     *            element to query
+     * @return the values associated to the intervals containing {@code element}
+     */
+    public List<V> stab(C element) {
+        Preconditions.checkNotNull(element, "element");
+        return query(Interval.closed(element, element));
+    }
+
+    /**
+     * Gets the position of the first interval whose left bound is not before the given interval's left bound.
+     */
+    private int getFirstNotStartingBefore(Interval<C> interval) {
+        int low = 0;
+        int high = this.intervals.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Interval.compareLeft(this.intervals[middle], interval) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Gets the rank of the first interval (In right bound order) that does not end before the given interval starts.
+     */
+    private int getFirstReaching(Interval<C> interval) {
+        int low = 0;
+        int high = this.rightOrder.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (endsBefore(this.intervals[this.rightOrder[middle]], interval)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Verifies whether {@code a} ends before {@code b} starts.
+     */
+    private static <C extends Comparable<C>> boolean endsBefore(Interval<C> a, Interval<C> b) {
+        C right = a.getRightEndpoint();
+        C left = b.getLeftEndpoint();
+        if (right == null || left == null) {
+            return false;
+        }
+
+        int comparison = right.compareTo(left);
+        return comparison < 0 || (comparison == 0 && !(a.isRightClosed() && b.isLeftClosed()));
+    }
+
+    /**
+     * Interval tree builder.
+     * <p>
+     * This class is not thread safe.
+     *
+     * @param <C>
+     *            Type of the interval domain
+     * @param <V>
+     *            type of the values associated to the intervals
+     */
+    public static final class Builder<C extends Comparable<C>, V> {
+        private final List<Entry<C, V>> entries = new ArrayList<Entry<C, V>>();
+
+        private Builder() {
+
+        }
+
+        /**
+         * Adds an interval.
+         *
+         * @param interval
+         *            interval
+         * @param value
+         *            value associated to the interval
+         * @return this builder
+         */
+        public Builder<C, V> add(Interval<C> interval, V value) {
+            Preconditions.checkNotNull(interval, "interval");
+            if (interval.hasElements()) {
+                this.entries.add(new Entry<C, V>(interval, value));
+            }
+            return this;
+        }
+
+        /**
+         * Builds the tree.
+         *
+         * @return a new interval tree containing the added intervals
+         */
+        public IntervalTree<C, V> build() {
+            List<Entry<C, V>> sorted = new ArrayList<Entry<C, V>>(this.entries);
+            Collections.sort(sorted, new Comparator<Entry<C, V>>() {
+                @Override
+                public int compare(Entry<C, V> a, Entry<C, V> b) {
+                    return Interval.compareLeft(a.interval, b.interval);
+                }
+            });
+            return new IntervalTree<C, V>(sorted);
+        }
+    }
+
+    private static class Entry<C extends Comparable<C>, V> {
+        private final Interval<C> interval;
+        private final V value;
+
+        Entry(Interval<C> interval, V value) {
+            this.interval = interval;
+            this.value = value;
+        }
+    }
+}
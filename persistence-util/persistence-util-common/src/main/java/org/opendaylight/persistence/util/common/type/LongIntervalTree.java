@@ -0,0 +1,355 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.type;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.opendaylight.persistence.util.common.Subroutine;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Immutable interval tree backed by primitive {@code long} endpoints: Answers which stored intervals overlap
+ * a given interval.
+ * <p>
+ * This tree is meant for time intervals ({@link TimePeriod} and {@link Interval} of {@link Date}) which are stored as
+ * closed intervals of milliseconds: Open endpoints are adjusted by one millisecond and unbounded endpoints are mapped
+ * to {@link Long#MIN_VALUE} and {@link Long#MAX_VALUE}. Endpoints are kept in primitive arrays, avoiding one object per
+ * endpoint and comparisons through {@link Comparable}.
+ * <p>
+ * See {@link IntervalTree} for details about the structure.
+ * <p>
+ * This class is thread safe.
+ *
+ * @param <V>
+ *            type of the values associated to the intervals
+ */
+public final class LongIntervalTree<V> {
+
+    private final long[] lows;
+    private final long[] highs;
+    private final Object[] values;
+    // Positions ordered by high endpoint: The rank of a position is its index in this array
+    private final int[] highOrder;
+    private final PrioritySearchTree startingBefore;
+
+    private LongIntervalTree(long[] lows, long[] highs, Object[] values) {
+        this.lows = lows;
+        this.highs = highs;
+        this.values = values;
+        this.highOrder = sort(highs, highs.length);
+
+        int[] ranks = new int[highs.length];
+        for (int rank = 0; rank < ranks.length; rank++) {
+            ranks[this.highOrder[rank]] = rank;
+        }
+        this.startingBefore = new PrioritySearchTree(ranks);
+    }
+
+    /**
+     * Creates a builder.
+     *
+     * @return a new builder
+     */
+    public static <V> Builder<V> builder() {
+        return new Builder<V>();
+    }
+
+    /**
+     * Gets the number of intervals in the tree.
+     *
+     * @return the number of intervals
+     */
+    public int size() {
+        return this.lows.length;
+    }
+
+    /**
+     * Reports the values associated to the intervals overlapping <code>[low, high]</code>.
+     *
+     * @param low
+     *            low endpoint (inclusive)
+     * @param high
+     *            high endpoint (inclusive)
+     * @param consumer
+     *            subroutine the values are passed to
+     */
+    @SuppressWarnings("unchecked")
+    public void query(long low, long high, Subroutine<V> consumer) {
+        Preconditions.checkNotNull(consumer, "consumer");
+        if (low > high) {
+            return;
+        }
+
+        int start = getFirstLowNotBefore(low);
+        this.startingBefore.report(start, getFirstHighNotBefore(low), this.values, consumer);
+
+        for (int i = start; i < this.lows.length && this.lows[i] <= high; i++) {
+            consumer.execute((V) this.values[i]);
+        }
+    }
+
+    /**
+     * Gets the values associated to the intervals overlapping <code>[low, high]</code>.
+     *
+     * @param low
+     *            low endpoint (inclusive)
+     * @param high
+     *            high endpoint (inclusive)
+     * @return the values associated to the intervals overlapping the given interval: First the ones starting before
+     *         {@code low} in no particular order, then the rest in the order of their low endpoint
+     */
+    public List<V> query(long low, long high) {
+        final List<V> result = new ArrayList<V>();
+        query(low, high, new Subroutine<V>() {
+            @Override
+            public void execute(V input) {
+                result.add(input);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Gets the values associated to the intervals overlapping the given time period.
+     *
+     * @param timePeriod
+     *            time period to query
+     * @return the values associated to the intervals overlapping {@code timePeriod}
+     */
+    public List<V> query(TimePeriod timePeriod) {
+        Preconditions.checkNotNull(timePeriod, "timePeriod");
+        return query(timePeriod.getStartTime().getTime(), timePeriod.getEndTime().getTime());
+    }
+
+    /**
+     * Gets the values associated to the intervals overlapping the given interval.
+     *
+     * @param interval
+     *            interval to query
+     * @return the values associated to the intervals overlapping {@code interval}
+     */
+    public List<V> query(Interval<Date> interval) {
+        Preconditions.checkNotNull(interval, "interval");
+        if (isEmpty(interval)) {
+            return Collections.emptyList();
+        }
+        return query(getLow(interval), getHigh(interval));
+    }
+
+    /**
+     * Gets the values associated to the intervals containing the given point.
+     *
+     * @param point
+     *            point to query
+     * @return the values associated to the intervals containing {@code point}
+     */
+    public List<V> stab(long point) {
+        return query(point, point);
+    }
+
+    /**
+     * Gets the position of the first interval whose low endpoint is not below {@code point}.
+     */
+    private int getFirstLowNotBefore(long point) {
+        int from = 0;
+        int to = this.lows.length;
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            if (this.lows[middle] < point) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Gets the rank of the first interval (In high endpoint order) whose high endpoint is not below {@code point}.
+     */
+    private int getFirstHighNotBefore(long point) {
+        int from = 0;
+        int to = this.highOrder.length;
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            if (this.highs[this.highOrder[middle]] < point) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Gets the indexes of the first {@code size} keys in ascending key order. A bottom-up merge sort over primitive
+     * arrays is used to avoid boxing the indexes.
+     */
+    private static int[] sort(long[] keys, int size) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+
+        int[] buffer = new int[size];
+        for (int width = 1; width < size; width *= 2) {
+            for (int from = 0; from < size; from += 2 * width) {
+                int middle = Math.min(from + width, size);
+                int to = Math.min(from + 2 * width, size);
+                int left = from;
+                int right = middle;
+                for (int i = from; i < to; i++) {
+                    if (right >= to || (left < middle && keys[order[left]] <= keys[order[right]])) {
+                        buffer[i] = order[left++];
+                    } else {
+                        buffer[i] = order[right++];
+                    }
+                }
+            }
+            int[] swap = order;
+            order = buffer;
+            buffer = swap;
+        }
+        return order;
+    }
+
+    /**
+     * Verifies whether an interval has no millisecond in it. Open endpoints at the limits of the {@code long} range
+     * cannot be adjusted without overflowing.
+     */
+    private static boolean isEmpty(Interval<Date> interval) {
+        Date left = interval.getLeftEndpoint();
+        Date right = interval.getRightEndpoint();
+        return (left != null && !interval.isLeftClosed() && left.getTime() == Long.MAX_VALUE)
+                || (right != null && !interval.isRightClosed() && right.getTime() == Long.MIN_VALUE);
+    }
+
+    private static long getLow(Interval<Date> interval) {
+        Date left = interval.getLeftEndpoint();
+        if (left == null) {
+            return Long.MIN_VALUE;
+        }
+        return interval.isLeftClosed() ? left.getTime() : left.getTime() + 1;
+    }
+
+    private static long getHigh(Interval<Date> interval) {
+        Date right = interval.getRightEndpoint();
+        if (right == null) {
+            return Long.MAX_VALUE;
+        }
+        return interval.isRightClosed() ? right.getTime() : right.getTime() - 1;
+    }
+
+    /**
+     * Interval tree builder.
+     * <p>
+     * This class is not thread safe.
+     *
+     * @param <V>
+     *            type of the values associated to the intervals
+     */
+    public static final class Builder<V> {
+        private long[] lows = new long[16];
+        private long[] highs = new long[16];
+        private Object[] values = new Object[16];
+        private int size;
+
+        private Builder() {
+
+        }
+
+        /**
+         * Adds the interval <code>[low, high]</code>.
+         *
+         * @param low
+         *            low endpoint (inclusive)
+         * @param high
+         *            high endpoint (inclusive)
+         * @param value
+         *            value associated to the interval
+         * @return this builder
+         */
+        public Builder<V> add(long low, long high, V value) {
+            if (low > high) {
+                // Empty interval
+                return this;
+            }
+
+            if (this.size == this.lows.length) {
+                int capacity = this.size * 2;
+                this.lows = Arrays.copyOf(this.lows, capacity);
+                this.highs = Arrays.copyOf(this.highs, capacity);
+                this.values = Arrays.copyOf(this.values, capacity);
+            }
+
+            this.lows[this.size] = low;
+            this.highs[this.size] = high;
+            this.values[this.size] = value;
+            this.size++;
+            return this;
+        }
+
+        /**
+         * Adds a time period.
+         *
+         * @param timePeriod
+         *            time period
+         * @param value
+         *            value associated to the time period
+         * @return this builder
+         */
+        public Builder<V> add(TimePeriod timePeriod, V value) {
+            Preconditions.checkNotNull(timePeriod, "timePeriod");
+            return add(timePeriod.getStartTime().getTime(), timePeriod.getEndTime().getTime(), value);
+        }
+
+        /**
+         * Adds an interval.
+         *
+         * @param interval
+         *            interval
+         * @param value
+         *            value associated to the interval
+         * @return this builder
+         */
+        public Builder<V> add(Interval<Date> interval, V value) {
+            Preconditions.checkNotNull(interval, "interval");
+            if (isEmpty(interval)) {
+                return this;
+            }
+            return add(getLow(interval), getHigh(interval), value);
+        }
+
+        /**
+         * Builds the tree.
+         *
+         * @return a new interval tree containing the added intervals
+         */
+        public LongIntervalTree<V> build() {
+            long[] sortedLows = new long[this.size];
+            long[] sortedHighs = new long[this.size];
+            Object[] sortedValues = new Object[this.size];
+
+            // Sort by low endpoint through an index permutation so values follow their endpoints
+            int[] order = sort(this.lows, this.size);
+            for (int i = 0; i < this.size; i++) {
+                int index = order[i];
+                sortedLows[i] = this.lows[index];
+                sortedHighs[i] = this.highs[index];
+                sortedValues[i] = this.values[index];
+            }
+
+            return new LongIntervalTree<V>(sortedLows, sortedHighs, sortedValues);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.type;
+
+/**
+ * Specifies where a database sorts null values when the sort order does not state it (For example,
+ * an SQL {@code ORDER BY} clause without {@code NULLS FIRST} or {@code NULLS LAST}).
+ */
+public enum NullOrdering {
+    /**
+     * Null is smaller than any value: Nulls come first in ascending order and last in descending
+     * order. For example, H2, MySQL and SQL Server.
+     */
+    LOW,
+    /**
+     * Null is larger than any value: Nulls come last in ascending order and first in descending
+     * order. For example, PostgreSQL and Oracle.
+     */
+    HIGH
+}
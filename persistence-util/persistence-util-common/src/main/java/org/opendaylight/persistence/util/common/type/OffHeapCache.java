@@ -0,0 +1,659 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.type;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.opendaylight.persistence.util.common.codec.BinaryReader;
+import org.opendaylight.persistence.util.common.codec.BinaryWriter;
+import org.opendaylight.persistence.util.common.codec.Codec;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Cache that keeps its entries outside the Java heap, so caching millions of objects neither grows
+ * the heap nor lengthens garbage collection pauses.
+ * <p>
+ * Keys and values are encoded with {@link Codec codecs} and stored in direct {@link ByteBuffer}
+ * slabs. Entries are indexed by a primitive open-addressing hash table (Linear probing on the
+ * 64-bit murmur3 hash of the encoded key), thus the only on-heap memory per entry is two
+ * {@code long} table slots. Values are copied out of the slab and decoded on every read, so callers
+ * always get a private copy they are free to modify.
+ * <p>
+ * The cache is split in segments, each guarded by its own lock. A segment appends entries to its
+ * current slab; replaced and removed entries just leave garbage behind. When the segment has no
+ * free slab left its oldest slab is reclaimed using the clock (Second chance) policy: Entries read
+ * since they were written are moved to the current slab and given another round, the rest are
+ * evicted. Reclaiming a whole slab at once keeps the slabs free of fragmentation. One slab per
+ * segment is held in reserve so the moved entries always fit.
+ * <p>
+ * Slabs are allocated on demand up to the capacity and are released when the cache is garbage
+ * collected. Entries larger than a slab are not cached.
+ * <p>
+ * This class is thread safe.
+ *
+ * @param <K>
+ *            type of the keys
+ * @param <V>
+ *            type of the values
+ */
+public final class OffHeapCache<K, V> implements OffHeapCacheMXBean {
+
+    /**
+     * Default number of segments.
+     */
+    public static final int DEFAULT_SEGMENT_COUNT = 16;
+
+    /**
+     * Default (Maximum) slab size in bytes.
+     */
+    public static final int DEFAULT_SLAB_SIZE = 4 * 1024 * 1024;
+
+    private static final int MIN_SLABS_PER_SEGMENT = 2;
+    private static final int DEFAULT_SLABS_PER_SEGMENT = 8;
+    private static final int MIN_SLAB_SIZE = 1024;
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+    private final Segment[] segments;
+    private final long capacity;
+
+    private final AtomicLong hitCount;
+    private final AtomicLong missCount;
+
+    /**
+     * Creates an off-heap cache with {@link #DEFAULT_SEGMENT_COUNT} segments. The slab size is
+     * {@link #DEFAULT_SLAB_SIZE} unless the capacity is too small to give every segment a few slabs
+     * of that size.
+     *
+     * @param keyCodec
+     *            key codec
+     * @param valueCodec
+     *            value codec
+     * @param capacity
+     *            maximum off-heap memory in bytes
+     */
+    public OffHeapCache(Codec<K> keyCodec, Codec<V> valueCodec, long capacity) {
+        this(keyCodec, valueCodec, capacity, DEFAULT_SEGMENT_COUNT, (int) Math.max(MIN_SLAB_SIZE,
+                Math.min(DEFAULT_SLAB_SIZE, capacity / DEFAULT_SEGMENT_COUNT / DEFAULT_SLABS_PER_SEGMENT)));
+    }
+
+    /**
+     * Creates an off-heap cache.
+     *
+     * @param keyCodec
+     *            key codec
+     * @param valueCodec
+     *            value codec
+     * @param capacity
+     *            maximum off-heap memory in bytes
+     * @param segmentCount
+     *            number of segments (Power of two): Maximum number of threads accessing the cache
+     *            concurrently
+     * @param slabSize
+     *            slab size in bytes: Unit of memory allocation and eviction; it limits the size of
+     *            the cached entries
+     */
+    public OffHeapCache(Codec<K> keyCodec, Codec<V> valueCodec, long capacity, int segmentCount, int slabSize) {
+        this.keyCodec = Preconditions.checkNotNull(keyCodec, "keyCodec");
+        this.valueCodec = Preconditions.checkNotNull(valueCodec, "valueCodec");
+        Preconditions.checkArgument(segmentCount > 0 && Integer.bitCount(segmentCount) == 1,
+                "segmentCount must be a power of two");
+        Preconditions.checkArgument(slabSize >= MIN_SLAB_SIZE, "slabSize must be at least " + MIN_SLAB_SIZE);
+
+        long slabsPerSegment = capacity / segmentCount / slabSize;
+        Preconditions.checkArgument(slabsPerSegment >= MIN_SLABS_PER_SEGMENT, "capacity must hold at least "
+                + MIN_SLABS_PER_SEGMENT + " slabs per segment");
+        Preconditions.checkArgument(slabsPerSegment <= Integer.MAX_VALUE, "slabSize too small for the capacity");
+
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            this.segments[i] = new Segment(slabSize, (int) slabsPerSegment);
+        }
+        this.capacity = slabsPerSegment * slabSize * segmentCount;
+        this.hitCount = new AtomicLong();
+        this.missCount = new AtomicLong();
+    }
+
+    /**
+     * Gets the value associated to a key.
+     *
+     * @param key
+     *            key
+     * @return a copy of the cached value, {@code null} if {@code key} is not cached
+     */
+    public V get(K key) {
+        Preconditions.checkNotNull(key, "key");
+        byte[] encodedKey = encode(this.keyCodec, key);
+        long hash = hash(encodedKey);
+        byte[] encodedValue = getSegment(hash).get(hash, encodedKey);
+        if (encodedValue == null) {
+            this.missCount.incrementAndGet();
+            return null;
+        }
+
+        this.hitCount.incrementAndGet();
+        return this.valueCodec.decode(new BinaryReader(encodedValue));
+    }
+
+    /**
+     * Verifies whether a key is cached. This method does not count as a lookup in the metrics.
+     *
+     * @param key
+     *            key
+     * @return {@code true} if {@code key} is cached, {@code false} otherwise
+     */
+    public boolean contains(K key) {
+        Preconditions.checkNotNull(key, "key");
+        byte[] encodedKey = encode(this.keyCodec, key);
+        long hash = hash(encodedKey);
+        return getSegment(hash).contains(hash, encodedKey);
+    }
+
+    /**
+     * Associates a value to a key, replacing any previous value.
+     *
+     * @param key
+     *            key
+     * @param value
+     *            value
+     */
+    public void put(K key, V value) {
+        Preconditions.checkNotNull(key, "key");
+        Preconditions.checkNotNull(value, "value");
+        byte[] encodedKey = encode(this.keyCodec, key);
+        long hash = hash(encodedKey);
+        getSegment(hash).put(hash, encodedKey, encode(this.valueCodec, value), Segment.ANY_STAMP);
+    }
+
+    /**
+     * Gets the modification stamp of the segment a key belongs to. The stamp changes every time an
+     * entry of the segment is put, removed or cleared; see {@link #putIfUnmodified(Object, Object, long)}.
+     *
+     * @param key
+     *            key
+     * @return the current modification stamp
+     */
+    public long getModificationStamp(K key) {
+        Preconditions.checkNotNull(key, "key");
+        return getSegment(hash(encode(this.keyCodec, key))).getStamp();
+    }
+
+    /**
+     * Associates a value to a key if the key is not cached and no entry of its segment has been
+     * modified since {@code stamp} was taken. This is how a value loaded from the source of truth is
+     * cached: If the entry is put or removed while the value is being loaded, the loaded value might
+     * be stale and it is discarded.
+     *
+     * @param key
+     *            key
+     * @param value
+     *            value
+     * @param stamp
+     *            modification stamp taken through {@link #getModificationStamp(Object)} before
+     *            loading {@code value}
+     * @return {@code true} if the value was cached, {@code false} otherwise
+     */
+    public boolean putIfUnmodified(K key, V value, long stamp) {
+        Preconditions.checkNotNull(key, "key");
+        Preconditions.checkNotNull(value, "value");
+        Preconditions.checkArgument(stamp >= 0, "invalid stamp");
+        byte[] encodedKey = encode(this.keyCodec, key);
+        long hash = hash(encodedKey);
+        return getSegment(hash).put(hash, encodedKey, encode(this.valueCodec, value), stamp);
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key
+     *            key
+     */
+    public void remove(K key) {
+        Preconditions.checkNotNull(key, "key");
+        byte[] encodedKey = encode(this.keyCodec, key);
+        long hash = hash(encodedKey);
+        getSegment(hash).remove(hash, encodedKey);
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : this.segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public long getCapacity() {
+        return this.capacity;
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        long allocatedBytes = 0;
+        for (Segment segment : this.segments) {
+            allocatedBytes += segment.getAllocatedBytes();
+        }
+        return allocatedBytes;
+    }
+
+    @Override
+    public long getResidentBytes() {
+        long residentBytes = 0;
+        for (Segment segment : this.segments) {
+            residentBytes += segment.getResidentBytes();
+        }
+        return residentBytes;
+    }
+
+    @Override
+    public long getEntryCount() {
+        long entryCount = 0;
+        for (Segment segment : this.segments) {
+            entryCount += segment.getEntryCount();
+        }
+        return entryCount;
+    }
+
+    @Override
+    public long getHitCount() {
+        return this.hitCount.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return this.missCount.get();
+    }
+
+    @Override
+    public double getHitRate() {
+        long hits = this.hitCount.get();
+        long lookups = hits + this.missCount.get();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        long evictionCount = 0;
+        for (Segment segment : this.segments) {
+            evictionCount += segment.getEvictionCount();
+        }
+        return evictionCount;
+    }
+
+    @Override
+    public long getRejectedCount() {
+        long rejectedCount = 0;
+        for (Segment segment : this.segments) {
+            rejectedCount += segment.getRejectedCount();
+        }
+        return rejectedCount;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("capacity", getCapacity())
+                .add("allocatedBytes", getAllocatedBytes()).add("residentBytes", getResidentBytes())
+                .add("entryCount", getEntryCount()).add("hitRate", getHitRate())
+                .add("evictionCount", getEvictionCount()).add("rejectedCount", getRejectedCount()).toString();
+    }
+
+    private Segment getSegment(long hash) {
+        return this.segments[(int) (hash >>> 32) & (this.segments.length - 1)];
+    }
+
+    private static <T> byte[] encode(Codec<T> codec, T value) {
+        BinaryWriter writer = new BinaryWriter();
+        codec.encode(value, writer);
+        return writer.toByteArray();
+    }
+
+    private static long hash(byte[] encodedKey) {
+        return HASH_FUNCTION.hashBytes(encodedKey).asLong();
+    }
+
+    /**
+     * Cache segment: Slabs of entries and their index.
+     * <p>
+     * Entry layout: hash (8 bytes), flags (1 byte), key length (4 bytes), value length (4 bytes),
+     * key, value. An entry is referenced by {@code (slab + 1) << 32 | offset}, thus {@code 0} marks
+     * an empty table slot.
+     */
+    private static final class Segment {
+
+        static final long ANY_STAMP = -1;
+
+        private static final int HEADER_SIZE = 17;
+        private static final int FLAGS_OFFSET = 8;
+        private static final int KEY_LENGTH_OFFSET = 9;
+        private static final int VALUE_LENGTH_OFFSET = 13;
+        private static final byte REFERENCED = 1;
+
+        private static final int INITIAL_TABLE_SIZE = 64;
+        private static final double MAX_LOAD_FACTOR = 0.7;
+
+        private final int slabSize;
+        private final ByteBuffer[] slabs;
+        private final int[] slabUsage;
+        private int allocatedSlabCount;
+
+        // Slabs in use from oldest to newest (Circular), the newest being the one appended to
+        private final int[] slabQueue;
+        private int slabQueueStart;
+        private int slabQueueSize;
+        private final int[] freeSlabs;
+        private int freeSlabCount;
+        private int currentSlab;
+
+        private long[] hashes;
+        private long[] references;
+        private int mask;
+
+        private int entryCount;
+        private long residentBytes;
+        private long evictionCount;
+        private long rejectedCount;
+        private volatile long stamp;
+
+        Segment(int slabSize, int slabCount) {
+            this.slabSize = slabSize;
+            this.slabs = new ByteBuffer[slabCount];
+            this.slabUsage = new int[slabCount];
+            this.slabQueue = new int[slabCount];
+            this.freeSlabs = new int[slabCount];
+            this.currentSlab = -1;
+            this.hashes = new long[INITIAL_TABLE_SIZE];
+            this.references = new long[INITIAL_TABLE_SIZE];
+            this.mask = INITIAL_TABLE_SIZE - 1;
+        }
+
+        synchronized byte[] get(long hash, byte[] key) {
+            int slot = find(hash, key);
+            if (slot < 0) {
+                return null;
+            }
+
+            long reference = this.references[slot];
+            ByteBuffer slab = this.slabs[slabOf(reference)];
+            int offset = offsetOf(reference);
+            slab.put(offset + FLAGS_OFFSET, REFERENCED);
+
+            int keyLength = slab.getInt(offset + KEY_LENGTH_OFFSET);
+            byte[] value = new byte[slab.getInt(offset + VALUE_LENGTH_OFFSET)];
+            ByteBuffer view = slab.duplicate();
+            view.position(offset + HEADER_SIZE + keyLength);
+            view.get(value);
+            return value;
+        }
+
+        synchronized boolean contains(long hash, byte[] key) {
+            return find(hash, key) >= 0;
+        }
+
+        synchronized boolean put(long hash, byte[] key, byte[] value, long expectedStamp) {
+            if (expectedStamp != ANY_STAMP && (expectedStamp != this.stamp || find(hash, key) >= 0)) {
+                return false;
+            }
+
+            if (expectedStamp == ANY_STAMP) {
+                this.stamp++;
+                // The previous value is removed first since reclaiming slabs could move it
+                int slot = find(hash, key);
+                if (slot >= 0) {
+                    removeEntry(slot);
+                }
+            }
+
+            long size = (long) HEADER_SIZE + key.length + value.length;
+            if (size > this.slabSize) {
+                this.rejectedCount++;
+                return false;
+            }
+
+            long reference = allocate((int) size);
+            ByteBuffer view = this.slabs[slabOf(reference)].duplicate();
+            view.position(offsetOf(reference));
+            view.putLong(hash).put((byte) 0).putInt(key.length).putInt(value.length).put(key).put(value);
+
+            if (this.entryCount + 1 > MAX_LOAD_FACTOR * this.references.length) {
+                resizeTable();
+            }
+            int slot = this.mask & (int) hash;
+            while (this.references[slot] != 0) {
+                slot = (slot + 1) & this.mask;
+            }
+            this.hashes[slot] = hash;
+            this.references[slot] = reference;
+            this.entryCount++;
+            this.residentBytes += size;
+            return true;
+        }
+
+        synchronized void remove(long hash, byte[] key) {
+            this.stamp++;
+            int slot = find(hash, key);
+            if (slot >= 0) {
+                removeEntry(slot);
+            }
+        }
+
+        synchronized void clear() {
+            this.stamp++;
+            Arrays.fill(this.hashes, 0);
+            Arrays.fill(this.references, 0);
+            Arrays.fill(this.slabUsage, 0);
+            this.entryCount = 0;
+            this.residentBytes = 0;
+            this.slabQueueStart = 0;
+            this.slabQueueSize = 0;
+            this.currentSlab = -1;
+            this.freeSlabCount = 0;
+            for (int slab = 0; slab < this.allocatedSlabCount; slab++) {
+                this.freeSlabs[this.freeSlabCount++] = slab;
+            }
+        }
+
+        long getStamp() {
+            return this.stamp;
+        }
+
+        synchronized long getAllocatedBytes() {
+            return (long) this.allocatedSlabCount * this.slabSize;
+        }
+
+        synchronized long getResidentBytes() {
+            return this.residentBytes;
+        }
+
+        synchronized int getEntryCount() {
+            return this.entryCount;
+        }
+
+        synchronized long getEvictionCount() {
+            return this.evictionCount;
+        }
+
+        synchronized long getRejectedCount() {
+            return this.rejectedCount;
+        }
+
+        private int find(long hash, byte[] key) {
+            int slot = this.mask & (int) hash;
+            long reference;
+            while ((reference = this.references[slot]) != 0) {
+                if (this.hashes[slot] == hash && keyEquals(reference, key)) {
+                    return slot;
+                }
+                slot = (slot + 1) & this.mask;
+            }
+            return -1;
+        }
+
+        private int findReference(long hash, long reference) {
+            int slot = this.mask & (int) hash;
+            long current;
+            while ((current = this.references[slot]) != 0) {
+                if (current == reference) {
+                    return slot;
+                }
+                slot = (slot + 1) & this.mask;
+            }
+            return -1;
+        }
+
+        private boolean keyEquals(long reference, byte[] key) {
+            ByteBuffer slab = this.slabs[slabOf(reference)];
+            int offset = offsetOf(reference);
+            if (slab.getInt(offset + KEY_LENGTH_OFFSET) != key.length) {
+                return false;
+            }
+
+            int keyOffset = offset + HEADER_SIZE;
+            for (int i = 0; i < key.length; i++) {
+                if (slab.get(keyOffset + i) != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void removeEntry(int slot) {
+            this.residentBytes -= sizeOf(this.references[slot]);
+            this.entryCount--;
+            removeSlot(slot);
+        }
+
+        /**
+         * Removes a slot shifting back the following slots of the cluster whose probe sequence
+         * crosses it, so lookups never need tombstones.
+         */
+        private void removeSlot(int slot) {
+            int hole = slot;
+            int next = (slot + 1) & this.mask;
+            while (this.references[next] != 0) {
+                int home = this.mask & (int) this.hashes[next];
+                if (((next - home) & this.mask) >= ((next - hole) & this.mask)) {
+                    this.hashes[hole] = this.hashes[next];
+                    this.references[hole] = this.references[next];
+                    hole = next;
+                }
+                next = (next + 1) & this.mask;
+            }
+            this.hashes[hole] = 0;
+            this.references[hole] = 0;
+        }
+
+        private void resizeTable() {
+            long[] oldHashes = this.hashes;
+            long[] oldReferences = this.references;
+            this.hashes = new long[oldHashes.length * 2];
+            this.references = new long[oldReferences.length * 2];
+            this.mask = this.references.length - 1;
+            for (int i = 0; i < oldReferences.length; i++) {
+                if (oldReferences[i] != 0) {
+                    int slot = this.mask & (int) oldHashes[i];
+                    while (this.references[slot] != 0) {
+                        slot = (slot + 1) & this.mask;
+                    }
+                    this.hashes[slot] = oldHashes[i];
+                    this.references[slot] = oldReferences[i];
+                }
+            }
+        }
+
+        private long allocate(int size) {
+            while (this.currentSlab < 0 || this.slabUsage[this.currentSlab] + size > this.slabSize) {
+                advance();
+            }
+            int offset = this.slabUsage[this.currentSlab];
+            this.slabUsage[this.currentSlab] += size;
+            return reference(this.currentSlab, offset);
+        }
+
+        /**
+         * Starts appending to a free slab. If it was the last free slab, the oldest slab is
+         * reclaimed: It holds at most one slab of entries, thus the entries it keeps always fit in
+         * the new slab.
+         */
+        private void advance() {
+            int slab;
+            if (this.freeSlabCount > 0) {
+                slab = this.freeSlabs[--this.freeSlabCount];
+            } else {
+                slab = this.allocatedSlabCount++;
+                this.slabs[slab] = ByteBuffer.allocateDirect(this.slabSize);
+            }
+            this.slabQueue[(this.slabQueueStart + this.slabQueueSize++) % this.slabQueue.length] = slab;
+            this.currentSlab = slab;
+
+            if (this.freeSlabCount == 0 && this.allocatedSlabCount == this.slabs.length) {
+                int oldest = this.slabQueue[this.slabQueueStart];
+                this.slabQueueStart = (this.slabQueueStart + 1) % this.slabQueue.length;
+                this.slabQueueSize--;
+                reclaim(oldest);
+                this.freeSlabs[this.freeSlabCount++] = oldest;
+            }
+        }
+
+        private void reclaim(int slab) {
+            ByteBuffer buffer = this.slabs[slab];
+            int limit = this.slabUsage[slab];
+            int offset = 0;
+            while (offset < limit) {
+                long hash = buffer.getLong(offset);
+                int size = HEADER_SIZE + buffer.getInt(offset + KEY_LENGTH_OFFSET)
+                        + buffer.getInt(offset + VALUE_LENGTH_OFFSET);
+                int slot = findReference(hash, reference(slab, offset));
+                if (slot >= 0) {
+                    if (buffer.get(offset + FLAGS_OFFSET) == REFERENCED) {
+                        // Second chance
+                        int targetOffset = this.slabUsage[this.currentSlab];
+                        this.slabUsage[this.currentSlab] += size;
+                        ByteBuffer source = buffer.duplicate();
+                        source.limit(offset + size).position(offset);
+                        ByteBuffer target = this.slabs[this.currentSlab].duplicate();
+                        target.position(targetOffset);
+                        target.put(source);
+                        target.put(targetOffset + FLAGS_OFFSET, (byte) 0);
+                        this.references[slot] = reference(this.currentSlab, targetOffset);
+                    } else {
+                        removeEntry(slot);
+                        this.evictionCount++;
+                    }
+                }
+                offset += size;
+            }
+            this.slabUsage[slab] = 0;
+        }
+
+        private int sizeOf(long reference) {
+            ByteBuffer slab = this.slabs[slabOf(reference)];
+            int offset = offsetOf(reference);
+            return HEADER_SIZE + slab.getInt(offset + KEY_LENGTH_OFFSET) + slab.getInt(offset + VALUE_LENGTH_OFFSET);
+        }
+
+        private static long reference(int slab, int offset) {
+            return ((long) (slab + 1) << 32) | offset;
+        }
+
+        private static int slabOf(long reference) {
+            return (int) (reference >>> 32) - 1;
+        }
+
+        private static int offsetOf(long reference) {
+            return (int) reference;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.type;
+
+/**
+ * Management interface of {@link OffHeapCache}: Exposes the cache metrics through JMX.
+ */
+public interface OffHeapCacheMXBean {
+
+    /**
+     * Gets the maximum off-heap memory the cache may allocate.
+     *
+     * @return the capacity in bytes
+     */
+    long getCapacity();
+
+    /**
+     * Gets the off-heap memory allocated so far. Memory is allocated in slabs as entries are cached
+     * and it is not released until the cache is garbage collected.
+     *
+     * @return the allocated memory in bytes
+     */
+    long getAllocatedBytes();
+
+    /**
+     * Gets the off-heap memory used by the cached entries (Keys, values and entry headers).
+     *
+     * @return the resident memory in bytes
+     */
+    long getResidentBytes();
+
+    /**
+     * Gets the number of cached entries.
+     *
+     * @return the number of entries
+     */
+    long getEntryCount();
+
+    /**
+     * Gets the number of lookups that found the entry in the cache.
+     *
+     * @return the number of hits
+     */
+    long getHitCount();
+
+    /**
+     * Gets the number of lookups that did not find the entry in the cache.
+     *
+     * @return the number of misses
+     */
+    long getMissCount();
+
+    /**
+     * Gets the hit rate: Hits over lookups.
+     *
+     * @return the hit rate, {@code 0} if no lookup has been done
+     */
+    double getHitRate();
+
+    /**
+     * Gets the number of entries evicted to make room for new entries.
+     *
+     * @return the number of evictions
+     */
+    long getEvictionCount();
+
+    /**
+     * Gets the number of entries not cached because their encoding is larger than a slab.
+     *
+     * @return the number of rejected entries
+     */
+    long getRejectedCount();
+
+    /**
+     * Removes all entries. Allocated memory is kept for reuse.
+     */
+    void clear();
+}
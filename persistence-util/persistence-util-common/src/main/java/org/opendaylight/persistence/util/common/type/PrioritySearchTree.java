@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.type;
+
+import org.opendaylight.persistence.util.common.Subroutine;
+
+/**
+ * Static priority search tree over the positions of a sorted array: Reports the positions below a limit whose rank is
+ * at least a given one in {@code O(log n + k)}.
+ * <p>
+ * Interval trees keep their intervals sorted by left bound and rank them by right bound, so the intervals starting
+ * before a queried interval and reaching it are a prefix of the array with a minimum rank.
+ * <p>
+ * Each node holds the position with the greatest rank among the positions of its subtree not held by an ancestor
+ * (Heap order), and the positions below the node's split go to the left subtree (Search order). A query thus stops at
+ * any node whose rank is too small and only descends to the right of a split below the limit, where the whole left
+ * subtree is below the limit.
+ * <p>
+ * This class is thread safe.
+ */
+final class PrioritySearchTree {
+
+    private static final int NONE = -1;
+
+    private final int[] positions;
+    private final int[] ranks;
+    private final int[] splits;
+    private final int[] leftNodes;
+    private final int[] rightNodes;
+    private final int root;
+
+    /**
+     * Creates a priority search tree.
+     *
+     * @param ranks
+     *            rank of each position
+     */
+    PrioritySearchTree(int[] ranks) {
+        int size = ranks.length;
+        this.positions = new int[size];
+        this.ranks = new int[size];
+        this.splits = new int[size];
+        this.leftNodes = new int[size];
+        this.rightNodes = new int[size];
+
+        int[] pending = new int[size];
+        for (int i = 0; i < size; i++) {
+            pending[i] = i;
+        }
+        this.root = build(ranks, pending, 0, size, new int[1]);
+    }
+
+    /**
+     * Reports the values at the positions below {@code limit} whose rank is at least {@code minRank}.
+     *
+     * @param limit
+     *            exclusive upper bound of the positions to report
+     * @param minRank
+     *            minimum rank of the positions to report
+     * @param values
+     *            values indexed by position
+     * @param consumer
+     *            subroutine the values are passed to
+     */
+    <V> void report(int limit, int minRank, Object[] values, Subroutine<V> consumer) {
+        report(this.root, limit, minRank, values, consumer);
+    }
+
+    private int build(int[] ranks, int[] pending, int from, int to, int[] nodeCount) {
+        if (from >= to) {
+            return NONE;
+        }
+
+        int top = from;
+        for (int i = from + 1; i < to; i++) {
+            if (ranks[pending[i]] > ranks[pending[top]]) {
+                top = i;
+            }
+        }
+
+        int node = nodeCount[0]++;
+        this.positions[node] = pending[top];
+        this.ranks[node] = ranks[pending[top]];
+
+        // Removes the top position keeping the pending positions sorted, and splits the rest in halves
+        System.arraycopy(pending, top + 1, pending, top, to - top - 1);
+        to--;
+        int middle = (from + to) >>> 1;
+        this.splits[node] = middle < to ? pending[middle] : Integer.MAX_VALUE;
+        this.leftNodes[node] = build(ranks, pending, from, middle, nodeCount);
+        this.rightNodes[node] = build(ranks, pending, middle, to, nodeCount);
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> void report(int node, int limit, int minRank, Object[] values, Subroutine<V> consumer) {
+        while (node != NONE && this.ranks[node] >= minRank) {
+            if (this.positions[node] < limit) {
+                consumer.execute((V) values[this.positions[node]]);
+            }
+
+            if (this.splits[node] < limit) {
+                // The left subtree is below the limit: Only ranks prune it
+                report(this.leftNodes[node], limit, minRank, values, consumer);
+                node = this.rightNodes[node];
+            } else {
+                node = this.leftNodes[node];
+            }
+        }
+    }
+}
@@ -7,11 +7,15 @@
  */
 package org.opendaylight.persistence.util.common.type.page;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import org.opendaylight.persistence.util.common.Converter;
+import org.opendaylight.persistence.util.common.converter.CollectionConverter;
+import org.opendaylight.persistence.util.common.converter.ParallelConverter;
+
+import com.google.common.base.Preconditions;
 
 /**
  * Mark based data page.
@@ -36,6 +40,10 @@ public class MarkPage<D> extends Page<MarkPageRequest<D>, D> {
         super(pageRequest, data);
     }
 
+    private MarkPage(MarkPageRequest<D> pageRequest, List<D> data, boolean copy) {
+        super(pageRequest, data, copy);
+    }
+
     /**
      * Returns the empty page (immutable).
      *
@@ -53,16 +61,50 @@ public class MarkPage<D> extends Page<MarkPageRequest<D>, D> {
      * @return a page with the new data type
      */
     public <T> MarkPage<T> convert(Converter<D, T> converter) {
-        List<T> targetItems = new ArrayList<T>(getData().size());
-        for (D item : getData()) {
-            targetItems.add(converter.convert(item));
+        return convert(converter, null);
+    }
+
+    /**
+     * Converts a page to a different data type using a parallel converter.
+     *
+     * @param converter thread safe converter
+     * @param parallelConverter parallel converter, {@code null} to convert in the calling thread
+     * @return a page with the new data type
+     */
+    public <T> MarkPage<T> convert(Converter<D, T> converter, ParallelConverter parallelConverter) {
+        Preconditions.checkNotNull(converter, "converter");
+        List<T> targetItems = null;
+        if (parallelConverter != null) {
+            targetItems = parallelConverter.convert(getData(), converter);
+        } else {
+            @SuppressWarnings("unchecked")
+            T[] target = (T[]) new Object[getData().size()];
+            targetItems = Collections.unmodifiableList(Arrays.asList(CollectionConverter.convert(getData(), converter,
+                    target)));
         }
 
-        T targetMark = getRequest().getMark() != null ? converter.convert(getRequest().getMark()) : null;
-        MarkPageRequest<T> targetRequest = new MarkPageRequest<T>(targetMark, getRequest().getNavigation(),
-                getRequest().getSize());
+        return new MarkPage<T>(convertRequest(converter), targetItems, false);
+    }
 
-        return new MarkPage<T>(targetRequest, targetItems);
+    /**
+     * Converts a page to a different data type. Data is converted on first access, which is convenient when the page
+     * is just partially consumed. The mark is converted right away.
+     * <p>
+     * {@code converter} is called when data is accessed, so it must remain valid for the life of the page (For
+     * example, it should not depend on a closed transaction).
+     *
+     * @param converter converter
+     * @return a page with the new data type
+     */
+    public <T> MarkPage<T> convertLazily(Converter<D, T> converter) {
+        Preconditions.checkNotNull(converter, "converter");
+        return new MarkPage<T>(convertRequest(converter), CollectionConverter.lazyConvert(getData(), converter),
+                false);
+    }
+
+    private <T> MarkPageRequest<T> convertRequest(Converter<D, T> converter) {
+        T targetMark = getRequest().getMark() != null ? converter.convert(getRequest().getMark()) : null;
+        return new MarkPageRequest<T>(targetMark, getRequest().getNavigation(), getRequest().getSize());
     }
 
     /**
@@ -7,11 +7,13 @@
  */
 package org.opendaylight.persistence.util.common.type.page;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import org.opendaylight.persistence.util.common.Converter;
+import org.opendaylight.persistence.util.common.converter.CollectionConverter;
+import org.opendaylight.persistence.util.common.converter.ParallelConverter;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
@@ -39,7 +41,11 @@ public class OffsetPage<D> extends Page<OffsetPageRequest, D> {
      * @param totalRecordCount total number of records in the data source
      */
     public OffsetPage(OffsetPageRequest pageRequest, List<D> data, long totalRecordCount) {
-        super(pageRequest, data);
+        this(pageRequest, data, totalRecordCount, true);
+    }
+
+    private OffsetPage(OffsetPageRequest pageRequest, List<D> data, long totalRecordCount, boolean copy) {
+        super(pageRequest, data, copy);
         Preconditions.checkArgument(totalRecordCount >= 0, "totalRecordCount must be greater or equals to zero");
         this.totalRecordCount = totalRecordCount;
     }
@@ -116,12 +122,45 @@ public class OffsetPage<D> extends Page<OffsetPageRequest, D> {
      * @return a page with the new data type
      */
     public <T> OffsetPage<T> convert(Converter<D, T> converter) {
-        List<T> targetItems = new ArrayList<T>(getData().size());
-        for (D item : getData()) {
-            targetItems.add(converter.convert(item));
+        return convert(converter, null);
+    }
+
+    /**
+     * Converts a page to a different data type using a parallel converter.
+     *
+     * @param converter thread safe converter
+     * @param parallelConverter parallel converter, {@code null} to convert in the calling thread
+     * @return a page with the new data type
+     */
+    public <T> OffsetPage<T> convert(Converter<D, T> converter, ParallelConverter parallelConverter) {
+        Preconditions.checkNotNull(converter, "converter");
+        List<T> targetItems = null;
+        if (parallelConverter != null) {
+            targetItems = parallelConverter.convert(getData(), converter);
+        } else {
+            @SuppressWarnings("unchecked")
+            T[] target = (T[]) new Object[getData().size()];
+            targetItems = Collections.unmodifiableList(Arrays.asList(CollectionConverter.convert(getData(), converter,
+                    target)));
         }
 
-        return new OffsetPage<T>(getRequest(), targetItems, this.totalRecordCount);
+        return new OffsetPage<T>(getRequest(), targetItems, this.totalRecordCount, false);
+    }
+
+    /**
+     * Converts a page to a different data type. Data is converted on first access, which is convenient when the page
+     * is just partially consumed.
+     * <p>
+     * {@code converter} is called when data is accessed, so it must remain valid for the life of the page (For
+     * example, it should not depend on a closed transaction).
+     *
+     * @param converter converter
+     * @return a page with the new data type
+     */
+    public <T> OffsetPage<T> convertLazily(Converter<D, T> converter) {
+        Preconditions.checkNotNull(converter, "converter");
+        return new OffsetPage<T>(getRequest(), CollectionConverter.lazyConvert(getData(), converter),
+                this.totalRecordCount, false);
     }
 
     /**
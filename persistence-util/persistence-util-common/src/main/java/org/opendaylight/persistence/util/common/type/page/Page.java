@@ -43,9 +43,22 @@ public class Page<R extends PageRequest, D> implements Serializable {
      */
 
     public Page(@Nonnull R pageRequest, @Nonnull List<D> data) {
+        this(pageRequest, data, true);
+    }
+
+    /**
+     * Creates a data page without copying the data. This constructor is meant for pages created from the data of
+     * another page (For example, when converting pages), where the data is already an unmodifiable list not referenced
+     * from anywhere else.
+     *
+     * @param pageRequest request that generated this page
+     * @param data page's unmodifiable data
+     * @param copy whether {@code data} should be copied
+     */
+    Page(@Nonnull R pageRequest, @Nonnull List<D> data, boolean copy) {
         this.request = Preconditions.checkNotNull(pageRequest, "pageRequest cannot be null");
         Preconditions.checkNotNull(data, "data cannot be null");
-        this.data = ImmutableList.copyOf(data);
+        this.data = copy ? ImmutableList.copyOf(data) : data;
     }
 
     /**
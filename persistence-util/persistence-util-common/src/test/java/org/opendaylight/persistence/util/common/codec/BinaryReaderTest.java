@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.codec;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class BinaryReaderTest {
+
+    @Test
+    public void testVarInt() {
+        int[] values = { 0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE };
+        BinaryWriter writer = new BinaryWriter(1);
+        for (int value : values) {
+            writer.writeVarInt(value);
+            writer.writeSignedVarInt(value);
+        }
+
+        BinaryReader reader = new BinaryReader(writer.toByteArray());
+        for (int value : values) {
+            Assert.assertEquals(value, reader.readVarInt());
+            Assert.assertEquals(value, reader.readSignedVarInt());
+        }
+        Assert.assertFalse(reader.hasRemaining());
+    }
+
+    @Test
+    public void testVarLong() {
+        long[] values = { 0, 1, 127, 128, Integer.MAX_VALUE, Long.MAX_VALUE, -1, Long.MIN_VALUE };
+        BinaryWriter writer = new BinaryWriter();
+        for (long value : values) {
+            writer.writeVarLong(value);
+            writer.writeSignedVarLong(value);
+        }
+
+        BinaryReader reader = new BinaryReader(writer.toByteArray());
+        for (long value : values) {
+            Assert.assertEquals(value, reader.readVarLong());
+            Assert.assertEquals(value, reader.readSignedVarLong());
+        }
+        Assert.assertFalse(reader.hasRemaining());
+    }
+
+    @Test
+    public void testVarIntSize() {
+        Assert.assertEquals(1, new BinaryWriter().writeVarInt(127).size());
+        Assert.assertEquals(2, new BinaryWriter().writeVarInt(128).size());
+        Assert.assertEquals(5, new BinaryWriter().writeVarInt(-1).size());
+        Assert.assertEquals(1, new BinaryWriter().writeSignedVarInt(-1).size());
+        Assert.assertEquals(1, new BinaryWriter().writeSignedVarLong(-64).size());
+        Assert.assertEquals(10, new BinaryWriter().writeVarLong(-1).size());
+    }
+
+    @Test
+    public void testFixedLength() {
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeByte(-2).writeBoolean(true).writeLong(Long.MIN_VALUE).writeFloat(1.5f).writeDouble(-2.25);
+
+        BinaryReader reader = new BinaryReader(writer.toByteArray());
+        Assert.assertEquals(-2, reader.readByte());
+        Assert.assertTrue(reader.readBoolean());
+        Assert.assertEquals(Long.MIN_VALUE, reader.readLong());
+        Assert.assertEquals(1.5f, reader.readFloat(), 0);
+        Assert.assertEquals(-2.25, reader.readDouble(), 0);
+    }
+
+    @Test
+    public void testBytesAndStrings() {
+        BinaryWriter writer = new BinaryWriter(2);
+        writer.writeString("").writeString("h\u00e9llo \u4e16\u754c").writeBytes(new byte[] { 1, 2, 3 })
+                .writeBytes(ByteBuffer.wrap(new byte[] { 4, 5 }));
+
+        ByteBuffer encoding = writer.toByteBuffer();
+        Assert.assertTrue(encoding.isReadOnly());
+
+        // Direct buffers have no backing array
+        ByteBuffer direct = ByteBuffer.allocateDirect(encoding.remaining());
+        direct.put(encoding.duplicate()).flip();
+
+        for (ByteBuffer buffer : new ByteBuffer[] { encoding, direct }) {
+            BinaryReader reader = new BinaryReader(buffer);
+            Assert.assertEquals("", reader.readString());
+            Assert.assertEquals("h\u00e9llo \u4e16\u754c", reader.readString());
+            Assert.assertArrayEquals(new byte[] { 1, 2, 3 }, reader.readBytes());
+            ByteBuffer slice = reader.readSlice();
+            Assert.assertEquals(2, slice.remaining());
+            Assert.assertEquals(4, slice.get());
+            Assert.assertEquals(5, slice.get());
+            Assert.assertFalse(reader.hasRemaining());
+
+            // The reader does not modify the given buffer
+            Assert.assertEquals(0, buffer.position());
+        }
+    }
+
+    @Test
+    public void testClear() {
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeLong(1);
+        writer.clear();
+        Assert.assertEquals(0, writer.size());
+        writer.writeVarInt(3);
+        Assert.assertArrayEquals(new byte[] { 3 }, writer.toByteArray());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncated() {
+        new BinaryReader(new byte[] { (byte) 0x80 }).readVarInt();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedVarInt() {
+        byte[] encoding = new byte[6];
+        Arrays.fill(encoding, (byte) 0x80);
+        new BinaryReader(encoding).readVarInt();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLength() {
+        new BinaryReader(new byte[] { 5, 1, 2 }).readBytes();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBoolean() {
+        new BinaryReader(new byte[] { 2 }).readBoolean();
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.codec;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.opendaylight.persistence.util.common.DuplicateException;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class CodecRegistryTest {
+
+    @Test
+    public void testEncodeNull() {
+        CodecRegistry registry = new CodecRegistry();
+        byte[] encoding = registry.encode(null);
+        Assert.assertArrayEquals(new byte[] { 0 }, encoding);
+        Assert.assertNull(registry.decode(encoding));
+    }
+
+    @Test
+    public void testRegister() {
+        CodecRegistry registry = new CodecRegistry();
+        registry.register(CodecRegistry.FIRST_APPLICATION_TAG, Color.class, ValueCodecs.enumeration(Color.class));
+
+        Assert.assertNotNull(registry.getCodec(Color.class));
+        Assert.assertNull(registry.getCodec(String.class));
+
+        byte[] encoding = registry.encode(Color.BLUE);
+        Assert.assertEquals(2, encoding.length);
+        Assert.assertSame(Color.BLUE, registry.decode(encoding));
+    }
+
+    @Test
+    public void testRegisterDuplicateTag() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        try {
+            registry.register(1, Color.class, ValueCodecs.enumeration(Color.class));
+            Assert.fail("Exception expected");
+        } catch (DuplicateException e) {
+            // Expected
+        }
+
+        // The failed registration must not leave the type registered
+        Assert.assertNull(registry.getCodec(Color.class));
+    }
+
+    @Test(expected = DuplicateException.class)
+    public void testRegisterDuplicateType() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        registry.register(CodecRegistry.FIRST_APPLICATION_TAG, String.class, ValueCodecs.STRING);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegisterInvalidTag() {
+        new CodecRegistry().register(0, Color.class, ValueCodecs.enumeration(Color.class));
+    }
+
+    @Test
+    public void testSubclassNotResolvedToSuperclass() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        java.sql.Timestamp timestamp = new java.sql.Timestamp(1000);
+        timestamp.setNanos(123456789);
+        Assert.assertNull(registry.getCodec(java.sql.Timestamp.class));
+        try {
+            registry.encode(timestamp);
+            Assert.fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // Expected: It would be decoded as a java.util.Date
+        }
+    }
+
+    @Test
+    public void testEnumConstantWithBody() {
+        CodecRegistry registry = new CodecRegistry();
+        registry.register(CodecRegistry.FIRST_APPLICATION_TAG, Shape.class, ValueCodecs.enumeration(Shape.class));
+        Assert.assertSame(Shape.SQUARE, registry.decode(registry.encode(Shape.SQUARE)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEncodeUnregistered() {
+        CodecRegistry.createDefault().encode(Color.RED);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeUnregistered() {
+        CodecRegistry.createDefault().decode(new byte[] { (byte) CodecRegistry.FIRST_APPLICATION_TAG });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeTrailingBytes() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        byte[] encoding = registry.encode(Integer.valueOf(1));
+        registry.decode(Arrays.copyOf(encoding, encoding.length + 1));
+    }
+
+    private static enum Color {
+        RED, GREEN, BLUE
+    }
+
+    private static enum Shape {
+        CIRCLE, SQUARE {
+            @Override
+            public String toString() {
+                return "square";
+            }
+        }
+    }
+}
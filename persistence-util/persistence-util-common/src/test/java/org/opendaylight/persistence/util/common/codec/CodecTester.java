@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.opendaylight.persistence.util.test.SerializabilityTester;
+import org.opendaylight.persistence.util.test.SerializabilityTester.SemanticCompatibilityVerifier;
+
+/**
+ * Tester to test codecs, in the style of {@link SerializabilityTester}.
+ * 
+ */
+final class CodecTester {
+
+    private CodecTester() {
+
+    }
+
+    /**
+     * Tests that a value survives an encoding round trip through a registry and that the encoding
+     * is not larger than the default Java serialization.
+     * 
+     * @param value value to encode
+     * @param registry registry
+     * @param semanticCompatibilityVerifier verifier to assert that {@code value} and its replica are
+     *            semantically compatible; if {@code null} they are asserted to be equal
+     */
+    public static <T extends Serializable> void testEncoding(T value, CodecRegistry registry,
+            SemanticCompatibilityVerifier<T> semanticCompatibilityVerifier) {
+        byte[] encoding = registry.encode(value);
+
+        // Decodes from both a heap and a direct buffer, the later emulating a memory-mapped file
+        ByteBuffer direct = ByteBuffer.allocateDirect(encoding.length);
+        direct.put(encoding).flip();
+
+        for (Object replicaObj : new Object[] { registry.decode(encoding), registry.decode(direct) }) {
+            @SuppressWarnings("unchecked")
+            T replica = (T) replicaObj;
+            Assert.assertNotNull(replica);
+            Assert.assertSame(value.getClass(), replica.getClass());
+            if (semanticCompatibilityVerifier != null) {
+                semanticCompatibilityVerifier.assertSemanticCompatibility(value, replica);
+            } else {
+                Assert.assertEquals(value, replica);
+            }
+        }
+
+        Assert.assertTrue("Encoding is larger than Java serialization",
+                encoding.length < getSerializedSize(value));
+    }
+
+    private static int getSerializedSize(Serializable value) {
+        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+                ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(value);
+            objectOutputStream.flush();
+            return byteArrayOutputStream.size();
+        } catch (IOException e) {
+            throw new RuntimeException("Serialization failure: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.codec;
+
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.opendaylight.persistence.util.common.filter.ComparabilityCondition;
+import org.opendaylight.persistence.util.common.filter.EqualityCondition;
+import org.opendaylight.persistence.util.common.filter.IntervalCondition;
+import org.opendaylight.persistence.util.common.filter.SetCondition;
+import org.opendaylight.persistence.util.common.filter.StringCondition;
+import org.opendaylight.persistence.util.common.filter.TimePeriodCondition;
+import org.opendaylight.persistence.util.common.type.Interval;
+import org.opendaylight.persistence.util.common.type.TimePeriod;
+import org.opendaylight.persistence.util.test.SerializabilityTester.SemanticCompatibilityVerifier;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class FilterCodecsTest {
+
+    @Test
+    public void testEqualityCondition() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        SemanticCompatibilityVerifier<EqualityCondition<?>> verifier = new SemanticCompatibilityVerifier<EqualityCondition<?>>() {
+            @Override
+            public void assertSemanticCompatibility(EqualityCondition<?> original, EqualityCondition<?> replica) {
+                Assert.assertEquals(original.getMode(), replica.getMode());
+                Assert.assertEquals(original.getValue(), replica.getValue());
+            }
+        };
+
+        CodecTester.testEncoding(EqualityCondition.equalTo("value"), registry, verifier);
+        CodecTester.testEncoding(EqualityCondition.unequalTo(Long.valueOf(1)), registry, verifier);
+        CodecTester.testEncoding(EqualityCondition.equalTo(null), registry, verifier);
+    }
+
+    @Test
+    public void testComparabilityCondition() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        SemanticCompatibilityVerifier<ComparabilityCondition<?>> verifier = new SemanticCompatibilityVerifier<ComparabilityCondition<?>>() {
+            @Override
+            public void assertSemanticCompatibility(ComparabilityCondition<?> original,
+                    ComparabilityCondition<?> replica) {
+                Assert.assertEquals(original.getMode(), replica.getMode());
+                Assert.assertEquals(original.getValue(), replica.getValue());
+            }
+        };
+
+        Integer value = Integer.valueOf(5);
+        CodecTester.testEncoding(ComparabilityCondition.lessThan(value), registry, verifier);
+        CodecTester.testEncoding(ComparabilityCondition.lessThanOrEqualTo(value), registry, verifier);
+        CodecTester.testEncoding(ComparabilityCondition.equalTo(value), registry, verifier);
+        CodecTester.testEncoding(ComparabilityCondition.greaterThanOrEqualTo(value), registry, verifier);
+        CodecTester.testEncoding(ComparabilityCondition.greaterThan(value), registry, verifier);
+    }
+
+    @Test
+    public void testIntervalCondition() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        SemanticCompatibilityVerifier<IntervalCondition<?>> verifier = new SemanticCompatibilityVerifier<IntervalCondition<?>>() {
+            @Override
+            public void assertSemanticCompatibility(IntervalCondition<?> original, IntervalCondition<?> replica) {
+                Assert.assertEquals(original.getMode(), replica.getMode());
+                Assert.assertEquals(original.getValue(), replica.getValue());
+            }
+        };
+
+        CodecTester.testEncoding(IntervalCondition.in(Interval.closed(Integer.valueOf(1), Integer.valueOf(2))),
+                registry, verifier);
+        CodecTester.testEncoding(IntervalCondition.notIn(Interval.leftUnboundedRightOpen(new Date(1000))),
+                registry, verifier);
+    }
+
+    @Test
+    public void testSetCondition() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        SemanticCompatibilityVerifier<SetCondition<?>> verifier = new SemanticCompatibilityVerifier<SetCondition<?>>() {
+            @Override
+            public void assertSemanticCompatibility(SetCondition<?> original, SetCondition<?> replica) {
+                Assert.assertEquals(original.getMode(), replica.getMode());
+                Assert.assertEquals(original.getValues(), replica.getValues());
+            }
+        };
+
+        CodecTester.testEncoding(SetCondition.in("a", "b", "c"), registry, verifier);
+        CodecTester.testEncoding(SetCondition.notIn(Long.valueOf(1), Long.valueOf(2)), registry, verifier);
+    }
+
+    @Test
+    public void testStringCondition() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        SemanticCompatibilityVerifier<StringCondition> verifier = new SemanticCompatibilityVerifier<StringCondition>() {
+            @Override
+            public void assertSemanticCompatibility(StringCondition original, StringCondition replica) {
+                Assert.assertEquals(original.getMode(), replica.getMode());
+                Assert.assertEquals(original.getValue(), replica.getValue());
+            }
+        };
+
+        CodecTester.testEncoding(StringCondition.equalTo("value"), registry, verifier);
+        CodecTester.testEncoding(StringCondition.unequalTo(null), registry, verifier);
+        CodecTester.testEncoding(StringCondition.startWith("value"), registry, verifier);
+        CodecTester.testEncoding(StringCondition.contain("value"), registry, verifier);
+        CodecTester.testEncoding(StringCondition.endWith("value"), registry, verifier);
+    }
+
+    @Test
+    public void testTimePeriodCondition() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        SemanticCompatibilityVerifier<TimePeriodCondition> verifier = new SemanticCompatibilityVerifier<TimePeriodCondition>() {
+            @Override
+            public void assertSemanticCompatibility(TimePeriodCondition original, TimePeriodCondition replica) {
+                Assert.assertEquals(original.getMode(), replica.getMode());
+                Assert.assertEquals(original.getValue(), replica.getValue());
+            }
+        };
+
+        TimePeriod timePeriod = new TimePeriod(new Date(1000), new Date(2000));
+        CodecTester.testEncoding(TimePeriodCondition.in(timePeriod), registry, verifier);
+        CodecTester.testEncoding(TimePeriodCondition.notIn(timePeriod), registry, verifier);
+    }
+}
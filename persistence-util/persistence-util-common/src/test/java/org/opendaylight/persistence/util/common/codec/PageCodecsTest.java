@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.codec;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.opendaylight.persistence.util.common.type.page.MarkPage;
+import org.opendaylight.persistence.util.common.type.page.MarkPageRequest;
+import org.opendaylight.persistence.util.common.type.page.MarkPageRequest.Navigation;
+import org.opendaylight.persistence.util.common.type.page.OffsetPage;
+import org.opendaylight.persistence.util.common.type.page.OffsetPageRequest;
+import org.opendaylight.persistence.util.common.type.page.Page;
+import org.opendaylight.persistence.util.common.type.page.PageRequest;
+import org.opendaylight.persistence.util.test.SerializabilityTester.SemanticCompatibilityVerifier;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class PageCodecsTest {
+
+    @Test
+    public void testPageRequests() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        CodecTester.testEncoding(new PageRequest(10), registry, null);
+        CodecTester.testEncoding(new OffsetPageRequest(100, 10), registry, null);
+        CodecTester.testEncoding(new MarkPageRequest<String>(5), registry, null);
+        CodecTester.testEncoding(new MarkPageRequest<String>("mark", Navigation.PREVIOUS, 5), registry, null);
+    }
+
+    @Test
+    public void testPage() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        CodecTester.testEncoding(new Page<PageRequest, String>(new PageRequest(5), Arrays.asList("a", "b")),
+                registry, new SemanticCompatibilityVerifier<Page<PageRequest, String>>() {
+                    @Override
+                    public void assertSemanticCompatibility(Page<PageRequest, String> original,
+                            Page<PageRequest, String> replica) {
+                        Assert.assertEquals(original.getRequest().getSize(), replica.getRequest().getSize());
+                        Assert.assertEquals(original.getData(), replica.getData());
+                    }
+                });
+    }
+
+    @Test
+    public void testOffsetPage() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        OffsetPage<Long> page = new OffsetPage<Long>(new OffsetPageRequest(20, 10), Arrays.asList(Long.valueOf(1),
+                Long.valueOf(2), Long.valueOf(3)), 23);
+        CodecTester.testEncoding(page, registry, new SemanticCompatibilityVerifier<OffsetPage<Long>>() {
+            @Override
+            public void assertSemanticCompatibility(OffsetPage<Long> original, OffsetPage<Long> replica) {
+                Assert.assertEquals(original.getRequest(), replica.getRequest());
+                Assert.assertEquals(original.getTotalRecordCount(), replica.getTotalRecordCount());
+                Assert.assertEquals(original.getData(), replica.getData());
+            }
+        });
+    }
+
+    @Test
+    public void testMarkPage() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        MarkPage<String> page = new MarkPage<String>(new MarkPageRequest<String>("a", Navigation.NEXT, 2),
+                Arrays.asList("b", "c"));
+        CodecTester.testEncoding(page, registry, new SemanticCompatibilityVerifier<MarkPage<String>>() {
+            @Override
+            public void assertSemanticCompatibility(MarkPage<String> original, MarkPage<String> replica) {
+                Assert.assertEquals(original.getRequest(), replica.getRequest());
+                Assert.assertEquals(original.getData(), replica.getData());
+            }
+        });
+
+        CodecTester.testEncoding(MarkPage.<String> emptyPage(), registry, new SemanticCompatibilityVerifier<MarkPage<String>>() {
+            @Override
+            public void assertSemanticCompatibility(MarkPage<String> original, MarkPage<String> replica) {
+                Assert.assertEquals(original.getRequest(), replica.getRequest());
+                Assert.assertTrue(replica.isEmpty());
+            }
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPageSize() {
+        PageCodecs.PAGE_REQUEST.decode(new BinaryReader(new byte[] { 0 }));
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.codec;
+
+import java.io.Serializable;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.opendaylight.persistence.util.common.Converter;
+import org.opendaylight.persistence.util.common.type.Date;
+import org.opendaylight.persistence.util.common.type.Id;
+import org.opendaylight.persistence.util.common.type.Interval;
+import org.opendaylight.persistence.util.common.type.SerializableValueType;
+import org.opendaylight.persistence.util.common.type.TimePeriod;
+import org.opendaylight.persistence.util.test.SerializabilityTester.SemanticCompatibilityVerifier;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class ValueCodecsTest {
+
+    @Test
+    public void testPrimitives() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        Serializable[] values = { "", "value", Boolean.TRUE, Boolean.FALSE, Byte.valueOf((byte) -1),
+                Short.valueOf(Short.MIN_VALUE), Integer.valueOf(-300), Integer.valueOf(Integer.MAX_VALUE),
+                Long.valueOf(Long.MIN_VALUE), Long.valueOf(12), Float.valueOf(1.25f), Double.valueOf(Math.PI),
+                Character.valueOf('\u4e16') };
+        for (Serializable value : values) {
+            CodecTester.testEncoding(value, registry, null);
+        }
+    }
+
+    @Test
+    public void testByteArray() {
+        CodecTester.testEncoding(new byte[] { 1, 2, 3 }, CodecRegistry.createDefault(),
+                new SemanticCompatibilityVerifier<byte[]>() {
+                    @Override
+                    public void assertSemanticCompatibility(byte[] original, byte[] replica) {
+                        Assert.assertArrayEquals(original, replica);
+                    }
+                });
+    }
+
+    @Test
+    public void testDates() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        long now = System.currentTimeMillis();
+        CodecTester.testEncoding(new java.util.Date(now), registry, null);
+        CodecTester.testEncoding(new java.util.Date(-now), registry, null);
+        CodecTester.testEncoding(Date.valueOf(now), registry, null);
+        CodecTester.testEncoding(new TimePeriod(new java.util.Date(now), new java.util.Date(now + 3600000)),
+                registry, null);
+    }
+
+    @Test
+    public void testTimePeriodSize() {
+        BinaryWriter writer = new BinaryWriter();
+        long now = System.currentTimeMillis();
+        ValueCodecs.TIME_PERIOD.encode(new TimePeriod(new java.util.Date(now), new java.util.Date(now + 1000)),
+                writer);
+        // The end time is encoded as the duration
+        Assert.assertEquals(new BinaryWriter().writeSignedVarLong(now).size() + 2, writer.size());
+    }
+
+    @Test
+    public void testId() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        CodecTester.testEncoding(Id.<Object, Long> valueOf(Long.valueOf(1)), registry, null);
+        CodecTester.testEncoding(Id.<Object, String> valueOf("id"), registry, null);
+    }
+
+    @Test
+    public void testInterval() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        Integer left = Integer.valueOf(1);
+        Integer right = Integer.valueOf(10);
+
+        @SuppressWarnings("unchecked")
+        Interval<Integer>[] intervals = new Interval[] { Interval.open(left, right), Interval.closed(left, right),
+                Interval.leftClosedRightOpen(left, right), Interval.leftOpenRightClosed(left, right),
+                Interval.leftOpenRightUnbounded(left), Interval.leftClosedRightUnbounded(left),
+                Interval.leftUnboundedRightOpen(right), Interval.leftUnboundedRightClosed(right),
+                Interval.<Integer> unbounded() };
+
+        for (Interval<Integer> interval : intervals) {
+            CodecTester.testEncoding(interval, registry, null);
+            Assert.assertEquals(interval.getType(), ((Interval<?>) registry.decode(registry.encode(interval)))
+                    .getType());
+        }
+
+        CodecTester.testEncoding(Interval.closed(Date.valueOf(1), Date.valueOf(2)), registry, null);
+    }
+
+    @Test
+    public void testValueType() {
+        Codec<Name> codec = ValueCodecs.valueType(ValueCodecs.STRING, new Converter<String, Name>() {
+            @Override
+            public Name convert(String source) {
+                return new Name(source);
+            }
+        });
+
+        CodecRegistry registry = CodecRegistry.createDefault();
+        registry.register(CodecRegistry.FIRST_APPLICATION_TAG, Name.class, codec);
+        CodecTester.testEncoding(new Name("name"), registry, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidOrdinal() {
+        ValueCodecs.enumeration(Interval.Type.class).decode(new BinaryReader(new byte[] { 100 }));
+    }
+
+    private static final class Name extends SerializableValueType<String> {
+        private static final long serialVersionUID = 1L;
+
+        Name(String value) {
+            super(value);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.converter;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.opendaylight.persistence.util.common.Converter;
+import org.opendaylight.persistence.util.test.SerializabilityTester;
+import org.opendaylight.persistence.util.test.SerializabilityTester.SemanticCompatibilityVerifier;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class CollectionConverterTest {
+
+    @Test
+    public void testConvert() {
+        List<Integer> source = Arrays.asList(Integer.valueOf(1), Integer.valueOf(2));
+        List<String> target = CollectionConverter.convert(source, new ToStringConverter(),
+                CollectionConverter.<String> getArrayListFactory());
+        Assert.assertEquals(Arrays.asList("1", "2"), target);
+    }
+
+    @Test
+    public void testConvertToArray() {
+        List<Integer> source = Arrays.asList(Integer.valueOf(1), Integer.valueOf(2));
+        String[] target = new String[3];
+        Assert.assertSame(target, CollectionConverter.convert(source, new ToStringConverter(), target));
+        Assert.assertArrayEquals(new String[] { "1", "2", null }, target);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConvertToSmallArray() {
+        List<Integer> source = Arrays.asList(Integer.valueOf(1), Integer.valueOf(2));
+        CollectionConverter.convert(source, new ToStringConverter(), new String[1]);
+    }
+
+    @Test
+    public void testLazyConvert() {
+        List<Integer> source = Arrays.asList(Integer.valueOf(1), null, Integer.valueOf(3));
+        ToStringConverter converter = new ToStringConverter();
+        List<String> target = CollectionConverter.lazyConvert(source, converter);
+
+        Assert.assertEquals(3, target.size());
+        Assert.assertEquals(0, converter.count.get());
+        Assert.assertEquals("3", target.get(2));
+        Assert.assertNull(target.get(1));
+        Assert.assertNull(target.get(1));
+        Assert.assertEquals("3", target.get(2));
+        Assert.assertEquals(2, converter.count.get());
+        Assert.assertEquals(Arrays.asList("1", null, "3"), new ArrayList<String>(target));
+        Assert.assertEquals(3, converter.count.get());
+    }
+
+    @Test
+    public void testLazyConvertSerialization() {
+        List<Integer> source = Arrays.asList(Integer.valueOf(1), null, Integer.valueOf(3));
+        Serializable target = new LazyConvertingList<Integer, String>(source, new ToStringConverter());
+
+        SerializabilityTester.testSerialization(target, new SemanticCompatibilityVerifier<Serializable>() {
+            @Override
+            public void assertSemanticCompatibility(Serializable original, Serializable replica) {
+                Assert.assertEquals(original, replica);
+                Assert.assertEquals(Arrays.asList("1", null, "3"), replica);
+            }
+        });
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testLazyConvertUnmodifiable() {
+        List<String> target = CollectionConverter.lazyConvert(Arrays.asList(Integer.valueOf(1)),
+                new ToStringConverter());
+        target.set(0, "2");
+    }
+
+    @Test
+    public void testParallelConvert() {
+        List<Integer> source = new ArrayList<Integer>();
+        for (int i = 0; i < 10000; i++) {
+            source.add(Integer.valueOf(i));
+        }
+
+        ToStringConverter converter = new ToStringConverter();
+        List<String> target = new ParallelConverter(100, new ForkJoinPool(4)).convert(source, converter);
+        Assert.assertEquals(source.size(), target.size());
+        for (int i = 0; i < source.size(); i++) {
+            Assert.assertEquals(String.valueOf(i), target.get(i));
+        }
+        Assert.assertEquals(source.size(), converter.count.get());
+
+        target = new ParallelConverter(100).convert(new LinkedList<Integer>(source), converter);
+        Assert.assertEquals(source.size(), target.size());
+        Assert.assertEquals("9999", target.get(9999));
+    }
+
+    @Test
+    public void testParallelConvertBelowThreshold() {
+        List<String> target = new ParallelConverter(ParallelConverter.DEFAULT_THRESHOLD).convert(
+                Arrays.asList(Integer.valueOf(1), Integer.valueOf(2)), new ToStringConverter());
+        Assert.assertEquals(Arrays.asList("1", "2"), target);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testParallelConvertFailure() {
+        List<Integer> source = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            source.add(Integer.valueOf(i));
+        }
+
+        new ParallelConverter(10).convert(source, new Converter<Integer, String>() {
+            @Override
+            public String convert(Integer source) {
+                if (source.intValue() == 500) {
+                    throw new IllegalStateException();
+                }
+                return source.toString();
+            }
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelConverter() {
+        new ParallelConverter(0);
+    }
+
+    private static class ToStringConverter implements Converter<Integer, String> {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public String convert(Integer source) {
+            this.count.incrementAndGet();
+            return source != null ? source.toString() : null;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.opendaylight.persistence.util.common.Converter;
 import org.opendaylight.persistence.util.common.filter.ComparabilityCondition.Mode;
+import org.opendaylight.persistence.util.test.EqualityTester;
 import org.opendaylight.persistence.util.test.SerializabilityTester;
 import org.opendaylight.persistence.util.test.SerializabilityTester.SemanticCompatibilityVerifier;
 import org.opendaylight.persistence.util.test.ThrowableTester;
@@ -117,6 +118,17 @@ public class ComparabilityConditionTest {
         });
     }
 
+    @Test
+    public void testEqualsAndHashCode() {
+        ComparabilityCondition<Integer> objA0 = ComparabilityCondition.lessThan(Integer.valueOf(1));
+        ComparabilityCondition<Integer> objA1 = ComparabilityCondition.lessThan(Integer.valueOf(1));
+        ComparabilityCondition<Integer> objA2 = ComparabilityCondition.lessThan(Integer.valueOf(1));
+        ComparabilityCondition<Integer> objB = ComparabilityCondition.lessThan(Integer.valueOf(2));
+        ComparabilityCondition<Integer> objC = ComparabilityCondition.greaterThan(Integer.valueOf(1));
+
+        EqualityTester.testEqualsAndHashCode(objA0, objA1, objA2, objB, objC);
+    }
+
     @Test
     public void testSerialization() {
         SemanticCompatibilityVerifier<ComparabilityCondition<Integer>> semanticVerifier = new SemanticCompatibilityVerifier<ComparabilityCondition<Integer>>() {
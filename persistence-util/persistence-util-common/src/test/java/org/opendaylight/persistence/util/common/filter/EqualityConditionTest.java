@@ -11,6 +11,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.opendaylight.persistence.util.common.Converter;
 import org.opendaylight.persistence.util.common.filter.EqualityCondition.Mode;
+import org.opendaylight.persistence.util.test.EqualityTester;
 import org.opendaylight.persistence.util.test.SerializabilityTester;
 import org.opendaylight.persistence.util.test.SerializabilityTester.SemanticCompatibilityVerifier;
 import org.opendaylight.persistence.util.test.ThrowableTester;
@@ -68,6 +69,17 @@ public class EqualityConditionTest {
         });
     }
 
+    @Test
+    public void testEqualsAndHashCode() {
+        EqualityCondition<Integer> objA0 = EqualityCondition.equalTo(Integer.valueOf(1));
+        EqualityCondition<Integer> objA1 = EqualityCondition.equalTo(Integer.valueOf(1));
+        EqualityCondition<Integer> objA2 = EqualityCondition.equalTo(Integer.valueOf(1));
+        EqualityCondition<Integer> objB = EqualityCondition.equalTo(Integer.valueOf(2));
+        EqualityCondition<Integer> objC = EqualityCondition.unequalTo(Integer.valueOf(1));
+
+        EqualityTester.testEqualsAndHashCode(objA0, objA1, objA2, objB, objC);
+    }
+
     @Test
     public void testSerialization() {
         SemanticCompatibilityVerifier<EqualityCondition<Integer>> semanticVerifier = new SemanticCompatibilityVerifier<EqualityCondition<Integer>>() {
@@ -12,6 +12,7 @@ import org.junit.Test;
 import org.opendaylight.persistence.util.common.Converter;
 import org.opendaylight.persistence.util.common.filter.IntervalCondition.Mode;
 import org.opendaylight.persistence.util.common.type.Interval;
+import org.opendaylight.persistence.util.test.EqualityTester;
 import org.opendaylight.persistence.util.test.SerializabilityTester;
 import org.opendaylight.persistence.util.test.SerializabilityTester.SemanticCompatibilityVerifier;
 import org.opendaylight.persistence.util.test.ThrowableTester;
@@ -74,6 +75,17 @@ public class IntervalConditionTest {
         });
     }
 
+    @Test
+    public void testEqualsAndHashCode() {
+        IntervalCondition<Integer> objA0 = IntervalCondition.in(Interval.closed(Integer.valueOf(1), Integer.valueOf(2)));
+        IntervalCondition<Integer> objA1 = IntervalCondition.in(Interval.closed(Integer.valueOf(1), Integer.valueOf(2)));
+        IntervalCondition<Integer> objA2 = IntervalCondition.in(Interval.closed(Integer.valueOf(1), Integer.valueOf(2)));
+        IntervalCondition<Integer> objB = IntervalCondition.in(Interval.open(Integer.valueOf(1), Integer.valueOf(2)));
+        IntervalCondition<Integer> objC = IntervalCondition.notIn(Interval.closed(Integer.valueOf(1), Integer.valueOf(2)));
+
+        EqualityTester.testEqualsAndHashCode(objA0, objA1, objA2, objB, objC);
+    }
+
     @Test
     public void testSerialization() {
         SemanticCompatibilityVerifier<IntervalCondition<Integer>> semanticVerifier = new SemanticCompatibilityVerifier<IntervalCondition<Integer>>() {
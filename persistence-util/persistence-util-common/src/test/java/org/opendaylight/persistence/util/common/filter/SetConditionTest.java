@@ -15,6 +15,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.opendaylight.persistence.util.common.Converter;
 import org.opendaylight.persistence.util.common.filter.SetCondition.Mode;
+import org.opendaylight.persistence.util.test.EqualityTester;
 import org.opendaylight.persistence.util.test.SerializabilityTester;
 import org.opendaylight.persistence.util.test.SerializabilityTester.SemanticCompatibilityVerifier;
 import org.opendaylight.persistence.util.test.ThrowableTester;
@@ -90,6 +91,17 @@ public class SetConditionTest {
         });
     }
 
+    @Test
+    public void testEqualsAndHashCode() {
+        SetCondition<Integer> objA0 = SetCondition.in(Integer.valueOf(1), Integer.valueOf(2));
+        SetCondition<Integer> objA1 = SetCondition.in(Integer.valueOf(2), Integer.valueOf(1));
+        SetCondition<Integer> objA2 = SetCondition.in(Integer.valueOf(1), Integer.valueOf(2));
+        SetCondition<Integer> objB = SetCondition.in(Integer.valueOf(1));
+        SetCondition<Integer> objC = SetCondition.notIn(Integer.valueOf(1), Integer.valueOf(2));
+
+        EqualityTester.testEqualsAndHashCode(objA0, objA1, objA2, objB, objC);
+    }
+
     @Test
     public void testSerialization() {
         SemanticCompatibilityVerifier<SetCondition<Integer>> semanticVerifier = new SemanticCompatibilityVerifier<SetCondition<Integer>>() {
@@ -10,6 +10,7 @@ package org.opendaylight.persistence.util.common.filter;
 import org.junit.Assert;
 import org.junit.Test;
 import org.opendaylight.persistence.util.common.filter.StringCondition.Mode;
+import org.opendaylight.persistence.util.test.EqualityTester;
 import org.opendaylight.persistence.util.test.SerializabilityTester;
 import org.opendaylight.persistence.util.test.SerializabilityTester.SemanticCompatibilityVerifier;
 
@@ -60,6 +61,17 @@ public class StringConditionTest {
         Assert.assertEquals(Mode.ENDS_WITH, condition.getMode());
     }
 
+    @Test
+    public void testEqualsAndHashCode() {
+        StringCondition objA0 = StringCondition.equalTo("value");
+        StringCondition objA1 = StringCondition.equalTo("value");
+        StringCondition objA2 = StringCondition.equalTo("value");
+        StringCondition objB = StringCondition.equalTo("other value");
+        StringCondition objC = StringCondition.contain("value");
+
+        EqualityTester.testEqualsAndHashCode(objA0, objA1, objA2, objB, objC);
+    }
+
     @Test
     public void testSerialization() {
         SemanticCompatibilityVerifier<StringCondition> semanticVerifier = new SemanticCompatibilityVerifier<StringCondition>() {
@@ -14,6 +14,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.opendaylight.persistence.util.common.filter.TimePeriodCondition.Mode;
 import org.opendaylight.persistence.util.common.type.TimePeriod;
+import org.opendaylight.persistence.util.test.EqualityTester;
 import org.opendaylight.persistence.util.test.SerializabilityTester;
 import org.opendaylight.persistence.util.test.SerializabilityTester.SemanticCompatibilityVerifier;
 
@@ -40,6 +41,18 @@ public class TimePeriodConditionTest {
         Assert.assertEquals(Mode.NOT_IN, condition.getMode());
     }
 
+    @Test
+    public void testEqualsAndHashCode() {
+        Date now = new Date();
+        TimePeriodCondition objA0 = TimePeriodCondition.in(TimePeriod.getDayPeriod(now, TimeZone.getDefault()));
+        TimePeriodCondition objA1 = TimePeriodCondition.in(TimePeriod.getDayPeriod(now, TimeZone.getDefault()));
+        TimePeriodCondition objA2 = TimePeriodCondition.in(TimePeriod.getDayPeriod(now, TimeZone.getDefault()));
+        TimePeriodCondition objB = TimePeriodCondition.in(TimePeriod.getHourPeriod(now, TimeZone.getDefault()));
+        TimePeriodCondition objC = TimePeriodCondition.notIn(TimePeriod.getDayPeriod(now, TimeZone.getDefault()));
+
+        EqualityTester.testEqualsAndHashCode(objA0, objA1, objA2, objB, objC);
+    }
+
     @Test
     public void testSerialization() {
         SemanticCompatibilityVerifier<TimePeriodCondition> semanticVerifier = new SemanticCompatibilityVerifier<TimePeriodCondition>() {
@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings({ "javadoc" })
+public class SnapshotReaderTest {
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        this.file = Files.createTempFile("snapshot", ".bin");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.file);
+    }
+
+    @Test
+    public void testEmptySnapshot() throws IOException {
+        try (SnapshotWriter writer = SnapshotWriter.open(this.file)) {
+            Assert.assertEquals(0, writer.getRecordCount());
+        }
+
+        try (SnapshotReader reader = SnapshotReader.open(this.file)) {
+            Assert.assertNull(reader.readBlock());
+            Assert.assertNull(reader.readBlock());
+        }
+    }
+
+    @Test
+    public void testReadBlock() throws IOException {
+        List<byte[]> records = createRecords(100);
+
+        // Blocks hold 10 records of 12 bytes (including the length prefix)
+        try (SnapshotWriter writer = SnapshotWriter.open(this.file, 120)) {
+            for (byte[] record : records) {
+                writer.write(record);
+            }
+            Assert.assertEquals(records.size(), writer.getRecordCount());
+        }
+
+        List<byte[]> read = new ArrayList<byte[]>();
+        int blockCount = 0;
+        try (SnapshotReader reader = SnapshotReader.open(this.file)) {
+            List<byte[]> block;
+            while ((block = reader.readBlock()) != null) {
+                Assert.assertEquals(10, block.size());
+                read.addAll(block);
+                blockCount++;
+            }
+        }
+
+        Assert.assertEquals(10, blockCount);
+        assertRecords(records, read);
+    }
+
+    @Test
+    public void testOversizedRecord() throws IOException {
+        byte[] small = new byte[] { 1, 2, 3 };
+        byte[] oversized = new byte[100];
+        Arrays.fill(oversized, (byte) 7);
+        byte[] empty = new byte[0];
+
+        try (SnapshotWriter writer = SnapshotWriter.open(this.file, 16)) {
+            writer.write(small);
+            writer.write(oversized);
+            writer.write(empty);
+        }
+
+        try (SnapshotReader reader = SnapshotReader.open(this.file)) {
+            assertRecords(Arrays.asList(small), reader.readBlock());
+            assertRecords(Arrays.asList(oversized), reader.readBlock());
+            assertRecords(Arrays.asList(empty), reader.readBlock());
+            Assert.assertNull(reader.readBlock());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBlockSize() throws IOException {
+        SnapshotWriter.open(this.file, SnapshotWriter.RECORD_HEADER_SIZE);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWriteAfterClose() throws IOException {
+        SnapshotWriter writer = SnapshotWriter.open(this.file);
+        writer.close();
+        writer.write(new byte[1]);
+    }
+
+    @Test
+    public void testNotSnapshot() throws IOException {
+        Files.write(this.file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+        try {
+            SnapshotReader.open(this.file).close();
+            Assert.fail("Exception expected");
+        } catch (IOException e) {
+            Assert.assertEquals("Not a snapshot file", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testCorruptedBlock() throws IOException {
+        try (SnapshotWriter writer = SnapshotWriter.open(this.file, 120)) {
+            for (byte[] record : createRecords(20)) {
+                writer.write(record);
+            }
+        }
+
+        // Flips a byte of the second block's payload
+        long position = SnapshotWriter.FILE_HEADER_SIZE + 2 * SnapshotWriter.BLOCK_HEADER_SIZE + 120 + 5;
+        try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, position);
+            buffer.flip();
+            byte value = buffer.get();
+            buffer.clear();
+            buffer.put((byte) ~value).flip();
+            channel.write(buffer, position);
+        }
+
+        try (SnapshotReader reader = SnapshotReader.open(this.file)) {
+            Assert.assertEquals(10, reader.readBlock().size());
+            try {
+                reader.readBlock();
+                Assert.fail("Exception expected");
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage().contains("checksum mismatch"));
+            }
+        }
+    }
+
+    @Test
+    public void testCorruptedRecordCount() throws IOException {
+        try (SnapshotWriter writer = SnapshotWriter.open(this.file, 120)) {
+            for (byte[] record : createRecords(10)) {
+                writer.write(record);
+            }
+        }
+
+        // The record count is not covered by the checksum
+        try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4).putInt(Integer.MAX_VALUE);
+            buffer.flip();
+            channel.write(buffer, SnapshotWriter.FILE_HEADER_SIZE);
+        }
+
+        try (SnapshotReader reader = SnapshotReader.open(this.file)) {
+            reader.readBlock();
+            Assert.fail("Exception expected");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().contains("invalid block header"));
+        }
+    }
+
+    @Test
+    public void testTruncatedSnapshot() throws IOException {
+        try (SnapshotWriter writer = SnapshotWriter.open(this.file, 120)) {
+            for (byte[] record : createRecords(20)) {
+                writer.write(record);
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - SnapshotWriter.BLOCK_HEADER_SIZE - 1);
+        }
+
+        try (SnapshotReader reader = SnapshotReader.open(this.file)) {
+            Assert.assertEquals(10, reader.readBlock().size());
+            try {
+                reader.readBlock();
+                Assert.fail("Exception expected");
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage().contains("unexpected end of file"));
+            }
+        }
+    }
+
+    private static List<byte[]> createRecords(int count) {
+        List<byte[]> records = new ArrayList<byte[]>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(ByteBuffer.allocate(8).putLong(i).array());
+        }
+        return records;
+    }
+
+    private static void assertRecords(List<byte[]> expected, List<byte[]> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertArrayEquals(expected.get(i), actual.get(i));
+        }
+    }
+}
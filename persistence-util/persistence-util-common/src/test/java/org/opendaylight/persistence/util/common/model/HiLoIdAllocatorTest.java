@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.model;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.base.Supplier;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class HiLoIdAllocatorTest {
+
+    @Test
+    public void testNext() {
+        final AtomicInteger accessCount = new AtomicInteger();
+        final AtomicLong high = new AtomicLong(5);
+        HiLoIdAllocator allocator = new HiLoIdAllocator(3, new Supplier<Long>() {
+            @Override
+            public Long get() {
+                accessCount.incrementAndGet();
+                return Long.valueOf(high.getAndAdd(2));
+            }
+        });
+
+        Assert.assertEquals(3, allocator.getBlockSize());
+        long[] expected = { 15, 16, 17, 21, 22, 23, 27 };
+        for (long id : expected) {
+            Assert.assertEquals(Long.valueOf(id), allocator.next());
+        }
+        Assert.assertEquals(3, accessCount.get());
+    }
+
+    @Test
+    public void testStartingAfter() {
+        HiLoIdAllocator allocator = HiLoIdAllocator.startingAfter(10, 0);
+        Assert.assertEquals(Long.valueOf(10), allocator.next());
+
+        allocator = HiLoIdAllocator.startingAfter(10, 25);
+        Assert.assertEquals(Long.valueOf(30), allocator.next());
+
+        allocator = HiLoIdAllocator.startingAfter(10, 29);
+        Assert.assertEquals(Long.valueOf(30), allocator.next());
+
+        allocator = HiLoIdAllocator.startingAfter(10, 30);
+        Assert.assertEquals(Long.valueOf(40), allocator.next());
+    }
+
+    @Test
+    public void testInvalidConstruction() {
+        try {
+            HiLoIdAllocator.startingAfter(0, 0);
+            Assert.fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        try {
+            new HiLoIdAllocator(10, null);
+            Assert.fail("Exception expected");
+        } catch (NullPointerException e) {
+            // Expected
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInvalidHighValue() {
+        HiLoIdAllocator allocator = new HiLoIdAllocator(10, new Supplier<Long>() {
+            @Override
+            public Long get() {
+                return Long.valueOf(-1);
+            }
+        });
+        allocator.next();
+    }
+
+    @Test
+    public void testConcurrentNext() throws Exception {
+        final HiLoIdAllocator allocator = HiLoIdAllocator.startingAfter(7, 0);
+        final int threads = 4;
+        final int idsPerThread = 5000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<Long>>> futures = new ArrayList<Future<List<Long>>>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(new Callable<List<Long>>() {
+                    @Override
+                    public List<Long> call() {
+                        List<Long> ids = new ArrayList<Long>(idsPerThread);
+                        for (int i = 0; i < idsPerThread; i++) {
+                            ids.add(allocator.next());
+                        }
+                        return ids;
+                    }
+                }));
+            }
+
+            Set<Long> allIds = new HashSet<Long>();
+            for (Future<List<Long>> future : futures) {
+                allIds.addAll(future.get());
+            }
+            Assert.assertEquals(threads * idsPerThread, allIds.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
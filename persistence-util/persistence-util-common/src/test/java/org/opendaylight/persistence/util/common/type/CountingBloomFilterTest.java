@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.type;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class CountingBloomFilterTest {
+
+    @Test
+    public void testInvalidConstruction() {
+        try {
+            new CountingBloomFilter(0, 0.01);
+            Assert.fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        try {
+            new CountingBloomFilter(10, 0);
+            Assert.fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        try {
+            new CountingBloomFilter(10, 1);
+            Assert.fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testNoFalseNegatives() {
+        CountingBloomFilter filter = new CountingBloomFilter(1000, 0.01);
+        for (long i = 0; i < 1000; i++) {
+            filter.add(Long.valueOf(i));
+        }
+
+        Assert.assertEquals(1000, filter.getElementCount());
+        for (long i = 0; i < 1000; i++) {
+            Assert.assertTrue(filter.contains(Long.valueOf(i)));
+        }
+        Assert.assertFalse(filter.contains(null));
+    }
+
+    @Test
+    public void testFalsePositiveProbability() {
+        int expectedElements = 10000;
+        double probability = 0.01;
+        CountingBloomFilter filter = new CountingBloomFilter(expectedElements, probability);
+        Assert.assertEquals(0.0, filter.getExpectedFalsePositiveProbability(), 0.0);
+
+        for (long i = 0; i < expectedElements; i++) {
+            filter.add(Long.valueOf(i));
+        }
+
+        Assert.assertEquals(probability, filter.getExpectedFalsePositiveProbability(), probability / 2);
+
+        int falsePositives = 0;
+        int lookups = 100000;
+        for (long i = expectedElements; i < expectedElements + lookups; i++) {
+            if (filter.contains(Long.valueOf(i))) {
+                falsePositives++;
+            }
+        }
+
+        Assert.assertTrue("False positive rate too high: " + falsePositives, falsePositives < lookups * probability * 2);
+        Assert.assertEquals(7, filter.getHashFunctionCount());
+        Assert.assertEquals(filter.getCounterCount() / 2, filter.getMemoryUsage(), 8);
+    }
+
+    @Test
+    public void testRemove() {
+        CountingBloomFilter filter = new CountingBloomFilter(1000, 0.01);
+        for (long i = 0; i < 1000; i++) {
+            filter.add(Long.valueOf(i));
+        }
+
+        for (long i = 0; i < 1000; i += 2) {
+            filter.remove(Long.valueOf(i));
+        }
+
+        Assert.assertEquals(500, filter.getElementCount());
+        int present = 0;
+        for (long i = 0; i < 1000; i++) {
+            if (i % 2 == 1) {
+                Assert.assertTrue(filter.contains(Long.valueOf(i)));
+            } else if (filter.contains(Long.valueOf(i))) {
+                present++;
+            }
+        }
+        Assert.assertTrue("Too many removed elements reported: " + present, present < 50);
+
+        for (long i = 1; i < 1000; i += 2) {
+            filter.remove(Long.valueOf(i));
+        }
+
+        Assert.assertEquals(0, filter.getElementCount());
+        for (long i = 0; i < 1000; i++) {
+            Assert.assertFalse(filter.contains(Long.valueOf(i)));
+        }
+    }
+
+    @Test
+    public void testSaturation() {
+        CountingBloomFilter filter = new CountingBloomFilter(1, 0.5);
+        Long element = Long.valueOf(1);
+        for (int i = 0; i < 20; i++) {
+            filter.add(element);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            filter.remove(element);
+        }
+
+        // Saturated counters are never decremented: No false negatives after overflow
+        Assert.assertTrue(filter.contains(element));
+    }
+
+    @Test
+    public void testClear() {
+        CountingBloomFilter filter = new CountingBloomFilter(100, 0.01);
+        filter.add("hello");
+        Assert.assertTrue(filter.contains("hello"));
+
+        filter.clear();
+        Assert.assertFalse(filter.contains("hello"));
+        Assert.assertEquals(0, filter.getElementCount());
+    }
+
+    @Test
+    public void testConcurrentAdd() throws Exception {
+        final CountingBloomFilter filter = new CountingBloomFilter(40000, 0.01);
+        final int threads = 4;
+        final int elementsPerThread = 10000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int t = 0; t < threads; t++) {
+                final int offset = t * elementsPerThread;
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        for (int i = 0; i < elementsPerThread; i++) {
+                            filter.add(Integer.valueOf(offset + i));
+                        }
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(threads * elementsPerThread, filter.getElementCount());
+        for (int i = 0; i < threads * elementsPerThread; i++) {
+            Assert.assertTrue(filter.contains(Integer.valueOf(i)));
+        }
+    }
+}
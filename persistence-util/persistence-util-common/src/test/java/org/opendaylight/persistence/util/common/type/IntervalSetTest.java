@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.type;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.opendaylight.persistence.util.test.EqualityTester;
+import org.opendaylight.persistence.util.test.SerializabilityTester;
+import org.opendaylight.persistence.util.test.SerializabilityTester.SemanticCompatibilityVerifier;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class IntervalSetTest {
+
+    @Test
+    public void testNormalization() {
+        IntervalSet<Integer> set = IntervalSet.of(Interval.open(Integer.valueOf(5), Integer.valueOf(7)),
+                Interval.leftClosedRightOpen(Integer.valueOf(1), Integer.valueOf(3)),
+                Interval.closed(Integer.valueOf(2), Integer.valueOf(5)),
+                Interval.open(Integer.valueOf(9), Integer.valueOf(9)),
+                Interval.leftOpenRightUnbounded(Integer.valueOf(10)));
+
+        Assert.assertEquals(Arrays.asList(Interval.leftClosedRightOpen(Integer.valueOf(1), Integer.valueOf(7)),
+                Interval.leftOpenRightUnbounded(Integer.valueOf(10))), set.getIntervals());
+    }
+
+    @Test
+    public void testEmpty() {
+        Assert.assertTrue(IntervalSet.<Integer> empty().isEmpty());
+        Assert.assertTrue(IntervalSet.of(Collections.<Interval<Integer>> emptyList()).isEmpty());
+        Assert.assertTrue(IntervalSet.of(Interval.open(Integer.valueOf(1), Integer.valueOf(1))).isEmpty());
+        Assert.assertFalse(IntervalSet.of(Interval.closed(Integer.valueOf(1), Integer.valueOf(1))).isEmpty());
+        Assert.assertNull(IntervalSet.<Integer> empty().span());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testInvalidConstruction() {
+        IntervalSet.of(Interval.closed(Integer.valueOf(1), Integer.valueOf(2)), null);
+    }
+
+    @Test
+    public void testContains() {
+        IntervalSet<Integer> set = IntervalSet.of(Interval.open(Integer.valueOf(0), Integer.valueOf(2)),
+                Interval.closed(Integer.valueOf(4), Integer.valueOf(4)),
+                Interval.leftOpenRightUnbounded(Integer.valueOf(6)));
+
+        boolean[] expected = { false, true, false, false, true, false, false, true, true };
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals("element " + i, expected[i], set.contains(Integer.valueOf(i)));
+        }
+        Assert.assertFalse(set.contains(null));
+    }
+
+    @Test
+    public void testOverlapsAndEncloses() {
+        IntervalSet<Integer> set = IntervalSet.of(Interval.closed(Integer.valueOf(0), Integer.valueOf(2)),
+                Interval.closed(Integer.valueOf(4), Integer.valueOf(6)));
+
+        Assert.assertTrue(set.overlaps(Interval.open(Integer.valueOf(1), Integer.valueOf(3))));
+        Assert.assertFalse(set.overlaps(Interval.open(Integer.valueOf(2), Integer.valueOf(4))));
+        Assert.assertTrue(set.encloses(Interval.open(Integer.valueOf(4), Integer.valueOf(6))));
+        Assert.assertFalse(set.encloses(Interval.closed(Integer.valueOf(2), Integer.valueOf(4))));
+    }
+
+    @Test
+    public void testSpan() {
+        IntervalSet<Integer> set = IntervalSet.of(Interval.open(Integer.valueOf(0), Integer.valueOf(2)),
+                Interval.closed(Integer.valueOf(4), Integer.valueOf(6)));
+        Assert.assertEquals(Interval.leftOpenRightClosed(Integer.valueOf(0), Integer.valueOf(6)), set.span());
+    }
+
+    @Test
+    public void testUnion() {
+        IntervalSet<Integer> a = IntervalSet.of(Interval.leftClosedRightOpen(Integer.valueOf(0), Integer.valueOf(2)));
+        IntervalSet<Integer> b = IntervalSet.of(Interval.closed(Integer.valueOf(2), Integer.valueOf(3)),
+                Interval.closed(Integer.valueOf(5), Integer.valueOf(6)));
+
+        Assert.assertEquals(IntervalSet.of(Interval.closed(Integer.valueOf(0), Integer.valueOf(3)),
+                Interval.closed(Integer.valueOf(5), Integer.valueOf(6))), a.union(b));
+    }
+
+    @Test
+    public void testIntersection() {
+        IntervalSet<Integer> a = IntervalSet.of(Interval.closed(Integer.valueOf(0), Integer.valueOf(4)),
+                Interval.closed(Integer.valueOf(6), Integer.valueOf(10)));
+        IntervalSet<Integer> b = IntervalSet.of(Interval.open(Integer.valueOf(3), Integer.valueOf(7)),
+                Interval.leftClosedRightUnbounded(Integer.valueOf(9)));
+
+        Assert.assertEquals(IntervalSet.of(Interval.leftOpenRightClosed(Integer.valueOf(3), Integer.valueOf(4)),
+                Interval.leftClosedRightOpen(Integer.valueOf(6), Integer.valueOf(7)),
+                Interval.closed(Integer.valueOf(9), Integer.valueOf(10))), a.intersection(b));
+        Assert.assertTrue(a.intersection(IntervalSet.<Integer> empty()).isEmpty());
+    }
+
+    @Test
+    public void testComplement() {
+        IntervalSet<Integer> set = IntervalSet.of(Interval.leftClosedRightOpen(Integer.valueOf(0), Integer.valueOf(2)),
+                Interval.leftOpenRightUnbounded(Integer.valueOf(4)));
+
+        Assert.assertEquals(IntervalSet.of(Interval.leftUnboundedRightOpen(Integer.valueOf(0)),
+                Interval.closed(Integer.valueOf(2), Integer.valueOf(4))), set.complement());
+        Assert.assertEquals(set, set.complement().complement());
+        Assert.assertEquals(IntervalSet.of(Interval.<Integer> unbounded()), IntervalSet.<Integer> empty()
+                .complement());
+        Assert.assertTrue(IntervalSet.of(Interval.<Integer> unbounded()).complement().isEmpty());
+    }
+
+    @Test
+    public void testDifference() {
+        IntervalSet<Integer> set = IntervalSet.of(Interval.closed(Integer.valueOf(0), Integer.valueOf(10)));
+        IntervalSet<Integer> holes = IntervalSet.of(Interval.closed(Integer.valueOf(2), Integer.valueOf(3)),
+                Interval.open(Integer.valueOf(5), Integer.valueOf(7)));
+
+        Assert.assertEquals(IntervalSet.of(Interval.leftClosedRightOpen(Integer.valueOf(0), Integer.valueOf(2)),
+                Interval.leftOpenRightClosed(Integer.valueOf(3), Integer.valueOf(5)),
+                Interval.closed(Integer.valueOf(7), Integer.valueOf(10))), set.difference(holes));
+        Assert.assertEquals(set, set.difference(IntervalSet.<Integer> empty()));
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        IntervalSet<Integer> obj = IntervalSet.of(Interval.closed(Integer.valueOf(0), Integer.valueOf(2)));
+        IntervalSet<Integer> equal1 = IntervalSet.of(Interval.closed(Integer.valueOf(0), Integer.valueOf(1)),
+                Interval.closed(Integer.valueOf(1), Integer.valueOf(2)));
+        IntervalSet<Integer> equal2 = IntervalSet.of(Interval.leftClosedRightOpen(Integer.valueOf(0),
+                Integer.valueOf(2)), Interval.closed(Integer.valueOf(2), Integer.valueOf(2)));
+        IntervalSet<Integer> unequal = IntervalSet.of(Interval.open(Integer.valueOf(0), Integer.valueOf(2)));
+
+        EqualityTester.testEqualsAndHashCode(obj, equal1, equal2, unequal);
+    }
+
+    @Test
+    public void testSerialization() {
+        SemanticCompatibilityVerifier<IntervalSet<Integer>> semanticVerifier = new SemanticCompatibilityVerifier<IntervalSet<Integer>>() {
+            @Override
+            public void assertSemanticCompatibility(IntervalSet<Integer> original, IntervalSet<Integer> replica) {
+                Assert.assertEquals(original.getIntervals(), replica.getIntervals());
+            }
+        };
+
+        SerializabilityTester.testSerialization(IntervalSet.of(Interval.closed(Integer.valueOf(0), Integer.valueOf(3)),
+                Interval.leftOpenRightUnbounded(Integer.valueOf(5))), semanticVerifier);
+    }
+
+    @Test
+    public void testToString() {
+        Assert.assertFalse(IntervalSet.of(Interval.closed(Integer.valueOf(0), Integer.valueOf(3))).toString()
+                .isEmpty());
+    }
+}
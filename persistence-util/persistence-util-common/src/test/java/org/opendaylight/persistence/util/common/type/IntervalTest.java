@@ -8,6 +8,7 @@
 package org.opendaylight.persistence.util.common.type;
 
 import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -381,4 +382,119 @@ public class IntervalTest {
         Interval<Integer> interval = new Interval<Integer>(Integer.valueOf(0), Integer.valueOf(3), Type.CLOSED);
         Assert.assertFalse(interval.toString().isEmpty());
     }
+    @Test
+    public void testIntersection() {
+        Interval<Integer> closed = Interval.closed(Integer.valueOf(1), Integer.valueOf(5));
+
+        Assert.assertEquals(Interval.leftOpenRightClosed(Integer.valueOf(3), Integer.valueOf(5)),
+                closed.intersection(Interval.open(Integer.valueOf(3), Integer.valueOf(8))));
+        Assert.assertEquals(Interval.closed(Integer.valueOf(5), Integer.valueOf(5)),
+                closed.intersection(Interval.closed(Integer.valueOf(5), Integer.valueOf(8))));
+        Assert.assertNull(closed.intersection(Interval.open(Integer.valueOf(5), Integer.valueOf(8))));
+        Assert.assertNull(closed.intersection(Interval.leftUnboundedRightOpen(Integer.valueOf(1))));
+        Assert.assertEquals(closed, closed.intersection(Interval.<Integer> unbounded()));
+        Assert.assertEquals(Interval.leftClosedRightOpen(Integer.valueOf(2), Integer.valueOf(4)),
+                Interval.leftClosedRightUnbounded(Integer.valueOf(2)).intersection(
+                        Interval.leftUnboundedRightOpen(Integer.valueOf(4))));
+        Assert.assertNull(Interval.open(Integer.valueOf(1), Integer.valueOf(1)).intersection(closed));
+    }
+
+    @Test
+    public void testOverlaps() {
+        Interval<Integer> interval = Interval.leftClosedRightOpen(Integer.valueOf(1), Integer.valueOf(5));
+
+        Assert.assertTrue(interval.overlaps(Interval.closed(Integer.valueOf(4), Integer.valueOf(9))));
+        Assert.assertFalse(interval.overlaps(Interval.closed(Integer.valueOf(5), Integer.valueOf(9))));
+        Assert.assertTrue(interval.overlaps(Interval.leftUnboundedRightClosed(Integer.valueOf(1))));
+        Assert.assertFalse(interval.overlaps(Interval.leftUnboundedRightOpen(Integer.valueOf(1))));
+        Assert.assertTrue(interval.overlaps(Interval.<Integer> unbounded()));
+    }
+
+    @Test
+    public void testEncloses() {
+        Interval<Integer> interval = Interval.closed(Integer.valueOf(1), Integer.valueOf(9));
+
+        Assert.assertTrue(interval.encloses(Interval.open(Integer.valueOf(1), Integer.valueOf(9))));
+        Assert.assertTrue(interval.encloses(interval));
+        Assert.assertFalse(Interval.open(Integer.valueOf(1), Integer.valueOf(9)).encloses(interval));
+        Assert.assertFalse(interval.encloses(Interval.leftClosedRightUnbounded(Integer.valueOf(2))));
+        Assert.assertTrue(Interval.<Integer> unbounded().encloses(interval));
+    }
+
+    @Test
+    public void testIsConnected() {
+        Interval<Integer> interval = Interval.leftClosedRightOpen(Integer.valueOf(1), Integer.valueOf(5));
+
+        Assert.assertTrue(interval.isConnected(Interval.closed(Integer.valueOf(5), Integer.valueOf(9))));
+        Assert.assertFalse(interval.isConnected(Interval.open(Integer.valueOf(5), Integer.valueOf(9))));
+        Assert.assertFalse(interval.isConnected(Interval.leftUnboundedRightClosed(Integer.valueOf(0))));
+        Assert.assertTrue(interval.isConnected(Interval.leftUnboundedRightOpen(Integer.valueOf(1))));
+        Assert.assertFalse(Interval.open(Integer.valueOf(5), Integer.valueOf(6)).isConnected(interval));
+    }
+
+    @Test
+    public void testSpan() {
+        Assert.assertEquals(Interval.leftClosedRightOpen(Integer.valueOf(1), Integer.valueOf(9)),
+                Interval.closed(Integer.valueOf(1), Integer.valueOf(2)).span(
+                        Interval.open(Integer.valueOf(5), Integer.valueOf(9))));
+        Assert.assertEquals(Interval.leftUnboundedRightClosed(Integer.valueOf(9)),
+                Interval.closed(Integer.valueOf(1), Integer.valueOf(9)).span(
+                        Interval.leftUnboundedRightOpen(Integer.valueOf(3))));
+        Assert.assertEquals(Interval.unbounded(), Interval.leftOpenRightUnbounded(Integer.valueOf(1)).span(
+                Interval.leftUnboundedRightOpen(Integer.valueOf(0))));
+    }
+
+    @Test
+    public void testUnion() {
+        Assert.assertEquals(IntervalSet.of(Interval.closed(Integer.valueOf(1), Integer.valueOf(9))),
+                Interval.leftClosedRightOpen(Integer.valueOf(1), Integer.valueOf(5)).union(
+                        Interval.closed(Integer.valueOf(5), Integer.valueOf(9))));
+        Assert.assertEquals(2, Interval.open(Integer.valueOf(1), Integer.valueOf(5))
+                .union(Interval.open(Integer.valueOf(5), Integer.valueOf(9))).getIntervals().size());
+    }
+
+    @Test
+    public void testDifference() {
+        Interval<Integer> interval = Interval.closed(Integer.valueOf(1), Integer.valueOf(9));
+
+        Assert.assertEquals(IntervalSet.of(Interval.leftClosedRightOpen(Integer.valueOf(1), Integer.valueOf(3)),
+                Interval.leftOpenRightClosed(Integer.valueOf(5), Integer.valueOf(9))),
+                interval.difference(Interval.closed(Integer.valueOf(3), Integer.valueOf(5))));
+        Assert.assertEquals(IntervalSet.of(Interval.closed(Integer.valueOf(1), Integer.valueOf(1))),
+                interval.difference(Interval.leftOpenRightUnbounded(Integer.valueOf(1))));
+        Assert.assertEquals(IntervalSet.of(interval),
+                interval.difference(Interval.leftUnboundedRightOpen(Integer.valueOf(1))));
+        Assert.assertTrue(interval.difference(Interval.<Integer> unbounded()).isEmpty());
+    }
+
+    @Test
+    public void testAlgebraAcrossTypes() {
+        Integer zero = Integer.valueOf(0);
+        Integer five = Integer.valueOf(5);
+        List<Interval<Integer>> intervals = Arrays.asList(Interval.open(zero, five), Interval.closed(zero, five),
+                Interval.leftClosedRightOpen(zero, five), Interval.leftOpenRightClosed(zero, five),
+                Interval.leftOpenRightUnbounded(zero), Interval.leftClosedRightUnbounded(zero),
+                Interval.leftUnboundedRightOpen(five), Interval.leftUnboundedRightClosed(five),
+                Interval.<Integer> unbounded());
+
+        for (Interval<Integer> a : intervals) {
+            for (Interval<Integer> b : intervals) {
+                Interval<Integer> intersection = a.intersection(b);
+                Interval<Integer> span = a.span(b);
+                IntervalSet<Integer> difference = a.difference(b);
+                for (int i = -2; i <= 7; i++) {
+                    Integer element = Integer.valueOf(i);
+                    boolean inA = a.contains(element);
+                    boolean inB = b.contains(element);
+                    Assert.assertEquals(inA && inB, intersection != null && intersection.contains(element));
+                    Assert.assertEquals(inA || inB, a.union(b).contains(element));
+                    Assert.assertEquals(inA && !inB, difference.contains(element));
+                    if (inA || inB) {
+                        Assert.assertTrue(span.contains(element));
+                    }
+                }
+                Assert.assertTrue(span.encloses(a) && span.encloses(b));
+            }
+        }
+    }
 }
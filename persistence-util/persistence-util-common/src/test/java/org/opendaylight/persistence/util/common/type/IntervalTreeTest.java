@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.type;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class IntervalTreeTest {
+
+    @Test
+    public void testQuery() {
+        IntervalTree<Integer, String> tree = IntervalTree.<Integer, String> builder()
+                .add(Interval.closed(Integer.valueOf(0), Integer.valueOf(5)), "a")
+                .add(Interval.open(Integer.valueOf(5), Integer.valueOf(9)), "b")
+                .add(Interval.leftUnboundedRightOpen(Integer.valueOf(2)), "c")
+                .add(Interval.leftClosedRightUnbounded(Integer.valueOf(8)), "d")
+                .add(Interval.open(Integer.valueOf(3), Integer.valueOf(3)), "empty").build();
+
+        Assert.assertEquals(4, tree.size());
+        Assert.assertEquals(Arrays.asList("a", "c"), sorted(tree.stab(Integer.valueOf(1))));
+        Assert.assertEquals(Arrays.asList("a"), tree.stab(Integer.valueOf(5)));
+        Assert.assertEquals(Arrays.asList("b", "d"), sorted(tree.stab(Integer.valueOf(8))));
+        Assert.assertEquals(Arrays.asList("a", "b", "d"),
+                sorted(tree.query(Interval.closed(Integer.valueOf(3), Integer.valueOf(8)))));
+        Assert.assertEquals(Arrays.asList("a", "b", "c", "d"), sorted(tree.query(Interval.<Integer> unbounded())));
+        Assert.assertTrue(tree.query(Interval.open(Integer.valueOf(4), Integer.valueOf(4))).isEmpty());
+    }
+
+    @Test
+    public void testEmptyTree() {
+        IntervalTree<Integer, String> tree = IntervalTree.<Integer, String> builder().build();
+        Assert.assertEquals(0, tree.size());
+        Assert.assertTrue(tree.query(Interval.<Integer> unbounded()).isEmpty());
+    }
+
+    @Test
+    public void testQueryAgainstBruteForce() {
+        Random random = new Random(7);
+        List<Interval<Integer>> intervals = new ArrayList<Interval<Integer>>();
+        IntervalTree.Builder<Integer, Integer> builder = IntervalTree.builder();
+        for (int i = 0; i < 500; i++) {
+            Interval<Integer> interval = randomInterval(random);
+            if (interval.hasElements()) {
+                builder.add(interval, Integer.valueOf(intervals.size()));
+                intervals.add(interval);
+            }
+        }
+        IntervalTree<Integer, Integer> tree = builder.build();
+
+        for (int i = 0; i < 200; i++) {
+            Interval<Integer> query = randomInterval(random);
+            List<Integer> expected = new ArrayList<Integer>();
+            for (int j = 0; j < intervals.size(); j++) {
+                if (intervals.get(j).overlaps(query)) {
+                    expected.add(Integer.valueOf(j));
+                }
+            }
+
+            List<Integer> actual = tree.query(query);
+            Collections.sort(actual);
+            Assert.assertEquals(expected, actual);
+        }
+    }
+
+    private static Interval<Integer> randomInterval(Random random) {
+        Integer left = Integer.valueOf(random.nextInt(1000));
+        Integer right = Integer.valueOf(left.intValue() + random.nextInt(50));
+        Interval.Type type = Interval.Type.values()[random.nextInt(Interval.Type.values().length)];
+        switch (type) {
+            case UNBOUNDED:
+                return Interval.unbounded();
+            case LEFT_OPEN_RIGHT_UNBOUNDED:
+            case LEFT_CLOSED_RIGHT_UNBOUNDED:
+                return new Interval<Integer>(left, null, type);
+            case LEFT_UNBOUNDED_RIGHT_OPEN:
+            case LEFT_UNBOUNDED_RIGHT_CLOSED:
+                return new Interval<Integer>(null, right, type);
+            default:
+                return new Interval<Integer>(left, right, type);
+        }
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> copy = new ArrayList<String>(values);
+        Collections.sort(copy);
+        return copy;
+    }
+}
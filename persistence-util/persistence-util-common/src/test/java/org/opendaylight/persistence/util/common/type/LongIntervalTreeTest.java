@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.type;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class LongIntervalTreeTest {
+
+    @Test
+    public void testQuery() {
+        LongIntervalTree<String> tree = LongIntervalTree.<String> builder().add(0, 5, "a").add(6, 8, "b")
+                .add(Long.MIN_VALUE, 1, "c").add(8, Long.MAX_VALUE, "d").add(4, 3, "empty").build();
+
+        Assert.assertEquals(4, tree.size());
+        Assert.assertEquals(Arrays.asList("a", "c"), sorted(tree.stab(1)));
+        Assert.assertEquals(Arrays.asList("a"), tree.stab(5));
+        Assert.assertEquals(Arrays.asList("b", "d"), sorted(tree.stab(8)));
+        Assert.assertEquals(Arrays.asList("a", "b"), sorted(tree.query(3, 7)));
+        Assert.assertTrue(tree.query(4, 3).isEmpty());
+    }
+
+    @Test
+    public void testTimePeriod() {
+        LongIntervalTree<String> tree = LongIntervalTree.<String> builder()
+                .add(new TimePeriod(new Date(1000), new Date(2000)), "a")
+                .add(Interval.open(new Date(2000), new Date(3000)), "b")
+                .add(Interval.leftClosedRightUnbounded(new Date(3000)), "c").build();
+
+        Assert.assertEquals(Arrays.asList("a"), tree.query(new TimePeriod(new Date(0), new Date(2000))));
+        Assert.assertEquals(Arrays.asList("b", "c"),
+                sorted(tree.query(Interval.leftOpenRightUnbounded(new Date(2000)))));
+        Assert.assertEquals(Arrays.asList("a", "b"),
+                sorted(tree.query(Interval.leftUnboundedRightOpen(new Date(3000)))));
+    }
+
+    @Test
+    public void testOpenEndpointsAtLimits() {
+        LongIntervalTree<String> tree = LongIntervalTree.<String> builder()
+                .add(Interval.leftOpenRightUnbounded(new Date(Long.MAX_VALUE)), "empty-right")
+                .add(Interval.leftUnboundedRightOpen(new Date(Long.MIN_VALUE)), "empty-left")
+                .add(Interval.leftOpenRightClosed(new Date(Long.MAX_VALUE - 1), new Date(Long.MAX_VALUE)), "max")
+                .add(Interval.leftClosedRightOpen(new Date(Long.MIN_VALUE), new Date(Long.MIN_VALUE + 1)), "min")
+                .build();
+
+        Assert.assertEquals(2, tree.size());
+        Assert.assertEquals(Arrays.asList("max"), tree.stab(Long.MAX_VALUE));
+        Assert.assertEquals(Arrays.asList("min"), tree.stab(Long.MIN_VALUE));
+        Assert.assertTrue(tree.stab(0).isEmpty());
+
+        Assert.assertTrue(tree.query(Interval.leftOpenRightUnbounded(new Date(Long.MAX_VALUE))).isEmpty());
+        Assert.assertTrue(tree.query(Interval.leftUnboundedRightOpen(new Date(Long.MIN_VALUE))).isEmpty());
+        Assert.assertEquals(Arrays.asList("max", "min"), sorted(tree.query(Interval.<Date> unbounded())));
+    }
+
+    @Test
+    public void testQueryAgainstBruteForce() {
+        Random random = new Random(11);
+        LongIntervalTree.Builder<Integer> builder = LongIntervalTree.builder();
+        List<long[]> intervals = new ArrayList<long[]>();
+        for (int i = 0; i < 1000; i++) {
+            long low = random.nextInt(10000);
+            long high = low + random.nextInt(100);
+            builder.add(low, high, Integer.valueOf(i));
+            intervals.add(new long[] { low, high });
+        }
+        LongIntervalTree<Integer> tree = builder.build();
+
+        for (int i = 0; i < 200; i++) {
+            long low = random.nextInt(10000);
+            long high = low + random.nextInt(200);
+            List<Integer> expected = new ArrayList<Integer>();
+            for (int j = 0; j < intervals.size(); j++) {
+                if (intervals.get(j)[0] <= high && intervals.get(j)[1] >= low) {
+                    expected.add(Integer.valueOf(j));
+                }
+            }
+
+            List<Integer> actual = tree.query(low, high);
+            Collections.sort(actual);
+            Assert.assertEquals(expected, actual);
+        }
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> copy = new ArrayList<String>(values);
+        Collections.sort(copy);
+        return copy;
+    }
+}
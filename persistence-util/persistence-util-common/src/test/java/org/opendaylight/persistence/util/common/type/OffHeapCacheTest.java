@@ -0,0 +1,278 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.common.type;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.opendaylight.persistence.util.common.codec.ValueCodecs;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class OffHeapCacheTest {
+
+    private static final int SLAB_SIZE = 1024;
+
+    @Test
+    public void testInvalidConstruction() {
+        try {
+            new OffHeapCache<Long, String>(ValueCodecs.LONG, ValueCodecs.STRING, 1024 * 1024, 3, SLAB_SIZE);
+            Assert.fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        try {
+            new OffHeapCache<Long, String>(ValueCodecs.LONG, ValueCodecs.STRING, 1024 * 1024, 1, 16);
+            Assert.fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        try {
+            new OffHeapCache<Long, String>(ValueCodecs.LONG, ValueCodecs.STRING, SLAB_SIZE, 1, SLAB_SIZE);
+            Assert.fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testDefaultConstruction() {
+        OffHeapCache<Long, String> cache = new OffHeapCache<Long, String>(ValueCodecs.LONG, ValueCodecs.STRING,
+                64 * 1024 * 1024);
+        Assert.assertEquals(64 * 1024 * 1024, cache.getCapacity());
+        Assert.assertEquals(0, cache.getAllocatedBytes());
+        cache.put(Long.valueOf(1), "value");
+        // A slab: The capacity is shared by the default segments, 8 slabs each
+        Assert.assertEquals(64 * 1024 * 1024 / OffHeapCache.DEFAULT_SEGMENT_COUNT / 8, cache.getAllocatedBytes());
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        OffHeapCache<Long, String> cache = createCache(64 * SLAB_SIZE);
+        Long key = Long.valueOf(1);
+
+        Assert.assertNull(cache.get(key));
+        Assert.assertFalse(cache.contains(key));
+
+        cache.put(key, "value 1");
+        Assert.assertTrue(cache.contains(key));
+        Assert.assertEquals("value 1", cache.get(key));
+        Assert.assertEquals(1, cache.getEntryCount());
+        long residentBytes = cache.getResidentBytes();
+        Assert.assertTrue(residentBytes > 0);
+
+        cache.put(key, "value 2 (longer)");
+        Assert.assertEquals("value 2 (longer)", cache.get(key));
+        Assert.assertEquals(1, cache.getEntryCount());
+        Assert.assertEquals(residentBytes + 9, cache.getResidentBytes());
+
+        cache.remove(key);
+        Assert.assertNull(cache.get(key));
+        Assert.assertEquals(0, cache.getEntryCount());
+        Assert.assertEquals(0, cache.getResidentBytes());
+
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+        Assert.assertEquals(0.5, cache.getHitRate(), 0.0);
+    }
+
+    @Test
+    public void testManyEntries() {
+        OffHeapCache<Long, String> cache = createCache(64 * SLAB_SIZE);
+        int count = 1000;
+        for (long i = 0; i < count; i++) {
+            cache.put(Long.valueOf(i), "value " + i);
+        }
+
+        Assert.assertEquals(count, cache.getEntryCount());
+        Assert.assertEquals(0, cache.getEvictionCount());
+        for (long i = 0; i < count; i++) {
+            Assert.assertEquals("value " + i, cache.get(Long.valueOf(i)));
+        }
+
+        for (long i = 0; i < count; i += 2) {
+            cache.remove(Long.valueOf(i));
+        }
+
+        Assert.assertEquals(count / 2, cache.getEntryCount());
+        for (long i = 0; i < count; i++) {
+            Assert.assertEquals(i % 2 == 0 ? null : "value " + i, cache.get(Long.valueOf(i)));
+        }
+    }
+
+    @Test
+    public void testCopyOnRead() {
+        OffHeapCache<Long, byte[]> cache = new OffHeapCache<Long, byte[]>(ValueCodecs.LONG, ValueCodecs.BYTE_ARRAY,
+                4 * SLAB_SIZE, 1, SLAB_SIZE);
+        Long key = Long.valueOf(1);
+        byte[] value = new byte[] { 1, 2, 3 };
+        cache.put(key, value);
+
+        value[0] = 0;
+        byte[] cached = cache.get(key);
+        Assert.assertArrayEquals(new byte[] { 1, 2, 3 }, cached);
+
+        cached[0] = 0;
+        Assert.assertArrayEquals(new byte[] { 1, 2, 3 }, cache.get(key));
+    }
+
+    @Test
+    public void testEviction() {
+        OffHeapCache<Long, String> cache = createCache(4 * SLAB_SIZE);
+        int count = 1000;
+        for (long i = 0; i < count; i++) {
+            cache.put(Long.valueOf(i), "value " + i);
+        }
+
+        long entryCount = cache.getEntryCount();
+        Assert.assertTrue(entryCount < count);
+        Assert.assertEquals(count - entryCount, cache.getEvictionCount());
+        Assert.assertTrue(cache.getResidentBytes() <= cache.getCapacity());
+        Assert.assertEquals(cache.getCapacity(), cache.getAllocatedBytes());
+
+        // Oldest entries are evicted first
+        Assert.assertNull(cache.get(Long.valueOf(0)));
+        Assert.assertEquals("value " + (count - 1), cache.get(Long.valueOf(count - 1)));
+
+        int cached = 0;
+        for (long i = 0; i < count; i++) {
+            String value = cache.get(Long.valueOf(i));
+            if (value != null) {
+                Assert.assertEquals("value " + i, value);
+                cached++;
+            }
+        }
+        Assert.assertEquals(entryCount, cached);
+    }
+
+    @Test
+    public void testSecondChance() {
+        OffHeapCache<Long, String> cache = createCache(4 * SLAB_SIZE);
+        Long hotKey = Long.valueOf(-1);
+        cache.put(hotKey, "hot");
+
+        for (long i = 0; i < 1000; i++) {
+            cache.put(Long.valueOf(i), "value " + i);
+            Assert.assertEquals("hot", cache.get(hotKey));
+        }
+
+        Assert.assertTrue(cache.getEvictionCount() > 0);
+    }
+
+    @Test
+    public void testRejected() {
+        OffHeapCache<Long, String> cache = createCache(4 * SLAB_SIZE);
+        Long key = Long.valueOf(1);
+        cache.put(key, "value");
+
+        StringBuilder largeValue = new StringBuilder(SLAB_SIZE);
+        for (int i = 0; i < SLAB_SIZE; i++) {
+            largeValue.append('x');
+        }
+        cache.put(key, largeValue.toString());
+
+        // The previous value must not be kept
+        Assert.assertNull(cache.get(key));
+        Assert.assertEquals(1, cache.getRejectedCount());
+        Assert.assertEquals(0, cache.getEntryCount());
+    }
+
+    @Test
+    public void testPutIfUnmodified() {
+        OffHeapCache<Long, String> cache = createCache(4 * SLAB_SIZE);
+        Long key = Long.valueOf(1);
+
+        long stamp = cache.getModificationStamp(key);
+        Assert.assertTrue(cache.putIfUnmodified(key, "loaded", stamp));
+        Assert.assertEquals("loaded", cache.get(key));
+
+        // Already cached
+        Assert.assertFalse(cache.putIfUnmodified(key, "loaded again", cache.getModificationStamp(key)));
+        Assert.assertEquals("loaded", cache.get(key));
+
+        stamp = cache.getModificationStamp(key);
+        cache.remove(key);
+        Assert.assertFalse(cache.putIfUnmodified(key, "stale", stamp));
+        Assert.assertNull(cache.get(key));
+
+        stamp = cache.getModificationStamp(key);
+        cache.put(key, "updated");
+        cache.remove(key);
+        Assert.assertFalse(cache.putIfUnmodified(key, "stale", stamp));
+        Assert.assertNull(cache.get(key));
+    }
+
+    @Test
+    public void testClear() {
+        OffHeapCache<Long, String> cache = createCache(4 * SLAB_SIZE);
+        for (long i = 0; i < 1000; i++) {
+            cache.put(Long.valueOf(i), "value " + i);
+        }
+        long allocatedBytes = cache.getAllocatedBytes();
+
+        cache.clear();
+        Assert.assertEquals(0, cache.getEntryCount());
+        Assert.assertEquals(0, cache.getResidentBytes());
+        Assert.assertEquals(allocatedBytes, cache.getAllocatedBytes());
+        Assert.assertNull(cache.get(Long.valueOf(999)));
+
+        cache.put(Long.valueOf(1), "value");
+        Assert.assertEquals("value", cache.get(Long.valueOf(1)));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final OffHeapCache<Long, String> cache = new OffHeapCache<Long, String>(ValueCodecs.LONG,
+                ValueCodecs.STRING, 16 * 4 * SLAB_SIZE, 4, SLAB_SIZE);
+        int threadCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int t = 0; t < threadCount; t++) {
+                final long base = t * 100000L;
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        for (long i = base; i < base + 5000; i++) {
+                            Long key = Long.valueOf(i);
+                            cache.put(key, "value " + i);
+                            String value = cache.get(key);
+                            if (value != null) {
+                                Assert.assertEquals("value " + i, value);
+                            }
+                            if (i % 3 == 0) {
+                                cache.remove(key);
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertTrue(cache.getResidentBytes() <= cache.getCapacity());
+        Assert.assertTrue(cache.getEvictionCount() > 0);
+    }
+
+    private static OffHeapCache<Long, String> createCache(long capacity) {
+        return new OffHeapCache<Long, String>(ValueCodecs.LONG, ValueCodecs.STRING, capacity, 1, SLAB_SIZE);
+    }
+}
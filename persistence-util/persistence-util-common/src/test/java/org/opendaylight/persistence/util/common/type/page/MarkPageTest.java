@@ -9,6 +9,8 @@ package org.opendaylight.persistence.util.common.type.page;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.opendaylight.persistence.util.common.Converter;
+import org.opendaylight.persistence.util.common.converter.ParallelConverter;
 import org.opendaylight.persistence.util.test.SerializabilityTester;
 import org.opendaylight.persistence.util.test.ThrowableTester;
 
@@ -91,4 +93,43 @@ public class MarkPageTest {
         Assert.assertEquals(new MarkPageRequest<String>("Element 4", MarkPageRequest.Navigation.PREVIOUS, 3),
                 page.getPreviousPageRequest());
     }
+
+    @Test
+    public void testConvert() {
+        MarkPage<Integer> page = new MarkPage<Integer>(new MarkPageRequest<Integer>(Integer.valueOf(0),
+                MarkPageRequest.Navigation.NEXT, 3), Arrays.asList(Integer.valueOf(1), Integer.valueOf(2),
+                Integer.valueOf(3)));
+
+        MarkPage<String> converted = page.convert(new ToStringConverter());
+        Assert.assertEquals(Arrays.asList("1", "2", "3"), converted.getData());
+        Assert.assertEquals("0", converted.getRequest().getMark());
+        Assert.assertEquals(page.getRequest().getNavigation(), converted.getRequest().getNavigation());
+
+        converted = page.convert(new ToStringConverter(), new ParallelConverter(2));
+        Assert.assertEquals(Arrays.asList("1", "2", "3"), converted.getData());
+        Assert.assertEquals("0", converted.getRequest().getMark());
+    }
+
+    @Test
+    public void testConvertLazily() {
+        MarkPage<Integer> page = new MarkPage<Integer>(new MarkPageRequest<Integer>(3), Arrays.asList(
+                Integer.valueOf(1), Integer.valueOf(2), Integer.valueOf(3)));
+
+        ToStringConverter converter = new ToStringConverter();
+        MarkPage<String> converted = page.convertLazily(converter);
+        Assert.assertEquals(0, converter.count);
+        Assert.assertEquals("3", converted.getData().get(2));
+        Assert.assertEquals(1, converter.count);
+        Assert.assertNull(converted.getRequest().getMark());
+    }
+
+    private static class ToStringConverter implements Converter<Integer, String> {
+        private int count;
+
+        @Override
+        public String convert(Integer source) {
+            this.count++;
+            return source.toString();
+        }
+    }
 }
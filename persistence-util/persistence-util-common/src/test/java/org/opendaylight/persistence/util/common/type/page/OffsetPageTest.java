@@ -9,6 +9,8 @@ package org.opendaylight.persistence.util.common.type.page;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.opendaylight.persistence.util.common.Converter;
+import org.opendaylight.persistence.util.common.converter.ParallelConverter;
 import org.opendaylight.persistence.util.test.SerializabilityTester;
 import org.opendaylight.persistence.util.test.SerializabilityTester.SemanticCompatibilityVerifier;
 import org.opendaylight.persistence.util.test.ThrowableTester;
@@ -162,6 +164,59 @@ public class OffsetPageTest {
 
         return data;
     }
-}
 
+    @Test
+    public void testConvert() {
+        OffsetPage<Integer> page = new OffsetPage<Integer>(new OffsetPageRequest(0, 3), Arrays.asList(
+                Integer.valueOf(1), Integer.valueOf(2), Integer.valueOf(3)), 10);
+
+        OffsetPage<String> converted = page.convert(new ToStringConverter());
+        Assert.assertEquals(Arrays.asList("1", "2", "3"), converted.getData());
+        Assert.assertEquals(page.getRequest(), converted.getRequest());
+        Assert.assertEquals(page.getTotalRecordCount(), converted.getTotalRecordCount());
+
+        converted = page.convert(new ToStringConverter(), new ParallelConverter(2));
+        Assert.assertEquals(Arrays.asList("1", "2", "3"), converted.getData());
+        Assert.assertEquals(page.getTotalRecordCount(), converted.getTotalRecordCount());
+    }
+
+    @Test
+    public void testConvertLazily() {
+        OffsetPage<Integer> page = new OffsetPage<Integer>(new OffsetPageRequest(0, 3), Arrays.asList(
+                Integer.valueOf(1), Integer.valueOf(2), Integer.valueOf(3)), 10);
+
+        ToStringConverter converter = new ToStringConverter();
+        OffsetPage<String> converted = page.convertLazily(converter);
+        Assert.assertEquals(0, converter.count);
+        Assert.assertEquals(3, converted.getData().size());
+        Assert.assertEquals("2", converted.getData().get(1));
+        Assert.assertEquals("2", converted.getData().get(1));
+        Assert.assertEquals(1, converter.count);
+        Assert.assertEquals(page.getTotalRecordCount(), converted.getTotalRecordCount());
+    }
 
+    @Test
+    public void testConvertLazilySerialization() {
+        SemanticCompatibilityVerifier<OffsetPage<String>> semanticVerifier = new SemanticCompatibilityVerifier<OffsetPage<String>>() {
+            @Override
+            public void assertSemanticCompatibility(OffsetPage<String> original, OffsetPage<String> replica) {
+                Assert.assertEquals(original.getData(), replica.getData());
+                Assert.assertEquals(original.getTotalRecordCount(), replica.getTotalRecordCount());
+            }
+        };
+
+        OffsetPage<Integer> page = new OffsetPage<Integer>(new OffsetPageRequest(0, 3), Arrays.asList(
+                Integer.valueOf(1), Integer.valueOf(2)), 2);
+        SerializabilityTester.testSerialization(page.convertLazily(new ToStringConverter()), semanticVerifier);
+    }
+
+    private static class ToStringConverter implements Converter<Integer, String> {
+        private int count;
+
+        @Override
+        public String convert(Integer source) {
+            this.count++;
+            return source.toString();
+        }
+    }
+}
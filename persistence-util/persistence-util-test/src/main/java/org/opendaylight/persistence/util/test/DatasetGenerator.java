@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reproducible generator of large datasets.
+ * <p>
+ * Records are generated lazily while iterating, so datasets of millions of records don't need to
+ * fit in memory. Every iteration starts from the same seed, thus it produces the same records in
+ * the same order.
+ * <p>
+ * Example:
+ * 
+ * <pre>
+ * DatasetGenerator&lt;Person&gt; people = new DatasetGenerator&lt;Person&gt;(SEED, 1000000) {
+ *     &#064;Override
+ *     protected Person generate(long index, RandomDataGenerator random) {
+ *         return new Person(index, random.getEnum(Country.class, COUNTRY_DISTRIBUTION));
+ *     }
+ * };
+ * 
+ * for (Person person : people) {
+ *     ...
+ * }
+ * </pre>
+ * 
+ * @param <T> type of the generated records
+ */
+public abstract class DatasetGenerator<T> implements Iterable<T> {
+
+    private final long seed;
+    private final long size;
+
+    /**
+     * Creates a dataset generator.
+     * 
+     * @param seed seed
+     * @param size number of records to generate
+     */
+    protected DatasetGenerator(long seed, long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size cannot be negative");
+        }
+        this.seed = seed;
+        this.size = size;
+    }
+
+    /**
+     * Gets the number of records in the dataset.
+     * 
+     * @return the size of the dataset
+     */
+    public long getSize() {
+        return this.size;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        final RandomDataGenerator random = new RandomDataGenerator(this.seed);
+        return new Iterator<T>() {
+            private long index;
+
+            @Override
+            public boolean hasNext() {
+                return this.index < DatasetGenerator.this.size;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return generate(this.index++, random);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Generates a record.
+     * 
+     * @param index index of the record in the dataset; useful to generate unique keys
+     * @param random random data generator; values must be taken from it (and not from another
+     *            source of randomness) for the dataset to be reproducible
+     * @return the record
+     */
+    protected abstract T generate(long index, RandomDataGenerator random);
+}
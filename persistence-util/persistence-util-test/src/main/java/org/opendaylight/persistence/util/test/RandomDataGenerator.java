@@ -11,6 +11,9 @@ import java.util.Random;
 
 /**
  * Random data generator.
+ * <p>
+ * A generator created with a seed produces the same sequence of values on every run, which makes
+ * generated datasets reproducible (See {@link DatasetGenerator}).
  * 
  * @author Fabiel Zuniga
  * @author Nachiket Abhyankar
@@ -26,6 +29,15 @@ public class RandomDataGenerator {
         this.random = new Random();
     }
 
+    /**
+     * Creates a new random data generator that produces a reproducible sequence of values.
+     * 
+     * @param seed seed
+     */
+    public RandomDataGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
     /**
      * Generates a random long.
      *
@@ -53,6 +65,87 @@ public class RandomDataGenerator {
         return this.random.nextInt(Integer.MAX_VALUE);
     }
 
+    /**
+     * Generates a random integer in the range [0, bound).
+     *
+     * @param bound upper bound (exclusive); must be positive
+     * @return an integer
+     */
+    public int getInt(int bound) {
+        return this.random.nextInt(bound);
+    }
+
+    /**
+     * Generates a random long in the range [origin, bound).
+     *
+     * @param origin lower bound (inclusive)
+     * @param bound upper bound (exclusive); must be greater than {@code origin}
+     * @return a long
+     */
+    public long getLong(long origin, long bound) {
+        if (origin >= bound) {
+            throw new IllegalArgumentException("bound must be greater than origin");
+        }
+        return origin + (long) (getDouble() * (bound - origin));
+    }
+
+    /**
+     * Generates a random double in the range [0, 1).
+     *
+     * @return a double
+     */
+    public double getDouble() {
+        return this.random.nextDouble();
+    }
+
+    /**
+     * Generates a random time in the range [from, to) skewed towards {@code to}: With a skew of
+     * {@code 1} times are uniformly distributed; greater values concentrate times near
+     * {@code to}, like in time series where recent data is denser.
+     *
+     * @param from lower bound in milliseconds (inclusive)
+     * @param to upper bound in milliseconds (exclusive)
+     * @param recencySkew skew towards {@code to}; must be greater or equal than {@code 1}
+     * @return a time in milliseconds
+     */
+    public long getTime(long from, long to, double recencySkew) {
+        if (from >= to) {
+            throw new IllegalArgumentException("to must be greater than from");
+        }
+        if (recencySkew < 1) {
+            throw new IllegalArgumentException("recencySkew must be greater or equal than 1");
+        }
+        long range = to - from;
+        long offset = (long) (Math.pow(getDouble(), recencySkew) * range);
+        return to - 1 - Math.min(offset, range - 1);
+    }
+
+    /**
+     * Selects an index following the given distribution.
+     *
+     * @param distribution distribution
+     * @return an index in the range [0, distribution.size())
+     */
+    public int getIndex(SkewedDistribution distribution) {
+        return distribution.sample(getDouble());
+    }
+
+    /**
+     * Selects an enum constant following the given distribution: The constant with ordinal
+     * {@code i} is selected with the probability of index {@code i}.
+     *
+     * @param enumClass enum class
+     * @param distribution distribution; its size must be the number of constants
+     * @return an enum constant
+     */
+    public <E extends Enum<E>> E getEnum(Class<E> enumClass, SkewedDistribution distribution) {
+        E[] values = enumClass.getEnumConstants();
+        if (values.length != distribution.size()) {
+            throw new IllegalArgumentException("distribution size must be the number of enum constants");
+        }
+        return values[getIndex(distribution)];
+    }
+
     /**
      * Fills the given array with random bytes.
      * 
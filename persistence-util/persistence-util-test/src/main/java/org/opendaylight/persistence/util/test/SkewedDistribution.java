@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.test;
+
+import java.util.Arrays;
+
+/**
+ * Discrete probability distribution over the indexes [0, size): Used to generate skewed data,
+ * where a few values are far more frequent than the rest (See
+ * {@link RandomDataGenerator#getIndex(SkewedDistribution)}).
+ * <p>
+ * The cumulative distribution is precomputed so sampling is a binary search.
+ * <p>
+ * This class is immutable.
+ * 
+ */
+public final class SkewedDistribution {
+
+    private final double[] cumulativeProbabilities;
+
+    private SkewedDistribution(double[] weights) {
+        if (weights.length == 0) {
+            throw new IllegalArgumentException("weights cannot be empty");
+        }
+
+        double total = 0;
+        for (double weight : weights) {
+            if (weight < 0 || Double.isNaN(weight) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Invalid weight: " + weight);
+            }
+            total += weight;
+        }
+
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one weight must be greater than zero");
+        }
+
+        this.cumulativeProbabilities = new double[weights.length];
+        double accumulated = 0;
+        for (int i = 0; i < weights.length; i++) {
+            accumulated += weights[i];
+            this.cumulativeProbabilities[i] = accumulated / total;
+        }
+        this.cumulativeProbabilities[weights.length - 1] = 1.0;
+    }
+
+    /**
+     * Creates a distribution where each index is selected with a probability proportional to its
+     * weight.
+     * 
+     * @param weights weights
+     * @return a distribution
+     */
+    public static SkewedDistribution weighted(double... weights) {
+        return new SkewedDistribution(weights.clone());
+    }
+
+    /**
+     * Creates a uniform distribution.
+     * 
+     * @param size number of indexes
+     * @return a distribution
+     */
+    public static SkewedDistribution uniform(int size) {
+        double[] weights = new double[size];
+        Arrays.fill(weights, 1.0);
+        return new SkewedDistribution(weights);
+    }
+
+    /**
+     * Creates a Zipf distribution: Index {@code i} is selected with a probability proportional to
+     * {@code 1 / (i + 1)^exponent}.
+     * 
+     * @param size number of indexes
+     * @param exponent skew; {@code 0} is uniform, {@code 1} is the classic Zipf's law
+     * @return a distribution
+     */
+    public static SkewedDistribution zipf(int size, double exponent) {
+        if (exponent < 0) {
+            throw new IllegalArgumentException("exponent cannot be negative");
+        }
+
+        double[] weights = new double[size];
+        for (int i = 0; i < size; i++) {
+            weights[i] = 1.0 / Math.pow(i + 1, exponent);
+        }
+        return new SkewedDistribution(weights);
+    }
+
+    /**
+     * Gets the number of indexes.
+     * 
+     * @return the size of the distribution
+     */
+    public int size() {
+        return this.cumulativeProbabilities.length;
+    }
+
+    /**
+     * Gets the probability of an index.
+     * 
+     * @param index index
+     * @return the probability of {@code index} to be selected
+     */
+    public double getProbability(int index) {
+        double previous = index > 0 ? this.cumulativeProbabilities[index - 1] : 0;
+        return this.cumulativeProbabilities[index] - previous;
+    }
+
+    /**
+     * Maps a uniformly distributed value to an index.
+     * 
+     * @param uniform value in the range [0, 1)
+     * @return the index
+     */
+    int sample(double uniform) {
+        int position = Arrays.binarySearch(this.cumulativeProbabilities, uniform);
+        // An exact match is the upper end of that index's interval, which belongs to the next one
+        int index = position >= 0 ? position + 1 : -position - 1;
+        // Skip zero-weight indexes
+        while (index < this.cumulativeProbabilities.length - 1 && getProbability(index) == 0) {
+            index++;
+        }
+        return Math.min(index, this.cumulativeProbabilities.length - 1);
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class DatasetGeneratorTest {
+
+    private static final long FROM = 1000000;
+    private static final long TO = 2000000;
+
+    @Test
+    public void testReproducible() {
+        DatasetGenerator<Long> dataset = createDataset(7, 1000);
+        Assert.assertEquals(1000, dataset.getSize());
+
+        List<Long> first = toList(dataset);
+        Assert.assertEquals(1000, first.size());
+        Assert.assertEquals(first, toList(dataset));
+        Assert.assertEquals(first, toList(createDataset(7, 1000)));
+        Assert.assertFalse(first.equals(toList(createDataset(8, 1000))));
+    }
+
+    @Test
+    public void testRecencySkew() {
+        int recent = 0;
+        for (Long time : createDataset(7, 10000)) {
+            Assert.assertTrue(time.longValue() >= FROM && time.longValue() < TO);
+            if (time.longValue() >= (FROM + TO) / 2) {
+                recent++;
+            }
+        }
+        // With a skew of 3, P(time in the recent half) = 1 - 0.5^(1/3) ~ 0.79
+        Assert.assertEquals(0.79, recent / 10000.0, 0.02);
+    }
+
+    private static DatasetGenerator<Long> createDataset(long seed, long size) {
+        return new DatasetGenerator<Long>(seed, size) {
+            @Override
+            protected Long generate(long index, RandomDataGenerator random) {
+                return Long.valueOf(random.getTime(FROM, TO, 3));
+            }
+        };
+    }
+
+    private static <T> List<T> toList(Iterable<T> iterable) {
+        List<T> list = new ArrayList<T>();
+        for (T element : iterable) {
+            list.add(element);
+        }
+        return list;
+    }
+}
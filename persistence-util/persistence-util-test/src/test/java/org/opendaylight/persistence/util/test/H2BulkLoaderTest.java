@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.persistence.util.test.H2BulkLoader.RowMapper;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class H2BulkLoaderTest {
+
+    private static final String[] COLUMNS = { "id", "name", "status", "created", "enabled" };
+
+    private Connection connection;
+
+    @Before
+    public void before() throws SQLException {
+        this.connection = DriverManager.getConnection("jdbc:h2:mem:H2BulkLoaderTest");
+        try (Statement statement = this.connection.createStatement()) {
+            statement.execute("CREATE TABLE record (id BIGINT PRIMARY KEY, name VARCHAR(64), status VARCHAR(16), "
+                    + "created TIMESTAMP, enabled BOOLEAN NOT NULL)");
+        }
+    }
+
+    @After
+    public void after() throws SQLException {
+        this.connection.close();
+    }
+
+    @Test
+    public void testLoad() throws Exception {
+        final Date created = new Date(1420070400123L);
+        DatasetGenerator<Object[]> dataset = new DatasetGenerator<Object[]>(1, 10000) {
+            @Override
+            protected Object[] generate(long index, RandomDataGenerator random) {
+                String name = index == 0 ? "quote \" and, comma" : (index == 1 ? null : "name-" + index);
+                return new Object[] { Long.valueOf(index), name, Status.values()[(int) (index % 2)], created,
+                        Boolean.valueOf(index % 3 == 0) };
+            }
+        };
+
+        long rows = H2BulkLoader.load(this.connection, "record", COLUMNS, dataset, new RowMapper<Object[]>() {
+            @Override
+            public Object[] toRow(Object[] record) {
+                return record;
+            }
+        });
+
+        Assert.assertEquals(10000, rows);
+        try (Statement statement = this.connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*), SUM(id) FROM record")) {
+                Assert.assertTrue(resultSet.next());
+                Assert.assertEquals(10000, resultSet.getLong(1));
+                Assert.assertEquals(9999L * 10000 / 2, resultSet.getLong(2));
+            }
+
+            try (ResultSet resultSet = statement.executeQuery("SELECT name, status, created, enabled FROM record "
+                    + "WHERE id IN (0, 1, 2) ORDER BY id")) {
+                Assert.assertTrue(resultSet.next());
+                Assert.assertEquals("quote \" and, comma", resultSet.getString(1));
+                Assert.assertEquals("ACTIVE", resultSet.getString(2));
+                Assert.assertEquals(created.getTime(), resultSet.getTimestamp(3).getTime());
+                Assert.assertTrue(resultSet.getBoolean(4));
+
+                Assert.assertTrue(resultSet.next());
+                Assert.assertNull(resultSet.getString(1));
+                Assert.assertEquals("INACTIVE", resultSet.getString(2));
+                Assert.assertFalse(resultSet.getBoolean(4));
+
+                Assert.assertTrue(resultSet.next());
+                Assert.assertEquals("name-2", resultSet.getString(1));
+            }
+        }
+    }
+
+    @Test
+    public void testRollback() throws Exception {
+        DatasetGenerator<Object[]> dataset = new DatasetGenerator<Object[]>(1, 100) {
+            @Override
+            protected Object[] generate(long index, RandomDataGenerator random) {
+                return new Object[] { Long.valueOf(index), null, null, null, Boolean.TRUE };
+            }
+        };
+
+        this.connection.setAutoCommit(false);
+        Assert.assertEquals(100, H2BulkLoader.load(this.connection, "record", COLUMNS, dataset,
+                new RowMapper<Object[]>() {
+                    @Override
+                    public Object[] toRow(Object[] record) {
+                        return record;
+                    }
+                }));
+        this.connection.rollback();
+
+        try (Statement statement = this.connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM record")) {
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals(0, resultSet.getLong(1));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRow() throws Exception {
+        H2BulkLoader.load(this.connection, "record", COLUMNS, Arrays.asList("a"), new RowMapper<String>() {
+            @Override
+            public Object[] toRow(String record) {
+                return new Object[] { record };
+            }
+        });
+    }
+
+    private static enum Status {
+        ACTIVE, INACTIVE
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.persistence.util.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class SkewedDistributionTest {
+
+    @Test
+    public void testWeighted() {
+        SkewedDistribution distribution = SkewedDistribution.weighted(1, 0, 3);
+        Assert.assertEquals(3, distribution.size());
+        Assert.assertEquals(0.25, distribution.getProbability(0), 1e-9);
+        Assert.assertEquals(0.0, distribution.getProbability(1), 1e-9);
+        Assert.assertEquals(0.75, distribution.getProbability(2), 1e-9);
+
+        Assert.assertEquals(0, distribution.sample(0.0));
+        Assert.assertEquals(0, distribution.sample(0.2499));
+        Assert.assertEquals(2, distribution.sample(0.25));
+        Assert.assertEquals(2, distribution.sample(0.9999));
+    }
+
+    @Test
+    public void testZipf() {
+        SkewedDistribution distribution = SkewedDistribution.zipf(4, 1);
+        for (int i = 1; i < distribution.size(); i++) {
+            Assert.assertTrue(distribution.getProbability(i - 1) > distribution.getProbability(i));
+        }
+        Assert.assertEquals(2.0, distribution.getProbability(0) / distribution.getProbability(1), 1e-9);
+
+        SkewedDistribution uniform = SkewedDistribution.zipf(4, 0);
+        for (int i = 0; i < uniform.size(); i++) {
+            Assert.assertEquals(0.25, uniform.getProbability(i), 1e-9);
+        }
+    }
+
+    @Test
+    public void testSampleFrequencies() {
+        SkewedDistribution distribution = SkewedDistribution.weighted(6, 3, 1);
+        RandomDataGenerator random = new RandomDataGenerator(1);
+        int samples = 100000;
+        int[] counts = new int[distribution.size()];
+        for (int i = 0; i < samples; i++) {
+            counts[random.getIndex(distribution)]++;
+        }
+
+        for (int i = 0; i < counts.length; i++) {
+            Assert.assertEquals(distribution.getProbability(i), (double) counts[i] / samples, 0.01);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWeights() {
+        SkewedDistribution.weighted(0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeWeight() {
+        SkewedDistribution.weighted(1, -1);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.testapp.cli;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.karaf.shell.commands.Option;
+import org.apache.karaf.shell.console.OsgiCommandSupport;
+import org.opendaylight.testapp.cli.LoadGenerator.LoadOperation;
+
+/**
+ * Base class for load generator commands.
+ * <p>
+ * A load run has two phases: A population phase that creates {@link #count} synthetic objects, and
+ * a mixed phase that executes randomly chosen operations on them during {@link #duration} seconds.
+ * Both phases are driven by {@link #concurrency} clients and limited to {@link #rate} operations
+ * per second. The throughput, latency percentiles and error count of each operation are printed
+ * and optionally saved as CSV.
+ */
+public abstract class AbstractLoadCommand extends OsgiCommandSupport {
+
+    /**
+     * The number of synthetic objects.
+     */
+    @Option(name = "-n", aliases = "--count", description = "Number of synthetic objects to create")
+    int count = 100;
+
+    /**
+     * The number of concurrent clients.
+     */
+    @Option(name = "-c", aliases = "--concurrency", description = "Number of concurrent clients")
+    int concurrency = 4;
+
+    /**
+     * The rate limit.
+     */
+    @Option(name = "-r", aliases = "--rate", description = "Maximum operations per second, 0 for unlimited")
+    int rate = 0;
+
+    /**
+     * The duration of the mixed phase.
+     */
+    @Option(name = "-d", aliases = "--duration", description = "Duration of the mixed phase in seconds")
+    int duration = 30;
+
+    /**
+     * The CSV file.
+     */
+    @Option(name = "-o", aliases = "--output", description = "CSV file to save the results to")
+    String output;
+
+    @Override
+    protected Object doExecute() throws Exception {
+        if (this.count <= 0) {
+            throw new IllegalArgumentException("count must be greater than zero");
+        }
+
+        LoadGenerator generator = new LoadGenerator(this.concurrency, this.rate);
+        LoadReport report = new LoadReport();
+
+        prepare(this.count);
+        generator.run(getPopulationOperation(), this.count, report);
+        generator.run(getMixedOperations(), TimeUnit.SECONDS.toMillis(this.duration), report);
+
+        if (this.output != null) {
+            report.writeCsv(new File(this.output));
+        }
+
+        return report.toString();
+    }
+
+    /**
+     * Prepares a load run.
+     *
+     * @param objectCount number of synthetic objects the population operation will create
+     */
+    abstract void prepare(int objectCount);
+
+    /**
+     * Gets the operation that creates the synthetic objects. It is executed once per index in the
+     * range [0, objectCount).
+     *
+     * @return the population operation
+     */
+    abstract LoadOperation getPopulationOperation();
+
+    /**
+     * Gets the operations of the mixed phase.
+     *
+     * @return the operations of the mixed phase
+     */
+    abstract List<LoadOperation> getMixedOperations();
+}
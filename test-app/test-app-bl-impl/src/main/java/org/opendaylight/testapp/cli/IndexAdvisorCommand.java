@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+
+package org.opendaylight.testapp.cli;
+
+import org.apache.karaf.shell.commands.Command;
+import org.apache.karaf.shell.commands.Option;
+import org.apache.karaf.shell.console.OsgiCommandSupport;
+import org.opendaylight.persistence.DataStore;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.jpa.JpaContext;
+import org.opendaylight.persistence.jpa.dao.IndexAdvisor;
+
+/**
+ * The index advisor command: Enables, disables or resets the recording of queries, or prints the
+ * recorded attribute usage and the recommended indexes.
+ * <p>
+ * The indexes defined in the database are loaded before printing the recommendations, so indexes
+ * already created are not recommended.
+ */
+@Command(name = "index-advisor", scope = "persistence", description = "Index advisor")
+public class IndexAdvisorCommand extends OsgiCommandSupport {
+
+    /**
+     * Whether to enable recording.
+     */
+    @Option(name = "-e", aliases = "--enable", description = "Enable the recording of queries")
+    boolean enable;
+
+    /**
+     * Whether to disable recording.
+     */
+    @Option(name = "-d", aliases = "--disable", description = "Disable the recording of queries")
+    boolean disable;
+
+    /**
+     * Whether to discard the recorded queries.
+     */
+    @Option(name = "-r", aliases = "--reset", description = "Discard the recorded queries")
+    boolean reset;
+
+    private final DataStore<JpaContext> dataStore;
+    private final IndexAdvisor indexAdvisor;
+
+    /**
+     * Instantiates a new index advisor command.
+     *
+     * @param dataStore the data store whose database indexes are loaded
+     * @param indexAdvisor the index advisor
+     */
+    public IndexAdvisorCommand(DataStore<JpaContext> dataStore, IndexAdvisor indexAdvisor) {
+        this.dataStore = dataStore;
+        this.indexAdvisor = indexAdvisor;
+    }
+
+    @Override
+    protected Object doExecute() throws Exception {
+        if (this.enable && this.disable) {
+            throw new IllegalArgumentException("--enable and --disable are mutually exclusive");
+        }
+
+        if (this.reset) {
+            this.indexAdvisor.reset();
+        }
+
+        if (this.enable || this.disable) {
+            this.indexAdvisor.setEnabled(this.enable);
+        }
+
+        if (this.enable || this.disable || this.reset) {
+            return "Recording " + (this.indexAdvisor.isEnabled() ? "enabled" : "disabled");
+        }
+
+        this.dataStore.execute(new LoadDatabaseIndexesQuery(this.indexAdvisor));
+
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append("Recording ").append(this.indexAdvisor.isEnabled() ? "enabled" : "disabled");
+        stringBuilder.append(", recorded queries: ").append(this.indexAdvisor.getRecordedQueryCount());
+        stringBuilder.append('\n');
+        stringBuilder.append("\nAttribute usage:\n");
+        for (String usage : this.indexAdvisor.getAttributeUsage()) {
+            stringBuilder.append(usage).append('\n');
+        }
+        stringBuilder.append("\nRecommended indexes:\n");
+        String[] statements = this.indexAdvisor.getCreateIndexStatements();
+        String[] annotations = this.indexAdvisor.getIndexAnnotations();
+        for (int i = 0; i < statements.length; i++) {
+            stringBuilder.append(statements[i]).append('\n');
+            stringBuilder.append("    ").append(annotations[i]).append('\n');
+        }
+        return stringBuilder.toString();
+    }
+
+    private static class LoadDatabaseIndexesQuery implements Query<Void, JpaContext> {
+        private final IndexAdvisor indexAdvisor;
+
+        public LoadDatabaseIndexesQuery(IndexAdvisor indexAdvisor) {
+            this.indexAdvisor = indexAdvisor;
+        }
+
+        @Override
+        public Void execute(JpaContext context) throws PersistenceException {
+            this.indexAdvisor.loadDatabaseIndexes(context.getEntityManager());
+            return null;
+        }
+    }
+}
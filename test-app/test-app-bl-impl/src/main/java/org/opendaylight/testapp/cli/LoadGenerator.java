@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.testapp.cli;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+/**
+ * Load generator: Executes operations from concurrent clients, optionally limiting the rate, and
+ * records their latency and errors in a {@link LoadReport}. The first failure of each operation is
+ * logged.
+ */
+final class LoadGenerator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final int concurrency;
+    private final int rate;
+
+    /**
+     * Creates a load generator.
+     *
+     * @param concurrency number of concurrent clients
+     * @param rate maximum number of operations per second across all clients, {@code 0} for
+     *            unlimited
+     */
+    LoadGenerator(int concurrency, int rate) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency must be greater than zero");
+        }
+
+        if (rate < 0) {
+            throw new IllegalArgumentException("rate cannot be negative");
+        }
+
+        this.concurrency = concurrency;
+        this.rate = rate;
+    }
+
+    /**
+     * Executes an operation a fixed number of times. Each execution receives a distinct index in
+     * the range [0, count).
+     *
+     * @param operation operation to execute
+     * @param count number of executions
+     * @param report report to record the executions to
+     * @throws InterruptedException if interrupted while waiting for the clients to finish
+     */
+    void run(final LoadOperation operation, final int count, LoadReport report) throws InterruptedException {
+        final AtomicInteger next = new AtomicInteger();
+        run(new Client() {
+            @Override
+            public boolean execute(Random random, RateLimiter rateLimiter, LoadReport clientReport) {
+                int index = next.getAndIncrement();
+                if (index >= count) {
+                    return false;
+                }
+                LoadGenerator.execute(operation, index, rateLimiter, clientReport);
+                return true;
+            }
+        }, report, operation);
+    }
+
+    /**
+     * Executes randomly chosen operations during the given time.
+     *
+     * @param operations operations to choose from
+     * @param durationMillis duration in milliseconds
+     * @param report report to record the executions to
+     * @throws InterruptedException if interrupted while waiting for the clients to finish
+     */
+    void run(final List<LoadOperation> operations, long durationMillis, LoadReport report)
+            throws InterruptedException {
+        if (operations.isEmpty()) {
+            return;
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        final AtomicInteger next = new AtomicInteger();
+        run(new Client() {
+            @Override
+            public boolean execute(Random random, RateLimiter rateLimiter, LoadReport clientReport) {
+                if (System.nanoTime() >= deadline) {
+                    return false;
+                }
+                LoadOperation operation = operations.get(random.nextInt(operations.size()));
+                LoadGenerator.execute(operation, next.getAndIncrement(), rateLimiter, clientReport);
+                return true;
+            }
+        }, report, operations.toArray(new LoadOperation[operations.size()]));
+    }
+
+    private void run(final Client client, final LoadReport report, LoadOperation... operations)
+            throws InterruptedException {
+        // Created per run, so permits are not saved up while idle between runs
+        final RateLimiter rateLimiter = this.rate > 0 ? RateLimiter.create(this.rate) : null;
+        final CountDownLatch done = new CountDownLatch(this.concurrency);
+        List<Thread> threads = new ArrayList<Thread>(this.concurrency);
+        for (int i = 0; i < this.concurrency; i++) {
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        Random random = new Random();
+                        while (!Thread.currentThread().isInterrupted() && client.execute(random, rateLimiter, report)) {
+                            // Keep executing
+                        }
+                    }
+                    finally {
+                        done.countDown();
+                    }
+                }
+            }, "load-generator-" + i));
+        }
+
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        try {
+            done.await();
+        }
+        catch (InterruptedException e) {
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+            throw e;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        for (LoadOperation operation : operations) {
+            report.addElapsedTime(operation.getName(), elapsed);
+        }
+    }
+
+    private static void execute(LoadOperation operation, int index, RateLimiter rateLimiter, LoadReport report) {
+        if (rateLimiter != null) {
+            rateLimiter.acquire();
+        }
+
+        long start = System.nanoTime();
+        Exception failure = null;
+        try {
+            operation.execute(index);
+        }
+        catch (Exception e) {
+            failure = e;
+        }
+        if (report.record(operation.getName(), System.nanoTime() - start, failure)) {
+            LOGGER.warn("Operation {} failed, further failures are only counted", operation.getName(), failure);
+        }
+    }
+
+    /**
+     * Load operation.
+     */
+    static interface LoadOperation {
+
+        /**
+         * Gets the operation name.
+         *
+         * @return the name to report the operation with
+         */
+        String getName();
+
+        /**
+         * Executes the operation.
+         *
+         * @param index execution index
+         * @throws Exception if the operation fails
+         */
+        void execute(int index) throws Exception;
+    }
+
+    private static interface Client {
+
+        /**
+         * Executes the next operation.
+         *
+         * @return {@code true} if the client should continue, {@code false} otherwise
+         */
+        boolean execute(Random random, RateLimiter rateLimiter, LoadReport report);
+    }
+}
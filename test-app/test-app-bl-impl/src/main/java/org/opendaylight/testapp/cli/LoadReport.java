@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.testapp.cli;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a load run by {@link LoadGenerator}: Throughput, latency percentiles and errors per
+ * operation, and the number of errors per exception type.
+ * <p>
+ * Latencies are recorded in a histogram of fixed size, so memory does not grow with the length of
+ * the run: Percentiles are accurate to within 2%.
+ * <p>
+ * This class is thread safe.
+ */
+final class LoadReport {
+    private static final String CSV_HEADER = "operation,count,errors,throughput_ops,p50_us,p99_us,p999_us,max_us";
+    private static final String CSV_ROW = "%s,%d,%d,%.2f,%d,%d,%d,%d\n";
+    private static final String TABLE_ROW = "%-20s %10d %8d %12.1f %10d %10d %10d %10d%n";
+    private static final String ERROR_ROW = "%-20s %10d %s%n";
+
+    private final Map<String, OperationStatistics> statistics = new LinkedHashMap<String, OperationStatistics>();
+
+    /**
+     * Records an execution.
+     *
+     * @param operation operation name
+     * @param latencyNanos latency in nanoseconds
+     * @param failure the failure if the execution failed, {@code null} otherwise
+     * @return {@code true} if this is the first failure of the operation, {@code false} otherwise
+     */
+    boolean record(String operation, long latencyNanos, Exception failure) {
+        return getStatistics(operation).record(latencyNanos, failure);
+    }
+
+    /**
+     * Adds to the time an operation has been exercised, used to calculate throughput.
+     *
+     * @param operation operation name
+     * @param elapsedNanos elapsed time in nanoseconds
+     */
+    void addElapsedTime(String operation, long elapsedNanos) {
+        getStatistics(operation).addElapsedTime(elapsedNanos);
+    }
+
+    /**
+     * Writes the report as CSV.
+     *
+     * @param file file to write to
+     * @throws IOException if errors occur while writing the file
+     */
+    void writeCsv(File file) throws IOException {
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            for (Map.Entry<String, OperationStatistics> entry : getEntries()) {
+                writer.write(format(CSV_ROW, entry.getKey(), entry.getValue()));
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder(512);
+        str.append(String.format("%-20s %10s %8s %12s %10s %10s %10s %10s%n", "operation", "count", "errors",
+                "ops/s", "p50 us", "p99 us", "p999 us", "max us"));
+        List<Map.Entry<String, OperationStatistics>> entries = getEntries();
+        for (Map.Entry<String, OperationStatistics> entry : entries) {
+            str.append(format(TABLE_ROW, entry.getKey(), entry.getValue()));
+        }
+
+        boolean errorHeader = false;
+        for (Map.Entry<String, OperationStatistics> entry : entries) {
+            for (Map.Entry<String, Integer> error : entry.getValue().getErrorsByType().entrySet()) {
+                if (!errorHeader) {
+                    str.append(String.format("%n%-20s %10s %s%n", "operation", "errors", "exception"));
+                    errorHeader = true;
+                }
+                str.append(String.format(ERROR_ROW, entry.getKey(), error.getValue(), error.getKey()));
+            }
+        }
+        return str.toString();
+    }
+
+    private static String format(String pattern, String operation, OperationStatistics operationStatistics) {
+        synchronized (operationStatistics) {
+            return String.format(Locale.ROOT, pattern, operation, Integer.valueOf(operationStatistics.count),
+                    Integer.valueOf(operationStatistics.errors), Double.valueOf(operationStatistics.getThroughput()),
+                    Long.valueOf(operationStatistics.getPercentile(50)),
+                    Long.valueOf(operationStatistics.getPercentile(99)),
+                    Long.valueOf(operationStatistics.getPercentile(99.9)),
+                    Long.valueOf(operationStatistics.getPercentile(100)));
+        }
+    }
+
+    private synchronized OperationStatistics getStatistics(String operation) {
+        OperationStatistics operationStatistics = this.statistics.get(operation);
+        if (operationStatistics == null) {
+            operationStatistics = new OperationStatistics();
+            this.statistics.put(operation, operationStatistics);
+        }
+        return operationStatistics;
+    }
+
+    private synchronized List<Map.Entry<String, OperationStatistics>> getEntries() {
+        return new ArrayList<Map.Entry<String, OperationStatistics>>(this.statistics.entrySet());
+    }
+
+    private static class OperationStatistics {
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final Map<String, Integer> errorsByType = new LinkedHashMap<String, Integer>();
+        private int count;
+        private int errors;
+        private long elapsedNanos;
+
+        public synchronized boolean record(long latencyNanos, Exception failure) {
+            this.latencies.record(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+            this.count++;
+            if (failure == null) {
+                return false;
+            }
+
+            this.errors++;
+            String type = failure.getClass().getName();
+            Integer typeErrors = this.errorsByType.get(type);
+            this.errorsByType.put(type, Integer.valueOf(typeErrors == null ? 1 : typeErrors.intValue() + 1));
+            return this.errors == 1;
+        }
+
+        public synchronized void addElapsedTime(long nanos) {
+            this.elapsedNanos += nanos;
+        }
+
+        public synchronized double getThroughput() {
+            return this.elapsedNanos > 0 ? this.count * (double) TimeUnit.SECONDS.toNanos(1) / this.elapsedNanos : 0;
+        }
+
+        /**
+         * Gets a latency percentile (Nearest-rank method) in microseconds.
+         */
+        public synchronized long getPercentile(double percentile) {
+            return this.latencies.getPercentile(percentile);
+        }
+
+        public synchronized Map<String, Integer> getErrorsByType() {
+            return new LinkedHashMap<String, Integer>(this.errorsByType);
+        }
+    }
+
+    /**
+     * Log-linear histogram: Values below 64 are counted exactly, larger values are counted in 64
+     * buckets per power of two, which bounds the relative error of a percentile to 1/64. The maximum
+     * is tracked exactly.
+     */
+    private static class LatencyHistogram {
+        private static final int SUB_BUCKET_BITS = 6;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        // Values up to Long.MAX_VALUE, whose highest bit is 62
+        private static final int BUCKETS = (62 - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+        private final long[] counts = new long[BUCKETS];
+        private long total;
+        private long max;
+
+        public void record(long value) {
+            long positiveValue = Math.max(value, 0);
+            this.counts[getBucket(positiveValue)]++;
+            this.total++;
+            this.max = Math.max(this.max, positiveValue);
+        }
+
+        public long getPercentile(double percentile) {
+            if (this.total == 0) {
+                return 0;
+            }
+
+            long rank = Math.max((long) Math.ceil(percentile / 100 * this.total), 1);
+            long accumulated = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                accumulated += this.counts[bucket];
+                if (accumulated >= rank) {
+                    return Math.min(getHighestValue(bucket), this.max);
+                }
+            }
+            return this.max;
+        }
+
+        private static int getBucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int shift = exponent - SUB_BUCKET_BITS;
+            int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+            return (shift + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        private static long getHighestValue(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+
+            int shift = bucket / SUB_BUCKETS - 1;
+            long lowestValue = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+            return lowestValue + (1L << shift) - 1;
+        }
+    }
+}
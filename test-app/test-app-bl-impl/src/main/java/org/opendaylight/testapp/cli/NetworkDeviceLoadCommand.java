@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.testapp.cli;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.karaf.shell.commands.Command;
+import org.opendaylight.persistence.util.common.type.Id;
+import org.opendaylight.testapp.cli.LoadGenerator.LoadOperation;
+import org.opendaylight.testapp.common.model.NetworkDevice;
+import org.opendaylight.testapp.common.type.IpAddress;
+import org.opendaylight.testapp.common.type.Location;
+import org.opendaylight.testapp.common.type.SerialNumber;
+import org.opendaylight.testapp.persistence.bl.NetworkDeviceService;
+
+/**
+ * The NetworkDevice load command: Discovers synthetic devices and then updates and queries them.
+ */
+@Command(name = "load", scope = "networkdevice", description = "NetworkDeviceService load generator")
+public class NetworkDeviceLoadCommand extends AbstractLoadCommand {
+    private final NetworkDeviceService networkDeviceService;
+    private AtomicReferenceArray<Id<NetworkDevice, SerialNumber>> ids;
+
+    /**
+     * Instantiates a new NetworkDeviceLoadCommand.
+     *
+     * @param networkDeviceService the network device service
+     */
+    public NetworkDeviceLoadCommand(NetworkDeviceService networkDeviceService) {
+        this.networkDeviceService = networkDeviceService;
+    }
+
+    @Override
+    void prepare(int objectCount) {
+        this.ids = new AtomicReferenceArray<Id<NetworkDevice, SerialNumber>>(objectCount);
+    }
+
+    @Override
+    LoadOperation getPopulationOperation() {
+        return new LoadOperation() {
+            @Override
+            public String getName() {
+                return "discover";
+            }
+
+            @Override
+            public void execute(int index) {
+                IpAddress ipAddress = IpAddress.valueOfIpV4((byte) 10, (byte) (index >>> 16), (byte) (index >>> 8),
+                        (byte) index);
+                NetworkDevice device = networkDeviceService.discover(ipAddress);
+                ids.set(index, device.getId());
+            }
+        };
+    }
+
+    @Override
+    List<LoadOperation> getMixedOperations() {
+        return Arrays.<LoadOperation> asList(new LoadOperation() {
+            @Override
+            public String getName() {
+                return "set-friendly-name";
+            }
+
+            @Override
+            public void execute(int index) {
+                networkDeviceService.setFriendlyName(randomId(), "device-" + index);
+            }
+        }, new LoadOperation() {
+            @Override
+            public String getName() {
+                return "set-location";
+            }
+
+            @Override
+            public void execute(int index) {
+                networkDeviceService.setLocation(randomId(), randomLocation());
+            }
+        }, new LoadOperation() {
+            @Override
+            public String getName() {
+                return "get-reachable";
+            }
+
+            @Override
+            public void execute(int index) {
+                networkDeviceService.getReachable();
+            }
+        }, new LoadOperation() {
+            @Override
+            public String getName() {
+                return "get-by-location";
+            }
+
+            @Override
+            public void execute(int index) {
+                networkDeviceService.getByLocation(randomLocation());
+            }
+        });
+    }
+
+    private Id<NetworkDevice, SerialNumber> randomId() {
+        Id<NetworkDevice, SerialNumber> id = ids.get(ThreadLocalRandom.current().nextInt(ids.length()));
+        if (id == null) {
+            throw new IllegalStateException("Device was not discovered");
+        }
+        return id;
+    }
+
+    private static Location randomLocation() {
+        Location[] locations = Location.values();
+        return locations[ThreadLocalRandom.current().nextInt(locations.length)];
+    }
+}
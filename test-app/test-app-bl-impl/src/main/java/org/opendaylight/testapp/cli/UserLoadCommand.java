@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.testapp.cli;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.karaf.shell.commands.Command;
+import org.opendaylight.persistence.util.common.type.Id;
+import org.opendaylight.testapp.cli.LoadGenerator.LoadOperation;
+import org.opendaylight.testapp.common.model.User;
+import org.opendaylight.testapp.common.type.Email;
+import org.opendaylight.testapp.common.type.Password;
+import org.opendaylight.testapp.common.type.Username;
+import org.opendaylight.testapp.persistence.bl.UserService;
+
+/**
+ * The User load command: Signs up synthetic users and then signs them in, disables and queries
+ * them.
+ */
+@Command(name = "load", scope = "user", description = "UserService load generator")
+public class UserLoadCommand extends AbstractLoadCommand {
+    private final UserService userService;
+    private String prefix;
+    private int userCount;
+
+    /**
+     * Instantiates a new UserLoadCommand.
+     *
+     * @param userService the user service
+     */
+    public UserLoadCommand(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    void prepare(int objectCount) {
+        // Usernames must be unique across runs
+        this.prefix = "load" + Long.toString(System.currentTimeMillis(), Character.MAX_RADIX) + "-";
+        this.userCount = objectCount;
+    }
+
+    @Override
+    LoadOperation getPopulationOperation() {
+        return new LoadOperation() {
+            @Override
+            public String getName() {
+                return "sign-up";
+            }
+
+            @Override
+            public void execute(int index) throws Exception {
+                userService.signUp(getUsername(index), getPassword(index), Email.valueOf(prefix + index + "@load.test"));
+            }
+        };
+    }
+
+    @Override
+    List<LoadOperation> getMixedOperations() {
+        return Arrays.<LoadOperation> asList(new LoadOperation() {
+            @Override
+            public String getName() {
+                return "sign-in";
+            }
+
+            @Override
+            public void execute(int index) {
+                int userIndex = randomIndex();
+                userService.signIn(getUsername(userIndex), getPassword(userIndex));
+            }
+        }, new LoadOperation() {
+            @Override
+            public String getName() {
+                return "disable";
+            }
+
+            @Override
+            public void execute(int index) {
+                Id<User, Username> id = Id.valueOf(getUsername(randomIndex()));
+                userService.disable(id);
+            }
+        }, new LoadOperation() {
+            @Override
+            public String getName() {
+                return "get-enabled";
+            }
+
+            @Override
+            public void execute(int index) {
+                userService.getEnabled();
+            }
+        }, new LoadOperation() {
+            @Override
+            public String getName() {
+                return "get-disabled";
+            }
+
+            @Override
+            public void execute(int index) {
+                userService.getDisabled();
+            }
+        });
+    }
+
+    private int randomIndex() {
+        return ThreadLocalRandom.current().nextInt(this.userCount);
+    }
+
+    private Username getUsername(int index) {
+        return Username.valueOf(this.prefix + index);
+    }
+
+    private Password getPassword(int index) {
+        return Password.valueOf("password-" + index);
+    }
+}
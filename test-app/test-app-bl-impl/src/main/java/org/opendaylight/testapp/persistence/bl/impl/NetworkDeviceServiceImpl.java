@@ -13,6 +13,7 @@ import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.util.common.Converter;
 import org.opendaylight.persistence.util.common.type.Id;
 import org.opendaylight.persistence.util.common.type.SortSpecification;
 import org.opendaylight.testapp.common.model.NetworkDevice;
@@ -62,55 +63,25 @@ public class NetworkDeviceServiceImpl implements NetworkDeviceService {
     }
 
     @Override
-    public void setFriendlyName(Id<NetworkDevice, SerialNumber> id, String friendlyName) {
-        if (id == null) {
-            throw new NullPointerException("id cannot be null");
-        }
-
-        NetworkDevice device = null;
-        try {
-            device = this.persistenceService.networkDevice().get(id);
-        }
-        catch (PersistenceException e) {
-            this.logger.error("Unable to load device with id " + id, e);
-            throw new RuntimeException("Unable to load device with id " + id);
-        }
-
-        device.setFriendlyName(friendlyName);
-
-        try {
-            this.persistenceService.networkDevice().store(device);
-        }
-        catch (PersistenceException e) {
-            this.logger.error("Unable to store device with id " + id, e);
-            throw new RuntimeException("Unable to store device with id " + id);
-        }
+    public void setFriendlyName(Id<NetworkDevice, SerialNumber> id, final String friendlyName) {
+        update(id, new Converter<NetworkDevice, NetworkDevice>() {
+            @Override
+            public NetworkDevice convert(NetworkDevice device) {
+                device.setFriendlyName(friendlyName);
+                return device;
+            }
+        });
     }
 
     @Override
-    public void setLocation(Id<NetworkDevice, SerialNumber> id, Location location) {
-        if (id == null) {
-            throw new NullPointerException("id cannot be null");
-        }
-
-        NetworkDevice device = null;
-        try {
-            device = this.persistenceService.networkDevice().get(id);
-        }
-        catch (PersistenceException e) {
-            this.logger.error("Unable to load device with id " + id, e);
-            throw new RuntimeException("Unable to load device with id " + id);
-        }
-
-        device.setLocation(location);
-
-        try {
-            this.persistenceService.networkDevice().store(device);
-        }
-        catch (PersistenceException e) {
-            this.logger.error("Unable to store device with id " + id, e);
-            throw new RuntimeException("Unable to store device with id " + id);
-        }
+    public void setLocation(Id<NetworkDevice, SerialNumber> id, final Location location) {
+        update(id, new Converter<NetworkDevice, NetworkDevice>() {
+            @Override
+            public NetworkDevice convert(NetworkDevice device) {
+                device.setLocation(location);
+                return device;
+            }
+        });
     }
 
     @Override
@@ -152,6 +123,26 @@ public class NetworkDeviceServiceImpl implements NetworkDeviceService {
         }
     }
 
+    private void update(Id<NetworkDevice, SerialNumber> id, Converter<NetworkDevice, NetworkDevice> modification) {
+        if (id == null) {
+            throw new NullPointerException("id cannot be null");
+        }
+
+        // Loads and stores the device in a single transaction
+        NetworkDevice device = null;
+        try {
+            device = this.persistenceService.networkDevice().computeIfPresent(id.getValue(), modification);
+        }
+        catch (PersistenceException e) {
+            this.logger.error("Unable to store device with id " + id, e);
+            throw new RuntimeException("Unable to store device with id " + id);
+        }
+
+        if (device == null) {
+            throw new IllegalArgumentException("Device with id " + id + " not found");
+        }
+    }
+
     private MacAddress getMacAddress() {
         int intValue = this.random.nextInt();
         byte[] intBytes = new byte[] { (byte) (intValue >>> 24), (byte) (intValue >>> 16), (byte) (intValue >>> 8),
@@ -15,6 +15,7 @@ import org.opendaylight.testapp.common.type.Location;
 import org.opendaylight.testapp.common.type.ReachabilityStatus;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
 
 /**
  * Free form network device filter.
@@ -67,6 +68,31 @@ public class FreeFormNetworkDeviceFilter {
         this.locationCondition = locationCondition;
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.locationCondition, this.reachabilityStatusCondition);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null) {
+            return false;
+        }
+
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+
+        FreeFormNetworkDeviceFilter other = (FreeFormNetworkDeviceFilter) obj;
+
+        return Objects.equal(this.locationCondition, other.locationCondition)
+                && Objects.equal(this.reachabilityStatusCondition, other.reachabilityStatusCondition);
+    }
+
     @Override
     public String toString(){
         return MoreObjects.toStringHelper(this).add("locationCondition", this.locationCondition)
@@ -10,10 +10,15 @@ package org.opendaylight.testapp.common.model;
 import javax.annotation.Nonnull;
 
 import org.opendaylight.persistence.util.common.filter.EqualityCondition;
+import org.opendaylight.persistence.util.common.filter.IntervalCondition;
+import org.opendaylight.persistence.util.common.filter.StringCondition;
+import org.opendaylight.testapp.common.type.CidrBlock;
+import org.opendaylight.testapp.common.type.IpAddress;
 import org.opendaylight.testapp.common.type.Location;
 import org.opendaylight.testapp.common.type.ReachabilityStatus;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 
 /**
@@ -82,6 +87,30 @@ public class NetworkDeviceFilter {
         return filter;
     }
 
+    /**
+     * Creates a filter to retrieve network devices by friendly name
+     * 
+     * @param friendlyNameCondition friendly name condition
+     * @return a filter
+     */
+    public static NetworkDeviceFilter byFriendlyName(@Nonnull StringCondition friendlyNameCondition) {
+        NetworkDeviceFilter filter = new NetworkDeviceFilter();
+        filter.filter = new ByFriendlyName(friendlyNameCondition);
+        return filter;
+    }
+
+    /**
+     * Creates a filter to retrieve network devices whose IP address belongs to a CIDR block
+     * 
+     * @param ipAddressBlock IP address block
+     * @return a filter
+     */
+    public static NetworkDeviceFilter byIpAddressBlock(@Nonnull CidrBlock ipAddressBlock) {
+        NetworkDeviceFilter filter = new NetworkDeviceFilter();
+        filter.filter = new ByIpAddressBlock(ipAddressBlock);
+        return filter;
+    }
+
     /**
      * Accepts a visitor.
      * 
@@ -92,6 +121,30 @@ public class NetworkDeviceFilter {
         return this.filter.accept(visitor);
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.filter);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null) {
+            return false;
+        }
+
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+
+        NetworkDeviceFilter other = (NetworkDeviceFilter) obj;
+
+        return Objects.equal(this.filter, other.filter);
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this).add("filter", this.filter).toString();
@@ -100,13 +153,45 @@ public class NetworkDeviceFilter {
     private static abstract class Filter {
         protected EqualityCondition<Location> locationCondition;
         protected EqualityCondition<ReachabilityStatus> reachabilityStatusCondition;
+        protected StringCondition friendlyNameCondition;
+        protected IntervalCondition<IpAddress> ipAddressCondition;
 
         protected abstract <T> T accept(@Nonnull Visitor<T> visitor);
         
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getClass(), this.locationCondition, this.reachabilityStatusCondition,
+                    this.friendlyNameCondition, this.ipAddressCondition);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (obj == null) {
+                return false;
+            }
+
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+
+            Filter other = (Filter) obj;
+
+            return Objects.equal(this.locationCondition, other.locationCondition)
+                    && Objects.equal(this.reachabilityStatusCondition, other.reachabilityStatusCondition)
+                    && Objects.equal(this.friendlyNameCondition, other.friendlyNameCondition)
+                    && Objects.equal(this.ipAddressCondition, other.ipAddressCondition);
+        }
+
         @Override
         public String toString() {
             return MoreObjects.toStringHelper(this).add("locationCondition", this.locationCondition)
-                    .add("reachabilityStatusCondition", this.reachabilityStatusCondition).toString();
+                    .add("reachabilityStatusCondition", this.reachabilityStatusCondition)
+                    .add("friendlyNameCondition", this.friendlyNameCondition)
+                    .add("ipAddressCondition", this.ipAddressCondition).toString();
         }
     }
 
@@ -224,6 +309,65 @@ public class NetworkDeviceFilter {
         }
     }
 
+    /**
+     * Filter that retrieves network devices by friendly name.
+     */
+    public static class ByFriendlyName extends Filter {
+
+        /**
+         * Creates a filter.
+         * 
+         * @param friendlyNameCondition friendly name condition
+         */
+        public ByFriendlyName(@Nonnull StringCondition friendlyNameCondition) {
+            this.friendlyNameCondition = Preconditions.checkNotNull(friendlyNameCondition, "friendlyNameCondition");
+        }
+
+        /**
+         * Gets the friendly name condition.
+         * 
+         * @return the condition
+         */
+        public StringCondition getFriendlyNameCondition() {
+            return this.friendlyNameCondition;
+        }
+
+        @Override
+        protected <T> T accept(Visitor<T> visitor) {
+            return visitor.visit(this);
+        }
+    }
+
+    /**
+     * Filter that retrieves network devices whose IP address belongs to a CIDR block.
+     */
+    public static class ByIpAddressBlock extends Filter {
+
+        /**
+         * Creates a filter.
+         * 
+         * @param ipAddressBlock IP address block
+         */
+        public ByIpAddressBlock(@Nonnull CidrBlock ipAddressBlock) {
+            Preconditions.checkNotNull(ipAddressBlock, "ipAddressBlock");
+            this.ipAddressCondition = IntervalCondition.in(ipAddressBlock.toInterval());
+        }
+
+        /**
+         * Gets the IP address condition: The range of addresses of the block.
+         * 
+         * @return the condition
+         */
+        public IntervalCondition<IpAddress> getIpAddressCondition() {
+            return this.ipAddressCondition;
+        }
+
+        @Override
+        protected <T> T accept(Visitor<T> visitor) {
+            return visitor.visit(this);
+        }
+    }
+
     /**
      * Filter visitor.
      * 
@@ -262,5 +406,21 @@ public class NetworkDeviceFilter {
          * @return the result of the visit
          */
         public T visit(@Nonnull ByLocationAndReachabilityStatus filter);
+
+        /**
+         * Visits the filter.
+         * 
+         * @param filter filter to visit
+         * @return the result of the visit
+         */
+        public T visit(@Nonnull ByFriendlyName filter);
+
+        /**
+         * Visits the filter.
+         * 
+         * @param filter filter to visit
+         * @return the result of the visit
+         */
+        public T visit(@Nonnull ByIpAddressBlock filter);
     }
 }
@@ -15,6 +15,7 @@ import org.opendaylight.persistence.util.common.filter.EqualityCondition;
 import org.opendaylight.persistence.util.common.filter.IntervalCondition;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 
 /**
@@ -104,6 +105,30 @@ public class TsdrMetricFilter {
         return this.filter.accept(visitor);
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.filter);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null) {
+            return false;
+        }
+
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+
+        TsdrMetricFilter other = (TsdrMetricFilter) obj;
+
+        return Objects.equal(this.filter, other.filter);
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this).add("filter", this.filter).toString();
@@ -116,6 +141,32 @@ public class TsdrMetricFilter {
 
         protected abstract <T> T accept(@Nonnull Visitor<T> visitor);
 
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getClass(), this.nameCondition, this.valueCondition, this.timestampCondition);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (obj == null) {
+                return false;
+            }
+
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+
+            Filter other = (Filter) obj;
+
+            return Objects.equal(this.nameCondition, other.nameCondition)
+                    && Objects.equal(this.valueCondition, other.valueCondition)
+                    && Objects.equal(this.timestampCondition, other.timestampCondition);
+        }
+
         @Override
         public String toString() {
             return MoreObjects.toStringHelper(this).add("nameCondition", this.nameCondition)
@@ -14,6 +14,7 @@ import org.opendaylight.testapp.common.type.Password;
 import org.opendaylight.testapp.common.type.Username;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
 
 /**
  * User filter.
@@ -65,6 +66,30 @@ public class UserFilter {
         return this.filter.accept(visitor);
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.filter);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null) {
+            return false;
+        }
+
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+
+        UserFilter other = (UserFilter) obj;
+
+        return Objects.equal(this.filter, other.filter);
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this).add("filter", this.filter).toString();
@@ -77,6 +102,32 @@ public class UserFilter {
 
         protected abstract <T> T accept(@Nonnull Visitor<T> visitor);
 
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getClass(), this.usernameCondition, this.passwordCondition, this.enabledCondition);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (obj == null) {
+                return false;
+            }
+
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+
+            Filter other = (Filter) obj;
+
+            return Objects.equal(this.usernameCondition, other.usernameCondition)
+                    && Objects.equal(this.passwordCondition, other.passwordCondition)
+                    && Objects.equal(this.enabledCondition, other.enabledCondition);
+        }
+
         @Override
         public String toString() {
             return MoreObjects.toStringHelper(this).add("usernameCondition", this.usernameCondition)
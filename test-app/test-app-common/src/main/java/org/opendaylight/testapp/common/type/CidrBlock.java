@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.testapp.common.type;
+
+import javax.annotation.Nonnull;
+
+import org.opendaylight.persistence.util.common.type.Interval;
+import org.opendaylight.persistence.util.common.type.SerializableValueType;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * CIDR (Classless Inter-Domain Routing) block: The range of IP addresses sharing a prefix, written as
+ * {@code address/prefix-length} (For example {@code 10.20.0.0/16} or {@code 2001:db8::/32}).
+ * <p>
+ * Since IP addresses are ordered by their numeric value (See {@link IpAddress#compareTo(IpAddress)}), a block is the
+ * closed interval between its first and last addresses, which allows finding the addresses in a block through a range
+ * query (See {@link #toInterval()}).
+ * 
+ */
+public final class CidrBlock extends SerializableValueType<String> {
+    private static final long serialVersionUID = 1L;
+
+    private static final int IPv4_BITS = IpAddress.IPv4_OCTETS * Byte.SIZE;
+    private static final int IPv6_BITS = IpAddress.IPv6_OCTETS * Byte.SIZE;
+
+    private final IpAddress firstAddress;
+    private final IpAddress lastAddress;
+    private final int prefixLength;
+
+    private CidrBlock(IpAddress firstAddress, IpAddress lastAddress, int prefixLength) {
+        super(firstAddress.getValue() + "/" + prefixLength);
+        this.firstAddress = firstAddress;
+        this.lastAddress = lastAddress;
+        this.prefixLength = prefixLength;
+    }
+
+    /**
+     * Creates a CIDR block from its string representation. An address without prefix length is a block containing
+     * just that address.
+     * 
+     * @param value value in the form {@code address/prefix-length}
+     * @return a CIDR block
+     */
+    public static CidrBlock valueOf(@Nonnull String value) {
+        Preconditions.checkNotNull(value, "value");
+        int separator = value.indexOf('/');
+        if (separator < 0) {
+            IpAddress address = IpAddress.valueOf(value);
+            return valueOf(address, getMaxPrefixLength(address));
+        }
+
+        int prefixLength;
+        try {
+            prefixLength = Integer.parseInt(value.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid format: " + value, e);
+        }
+        // The prefix length of an IPv4-mapped IPv6 address written in IPv6 notation is an IPv6 prefix length
+        String address = value.substring(0, separator);
+        return valueOf(IpAddress.valueOf(address), prefixLength, getMaxPrefixLength(address));
+    }
+
+    /**
+     * Creates the CIDR block that contains the given address.
+     * 
+     * @param address any address in the block. Bits beyond the prefix length are ignored
+     * @param prefixLength number of leading bits shared by the addresses in the block: from 0 to 32 for IPv4 and from
+     *            0 to 128 for IPv6
+     * @return a CIDR block
+     */
+    public static CidrBlock valueOf(@Nonnull IpAddress address, int prefixLength) {
+        Preconditions.checkNotNull(address, "address");
+        return valueOf(address, prefixLength, getMaxPrefixLength(address));
+    }
+
+    private static CidrBlock valueOf(IpAddress address, int prefixLength, int maxPrefixLength) {
+        Preconditions.checkArgument(prefixLength >= 0 && prefixLength <= maxPrefixLength,
+                "prefixLength must be in the range [0, " + maxPrefixLength + "]");
+
+        // IPv4 addresses are mapped to IPv6, thus their prefix starts after the mapping prefix
+        int prefixBits = IPv6_BITS - maxPrefixLength + prefixLength;
+        byte[] first = address.getIpV6Octets();
+        byte[] last = first.clone();
+        for (int i = 0; i < IpAddress.IPv6_OCTETS; i++) {
+            int hostBits = Math.min(Byte.SIZE, Math.max(0, (i + 1) * Byte.SIZE - prefixBits));
+            int hostMask = (1 << hostBits) - 1;
+            first[i] = (byte) (first[i] & ~hostMask);
+            last[i] = (byte) (last[i] | hostMask);
+        }
+
+        IpAddress firstAddress = IpAddress.valueOfOctets(first);
+        IpAddress lastAddress = IpAddress.valueOfOctets(last);
+        int maxFirstPrefixLength = getMaxPrefixLength(firstAddress);
+        // A block of IPv4-mapped IPv6 addresses (::ffff:0:0/96 or longer prefix) is an IPv4 block
+        return new CidrBlock(firstAddress, lastAddress, prefixLength - (maxPrefixLength - maxFirstPrefixLength));
+    }
+
+    /**
+     * Gets the first address of the block (The network address).
+     * 
+     * @return the first address
+     */
+    public IpAddress getFirstAddress() {
+        return this.firstAddress;
+    }
+
+    /**
+     * Gets the last address of the block.
+     * 
+     * @return the last address
+     */
+    public IpAddress getLastAddress() {
+        return this.lastAddress;
+    }
+
+    /**
+     * Gets the prefix length.
+     * 
+     * @return the number of leading bits shared by the addresses in the block
+     */
+    public int getPrefixLength() {
+        return this.prefixLength;
+    }
+
+    /**
+     * Verifies whether an address belongs to the block.
+     * 
+     * @param address address to verify
+     * @return {@code true} if {@code address} belongs to this block, {@code false} otherwise
+     */
+    public boolean contains(@Nonnull IpAddress address) {
+        Preconditions.checkNotNull(address, "address");
+        return this.firstAddress.compareTo(address) <= 0 && address.compareTo(this.lastAddress) <= 0;
+    }
+
+    /**
+     * Gets the block as an interval of addresses.
+     * 
+     * @return the closed interval from the first to the last address of the block
+     */
+    public Interval<IpAddress> toInterval() {
+        return Interval.closed(this.firstAddress, this.lastAddress);
+    }
+
+    private static int getMaxPrefixLength(IpAddress address) {
+        return getMaxPrefixLength(address.getValue());
+    }
+
+    private static int getMaxPrefixLength(String address) {
+        return address.indexOf(':') < 0 ? IPv4_BITS : IPv6_BITS;
+    }
+}
@@ -9,6 +9,7 @@ package org.opendaylight.testapp.common.type;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.annotation.Nonnull;
@@ -20,13 +21,39 @@ import com.google.common.base.Preconditions;
 
 /**
  * IP Address.
+ * <p>
+ * Address literals are kept in canonical textual form, so different representations of the same address are equal:
+ * IPv4 addresses use the dotted decimal notation without leading zeros, IPv4-mapped IPv6 addresses
+ * ({@code ::ffff:a.b.c.d}) are IPv4 addresses (As in {@link InetAddress}) and IPv6 addresses use the RFC 5952 notation
+ * (Lower case hexadecimal digits without leading zeros, and the longest run of two or more zero fields compressed to
+ * {@code ::}). For example, {@code 0:0:0:0:0:0:0:1} is {@code ::1}.
+ * <p>
+ * Only address literals are accepted, so an IP address never requires a name service lookup: Host names are rejected,
+ * and so are IPv6 addresses with a scope ({@code fe80::1%eth0}), since the scope is only meaningful on the host the
+ * address was taken from and it is not part of the numeric value of the address.
+ * <p>
+ * IP addresses are ordered by their numeric value as IPv6 addresses, IPv4 addresses being mapped to IPv6 (See
+ * {@link #getIpV6Octets()}). This ordering is consistent with {@link #equals(Object)}.
  * 
  * @author Fabiel Zuniga
  * @author Nachiket Abhyankar
  */
-public final class IpAddress extends SerializableValueType<String> {
+public final class IpAddress extends SerializableValueType<String> implements Comparable<IpAddress> {
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Number of octets of an IPv4 address.
+     */
+    public static final int IPv4_OCTETS = 4;
+
+    /**
+     * Number of octets of an IPv6 address.
+     */
+    public static final int IPv6_OCTETS = 16;
+
+    // IPv4-mapped IPv6 addresses: ::ffff:0:0/96
+    private static final int IPv4_MAPPED_PREFIX_OCTETS = IPv6_OCTETS - IPv4_OCTETS;
+
     /*
      * Regular expression taken from:
      * http://www.mkyong.com/regular-expressions/how-to-validate-ip-address-with-regular-expression
@@ -48,6 +75,12 @@ public final class IpAddress extends SerializableValueType<String> {
         + "([01]?\\d\\d?|2[0-4]\\d|25[0-5])\\." + "([01]?\\d\\d?|2[0-4]\\d|25[0-5])\\."
         + "([01]?\\d\\d?|2[0-4]\\d|25[0-5])$");
 
+    /*
+     * Characters of an IPv6 literal (Including an embedded IPv4 address). A string starting with a hexadecimal digit
+     * or a colon and containing a colon is parsed by InetAddress as an IPv6 literal, never looked up as a host name.
+     */
+    private static Pattern IPv6_PATTERN = Pattern.compile("^[0-9A-Fa-f:][0-9A-Fa-f:.]*$");
+
     /**
      * Loop-back address.
      */
@@ -61,17 +94,97 @@ public final class IpAddress extends SerializableValueType<String> {
     private transient volatile InetAddress inetAddress;
 
     private IpAddress(@Nonnull String value) {
-        super(value);
-        Preconditions.checkArgument(isValid(value), "Invalid format: " + value);
+        super(canonicalize(value));
     }
 
     private IpAddress(InetAddress inetAddress) {
-        super(inetAddress.getHostAddress());
+        super(toText(inetAddress));
         this.inetAddress = inetAddress;
     }
 
+    private static String canonicalize(String value) {
+        Preconditions.checkArgument(isValid(value), "Invalid format: " + value);
+
+        Matcher ipV4Matcher = IPv4_PATTERN.matcher(value);
+        if (ipV4Matcher.matches()) {
+            StringBuilder str = new StringBuilder(15);
+            for (int i = 1; i <= IPv4_OCTETS; i++) {
+                if (i > 1) {
+                    str.append('.');
+                }
+                str.append(Integer.parseInt(ipV4Matcher.group(i)));
+            }
+            return str.toString();
+        }
+
+        return toText(parseIpV6(value));
+    }
+
+    @Nullable
+    private static InetAddress parseIpV6(String value) {
+        if (value.indexOf(':') < 0 || !IPv6_PATTERN.matcher(value).matches()) {
+            return null;
+        }
+
+        try {
+            return InetAddress.getByName(value);
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private static String toText(InetAddress inetAddress) {
+        String hostAddress = inetAddress.getHostAddress();
+        Preconditions.checkArgument(hostAddress.indexOf('%') < 0, "Scoped addresses are not supported: "
+                + hostAddress);
+
+        byte[] octets = inetAddress.getAddress();
+        if (octets.length == IPv4_OCTETS) {
+            return inetAddress.getHostAddress();
+        }
+
+        int[] fields = new int[IPv6_OCTETS / 2];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = ((octets[2 * i] & 0xff) << 8) | (octets[2 * i + 1] & 0xff);
+        }
+
+        // Longest run of zero fields, the first one if there is a tie
+        int zerosStart = -1;
+        int zerosLength = 0;
+        for (int i = 0; i < fields.length; i++) {
+            int length = 0;
+            while (i + length < fields.length && fields[i + length] == 0) {
+                length++;
+            }
+            if (length > zerosLength) {
+                zerosStart = i;
+                zerosLength = length;
+            }
+            i += length;
+        }
+        if (zerosLength < 2) {
+            // A single zero field is not compressed
+            zerosStart = -1;
+        }
+
+        StringBuilder str = new StringBuilder(39);
+        for (int i = 0; i < fields.length; i++) {
+            if (i == zerosStart) {
+                str.append("::");
+                i += zerosLength - 1;
+            } else {
+                if (str.length() > 0 && str.charAt(str.length() - 1) != ':') {
+                    str.append(':');
+                }
+                str.append(Integer.toHexString(fields[i]));
+            }
+        }
+
+        return str.toString();
+    }
+
     /**
-     * Verifies whether a string represents a valid IP Address.
+     * Verifies whether a string represents a valid IP Address: An IPv4 or IPv6 address literal without scope.
      *
      * @param value value to validate
      * @return {@code true} id {@code value} represents a valid IP address, {@code false} otherwise
@@ -80,18 +193,7 @@ public final class IpAddress extends SerializableValueType<String> {
         if (value == null) {
             return false;
         }
-        boolean valid = IPv4_PATTERN.matcher(value).matches();
-        if (!valid) {
-            // TODO: Find a better way to validate an IPv6 address.
-            try {
-                InetAddress.getByName(value);
-                valid = true;
-            }
-            catch (Exception e) {
-
-            }
-        }
-        return valid;
+        return IPv4_PATTERN.matcher(value).matches() || parseIpV6(value) != null;
     }
 
     /**
@@ -109,6 +211,7 @@ public final class IpAddress extends SerializableValueType<String> {
      *
      * @param inetAddress value
      * @return an IP Address
+     * @throws IllegalArgumentException if {@code inetAddress} is a scoped IPv6 address
      */
     public static IpAddress valueOf(@Nonnull InetAddress inetAddress) {
         Preconditions.checkNotNull(inetAddress, "inetAddress");
@@ -143,6 +246,67 @@ public final class IpAddress extends SerializableValueType<String> {
         return IpAddress.valueOf(str.toString());
     }
 
+    /**
+     * Creates an IP address from its octets.
+     * 
+     * @param octets 4 octets for an IPv4 address or 16 octets for an IPv6 address, in network byte order
+     *            (Big-endian). IPv4-mapped IPv6 addresses create an IPv4 address, so the created address is equal to
+     *            any address with the same {@link #getIpV6Octets()}
+     * @return an IP address
+     */
+    public static IpAddress valueOfOctets(@Nonnull byte[] octets) {
+        Preconditions.checkNotNull(octets, "octets");
+        Preconditions.checkArgument(octets.length == IPv4_OCTETS || octets.length == IPv6_OCTETS,
+                "Invalid number of octets: " + octets.length);
+        try {
+            return valueOf(InetAddress.getByAddress(octets));
+        } catch (UnknownHostException e) {
+            // Thrown just if the number of octets is invalid
+            throw new IllegalArgumentException("Invalid number of octets: " + octets.length, e);
+        }
+    }
+
+    /**
+     * Gets the 16 octets of the address as an IPv6 address in network byte order (Big-endian). IPv4 addresses are
+     * mapped to IPv6 ({@code ::ffff:a.b.c.d}), so an IPv4 network is a contiguous range of IPv6 addresses.
+     * <p>
+     * Comparing the octets as an unsigned number gives the ordering of IP addresses.
+     * 
+     * @return the IPv6 octets
+     */
+    public byte[] getIpV6Octets() {
+        byte[] octets;
+        try {
+            octets = getInetAddress().getAddress();
+        } catch (UnknownHostException e) {
+            // Thrown just if the value is not a literal, which is verified at creation
+            throw new IllegalStateException("Invalid address literal " + getValue(), e);
+        }
+
+        if (octets.length == IPv6_OCTETS) {
+            return octets;
+        }
+
+        byte[] ipV6Octets = new byte[IPv6_OCTETS];
+        ipV6Octets[IPv4_MAPPED_PREFIX_OCTETS - 2] = (byte) 0xff;
+        ipV6Octets[IPv4_MAPPED_PREFIX_OCTETS - 1] = (byte) 0xff;
+        System.arraycopy(octets, 0, ipV6Octets, IPv4_MAPPED_PREFIX_OCTETS, IPv4_OCTETS);
+        return ipV6Octets;
+    }
+
+    @Override
+    public int compareTo(IpAddress other) {
+        byte[] octets = getIpV6Octets();
+        byte[] otherOctets = other.getIpV6Octets();
+        for (int i = 0; i < IPv6_OCTETS; i++) {
+            int difference = (octets[i] & 0xff) - (otherOctets[i] & 0xff);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return 0;
+    }
+
     /**
      * Gets the {@link InetAddress}.
      *
@@ -211,7 +375,7 @@ public final class IpAddress extends SerializableValueType<String> {
              * reasonable price.
              */
 
-            // TODO: Do not use getByName. Find a way to get an IpAddress for V6.
+            // The value is an address literal, so it is parsed without a name service lookup
             IpAddress.this.inetAddress = InetAddress.getByName(getValue());
         }
         return this.inetAddress;
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.testapp.common.type;
+
+import org.opendaylight.persistence.util.common.Converter;
+import org.opendaylight.persistence.util.common.codec.BinaryReader;
+import org.opendaylight.persistence.util.common.codec.BinaryWriter;
+import org.opendaylight.persistence.util.common.codec.Codec;
+import org.opendaylight.persistence.util.common.codec.CodecRegistry;
+import org.opendaylight.persistence.util.common.codec.ValueCodecs;
+
+/**
+ * Codecs for the test application value types.
+ * 
+ */
+public final class TypeCodecs {
+
+    /**
+     * Tag of {@link IpAddress} in a {@link CodecRegistry}.
+     */
+    public static final int IP_ADDRESS_TAG = CodecRegistry.FIRST_APPLICATION_TAG;
+
+    /**
+     * Tag of {@link MacAddress} in a {@link CodecRegistry}.
+     */
+    public static final int MAC_ADDRESS_TAG = CodecRegistry.FIRST_APPLICATION_TAG + 1;
+
+    /**
+     * Tag of {@link SerialNumber} in a {@link CodecRegistry}.
+     */
+    public static final int SERIAL_NUMBER_TAG = CodecRegistry.FIRST_APPLICATION_TAG + 2;
+
+    private static final int TEXT_FORMAT = 0;
+    private static final int BINARY_FORMAT = 1;
+
+    /**
+     * {@link IpAddress} codec: IPv4 addresses in canonical dotted-decimal notation are encoded as
+     * four bytes, any other address as text (Addresses are compared by their text, so the text
+     * must be preserved).
+     */
+    public static final Codec<IpAddress> IP_ADDRESS = new Codec<IpAddress>() {
+        @Override
+        public void encode(IpAddress value, BinaryWriter writer) {
+            byte[] octets = toIpV4Octets(value.getValue());
+            if (octets != null) {
+                writer.writeByte(BINARY_FORMAT);
+                for (byte octet : octets) {
+                    writer.writeByte(octet);
+                }
+            } else {
+                writer.writeByte(TEXT_FORMAT);
+                writer.writeString(value.getValue());
+            }
+        }
+
+        @Override
+        public IpAddress decode(BinaryReader reader) {
+            if (readFormat(reader) == BINARY_FORMAT) {
+                return IpAddress.valueOfIpV4(reader.readByte(), reader.readByte(), reader.readByte(),
+                        reader.readByte());
+            }
+            return IpAddress.valueOf(reader.readString());
+        }
+    };
+
+    /**
+     * {@link MacAddress} codec: Addresses in lower case are encoded as six bytes, any other address
+     * as text (Addresses are compared by their text, so the text must be preserved).
+     */
+    public static final Codec<MacAddress> MAC_ADDRESS = new Codec<MacAddress>() {
+        @Override
+        public void encode(MacAddress value, BinaryWriter writer) {
+            String text = value.getValue();
+            if (text.equals(text.toLowerCase())) {
+                writer.writeByte(BINARY_FORMAT);
+                // Format: xx:xx:xx:xx:xx:xx
+                for (int i = 0; i < text.length(); i += 3) {
+                    writer.writeByte(Integer.parseInt(text.substring(i, i + 2), 16));
+                }
+            } else {
+                writer.writeByte(TEXT_FORMAT);
+                writer.writeString(text);
+            }
+        }
+
+        @Override
+        public MacAddress decode(BinaryReader reader) {
+            if (readFormat(reader) == BINARY_FORMAT) {
+                return MacAddress.valueOfOctets(reader.readByte(), reader.readByte(), reader.readByte(),
+                        reader.readByte(), reader.readByte(), reader.readByte());
+            }
+            return MacAddress.valueOf(reader.readString());
+        }
+    };
+
+    /**
+     * {@link SerialNumber} codec.
+     */
+    public static final Codec<SerialNumber> SERIAL_NUMBER = ValueCodecs.valueType(ValueCodecs.STRING,
+            new Converter<String, SerialNumber>() {
+                @Override
+                public SerialNumber convert(String source) {
+                    return SerialNumber.valueOf(source);
+                }
+            });
+
+    private TypeCodecs() {
+
+    }
+
+    /**
+     * Registers the codecs of the test application value types.
+     * 
+     * @param registry registry to register the codecs in
+     */
+    public static void register(CodecRegistry registry) {
+        registry.register(IP_ADDRESS_TAG, IpAddress.class, IP_ADDRESS);
+        registry.register(MAC_ADDRESS_TAG, MacAddress.class, MAC_ADDRESS);
+        registry.register(SERIAL_NUMBER_TAG, SerialNumber.class, SERIAL_NUMBER);
+    }
+
+    private static int readFormat(BinaryReader reader) {
+        byte format = reader.readByte();
+        if (format != TEXT_FORMAT && format != BINARY_FORMAT) {
+            throw new IllegalArgumentException("Malformed encoding: invalid format " + format);
+        }
+        return format;
+    }
+
+    /**
+     * Gets the octets of an IPv4 address in canonical dotted-decimal notation (No leading zeros).
+     * 
+     * @return the octets, {@code null} if {@code text} is not a canonical IPv4 address
+     */
+    private static byte[] toIpV4Octets(String text) {
+        String[] parts = text.split("\\.", -1);
+        if (parts.length != 4) {
+            return null;
+        }
+
+        byte[] octets = new byte[4];
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            if (part.isEmpty() || part.length() > 3 || (part.length() > 1 && part.charAt(0) == '0')) {
+                return null;
+            }
+            int value = 0;
+            for (int j = 0; j < part.length(); j++) {
+                char c = part.charAt(j);
+                if (c < '0' || c > '9') {
+                    return null;
+                }
+                value = value * 10 + (c - '0');
+            }
+            if (value > 255) {
+                return null;
+            }
+            octets[i] = (byte) value;
+        }
+        return octets;
+    }
+}
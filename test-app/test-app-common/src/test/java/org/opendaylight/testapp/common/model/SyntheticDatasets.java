@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.testapp.common.model;
+
+import java.util.Date;
+
+import org.opendaylight.persistence.util.common.type.Id;
+import org.opendaylight.persistence.util.test.DatasetGenerator;
+import org.opendaylight.persistence.util.test.H2BulkLoader.RowMapper;
+import org.opendaylight.persistence.util.test.RandomDataGenerator;
+import org.opendaylight.persistence.util.test.SkewedDistribution;
+import org.opendaylight.testapp.common.type.Email;
+import org.opendaylight.testapp.common.type.IpAddress;
+import org.opendaylight.testapp.common.type.Location;
+import org.opendaylight.testapp.common.type.MacAddress;
+import org.opendaylight.testapp.common.type.Password;
+import org.opendaylight.testapp.common.type.ReachabilityStatus;
+import org.opendaylight.testapp.common.type.SerialNumber;
+import org.opendaylight.testapp.common.type.Username;
+
+import com.google.common.io.BaseEncoding;
+
+/**
+ * Reproducible synthetic datasets of the test application model, meant to populate a database with
+ * millions of records for performance tests.
+ * <p>
+ * Values are not uniform: Locations follow a Zipf distribution (most devices are in the first
+ * building), most devices are reachable, most users are enabled, a few metric names account for
+ * most of the samples and metric timestamps are skewed towards the end of the requested period.
+ * Identifiers are derived from the record index, so they are unique within a dataset.
+ * <p>
+ * The column arrays and row mappers describe the tables used by the JPA implementation and can be
+ * passed to {@link org.opendaylight.persistence.util.test.H2BulkLoader}. Values are written in the
+ * form the JPA implementation stores them: IP addresses as the hexadecimal key written by its
+ * IP address converter, so they can be found by CIDR block.
+ */
+public final class SyntheticDatasets {
+
+    /**
+     * Columns of the network device table.
+     */
+    public static final String[] NETWORK_DEVICE_COLUMNS = { "id", "mac_address", "ip_address", "location",
+            "friendly_name", "reachability_status" };
+
+    /**
+     * Columns of the user table.
+     */
+    public static final String[] USER_COLUMNS = { "username", "password", "email", "description", "enabled" };
+
+    /**
+     * Columns of the TSDR metric table.
+     */
+    public static final String[] TSDR_METRIC_COLUMNS = { "id", "name", "value", "timestamp" };
+
+    private static final SkewedDistribution LOCATION_DISTRIBUTION = SkewedDistribution.zipf(
+            Location.values().length, 1.0);
+    private static final SkewedDistribution REACHABILITY_DISTRIBUTION = SkewedDistribution.weighted(9, 1);
+    private static final SkewedDistribution METRIC_NAME_DISTRIBUTION = SkewedDistribution.zipf(50, 1.2);
+    private static final double METRIC_RECENCY_SKEW = 3.0;
+    private static final BaseEncoding IP_ADDRESS_KEY_ENCODING = BaseEncoding.base16().lowerCase();
+
+    private SyntheticDatasets() {
+
+    }
+
+    /**
+     * Creates a network devices dataset.
+     *
+     * @param seed seed the values are generated from
+     * @param size number of devices
+     * @return a network devices dataset
+     */
+    public static DatasetGenerator<NetworkDevice> networkDevices(long seed, long size) {
+        return new DatasetGenerator<NetworkDevice>(seed, size) {
+            @Override
+            protected NetworkDevice generate(long index, RandomDataGenerator random) {
+                SerialNumber serialNumber = SerialNumber.valueOf(String.format("SN%012d", Long.valueOf(index)));
+                MacAddress macAddress = MacAddress.valueOfOctets((byte) 0x02, (byte) 0x00, (byte) (index >>> 24),
+                        (byte) (index >>> 16), (byte) (index >>> 8), (byte) index);
+                ReachabilityStatus reachabilityStatus = random.getEnum(ReachabilityStatus.class,
+                        REACHABILITY_DISTRIBUTION);
+                NetworkDevice device = new NetworkDevice(Id.<NetworkDevice, SerialNumber> valueOf(serialNumber),
+                        serialNumber, macAddress, reachabilityStatus);
+                device.setIpAddress(IpAddress.valueOfIpV4((byte) 10, (byte) (index >>> 16), (byte) (index >>> 8),
+                        (byte) index));
+                device.setLocation(random.getEnum(Location.class, LOCATION_DISTRIBUTION));
+                if (random.getInt(4) != 0) {
+                    device.setFriendlyName("device-" + index);
+                }
+                return device;
+            }
+        };
+    }
+
+    /**
+     * Creates a users dataset.
+     *
+     * @param seed seed the values are generated from
+     * @param size number of users
+     * @return a users dataset
+     */
+    public static DatasetGenerator<User> users(long seed, long size) {
+        return new DatasetGenerator<User>(seed, size) {
+            @Override
+            protected User generate(long index, RandomDataGenerator random) {
+                User user = new User(Username.valueOf("user" + index));
+                user.setPassword(Password.valueOf(Long.toHexString(random.getLong())));
+                user.setEmail(Email.valueOf("user" + index + "@example.com"));
+                if (random.getInt(10) == 0) {
+                    user.setDescription("Description of user " + index);
+                }
+                user.setEnabled(random.getInt(20) != 0);
+                return user;
+            }
+        };
+    }
+
+    /**
+     * Creates a TSDR metrics dataset.
+     *
+     * @param seed seed the values are generated from
+     * @param size number of metrics
+     * @param from start of the period the timestamps are generated in (inclusive)
+     * @param to end of the period the timestamps are generated in (exclusive)
+     * @return a TSDR metrics dataset
+     */
+    public static DatasetGenerator<TsdrMetric> tsdrMetrics(long seed, long size, final Date from, final Date to) {
+        if (from == null) {
+            throw new NullPointerException("from cannot be null");
+        }
+
+        if (to == null) {
+            throw new NullPointerException("to cannot be null");
+        }
+
+        return new DatasetGenerator<TsdrMetric>(seed, size) {
+            @Override
+            protected TsdrMetric generate(long index, RandomDataGenerator random) {
+                String name = "metric-" + random.getIndex(METRIC_NAME_DISTRIBUTION);
+                String value = String.valueOf(random.getInt(1000));
+                Date timestamp = new Date(random.getTime(from.getTime(), to.getTime(), METRIC_RECENCY_SKEW));
+                return new TsdrMetric(Long.valueOf(index + 1), name, value, timestamp);
+            }
+        };
+    }
+
+    /**
+     * Gets the row mapper for {@link #NETWORK_DEVICE_COLUMNS}.
+     *
+     * @return the network device row mapper
+     */
+    public static RowMapper<NetworkDevice> networkDeviceRowMapper() {
+        return new RowMapper<NetworkDevice>() {
+            @Override
+            public Object[] toRow(NetworkDevice device) {
+                return new Object[] { device.getIdentifier().getValue(), device.getMacAddress().getValue(),
+                        device.getIpAddress() != null ? IP_ADDRESS_KEY_ENCODING.encode(device.getIpAddress()
+                                .getIpV6Octets()) : null,
+                        device.getLocation(), device.getFriendlyName(), device.getReachabilityStatus() };
+            }
+        };
+    }
+
+    /**
+     * Gets the row mapper for {@link #USER_COLUMNS}.
+     *
+     * @return the user row mapper
+     */
+    public static RowMapper<User> userRowMapper() {
+        return new RowMapper<User>() {
+            @Override
+            public Object[] toRow(User user) {
+                return new Object[] { user.getIdentifier().getValue(),
+                        user.getPassword() != null ? user.getPassword().getValue() : null,
+                        user.getEmail() != null ? user.getEmail().getValue() : null, user.getDescription(),
+                        Boolean.valueOf(user.isEnabled()) };
+            }
+        };
+    }
+
+    /**
+     * Gets the row mapper for {@link #TSDR_METRIC_COLUMNS}.
+     *
+     * @return the TSDR metric row mapper
+     */
+    public static RowMapper<TsdrMetric> tsdrMetricRowMapper() {
+        return new RowMapper<TsdrMetric>() {
+            @Override
+            public Object[] toRow(TsdrMetric metric) {
+                return new Object[] { metric.getIdentifier(), metric.getName(), metric.getValue(),
+                        metric.getTimestamp() };
+            }
+        };
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.testapp.common.model;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.opendaylight.persistence.util.test.DatasetGenerator;
+import org.opendaylight.persistence.util.test.H2BulkLoader;
+import org.opendaylight.testapp.common.type.Location;
+import org.opendaylight.testapp.common.type.ReachabilityStatus;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class SyntheticDatasetsTest {
+
+    @Test
+    public void testNetworkDevicesReproducible() {
+        Iterator<NetworkDevice> first = SyntheticDatasets.networkDevices(7, 1000).iterator();
+        Iterator<NetworkDevice> second = SyntheticDatasets.networkDevices(7, 1000).iterator();
+        while (first.hasNext()) {
+            NetworkDevice expected = first.next();
+            NetworkDevice actual = second.next();
+            Assert.assertEquals(expected.getIdentifier(), actual.getIdentifier());
+            Assert.assertEquals(expected.getMacAddress(), actual.getMacAddress());
+            Assert.assertEquals(expected.getIpAddress(), actual.getIpAddress());
+            Assert.assertEquals(expected.getLocation(), actual.getLocation());
+            Assert.assertEquals(expected.getFriendlyName(), actual.getFriendlyName());
+            Assert.assertEquals(expected.getReachabilityStatus(), actual.getReachabilityStatus());
+        }
+        Assert.assertFalse(second.hasNext());
+    }
+
+    @Test
+    public void testNetworkDevicesSkew() {
+        int size = 20000;
+        Map<Location, Integer> locations = new EnumMap<Location, Integer>(Location.class);
+        int reachable = 0;
+        for (NetworkDevice device : SyntheticDatasets.networkDevices(11, size)) {
+            Integer count = locations.get(device.getLocation());
+            locations.put(device.getLocation(), Integer.valueOf(count == null ? 1 : count.intValue() + 1));
+            if (device.getReachabilityStatus() == ReachabilityStatus.REACHABLE) {
+                reachable++;
+            }
+        }
+
+        Location[] values = Location.values();
+        for (int i = 1; i < values.length; i++) {
+            Assert.assertTrue(locations.get(values[i - 1]).intValue() > locations.get(values[i]).intValue());
+        }
+        Assert.assertEquals(0.9, (double) reachable / size, 0.02);
+    }
+
+    @Test
+    public void testTsdrMetricsRecency() {
+        Date from = new Date(0);
+        Date to = new Date(1000000);
+        int size = 10000;
+        int recent = 0;
+        for (TsdrMetric metric : SyntheticDatasets.tsdrMetrics(3, size, from, to)) {
+            long time = metric.getTimestamp().getTime();
+            Assert.assertTrue(time >= from.getTime() && time < to.getTime());
+            if (time >= to.getTime() / 2) {
+                recent++;
+            }
+        }
+        Assert.assertTrue(recent > size * 3 / 4);
+    }
+
+    @Test
+    public void testBulkLoad() throws Exception {
+        int size = 5000;
+        DatasetGenerator<NetworkDevice> devices = SyntheticDatasets.networkDevices(5, size);
+        Map<Location, Integer> expected = new EnumMap<Location, Integer>(Location.class);
+        for (NetworkDevice device : devices) {
+            Integer count = expected.get(device.getLocation());
+            expected.put(device.getLocation(), Integer.valueOf(count == null ? 1 : count.intValue() + 1));
+        }
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:SyntheticDatasetsTest")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE network_device (id VARCHAR(255) PRIMARY KEY, "
+                        + "mac_address VARCHAR(255) NOT NULL, ip_address VARCHAR(255), location VARCHAR(255), "
+                        + "friendly_name VARCHAR(128), reachability_status VARCHAR(255))");
+            }
+
+            long rows = H2BulkLoader.load(connection, "network_device", SyntheticDatasets.NETWORK_DEVICE_COLUMNS,
+                    devices, SyntheticDatasets.networkDeviceRowMapper());
+            Assert.assertEquals(size, rows);
+
+            try (Statement statement = connection.createStatement();
+                    ResultSet resultSet = statement.executeQuery("SELECT location, COUNT(*) FROM network_device "
+                            + "GROUP BY location")) {
+                int locations = 0;
+                while (resultSet.next()) {
+                    Location location = Location.valueOf(resultSet.getString(1));
+                    Assert.assertEquals(expected.get(location).intValue(), resultSet.getInt(2));
+                    locations++;
+                }
+                Assert.assertEquals(expected.size(), locations);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.testapp.common.type;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.opendaylight.persistence.util.common.type.Interval;
+import org.opendaylight.persistence.util.test.ThrowableTester;
+import org.opendaylight.persistence.util.test.ThrowableTester.Instruction;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class CidrBlockTest {
+
+    @Test
+    public void testValueOfIpV4() {
+        CidrBlock block = CidrBlock.valueOf("10.20.30.40/16");
+        Assert.assertEquals("10.20.0.0/16", block.getValue());
+        Assert.assertEquals(16, block.getPrefixLength());
+        Assert.assertEquals(IpAddress.valueOf("10.20.0.0"), block.getFirstAddress());
+        Assert.assertEquals(IpAddress.valueOf("10.20.255.255"), block.getLastAddress());
+
+        block = CidrBlock.valueOf("192.168.1.77/27");
+        Assert.assertEquals(IpAddress.valueOf("192.168.1.64"), block.getFirstAddress());
+        Assert.assertEquals(IpAddress.valueOf("192.168.1.95"), block.getLastAddress());
+
+        block = CidrBlock.valueOf("0.0.0.0/0");
+        Assert.assertEquals(IpAddress.valueOf("0.0.0.0"), block.getFirstAddress());
+        Assert.assertEquals(IpAddress.valueOf("255.255.255.255"), block.getLastAddress());
+
+        block = CidrBlock.valueOf("10.1.2.3");
+        Assert.assertEquals("10.1.2.3/32", block.getValue());
+        Assert.assertEquals(block.getFirstAddress(), block.getLastAddress());
+    }
+
+    @Test
+    public void testValueOfIpV6() {
+        CidrBlock block = CidrBlock.valueOf("2001:db8::1/32");
+        Assert.assertEquals(32, block.getPrefixLength());
+        Assert.assertEquals(IpAddress.valueOf("2001:db8:0:0:0:0:0:0"), block.getFirstAddress());
+        Assert.assertEquals(IpAddress.valueOf("2001:db8:ffff:ffff:ffff:ffff:ffff:ffff"), block.getLastAddress());
+
+        // IPv4-mapped IPv6 block
+        block = CidrBlock.valueOf("::ffff:10.20.0.0/112");
+        Assert.assertEquals(CidrBlock.valueOf("10.20.0.0/16"), block);
+    }
+
+    @Test
+    public void testInvalid() {
+        for (final String value : new String[] { "10.0.0.0/33", "10.0.0.0/-1", "10.0.0.0/a", "2001:db8::/129",
+                "10.0.0.256/8" }) {
+            ThrowableTester.testThrows(IllegalArgumentException.class, new Instruction() {
+                @Override
+                public void execute() throws Throwable {
+                    CidrBlock.valueOf(value);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testContains() {
+        CidrBlock block = CidrBlock.valueOf("10.20.0.0/16");
+        Assert.assertTrue(block.contains(IpAddress.valueOf("10.20.0.0")));
+        Assert.assertTrue(block.contains(IpAddress.valueOf("10.20.128.1")));
+        Assert.assertTrue(block.contains(IpAddress.valueOf("10.20.255.255")));
+        Assert.assertFalse(block.contains(IpAddress.valueOf("10.19.255.255")));
+        Assert.assertFalse(block.contains(IpAddress.valueOf("10.21.0.0")));
+        Assert.assertFalse(block.contains(IpAddress.valueOf("2001:db8::1")));
+
+        Assert.assertFalse(CidrBlock.valueOf("2001:db8::/32").contains(IpAddress.valueOf("10.20.0.1")));
+        Assert.assertTrue(CidrBlock.valueOf("::/0").contains(IpAddress.valueOf("10.20.0.1")));
+    }
+
+    @Test
+    public void testToInterval() {
+        CidrBlock block = CidrBlock.valueOf("10.20.0.0/16");
+        Interval<IpAddress> interval = block.toInterval();
+        Assert.assertEquals(Interval.closed(block.getFirstAddress(), block.getLastAddress()), interval);
+        Assert.assertTrue(interval.contains(IpAddress.valueOf("10.20.1.1")));
+        Assert.assertFalse(interval.contains(IpAddress.valueOf("10.21.1.1")));
+    }
+}
@@ -7,7 +7,10 @@
  */
 package org.opendaylight.testapp.common.type;
 
+import java.net.Inet6Address;
 import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Collections;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -31,7 +34,8 @@ public class IpAddressTest {
         "10.0.0.a", "10.10.10.256", "222.222.2.999", "999.10.10.20", "2222.22.22.22", "22.2222.22.2", "10.10.10"};
         */
     private static final String[] INVALID_VALUES = new String[] { null, "a.a.a.a", "10.0.0.a", "10.10.10.256",
-            "222.222.2.999", "999.10.10.20", "2222.22.22.22", "22.2222.22.2" };
+            "222.222.2.999", "999.10.10.20", "2222.22.22.22", "22.2222.22.2", "localhost", "host.example.com",
+            "fe80::1%1", "[::1]", "2001:db8::g", "2001:db8:::1" };
 
     @Test
     public void testIsValidString() {
@@ -76,4 +80,87 @@ public class IpAddressTest {
             Assert.assertNotNull(ipAddress.getInetAddress());
         }
     }
+
+    @Test
+    public void testOctets() {
+        IpAddress ipV4 = IpAddress.valueOf("10.20.30.40");
+        byte[] expectedIpV4 = new byte[] { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, (byte) 0xff, (byte) 0xff, 10, 20, 30, 40 };
+        Assert.assertArrayEquals(expectedIpV4, ipV4.getIpV6Octets());
+        Assert.assertEquals(ipV4, IpAddress.valueOfOctets(new byte[] { 10, 20, 30, 40 }));
+        Assert.assertEquals(ipV4, IpAddress.valueOfOctets(expectedIpV4));
+
+        IpAddress ipV6 = IpAddress.valueOf("2001:db8::1");
+        byte[] expectedIpV6 = new byte[] { 0x20, 0x01, 0x0d, (byte) 0xb8, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1 };
+        Assert.assertArrayEquals(expectedIpV6, ipV6.getIpV6Octets());
+        Assert.assertEquals(ipV6, IpAddress.valueOfOctets(expectedIpV6));
+
+        ThrowableTester.testThrows(IllegalArgumentException.class, new Instruction() {
+            @Override
+            public void execute() throws Throwable {
+                IpAddress.valueOfOctets(new byte[] { 10, 20, 30 });
+            }
+        });
+    }
+
+    @Test
+    public void testScopedInetAddressIsRejected() throws UnknownHostException {
+        final Inet6Address scoped = Inet6Address.getByAddress(null,
+                IpAddress.valueOf("fe80::1").getInetAddress().getAddress(), 1);
+        ThrowableTester.testThrows(IllegalArgumentException.class, new Instruction() {
+            @Override
+            public void execute() throws Throwable {
+                IpAddress.valueOf(scoped);
+            }
+        });
+    }
+
+    @Test
+    public void testCanonicalForm() {
+        assertCanonicalForm("::1", "0:0:0:0:0:0:0:1", "::0001", "0::1");
+        assertCanonicalForm("::", "0:0:0:0:0:0:0:0", "::0");
+        assertCanonicalForm("2001:db8::1", "2001:DB8:0:0:0:0:0:1", "2001:0db8::0001");
+        assertCanonicalForm("2001:db8:0:1:1:1:1:1", "2001:db8::1:1:1:1:1");
+        assertCanonicalForm("2001:db8::1:0:0:1", "2001:db8:0:0:1:0:0:1");
+        assertCanonicalForm("2001:0:0:1::1", "2001:0:0:1:0:0:0:1");
+        assertCanonicalForm("fe80::", "fe80:0:0:0:0:0:0:0");
+        assertCanonicalForm("10.20.30.40", "::ffff:10.20.30.40", "::ffff:a14:1e28", "010.020.030.040");
+    }
+
+    @Test
+    public void testOctetsRoundTrip() {
+        String[] values = new String[] { "::1", "0:0:0:0:0:0:0:1", "2001:db8::1", "2001:DB8:0:0:1:0:0:1", "::",
+                "::ffff:10.20.30.40", "10.20.30.40", "0.0.0.0", "255.255.255.255" };
+        for (String value : values) {
+            IpAddress ipAddress = IpAddress.valueOf(value);
+            IpAddress reloaded = IpAddress.valueOfOctets(ipAddress.getIpV6Octets());
+            Assert.assertEquals(value, ipAddress, reloaded);
+            Assert.assertEquals(value, ipAddress.getValue(), reloaded.getValue());
+            Assert.assertEquals(value, ipAddress.hashCode(), reloaded.hashCode());
+        }
+    }
+
+    @Test
+    public void testCompareTo() {
+        IpAddress[] ordered = new IpAddress[] { IpAddress.LOOPBACK_IPv6, IpAddress.valueOf("0.0.0.0"),
+                IpAddress.valueOf("9.255.255.255"), IpAddress.valueOf("10.0.0.0"), IpAddress.valueOf("10.0.0.1"),
+                IpAddress.valueOf("127.0.0.1"), IpAddress.valueOf("255.255.255.255"),
+                IpAddress.valueOf("2001:db8::1") };
+
+        IpAddress[] shuffled = ordered.clone();
+        Collections.reverse(Arrays.asList(shuffled));
+        Arrays.sort(shuffled);
+        Assert.assertArrayEquals(ordered, shuffled);
+
+        Assert.assertEquals(0, IpAddress.LOOPBACK_IPv6.compareTo(IpAddress.valueOf("0:0:0:0:0:0:0:1")));
+    }
+
+    private static void assertCanonicalForm(String expected, String... values) {
+        Assert.assertEquals(expected, IpAddress.valueOf(expected).getValue());
+        for (String value : values) {
+            IpAddress ipAddress = IpAddress.valueOf(value);
+            Assert.assertEquals(value, expected, ipAddress.getValue());
+            Assert.assertEquals(value, IpAddress.valueOf(expected), ipAddress);
+            Assert.assertEquals(value, 0, IpAddress.valueOf(expected).compareTo(ipAddress));
+        }
+    }
 }
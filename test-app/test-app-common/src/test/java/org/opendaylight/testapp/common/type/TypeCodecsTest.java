@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.testapp.common.type;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.opendaylight.persistence.util.common.codec.CodecRegistry;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class TypeCodecsTest {
+
+    @Test
+    public void testIpAddress() {
+        CodecRegistry registry = createRegistry();
+
+        IpAddress ipV4 = IpAddress.valueOf("192.168.1.10");
+        byte[] encoding = registry.encode(ipV4);
+        // Tag, format and four octets
+        Assert.assertEquals(6, encoding.length);
+        Assert.assertEquals(ipV4, registry.decode(encoding));
+
+        // Addresses whose text is not canonical are encoded as text
+        IpAddress[] values = { IpAddress.LOOPBACK_IPv4, IpAddress.LOOPBACK_IPv6, IpAddress.valueOf("010.0.0.1"),
+                IpAddress.valueOf("fe80::1"), IpAddress.valueOf("0.0.0.0"), IpAddress.valueOf("255.255.255.255") };
+        for (IpAddress value : values) {
+            Assert.assertEquals(value, registry.decode(registry.encode(value)));
+        }
+    }
+
+    @Test
+    public void testMacAddress() {
+        CodecRegistry registry = createRegistry();
+
+        MacAddress lowerCase = MacAddress.valueOf("00:1b:2c:ff:a0:09");
+        byte[] encoding = registry.encode(lowerCase);
+        // Tag, format and six octets
+        Assert.assertEquals(8, encoding.length);
+        Assert.assertEquals(lowerCase, registry.decode(encoding));
+
+        MacAddress upperCase = MacAddress.valueOf("00:1B:2C:FF:A0:09");
+        Assert.assertEquals(upperCase, registry.decode(registry.encode(upperCase)));
+    }
+
+    @Test
+    public void testSerialNumber() {
+        CodecRegistry registry = createRegistry();
+        SerialNumber serialNumber = SerialNumber.valueOf("ASD123");
+        Assert.assertEquals(serialNumber, registry.decode(registry.encode(serialNumber)));
+    }
+
+    private static CodecRegistry createRegistry() {
+        CodecRegistry registry = CodecRegistry.createDefault();
+        TypeCodecs.register(registry);
+        return registry;
+    }
+}
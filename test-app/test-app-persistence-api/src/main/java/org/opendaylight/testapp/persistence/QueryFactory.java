@@ -11,6 +11,7 @@ package org.opendaylight.testapp.persistence;
 import java.util.List;
 
 import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.util.common.Converter;
 //import org.opendaylight.persistence.jpa.JpaContext;
 import org.opendaylight.persistence.util.common.type.Id;
 import org.opendaylight.persistence.util.common.type.Sort;
@@ -102,6 +103,11 @@ public interface QueryFactory<C> {
          * @return a query
          */
         public Query<Void, C> delete(Id<NetworkDevice, SerialNumber> id);
+
+        public Query<NetworkDevice, C> compute(SerialNumber id, Converter<NetworkDevice, NetworkDevice> remapping);
+
+        public Query<NetworkDevice, C> computeIfPresent(SerialNumber id,
+                Converter<NetworkDevice, NetworkDevice> remapping);
     }
 
     /**
@@ -142,5 +148,9 @@ public interface QueryFactory<C> {
          * @return a query
          */
         public Query<Void, C> delete(Id<User, Username> id);
+
+        public Query<User, C> compute(Username id, Converter<User, User> remapping);
+
+        public Query<User, C> computeIfPresent(Username id, Converter<User, User> remapping);
     }
 }
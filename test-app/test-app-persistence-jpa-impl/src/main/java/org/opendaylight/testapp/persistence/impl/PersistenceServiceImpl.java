@@ -13,6 +13,7 @@ import java.util.List;
 
 import org.opendaylight.persistence.DataStore;
 import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.util.common.Converter;
 import org.opendaylight.persistence.util.common.type.Id;
 import org.opendaylight.persistence.util.common.type.Sort;
 import org.opendaylight.testapp.common.model.NetworkDevice;
@@ -49,6 +50,16 @@ public abstract class PersistenceServiceImpl<C> implements PersistenceService {
         this.userPersistenceService = new UserPersistenceServiceImpl();
     }
 
+    /**
+     * Creates the schema of the data store or migrates an existing one. It must be called before the service is
+     * used.
+     *
+     * @throws PersistenceException if errors occur
+     */
+    public void createSchema() throws PersistenceException {
+        getDataStore().execute(getQueryFactory().configuration().createSchema());
+    }
+
     @Override
     public NetworkDevicePersistenceService networkDevice() {
         return this.networkDevicePersistenceService;
@@ -170,6 +181,18 @@ public abstract class PersistenceServiceImpl<C> implements PersistenceService {
 				throws PersistenceException {
 			return getDataStore().execute(getQueryFactory().networkDevice().find(filter, sort));
 		}
+
+		@Override
+		public NetworkDevice compute(SerialNumber id, Converter<NetworkDevice, NetworkDevice> remapping)
+				throws PersistenceException {
+			return getDataStore().execute(getQueryFactory().networkDevice().compute(id, remapping));
+		}
+
+		@Override
+		public NetworkDevice computeIfPresent(SerialNumber id, Converter<NetworkDevice, NetworkDevice> remapping)
+				throws PersistenceException {
+			return getDataStore().execute(getQueryFactory().networkDevice().computeIfPresent(id, remapping));
+		}
     }
 
     private class UserPersistenceServiceImpl implements UserPersistenceService {
@@ -260,6 +283,16 @@ public abstract class PersistenceServiceImpl<C> implements PersistenceService {
 			// TODO Auto-generated method stub
 			return false;
 		}
+
+		@Override
+		public User compute(Username id, Converter<User, User> remapping) throws PersistenceException {
+			return getDataStore().execute(getQueryFactory().user().compute(id, remapping));
+		}
+
+		@Override
+		public User computeIfPresent(Username id, Converter<User, User> remapping) throws PersistenceException {
+			return getDataStore().execute(getQueryFactory().user().computeIfPresent(id, remapping));
+		}
     }
 }
 
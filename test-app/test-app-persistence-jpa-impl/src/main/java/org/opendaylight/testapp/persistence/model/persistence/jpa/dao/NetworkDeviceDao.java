@@ -8,16 +8,22 @@
 
 package org.opendaylight.testapp.persistence.model.persistence.jpa.dao;
 
+import java.util.Collection;
+import java.util.Collections;
+
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
 import org.opendaylight.persistence.jpa.dao.JpaMappedKeyDao;
 import org.opendaylight.persistence.jpa.dao.JpaQueryPredicateGenerator;
+import org.opendaylight.persistence.jpa.dao.TrigramIndex;
 import org.opendaylight.persistence.util.common.type.Id;
 import org.opendaylight.testapp.common.model.NetworkDevice;
 import org.opendaylight.testapp.common.model.NetworkDeviceFilter;
 import org.opendaylight.testapp.common.model.NetworkDeviceFilter.All;
+import org.opendaylight.testapp.common.model.NetworkDeviceFilter.ByFriendlyName;
+import org.opendaylight.testapp.common.model.NetworkDeviceFilter.ByIpAddressBlock;
 import org.opendaylight.testapp.common.model.NetworkDeviceFilter.ByLocation;
 import org.opendaylight.testapp.common.model.NetworkDeviceFilter.ByLocationAndReachabilityStatus;
 import org.opendaylight.testapp.common.model.NetworkDeviceFilter.ByReachabilityStatus;
@@ -26,6 +32,8 @@ import org.opendaylight.testapp.common.type.SerialNumber;
 import org.opendaylight.testapp.persistence.model.persistence.jpa.entity.NetworkDeviceEntity;
 import org.opendaylight.testapp.persistence.model.persistence.jpa.entity.NetworkDeviceEntity_;
 
+import com.google.common.base.Objects;
+
 
 
 /**
@@ -37,6 +45,12 @@ public class NetworkDeviceDao
         extends
         JpaMappedKeyDao<SerialNumber, NetworkDevice, String, NetworkDeviceEntity, NetworkDeviceFilter, NetworkDeviceSortKey> {
 
+    // Friendly names are searched by substring, which would otherwise scan the whole table
+    private static final TrigramIndex<NetworkDeviceEntity> FRIENDLY_NAME_INDEX = new TrigramIndex<NetworkDeviceEntity>(
+            NetworkDeviceEntity.class, "friendlyName");
+    private static final Collection<TrigramIndex<NetworkDeviceEntity>> TRIGRAM_INDEXES = Collections
+            .singletonList(FRIENDLY_NAME_INDEX);
+
     /**
      * Creates a DAO.
      */
@@ -74,6 +88,14 @@ public class NetworkDeviceDao
         return device;
     }
 
+    @Override
+    protected boolean isModified(NetworkDeviceEntity target, NetworkDevice source) {
+        return !Objects.equal(target.getIpAddress(), source.getIpAddress())
+                || !Objects.equal(target.getFriendlyName(), source.getFriendlyName())
+                || target.getLocation() != source.getLocation()
+                || target.getReachabilityStatus() != source.getReachabilityStatus();
+    }
+
     @Override
     protected void conform(NetworkDeviceEntity target, NetworkDevice source) {
         target.setIpAddress(source.getIpAddress());
@@ -82,6 +104,11 @@ public class NetworkDeviceDao
         target.setReachabilityStatus(source.getReachabilityStatus());
     }
 
+    @Override
+    protected Collection<TrigramIndex<NetworkDeviceEntity>> getTrigramIndexes() {
+        return TRIGRAM_INDEXES;
+    }
+
     @Override
     protected Predicate getQueryPredicate(NetworkDeviceFilter networkDeviceFilter, final CriteriaBuilder builder,
             final Root<NetworkDeviceEntity> root) {
@@ -116,6 +143,18 @@ public class NetworkDeviceDao
                 return predicateGenerator.and(builder, locationPredicate, reachabilityStatusPredicate);
 
             }
+
+            @Override
+            public Predicate visit(ByFriendlyName filter) {
+                return getQueryPredicateGenerator().getPredicate(filter.getFriendlyNameCondition(),
+                        FRIENDLY_NAME_INDEX, builder, root);
+            }
+
+            @Override
+            public Predicate visit(ByIpAddressBlock filter) {
+                return getQueryPredicateGenerator().getPredicate(filter.getIpAddressCondition(),
+                        NetworkDeviceEntity_.ipAddress, builder, root);
+            }
         };
 
         return nonnull(networkDeviceFilter).accept(visitor);
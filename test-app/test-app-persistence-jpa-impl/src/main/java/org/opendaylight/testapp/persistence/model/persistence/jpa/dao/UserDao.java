@@ -23,6 +23,8 @@ import org.opendaylight.testapp.common.model.UserFilter.All;
 import org.opendaylight.testapp.persistence.model.persistence.jpa.entity.UserEntity;
 import org.opendaylight.testapp.persistence.model.persistence.jpa.entity.UserEntity_;
 
+import com.google.common.base.Objects;
+
 public class UserDao extends JpaMappedKeyDao<Username, User, String, UserEntity, UserFilter, Void> {
 	 /**
      * Creates a DAO.
@@ -52,6 +54,14 @@ public class UserDao extends JpaMappedKeyDao<Username, User, String, UserEntity,
         return entity;
     }
 
+    @Override
+    protected boolean isModified(UserEntity target, User source) {
+        return !Objects.equal(target.getPassword(), source.getPassword())
+                || !Objects.equal(target.getEmail(), source.getEmail())
+                || !Objects.equal(target.getDescription(), source.getDescription())
+                || target.isEnabled() != source.isEnabled();
+    }
+
     @Override
     protected void conform(UserEntity target, User source) {
         target.setPassword(source.getPassword());
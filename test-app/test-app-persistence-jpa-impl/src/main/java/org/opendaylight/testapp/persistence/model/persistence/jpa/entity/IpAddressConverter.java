@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.testapp.persistence.model.persistence.jpa.entity;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+import org.opendaylight.testapp.common.type.IpAddress;
+
+import com.google.common.io.BaseEncoding;
+
+/**
+ * Stores IP addresses as sortable fixed-width keys: The 16 octets of the address as IPv6 (See
+ * {@link IpAddress#getIpV6Octets()}) encoded as 32 lower case hexadecimal digits.
+ * <p>
+ * The database order of the keys is the numeric order of the addresses ({@link IpAddress#compareTo(IpAddress)}), so a
+ * CIDR block is a range of keys that can be resolved by an index range scan. Hexadecimal text is used instead of a
+ * binary column because databases disagree on whether bytes are compared signed or unsigned.
+ * <p>
+ * Addresses stored in textual form before this converter was introduced are re-encoded when the schema is created
+ * (See {@code QueryFactory.ConfigurationFactory#createSchema()}); until then they are still read, in canonical form
+ * (See {@link IpAddress}), but they are not matched by CIDR block filters.
+ * 
+ */
+@Converter
+public class IpAddressConverter implements AttributeConverter<IpAddress, String> {
+
+    /**
+     * Length of the stored keys.
+     */
+    public static final int KEY_LENGTH = IpAddress.IPv6_OCTETS * 2;
+
+    private static final BaseEncoding ENCODING = BaseEncoding.base16().lowerCase();
+
+    @Override
+    public String convertToDatabaseColumn(IpAddress attribute) {
+        if (attribute == null) {
+            return null;
+        }
+        return ENCODING.encode(attribute.getIpV6Octets());
+    }
+
+    @Override
+    public IpAddress convertToEntityAttribute(String dbData) {
+        if (dbData == null) {
+            return null;
+        }
+
+        if (dbData.length() != KEY_LENGTH || dbData.indexOf('.') >= 0 || dbData.indexOf(':') >= 0) {
+            // Textual form
+            return IpAddress.valueOf(dbData);
+        }
+        return IpAddress.valueOfOctets(ENCODING.decode(dbData));
+    }
+}
@@ -8,13 +8,17 @@
 
 package org.opendaylight.testapp.persistence.model.persistence.jpa.entity;
 
+import javax.persistence.Basic;
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.DynamicUpdate;
 import org.opendaylight.testapp.common.type.IpAddress;
 import org.opendaylight.testapp.common.type.Location;
 import org.opendaylight.testapp.common.type.MacAddress;
@@ -31,7 +35,8 @@ import com.google.common.base.Objects;
  * @author Fabiel Zuniga
  */
 @Entity
-@Table(name = "network_device")
+@DynamicUpdate
+@Table(name = "network_device", indexes = @Index(name = "network_device_ip_address", columnList = "ip_address"))
 public class NetworkDeviceEntity {
 
     @Id
@@ -41,8 +46,10 @@ public class NetworkDeviceEntity {
     @Column(name = "mac_address", nullable = false)
     private String macAddress;
 
+    @Basic
+    @Convert(converter = IpAddressConverter.class)
     @Column(name = "ip_address")
-    private String ipAddress;
+    private IpAddress ipAddress;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "location")
@@ -109,21 +116,14 @@ public class NetworkDeviceEntity {
      * @return the ipAddress
      */
     public IpAddress getIpAddress() {
-        IpAddress value = null;
-        if (this.ipAddress != null) {
-            value = IpAddress.valueOf(this.ipAddress);
-        }
-        return value;
+        return this.ipAddress;
     }
 
     /**
      * @param ipAddress the ipAddress to set
      */
     public void setIpAddress(IpAddress ipAddress) {
-        this.ipAddress = null;
-        if (ipAddress != null) {
-            this.ipAddress = ipAddress.getValue();
-        }
+        this.ipAddress = ipAddress;
     }
 
     /**
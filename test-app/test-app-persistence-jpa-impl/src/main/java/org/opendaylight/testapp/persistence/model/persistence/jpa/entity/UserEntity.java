@@ -13,6 +13,7 @@ import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.DynamicUpdate;
 import org.opendaylight.testapp.common.type.Email;
 import org.opendaylight.testapp.common.type.Password;
 import org.opendaylight.testapp.common.type.Username;
@@ -26,6 +27,7 @@ import com.google.common.base.Objects;
  * @author Fabiel Zuniga
  */
 @Entity
+@DynamicUpdate
 @Table(name = "users")
 public final class UserEntity {
 
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.testapp.persistence.model.persistence.jpa.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.jpa.JpaContext;
+import org.opendaylight.testapp.common.type.IpAddress;
+import org.opendaylight.testapp.persistence.model.persistence.jpa.entity.IpAddressConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Re-encodes the IP addresses of network devices stored in textual form, before {@link IpAddressConverter} was
+ * introduced, as sortable keys. Textual rows would otherwise never match a CIDR block filter and would sort out of
+ * place, since dirty checking does not write an unchanged address back.
+ * <p>
+ * Host names were accepted as IP addresses before; they can be neither encoded without a name service lookup nor read
+ * back as {@link IpAddress}. If any row holds a host name the migration fails without modifying any row, so the rows
+ * can be corrected before starting again.
+ * <p>
+ * The query is idempotent: Once all rows are migrated it just checks that no textual address is left.
+ */
+final class IpAddressMigrationQuery implements Query<Void, JpaContext> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IpAddressMigrationQuery.class);
+
+    private static final IpAddressMigrationQuery INSTANCE = new IpAddressMigrationQuery();
+
+    // Keys have a fixed length and are hexadecimal, textual addresses contain dots or colons
+    private static final String SELECT_TEXTUAL = "SELECT id, ip_address FROM network_device"
+            + " WHERE LENGTH(ip_address) <> ?1 OR ip_address LIKE '%.%' OR ip_address LIKE '%:%'";
+    private static final String UPDATE = "UPDATE network_device SET ip_address = ?1 WHERE id = ?2";
+
+    private IpAddressMigrationQuery() {
+
+    }
+
+    /**
+     * Gets the only instance of this class.
+     *
+     * @return the only instance of this class
+     */
+    static IpAddressMigrationQuery getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Void execute(JpaContext context) throws PersistenceException {
+        EntityManager entityManager = context.getEntityManager();
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(SELECT_TEXTUAL)
+                .setParameter(1, Integer.valueOf(IpAddressConverter.KEY_LENGTH)).getResultList();
+        if (rows.isEmpty()) {
+            return null;
+        }
+
+        List<String> invalid = new ArrayList<String>();
+        for (Object[] row : rows) {
+            String id = (String) row[0];
+            String value = (String) row[1];
+            if (!IpAddress.isValid(value)) {
+                LOGGER.error("The IP address of network device {} cannot be migrated: {} is not an IP address literal",
+                        id, value);
+                invalid.add(id);
+            }
+        }
+
+        if (!invalid.isEmpty()) {
+            throw new PersistenceException("IP addresses cannot be migrated, network devices " + invalid
+                    + " have an IP address that is not an IP address literal");
+        }
+
+        IpAddressConverter converter = new IpAddressConverter();
+        for (Object[] row : rows) {
+            entityManager.createNativeQuery(UPDATE)
+                    .setParameter(1, converter.convertToDatabaseColumn(IpAddress.valueOf((String) row[1])))
+                    .setParameter(2, row[0]).executeUpdate();
+        }
+
+        LOGGER.info("Migrated the IP addresses of {} network devices to sortable keys", Integer.valueOf(rows.size()));
+        return null;
+    }
+}
@@ -11,12 +11,13 @@ package org.opendaylight.testapp.persistence.model.persistence.jpa.query;
 import java.util.List;
 
 import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.query.ComputeQuery;
 import org.opendaylight.persistence.common.query.DeleteByIdQuery;
 import org.opendaylight.persistence.common.query.FindQuery;
 import org.opendaylight.persistence.common.query.GetQuery;
 import org.opendaylight.persistence.common.query.StoreQuery;
-import org.opendaylight.persistence.common.query.VoidQuery;
 import org.opendaylight.persistence.jpa.JpaContext;
+import org.opendaylight.persistence.util.common.Converter;
 import org.opendaylight.persistence.util.common.type.Id;
 import org.opendaylight.persistence.util.common.type.Sort;
 import org.opendaylight.testapp.common.model.NetworkDevice;
@@ -74,7 +75,8 @@ public class JpaQueryFactory implements QueryFactory<JpaContext>{
 
         @Override
         public Query<Void, JpaContext> createSchema() {
-            return VoidQuery.getInstance();
+            // Tables are created by the JPA provider, existing rows might need to be migrated
+            return IpAddressMigrationQuery.getInstance();
         }
     }
 
@@ -102,6 +104,18 @@ public class JpaQueryFactory implements QueryFactory<JpaContext>{
         public Query<Void, JpaContext> delete(Id<NetworkDevice, SerialNumber> id) {
             return DeleteByIdQuery.createQuery(id.getValue(), this.dao);
         }
+
+        @Override
+        public Query<NetworkDevice, JpaContext> compute(SerialNumber id,
+                Converter<NetworkDevice, NetworkDevice> remapping) {
+            return ComputeQuery.createLockingQuery(id, remapping, this.dao);
+        }
+
+        @Override
+        public Query<NetworkDevice, JpaContext> computeIfPresent(SerialNumber id,
+                Converter<NetworkDevice, NetworkDevice> remapping) {
+            return ComputeQuery.createLockingIfPresentQuery(id, remapping, this.dao);
+        }
     }
 
     private static class UserFactoryImpl implements UserFactory<JpaContext> {
@@ -130,5 +144,15 @@ public class JpaQueryFactory implements QueryFactory<JpaContext>{
         public Query<Void, JpaContext> delete(Id<User, Username> id) {
             return DeleteByIdQuery.createQuery(id.getValue(), this.dao);
         }
+
+        @Override
+        public Query<User, JpaContext> compute(Username id, Converter<User, User> remapping) {
+            return ComputeQuery.createLockingQuery(id, remapping, this.dao);
+        }
+
+        @Override
+        public Query<User, JpaContext> computeIfPresent(Username id, Converter<User, User> remapping) {
+            return ComputeQuery.createLockingIfPresentQuery(id, remapping, this.dao);
+        }
     }
 }
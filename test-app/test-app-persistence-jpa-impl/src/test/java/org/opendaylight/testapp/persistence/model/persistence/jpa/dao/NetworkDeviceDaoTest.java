@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.testapp.persistence.model.persistence.jpa.dao;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.query.FindQuery;
+import org.opendaylight.persistence.common.query.StoreQuery;
+import org.opendaylight.persistence.jpa.JpaContext;
+import org.opendaylight.persistence.jpa.JpaDataStore;
+import org.opendaylight.persistence.util.common.type.Id;
+import org.opendaylight.persistence.util.common.type.Sort;
+import org.opendaylight.testapp.common.model.NetworkDevice;
+import org.opendaylight.testapp.common.model.NetworkDeviceFilter;
+import org.opendaylight.testapp.common.model.NetworkDeviceSortKey;
+import org.opendaylight.testapp.common.type.CidrBlock;
+import org.opendaylight.testapp.common.type.IpAddress;
+import org.opendaylight.testapp.common.type.MacAddress;
+import org.opendaylight.testapp.common.type.ReachabilityStatus;
+import org.opendaylight.testapp.common.type.SerialNumber;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class NetworkDeviceDaoTest {
+
+    private static final MacAddress MAC_ADDRESS = MacAddress.valueOf("00:11:22:33:44:55");
+
+    private static EntityManagerFactory entityManagerFactory;
+
+    private NetworkDeviceDao dao;
+    private EntityManager entityManager;
+    private JpaDataStore dataStore;
+    private Map<String, IpAddress> addresses;
+
+    @BeforeClass
+    public static void beforeClass() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("testapp-test");
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        entityManagerFactory.close();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        this.dao = new NetworkDeviceDao();
+        this.entityManager = entityManagerFactory.createEntityManager();
+        this.dataStore = new JpaDataStore();
+        this.dataStore.setEntityManager(this.entityManager);
+
+        this.entityManager.getTransaction().begin();
+        this.entityManager.createQuery("DELETE FROM TrigramEntity").executeUpdate();
+        this.entityManager.createQuery("DELETE FROM NetworkDeviceEntity").executeUpdate();
+        this.entityManager.getTransaction().commit();
+
+        this.addresses = new LinkedHashMap<String, IpAddress>();
+        this.addresses.put("ipv4-before", IpAddress.valueOf("10.0.0.255"));
+        this.addresses.put("ipv4-first", IpAddress.valueOf("10.0.1.0"));
+        this.addresses.put("ipv4-middle", IpAddress.valueOf("10.0.1.77"));
+        this.addresses.put("ipv4-mapped", IpAddress.valueOf("::ffff:10.0.1.5"));
+        this.addresses.put("ipv4-last", IpAddress.valueOf("10.0.1.255"));
+        this.addresses.put("ipv4-after", IpAddress.valueOf("10.0.2.0"));
+        this.addresses.put("ipv6-before", IpAddress.valueOf("2001:db7:ffff:ffff:ffff:ffff:ffff:ffff"));
+        this.addresses.put("ipv6-first", IpAddress.valueOf("2001:db8::"));
+        this.addresses.put("ipv6-middle", IpAddress.valueOf("2001:db8::8000:0:0:1"));
+        this.addresses.put("ipv6-last", IpAddress.valueOf("2001:db8::ffff:ffff:ffff:ffff"));
+        this.addresses.put("ipv6-after", IpAddress.valueOf("2001:db8:0:1::"));
+        this.addresses.put("no-address", null);
+
+        for (Entry<String, IpAddress> entry : this.addresses.entrySet()) {
+            store(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @After
+    public void tearDown() {
+        this.entityManager.close();
+    }
+
+    @Test
+    public void testByIpV4AddressBlock() throws Exception {
+        assertBlock("10.0.1.0/24", "ipv4-first", "ipv4-middle", "ipv4-mapped", "ipv4-last");
+        assertBlock("10.0.1.0/25", "ipv4-first", "ipv4-middle", "ipv4-mapped");
+        assertBlock("10.0.1.255", "ipv4-last");
+        assertBlock("10.0.1.254/32");
+        assertBlock("0.0.0.0/0", "ipv4-before", "ipv4-first", "ipv4-middle", "ipv4-mapped", "ipv4-last",
+                "ipv4-after");
+    }
+
+    @Test
+    public void testByIpV4MappedAddressBlock() throws Exception {
+        assertBlock("::ffff:10.0.1.0/120", "ipv4-first", "ipv4-middle", "ipv4-mapped", "ipv4-last");
+        assertBlock("::ffff:10.0.1.5", "ipv4-mapped");
+        assertBlock("::ffff:0.0.0.0/96", "ipv4-before", "ipv4-first", "ipv4-middle", "ipv4-mapped", "ipv4-last",
+                "ipv4-after");
+    }
+
+    @Test
+    public void testByIpV6AddressBlock() throws Exception {
+        assertBlock("2001:db8::/64", "ipv6-first", "ipv6-middle", "ipv6-last");
+        assertBlock("2001:db8::/65", "ipv6-first");
+        assertBlock("2001:db8::ffff:ffff:ffff:ffff", "ipv6-last");
+        assertBlock("2001:db8::/32", "ipv6-first", "ipv6-middle", "ipv6-last", "ipv6-after");
+        assertBlock("::/0", "ipv4-before", "ipv4-first", "ipv4-middle", "ipv4-mapped", "ipv4-last", "ipv4-after",
+                "ipv6-before", "ipv6-first", "ipv6-middle", "ipv6-last", "ipv6-after");
+    }
+
+    @Test
+    public void testStoredAddressIsReloaded() throws Exception {
+        List<NetworkDevice> devices = find(NetworkDeviceFilter.all());
+        Assert.assertEquals(this.addresses.size(), devices.size());
+        for (NetworkDevice device : devices) {
+            Assert.assertEquals(this.addresses.get(device.getIdentifier().getValue()), device.getIpAddress());
+        }
+    }
+
+    private void assertBlock(String block, String... expectedDevices) throws PersistenceException {
+        CidrBlock cidrBlock = CidrBlock.valueOf(block);
+
+        Set<String> expected = new HashSet<String>(Arrays.asList(expectedDevices));
+        for (Entry<String, IpAddress> entry : this.addresses.entrySet()) {
+            boolean contained = entry.getValue() != null && cidrBlock.contains(entry.getValue());
+            Assert.assertEquals(block + " contains " + entry.getKey(), Boolean.valueOf(contained),
+                    Boolean.valueOf(expected.contains(entry.getKey())));
+        }
+
+        Set<String> found = new HashSet<String>();
+        for (NetworkDevice device : find(NetworkDeviceFilter.byIpAddressBlock(cidrBlock))) {
+            found.add(device.getIdentifier().getValue());
+        }
+        Assert.assertEquals(block, expected, found);
+    }
+
+    private void store(String name, IpAddress ipAddress) throws PersistenceException {
+        SerialNumber serialNumber = SerialNumber.valueOf(name);
+        NetworkDevice device = new NetworkDevice(Id.<NetworkDevice, SerialNumber> valueOf(serialNumber),
+                serialNumber, MAC_ADDRESS, ReachabilityStatus.REACHABLE);
+        device.setIpAddress(ipAddress);
+        execute(StoreQuery.createQuery(serialNumber, device, this.dao));
+    }
+
+    private List<NetworkDevice> find(NetworkDeviceFilter filter) throws PersistenceException {
+        return execute(FindQuery.createQuery(filter, (List<Sort<NetworkDeviceSortKey>>) null, this.dao));
+    }
+
+    private <T> T execute(Query<T, JpaContext> query) throws PersistenceException {
+        this.entityManager.getTransaction().begin();
+        try {
+            T result = this.dataStore.execute(query);
+            this.entityManager.getTransaction().commit();
+            return result;
+        } finally {
+            if (this.entityManager.getTransaction().isActive()) {
+                this.entityManager.getTransaction().rollback();
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2015 Hewlett-Packard Development Company, L.P. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.testapp.persistence.model.persistence.jpa.query;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.persistence.PersistenceException;
+import org.opendaylight.persistence.Query;
+import org.opendaylight.persistence.common.query.FindQuery;
+import org.opendaylight.persistence.jpa.JpaContext;
+import org.opendaylight.persistence.jpa.JpaDataStore;
+import org.opendaylight.persistence.util.common.type.Sort;
+import org.opendaylight.testapp.common.model.NetworkDevice;
+import org.opendaylight.testapp.common.model.NetworkDeviceFilter;
+import org.opendaylight.testapp.common.model.NetworkDeviceSortKey;
+import org.opendaylight.testapp.common.type.CidrBlock;
+import org.opendaylight.testapp.common.type.IpAddress;
+import org.opendaylight.testapp.persistence.model.persistence.jpa.dao.NetworkDeviceDao;
+import org.opendaylight.testapp.persistence.model.persistence.jpa.entity.IpAddressConverter;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public class IpAddressMigrationQueryTest {
+
+    private static EntityManagerFactory entityManagerFactory;
+
+    private NetworkDeviceDao dao;
+    private EntityManager entityManager;
+    private JpaDataStore dataStore;
+
+    @BeforeClass
+    public static void beforeClass() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("testapp-test");
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        entityManagerFactory.close();
+    }
+
+    @Before
+    public void setUp() {
+        this.dao = new NetworkDeviceDao();
+        this.entityManager = entityManagerFactory.createEntityManager();
+        this.dataStore = new JpaDataStore();
+        this.dataStore.setEntityManager(this.entityManager);
+
+        this.entityManager.getTransaction().begin();
+        this.entityManager.createQuery("DELETE FROM TrigramEntity").executeUpdate();
+        this.entityManager.createQuery("DELETE FROM NetworkDeviceEntity").executeUpdate();
+        this.entityManager.getTransaction().commit();
+    }
+
+    @After
+    public void tearDown() {
+        this.entityManager.close();
+    }
+
+    @Test
+    public void testMigration() throws Exception {
+        String encoded = new IpAddressConverter().convertToDatabaseColumn(IpAddress.valueOf("10.0.1.9"));
+
+        // Rows stored before addresses were encoded
+        this.entityManager.getTransaction().begin();
+        insert("ipv4", "10.0.1.5");
+        insert("ipv4-leading-zeros", "010.000.001.006");
+        insert("ipv4-mapped", "::ffff:10.0.1.7");
+        insert("ipv4-outside", "10.0.2.1");
+        insert("ipv6", "2001:DB8:0:0:0:0:0:1");
+        insert("encoded", encoded);
+        insert("no-address", null);
+        this.entityManager.getTransaction().commit();
+
+        execute(IpAddressMigrationQuery.getInstance());
+
+        assertBlock("10.0.1.0/24", "ipv4", "ipv4-leading-zeros", "ipv4-mapped", "encoded");
+        assertBlock("2001:db8::/32", "ipv6");
+        Assert.assertEquals(encoded, getStoredValue("encoded"));
+        Assert.assertNull(getStoredValue("no-address"));
+
+        // Idempotent
+        execute(IpAddressMigrationQuery.getInstance());
+        assertBlock("10.0.1.0/24", "ipv4", "ipv4-leading-zeros", "ipv4-mapped", "encoded");
+        Assert.assertEquals(7, execute(FindQuery.createQuery(NetworkDeviceFilter.all(),
+                (List<Sort<NetworkDeviceSortKey>>) null, this.dao)).size());
+    }
+
+    @Test
+    public void testMigrationFailsOnHostNames() throws Exception {
+        this.entityManager.getTransaction().begin();
+        insert("ipv4", "10.0.1.5");
+        insert("host-name", "device.example.com");
+        this.entityManager.getTransaction().commit();
+
+        try {
+            execute(IpAddressMigrationQuery.getInstance());
+            Assert.fail("Exception expected");
+        } catch (PersistenceException e) {
+            Assert.assertTrue(e.getMessage().contains("host-name"));
+        }
+
+        Assert.assertEquals("10.0.1.5", getStoredValue("ipv4"));
+        Assert.assertEquals("device.example.com", getStoredValue("host-name"));
+    }
+
+    private void insert(String id, String ipAddress) {
+        this.entityManager
+                .createNativeQuery("INSERT INTO network_device (id, mac_address, reachability_status)"
+                        + " VALUES (?1, '00:11:22:33:44:55', 'REACHABLE')").setParameter(1, id).executeUpdate();
+        if (ipAddress != null) {
+            this.entityManager.createNativeQuery("UPDATE network_device SET ip_address = ?1 WHERE id = ?2")
+                    .setParameter(1, ipAddress).setParameter(2, id).executeUpdate();
+        }
+    }
+
+    private String getStoredValue(String id) {
+        return (String) this.entityManager.createNativeQuery("SELECT ip_address FROM network_device WHERE id = ?1")
+                .setParameter(1, id).getSingleResult();
+    }
+
+    private void assertBlock(String block, String... expectedDevices) throws PersistenceException {
+        Set<String> found = new HashSet<String>();
+        List<NetworkDevice> devices = execute(FindQuery.createQuery(
+                NetworkDeviceFilter.byIpAddressBlock(CidrBlock.valueOf(block)),
+                (List<Sort<NetworkDeviceSortKey>>) null, this.dao));
+        for (NetworkDevice device : devices) {
+            found.add(device.getIdentifier().getValue());
+        }
+        Assert.assertEquals(block, new HashSet<String>(Arrays.asList(expectedDevices)), found);
+    }
+
+    private <T> T execute(Query<T, JpaContext> query) throws PersistenceException {
+        this.entityManager.getTransaction().begin();
+        try {
+            T result = this.dataStore.execute(query);
+            this.entityManager.getTransaction().commit();
+            return result;
+        } finally {
+            if (this.entityManager.getTransaction().isActive()) {
+                this.entityManager.getTransaction().rollback();
+            }
+        }
+    }
+}